@@ -0,0 +1,172 @@
+/*********************************************************************
+ * Copyright (c) 2013-2015 Carnegie Mellon University. All Rights Reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following acknowledgments and disclaimers.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *
+ * 3. The names "Carnegie Mellon University," "SEI" and/or
+ * "Software Engineering Institute" shall not be used to endorse or promote
+ * products derived from this software without prior written permission. For
+ * written permission, please contact permission@sei.cmu.edu.
+ *
+ * 4. Products derived from this software may not be called "SEI" nor may "SEI"
+ * appear in their names without prior written permission of
+ * permission@sei.cmu.edu.
+ *
+ * 5. Redistributions of any form whatsoever must retain the following
+ * acknowledgment:
+ *
+ * This material is based upon work funded and supported by the Department of
+ * Defense under Contract No. FA8721-05-C-0003 with Carnegie Mellon University
+ * for the operation of the Software Engineering Institute, a federally funded
+ * research and development center. Any opinions, findings and conclusions or
+ * recommendations expressed in this material are those of the author(s) and
+ * do not necessarily reflect the views of the United States Department of
+ * Defense.
+ *
+ * NO WARRANTY. THIS CARNEGIE MELLON UNIVERSITY AND SOFTWARE ENGINEERING
+ * INSTITUTE MATERIAL IS FURNISHED ON AN "AS-IS" BASIS. CARNEGIE MELLON
+ * UNIVERSITY MAKES NO WARRANTIES OF ANY KIND, EITHER EXPRESSED OR IMPLIED,
+ * AS TO ANY MATTER INCLUDING, BUT NOT LIMITED TO, WARRANTY OF FITNESS FOR
+ * PURPOSE OR MERCHANTABILITY, EXCLUSIVITY, OR RESULTS OBTAINED FROM USE OF THE
+ * MATERIAL. CARNEGIE MELLON UNIVERSITY DOES NOT MAKE ANY WARRANTY OF ANY KIND
+ * WITH RESPECT TO FREEDOM FROM PATENT, TRADEMARK, OR COPYRIGHT INFRINGEMENT.
+ *
+ * This material has been approved for public release and unlimited
+ * distribution.
+ *
+ * @author James Edmondson <jedmondson@gmail.com>
+ *********************************************************************/
+package ai.gams.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import ai.gams.exceptions.GamsDeadObjectException;
+import ai.gams.variables.Agent;
+import ai.gams.variables.Agents;
+import ai.gams.variables.SwarmSnapshot;
+import ai.madara.exceptions.MadaraDeadObjectException;
+import ai.madara.knowledge.KnowledgeBase;
+
+/**
+ * Cost of accessing agent variables through the MADARA container facades,
+ * and of reading a 200 agent swarm through cached views versus one packed
+ * call or a snapshot
+ **/
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AgentBenchmark
+{
+  private KnowledgeBase knowledge;
+  private Agent agent;
+  private Agents swarm;
+  private double[] locations;
+  private final SwarmSnapshot snapshot = new SwarmSnapshot();
+
+  private static final int SWARM_SIZE = 200;
+
+  @Setup
+  public void setup() throws GamsDeadObjectException, MadaraDeadObjectException
+  {
+    knowledge = new KnowledgeBase();
+    agent = new Agent();
+    agent.init(knowledge, "agent.0");
+    agent.location.resize(3);
+    agent.location.set(0, 40.0);
+    agent.location.set(1, -80.0);
+    agent.location.set(2, 100.0);
+
+    swarm = new Agents(knowledge, SWARM_SIZE);
+    for (Agent member : swarm)
+    {
+      member.location.resize(3);
+    }
+    locations = new double[SWARM_SIZE * 3];
+  }
+
+  @TearDown
+  public void tearDown()
+  {
+    agent.free();
+    swarm.free();
+    knowledge.free();
+  }
+
+  @Benchmark
+  public long readBattery() throws MadaraDeadObjectException
+  {
+    return agent.batteryRemaining.get();
+  }
+
+  @Benchmark
+  public void readLocation(Blackhole hole) throws MadaraDeadObjectException
+  {
+    hole.consume(agent.location.get(0));
+    hole.consume(agent.location.get(1));
+    hole.consume(agent.location.get(2));
+  }
+
+  @Benchmark
+  public void writeLocation() throws MadaraDeadObjectException
+  {
+    agent.location.set(0, 40.0);
+    agent.location.set(1, -80.0);
+    agent.location.set(2, 100.0);
+  }
+
+  @Benchmark
+  public void createAgentView() throws GamsDeadObjectException
+  {
+    Agent view = new Agent();
+    view.init(knowledge, "agent.1");
+    view.free();
+  }
+
+  @Benchmark
+  public void readSwarmViews(Blackhole hole) throws MadaraDeadObjectException
+  {
+    for (int i = 0; i < swarm.size(); ++i)
+    {
+      Agent member = swarm.get(i);
+      hole.consume(member.location.get(0));
+      hole.consume(member.location.get(1));
+      hole.consume(member.location.get(2));
+    }
+  }
+
+  @Benchmark
+  public double[] readSwarmPacked()
+  {
+    return swarm.getLocations(locations);
+  }
+
+  @Benchmark
+  public boolean refreshSwarmSnapshot()
+  {
+    return snapshot.refresh(swarm);
+  }
+}
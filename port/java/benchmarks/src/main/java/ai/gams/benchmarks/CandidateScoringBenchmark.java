@@ -0,0 +1,250 @@
+/*********************************************************************
+ * Copyright (c) 2013-2015 Carnegie Mellon University. All Rights Reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following acknowledgments and disclaimers.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *
+ * 3. The names "Carnegie Mellon University," "SEI" and/or
+ * "Software Engineering Institute" shall not be used to endorse or promote
+ * products derived from this software without prior written permission. For
+ * written permission, please contact permission@sei.cmu.edu.
+ *
+ * 4. Products derived from this software may not be called "SEI" nor may "SEI"
+ * appear in their names without prior written permission of
+ * permission@sei.cmu.edu.
+ *
+ * 5. Redistributions of any form whatsoever must retain the following
+ * acknowledgment:
+ *
+ * This material is based upon work funded and supported by the Department of
+ * Defense under Contract No. FA8721-05-C-0003 with Carnegie Mellon University
+ * for the operation of the Software Engineering Institute, a federally funded
+ * research and development center. Any opinions, findings and conclusions or
+ * recommendations expressed in this material are those of the author(s) and
+ * do not necessarily reflect the views of the United States Department of
+ * Defense.
+ *
+ * NO WARRANTY. THIS CARNEGIE MELLON UNIVERSITY AND SOFTWARE ENGINEERING
+ * INSTITUTE MATERIAL IS FURNISHED ON AN "AS-IS" BASIS. CARNEGIE MELLON
+ * UNIVERSITY MAKES NO WARRANTIES OF ANY KIND, EITHER EXPRESSED OR IMPLIED,
+ * AS TO ANY MATTER INCLUDING, BUT NOT LIMITED TO, WARRANTY OF FITNESS FOR
+ * PURPOSE OR MERCHANTABILITY, EXCLUSIVITY, OR RESULTS OBTAINED FROM USE OF THE
+ * MATERIAL. CARNEGIE MELLON UNIVERSITY DOES NOT MAKE ANY WARRANTY OF ANY KIND
+ * WITH RESPECT TO FREEDOM FROM PATENT, TRADEMARK, OR COPYRIGHT INFRINGEMENT.
+ *
+ * This material has been approved for public release and unlimited
+ * distribution.
+ *
+ * @author James Edmondson <jedmondson@gmail.com>
+ *********************************************************************/
+package ai.gams.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import ai.gams.exceptions.GamsDeadObjectException;
+import ai.gams.variables.Sensor;
+import ai.gams.variables.SensorCells;
+import ai.madara.knowledge.KnowledgeBase;
+
+/**
+ * Cost of scoring the candidate destinations of a min time coverage plan
+ * on native threads. The main method runs the benchmark for 1, 2, 4, ...
+ * threads up to the number of processors and prints the speedup over one
+ * thread, e.g.:
+ *
+ * java -cp target/benchmarks.jar ai.gams.benchmarks.CandidateScoringBenchmark
+ **/
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CandidateScoringBenchmark
+{
+  /**
+   * Number of cells along each side of the grid
+   **/
+  @Param({"1000"})
+  public int size;
+
+  /**
+   * Number of destinations scored per plan
+   **/
+  @Param({"4096"})
+  public int candidates;
+
+  /**
+   * Number of native threads that score destinations
+   **/
+  @Param({"1", "2", "4", "8"})
+  public int threads;
+
+  private KnowledgeBase knowledge;
+  private Sensor sensor;
+
+  private int[] ends;
+  private double[] results;
+  private double time;
+
+  @Setup
+  public void setup() throws GamsDeadObjectException
+  {
+    knowledge = new KnowledgeBase();
+    sensor = new Sensor();
+    sensor.init(knowledge, "coverage", 1.0);
+
+    int[] cells = new int[size * size * 2];
+    for (int y = 0, cur = 0; y < size; ++y)
+    {
+      for (int x = 0; x < size; ++x)
+      {
+        cells[cur++] = x;
+        cells[cur++] = y;
+      }
+    }
+    sensor.initUtilityCache(new SensorCells(cells), 0);
+
+    // scattered visits, so destinations differ in utility
+    Random random = new Random(1);
+    int[] visits = new int[size * 2];
+    for (int i = 0; i < visits.length; ++i)
+    {
+      visits[i] = random.nextInt(size);
+    }
+    for (time = 1; time <= 64; ++time)
+    {
+      sensor.markVisited(visits, time);
+      for (int i = 0; i < visits.length; ++i)
+      {
+        visits[i] = random.nextInt(size);
+      }
+    }
+    sensor.refreshUtilityCache(time);
+
+    int stride = Math.max(1,
+      (int)Math.ceil(Math.sqrt((double)size * size / candidates)));
+    int side = (size + stride - 1) / stride;
+    ends = new int[side * side * 2];
+    results = new double[side * side];
+    for (int cy = 0, cur = 0; cy < size; cy += stride)
+    {
+      for (int cx = 0; cx < size; cx += stride)
+      {
+        ends[cur++] = cx;
+        ends[cur++] = cy;
+      }
+    }
+
+    // the destination must not depend on the number of threads
+    int expected = best(1);
+    int actual = best(threads);
+    if (expected != actual)
+    {
+      throw new IllegalStateException("destination " + actual + " with " +
+        threads + " threads differs from " + expected + " with one thread");
+    }
+  }
+
+  @TearDown
+  public void tearDown() throws GamsDeadObjectException
+  {
+    sensor.free();
+    knowledge.free();
+  }
+
+  @Benchmark
+  public int score() throws GamsDeadObjectException
+  {
+    return best(threads);
+  }
+
+  /**
+   * Scores every destination from the center of the grid
+   * @param  count  the number of threads
+   * @return the index of the first destination of highest utility
+   **/
+  private int best(int count) throws GamsDeadObjectException
+  {
+    sensor.getPathUtilities(size / 2, size / 2, ends,
+      UtilityCacheBenchmark.RADIUS, time, results, count);
+
+    int best = 0;
+    for (int i = 1; i < results.length; ++i)
+    {
+      if (results[i] > results[best])
+        best = i;
+    }
+    return best;
+  }
+
+  /**
+   * Runs the benchmark for 1, 2, 4, ... threads up to the number of
+   * processors and prints the speedup over one thread. Accepts the
+   * standard JMH command line, e.g., -f 1 -wi 3 -i 5.
+   **/
+  public static void main(java.lang.String... args)
+    throws RunnerException, CommandLineOptionException
+  {
+    int processors = Runtime.getRuntime().availableProcessors();
+    List<Integer> counts = new ArrayList<Integer>();
+    for (int count = 1; count < processors; count *= 2)
+    {
+      counts.add(count);
+    }
+    counts.add(processors);
+
+    CommandLineOptions parent = new CommandLineOptions(args);
+    double[] scores = new double[counts.size()];
+    for (int i = 0; i < counts.size(); ++i)
+    {
+      RunResult result = new Runner(new OptionsBuilder()
+        .parent(parent)
+        .include(CandidateScoringBenchmark.class.getSimpleName())
+        .param("threads", counts.get(i).toString())
+        .build()).runSingle();
+
+      scores[i] = result.getPrimaryResult().getScore();
+    }
+
+    System.out.println();
+    System.out.println("Candidate scoring on " + processors + " processors");
+    System.out.println(String.format("%8s %12s %8s %10s",
+      "threads", "ms/op", "speedup", "efficiency"));
+    for (int i = 0; i < counts.size(); ++i)
+    {
+      double speedup = scores[0] / scores[i];
+      System.out.println(String.format("%8d %12.3f %8.2f %10.2f",
+        counts.get(i), scores[i], speedup, speedup / counts.get(i)));
+    }
+  }
+}
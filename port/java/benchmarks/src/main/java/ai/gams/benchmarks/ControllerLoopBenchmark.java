@@ -0,0 +1,142 @@
+/*********************************************************************
+ * Copyright (c) 2013-2015 Carnegie Mellon University. All Rights Reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following acknowledgments and disclaimers.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *
+ * 3. The names "Carnegie Mellon University," "SEI" and/or
+ * "Software Engineering Institute" shall not be used to endorse or promote
+ * products derived from this software without prior written permission. For
+ * written permission, please contact permission@sei.cmu.edu.
+ *
+ * 4. Products derived from this software may not be called "SEI" nor may "SEI"
+ * appear in their names without prior written permission of
+ * permission@sei.cmu.edu.
+ *
+ * 5. Redistributions of any form whatsoever must retain the following
+ * acknowledgment:
+ *
+ * This material is based upon work funded and supported by the Department of
+ * Defense under Contract No. FA8721-05-C-0003 with Carnegie Mellon University
+ * for the operation of the Software Engineering Institute, a federally funded
+ * research and development center. Any opinions, findings and conclusions or
+ * recommendations expressed in this material are those of the author(s) and
+ * do not necessarily reflect the views of the United States Department of
+ * Defense.
+ *
+ * NO WARRANTY. THIS CARNEGIE MELLON UNIVERSITY AND SOFTWARE ENGINEERING
+ * INSTITUTE MATERIAL IS FURNISHED ON AN "AS-IS" BASIS. CARNEGIE MELLON
+ * UNIVERSITY MAKES NO WARRANTIES OF ANY KIND, EITHER EXPRESSED OR IMPLIED,
+ * AS TO ANY MATTER INCLUDING, BUT NOT LIMITED TO, WARRANTY OF FITNESS FOR
+ * PURPOSE OR MERCHANTABILITY, EXCLUSIVITY, OR RESULTS OBTAINED FROM USE OF THE
+ * MATERIAL. CARNEGIE MELLON UNIVERSITY DOES NOT MAKE ANY WARRANTY OF ANY KIND
+ * WITH RESPECT TO FREEDOM FROM PATENT, TRADEMARK, OR COPYRIGHT INFRINGEMENT.
+ *
+ * This material has been approved for public release and unlimited
+ * distribution.
+ *
+ * @author James Edmondson <jedmondson@gmail.com>
+ *********************************************************************/
+package ai.gams.benchmarks;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import ai.gams.algorithms.DebuggerAlgorithm;
+import ai.gams.controllers.BaseController;
+import ai.gams.exceptions.GamsDeadObjectException;
+import ai.gams.platforms.DebuggerPlatform;
+import ai.madara.knowledge.KnowledgeBase;
+
+/**
+ * Overhead of the controller loop with the Java debugger platform and
+ * algorithm. Their console output is discarded while measuring so that
+ * the results reflect the loop and bridge rather than the terminal.
+ **/
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ControllerLoopBenchmark
+{
+  private KnowledgeBase knowledge;
+  private BaseController controller;
+  private PrintStream console;
+
+  @Setup
+  public void setup() throws GamsDeadObjectException
+  {
+    console = System.out;
+    System.setOut(new PrintStream(new OutputStream()
+    {
+      @Override
+      public void write(int b)
+      {
+      }
+
+      @Override
+      public void write(byte[] b, int off, int len)
+      {
+      }
+    }));
+
+    knowledge = new KnowledgeBase();
+    controller = new BaseController(knowledge);
+    controller.initVars(0, 1);
+    controller.initPlatform(new DebuggerPlatform());
+    controller.initAlgorithm(new DebuggerAlgorithm());
+  }
+
+  @TearDown
+  public void tearDown() throws GamsDeadObjectException
+  {
+    controller.free();
+    knowledge.free();
+    System.setOut(console);
+  }
+
+  /**
+   * One monitor, analyze, plan and execute pass driven from Java
+   **/
+  @Benchmark
+  public long mapeIteration() throws GamsDeadObjectException
+  {
+    long result = controller.monitor();
+    result |= controller.analyze();
+    result |= controller.plan();
+    result |= controller.execute();
+    return result;
+  }
+
+  /**
+   * One iteration of the native run loop, which also performs the
+   * system analysis and sends modified variables
+   **/
+  @Benchmark
+  public long runOnce() throws GamsDeadObjectException
+  {
+    return controller.run(0.0, 0.0);
+  }
+}
@@ -0,0 +1,180 @@
+/*********************************************************************
+ * Copyright (c) 2013-2015 Carnegie Mellon University. All Rights Reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following acknowledgments and disclaimers.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *
+ * 3. The names "Carnegie Mellon University," "SEI" and/or
+ * "Software Engineering Institute" shall not be used to endorse or promote
+ * products derived from this software without prior written permission. For
+ * written permission, please contact permission@sei.cmu.edu.
+ *
+ * 4. Products derived from this software may not be called "SEI" nor may "SEI"
+ * appear in their names without prior written permission of
+ * permission@sei.cmu.edu.
+ *
+ * 5. Redistributions of any form whatsoever must retain the following
+ * acknowledgment:
+ *
+ * This material is based upon work funded and supported by the Department of
+ * Defense under Contract No. FA8721-05-C-0003 with Carnegie Mellon University
+ * for the operation of the Software Engineering Institute, a federally funded
+ * research and development center. Any opinions, findings and conclusions or
+ * recommendations expressed in this material are those of the author(s) and
+ * do not necessarily reflect the views of the United States Department of
+ * Defense.
+ *
+ * NO WARRANTY. THIS CARNEGIE MELLON UNIVERSITY AND SOFTWARE ENGINEERING
+ * INSTITUTE MATERIAL IS FURNISHED ON AN "AS-IS" BASIS. CARNEGIE MELLON
+ * UNIVERSITY MAKES NO WARRANTIES OF ANY KIND, EITHER EXPRESSED OR IMPLIED,
+ * AS TO ANY MATTER INCLUDING, BUT NOT LIMITED TO, WARRANTY OF FITNESS FOR
+ * PURPOSE OR MERCHANTABILITY, EXCLUSIVITY, OR RESULTS OBTAINED FROM USE OF THE
+ * MATERIAL. CARNEGIE MELLON UNIVERSITY DOES NOT MAKE ANY WARRANTY OF ANY KIND
+ * WITH RESPECT TO FREEDOM FROM PATENT, TRADEMARK, OR COPYRIGHT INFRINGEMENT.
+ *
+ * This material has been approved for public release and unlimited
+ * distribution.
+ *
+ * @author James Edmondson <jedmondson@gmail.com>
+ *********************************************************************/
+package ai.gams.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import ai.gams.exceptions.GamsDeadObjectException;
+import ai.gams.utility.GeometryPool;
+import ai.gams.utility.GpsPosition;
+import ai.gams.utility.Position;
+import ai.gams.utility.PositionValue;
+
+/**
+ * Cost of reading and writing native positions field by field versus the
+ * bulk and heap-only accessors, and of temporaries from new/free versus
+ * the geometry pool
+ **/
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PositionBenchmark
+{
+  private Position position;
+  private GpsPosition gps;
+  private PositionValue value;
+  private final double[] buffer = new double[3];
+
+  @Setup
+  public void setup() throws GamsDeadObjectException
+  {
+    position = new Position(1.0, 2.0, 3.0);
+    gps = new GpsPosition(40.0, -80.0, 100.0);
+    value = new PositionValue(1.0, 2.0, 3.0);
+  }
+
+  @TearDown
+  public void tearDown() throws GamsDeadObjectException
+  {
+    position.free();
+    gps.free();
+  }
+
+  @Benchmark
+  public double getX() throws GamsDeadObjectException
+  {
+    return position.getX();
+  }
+
+  @Benchmark
+  public void writeBulk() throws GamsDeadObjectException
+  {
+    position.set(4.0, 5.0, 6.0);
+  }
+
+  @Benchmark
+  public double temporaryNewFree() throws GamsDeadObjectException
+  {
+    Position temporary = new Position(4.0, 5.0, 6.0);
+    double result = temporary.getX();
+    temporary.free();
+    return result;
+  }
+
+  @Benchmark
+  public double temporaryPooled() throws GamsDeadObjectException
+  {
+    GeometryPool pool = GeometryPool.get();
+    Position temporary = pool.acquirePosition(4.0, 5.0, 6.0);
+    double result = temporary.getX();
+    pool.release(temporary);
+    return result;
+  }
+
+  @Benchmark
+  public void setX() throws GamsDeadObjectException
+  {
+    position.setX(4.0);
+  }
+
+  @Benchmark
+  public void readFieldByField(Blackhole hole) throws GamsDeadObjectException
+  {
+    hole.consume(position.getX());
+    hole.consume(position.getY());
+    hole.consume(position.getZ());
+  }
+
+  @Benchmark
+  public double[] readBulk() throws GamsDeadObjectException
+  {
+    position.toArray(buffer);
+    return buffer;
+  }
+
+  @Benchmark
+  public PositionValue readValue() throws GamsDeadObjectException
+  {
+    return position.toValue();
+  }
+
+  @Benchmark
+  public void writeValue() throws GamsDeadObjectException
+  {
+    position.set(value);
+  }
+
+  @Benchmark
+  public void readGpsFieldByField(Blackhole hole) throws GamsDeadObjectException
+  {
+    hole.consume(gps.getLatitude());
+    hole.consume(gps.getLongitude());
+    hole.consume(gps.getAltitude());
+  }
+
+  @Benchmark
+  public double heapDistance()
+  {
+    return value.distanceTo(PositionValue.ORIGIN);
+  }
+}
@@ -0,0 +1,239 @@
+/*********************************************************************
+ * Copyright (c) 2013-2015 Carnegie Mellon University. All Rights Reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following acknowledgments and disclaimers.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *
+ * 3. The names "Carnegie Mellon University," "SEI" and/or
+ * "Software Engineering Institute" shall not be used to endorse or promote
+ * products derived from this software without prior written permission. For
+ * written permission, please contact permission@sei.cmu.edu.
+ *
+ * 4. Products derived from this software may not be called "SEI" nor may "SEI"
+ * appear in their names without prior written permission of
+ * permission@sei.cmu.edu.
+ *
+ * 5. Redistributions of any form whatsoever must retain the following
+ * acknowledgment:
+ *
+ * This material is based upon work funded and supported by the Department of
+ * Defense under Contract No. FA8721-05-C-0003 with Carnegie Mellon University
+ * for the operation of the Software Engineering Institute, a federally funded
+ * research and development center. Any opinions, findings and conclusions or
+ * recommendations expressed in this material are those of the author(s) and
+ * do not necessarily reflect the views of the United States Department of
+ * Defense.
+ *
+ * NO WARRANTY. THIS CARNEGIE MELLON UNIVERSITY AND SOFTWARE ENGINEERING
+ * INSTITUTE MATERIAL IS FURNISHED ON AN "AS-IS" BASIS. CARNEGIE MELLON
+ * UNIVERSITY MAKES NO WARRANTIES OF ANY KIND, EITHER EXPRESSED OR IMPLIED,
+ * AS TO ANY MATTER INCLUDING, BUT NOT LIMITED TO, WARRANTY OF FITNESS FOR
+ * PURPOSE OR MERCHANTABILITY, EXCLUSIVITY, OR RESULTS OBTAINED FROM USE OF THE
+ * MATERIAL. CARNEGIE MELLON UNIVERSITY DOES NOT MAKE ANY WARRANTY OF ANY KIND
+ * WITH RESPECT TO FREEDOM FROM PATENT, TRADEMARK, OR COPYRIGHT INFRINGEMENT.
+ *
+ * This material has been approved for public release and unlimited
+ * distribution.
+ *
+ * @author James Edmondson <jedmondson@gmail.com>
+ *********************************************************************/
+package ai.gams.benchmarks;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import ai.gams.exceptions.GamsDeadObjectException;
+import ai.gams.utility.GpsPosition;
+import ai.gams.utility.PrioritizedRegion;
+import ai.gams.utility.Region;
+import ai.gams.utility.RegionGeometry;
+import ai.gams.utility.SearchArea;
+import ai.gams.utility.SearchAreaIndex;
+
+/**
+ * Containment and priority queries through JNI compared with the pure
+ * Java geometry and search area index. Every benchmark answers the same
+ * fixed set of query points, so scores are reported per point.
+ **/
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RegionQueryBenchmark
+{
+  /**
+   * Number of query points answered per invocation
+   **/
+  public static final int QUERIES = 1024;
+
+  private static final double ORIGIN_LAT = 40.0;
+  private static final double ORIGIN_LON = -80.0;
+  private static final double SPAN = 0.01;
+
+  /**
+   * Number of prioritized regions in the search area
+   **/
+  @Param({"1", "16", "256"})
+  public int regions;
+
+  private Region region;
+  private RegionGeometry geometry;
+  private SearchArea area;
+  private SearchAreaIndex index;
+
+  private GpsPosition[] points;
+  private double[] lats;
+  private double[] lons;
+  private boolean[] inside;
+  private long[] priorities;
+
+  @Setup
+  public void setup() throws GamsDeadObjectException
+  {
+    region = square(new Region(), ORIGIN_LAT, ORIGIN_LON, SPAN);
+    geometry = region.getGeometry();
+
+    // tile the same span with a grid of regions of increasing priority
+    int side = (int)Math.ceil(Math.sqrt(regions));
+    double cell = SPAN / side;
+    area = new SearchArea();
+    for (int i = 0; i < regions; ++i)
+    {
+      PrioritizedRegion tile = new PrioritizedRegion();
+      square(tile, ORIGIN_LAT + (i / side) * cell,
+        ORIGIN_LON + (i % side) * cell, cell);
+      tile.setPriority(i + 1);
+      area.add(tile);
+      tile.free();
+    }
+    index = area.getIndex();
+
+    // a quarter of the points fall outside of the search area
+    Random random = new Random(42);
+    points = new GpsPosition[QUERIES];
+    lats = new double[QUERIES];
+    lons = new double[QUERIES];
+    inside = new boolean[QUERIES];
+    priorities = new long[QUERIES];
+    for (int i = 0; i < QUERIES; ++i)
+    {
+      lats[i] = ORIGIN_LAT - SPAN / 4 + random.nextDouble() * SPAN * 1.25;
+      lons[i] = ORIGIN_LON - SPAN / 4 + random.nextDouble() * SPAN * 1.25;
+      points[i] = new GpsPosition(lats[i], lons[i], 0);
+    }
+  }
+
+  @TearDown
+  public void tearDown() throws GamsDeadObjectException
+  {
+    for (GpsPosition point : points)
+    {
+      point.free();
+    }
+    area.free();
+    region.free();
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(QUERIES)
+  public void regionContainsNative(Blackhole hole) throws GamsDeadObjectException
+  {
+    for (int i = 0; i < QUERIES; ++i)
+    {
+      hole.consume(region.contains(points[i]));
+    }
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(QUERIES)
+  public void regionContainsGeometry(Blackhole hole)
+  {
+    for (int i = 0; i < QUERIES; ++i)
+    {
+      hole.consume(geometry.contains(lats[i], lons[i]));
+    }
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(QUERIES)
+  public int regionContainsAll()
+  {
+    return geometry.containsAll(lats, lons, inside);
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(QUERIES)
+  public void priorityNative(Blackhole hole) throws GamsDeadObjectException
+  {
+    for (int i = 0; i < QUERIES; ++i)
+    {
+      hole.consume(area.getPriority(points[i]));
+    }
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(QUERIES)
+  public void priorityIndex(Blackhole hole)
+  {
+    for (int i = 0; i < QUERIES; ++i)
+    {
+      hole.consume(index.getPriority(lats[i], lons[i]));
+    }
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(QUERIES)
+  public long[] priorityIndexAll()
+  {
+    index.getPriorities(lats, lons, priorities);
+    return priorities;
+  }
+
+  /**
+   * Adds the four corners of a square to a region
+   * @param  target  the region to add vertices to
+   * @param  lat     latitude of the south west corner
+   * @param  lon     longitude of the south west corner
+   * @param  span    length of each side in degrees
+   * @return the target region
+   **/
+  static <T extends Region> T square(T target, double lat, double lon,
+    double span) throws GamsDeadObjectException
+  {
+    double[][] corners = {
+      {lat, lon}, {lat, lon + span},
+      {lat + span, lon + span}, {lat + span, lon}};
+
+    for (double[] corner : corners)
+    {
+      GpsPosition vertex = new GpsPosition(corner[0], corner[1], 0);
+      target.addVertex(vertex);
+      vertex.free();
+    }
+    return target;
+  }
+}
@@ -0,0 +1,143 @@
+/*********************************************************************
+ * Copyright (c) 2013-2015 Carnegie Mellon University. All Rights Reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following acknowledgments and disclaimers.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *
+ * 3. The names "Carnegie Mellon University," "SEI" and/or
+ * "Software Engineering Institute" shall not be used to endorse or promote
+ * products derived from this software without prior written permission. For
+ * written permission, please contact permission@sei.cmu.edu.
+ *
+ * 4. Products derived from this software may not be called "SEI" nor may "SEI"
+ * appear in their names without prior written permission of
+ * permission@sei.cmu.edu.
+ *
+ * 5. Redistributions of any form whatsoever must retain the following
+ * acknowledgment:
+ *
+ * This material is based upon work funded and supported by the Department of
+ * Defense under Contract No. FA8721-05-C-0003 with Carnegie Mellon University
+ * for the operation of the Software Engineering Institute, a federally funded
+ * research and development center. Any opinions, findings and conclusions or
+ * recommendations expressed in this material are those of the author(s) and
+ * do not necessarily reflect the views of the United States Department of
+ * Defense.
+ *
+ * NO WARRANTY. THIS CARNEGIE MELLON UNIVERSITY AND SOFTWARE ENGINEERING
+ * INSTITUTE MATERIAL IS FURNISHED ON AN "AS-IS" BASIS. CARNEGIE MELLON
+ * UNIVERSITY MAKES NO WARRANTIES OF ANY KIND, EITHER EXPRESSED OR IMPLIED,
+ * AS TO ANY MATTER INCLUDING, BUT NOT LIMITED TO, WARRANTY OF FITNESS FOR
+ * PURPOSE OR MERCHANTABILITY, EXCLUSIVITY, OR RESULTS OBTAINED FROM USE OF THE
+ * MATERIAL. CARNEGIE MELLON UNIVERSITY DOES NOT MAKE ANY WARRANTY OF ANY KIND
+ * WITH RESPECT TO FREEDOM FROM PATENT, TRADEMARK, OR COPYRIGHT INFRINGEMENT.
+ *
+ * This material has been approved for public release and unlimited
+ * distribution.
+ *
+ * @author James Edmondson <jedmondson@gmail.com>
+ *********************************************************************/
+package ai.gams.benchmarks;
+
+import java.util.HashSet;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import ai.gams.exceptions.GamsDeadObjectException;
+import ai.gams.utility.GpsPosition;
+import ai.gams.utility.Position;
+import ai.gams.utility.Region;
+import ai.gams.variables.Sensor;
+import ai.gams.variables.SensorCells;
+import ai.madara.knowledge.KnowledgeBase;
+
+/**
+ * Cost of discretizing a region into sensor cells, comparing the set of
+ * native positions with the packed primitive results
+ **/
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SensorDiscretizationBenchmark
+{
+  /**
+   * Length of a region side in meters. With a 1m sensor range this is
+   * also the number of cells along each side.
+   **/
+  @Param({"10", "50", "200"})
+  public int meters;
+
+  private KnowledgeBase knowledge;
+  private Sensor sensor;
+  private Region region;
+
+  @Setup
+  public void setup() throws GamsDeadObjectException
+  {
+    knowledge = new KnowledgeBase();
+    sensor = new Sensor();
+    sensor.init(knowledge, "coverage", 1.0);
+
+    GpsPosition origin = new GpsPosition(40.0, -80.0, 0);
+    sensor.setOrigin(origin);
+    origin.free();
+
+    // roughly 111km per degree of latitude; close enough for sizing
+    region = RegionQueryBenchmark.square(
+      new Region(), 40.0, -80.0, meters / 111000.0);
+  }
+
+  @TearDown
+  public void tearDown() throws GamsDeadObjectException
+  {
+    region.free();
+    sensor.free();
+    knowledge.free();
+  }
+
+  @Benchmark
+  public int discretize() throws GamsDeadObjectException
+  {
+    HashSet<Position> cells = sensor.discretize(region);
+    int size = cells.size();
+    for (Position cell : cells)
+    {
+      cell.free();
+    }
+    return size;
+  }
+
+  @Benchmark
+  public int[] discretizeToArray() throws GamsDeadObjectException
+  {
+    return sensor.discretizeToArray(region);
+  }
+
+  @Benchmark
+  public SensorCells discretizeCells() throws GamsDeadObjectException
+  {
+    return sensor.discretizeCells(region);
+  }
+}
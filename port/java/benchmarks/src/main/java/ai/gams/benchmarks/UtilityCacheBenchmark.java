@@ -0,0 +1,214 @@
+/*********************************************************************
+ * Copyright (c) 2013-2015 Carnegie Mellon University. All Rights Reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following acknowledgments and disclaimers.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *
+ * 3. The names "Carnegie Mellon University," "SEI" and/or
+ * "Software Engineering Institute" shall not be used to endorse or promote
+ * products derived from this software without prior written permission. For
+ * written permission, please contact permission@sei.cmu.edu.
+ *
+ * 4. Products derived from this software may not be called "SEI" nor may "SEI"
+ * appear in their names without prior written permission of
+ * permission@sei.cmu.edu.
+ *
+ * 5. Redistributions of any form whatsoever must retain the following
+ * acknowledgment:
+ *
+ * This material is based upon work funded and supported by the Department of
+ * Defense under Contract No. FA8721-05-C-0003 with Carnegie Mellon University
+ * for the operation of the Software Engineering Institute, a federally funded
+ * research and development center. Any opinions, findings and conclusions or
+ * recommendations expressed in this material are those of the author(s) and
+ * do not necessarily reflect the views of the United States Department of
+ * Defense.
+ *
+ * NO WARRANTY. THIS CARNEGIE MELLON UNIVERSITY AND SOFTWARE ENGINEERING
+ * INSTITUTE MATERIAL IS FURNISHED ON AN "AS-IS" BASIS. CARNEGIE MELLON
+ * UNIVERSITY MAKES NO WARRANTIES OF ANY KIND, EITHER EXPRESSED OR IMPLIED,
+ * AS TO ANY MATTER INCLUDING, BUT NOT LIMITED TO, WARRANTY OF FITNESS FOR
+ * PURPOSE OR MERCHANTABILITY, EXCLUSIVITY, OR RESULTS OBTAINED FROM USE OF THE
+ * MATERIAL. CARNEGIE MELLON UNIVERSITY DOES NOT MAKE ANY WARRANTY OF ANY KIND
+ * WITH RESPECT TO FREEDOM FROM PATENT, TRADEMARK, OR COPYRIGHT INFRINGEMENT.
+ *
+ * This material has been approved for public release and unlimited
+ * distribution.
+ *
+ * @author James Edmondson <jedmondson@gmail.com>
+ *********************************************************************/
+package ai.gams.benchmarks;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import ai.gams.exceptions.GamsDeadObjectException;
+import ai.gams.variables.Sensor;
+import ai.gams.variables.SensorCells;
+import ai.madara.knowledge.KnowledgeBase;
+
+/**
+ * Cost of a min time coverage plan on the sensor utility cache. Each plan
+ * marks some cells as visited, refreshes the touched rows and scores a
+ * lattice of destinations from the center of the grid, like
+ * MinTimeAreaCoverage does natively. fullRefresh touches one cell in every
+ * row, which is the cost of recomputing the whole grid on every plan.
+ **/
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UtilityCacheBenchmark
+{
+  /**
+   * Path radius of MinTimeAreaCoverage, in cells
+   **/
+  public static final double RADIUS = Math.sqrt(0.5);
+
+  /**
+   * Number of cells along each side of the grid
+   **/
+  @Param({"1000"})
+  public int size;
+
+  /**
+   * Number of cells visited between plans
+   **/
+  @Param({"16", "256"})
+  public int touched;
+
+  /**
+   * Number of destinations scored per plan
+   **/
+  @Param({"4096"})
+  public int candidates;
+
+  private KnowledgeBase knowledge;
+  private Sensor sensor;
+
+  private int[] visits;
+  private int[] allRows;
+  private int[] ends;
+  private double[] results;
+  private double time = 1;
+
+  @Setup
+  public void setup() throws GamsDeadObjectException
+  {
+    knowledge = new KnowledgeBase();
+    sensor = new Sensor();
+    sensor.init(knowledge, "coverage", 1.0);
+
+    int[] cells = new int[size * size * 2];
+    for (int y = 0, cur = 0; y < size; ++y)
+    {
+      for (int x = 0; x < size; ++x)
+      {
+        cells[cur++] = x;
+        cells[cur++] = y;
+      }
+    }
+    sensor.initUtilityCache(new SensorCells(cells), 0);
+
+    // a random walk of visits, like an agent crossing the grid
+    Random random = new Random(1);
+    visits = new int[touched * 2];
+    int x = size / 2;
+    int y = size / 2;
+    for (int i = 0; i < touched; ++i)
+    {
+      x = Math.max(0, Math.min(size - 1, x + random.nextInt(3) - 1));
+      y = Math.max(0, Math.min(size - 1, y + random.nextInt(3) - 1));
+      visits[2 * i] = x;
+      visits[2 * i + 1] = y;
+    }
+
+    allRows = new int[size * 2];
+    for (int row = 0; row < size; ++row)
+    {
+      allRows[2 * row] = random.nextInt(size);
+      allRows[2 * row + 1] = row;
+    }
+
+    int stride = Math.max(1,
+      (int)Math.ceil(Math.sqrt((double)size * size / candidates)));
+    int side = (size + stride - 1) / stride;
+    ends = new int[side * side * 2];
+    results = new double[side * side];
+    for (int cy = 0, cur = 0; cy < size; cy += stride)
+    {
+      for (int cx = 0; cx < size; cx += stride)
+      {
+        ends[cur++] = cx;
+        ends[cur++] = cy;
+      }
+    }
+  }
+
+  @TearDown
+  public void tearDown() throws GamsDeadObjectException
+  {
+    sensor.free();
+    knowledge.free();
+  }
+
+  @Benchmark
+  public int refresh() throws GamsDeadObjectException
+  {
+    time += 1;
+    sensor.markVisited(visits, time);
+    return sensor.refreshUtilityCache(time);
+  }
+
+  @Benchmark
+  public double plan() throws GamsDeadObjectException
+  {
+    time += 1;
+    sensor.markVisited(visits, time);
+    sensor.refreshUtilityCache(time);
+    return score();
+  }
+
+  @Benchmark
+  public double fullRefresh() throws GamsDeadObjectException
+  {
+    time += 1;
+    sensor.markVisited(allRows, time);
+    sensor.refreshUtilityCache(time);
+    return score();
+  }
+
+  private double score() throws GamsDeadObjectException
+  {
+    sensor.getPathUtilities(size / 2, size / 2, ends, RADIUS, time, results);
+
+    double best = -Double.MAX_VALUE;
+    for (int i = 0; i < results.length; ++i)
+    {
+      best = Math.max(best, results[i]);
+    }
+    return best;
+  }
+}
@@ -0,0 +1,81 @@
+#include "ai_gams_NativeAllocations.h"
+#include "gams/controllers/BaseController.h"
+#include "gams/controllers/Multicontroller.h"
+#include "gams/maps/Grid.h"
+#include "gams/maps/GridSync.h"
+#include "gams/pose/Orientation.h"
+#include "gams/pose/PrioritizedRegion.h"
+#include "gams/pose/Region.h"
+#include "gams/pose/SearchArea.h"
+#include "gams/utility/GPSPosition.h"
+#include "gams/utility/Position.h"
+#include "gams/variables/AccentStatus.h"
+#include "gams/variables/Agent.h"
+#include "gams/variables/AlgorithmStatus.h"
+#include "gams/variables/PlatformStatus.h"
+#include "gams/variables/Region.h"
+#include "gams/variables/Self.h"
+#include "gams/variables/Sensor.h"
+#include "gams/variables/Swarm.h"
+
+#include <string>
+
+namespace controllers = gams::controllers;
+namespace pose = gams::pose;
+namespace utility = gams::utility;
+namespace variables = gams::variables;
+
+/*
+ * Class:     ai_gams_NativeAllocations
+ * Method:    jni_sizeOf
+ * Signature: (Ljava/lang/String;)J
+ */
+jlong JNICALL Java_ai_gams_NativeAllocations_jni_1sizeOf
+  (JNIEnv * env, jclass, jstring type)
+{
+  jlong result (0);
+
+  const char * str_type = env->GetStringUTFChars (type, 0);
+  std::string name (str_type);
+  env->ReleaseStringUTFChars (type, str_type);
+
+  // the names are the Java wrapper classes that own the C objects
+  if (name == "ai.gams.controllers.BaseController")
+    result = sizeof (controllers::BaseController);
+  else if (name == "ai.gams.maps.Grid")
+    result = sizeof (variables::Grid);
+  else if (name == "ai.gams.maps.GridSync")
+    result = sizeof (variables::GridSync);
+  else if (name == "ai.gams.controllers.Multicontroller")
+    result = sizeof (controllers::Multicontroller);
+  else if (name == "ai.gams.utility.Axes")
+    result = sizeof (pose::Orientation);
+  else if (name == "ai.gams.utility.Position")
+    result = sizeof (utility::Position);
+  else if (name == "ai.gams.utility.GpsPosition")
+    result = sizeof (utility::GPSPosition);
+  else if (name == "ai.gams.utility.Region")
+    result = sizeof (pose::Region);
+  else if (name == "ai.gams.utility.PrioritizedRegion")
+    result = sizeof (pose::PrioritizedRegion);
+  else if (name == "ai.gams.utility.SearchArea")
+    result = sizeof (pose::SearchArea);
+  else if (name == "ai.gams.variables.AccentStatus")
+    result = sizeof (variables::AccentStatus);
+  else if (name == "ai.gams.variables.Agent")
+    result = sizeof (variables::Agent);
+  else if (name == "ai.gams.variables.AlgorithmStatus")
+    result = sizeof (variables::AlgorithmStatus);
+  else if (name == "ai.gams.variables.PlatformStatus")
+    result = sizeof (variables::PlatformStatus);
+  else if (name == "ai.gams.variables.Region")
+    result = sizeof (variables::Region);
+  else if (name == "ai.gams.variables.Self")
+    result = sizeof (variables::Self);
+  else if (name == "ai.gams.variables.Sensor")
+    result = sizeof (variables::Sensor);
+  else if (name == "ai.gams.variables.Swarm")
+    result = sizeof (variables::Swarm);
+
+  return result;
+}
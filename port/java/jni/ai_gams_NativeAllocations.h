@@ -0,0 +1,22 @@
+/* DO NOT EDIT THIS FILE - it is machine generated */
+#include <jni.h>
+#include "gams/GamsExport.h"
+/* Header for class ai_gams_NativeAllocations */
+
+#ifndef _Included_ai_gams_NativeAllocations
+#define _Included_ai_gams_NativeAllocations
+#ifdef __cplusplus
+extern "C" {
+#endif
+/*
+ * Class:     ai_gams_NativeAllocations
+ * Method:    jni_sizeOf
+ * Signature: (Ljava/lang/String;)J
+ */
+GAMS_EXPORT jlong JNICALL Java_ai_gams_NativeAllocations_jni_1sizeOf
+  (JNIEnv *, jclass, jstring);
+
+#ifdef __cplusplus
+}
+#endif
+#endif
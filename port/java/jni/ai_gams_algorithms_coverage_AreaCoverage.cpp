@@ -0,0 +1,358 @@
+#include "ai_gams_algorithms_coverage_AreaCoverage.h"
+#include "gams/algorithms/area_coverage/BaseAreaCoverage.h"
+#include "gams/algorithms/java/JavaPositionGenerator.h"
+#include "gams/controllers/BaseController.h"
+#include "gams/loggers/GlobalLogger.h"
+#include "gams_jni.h"
+
+#include <string>
+#include <vector>
+
+namespace algorithms = gams::algorithms;
+namespace area_coverage = gams::algorithms::area_coverage;
+namespace controllers = gams::controllers;
+namespace knowledge = madara::knowledge;
+
+namespace
+{
+  /**
+   * Checks if a factory name creates a BaseAreaCoverage. Only these
+   * may be cast from the controller's algorithm.
+   **/
+  bool is_area_coverage (const std::string & type)
+  {
+    static const char * types[] = {
+      "snake", "sac",
+      "urac", "uniform random area coverage",
+      "urec", "uniform random edge coverage",
+      "ppac", "perimeter patrol area coverage",
+      "pwrac", "priority weighted random area coverage",
+      "mtac", "min time",
+      "pmtac", "prioritized min time area coverage",
+      "waypoints coverage", "waypoints_coverage"
+    };
+
+    std::string lower (type);
+    madara::utility::lower (lower);
+
+    for (size_t i = 0; i < sizeof (types) / sizeof (types[0]); ++i)
+    {
+      if (lower == types[i])
+      {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Converts a String, Number or double[] into a knowledge record
+   **/
+  knowledge::KnowledgeRecord to_record (JNIEnv * env, jobject value)
+  {
+    knowledge::KnowledgeRecord result;
+
+    jclass string_class = env->FindClass ("java/lang/String");
+    jclass double_class = env->FindClass ("java/lang/Double");
+    jclass float_class = env->FindClass ("java/lang/Float");
+    jclass number_class = env->FindClass ("java/lang/Number");
+    jclass array_class = env->FindClass ("[D");
+
+    if (env->IsInstanceOf (value, string_class))
+    {
+      const char * str_value = env->GetStringUTFChars ((jstring)value, 0);
+      result.set_value (std::string (str_value));
+      env->ReleaseStringUTFChars ((jstring)value, str_value);
+    }
+    else if (env->IsInstanceOf (value, double_class) ||
+      env->IsInstanceOf (value, float_class))
+    {
+      jmethodID call = env->GetMethodID (number_class, "doubleValue", "()D");
+      result.set_value (env->CallDoubleMethod (value, call));
+    }
+    else if (env->IsInstanceOf (value, number_class))
+    {
+      jmethodID call = env->GetMethodID (number_class, "longValue", "()J");
+      result.set_value (
+        (knowledge::KnowledgeRecord::Integer)env->CallLongMethod (value, call));
+    }
+    else if (env->IsInstanceOf (value, array_class))
+    {
+      jdoubleArray array = (jdoubleArray)value;
+      std::vector <double> values (env->GetArrayLength (array));
+      if (values.size () > 0)
+      {
+        env->GetDoubleArrayRegion (array, 0, (jsize)values.size (), &values[0]);
+      }
+      result.set_value (values);
+    }
+
+    env->DeleteLocalRef (string_class);
+    env->DeleteLocalRef (double_class);
+    env->DeleteLocalRef (float_class);
+    env->DeleteLocalRef (number_class);
+    env->DeleteLocalRef (array_class);
+
+    return result;
+  }
+}
+
+/*
+ * Class:     ai_gams_algorithms_coverage_AreaCoverage
+ * Method:    jni_attach
+ * Signature: (JLjava/lang/String;[Ljava/lang/String;[Ljava/lang/Object;)J
+ */
+jlong JNICALL Java_ai_gams_algorithms_coverage_AreaCoverage_jni_1attach
+  (JNIEnv * env, jobject, jlong controller, jstring type,
+  jobjectArray keys, jobjectArray values)
+{
+  jlong result (0);
+
+  controllers::BaseController * current =
+    (controllers::BaseController *) controller;
+
+  if (current)
+  {
+    const char * str_type = env->GetStringUTFChars (type, 0);
+    std::string name (str_type);
+    env->ReleaseStringUTFChars (type, str_type);
+
+    if (is_area_coverage (name))
+    {
+      knowledge::KnowledgeMap args;
+      jsize count = env->GetArrayLength (keys);
+
+      for (jsize i = 0; i < count; ++i)
+      {
+        jstring key = (jstring)env->GetObjectArrayElement (keys, i);
+        jobject value = env->GetObjectArrayElement (values, i);
+
+        const char * str_key = env->GetStringUTFChars (key, 0);
+        args[str_key] = to_record (env, value);
+        env->ReleaseStringUTFChars (key, str_key);
+
+        env->DeleteLocalRef (key);
+        env->DeleteLocalRef (value);
+      }
+
+      current->init_algorithm (name, args);
+
+      // the factory for name only creates area coverages
+      result = (jlong) static_cast <area_coverage::BaseAreaCoverage *> (
+        current->get_algorithm ());
+    }
+    else
+    {
+      madara_logger_ptr_log (gams::loggers::global_logger.get (),
+        gams::loggers::LOG_ERROR,
+        "AreaCoverage::attach:" \
+        " %s is not an area coverage\n", name.c_str ());
+    }
+  }
+  else
+  {
+    // user has tried to use a deleted object. Clean up and throw
+    
+    gams::utility::java::throw_dead_obj_exception(env,
+      "AreaCoverage::attach: "
+      "BaseController object is released already");
+  }
+
+  return result;
+}
+
+/*
+ * Class:     ai_gams_algorithms_coverage_AreaCoverage
+ * Method:    jni_setPositionGenerator
+ * Signature: (JLjava/lang/Object;)V
+ */
+void JNICALL Java_ai_gams_algorithms_coverage_AreaCoverage_jni_1setPositionGenerator
+  (JNIEnv * env, jobject, jlong cptr, jobject obj)
+{
+  area_coverage::BaseAreaCoverage * current =
+    (area_coverage::BaseAreaCoverage *) cptr;
+
+  if (current)
+  {
+    current->set_position_generator (
+      obj ? new algorithms::JavaPositionGenerator (obj) : 0);
+  }
+  else
+  {
+    // user has tried to use a deleted object. Clean up and throw
+    
+    gams::utility::java::throw_dead_obj_exception(env,
+      "AreaCoverage::setPositionGenerator: "
+      "AreaCoverage object is released already");
+  }
+}
+
+/*
+ * Class:     ai_gams_algorithms_coverage_AreaCoverage
+ * Method:    jni_generateNativePosition
+ * Signature: (J)V
+ */
+void JNICALL Java_ai_gams_algorithms_coverage_AreaCoverage_jni_1generateNativePosition
+  (JNIEnv * env, jobject, jlong cptr)
+{
+  area_coverage::BaseAreaCoverage * current =
+    (area_coverage::BaseAreaCoverage *) cptr;
+
+  if (current)
+  {
+    current->generate_native_position ();
+  }
+  else
+  {
+    // user has tried to use a deleted object. Clean up and throw
+    
+    gams::utility::java::throw_dead_obj_exception(env,
+      "AreaCoverage::generateNativePosition: "
+      "AreaCoverage object is released already");
+  }
+}
+
+/*
+ * Class:     ai_gams_algorithms_coverage_AreaCoverage
+ * Method:    jni_getNextPosition
+ * Signature: (J[D)V
+ */
+void JNICALL Java_ai_gams_algorithms_coverage_AreaCoverage_jni_1getNextPosition
+  (JNIEnv * env, jobject, jlong cptr, jdoubleArray position)
+{
+  area_coverage::BaseAreaCoverage * current =
+    (area_coverage::BaseAreaCoverage *) cptr;
+
+  if (current)
+  {
+    gams::utility::GPSPosition next = current->get_next_position ();
+
+    jdouble values[] = {
+      next.latitude (), next.longitude (), next.altitude ()
+    };
+
+    env->SetDoubleArrayRegion (position, 0, 3, values);
+  }
+  else
+  {
+    // user has tried to use a deleted object. Clean up and throw
+    
+    gams::utility::java::throw_dead_obj_exception(env,
+      "AreaCoverage::getNextPosition: "
+      "AreaCoverage object is released already");
+  }
+}
+
+/*
+ * Class:     ai_gams_algorithms_coverage_AreaCoverage
+ * Method:    jni_setNextPosition
+ * Signature: (JDDD)V
+ */
+void JNICALL Java_ai_gams_algorithms_coverage_AreaCoverage_jni_1setNextPosition
+  (JNIEnv * env, jobject, jlong cptr,
+  jdouble latitude, jdouble longitude, jdouble altitude)
+{
+  area_coverage::BaseAreaCoverage * current =
+    (area_coverage::BaseAreaCoverage *) cptr;
+
+  if (current)
+  {
+    current->set_next_position (
+      gams::utility::GPSPosition (latitude, longitude, altitude));
+  }
+  else
+  {
+    // user has tried to use a deleted object. Clean up and throw
+    
+    gams::utility::java::throw_dead_obj_exception(env,
+      "AreaCoverage::setNextPosition: "
+      "AreaCoverage object is released already");
+  }
+}
+
+/*
+ * Class:     ai_gams_algorithms_coverage_AreaCoverage
+ * Method:    jni_isInitialized
+ * Signature: (J)Z
+ */
+jboolean JNICALL Java_ai_gams_algorithms_coverage_AreaCoverage_jni_1isInitialized
+  (JNIEnv * env, jobject, jlong cptr)
+{
+  jboolean result (JNI_FALSE);
+
+  area_coverage::BaseAreaCoverage * current =
+    (area_coverage::BaseAreaCoverage *) cptr;
+
+  if (current)
+  {
+    result = current->is_initialized () ? JNI_TRUE : JNI_FALSE;
+  }
+  else
+  {
+    // user has tried to use a deleted object. Clean up and throw
+    
+    gams::utility::java::throw_dead_obj_exception(env,
+      "AreaCoverage::isInitialized: "
+      "AreaCoverage object is released already");
+  }
+
+  return result;
+}
+
+/*
+ * Class:     ai_gams_algorithms_coverage_AreaCoverage
+ * Method:    jni_getKnowledgeBase
+ * Signature: (J)J
+ */
+jlong JNICALL Java_ai_gams_algorithms_coverage_AreaCoverage_jni_1getKnowledgeBase
+  (JNIEnv * env, jobject, jlong cptr)
+{
+  jlong result (0);
+
+  area_coverage::BaseAreaCoverage * current =
+    (area_coverage::BaseAreaCoverage *) cptr;
+
+  if (current)
+  {
+    result = (jlong) current->get_knowledge_base ();
+  }
+  else
+  {
+    // user has tried to use a deleted object. Clean up and throw
+    
+    gams::utility::java::throw_dead_obj_exception(env,
+      "AreaCoverage::getKnowledgeBase: "
+      "AreaCoverage object is released already");
+  }
+
+  return result;
+}
+
+/*
+ * Class:     ai_gams_algorithms_coverage_AreaCoverage
+ * Method:    jni_getSelf
+ * Signature: (J)J
+ */
+jlong JNICALL Java_ai_gams_algorithms_coverage_AreaCoverage_jni_1getSelf
+  (JNIEnv * env, jobject, jlong cptr)
+{
+  jlong result (0);
+
+  area_coverage::BaseAreaCoverage * current =
+    (area_coverage::BaseAreaCoverage *) cptr;
+
+  if (current)
+  {
+    result = (jlong) current->get_self ();
+  }
+  else
+  {
+    // user has tried to use a deleted object. Clean up and throw
+    
+    gams::utility::java::throw_dead_obj_exception(env,
+      "AreaCoverage::getSelf: "
+      "AreaCoverage object is released already");
+  }
+
+  return result;
+}
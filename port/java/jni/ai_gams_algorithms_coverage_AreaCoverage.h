@@ -0,0 +1,78 @@
+/* DO NOT EDIT THIS FILE - it is machine generated */
+#include <jni.h>
+#include "gams/GamsExport.h"
+/* Header for class ai_gams_algorithms_coverage_AreaCoverage */
+
+#ifndef _Included_ai_gams_algorithms_coverage_AreaCoverage
+#define _Included_ai_gams_algorithms_coverage_AreaCoverage
+#ifdef __cplusplus
+extern "C" {
+#endif
+/*
+ * Class:     ai_gams_algorithms_coverage_AreaCoverage
+ * Method:    jni_attach
+ * Signature: (JLjava/lang/String;[Ljava/lang/String;[Ljava/lang/Object;)J
+ */
+GAMS_EXPORT jlong JNICALL Java_ai_gams_algorithms_coverage_AreaCoverage_jni_1attach
+  (JNIEnv *, jobject, jlong, jstring, jobjectArray, jobjectArray);
+
+/*
+ * Class:     ai_gams_algorithms_coverage_AreaCoverage
+ * Method:    jni_setPositionGenerator
+ * Signature: (JLjava/lang/Object;)V
+ */
+GAMS_EXPORT void JNICALL Java_ai_gams_algorithms_coverage_AreaCoverage_jni_1setPositionGenerator
+  (JNIEnv *, jobject, jlong, jobject);
+
+/*
+ * Class:     ai_gams_algorithms_coverage_AreaCoverage
+ * Method:    jni_generateNativePosition
+ * Signature: (J)V
+ */
+GAMS_EXPORT void JNICALL Java_ai_gams_algorithms_coverage_AreaCoverage_jni_1generateNativePosition
+  (JNIEnv *, jobject, jlong);
+
+/*
+ * Class:     ai_gams_algorithms_coverage_AreaCoverage
+ * Method:    jni_getNextPosition
+ * Signature: (J[D)V
+ */
+GAMS_EXPORT void JNICALL Java_ai_gams_algorithms_coverage_AreaCoverage_jni_1getNextPosition
+  (JNIEnv *, jobject, jlong, jdoubleArray);
+
+/*
+ * Class:     ai_gams_algorithms_coverage_AreaCoverage
+ * Method:    jni_setNextPosition
+ * Signature: (JDDD)V
+ */
+GAMS_EXPORT void JNICALL Java_ai_gams_algorithms_coverage_AreaCoverage_jni_1setNextPosition
+  (JNIEnv *, jobject, jlong, jdouble, jdouble, jdouble);
+
+/*
+ * Class:     ai_gams_algorithms_coverage_AreaCoverage
+ * Method:    jni_isInitialized
+ * Signature: (J)Z
+ */
+GAMS_EXPORT jboolean JNICALL Java_ai_gams_algorithms_coverage_AreaCoverage_jni_1isInitialized
+  (JNIEnv *, jobject, jlong);
+
+/*
+ * Class:     ai_gams_algorithms_coverage_AreaCoverage
+ * Method:    jni_getKnowledgeBase
+ * Signature: (J)J
+ */
+GAMS_EXPORT jlong JNICALL Java_ai_gams_algorithms_coverage_AreaCoverage_jni_1getKnowledgeBase
+  (JNIEnv *, jobject, jlong);
+
+/*
+ * Class:     ai_gams_algorithms_coverage_AreaCoverage
+ * Method:    jni_getSelf
+ * Signature: (J)J
+ */
+GAMS_EXPORT jlong JNICALL Java_ai_gams_algorithms_coverage_AreaCoverage_jni_1getSelf
+  (JNIEnv *, jobject, jlong);
+
+#ifdef __cplusplus
+}
+#endif
+#endif
@@ -0,0 +1,37 @@
+#include "ai_gams_algorithms_coverage_MinTimeAreaCoverage.h"
+#include "gams/algorithms/area_coverage/MinTimeAreaCoverage.h"
+#include "gams_jni.h"
+
+namespace area_coverage = gams::algorithms::area_coverage;
+
+/*
+ * Class:     ai_gams_algorithms_coverage_MinTimeAreaCoverage
+ * Method:    jni_getSensor
+ * Signature: (J)J
+ */
+jlong JNICALL Java_ai_gams_algorithms_coverage_MinTimeAreaCoverage_jni_1getSensor
+  (JNIEnv * env, jobject, jlong cptr)
+{
+  jlong result (0);
+
+  // AreaCoverage only attaches to min time coverages under this type
+  area_coverage::BaseAreaCoverage * base =
+    (area_coverage::BaseAreaCoverage *) cptr;
+
+  if (base)
+  {
+    area_coverage::MinTimeAreaCoverage * current =
+      static_cast <area_coverage::MinTimeAreaCoverage *> (base);
+    result = (jlong) &current->get_sensor ();
+  }
+  else
+  {
+    // user has tried to use a deleted object. Clean up and throw
+    
+    gams::utility::java::throw_dead_obj_exception(env,
+      "MinTimeAreaCoverage::getSensor: "
+      "MinTimeAreaCoverage object is released already");
+  }
+
+  return result;
+}
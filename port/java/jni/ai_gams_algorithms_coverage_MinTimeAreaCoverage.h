@@ -0,0 +1,22 @@
+/* DO NOT EDIT THIS FILE - it is machine generated */
+#include <jni.h>
+#include "gams/GamsExport.h"
+/* Header for class ai_gams_algorithms_coverage_MinTimeAreaCoverage */
+
+#ifndef _Included_ai_gams_algorithms_coverage_MinTimeAreaCoverage
+#define _Included_ai_gams_algorithms_coverage_MinTimeAreaCoverage
+#ifdef __cplusplus
+extern "C" {
+#endif
+/*
+ * Class:     ai_gams_algorithms_coverage_MinTimeAreaCoverage
+ * Method:    jni_getSensor
+ * Signature: (J)J
+ */
+GAMS_EXPORT jlong JNICALL Java_ai_gams_algorithms_coverage_MinTimeAreaCoverage_jni_1getSensor
+  (JNIEnv *, jobject, jlong);
+
+#ifdef __cplusplus
+}
+#endif
+#endif
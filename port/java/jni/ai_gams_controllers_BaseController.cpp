@@ -14,6 +14,36 @@ namespace platforms = gams::platforms;
 
 typedef madara::knowledge::KnowledgeRecord::Integer  Integer;
 
+namespace
+{
+  /**
+   * Records the native time of a controller phase called through JNI for
+   * as long as it is in scope, so Java can compare it to its own wall time
+   **/
+  class JavaCallTimer
+  {
+  public:
+    JavaCallTimer (controllers::BaseController & controller,
+      controllers::ControllerMetrics::Phase phase)
+      : metrics_ (controller.get_metrics ()), phase_ (phase),
+        start_ (std::chrono::steady_clock::now ())
+    {
+    }
+
+    ~JavaCallTimer ()
+    {
+      metrics_.record_external (phase_, (uint64_t)
+        std::chrono::duration_cast<std::chrono::nanoseconds> (
+          std::chrono::steady_clock::now () - start_).count ());
+    }
+
+  private:
+    controllers::ControllerMetrics & metrics_;
+    controllers::ControllerMetrics::Phase phase_;
+    std::chrono::steady_clock::time_point start_;
+  };
+}
+
 /*
  * Class:     ai_gams_controllers_BaseController
  * Method:    jni_BaseControllerFromKb
@@ -116,7 +146,10 @@ jlong JNICALL Java_ai_gams_controllers_BaseController_jni_1analyze
 
   controllers::BaseController * current = (controllers::BaseController *) cptr;
   if (current)
+  {
+    JavaCallTimer timer (*current, controllers::ControllerMetrics::ANALYZE);
     result = current->analyze ();
+  }
   else
   {
     // user has tried to use a deleted object. Clean up and throw
@@ -141,7 +174,10 @@ jlong JNICALL Java_ai_gams_controllers_BaseController_jni_1execute
 
   controllers::BaseController * current = (controllers::BaseController *) cptr;
   if (current)
+  {
+    JavaCallTimer timer (*current, controllers::ControllerMetrics::EXECUTE);
     result = current->execute ();
+  }
   else
   {
     // user has tried to use a deleted object. Clean up and throw
@@ -592,7 +628,10 @@ jlong JNICALL Java_ai_gams_controllers_BaseController_jni_1monitor
 
   controllers::BaseController * current = (controllers::BaseController *) cptr;
   if (current)
+  {
+    JavaCallTimer timer (*current, controllers::ControllerMetrics::MONITOR);
     result = current->monitor ();
+  }
   else
   {
     // user has tried to use a deleted object. Clean up and throw
@@ -617,7 +656,10 @@ jlong JNICALL Java_ai_gams_controllers_BaseController_jni_1plan
 
   controllers::BaseController * current = (controllers::BaseController *) cptr;
   if (current)
+  {
+    JavaCallTimer timer (*current, controllers::ControllerMetrics::PLAN);
     result = current->plan ();
+  }
   else
   {
     // user has tried to use a deleted object. Clean up and throw
@@ -705,6 +747,58 @@ jlong JNICALL Java_ai_gams_controllers_BaseController_jni_1runHz
   return result;
 }
 
+/*
+ * Class:     ai_gams_controllers_BaseController
+ * Method:    jni_runOnce
+ * Signature: (J)J
+ */
+jlong JNICALL Java_ai_gams_controllers_BaseController_jni_1runOnce
+  (JNIEnv * env, jobject, jlong cptr)
+{
+  jlong result (0);
+
+  controllers::BaseController * current = (controllers::BaseController *) cptr;
+  if (current)
+  {
+    JavaCallTimer timer (*current, controllers::ControllerMetrics::ITERATION);
+    result = current->run_once ();
+  }
+  else
+  {
+    // user has tried to use a deleted object. Clean up and throw
+    
+    gams::utility::java::throw_dead_obj_exception(env,
+      "BaseController::runOnce: "
+      "BaseController object is released already");
+  }
+
+  return result;
+}
+
+/*
+ * Class:     ai_gams_controllers_BaseController
+ * Method:    jni_sendModifieds
+ * Signature: (J)V
+ */
+void JNICALL Java_ai_gams_controllers_BaseController_jni_1sendModifieds
+  (JNIEnv * env, jobject, jlong cptr)
+{
+  controllers::BaseController * current = (controllers::BaseController *) cptr;
+  if (current)
+  {
+    JavaCallTimer timer (*current, controllers::ControllerMetrics::SEND);
+    current->send_modifieds ();
+  }
+  else
+  {
+    // user has tried to use a deleted object. Clean up and throw
+    
+    gams::utility::java::throw_dead_obj_exception(env,
+      "BaseController::sendModifieds: "
+      "BaseController object is released already");
+  }
+}
+
 /*
  * Class:     ai_gams_controllers_BaseController
  * Method:    jni_systemAnalyze
@@ -717,7 +811,10 @@ jlong JNICALL Java_ai_gams_controllers_BaseController_jni_1systemAnalyze
 
   controllers::BaseController * current = (controllers::BaseController *) cptr;
   if (current)
+  {
+    JavaCallTimer timer (*current, controllers::ControllerMetrics::SYSTEM_ANALYZE);
     result = current->system_analyze ();
+  }
   else
   {
     // user has tried to use a deleted object. Clean up and throw
@@ -729,3 +826,133 @@ jlong JNICALL Java_ai_gams_controllers_BaseController_jni_1systemAnalyze
 
   return result;
 }
+
+/*
+ * Class:     ai_gams_controllers_BaseController
+ * Method:    jni_getMetrics
+ * Signature: (J[J)V
+ */
+void JNICALL Java_ai_gams_controllers_BaseController_jni_1getMetrics
+  (JNIEnv * env, jobject, jlong cptr, jlongArray values)
+{
+  controllers::BaseController * current = (controllers::BaseController *) cptr;
+  if (current)
+  {
+    int64_t snapshot[controllers::ControllerMetrics::SNAPSHOT_SIZE];
+    current->get_metrics ().snapshot (snapshot);
+
+    jsize size = env->GetArrayLength (values);
+    if (size > (jsize)controllers::ControllerMetrics::SNAPSHOT_SIZE)
+    {
+      size = (jsize)controllers::ControllerMetrics::SNAPSHOT_SIZE;
+    }
+
+    env->SetLongArrayRegion (values, 0, size, (const jlong *)snapshot);
+  }
+  else
+  {
+    // user has tried to use a deleted object. Clean up and throw
+    
+    gams::utility::java::throw_dead_obj_exception(env,
+      "BaseController::getMetrics: "
+      "BaseController object is released already");
+  }
+}
+
+/*
+ * Class:     ai_gams_controllers_BaseController
+ * Method:    jni_resetMetrics
+ * Signature: (J)V
+ */
+void JNICALL Java_ai_gams_controllers_BaseController_jni_1resetMetrics
+  (JNIEnv * env, jobject, jlong cptr)
+{
+  controllers::BaseController * current = (controllers::BaseController *) cptr;
+  if (current)
+    current->get_metrics ().reset ();
+  else
+  {
+    // user has tried to use a deleted object. Clean up and throw
+    
+    gams::utility::java::throw_dead_obj_exception(env,
+      "BaseController::resetMetrics: "
+      "BaseController object is released already");
+  }
+}
+
+/*
+ * Class:     ai_gams_controllers_BaseController
+ * Method:    jni_setMetricsPrefix
+ * Signature: (JLjava/lang/String;)V
+ */
+void JNICALL Java_ai_gams_controllers_BaseController_jni_1setMetricsPrefix
+  (JNIEnv * env, jobject, jlong cptr, jstring prefix)
+{
+  controllers::BaseController * current = (controllers::BaseController *) cptr;
+  if (current)
+  {
+    const char * str_prefix = env->GetStringUTFChars (prefix, 0);
+
+    current->get_metrics ().set_mirror_prefix (str_prefix);
+
+    env->ReleaseStringUTFChars (prefix, str_prefix);
+  }
+  else
+  {
+    // user has tried to use a deleted object. Clean up and throw
+    
+    gams::utility::java::throw_dead_obj_exception(env,
+      "BaseController::setMetricsPrefix: "
+      "BaseController object is released already");
+  }
+}
+
+/*
+ * Class:     ai_gams_controllers_BaseController
+ * Method:    jni_setAlgorithmThreads
+ * Signature: (JI)V
+ */
+void JNICALL Java_ai_gams_controllers_BaseController_jni_1setAlgorithmThreads
+  (JNIEnv * env, jobject, jlong cptr, jint threads)
+{
+  controllers::BaseController * current = (controllers::BaseController *) cptr;
+  if (current)
+  {
+    current->set_algorithm_threads ((int)threads);
+  }
+  else
+  {
+    // user has tried to use a deleted object. Clean up and throw
+    
+    gams::utility::java::throw_dead_obj_exception(env,
+      "BaseController::setAlgorithmThreads: "
+      "BaseController object is released already");
+  }
+}
+
+/*
+ * Class:     ai_gams_controllers_BaseController
+ * Method:    jni_getAlgorithmThreads
+ * Signature: (J)I
+ */
+jint JNICALL Java_ai_gams_controllers_BaseController_jni_1getAlgorithmThreads
+  (JNIEnv * env, jobject, jlong cptr)
+{
+  jint result (1);
+
+  controllers::BaseController * current = (controllers::BaseController *) cptr;
+  if (current)
+  {
+    result = (jint) current->get_algorithm_threads ();
+  }
+  else
+  {
+    // user has tried to use a deleted object. Clean up and throw
+    
+    gams::utility::java::throw_dead_obj_exception(env,
+      "BaseController::getAlgorithmThreads: "
+      "BaseController object is released already");
+  }
+
+  return result;
+}
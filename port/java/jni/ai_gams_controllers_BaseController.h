@@ -192,6 +192,22 @@ GAMS_EXPORT jlong JNICALL Java_ai_gams_controllers_BaseController_jni_1run__JDDD
 GAMS_EXPORT jlong JNICALL Java_ai_gams_controllers_BaseController_jni_1runHz
   (JNIEnv *, jobject, jlong, jdouble, jdouble, jdouble);
 
+/*
+ * Class:     ai_gams_controllers_BaseController
+ * Method:    jni_runOnce
+ * Signature: (J)J
+ */
+GAMS_EXPORT jlong JNICALL Java_ai_gams_controllers_BaseController_jni_1runOnce
+  (JNIEnv *, jobject, jlong);
+
+/*
+ * Class:     ai_gams_controllers_BaseController
+ * Method:    jni_sendModifieds
+ * Signature: (J)V
+ */
+GAMS_EXPORT void JNICALL Java_ai_gams_controllers_BaseController_jni_1sendModifieds
+  (JNIEnv *, jobject, jlong);
+
 /*
  * Class:     ai_gams_controllers_BaseController
  * Method:    jni_systemAnalyze
@@ -200,6 +216,46 @@ GAMS_EXPORT jlong JNICALL Java_ai_gams_controllers_BaseController_jni_1runHz
 GAMS_EXPORT jlong JNICALL Java_ai_gams_controllers_BaseController_jni_1systemAnalyze
   (JNIEnv *, jobject, jlong);
 
+/*
+ * Class:     ai_gams_controllers_BaseController
+ * Method:    jni_getMetrics
+ * Signature: (J[J)V
+ */
+GAMS_EXPORT void JNICALL Java_ai_gams_controllers_BaseController_jni_1getMetrics
+  (JNIEnv *, jobject, jlong, jlongArray);
+
+/*
+ * Class:     ai_gams_controllers_BaseController
+ * Method:    jni_resetMetrics
+ * Signature: (J)V
+ */
+GAMS_EXPORT void JNICALL Java_ai_gams_controllers_BaseController_jni_1resetMetrics
+  (JNIEnv *, jobject, jlong);
+
+/*
+ * Class:     ai_gams_controllers_BaseController
+ * Method:    jni_setMetricsPrefix
+ * Signature: (JLjava/lang/String;)V
+ */
+GAMS_EXPORT void JNICALL Java_ai_gams_controllers_BaseController_jni_1setMetricsPrefix
+  (JNIEnv *, jobject, jlong, jstring);
+
+/*
+ * Class:     ai_gams_controllers_BaseController
+ * Method:    jni_setAlgorithmThreads
+ * Signature: (JI)V
+ */
+GAMS_EXPORT void JNICALL Java_ai_gams_controllers_BaseController_jni_1setAlgorithmThreads
+  (JNIEnv *, jobject, jlong, jint);
+
+/*
+ * Class:     ai_gams_controllers_BaseController
+ * Method:    jni_getAlgorithmThreads
+ * Signature: (J)I
+ */
+GAMS_EXPORT jint JNICALL Java_ai_gams_controllers_BaseController_jni_1getAlgorithmThreads
+  (JNIEnv *, jobject, jlong);
+
 #ifdef __cplusplus
 }
 #endif
@@ -0,0 +1,337 @@
+#include "ai_gams_controllers_Multicontroller.h"
+#include "gams/controllers/Multicontroller.h"
+#include "gams_jni.h"
+
+namespace engine = madara::knowledge;
+namespace controllers = gams::controllers;
+
+/*
+ * Class:     ai_gams_controllers_Multicontroller
+ * Method:    jni_Multicontroller
+ * Signature: (JJ)J
+ */
+jlong JNICALL Java_ai_gams_controllers_Multicontroller_jni_1Multicontroller
+  (JNIEnv * env, jobject, jlong cptr, jlong num_controllers)
+{
+  jlong result = 0;
+
+  engine::KnowledgeBase * kb = (engine::KnowledgeBase *) cptr;
+  if (kb)
+  {
+    result = (jlong) new controllers::Multicontroller (
+      *kb, (size_t)num_controllers);
+  }
+  else
+  {
+    // user has tried to use a deleted object. Clean up and throw
+    
+    gams::utility::java::throw_dead_obj_exception(env,
+      "Multicontroller::Multicontroller: "
+      "KB object is released already");
+  }
+
+  return result;
+}
+
+/*
+ * Class:     ai_gams_controllers_Multicontroller
+ * Method:    jni_freeMulticontroller
+ * Signature: (J)V
+ */
+void JNICALL Java_ai_gams_controllers_Multicontroller_jni_1freeMulticontroller
+  (JNIEnv *, jclass, jlong cptr)
+{
+  delete (controllers::Multicontroller *) cptr;
+}
+
+/*
+ * Class:     ai_gams_controllers_Multicontroller
+ * Method:    jni_resize
+ * Signature: (JJ)V
+ */
+void JNICALL Java_ai_gams_controllers_Multicontroller_jni_1resize
+  (JNIEnv * env, jobject, jlong cptr, jlong num_controllers)
+{
+  controllers::Multicontroller * current = (controllers::Multicontroller *) cptr;
+  if (current)
+    current->resize ((size_t)num_controllers);
+  else
+  {
+    // user has tried to use a deleted object. Clean up and throw
+    
+    gams::utility::java::throw_dead_obj_exception(env,
+      "Multicontroller::resize: "
+      "Multicontroller object is released already");
+  }
+}
+
+/*
+ * Class:     ai_gams_controllers_Multicontroller
+ * Method:    jni_getSize
+ * Signature: (J)J
+ */
+jlong JNICALL Java_ai_gams_controllers_Multicontroller_jni_1getSize
+  (JNIEnv * env, jobject, jlong cptr)
+{
+  jlong result (0);
+
+  controllers::Multicontroller * current = (controllers::Multicontroller *) cptr;
+  if (current)
+    result = (jlong) current->size ();
+  else
+  {
+    // user has tried to use a deleted object. Clean up and throw
+    
+    gams::utility::java::throw_dead_obj_exception(env,
+      "Multicontroller::getSize: "
+      "Multicontroller object is released already");
+  }
+
+  return result;
+}
+
+/*
+ * Class:     ai_gams_controllers_Multicontroller
+ * Method:    jni_getController
+ * Signature: (JJ)J
+ */
+jlong JNICALL Java_ai_gams_controllers_Multicontroller_jni_1getController
+  (JNIEnv * env, jobject, jlong cptr, jlong index)
+{
+  jlong result (0);
+
+  controllers::Multicontroller * current = (controllers::Multicontroller *) cptr;
+  if (current)
+    result = (jlong) current->get_controller ((size_t)index);
+  else
+  {
+    // user has tried to use a deleted object. Clean up and throw
+    
+    gams::utility::java::throw_dead_obj_exception(env,
+      "Multicontroller::getController: "
+      "Multicontroller object is released already");
+  }
+
+  return result;
+}
+
+/*
+ * Class:     ai_gams_controllers_Multicontroller
+ * Method:    jni_monitor
+ * Signature: (J)J
+ */
+jlong JNICALL Java_ai_gams_controllers_Multicontroller_jni_1monitor
+  (JNIEnv * env, jobject, jlong cptr)
+{
+  jlong result (0);
+
+  controllers::Multicontroller * current = (controllers::Multicontroller *) cptr;
+  if (current)
+    result = current->monitor ();
+  else
+  {
+    // user has tried to use a deleted object. Clean up and throw
+    
+    gams::utility::java::throw_dead_obj_exception(env,
+      "Multicontroller::monitor: "
+      "Multicontroller object is released already");
+  }
+
+  return result;
+}
+
+/*
+ * Class:     ai_gams_controllers_Multicontroller
+ * Method:    jni_analyze
+ * Signature: (J)J
+ */
+jlong JNICALL Java_ai_gams_controllers_Multicontroller_jni_1analyze
+  (JNIEnv * env, jobject, jlong cptr)
+{
+  jlong result (0);
+
+  controllers::Multicontroller * current = (controllers::Multicontroller *) cptr;
+  if (current)
+    result = current->analyze ();
+  else
+  {
+    // user has tried to use a deleted object. Clean up and throw
+    
+    gams::utility::java::throw_dead_obj_exception(env,
+      "Multicontroller::analyze: "
+      "Multicontroller object is released already");
+  }
+
+  return result;
+}
+
+/*
+ * Class:     ai_gams_controllers_Multicontroller
+ * Method:    jni_plan
+ * Signature: (J)J
+ */
+jlong JNICALL Java_ai_gams_controllers_Multicontroller_jni_1plan
+  (JNIEnv * env, jobject, jlong cptr)
+{
+  jlong result (0);
+
+  controllers::Multicontroller * current = (controllers::Multicontroller *) cptr;
+  if (current)
+    result = current->plan ();
+  else
+  {
+    // user has tried to use a deleted object. Clean up and throw
+    
+    gams::utility::java::throw_dead_obj_exception(env,
+      "Multicontroller::plan: "
+      "Multicontroller object is released already");
+  }
+
+  return result;
+}
+
+/*
+ * Class:     ai_gams_controllers_Multicontroller
+ * Method:    jni_execute
+ * Signature: (J)J
+ */
+jlong JNICALL Java_ai_gams_controllers_Multicontroller_jni_1execute
+  (JNIEnv * env, jobject, jlong cptr)
+{
+  jlong result (0);
+
+  controllers::Multicontroller * current = (controllers::Multicontroller *) cptr;
+  if (current)
+    result = current->execute ();
+  else
+  {
+    // user has tried to use a deleted object. Clean up and throw
+    
+    gams::utility::java::throw_dead_obj_exception(env,
+      "Multicontroller::execute: "
+      "Multicontroller object is released already");
+  }
+
+  return result;
+}
+
+/*
+ * Class:     ai_gams_controllers_Multicontroller
+ * Method:    jni_systemAnalyze
+ * Signature: (J)J
+ */
+jlong JNICALL Java_ai_gams_controllers_Multicontroller_jni_1systemAnalyze
+  (JNIEnv * env, jobject, jlong cptr)
+{
+  jlong result (0);
+
+  controllers::Multicontroller * current = (controllers::Multicontroller *) cptr;
+  if (current)
+    result = current->system_analyze ();
+  else
+  {
+    // user has tried to use a deleted object. Clean up and throw
+    
+    gams::utility::java::throw_dead_obj_exception(env,
+      "Multicontroller::systemAnalyze: "
+      "Multicontroller object is released already");
+  }
+
+  return result;
+}
+
+/*
+ * Class:     ai_gams_controllers_Multicontroller
+ * Method:    jni_runOnce
+ * Signature: (J)J
+ */
+jlong JNICALL Java_ai_gams_controllers_Multicontroller_jni_1runOnce
+  (JNIEnv * env, jobject, jlong cptr)
+{
+  jlong result (0);
+
+  controllers::Multicontroller * current = (controllers::Multicontroller *) cptr;
+  if (current)
+    result = current->run_once ();
+  else
+  {
+    // user has tried to use a deleted object. Clean up and throw
+    
+    gams::utility::java::throw_dead_obj_exception(env,
+      "Multicontroller::runOnce: "
+      "Multicontroller object is released already");
+  }
+
+  return result;
+}
+
+/*
+ * Class:     ai_gams_controllers_Multicontroller
+ * Method:    jni_run
+ * Signature: (JDDD)J
+ */
+jlong JNICALL Java_ai_gams_controllers_Multicontroller_jni_1run
+  (JNIEnv * env, jobject, jlong cptr, jdouble loop_period, jdouble duration, jdouble send_period)
+{
+  jlong result (0);
+
+  controllers::Multicontroller * current = (controllers::Multicontroller *) cptr;
+  if (current)
+    result = current->run (loop_period, duration, send_period);
+  else
+  {
+    // user has tried to use a deleted object. Clean up and throw
+    
+    gams::utility::java::throw_dead_obj_exception(env,
+      "Multicontroller::run: "
+      "Multicontroller object is released already");
+  }
+
+  return result;
+}
+
+/*
+ * Class:     ai_gams_controllers_Multicontroller
+ * Method:    jni_runHz
+ * Signature: (JDDD)J
+ */
+jlong JNICALL Java_ai_gams_controllers_Multicontroller_jni_1runHz
+  (JNIEnv * env, jobject, jlong cptr, jdouble loop_hz, jdouble duration, jdouble send_hz)
+{
+  jlong result (0);
+
+  controllers::Multicontroller * current = (controllers::Multicontroller *) cptr;
+  if (current)
+    result = current->run_hz (loop_hz, duration, send_hz);
+  else
+  {
+    // user has tried to use a deleted object. Clean up and throw
+    
+    gams::utility::java::throw_dead_obj_exception(env,
+      "Multicontroller::runHz: "
+      "Multicontroller object is released already");
+  }
+
+  return result;
+}
+
+/*
+ * Class:     ai_gams_controllers_Multicontroller
+ * Method:    jni_initVars
+ * Signature: (JJJ)V
+ */
+void JNICALL Java_ai_gams_controllers_Multicontroller_jni_1initVars
+  (JNIEnv * env, jobject, jlong cptr, jlong id, jlong processes)
+{
+  controllers::Multicontroller * current = (controllers::Multicontroller *) cptr;
+  if (current)
+    current->init_vars (id, processes);
+  else
+  {
+    // user has tried to use a deleted object. Clean up and throw
+    
+    gams::utility::java::throw_dead_obj_exception(env,
+      "Multicontroller::initVars: "
+      "Multicontroller object is released already");
+  }
+}
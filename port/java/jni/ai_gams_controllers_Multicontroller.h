@@ -0,0 +1,126 @@
+/* DO NOT EDIT THIS FILE - it is machine generated */
+#include <jni.h>
+#include "gams/GamsExport.h"
+/* Header for class ai_gams_controllers_Multicontroller */
+
+#ifndef _Included_ai_gams_controllers_Multicontroller
+#define _Included_ai_gams_controllers_Multicontroller
+#ifdef __cplusplus
+extern "C" {
+#endif
+/*
+ * Class:     ai_gams_controllers_Multicontroller
+ * Method:    jni_Multicontroller
+ * Signature: (JJ)J
+ */
+GAMS_EXPORT jlong JNICALL Java_ai_gams_controllers_Multicontroller_jni_1Multicontroller
+  (JNIEnv *, jobject, jlong, jlong);
+
+/*
+ * Class:     ai_gams_controllers_Multicontroller
+ * Method:    jni_freeMulticontroller
+ * Signature: (J)V
+ */
+GAMS_EXPORT void JNICALL Java_ai_gams_controllers_Multicontroller_jni_1freeMulticontroller
+  (JNIEnv *, jclass, jlong);
+
+/*
+ * Class:     ai_gams_controllers_Multicontroller
+ * Method:    jni_resize
+ * Signature: (JJ)V
+ */
+GAMS_EXPORT void JNICALL Java_ai_gams_controllers_Multicontroller_jni_1resize
+  (JNIEnv *, jobject, jlong, jlong);
+
+/*
+ * Class:     ai_gams_controllers_Multicontroller
+ * Method:    jni_getSize
+ * Signature: (J)J
+ */
+GAMS_EXPORT jlong JNICALL Java_ai_gams_controllers_Multicontroller_jni_1getSize
+  (JNIEnv *, jobject, jlong);
+
+/*
+ * Class:     ai_gams_controllers_Multicontroller
+ * Method:    jni_getController
+ * Signature: (JJ)J
+ */
+GAMS_EXPORT jlong JNICALL Java_ai_gams_controllers_Multicontroller_jni_1getController
+  (JNIEnv *, jobject, jlong, jlong);
+
+/*
+ * Class:     ai_gams_controllers_Multicontroller
+ * Method:    jni_monitor
+ * Signature: (J)J
+ */
+GAMS_EXPORT jlong JNICALL Java_ai_gams_controllers_Multicontroller_jni_1monitor
+  (JNIEnv *, jobject, jlong);
+
+/*
+ * Class:     ai_gams_controllers_Multicontroller
+ * Method:    jni_analyze
+ * Signature: (J)J
+ */
+GAMS_EXPORT jlong JNICALL Java_ai_gams_controllers_Multicontroller_jni_1analyze
+  (JNIEnv *, jobject, jlong);
+
+/*
+ * Class:     ai_gams_controllers_Multicontroller
+ * Method:    jni_plan
+ * Signature: (J)J
+ */
+GAMS_EXPORT jlong JNICALL Java_ai_gams_controllers_Multicontroller_jni_1plan
+  (JNIEnv *, jobject, jlong);
+
+/*
+ * Class:     ai_gams_controllers_Multicontroller
+ * Method:    jni_execute
+ * Signature: (J)J
+ */
+GAMS_EXPORT jlong JNICALL Java_ai_gams_controllers_Multicontroller_jni_1execute
+  (JNIEnv *, jobject, jlong);
+
+/*
+ * Class:     ai_gams_controllers_Multicontroller
+ * Method:    jni_systemAnalyze
+ * Signature: (J)J
+ */
+GAMS_EXPORT jlong JNICALL Java_ai_gams_controllers_Multicontroller_jni_1systemAnalyze
+  (JNIEnv *, jobject, jlong);
+
+/*
+ * Class:     ai_gams_controllers_Multicontroller
+ * Method:    jni_runOnce
+ * Signature: (J)J
+ */
+GAMS_EXPORT jlong JNICALL Java_ai_gams_controllers_Multicontroller_jni_1runOnce
+  (JNIEnv *, jobject, jlong);
+
+/*
+ * Class:     ai_gams_controllers_Multicontroller
+ * Method:    jni_run
+ * Signature: (JDDD)J
+ */
+GAMS_EXPORT jlong JNICALL Java_ai_gams_controllers_Multicontroller_jni_1run
+  (JNIEnv *, jobject, jlong, jdouble, jdouble, jdouble);
+
+/*
+ * Class:     ai_gams_controllers_Multicontroller
+ * Method:    jni_runHz
+ * Signature: (JDDD)J
+ */
+GAMS_EXPORT jlong JNICALL Java_ai_gams_controllers_Multicontroller_jni_1runHz
+  (JNIEnv *, jobject, jlong, jdouble, jdouble, jdouble);
+
+/*
+ * Class:     ai_gams_controllers_Multicontroller
+ * Method:    jni_initVars
+ * Signature: (JJJ)V
+ */
+GAMS_EXPORT void JNICALL Java_ai_gams_controllers_Multicontroller_jni_1initVars
+  (JNIEnv *, jobject, jlong, jlong, jlong);
+
+#ifdef __cplusplus
+}
+#endif
+#endif
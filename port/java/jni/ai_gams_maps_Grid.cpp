@@ -0,0 +1,465 @@
+#include "ai_gams_maps_Grid.h"
+#include "gams/maps/Grid.h"
+#include "gams_jni.h"
+
+namespace engine = madara::knowledge;
+namespace variables = gams::variables;
+
+namespace
+{
+  // clamps a java index to the unsigned range used by the grid
+  inline size_t to_index (jint value)
+  {
+    return value < 0 ? 0 : (size_t)value;
+  }
+}
+
+/*
+ * Class:     ai_gams_maps_Grid
+ * Method:    jni_Grid
+ * Signature: (IIIIDZ)J
+ */
+jlong JNICALL Java_ai_gams_maps_Grid_jni_1Grid__IIIIDZ
+  (JNIEnv *, jobject, jint size_x, jint size_y, jint size_z, jint tile_size,
+  jdouble default_value, jboolean sparse)
+{
+  return (jlong) new variables::Grid (to_index (size_x), to_index (size_y),
+    to_index (size_z), to_index (tile_size), default_value, sparse != 0);
+}
+
+/*
+ * Class:     ai_gams_maps_Grid
+ * Method:    jni_Grid
+ * Signature: (J)J
+ */
+jlong JNICALL Java_ai_gams_maps_Grid_jni_1Grid__J
+  (JNIEnv * env, jobject, jlong cptr)
+{
+  jlong result (0);
+  variables::Grid * input = (variables::Grid *) cptr;
+
+  if (input)
+  {
+    result = (jlong) new variables::Grid (*input);
+  }
+  else
+  {
+    // user has tried to use a deleted object. Clean up and throw
+    
+    gams::utility::java::throw_dead_obj_exception(env,
+      "Grid::copyConstructor: "
+      "Grid object is released already");
+  }
+
+  return result;
+}
+
+/*
+ * Class:     ai_gams_maps_Grid
+ * Method:    jni_freeGrid
+ * Signature: (J)V
+ */
+void JNICALL Java_ai_gams_maps_Grid_jni_1freeGrid
+  (JNIEnv *, jclass, jlong cptr)
+{
+  delete (variables::Grid *) cptr;
+}
+
+/*
+ * Class:     ai_gams_maps_Grid
+ * Method:    jni_getDimensions
+ * Signature: (J[I)V
+ */
+void JNICALL Java_ai_gams_maps_Grid_jni_1getDimensions
+  (JNIEnv * env, jobject, jlong cptr, jintArray dimensions)
+{
+  variables::Grid * current = (variables::Grid *) cptr;
+  if (current)
+  {
+    jint values[] = {
+      (jint)current->get_size_x (), (jint)current->get_size_y (),
+      (jint)current->get_size_z (), (jint)current->get_tile_size (),
+      (jint)current->get_tile_depth (), (jint)current->get_tiles_x (),
+      (jint)current->get_tiles_y (), (jint)current->get_tiles_z ()
+    };
+
+    env->SetIntArrayRegion (dimensions, 0, 8, values);
+  }
+  else
+  {
+    // user has tried to use a deleted object. Clean up and throw
+    
+    gams::utility::java::throw_dead_obj_exception(env,
+      "Grid::getDimensions: "
+      "Grid object is released already");
+  }
+}
+
+/*
+ * Class:     ai_gams_maps_Grid
+ * Method:    jni_getDefaultValue
+ * Signature: (J)D
+ */
+jdouble JNICALL Java_ai_gams_maps_Grid_jni_1getDefaultValue
+  (JNIEnv * env, jobject, jlong cptr)
+{
+  jdouble result (0);
+
+  variables::Grid * current = (variables::Grid *) cptr;
+  if (current)
+  {
+    result = current->get_default_value ();
+  }
+  else
+  {
+    // user has tried to use a deleted object. Clean up and throw
+    
+    gams::utility::java::throw_dead_obj_exception(env,
+      "Grid::getDefaultValue: "
+      "Grid object is released already");
+  }
+
+  return result;
+}
+
+/*
+ * Class:     ai_gams_maps_Grid
+ * Method:    jni_isSparse
+ * Signature: (J)Z
+ */
+jboolean JNICALL Java_ai_gams_maps_Grid_jni_1isSparse
+  (JNIEnv * env, jobject, jlong cptr)
+{
+  jboolean result (JNI_FALSE);
+
+  variables::Grid * current = (variables::Grid *) cptr;
+  if (current)
+  {
+    result = current->is_sparse () ? JNI_TRUE : JNI_FALSE;
+  }
+  else
+  {
+    // user has tried to use a deleted object. Clean up and throw
+    
+    gams::utility::java::throw_dead_obj_exception(env,
+      "Grid::isSparse: "
+      "Grid object is released already");
+  }
+
+  return result;
+}
+
+/*
+ * Class:     ai_gams_maps_Grid
+ * Method:    jni_getAllocatedTiles
+ * Signature: (J)I
+ */
+jint JNICALL Java_ai_gams_maps_Grid_jni_1getAllocatedTiles
+  (JNIEnv * env, jobject, jlong cptr)
+{
+  jint result (0);
+
+  variables::Grid * current = (variables::Grid *) cptr;
+  if (current)
+  {
+    result = (jint)current->get_allocated_tiles ();
+  }
+  else
+  {
+    // user has tried to use a deleted object. Clean up and throw
+    
+    gams::utility::java::throw_dead_obj_exception(env,
+      "Grid::getAllocatedTiles: "
+      "Grid object is released already");
+  }
+
+  return result;
+}
+
+/*
+ * Class:     ai_gams_maps_Grid
+ * Method:    jni_get
+ * Signature: (JIII)D
+ */
+jdouble JNICALL Java_ai_gams_maps_Grid_jni_1get
+  (JNIEnv * env, jobject, jlong cptr, jint x, jint y, jint z)
+{
+  jdouble result (0);
+
+  variables::Grid * current = (variables::Grid *) cptr;
+  if (current)
+  {
+    if (x < 0 || y < 0 || z < 0)
+    {
+      result = current->get_default_value ();
+    }
+    else
+    {
+      result = current->get ((size_t)x, (size_t)y, (size_t)z);
+    }
+  }
+  else
+  {
+    // user has tried to use a deleted object. Clean up and throw
+    
+    gams::utility::java::throw_dead_obj_exception(env,
+      "Grid::get: "
+      "Grid object is released already");
+  }
+
+  return result;
+}
+
+/*
+ * Class:     ai_gams_maps_Grid
+ * Method:    jni_set
+ * Signature: (JIIID)V
+ */
+void JNICALL Java_ai_gams_maps_Grid_jni_1set
+  (JNIEnv * env, jobject, jlong cptr, jint x, jint y, jint z, jdouble value)
+{
+  variables::Grid * current = (variables::Grid *) cptr;
+  if (current)
+  {
+    if (x >= 0 && y >= 0 && z >= 0)
+    {
+      current->set ((size_t)x, (size_t)y, (size_t)z, value);
+    }
+  }
+  else
+  {
+    // user has tried to use a deleted object. Clean up and throw
+    
+    gams::utility::java::throw_dead_obj_exception(env,
+      "Grid::set: "
+      "Grid object is released already");
+  }
+}
+
+/*
+ * Class:     ai_gams_maps_Grid
+ * Method:    jni_fill
+ * Signature: (JIIIIIID)V
+ */
+void JNICALL Java_ai_gams_maps_Grid_jni_1fill
+  (JNIEnv * env, jobject, jlong cptr,
+  jint min_x, jint min_y, jint min_z, jint max_x, jint max_y, jint max_z,
+  jdouble value)
+{
+  variables::Grid * current = (variables::Grid *) cptr;
+  if (current)
+  {
+    current->fill (to_index (min_x), to_index (min_y), to_index (min_z),
+      to_index (max_x), to_index (max_y), to_index (max_z), value);
+  }
+  else
+  {
+    // user has tried to use a deleted object. Clean up and throw
+    
+    gams::utility::java::throw_dead_obj_exception(env,
+      "Grid::fill: "
+      "Grid object is released already");
+  }
+}
+
+/*
+ * Class:     ai_gams_maps_Grid
+ * Method:    jni_query
+ * Signature: (JIIIIII[D)V
+ */
+void JNICALL Java_ai_gams_maps_Grid_jni_1query
+  (JNIEnv * env, jobject, jlong cptr,
+  jint min_x, jint min_y, jint min_z, jint max_x, jint max_y, jint max_z,
+  jdoubleArray results)
+{
+  variables::Grid * current = (variables::Grid *) cptr;
+  if (current)
+  {
+    variables::GridStats stats = current->query (
+      to_index (min_x), to_index (min_y), to_index (min_z),
+      to_index (max_x), to_index (max_y), to_index (max_z));
+
+    jdouble values[] = {
+      (jdouble)stats.count, stats.sum, stats.min, stats.max
+    };
+
+    env->SetDoubleArrayRegion (results, 0, 4, values);
+  }
+  else
+  {
+    // user has tried to use a deleted object. Clean up and throw
+    
+    gams::utility::java::throw_dead_obj_exception(env,
+      "Grid::query: "
+      "Grid object is released already");
+  }
+}
+
+/*
+ * Class:     ai_gams_maps_Grid
+ * Method:    jni_getTile
+ * Signature: (JIZ)Ljava/nio/ByteBuffer;
+ */
+jobject JNICALL Java_ai_gams_maps_Grid_jni_1getTile
+  (JNIEnv * env, jobject, jlong cptr, jint index, jboolean create)
+{
+  jobject result (0);
+
+  variables::Grid * current = (variables::Grid *) cptr;
+  if (current)
+  {
+    if (index >= 0 && (size_t)index < current->get_tile_count ())
+    {
+      double * tile = current->get_tile ((size_t)index, create != 0);
+
+      if (tile)
+      {
+        // the buffer views the tile in place. The Java Grid drops its views
+        // whenever the tile memory may be released.
+        result = env->NewDirectByteBuffer (tile,
+          (jlong)(current->get_tile_cells () * sizeof (double)));
+      }
+    }
+  }
+  else
+  {
+    // user has tried to use a deleted object. Clean up and throw
+    
+    gams::utility::java::throw_dead_obj_exception(env,
+      "Grid::getTile: "
+      "Grid object is released already");
+  }
+
+  return result;
+}
+
+/*
+ * Class:     ai_gams_maps_Grid
+ * Method:    jni_resize
+ * Signature: (JIIIIDZ)V
+ */
+void JNICALL Java_ai_gams_maps_Grid_jni_1resize
+  (JNIEnv * env, jobject, jlong cptr,
+  jint size_x, jint size_y, jint size_z, jint tile_size,
+  jdouble default_value, jboolean sparse)
+{
+  variables::Grid * current = (variables::Grid *) cptr;
+  if (current)
+  {
+    current->resize (to_index (size_x), to_index (size_y), to_index (size_z),
+      to_index (tile_size), default_value, sparse != 0);
+  }
+  else
+  {
+    // user has tried to use a deleted object. Clean up and throw
+    
+    gams::utility::java::throw_dead_obj_exception(env,
+      "Grid::resize: "
+      "Grid object is released already");
+  }
+}
+
+/*
+ * Class:     ai_gams_maps_Grid
+ * Method:    jni_clear
+ * Signature: (J)V
+ */
+void JNICALL Java_ai_gams_maps_Grid_jni_1clear
+  (JNIEnv * env, jobject, jlong cptr)
+{
+  variables::Grid * current = (variables::Grid *) cptr;
+  if (current)
+  {
+    current->clear ();
+  }
+  else
+  {
+    // user has tried to use a deleted object. Clean up and throw
+    
+    gams::utility::java::throw_dead_obj_exception(env,
+      "Grid::clear: "
+      "Grid object is released already");
+  }
+}
+
+/*
+ * Class:     ai_gams_maps_Grid
+ * Method:    jni_initVars
+ * Signature: (JLjava/lang/String;J)V
+ */
+void JNICALL Java_ai_gams_maps_Grid_jni_1initVars
+  (JNIEnv * env, jobject, jlong cptr, jstring name, jlong kb)
+{
+  variables::Grid * current = (variables::Grid *) cptr;
+  if (current)
+  {
+    engine::KnowledgeBase * knowledge = (engine::KnowledgeBase *) kb;
+
+    if (knowledge)
+    {
+      const char * str_name = env->GetStringUTFChars (name, 0);
+
+      current->init_vars (str_name, *knowledge);
+
+      env->ReleaseStringUTFChars (name, str_name);
+    }
+  }
+  else
+  {
+    // user has tried to use a deleted object. Clean up and throw
+    
+    gams::utility::java::throw_dead_obj_exception(env,
+      "Grid::initVars: "
+      "Grid object is released already");
+  }
+}
+
+/*
+ * Class:     ai_gams_maps_Grid
+ * Method:    jni_write
+ * Signature: (J)V
+ */
+void JNICALL Java_ai_gams_maps_Grid_jni_1write
+  (JNIEnv * env, jobject, jlong cptr)
+{
+  variables::Grid * current = (variables::Grid *) cptr;
+  if (current)
+  {
+    current->write ();
+  }
+  else
+  {
+    // user has tried to use a deleted object. Clean up and throw
+    
+    gams::utility::java::throw_dead_obj_exception(env,
+      "Grid::write: "
+      "Grid object is released already");
+  }
+}
+
+/*
+ * Class:     ai_gams_maps_Grid
+ * Method:    jni_read
+ * Signature: (J)Z
+ */
+jboolean JNICALL Java_ai_gams_maps_Grid_jni_1read
+  (JNIEnv * env, jobject, jlong cptr)
+{
+  jboolean result (JNI_FALSE);
+
+  variables::Grid * current = (variables::Grid *) cptr;
+  if (current)
+  {
+    result = current->read () ? JNI_TRUE : JNI_FALSE;
+  }
+  else
+  {
+    // user has tried to use a deleted object. Clean up and throw
+    
+    gams::utility::java::throw_dead_obj_exception(env,
+      "Grid::read: "
+      "Grid object is released already");
+  }
+
+  return result;
+}
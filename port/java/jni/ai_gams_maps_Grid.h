@@ -0,0 +1,150 @@
+/* DO NOT EDIT THIS FILE - it is machine generated */
+#include <jni.h>
+#include "gams/GamsExport.h"
+/* Header for class ai_gams_maps_Grid */
+
+#ifndef _Included_ai_gams_maps_Grid
+#define _Included_ai_gams_maps_Grid
+#ifdef __cplusplus
+extern "C" {
+#endif
+/*
+ * Class:     ai_gams_maps_Grid
+ * Method:    jni_Grid
+ * Signature: (IIIIDZ)J
+ */
+GAMS_EXPORT jlong JNICALL Java_ai_gams_maps_Grid_jni_1Grid__IIIIDZ
+  (JNIEnv *, jobject, jint, jint, jint, jint, jdouble, jboolean);
+
+/*
+ * Class:     ai_gams_maps_Grid
+ * Method:    jni_Grid
+ * Signature: (J)J
+ */
+GAMS_EXPORT jlong JNICALL Java_ai_gams_maps_Grid_jni_1Grid__J
+  (JNIEnv *, jobject, jlong);
+
+/*
+ * Class:     ai_gams_maps_Grid
+ * Method:    jni_freeGrid
+ * Signature: (J)V
+ */
+GAMS_EXPORT void JNICALL Java_ai_gams_maps_Grid_jni_1freeGrid
+  (JNIEnv *, jclass, jlong);
+
+/*
+ * Class:     ai_gams_maps_Grid
+ * Method:    jni_getDimensions
+ * Signature: (J[I)V
+ */
+GAMS_EXPORT void JNICALL Java_ai_gams_maps_Grid_jni_1getDimensions
+  (JNIEnv *, jobject, jlong, jintArray);
+
+/*
+ * Class:     ai_gams_maps_Grid
+ * Method:    jni_getDefaultValue
+ * Signature: (J)D
+ */
+GAMS_EXPORT jdouble JNICALL Java_ai_gams_maps_Grid_jni_1getDefaultValue
+  (JNIEnv *, jobject, jlong);
+
+/*
+ * Class:     ai_gams_maps_Grid
+ * Method:    jni_isSparse
+ * Signature: (J)Z
+ */
+GAMS_EXPORT jboolean JNICALL Java_ai_gams_maps_Grid_jni_1isSparse
+  (JNIEnv *, jobject, jlong);
+
+/*
+ * Class:     ai_gams_maps_Grid
+ * Method:    jni_getAllocatedTiles
+ * Signature: (J)I
+ */
+GAMS_EXPORT jint JNICALL Java_ai_gams_maps_Grid_jni_1getAllocatedTiles
+  (JNIEnv *, jobject, jlong);
+
+/*
+ * Class:     ai_gams_maps_Grid
+ * Method:    jni_get
+ * Signature: (JIII)D
+ */
+GAMS_EXPORT jdouble JNICALL Java_ai_gams_maps_Grid_jni_1get
+  (JNIEnv *, jobject, jlong, jint, jint, jint);
+
+/*
+ * Class:     ai_gams_maps_Grid
+ * Method:    jni_set
+ * Signature: (JIIID)V
+ */
+GAMS_EXPORT void JNICALL Java_ai_gams_maps_Grid_jni_1set
+  (JNIEnv *, jobject, jlong, jint, jint, jint, jdouble);
+
+/*
+ * Class:     ai_gams_maps_Grid
+ * Method:    jni_fill
+ * Signature: (JIIIIIID)V
+ */
+GAMS_EXPORT void JNICALL Java_ai_gams_maps_Grid_jni_1fill
+  (JNIEnv *, jobject, jlong, jint, jint, jint, jint, jint, jint, jdouble);
+
+/*
+ * Class:     ai_gams_maps_Grid
+ * Method:    jni_query
+ * Signature: (JIIIIII[D)V
+ */
+GAMS_EXPORT void JNICALL Java_ai_gams_maps_Grid_jni_1query
+  (JNIEnv *, jobject, jlong, jint, jint, jint, jint, jint, jint, jdoubleArray);
+
+/*
+ * Class:     ai_gams_maps_Grid
+ * Method:    jni_getTile
+ * Signature: (JIZ)Ljava/nio/ByteBuffer;
+ */
+GAMS_EXPORT jobject JNICALL Java_ai_gams_maps_Grid_jni_1getTile
+  (JNIEnv *, jobject, jlong, jint, jboolean);
+
+/*
+ * Class:     ai_gams_maps_Grid
+ * Method:    jni_resize
+ * Signature: (JIIIIDZ)V
+ */
+GAMS_EXPORT void JNICALL Java_ai_gams_maps_Grid_jni_1resize
+  (JNIEnv *, jobject, jlong, jint, jint, jint, jint, jdouble, jboolean);
+
+/*
+ * Class:     ai_gams_maps_Grid
+ * Method:    jni_clear
+ * Signature: (J)V
+ */
+GAMS_EXPORT void JNICALL Java_ai_gams_maps_Grid_jni_1clear
+  (JNIEnv *, jobject, jlong);
+
+/*
+ * Class:     ai_gams_maps_Grid
+ * Method:    jni_initVars
+ * Signature: (JLjava/lang/String;J)V
+ */
+GAMS_EXPORT void JNICALL Java_ai_gams_maps_Grid_jni_1initVars
+  (JNIEnv *, jobject, jlong, jstring, jlong);
+
+/*
+ * Class:     ai_gams_maps_Grid
+ * Method:    jni_write
+ * Signature: (J)V
+ */
+GAMS_EXPORT void JNICALL Java_ai_gams_maps_Grid_jni_1write
+  (JNIEnv *, jobject, jlong);
+
+/*
+ * Class:     ai_gams_maps_Grid
+ * Method:    jni_read
+ * Signature: (J)Z
+ */
+GAMS_EXPORT jboolean JNICALL Java_ai_gams_maps_Grid_jni_1read
+  (JNIEnv *, jobject, jlong);
+
+#ifdef __cplusplus
+}
+#endif
+#endif
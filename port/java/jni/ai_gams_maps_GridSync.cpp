@@ -0,0 +1,295 @@
+#include "ai_gams_maps_GridSync.h"
+#include "gams/maps/GridSync.h"
+#include "gams_jni.h"
+
+namespace engine = madara::knowledge;
+namespace variables = gams::variables;
+
+/*
+ * Class:     ai_gams_maps_GridSync
+ * Method:    jni_GridSync
+ * Signature: (JJLjava/lang/String;Ljava/lang/String;)J
+ */
+jlong JNICALL Java_ai_gams_maps_GridSync_jni_1GridSync
+  (JNIEnv * env, jobject, jlong grid, jlong kb, jstring id, jstring name)
+{
+  jlong result (0);
+
+  variables::Grid * current = (variables::Grid *) grid;
+  engine::KnowledgeBase * knowledge = (engine::KnowledgeBase *) kb;
+
+  if (current && knowledge)
+  {
+    const char * str_id = env->GetStringUTFChars (id, 0);
+    const char * str_name = env->GetStringUTFChars (name, 0);
+
+    result = (jlong) new variables::GridSync (
+      *current, *knowledge, str_id, str_name);
+
+    env->ReleaseStringUTFChars (id, str_id);
+    env->ReleaseStringUTFChars (name, str_name);
+  }
+  else
+  {
+    // user has tried to use a deleted object. Clean up and throw
+    
+    gams::utility::java::throw_dead_obj_exception(env,
+      "GridSync::GridSync: "
+      "Grid or KnowledgeBase object is released already");
+  }
+
+  return result;
+}
+
+/*
+ * Class:     ai_gams_maps_GridSync
+ * Method:    jni_freeGridSync
+ * Signature: (J)V
+ */
+void JNICALL Java_ai_gams_maps_GridSync_jni_1freeGridSync
+  (JNIEnv *, jclass, jlong cptr)
+{
+  delete (variables::GridSync *) cptr;
+}
+
+/*
+ * Class:     ai_gams_maps_GridSync
+ * Method:    jni_send
+ * Signature: (J)J
+ */
+jlong JNICALL Java_ai_gams_maps_GridSync_jni_1send
+  (JNIEnv * env, jobject, jlong cptr)
+{
+  jlong result (0);
+
+  variables::GridSync * current = (variables::GridSync *) cptr;
+  if (current)
+  {
+    result = (jlong)current->send ();
+  }
+  else
+  {
+    // user has tried to use a deleted object. Clean up and throw
+    
+    gams::utility::java::throw_dead_obj_exception(env,
+      "GridSync::send: "
+      "GridSync object is released already");
+  }
+
+  return result;
+}
+
+/*
+ * Class:     ai_gams_maps_GridSync
+ * Method:    jni_receive
+ * Signature: (J)J
+ */
+jlong JNICALL Java_ai_gams_maps_GridSync_jni_1receive
+  (JNIEnv * env, jobject, jlong cptr)
+{
+  jlong result (0);
+
+  variables::GridSync * current = (variables::GridSync *) cptr;
+  if (current)
+  {
+    result = (jlong)current->receive ();
+  }
+  else
+  {
+    // user has tried to use a deleted object. Clean up and throw
+    
+    gams::utility::java::throw_dead_obj_exception(env,
+      "GridSync::receive: "
+      "GridSync object is released already");
+  }
+
+  return result;
+}
+
+/*
+ * Class:     ai_gams_maps_GridSync
+ * Method:    jni_sendAll
+ * Signature: (J)V
+ */
+void JNICALL Java_ai_gams_maps_GridSync_jni_1sendAll
+  (JNIEnv * env, jobject, jlong cptr)
+{
+  variables::GridSync * current = (variables::GridSync *) cptr;
+  if (current)
+  {
+    current->send_all ();
+  }
+  else
+  {
+    // user has tried to use a deleted object. Clean up and throw
+    
+    gams::utility::java::throw_dead_obj_exception(env,
+      "GridSync::sendAll: "
+      "GridSync object is released already");
+  }
+}
+
+/*
+ * Class:     ai_gams_maps_GridSync
+ * Method:    jni_setKeyframeInterval
+ * Signature: (JJ)V
+ */
+void JNICALL Java_ai_gams_maps_GridSync_jni_1setKeyframeInterval
+  (JNIEnv * env, jobject, jlong cptr, jlong interval)
+{
+  variables::GridSync * current = (variables::GridSync *) cptr;
+  if (current)
+  {
+    current->set_keyframe_interval (
+      interval < 0 ? 0 : (uint64_t)interval);
+  }
+  else
+  {
+    // user has tried to use a deleted object. Clean up and throw
+    
+    gams::utility::java::throw_dead_obj_exception(env,
+      "GridSync::setKeyframeInterval: "
+      "GridSync object is released already");
+  }
+}
+
+/*
+ * Class:     ai_gams_maps_GridSync
+ * Method:    jni_getKeyframeInterval
+ * Signature: (J)J
+ */
+jlong JNICALL Java_ai_gams_maps_GridSync_jni_1getKeyframeInterval
+  (JNIEnv * env, jobject, jlong cptr)
+{
+  jlong result (0);
+
+  variables::GridSync * current = (variables::GridSync *) cptr;
+  if (current)
+  {
+    result = (jlong)current->get_keyframe_interval ();
+  }
+  else
+  {
+    // user has tried to use a deleted object. Clean up and throw
+    
+    gams::utility::java::throw_dead_obj_exception(env,
+      "GridSync::getKeyframeInterval: "
+      "GridSync object is released already");
+  }
+
+  return result;
+}
+
+/*
+ * Class:     ai_gams_maps_GridSync
+ * Method:    jni_getVersion
+ * Signature: (JI)J
+ */
+jlong JNICALL Java_ai_gams_maps_GridSync_jni_1getVersion
+  (JNIEnv * env, jobject, jlong cptr, jint index)
+{
+  jlong result (0);
+
+  variables::GridSync * current = (variables::GridSync *) cptr;
+  if (current)
+  {
+    if (index >= 0)
+    {
+      result = (jlong)current->get_version ((size_t)index);
+    }
+  }
+  else
+  {
+    // user has tried to use a deleted object. Clean up and throw
+    
+    gams::utility::java::throw_dead_obj_exception(env,
+      "GridSync::getVersion: "
+      "GridSync object is released already");
+  }
+
+  return result;
+}
+
+/*
+ * Class:     ai_gams_maps_GridSync
+ * Method:    jni_getKey
+ * Signature: (J)Ljava/lang/String;
+ */
+jstring JNICALL Java_ai_gams_maps_GridSync_jni_1getKey
+  (JNIEnv * env, jobject, jlong cptr)
+{
+  jstring result = 0;
+
+  variables::GridSync * current = (variables::GridSync *) cptr;
+  if (current)
+  {
+    result = env->NewStringUTF (current->get_key ().c_str ());
+  }
+  else
+  {
+    // user has tried to use a deleted object. Clean up and throw
+    
+    gams::utility::java::throw_dead_obj_exception(env,
+      "GridSync::getKey: "
+      "GridSync object is released already");
+  }
+
+  return result;
+}
+
+/*
+ * Class:     ai_gams_maps_GridSync
+ * Method:    jni_getStats
+ * Signature: (J[J)V
+ */
+void JNICALL Java_ai_gams_maps_GridSync_jni_1getStats
+  (JNIEnv * env, jobject, jlong cptr, jlongArray stats)
+{
+  variables::GridSync * current = (variables::GridSync *) cptr;
+  if (current)
+  {
+    const variables::GridSyncStats & source = current->get_stats ();
+
+    jlong values[] = {
+      (jlong)source.sends, (jlong)source.bytes_sent,
+      (jlong)source.last_bytes_sent, (jlong)source.tiles_sent,
+      (jlong)source.full_tiles_sent, (jlong)source.cells_sent,
+      (jlong)source.receives, (jlong)source.bytes_received,
+      (jlong)source.tiles_received, (jlong)source.version_gaps,
+      (jlong)source.rejected
+    };
+
+    env->SetLongArrayRegion (stats, 0, 11, values);
+  }
+  else
+  {
+    // user has tried to use a deleted object. Clean up and throw
+    
+    gams::utility::java::throw_dead_obj_exception(env,
+      "GridSync::getStats: "
+      "GridSync object is released already");
+  }
+}
+
+/*
+ * Class:     ai_gams_maps_GridSync
+ * Method:    jni_resetStats
+ * Signature: (J)V
+ */
+void JNICALL Java_ai_gams_maps_GridSync_jni_1resetStats
+  (JNIEnv * env, jobject, jlong cptr)
+{
+  variables::GridSync * current = (variables::GridSync *) cptr;
+  if (current)
+  {
+    current->reset_stats ();
+  }
+  else
+  {
+    // user has tried to use a deleted object. Clean up and throw
+    
+    gams::utility::java::throw_dead_obj_exception(env,
+      "GridSync::resetStats: "
+      "GridSync object is released already");
+  }
+}
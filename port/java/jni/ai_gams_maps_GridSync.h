@@ -0,0 +1,102 @@
+/* DO NOT EDIT THIS FILE - it is machine generated */
+#include <jni.h>
+#include "gams/GamsExport.h"
+/* Header for class ai_gams_maps_GridSync */
+
+#ifndef _Included_ai_gams_maps_GridSync
+#define _Included_ai_gams_maps_GridSync
+#ifdef __cplusplus
+extern "C" {
+#endif
+/*
+ * Class:     ai_gams_maps_GridSync
+ * Method:    jni_GridSync
+ * Signature: (JJLjava/lang/String;Ljava/lang/String;)J
+ */
+GAMS_EXPORT jlong JNICALL Java_ai_gams_maps_GridSync_jni_1GridSync
+  (JNIEnv *, jobject, jlong, jlong, jstring, jstring);
+
+/*
+ * Class:     ai_gams_maps_GridSync
+ * Method:    jni_freeGridSync
+ * Signature: (J)V
+ */
+GAMS_EXPORT void JNICALL Java_ai_gams_maps_GridSync_jni_1freeGridSync
+  (JNIEnv *, jclass, jlong);
+
+/*
+ * Class:     ai_gams_maps_GridSync
+ * Method:    jni_send
+ * Signature: (J)J
+ */
+GAMS_EXPORT jlong JNICALL Java_ai_gams_maps_GridSync_jni_1send
+  (JNIEnv *, jobject, jlong);
+
+/*
+ * Class:     ai_gams_maps_GridSync
+ * Method:    jni_receive
+ * Signature: (J)J
+ */
+GAMS_EXPORT jlong JNICALL Java_ai_gams_maps_GridSync_jni_1receive
+  (JNIEnv *, jobject, jlong);
+
+/*
+ * Class:     ai_gams_maps_GridSync
+ * Method:    jni_sendAll
+ * Signature: (J)V
+ */
+GAMS_EXPORT void JNICALL Java_ai_gams_maps_GridSync_jni_1sendAll
+  (JNIEnv *, jobject, jlong);
+
+/*
+ * Class:     ai_gams_maps_GridSync
+ * Method:    jni_setKeyframeInterval
+ * Signature: (JJ)V
+ */
+GAMS_EXPORT void JNICALL Java_ai_gams_maps_GridSync_jni_1setKeyframeInterval
+  (JNIEnv *, jobject, jlong, jlong);
+
+/*
+ * Class:     ai_gams_maps_GridSync
+ * Method:    jni_getKeyframeInterval
+ * Signature: (J)J
+ */
+GAMS_EXPORT jlong JNICALL Java_ai_gams_maps_GridSync_jni_1getKeyframeInterval
+  (JNIEnv *, jobject, jlong);
+
+/*
+ * Class:     ai_gams_maps_GridSync
+ * Method:    jni_getVersion
+ * Signature: (JI)J
+ */
+GAMS_EXPORT jlong JNICALL Java_ai_gams_maps_GridSync_jni_1getVersion
+  (JNIEnv *, jobject, jlong, jint);
+
+/*
+ * Class:     ai_gams_maps_GridSync
+ * Method:    jni_getKey
+ * Signature: (J)Ljava/lang/String;
+ */
+GAMS_EXPORT jstring JNICALL Java_ai_gams_maps_GridSync_jni_1getKey
+  (JNIEnv *, jobject, jlong);
+
+/*
+ * Class:     ai_gams_maps_GridSync
+ * Method:    jni_getStats
+ * Signature: (J[J)V
+ */
+GAMS_EXPORT void JNICALL Java_ai_gams_maps_GridSync_jni_1getStats
+  (JNIEnv *, jobject, jlong, jlongArray);
+
+/*
+ * Class:     ai_gams_maps_GridSync
+ * Method:    jni_resetStats
+ * Signature: (J)V
+ */
+GAMS_EXPORT void JNICALL Java_ai_gams_maps_GridSync_jni_1resetStats
+  (JNIEnv *, jobject, jlong);
+
+#ifdef __cplusplus
+}
+#endif
+#endif
@@ -0,0 +1,251 @@
+#include "ai_gams_utility_Axes.h"
+#include "gams/pose/Orientation.h"
+#include "gams_jni.h"
+
+namespace pose = gams::pose;
+
+/*
+ * Class:     ai_gams_utility_Axes
+ * Method:    jni_Axes
+ * Signature: ()J
+ */
+jlong JNICALL Java_ai_gams_utility_Axes_jni_1Axes__
+  (JNIEnv *, jobject)
+{
+  return (jlong) new pose::Orientation (0, 0, 0);
+}
+
+/*
+ * Class:     ai_gams_utility_Axes
+ * Method:    jni_Axes
+ * Signature: (J)J
+ */
+jlong JNICALL Java_ai_gams_utility_Axes_jni_1Axes__J
+  (JNIEnv *, jobject, jlong cptr)
+{
+  return (jlong) new pose::Orientation (*(pose::Orientation *)cptr);
+}
+
+/*
+ * Class:     ai_gams_utility_Axes
+ * Method:    jni_Axes
+ * Signature: (DDD)J
+ */
+jlong JNICALL Java_ai_gams_utility_Axes_jni_1Axes__DDD
+  (JNIEnv *, jobject, jdouble x, jdouble y, jdouble z)
+{
+  return (jlong) new pose::Orientation (x, y, z);
+}
+
+/*
+ * Class:     ai_gams_utility_Axes
+ * Method:    jni_freeAxes
+ * Signature: (J)V
+ */
+void JNICALL Java_ai_gams_utility_Axes_jni_1freeAxes
+  (JNIEnv *, jclass, jlong cptr)
+{
+  delete (pose::Orientation *) cptr;
+}
+
+/*
+ * Class:     ai_gams_utility_Axes
+ * Method:    jni_toString
+ * Signature: (J)Ljava/lang/String;
+ */
+jstring JNICALL Java_ai_gams_utility_Axes_jni_1toString
+  (JNIEnv * env, jobject, jlong cptr)
+{
+  jstring result = 0;
+
+  pose::Orientation * current = (pose::Orientation *) cptr;
+  if (current)
+  {
+    result = env->NewStringUTF(current->to_string ().c_str ());
+  }
+  else
+  {
+    // user has tried to use a deleted object. Clean up and throw
+    
+    gams::utility::java::throw_dead_obj_exception(env,
+      "Axes::toString: "
+      "Axes object is released already");
+  }
+
+  return result;
+}
+
+/*
+ * Class:     ai_gams_utility_Axes
+ * Method:    jni_getX
+ * Signature: (J)D
+ */
+jdouble JNICALL Java_ai_gams_utility_Axes_jni_1getX
+  (JNIEnv * env, jobject, jlong cptr)
+{
+  jdouble result (0);
+
+  pose::Orientation * current = (pose::Orientation *) cptr;
+  if (current)
+  {
+    result = current->rx ();
+  }
+  else
+  {
+    // user has tried to use a deleted object. Clean up and throw
+    
+    gams::utility::java::throw_dead_obj_exception(env,
+      "Axes::getX: "
+      "Axes object is released already");
+  }
+
+  return result;
+}
+
+/*
+ * Class:     ai_gams_utility_Axes
+ * Method:    jni_getY
+ * Signature: (J)D
+ */
+jdouble JNICALL Java_ai_gams_utility_Axes_jni_1getY
+  (JNIEnv * env, jobject, jlong cptr)
+{
+  jdouble result (0);
+
+  pose::Orientation * current = (pose::Orientation *) cptr;
+  if (current)
+  {
+    result = current->ry ();
+  }
+  else
+  {
+    // user has tried to use a deleted object. Clean up and throw
+    
+    gams::utility::java::throw_dead_obj_exception(env,
+      "Axes::getY: "
+      "Axes object is released already");
+  }
+
+  return result;
+}
+
+/*
+ * Class:     ai_gams_utility_Axes
+ * Method:    jni_getZ
+ * Signature: (J)D
+ */
+jdouble JNICALL Java_ai_gams_utility_Axes_jni_1getZ
+  (JNIEnv * env, jobject, jlong cptr)
+{
+  jdouble result (0);
+
+  pose::Orientation * current = (pose::Orientation *) cptr;
+  if (current)
+  {
+    result = current->rz ();
+  }
+  else
+  {
+    // user has tried to use a deleted object. Clean up and throw
+    
+    gams::utility::java::throw_dead_obj_exception(env,
+      "Axes::getZ: "
+      "Axes object is released already");
+  }
+
+  return result;
+}
+
+/*
+ * Class:     ai_gams_utility_Axes
+ * Method:    jni_setX
+ * Signature: (JD)V
+ */
+void JNICALL Java_ai_gams_utility_Axes_jni_1setX
+  (JNIEnv * env, jobject, jlong cptr, jdouble input)
+{
+  pose::Orientation * current = (pose::Orientation *) cptr;
+  if (current)
+  {
+    current->rx (input);
+  }
+  else
+  {
+    // user has tried to use a deleted object. Clean up and throw
+    
+    gams::utility::java::throw_dead_obj_exception(env,
+      "Axes::setX: "
+      "Axes object is released already");
+  }
+}
+
+/*
+ * Class:     ai_gams_utility_Axes
+ * Method:    jni_setY
+ * Signature: (JD)V
+ */
+void JNICALL Java_ai_gams_utility_Axes_jni_1setY
+  (JNIEnv * env, jobject, jlong cptr, jdouble input)
+{
+  pose::Orientation * current = (pose::Orientation *) cptr;
+  if (current)
+  {
+    current->ry (input);
+  }
+  else
+  {
+    // user has tried to use a deleted object. Clean up and throw
+    
+    gams::utility::java::throw_dead_obj_exception(env,
+      "Axes::setY: "
+      "Axes object is released already");
+  }
+}
+
+/*
+ * Class:     ai_gams_utility_Axes
+ * Method:    jni_setZ
+ * Signature: (JD)V
+ */
+void JNICALL Java_ai_gams_utility_Axes_jni_1setZ
+  (JNIEnv * env, jobject, jlong cptr, jdouble input)
+{
+  pose::Orientation * current = (pose::Orientation *) cptr;
+  if (current)
+  {
+    current->rz (input);
+  }
+  else
+  {
+    // user has tried to use a deleted object. Clean up and throw
+    
+    gams::utility::java::throw_dead_obj_exception(env,
+      "Axes::setZ: "
+      "Axes object is released already");
+  }
+}
+
+/*
+ * Class:     ai_gams_utility_Axes
+ * Method:    jni_set
+ * Signature: (JDDD)V
+ */
+void JNICALL Java_ai_gams_utility_Axes_jni_1set
+  (JNIEnv * env, jobject, jlong cptr, jdouble inx, jdouble iny, jdouble inz)
+{
+  pose::Orientation * current = (pose::Orientation *) cptr;
+  if (current)
+  {
+    current->rx (inx);
+    current->ry (iny);
+    current->rz (inz);
+  }
+  else
+  {
+    // user has tried to use a deleted object. Clean up and throw
+    
+    gams::utility::java::throw_dead_obj_exception(env,
+      "Axes::set: "
+      "Axes object is released already");
+  }
+}
@@ -0,0 +1,110 @@
+/* DO NOT EDIT THIS FILE - it is machine generated */
+#include <jni.h>
+#include "gams/GamsExport.h"
+/* Header for class ai_gams_utility_Axes */
+
+#ifndef _Included_ai_gams_utility_Axes
+#define _Included_ai_gams_utility_Axes
+#ifdef __cplusplus
+extern "C" {
+#endif
+/*
+ * Class:     ai_gams_utility_Axes
+ * Method:    jni_Axes
+ * Signature: ()J
+ */
+GAMS_EXPORT jlong JNICALL Java_ai_gams_utility_Axes_jni_1Axes__
+  (JNIEnv *, jobject);
+
+/*
+ * Class:     ai_gams_utility_Axes
+ * Method:    jni_Axes
+ * Signature: (J)J
+ */
+GAMS_EXPORT jlong JNICALL Java_ai_gams_utility_Axes_jni_1Axes__J
+  (JNIEnv *, jobject, jlong);
+
+/*
+ * Class:     ai_gams_utility_Axes
+ * Method:    jni_Axes
+ * Signature: (DDD)J
+ */
+GAMS_EXPORT jlong JNICALL Java_ai_gams_utility_Axes_jni_1Axes__DDD
+  (JNIEnv *, jobject, jdouble, jdouble, jdouble);
+
+/*
+ * Class:     ai_gams_utility_Axes
+ * Method:    jni_freeAxes
+ * Signature: (J)V
+ */
+GAMS_EXPORT void JNICALL Java_ai_gams_utility_Axes_jni_1freeAxes
+  (JNIEnv *, jclass, jlong);
+
+/*
+ * Class:     ai_gams_utility_Axes
+ * Method:    jni_toString
+ * Signature: (J)Ljava/lang/String;
+ */
+GAMS_EXPORT jstring JNICALL Java_ai_gams_utility_Axes_jni_1toString
+  (JNIEnv *, jobject, jlong);
+
+/*
+ * Class:     ai_gams_utility_Axes
+ * Method:    jni_getX
+ * Signature: (J)D
+ */
+GAMS_EXPORT jdouble JNICALL Java_ai_gams_utility_Axes_jni_1getX
+  (JNIEnv *, jobject, jlong);
+
+/*
+ * Class:     ai_gams_utility_Axes
+ * Method:    jni_getY
+ * Signature: (J)D
+ */
+GAMS_EXPORT jdouble JNICALL Java_ai_gams_utility_Axes_jni_1getY
+  (JNIEnv *, jobject, jlong);
+
+/*
+ * Class:     ai_gams_utility_Axes
+ * Method:    jni_getZ
+ * Signature: (J)D
+ */
+GAMS_EXPORT jdouble JNICALL Java_ai_gams_utility_Axes_jni_1getZ
+  (JNIEnv *, jobject, jlong);
+
+/*
+ * Class:     ai_gams_utility_Axes
+ * Method:    jni_setX
+ * Signature: (JD)V
+ */
+GAMS_EXPORT void JNICALL Java_ai_gams_utility_Axes_jni_1setX
+  (JNIEnv *, jobject, jlong, jdouble);
+
+/*
+ * Class:     ai_gams_utility_Axes
+ * Method:    jni_setY
+ * Signature: (JD)V
+ */
+GAMS_EXPORT void JNICALL Java_ai_gams_utility_Axes_jni_1setY
+  (JNIEnv *, jobject, jlong, jdouble);
+
+/*
+ * Class:     ai_gams_utility_Axes
+ * Method:    jni_setZ
+ * Signature: (JD)V
+ */
+GAMS_EXPORT void JNICALL Java_ai_gams_utility_Axes_jni_1setZ
+  (JNIEnv *, jobject, jlong, jdouble);
+
+/*
+ * Class:     ai_gams_utility_Axes
+ * Method:    jni_set
+ * Signature: (JDDD)V
+ */
+GAMS_EXPORT void JNICALL Java_ai_gams_utility_Axes_jni_1set
+  (JNIEnv *, jobject, jlong, jdouble, jdouble, jdouble);
+
+#ifdef __cplusplus
+}
+#endif
+#endif
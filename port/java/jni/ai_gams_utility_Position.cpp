@@ -198,7 +198,7 @@ void JNICALL Java_ai_gams_utility_Position_jni_1setY
 
   if (current)
   {
-    current->x = input;
+    current->y = input;
   }
   else
   {
@@ -234,3 +234,138 @@ void JNICALL Java_ai_gams_utility_Position_jni_1setZ
   }
 }
 
+/*
+ * Class:     ai_gams_utility_Position
+ * Method:    jni_toArray
+ * Signature: (J[D)V
+ */
+void JNICALL Java_ai_gams_utility_Position_jni_1toArray
+  (JNIEnv * env, jobject, jlong cptr, jdoubleArray output)
+{
+  utility::Position * current = (utility::Position *) cptr;
+
+  if (current)
+  {
+    jdouble coords[3] = { current->x, current->y, current->z };
+    env->SetDoubleArrayRegion (output, 0, 3, coords);
+  }
+  else
+  {
+    // user has tried to use a deleted object. Clean up and throw
+    
+    gams::utility::java::throw_dead_obj_exception(env,
+      "Position::toArray: "
+      "Position object is released already");
+  }
+}
+
+/*
+ * Class:     ai_gams_utility_Position
+ * Method:    jni_fromArray
+ * Signature: (J[D)V
+ */
+void JNICALL Java_ai_gams_utility_Position_jni_1fromArray
+  (JNIEnv * env, jobject, jlong cptr, jdoubleArray input)
+{
+  utility::Position * current = (utility::Position *) cptr;
+
+  if (current)
+  {
+    jdouble coords[3];
+    env->GetDoubleArrayRegion (input, 0, 3, coords);
+
+    current->x = coords[0];
+    current->y = coords[1];
+    current->z = coords[2];
+  }
+  else
+  {
+    // user has tried to use a deleted object. Clean up and throw
+    
+    gams::utility::java::throw_dead_obj_exception(env,
+      "Position::fromArray: "
+      "Position object is released already");
+  }
+}
+
+/*
+ * Class:     ai_gams_utility_Position
+ * Method:    jni_toBuffer
+ * Signature: (JLjava/nio/DoubleBuffer;I)V
+ */
+void JNICALL Java_ai_gams_utility_Position_jni_1toBuffer
+  (JNIEnv * env, jobject, jlong cptr, jobject buffer, jint index)
+{
+  utility::Position * current = (utility::Position *) cptr;
+  jdouble * elements = (jdouble *) env->GetDirectBufferAddress (buffer);
+
+  if (current && elements &&
+    index >= 0 && index + 3 <= env->GetDirectBufferCapacity (buffer))
+  {
+    elements[index] = current->x;
+    elements[index + 1] = current->y;
+    elements[index + 2] = current->z;
+  }
+  else if (!current)
+  {
+    // user has tried to use a deleted object. Clean up and throw
+    
+    gams::utility::java::throw_dead_obj_exception(env,
+      "Position::toBuffer: "
+      "Position object is released already");
+  }
+}
+
+/*
+ * Class:     ai_gams_utility_Position
+ * Method:    jni_fromBuffer
+ * Signature: (JLjava/nio/DoubleBuffer;I)V
+ */
+void JNICALL Java_ai_gams_utility_Position_jni_1fromBuffer
+  (JNIEnv * env, jobject, jlong cptr, jobject buffer, jint index)
+{
+  utility::Position * current = (utility::Position *) cptr;
+  const jdouble * elements = (const jdouble *) env->GetDirectBufferAddress (buffer);
+
+  if (current && elements &&
+    index >= 0 && index + 3 <= env->GetDirectBufferCapacity (buffer))
+  {
+    current->x = elements[index];
+    current->y = elements[index + 1];
+    current->z = elements[index + 2];
+  }
+  else if (!current)
+  {
+    // user has tried to use a deleted object. Clean up and throw
+    
+    gams::utility::java::throw_dead_obj_exception(env,
+      "Position::fromBuffer: "
+      "Position object is released already");
+  }
+}
+
+/*
+ * Class:     ai_gams_utility_Position
+ * Method:    jni_set
+ * Signature: (JDDD)V
+ */
+void JNICALL Java_ai_gams_utility_Position_jni_1set
+  (JNIEnv * env, jobject, jlong cptr, jdouble inx, jdouble iny, jdouble inz)
+{
+  utility::Position * current = (utility::Position *) cptr;
+
+  if (current)
+  {
+    current->x = inx;
+    current->y = iny;
+    current->z = inz;
+  }
+  else
+  {
+    // user has tried to use a deleted object. Clean up and throw
+    
+    gams::utility::java::throw_dead_obj_exception(env,
+      "Position::set: "
+      "Position object is released already");
+  }
+}
@@ -96,6 +96,46 @@ GAMS_EXPORT void JNICALL Java_ai_gams_utility_Position_jni_1setY
 GAMS_EXPORT void JNICALL Java_ai_gams_utility_Position_jni_1setZ
   (JNIEnv *, jobject, jlong, jdouble);
 
+/*
+ * Class:     ai_gams_utility_Position
+ * Method:    jni_toArray
+ * Signature: (J[D)V
+ */
+GAMS_EXPORT void JNICALL Java_ai_gams_utility_Position_jni_1toArray
+  (JNIEnv *, jobject, jlong, jdoubleArray);
+
+/*
+ * Class:     ai_gams_utility_Position
+ * Method:    jni_fromArray
+ * Signature: (J[D)V
+ */
+GAMS_EXPORT void JNICALL Java_ai_gams_utility_Position_jni_1fromArray
+  (JNIEnv *, jobject, jlong, jdoubleArray);
+
+/*
+ * Class:     ai_gams_utility_Position
+ * Method:    jni_toBuffer
+ * Signature: (JLjava/nio/DoubleBuffer;I)V
+ */
+GAMS_EXPORT void JNICALL Java_ai_gams_utility_Position_jni_1toBuffer
+  (JNIEnv *, jobject, jlong, jobject, jint);
+
+/*
+ * Class:     ai_gams_utility_Position
+ * Method:    jni_fromBuffer
+ * Signature: (JLjava/nio/DoubleBuffer;I)V
+ */
+GAMS_EXPORT void JNICALL Java_ai_gams_utility_Position_jni_1fromBuffer
+  (JNIEnv *, jobject, jlong, jobject, jint);
+
+/*
+ * Class:     ai_gams_utility_Position
+ * Method:    jni_set
+ * Signature: (JDDD)V
+ */
+GAMS_EXPORT void JNICALL Java_ai_gams_utility_Position_jni_1set
+  (JNIEnv *, jobject, jlong, jdouble, jdouble, jdouble);
+
 #ifdef __cplusplus
 }
 #endif
@@ -3,6 +3,8 @@
 #include <string>
 
 #include "gams/pose/Region.h"
+#include "gams/utility/Position.h"
+#include "gams/utility/GPSPosition.h"
 #include "gams_jni.h"
 
 namespace containers = madara::knowledge::containers;
@@ -233,9 +235,11 @@ jlongArray JNICALL Java_ai_gams_utility_Region_jni_1getVertices
     {
       result = env->NewLongArray ((jsize)current->vertices.size ());
       jlong * elements = env->GetLongArrayElements(result, 0);
+      // the Java wrappers are GpsPosition, which own utility::GPSPosition
       for (size_t i = 0; i < current->vertices.size (); ++i)
       {
-        elements[i] = (jlong) new pose::Position (current->vertices[i]);
+        elements[i] = (jlong) new gams::utility::GPSPosition (
+          current->vertices[i]);
       }
       env->ReleaseLongArrayElements(result, elements, 0);
     }
@@ -252,6 +256,47 @@ jlongArray JNICALL Java_ai_gams_utility_Region_jni_1getVertices
   return result;
 }
 
+/*
+ * Class:     ai_gams_utility_Region
+ * Method:    jni_getVertexArray
+ * Signature: (J)[D
+ */
+jdoubleArray JNICALL Java_ai_gams_utility_Region_jni_1getVertexArray
+  (JNIEnv * env, jobject, jlong cptr)
+{
+  jdoubleArray result (0);
+  pose::Region * current = (pose::Region *) cptr;
+
+  if (current)
+  {
+    size_t size = current->vertices.size ();
+    std::vector <jdouble> packed (size * 3);
+
+    for (size_t i = 0; i < size; ++i)
+    {
+      packed[i * 3] = current->vertices[i].latitude ();
+      packed[i * 3 + 1] = current->vertices[i].longitude ();
+      packed[i * 3 + 2] = current->vertices[i].altitude ();
+    }
+
+    result = env->NewDoubleArray ((jsize)packed.size ());
+    if (size > 0)
+    {
+      env->SetDoubleArrayRegion (result, 0, (jsize)packed.size (), &packed[0]);
+    }
+  }
+  else
+  {
+    // user has tried to use a deleted object. Clean up and throw
+    
+    gams::utility::java::throw_dead_obj_exception(env,
+      "Region::getVertexArray: "
+      "Region object is released already");
+  }
+
+  return result;
+}
+
 /*
  * Class:     ai_gams_utility_Region
  * Method:    jni_getArea
@@ -502,3 +547,62 @@ jdouble JNICALL Java_ai_gams_utility_Region_jni_1getMinLong
 
   return result;
 }
+
+/*
+ * Class:     ai_gams_utility_Region
+ * Method:    jni_getVertexCount
+ * Signature: (J)I
+ */
+jint JNICALL Java_ai_gams_utility_Region_jni_1getVertexCount
+  (JNIEnv * env, jobject, jlong cptr)
+{
+  jint result (0);
+  pose::Region * current = (pose::Region *) cptr;
+
+  if (current)
+  {
+    result = (jint) current->vertices.size ();
+  }
+  else
+  {
+    // user has tried to use a deleted object. Clean up and throw
+    
+    gams::utility::java::throw_dead_obj_exception(env,
+      "Region::getVertexCount: "
+      "Region object is released already");
+  }
+
+  return result;
+}
+
+/*
+ * Class:     ai_gams_utility_Region
+ * Method:    jni_copyVertex
+ * Signature: (JIJ)V
+ */
+void JNICALL Java_ai_gams_utility_Region_jni_1copyVertex
+  (JNIEnv * env, jobject, jlong cptr, jint index, jlong target)
+{
+  pose::Region * current = (pose::Region *) cptr;
+  gams::utility::Position * vertex = (gams::utility::Position *) target;
+
+  if (current && vertex)
+  {
+    if (index >= 0 && (size_t)index < current->vertices.size ())
+    {
+      // same layout as jni_getVertexArray and GPSPosition: lat, lon, alt
+      const pose::Position & source = current->vertices[index];
+      vertex->x = source.latitude ();
+      vertex->y = source.longitude ();
+      vertex->z = source.altitude ();
+    }
+  }
+  else
+  {
+    // user has tried to use a deleted object. Clean up and throw
+    
+    gams::utility::java::throw_dead_obj_exception(env,
+      "Region::copyVertex: "
+      "Region or GpsPosition object is released already");
+  }
+}
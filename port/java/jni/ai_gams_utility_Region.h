@@ -88,6 +88,30 @@ GAMS_EXPORT void JNICALL Java_ai_gams_utility_Region_jni_1addGpsVertex
 GAMS_EXPORT jlongArray JNICALL Java_ai_gams_utility_Region_jni_1getVertices
   (JNIEnv *, jobject, jlong);
 
+/*
+ * Class:     ai_gams_utility_Region
+ * Method:    jni_getVertexArray
+ * Signature: (J)[D
+ */
+GAMS_EXPORT jdoubleArray JNICALL Java_ai_gams_utility_Region_jni_1getVertexArray
+  (JNIEnv *, jobject, jlong);
+
+/*
+ * Class:     ai_gams_utility_Region
+ * Method:    jni_getVertexCount
+ * Signature: (J)I
+ */
+GAMS_EXPORT jint JNICALL Java_ai_gams_utility_Region_jni_1getVertexCount
+  (JNIEnv *, jobject, jlong);
+
+/*
+ * Class:     ai_gams_utility_Region
+ * Method:    jni_copyVertex
+ * Signature: (JIJ)V
+ */
+GAMS_EXPORT void JNICALL Java_ai_gams_utility_Region_jni_1copyVertex
+  (JNIEnv *, jobject, jlong, jint, jlong);
+
 /*
  * Class:     ai_gams_utility_Region
  * Method:    jni_getArea
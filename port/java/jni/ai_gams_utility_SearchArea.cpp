@@ -448,7 +448,8 @@ jlongArray JNICALL Java_ai_gams_utility_SearchArea_jni_1getRegions
 
   if (current)
   {
-    std::vector <pose::PrioritizedRegion> regions = current->get_regions ();
+    const std::vector <pose::PrioritizedRegion> & regions =
+      current->get_regions ();
 
     if (regions.size () > 0)
     {
@@ -472,3 +473,62 @@ jlongArray JNICALL Java_ai_gams_utility_SearchArea_jni_1getRegions
 
   return result;
 }
+
+/*
+ * Class:     ai_gams_utility_SearchArea
+ * Method:    jni_getRegionCount
+ * Signature: (J)I
+ */
+jint JNICALL Java_ai_gams_utility_SearchArea_jni_1getRegionCount
+  (JNIEnv * env, jobject, jlong cptr)
+{
+  jint result (0);
+  pose::SearchArea * current = (pose::SearchArea *) cptr;
+
+  if (current)
+  {
+    result = (jint) current->get_regions ().size ();
+  }
+  else
+  {
+    // user has tried to use a deleted object. Clean up and throw
+    
+    gams::utility::java::throw_dead_obj_exception(env,
+      "SearchArea::getRegionCount: "
+      "SearchArea object is released already");
+  }
+
+  return result;
+}
+
+/*
+ * Class:     ai_gams_utility_SearchArea
+ * Method:    jni_copyRegion
+ * Signature: (JIJ)V
+ */
+void JNICALL Java_ai_gams_utility_SearchArea_jni_1copyRegion
+  (JNIEnv * env, jobject, jlong cptr, jint index, jlong target)
+{
+  pose::SearchArea * current = (pose::SearchArea *) cptr;
+  pose::PrioritizedRegion * region = (pose::PrioritizedRegion *) target;
+
+  if (current && region)
+  {
+    const std::vector <pose::PrioritizedRegion> & regions =
+      current->get_regions ();
+
+    // assignment reuses the target's vertex storage where it can
+    if (index >= 0 && (size_t)index < regions.size ())
+    {
+      *region = regions[index];
+    }
+  }
+  else
+  {
+    // user has tried to use a deleted object. Clean up and throw
+    
+    gams::utility::java::throw_dead_obj_exception(env,
+      "SearchArea::copyRegion: "
+      "SearchArea or PrioritizedRegion object is released already");
+  }
+}
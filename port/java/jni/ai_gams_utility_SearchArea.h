@@ -160,6 +160,22 @@ GAMS_EXPORT jlong JNICALL Java_ai_gams_utility_SearchArea_jni_1getGpsPriority
 GAMS_EXPORT jlongArray JNICALL Java_ai_gams_utility_SearchArea_jni_1getRegions
   (JNIEnv *, jobject, jlong);
 
+/*
+ * Class:     ai_gams_utility_SearchArea
+ * Method:    jni_getRegionCount
+ * Signature: (J)I
+ */
+GAMS_EXPORT jint JNICALL Java_ai_gams_utility_SearchArea_jni_1getRegionCount
+  (JNIEnv *, jobject, jlong);
+
+/*
+ * Class:     ai_gams_utility_SearchArea
+ * Method:    jni_copyRegion
+ * Signature: (JIJ)V
+ */
+GAMS_EXPORT void JNICALL Java_ai_gams_utility_SearchArea_jni_1copyRegion
+  (JNIEnv *, jobject, jlong, jint, jlong);
+
 #ifdef __cplusplus
 }
 #endif
@@ -0,0 +1,70 @@
+#include "ai_gams_utility_ThreadAttachment.h"
+#include "gams_jni.h"
+
+namespace java = gams::utility::java;
+
+/*
+ * Class:     ai_gams_utility_ThreadAttachment
+ * Method:    jni_setPersistent
+ * Signature: (Z)V
+ */
+void JNICALL Java_ai_gams_utility_ThreadAttachment_jni_1setPersistent
+  (JNIEnv *, jclass, jboolean enabled)
+{
+  java::set_persistent_attach (enabled != JNI_FALSE);
+}
+
+/*
+ * Class:     ai_gams_utility_ThreadAttachment
+ * Method:    jni_isPersistent
+ * Signature: ()Z
+ */
+jboolean JNICALL Java_ai_gams_utility_ThreadAttachment_jni_1isPersistent
+  (JNIEnv *, jclass)
+{
+  return java::is_persistent_attach () ? JNI_TRUE : JNI_FALSE;
+}
+
+/*
+ * Class:     ai_gams_utility_ThreadAttachment
+ * Method:    jni_getAttachCount
+ * Signature: ()J
+ */
+jlong JNICALL Java_ai_gams_utility_ThreadAttachment_jni_1getAttachCount
+  (JNIEnv *, jclass)
+{
+  return java::get_attach_count ();
+}
+
+/*
+ * Class:     ai_gams_utility_ThreadAttachment
+ * Method:    jni_getDetachCount
+ * Signature: ()J
+ */
+jlong JNICALL Java_ai_gams_utility_ThreadAttachment_jni_1getDetachCount
+  (JNIEnv *, jclass)
+{
+  return java::get_detach_count ();
+}
+
+/*
+ * Class:     ai_gams_utility_ThreadAttachment
+ * Method:    jni_getPersistentThreadCount
+ * Signature: ()J
+ */
+jlong JNICALL Java_ai_gams_utility_ThreadAttachment_jni_1getPersistentThreadCount
+  (JNIEnv *, jclass)
+{
+  return java::get_persistent_thread_count ();
+}
+
+/*
+ * Class:     ai_gams_utility_ThreadAttachment
+ * Method:    jni_resetCounts
+ * Signature: ()V
+ */
+void JNICALL Java_ai_gams_utility_ThreadAttachment_jni_1resetCounts
+  (JNIEnv *, jclass)
+{
+  java::reset_attach_counts ();
+}
@@ -0,0 +1,62 @@
+/* DO NOT EDIT THIS FILE - it is machine generated */
+#include <jni.h>
+#include "gams/GamsExport.h"
+/* Header for class ai_gams_utility_ThreadAttachment */
+
+#ifndef _Included_ai_gams_utility_ThreadAttachment
+#define _Included_ai_gams_utility_ThreadAttachment
+#ifdef __cplusplus
+extern "C" {
+#endif
+/*
+ * Class:     ai_gams_utility_ThreadAttachment
+ * Method:    jni_setPersistent
+ * Signature: (Z)V
+ */
+GAMS_EXPORT void JNICALL Java_ai_gams_utility_ThreadAttachment_jni_1setPersistent
+  (JNIEnv *, jclass, jboolean);
+
+/*
+ * Class:     ai_gams_utility_ThreadAttachment
+ * Method:    jni_isPersistent
+ * Signature: ()Z
+ */
+GAMS_EXPORT jboolean JNICALL Java_ai_gams_utility_ThreadAttachment_jni_1isPersistent
+  (JNIEnv *, jclass);
+
+/*
+ * Class:     ai_gams_utility_ThreadAttachment
+ * Method:    jni_getAttachCount
+ * Signature: ()J
+ */
+GAMS_EXPORT jlong JNICALL Java_ai_gams_utility_ThreadAttachment_jni_1getAttachCount
+  (JNIEnv *, jclass);
+
+/*
+ * Class:     ai_gams_utility_ThreadAttachment
+ * Method:    jni_getDetachCount
+ * Signature: ()J
+ */
+GAMS_EXPORT jlong JNICALL Java_ai_gams_utility_ThreadAttachment_jni_1getDetachCount
+  (JNIEnv *, jclass);
+
+/*
+ * Class:     ai_gams_utility_ThreadAttachment
+ * Method:    jni_getPersistentThreadCount
+ * Signature: ()J
+ */
+GAMS_EXPORT jlong JNICALL Java_ai_gams_utility_ThreadAttachment_jni_1getPersistentThreadCount
+  (JNIEnv *, jclass);
+
+/*
+ * Class:     ai_gams_utility_ThreadAttachment
+ * Method:    jni_resetCounts
+ * Signature: ()V
+ */
+GAMS_EXPORT void JNICALL Java_ai_gams_utility_ThreadAttachment_jni_1resetCounts
+  (JNIEnv *, jclass);
+
+#ifdef __cplusplus
+}
+#endif
+#endif
@@ -4,6 +4,11 @@
 #include "gams/variables/Agent.h"
 #include "gams_jni.h"
 
+#include <vector>
+
+namespace engine = madara::knowledge;
+namespace variables = gams::variables;
+
 void JNICALL Java_ai_gams_variables_Agents_jni_1freeAgents
   (JNIEnv * env, jobject , jlongArray agents, jint length)
 {
@@ -16,4 +21,76 @@ void JNICALL Java_ai_gams_variables_Agents_jni_1freeAgents
   env->ReleaseLongArrayElements (agents, array, JNI_COMMIT);
 }
 
+/*
+ * Class:     ai_gams_variables_Agents
+ * Method:    jni_initAgents
+ * Signature: (JJ)[J
+ */
+jlongArray JNICALL Java_ai_gams_variables_Agents_jni_1initAgents
+  (JNIEnv * env, jobject, jlong kb_ptr, jlong processes)
+{
+  jlongArray result (0);
+  engine::KnowledgeBase * kb = (engine::KnowledgeBase *) kb_ptr;
+
+  if (kb && processes >= 0)
+  {
+    std::vector <jlong> agents ((size_t)processes);
+
+    for (jlong i = 0; i < processes; ++i)
+    {
+      variables::Agent * agent = new variables::Agent ();
+      agent->init_vars (*kb, (engine::KnowledgeRecord::Integer)i);
+      agents[(size_t)i] = (jlong) agent;
+    }
+
+    result = env->NewLongArray ((jsize)processes);
+    if (processes > 0)
+    {
+      env->SetLongArrayRegion (result, 0, (jsize)processes, &agents[0]);
+    }
+  }
+  else
+  {
+    // user has tried to use a deleted object. Clean up and throw
+    
+    gams::utility::java::throw_dead_obj_exception(env,
+      "Agents::initAgents: "
+      "KnowledgeBase object is released already");
+  }
+
+  return result;
+}
 
+/*
+ * Class:     ai_gams_variables_Agents
+ * Method:    jni_getLocations
+ * Signature: ([JI[D)V
+ */
+void JNICALL Java_ai_gams_variables_Agents_jni_1getLocations
+  (JNIEnv * env, jobject, jlongArray agents, jint length, jdoubleArray result)
+{
+  if (length <= 0)
+    return;
+
+  std::vector <jlong> pointers ((size_t)length);
+  std::vector <jdouble> packed ((size_t)length * 3, 0.0);
+
+  env->GetLongArrayRegion (agents, 0, length, &pointers[0]);
+
+  for (jint i = 0; i < length; ++i)
+  {
+    variables::Agent * agent = (variables::Agent *) pointers[i];
+
+    if (agent)
+    {
+      size_t size = agent->location.size ();
+
+      for (size_t j = 0; j < 3 && j < size; ++j)
+      {
+        packed[i * 3 + j] = agent->location[j];
+      }
+    }
+  }
+
+  env->SetDoubleArrayRegion (result, 0, length * 3, &packed[0]);
+}
@@ -18,6 +18,22 @@ extern "C" {
 GAMS_EXPORT void JNICALL Java_ai_gams_variables_Agents_jni_1freeAgents
   (JNIEnv *, jobject, jlongArray, jint);
 
+/*
+ * Class:     ai_gams_variables_Agents
+ * Method:    jni_initAgents
+ * Signature: (JJ)[J
+ */
+GAMS_EXPORT jlongArray JNICALL Java_ai_gams_variables_Agents_jni_1initAgents
+  (JNIEnv *, jobject, jlong, jlong);
+
+/*
+ * Class:     ai_gams_variables_Agents
+ * Method:    jni_getLocations
+ * Signature: ([JI[D)V
+ */
+GAMS_EXPORT void JNICALL Java_ai_gams_variables_Agents_jni_1getLocations
+  (JNIEnv *, jobject, jlongArray, jint, jdoubleArray);
+
 #ifdef __cplusplus
 }
 #endif
@@ -0,0 +1,265 @@
+#include "ai_gams_variables_ChangeSubscription.h"
+#include "madara/knowledge/KnowledgeBase.h"
+#include "madara/knowledge/ContextGuard.h"
+#include "gams_jni.h"
+
+#include <map>
+#include <string>
+#include <vector>
+
+namespace engine = madara::knowledge;
+
+namespace
+{
+  /**
+   * Watches a set of keys in a knowledge base and reports which of them
+   * changed value. Waiting blocks on the context's change condition, which
+   * is signaled by local modifications and by received updates.
+   **/
+  class ChangeWatcher
+  {
+  public:
+    typedef std::map <std::string, engine::KnowledgeRecord> RecordMap;
+
+    ChangeWatcher (engine::KnowledgeBase * knowledge)
+      : knowledge_ (knowledge), closed_ (false)
+    {
+    }
+
+    void watch (const std::string & key, bool prefix)
+    {
+      engine::ContextGuard guard (*knowledge_);
+
+      Watch entry;
+      entry.key = key;
+      entry.prefix = prefix;
+
+      if (prefix)
+      {
+        entry.last_map = knowledge_->to_map (key);
+      }
+      else
+      {
+        entry.ref = knowledge_->get_ref (key);
+        entry.last = knowledge_->get (entry.ref);
+      }
+
+      watches_.push_back (entry);
+    }
+
+    /**
+     * Blocks until at least one watched key changed or the watcher closed
+     * @param  changed  receives the indices of changed keys
+     * @return false if the watcher was closed
+     **/
+    bool wait (std::vector <jint> & changed)
+    {
+      engine::ContextGuard guard (*knowledge_);
+
+      changed.clear ();
+
+      while (!closed_)
+      {
+        collect (changed);
+
+        if (changed.size () > 0)
+        {
+          return true;
+        }
+
+        knowledge_->get_context ().wait_for_change (true);
+      }
+
+      return false;
+    }
+
+    void close (void)
+    {
+      {
+        engine::ContextGuard guard (*knowledge_);
+        closed_ = true;
+      }
+
+      knowledge_->get_context ().signal ();
+    }
+
+  private:
+    struct Watch
+    {
+      std::string key;
+      bool prefix;
+      engine::VariableReference ref;
+      engine::KnowledgeRecord last;
+      RecordMap last_map;
+    };
+
+    /**
+     * Compares current values to the last seen values. Caller must hold
+     * the context lock.
+     **/
+    void collect (std::vector <jint> & changed)
+    {
+      for (size_t i = 0; i < watches_.size (); ++i)
+      {
+        Watch & entry = watches_[i];
+
+        if (entry.prefix)
+        {
+          RecordMap current = knowledge_->to_map (entry.key);
+
+          if (current != entry.last_map)
+          {
+            entry.last_map.swap (current);
+            changed.push_back ((jint)i);
+          }
+        }
+        else
+        {
+          engine::KnowledgeRecord current = knowledge_->get (entry.ref);
+
+          if (current != entry.last)
+          {
+            entry.last = current;
+            changed.push_back ((jint)i);
+          }
+        }
+      }
+    }
+
+    engine::KnowledgeBase * knowledge_;
+    bool closed_;
+    std::vector <Watch> watches_;
+  };
+}
+
+/*
+ * Class:     ai_gams_variables_ChangeSubscription
+ * Method:    jni_ChangeSubscription
+ * Signature: (J)J
+ */
+jlong JNICALL Java_ai_gams_variables_ChangeSubscription_jni_1ChangeSubscription
+  (JNIEnv * env, jobject, jlong kb_ptr)
+{
+  ChangeWatcher * result (0);
+  engine::KnowledgeBase * kb = (engine::KnowledgeBase *) kb_ptr;
+
+  if (kb)
+  {
+    result = new ChangeWatcher (kb);
+  }
+  else
+  {
+    // user has tried to use a deleted object. Clean up and throw
+    
+    gams::utility::java::throw_dead_obj_exception(env,
+      "ChangeSubscription::constructor: "
+      "KnowledgeBase object is released already");
+  }
+
+  return (jlong) result;
+}
+
+/*
+ * Class:     ai_gams_variables_ChangeSubscription
+ * Method:    jni_freeChangeSubscription
+ * Signature: (J)V
+ */
+void JNICALL Java_ai_gams_variables_ChangeSubscription_jni_1freeChangeSubscription
+  (JNIEnv *, jclass, jlong cptr)
+{
+  delete (ChangeWatcher *) cptr;
+}
+
+/*
+ * Class:     ai_gams_variables_ChangeSubscription
+ * Method:    jni_watch
+ * Signature: (JLjava/lang/String;Z)V
+ */
+void JNICALL Java_ai_gams_variables_ChangeSubscription_jni_1watch
+  (JNIEnv * env, jobject, jlong cptr, jstring key, jboolean prefix)
+{
+  ChangeWatcher * current = (ChangeWatcher *) cptr;
+
+  if (current)
+  {
+    const char * str_key = env->GetStringUTFChars (key, 0);
+
+    current->watch (str_key, prefix != JNI_FALSE);
+
+    env->ReleaseStringUTFChars (key, str_key);
+  }
+  else
+  {
+    // user has tried to use a deleted object. Clean up and throw
+    
+    gams::utility::java::throw_dead_obj_exception(env,
+      "ChangeSubscription::watch: "
+      "ChangeSubscription object is released already");
+  }
+}
+
+/*
+ * Class:     ai_gams_variables_ChangeSubscription
+ * Method:    jni_waitForChanges
+ * Signature: (J[I)I
+ */
+jint JNICALL Java_ai_gams_variables_ChangeSubscription_jni_1waitForChanges
+  (JNIEnv * env, jobject, jlong cptr, jintArray changed)
+{
+  jint result (-1);
+  ChangeWatcher * current = (ChangeWatcher *) cptr;
+
+  if (current)
+  {
+    std::vector <jint> indices;
+
+    if (current->wait (indices))
+    {
+      jsize capacity = env->GetArrayLength (changed);
+      result = (jint)indices.size ();
+
+      // the array holds one slot per watched key, so this never truncates
+      if (result > capacity)
+        result = capacity;
+
+      if (result > 0)
+      {
+        env->SetIntArrayRegion (changed, 0, result, &indices[0]);
+      }
+    }
+  }
+  else
+  {
+    // user has tried to use a deleted object. Clean up and throw
+    
+    gams::utility::java::throw_dead_obj_exception(env,
+      "ChangeSubscription::waitForChanges: "
+      "ChangeSubscription object is released already");
+  }
+
+  return result;
+}
+
+/*
+ * Class:     ai_gams_variables_ChangeSubscription
+ * Method:    jni_close
+ * Signature: (J)V
+ */
+void JNICALL Java_ai_gams_variables_ChangeSubscription_jni_1close
+  (JNIEnv * env, jobject, jlong cptr)
+{
+  ChangeWatcher * current = (ChangeWatcher *) cptr;
+
+  if (current)
+  {
+    current->close ();
+  }
+  else
+  {
+    // user has tried to use a deleted object. Clean up and throw
+    
+    gams::utility::java::throw_dead_obj_exception(env,
+      "ChangeSubscription::close: "
+      "ChangeSubscription object is released already");
+  }
+}
@@ -0,0 +1,54 @@
+/* DO NOT EDIT THIS FILE - it is machine generated */
+#include <jni.h>
+#include "gams/GamsExport.h"
+/* Header for class ai_gams_variables_ChangeSubscription */
+
+#ifndef _Included_ai_gams_variables_ChangeSubscription
+#define _Included_ai_gams_variables_ChangeSubscription
+#ifdef __cplusplus
+extern "C" {
+#endif
+/*
+ * Class:     ai_gams_variables_ChangeSubscription
+ * Method:    jni_ChangeSubscription
+ * Signature: (J)J
+ */
+GAMS_EXPORT jlong JNICALL Java_ai_gams_variables_ChangeSubscription_jni_1ChangeSubscription
+  (JNIEnv *, jobject, jlong);
+
+/*
+ * Class:     ai_gams_variables_ChangeSubscription
+ * Method:    jni_freeChangeSubscription
+ * Signature: (J)V
+ */
+GAMS_EXPORT void JNICALL Java_ai_gams_variables_ChangeSubscription_jni_1freeChangeSubscription
+  (JNIEnv *, jclass, jlong);
+
+/*
+ * Class:     ai_gams_variables_ChangeSubscription
+ * Method:    jni_watch
+ * Signature: (JLjava/lang/String;Z)V
+ */
+GAMS_EXPORT void JNICALL Java_ai_gams_variables_ChangeSubscription_jni_1watch
+  (JNIEnv *, jobject, jlong, jstring, jboolean);
+
+/*
+ * Class:     ai_gams_variables_ChangeSubscription
+ * Method:    jni_waitForChanges
+ * Signature: (J[I)I
+ */
+GAMS_EXPORT jint JNICALL Java_ai_gams_variables_ChangeSubscription_jni_1waitForChanges
+  (JNIEnv *, jobject, jlong, jintArray);
+
+/*
+ * Class:     ai_gams_variables_ChangeSubscription
+ * Method:    jni_close
+ * Signature: (J)V
+ */
+GAMS_EXPORT void JNICALL Java_ai_gams_variables_ChangeSubscription_jni_1close
+  (JNIEnv *, jobject, jlong);
+
+#ifdef __cplusplus
+}
+#endif
+#endif
@@ -4,14 +4,45 @@
 #include "gams/utility/GPSPosition.h"
 #include "gams/pose/Region.h"
 #include "gams/pose/SearchArea.h"
+#include "gams/utility/WorkerPool.h"
 #include "gams_jni.h"
 
+#include <algorithm>
+#include <mutex>
+#include <set>
+#include <vector>
+
 namespace containers = madara::knowledge::containers;
 namespace engine = madara::knowledge;
 namespace variables = gams::variables;
 namespace pose = gams::pose;
 namespace utility = gams::utility;
 
+/**
+ * Packs discretized cell indices into a Java int array of x,y pairs
+ **/
+static jintArray
+pack_cells (JNIEnv * env, const std::set<pose::Position> & positions)
+{
+  std::vector <jint> packed (positions.size () * 2);
+
+  size_t cur (0);
+  for (std::set<pose::Position>::const_iterator i = positions.begin ();
+    i != positions.end (); ++i)
+  {
+    packed[cur++] = (jint)i->x ();
+    packed[cur++] = (jint)i->y ();
+  }
+
+  jintArray result = env->NewIntArray ((jsize)packed.size ());
+  if (packed.size () > 0)
+  {
+    env->SetIntArrayRegion (result, 0, (jsize)packed.size (), &packed[0]);
+  }
+
+  return result;
+}
+
 /*
  * Class:     ai_gams_variables_Sensor
  * Method:    jni_Sensor
@@ -462,7 +493,7 @@ jlongArray JNICALL Java_ai_gams_variables_Sensor_jni_1discretizeRegion
       for (std::set<pose::Position>::iterator i = positions.begin ();
         i != positions.end (); ++i)
       {
-        elements[cur] = (jlong) new utility::Position (*i);
+        elements[cur++] = (jlong) new utility::Position (*i);
       }
       env->ReleaseLongArrayElements(result, elements, 0);
     }
@@ -503,7 +534,7 @@ jlongArray JNICALL Java_ai_gams_variables_Sensor_jni_1discretizeSearchArea
       for (std::set<pose::Position>::iterator i = positions.begin ();
         i != positions.end (); ++i)
       {
-        elements[cur] = (jlong) new utility::Position (*i);
+        elements[cur++] = (jlong) new utility::Position (*i);
       }
       env->ReleaseLongArrayElements(result, elements, 0);
     }
@@ -519,3 +550,480 @@ jlongArray JNICALL Java_ai_gams_variables_Sensor_jni_1discretizeSearchArea
 
   return result;
 }
+
+/*
+ * Class:     ai_gams_variables_Sensor
+ * Method:    jni_discretizeRegionToArray
+ * Signature: (JJ)[I
+ */
+jintArray JNICALL Java_ai_gams_variables_Sensor_jni_1discretizeRegionToArray
+  (JNIEnv * env, jobject, jlong cptr, jlong region_ptr)
+{
+  jintArray result (0);
+  variables::Sensor * current = (variables::Sensor *) cptr;
+  pose::Region * region = (pose::Region *) region_ptr;
+
+  if (current && region)
+  {
+    result = pack_cells (env, current->discretize (*region));
+  }
+  else
+  {
+    // user has tried to use a deleted object. Clean up and throw
+    
+    gams::utility::java::throw_dead_obj_exception(env,
+      "Sensor::discretizeRegionToArray: "
+      "Sensor or region objects are released already");
+  }
+
+  return result;
+}
+
+/*
+ * Class:     ai_gams_variables_Sensor
+ * Method:    jni_discretizeSearchAreaToArray
+ * Signature: (JJ)[I
+ */
+jintArray JNICALL Java_ai_gams_variables_Sensor_jni_1discretizeSearchAreaToArray
+  (JNIEnv * env, jobject, jlong cptr, jlong area_ptr)
+{
+  jintArray result (0);
+  variables::Sensor * current = (variables::Sensor *) cptr;
+  pose::SearchArea * area = (pose::SearchArea *) area_ptr;
+
+  if (current && area)
+  {
+    result = pack_cells (env, current->discretize (*area));
+  }
+  else
+  {
+    // user has tried to use a deleted object. Clean up and throw
+    
+    gams::utility::java::throw_dead_obj_exception(env,
+      "Sensor::discretizeSearchAreaToArray: "
+      "Sensor or area objects are released already");
+  }
+
+  return result;
+}
+
+/*
+ * Class:     ai_gams_variables_Sensor
+ * Method:    jni_readGrid
+ * Signature: (JLjava/nio/ByteBuffer;IIII)V
+ */
+void JNICALL Java_ai_gams_variables_Sensor_jni_1readGrid
+  (JNIEnv * env, jobject, jlong cptr, jobject buffer,
+   jint min_x, jint min_y, jint width, jint height)
+{
+  variables::Sensor * current = (variables::Sensor *) cptr;
+  jdouble * values = (jdouble *) env->GetDirectBufferAddress (buffer);
+
+  if (current && values &&
+    env->GetDirectBufferCapacity (buffer) >=
+      (jlong)width * height * (jlong)sizeof (jdouble))
+  {
+    pose::Position index;
+    for (jint row = 0; row < height; ++row)
+    {
+      index.y (min_y + row);
+      for (jint col = 0; col < width; ++col)
+      {
+        index.x (min_x + col);
+        values[(size_t)row * width + col] = current->get_index_value (index);
+      }
+    }
+  }
+  else if (!current)
+  {
+    // user has tried to use a deleted object. Clean up and throw
+    
+    gams::utility::java::throw_dead_obj_exception(env,
+      "Sensor::readGrid: "
+      "Sensor object is released already");
+  }
+}
+
+/*
+ * Class:     ai_gams_variables_Sensor
+ * Method:    jni_writeGrid
+ * Signature: (JLjava/nio/ByteBuffer;III[I)V
+ */
+void JNICALL Java_ai_gams_variables_Sensor_jni_1writeGrid
+  (JNIEnv * env, jobject, jlong cptr, jobject buffer,
+   jint min_x, jint min_y, jint width, jintArray spans)
+{
+  variables::Sensor * current = (variables::Sensor *) cptr;
+  jdouble * values = (jdouble *) env->GetDirectBufferAddress (buffer);
+
+  if (current && values)
+  {
+    // spans are packed as {row, first column, last column} triples
+    jsize size = env->GetArrayLength (spans);
+    jlong capacity = env->GetDirectBufferCapacity (buffer) /
+      (jlong)sizeof (jdouble);
+    std::vector <jint> packed (size);
+
+    if (size > 0)
+    {
+      env->GetIntArrayRegion (spans, 0, size, &packed[0]);
+    }
+
+    pose::Position index;
+    for (jsize i = 0; i + 2 < size; i += 3)
+    {
+      jint row = packed[i];
+      if (row < 0)
+      {
+        continue;
+      }
+
+      // clip spans to the grid, or they would write a neighboring row's
+      // values into cells outside of it
+      jint first = std::max (packed[i + 1], (jint)0);
+      jint last = std::min (packed[i + 2], width - 1);
+
+      index.y (min_y + row);
+
+      for (jint col = first; col <= last; ++col)
+      {
+        jlong offset = (jlong)row * width + col;
+        if (offset >= 0 && offset < capacity)
+        {
+          index.x (min_x + col);
+          current->set_index_value (index, values[offset]);
+        }
+      }
+    }
+  }
+  else if (!current)
+  {
+    // user has tried to use a deleted object. Clean up and throw
+    
+    gams::utility::java::throw_dead_obj_exception(env,
+      "Sensor::writeGrid: "
+      "Sensor object is released already");
+  }
+}
+
+/*
+ * Class:     ai_gams_variables_Sensor
+ * Method:    jni_initUtilityCache
+ * Signature: (JJD)V
+ */
+void JNICALL Java_ai_gams_variables_Sensor_jni_1initUtilityCache
+  (JNIEnv * env, jobject, jlong cptr, jlong area_ptr, jdouble time)
+{
+  variables::Sensor * current = (variables::Sensor *) cptr;
+  pose::SearchArea * area = (pose::SearchArea *) area_ptr;
+
+  if (current && area)
+  {
+    current->init_utility_cache (*area, time);
+  }
+  else
+  {
+    // user has tried to use a deleted object. Clean up and throw
+    
+    gams::utility::java::throw_dead_obj_exception(env,
+      "Sensor::initUtilityCache: "
+      "Sensor or area objects are released already");
+  }
+}
+
+/*
+ * Class:     ai_gams_variables_Sensor
+ * Method:    jni_initUtilityCacheCells
+ * Signature: (JIIII[ID)V
+ */
+void JNICALL Java_ai_gams_variables_Sensor_jni_1initUtilityCacheCells
+  (JNIEnv * env, jobject, jlong cptr, jint min_x, jint min_y,
+   jint width, jint height, jintArray cells, jdouble time)
+{
+  variables::Sensor * current = (variables::Sensor *) cptr;
+
+  if (current)
+  {
+    variables::UtilityCache & cache = current->get_utility_cache ();
+    jsize size = env->GetArrayLength (cells);
+    std::vector <jint> packed (size);
+
+    if (size > 0)
+    {
+      env->GetIntArrayRegion (cells, 0, size, &packed[0]);
+    }
+
+    cache.resize (min_x, min_y, width, height, time);
+    for (jsize i = 0; i + 1 < size; i += 2)
+    {
+      cache.set_weight (packed[i], packed[i + 1], 1.0);
+    }
+    cache.refresh (time);
+  }
+  else
+  {
+    // user has tried to use a deleted object. Clean up and throw
+    
+    gams::utility::java::throw_dead_obj_exception(env,
+      "Sensor::initUtilityCacheCells: "
+      "Sensor object is released already");
+  }
+}
+
+/*
+ * Class:     ai_gams_variables_Sensor
+ * Method:    jni_markVisited
+ * Signature: (JIID)V
+ */
+void JNICALL Java_ai_gams_variables_Sensor_jni_1markVisited
+  (JNIEnv * env, jobject, jlong cptr, jint x, jint y, jdouble time)
+{
+  variables::Sensor * current = (variables::Sensor *) cptr;
+
+  if (current)
+  {
+    current->get_utility_cache ().set_last_visit (x, y, time);
+  }
+  else
+  {
+    // user has tried to use a deleted object. Clean up and throw
+    
+    gams::utility::java::throw_dead_obj_exception(env,
+      "Sensor::markVisited: "
+      "Sensor object is released already");
+  }
+}
+
+/*
+ * Class:     ai_gams_variables_Sensor
+ * Method:    jni_markVisitedCells
+ * Signature: (J[ID)V
+ */
+void JNICALL Java_ai_gams_variables_Sensor_jni_1markVisitedCells
+  (JNIEnv * env, jobject, jlong cptr, jintArray cells, jdouble time)
+{
+  variables::Sensor * current = (variables::Sensor *) cptr;
+
+  if (current)
+  {
+    variables::UtilityCache & cache = current->get_utility_cache ();
+    jsize size = env->GetArrayLength (cells);
+    std::vector <jint> packed (size);
+
+    if (size > 0)
+    {
+      env->GetIntArrayRegion (cells, 0, size, &packed[0]);
+    }
+
+    for (jsize i = 0; i + 1 < size; i += 2)
+    {
+      cache.set_last_visit (packed[i], packed[i + 1], time);
+    }
+  }
+  else
+  {
+    // user has tried to use a deleted object. Clean up and throw
+    
+    gams::utility::java::throw_dead_obj_exception(env,
+      "Sensor::markVisitedCells: "
+      "Sensor object is released already");
+  }
+}
+
+/*
+ * Class:     ai_gams_variables_Sensor
+ * Method:    jni_getLastVisit
+ * Signature: (JII)D
+ */
+jdouble JNICALL Java_ai_gams_variables_Sensor_jni_1getLastVisit
+  (JNIEnv * env, jobject, jlong cptr, jint x, jint y)
+{
+  jdouble result (0.0);
+
+  variables::Sensor * current = (variables::Sensor *) cptr;
+  if (current)
+  {
+    result = current->get_utility_cache ().get_last_visit (x, y);
+  }
+  else
+  {
+    // user has tried to use a deleted object. Clean up and throw
+    
+    gams::utility::java::throw_dead_obj_exception(env,
+      "Sensor::getLastVisit: "
+      "Sensor object is released already");
+  }
+
+  return result;
+}
+
+/*
+ * Class:     ai_gams_variables_Sensor
+ * Method:    jni_getUtility
+ * Signature: (JIID)D
+ */
+jdouble JNICALL Java_ai_gams_variables_Sensor_jni_1getUtility
+  (JNIEnv * env, jobject, jlong cptr, jint x, jint y, jdouble time)
+{
+  jdouble result (0.0);
+
+  variables::Sensor * current = (variables::Sensor *) cptr;
+  if (current)
+  {
+    result = current->get_utility_cache ().get_utility (x, y, time);
+  }
+  else
+  {
+    // user has tried to use a deleted object. Clean up and throw
+    
+    gams::utility::java::throw_dead_obj_exception(env,
+      "Sensor::getUtility: "
+      "Sensor object is released already");
+  }
+
+  return result;
+}
+
+/*
+ * Class:     ai_gams_variables_Sensor
+ * Method:    jni_refreshUtilityCache
+ * Signature: (JD)I
+ */
+jint JNICALL Java_ai_gams_variables_Sensor_jni_1refreshUtilityCache
+  (JNIEnv * env, jobject, jlong cptr, jdouble time)
+{
+  jint result (0);
+
+  variables::Sensor * current = (variables::Sensor *) cptr;
+  if (current)
+  {
+    result = (jint) current->get_utility_cache ().refresh (time);
+  }
+  else
+  {
+    // user has tried to use a deleted object. Clean up and throw
+    
+    gams::utility::java::throw_dead_obj_exception(env,
+      "Sensor::refreshUtilityCache: "
+      "Sensor object is released already");
+  }
+
+  return result;
+}
+
+/*
+ * Class:     ai_gams_variables_Sensor
+ * Method:    jni_getUtilityCacheDirtyRows
+ * Signature: (J)I
+ */
+jint JNICALL Java_ai_gams_variables_Sensor_jni_1getUtilityCacheDirtyRows
+  (JNIEnv * env, jobject, jlong cptr)
+{
+  jint result (0);
+
+  variables::Sensor * current = (variables::Sensor *) cptr;
+  if (current)
+  {
+    result = (jint) current->get_utility_cache ().get_dirty_rows ();
+  }
+  else
+  {
+    // user has tried to use a deleted object. Clean up and throw
+    
+    gams::utility::java::throw_dead_obj_exception(env,
+      "Sensor::getUtilityCacheDirtyRows: "
+      "Sensor object is released already");
+  }
+
+  return result;
+}
+
+/*
+ * Class:     ai_gams_variables_Sensor
+ * Method:    jni_getPathUtility
+ * Signature: (JIIIIDD)D
+ */
+jdouble JNICALL Java_ai_gams_variables_Sensor_jni_1getPathUtility
+  (JNIEnv * env, jobject, jlong cptr, jint start_x, jint start_y,
+   jint end_x, jint end_y, jdouble radius, jdouble time)
+{
+  jdouble result (0.0);
+
+  variables::Sensor * current = (variables::Sensor *) cptr;
+  if (current)
+  {
+    result = current->get_utility_cache ().get_path_utility (
+      start_x, start_y, end_x, end_y, radius, time);
+  }
+  else
+  {
+    // user has tried to use a deleted object. Clean up and throw
+    
+    gams::utility::java::throw_dead_obj_exception(env,
+      "Sensor::getPathUtility: "
+      "Sensor object is released already");
+  }
+
+  return result;
+}
+
+/*
+ * Class:     ai_gams_variables_Sensor
+ * Method:    jni_getPathUtilities
+ * Signature: (JII[IDD[DI)V
+ */
+void JNICALL Java_ai_gams_variables_Sensor_jni_1getPathUtilities
+  (JNIEnv * env, jobject, jlong cptr, jint start_x, jint start_y,
+   jintArray ends, jdouble radius, jdouble time, jdoubleArray results,
+   jint threads)
+{
+  variables::Sensor * current = (variables::Sensor *) cptr;
+
+  if (current)
+  {
+    const variables::UtilityCache & cache = current->get_utility_cache ();
+    jsize size = env->GetArrayLength (ends);
+    jsize count = std::min (size / 2, env->GetArrayLength (results));
+    std::vector <jint> packed (size);
+    std::vector <jdouble> utilities (count);
+
+    if (count > 0)
+    {
+      env->GetIntArrayRegion (ends, 0, size, &packed[0]);
+
+      auto score = [&] (size_t begin, size_t end, size_t)
+      {
+        for (size_t i = begin; i < end; ++i)
+        {
+          utilities[i] = cache.get_path_utility (start_x, start_y,
+            packed[2 * i], packed[2 * i + 1], radius, time);
+        }
+      };
+
+      if (threads == 1)
+      {
+        score (0, (size_t)count, 0);
+      }
+      else
+      {
+        // one pool for all sensors, so threads are not started per call
+        static std::mutex pool_mutex;
+        static utility::WorkerPool pool;
+
+        std::lock_guard<std::mutex> guard (pool_mutex);
+        pool.resize ((size_t)threads);
+        pool.run ((size_t)count, score);
+      }
+
+      env->SetDoubleArrayRegion (results, 0, count, &utilities[0]);
+    }
+  }
+  else
+  {
+    // user has tried to use a deleted object. Clean up and throw
+    
+    gams::utility::java::throw_dead_obj_exception(env,
+      "Sensor::getPathUtilities: "
+      "Sensor object is released already");
+  }
+}
@@ -160,6 +160,118 @@ GAMS_EXPORT jlongArray JNICALL Java_ai_gams_variables_Sensor_jni_1discretizeRegi
 GAMS_EXPORT jlongArray JNICALL Java_ai_gams_variables_Sensor_jni_1discretizeSearchArea
   (JNIEnv *, jobject, jlong, jlong);
 
+/*
+ * Class:     ai_gams_variables_Sensor
+ * Method:    jni_discretizeRegionToArray
+ * Signature: (JJ)[I
+ */
+GAMS_EXPORT jintArray JNICALL Java_ai_gams_variables_Sensor_jni_1discretizeRegionToArray
+  (JNIEnv *, jobject, jlong, jlong);
+
+/*
+ * Class:     ai_gams_variables_Sensor
+ * Method:    jni_discretizeSearchAreaToArray
+ * Signature: (JJ)[I
+ */
+GAMS_EXPORT jintArray JNICALL Java_ai_gams_variables_Sensor_jni_1discretizeSearchAreaToArray
+  (JNIEnv *, jobject, jlong, jlong);
+
+/*
+ * Class:     ai_gams_variables_Sensor
+ * Method:    jni_readGrid
+ * Signature: (JLjava/nio/ByteBuffer;IIII)V
+ */
+GAMS_EXPORT void JNICALL Java_ai_gams_variables_Sensor_jni_1readGrid
+  (JNIEnv *, jobject, jlong, jobject, jint, jint, jint, jint);
+
+/*
+ * Class:     ai_gams_variables_Sensor
+ * Method:    jni_writeGrid
+ * Signature: (JLjava/nio/ByteBuffer;III[I)V
+ */
+GAMS_EXPORT void JNICALL Java_ai_gams_variables_Sensor_jni_1writeGrid
+  (JNIEnv *, jobject, jlong, jobject, jint, jint, jint, jintArray);
+
+/*
+ * Class:     ai_gams_variables_Sensor
+ * Method:    jni_initUtilityCache
+ * Signature: (JJD)V
+ */
+GAMS_EXPORT void JNICALL Java_ai_gams_variables_Sensor_jni_1initUtilityCache
+  (JNIEnv *, jobject, jlong, jlong, jdouble);
+
+/*
+ * Class:     ai_gams_variables_Sensor
+ * Method:    jni_initUtilityCacheCells
+ * Signature: (JIIII[ID)V
+ */
+GAMS_EXPORT void JNICALL Java_ai_gams_variables_Sensor_jni_1initUtilityCacheCells
+  (JNIEnv *, jobject, jlong, jint, jint, jint, jint, jintArray, jdouble);
+
+/*
+ * Class:     ai_gams_variables_Sensor
+ * Method:    jni_markVisited
+ * Signature: (JIID)V
+ */
+GAMS_EXPORT void JNICALL Java_ai_gams_variables_Sensor_jni_1markVisited
+  (JNIEnv *, jobject, jlong, jint, jint, jdouble);
+
+/*
+ * Class:     ai_gams_variables_Sensor
+ * Method:    jni_markVisitedCells
+ * Signature: (J[ID)V
+ */
+GAMS_EXPORT void JNICALL Java_ai_gams_variables_Sensor_jni_1markVisitedCells
+  (JNIEnv *, jobject, jlong, jintArray, jdouble);
+
+/*
+ * Class:     ai_gams_variables_Sensor
+ * Method:    jni_getLastVisit
+ * Signature: (JII)D
+ */
+GAMS_EXPORT jdouble JNICALL Java_ai_gams_variables_Sensor_jni_1getLastVisit
+  (JNIEnv *, jobject, jlong, jint, jint);
+
+/*
+ * Class:     ai_gams_variables_Sensor
+ * Method:    jni_getUtility
+ * Signature: (JIID)D
+ */
+GAMS_EXPORT jdouble JNICALL Java_ai_gams_variables_Sensor_jni_1getUtility
+  (JNIEnv *, jobject, jlong, jint, jint, jdouble);
+
+/*
+ * Class:     ai_gams_variables_Sensor
+ * Method:    jni_refreshUtilityCache
+ * Signature: (JD)I
+ */
+GAMS_EXPORT jint JNICALL Java_ai_gams_variables_Sensor_jni_1refreshUtilityCache
+  (JNIEnv *, jobject, jlong, jdouble);
+
+/*
+ * Class:     ai_gams_variables_Sensor
+ * Method:    jni_getUtilityCacheDirtyRows
+ * Signature: (J)I
+ */
+GAMS_EXPORT jint JNICALL Java_ai_gams_variables_Sensor_jni_1getUtilityCacheDirtyRows
+  (JNIEnv *, jobject, jlong);
+
+/*
+ * Class:     ai_gams_variables_Sensor
+ * Method:    jni_getPathUtility
+ * Signature: (JIIIIDD)D
+ */
+GAMS_EXPORT jdouble JNICALL Java_ai_gams_variables_Sensor_jni_1getPathUtility
+  (JNIEnv *, jobject, jlong, jint, jint, jint, jint, jdouble, jdouble);
+
+/*
+ * Class:     ai_gams_variables_Sensor
+ * Method:    jni_getPathUtilities
+ * Signature: (JII[IDD[DI)V
+ */
+GAMS_EXPORT void JNICALL Java_ai_gams_variables_Sensor_jni_1getPathUtilities
+  (JNIEnv *, jobject, jlong, jint, jint, jintArray, jdouble, jdouble, jdoubleArray, jint);
+
 #ifdef __cplusplus
 }
 #endif
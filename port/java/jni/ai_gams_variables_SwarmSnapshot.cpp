@@ -0,0 +1,104 @@
+#include "ai_gams_variables_SwarmSnapshot.h"
+#include "gams/variables/Agent.h"
+#include "gams_jni.h"
+
+#include <string.h>
+#include <vector>
+
+namespace variables = gams::variables;
+
+namespace
+{
+  /**
+   * Folds a value into an FNV-1a hash of the snapshot contents
+   **/
+  inline void hash_bits (jlong & hash, jlong value)
+  {
+    const unsigned long long prime = 1099511628211ULL;
+    unsigned long long bits = (unsigned long long)value;
+    unsigned long long result = (unsigned long long)hash;
+
+    for (int i = 0; i < 8; ++i)
+    {
+      result ^= (bits >> (i * 8)) & 0xff;
+      result *= prime;
+    }
+
+    hash = (jlong)result;
+  }
+
+  inline void hash_double (jlong & hash, double value)
+  {
+    jlong bits;
+    memcpy (&bits, &value, sizeof (bits));
+    hash_bits (hash, bits);
+  }
+
+  inline double element (
+    const madara::knowledge::containers::NativeDoubleArray & array,
+    size_t index)
+  {
+    return index < array.size () ? array[index] : 0.0;
+  }
+}
+
+/*
+ * Class:     ai_gams_variables_SwarmSnapshot
+ * Method:    jni_fill
+ * Signature: ([JI[D[D[D[D[D[D[J[Z)J
+ */
+jlong JNICALL Java_ai_gams_variables_SwarmSnapshot_jni_1fill
+  (JNIEnv * env, jclass, jlongArray agents, jint length,
+   jdoubleArray x, jdoubleArray y, jdoubleArray z,
+   jdoubleArray dest_x, jdoubleArray dest_y, jdoubleArray dest_z,
+   jlongArray battery, jbooleanArray mobile)
+{
+  jlong hash ((jlong)14695981039346656037ULL);
+
+  if (length <= 0)
+    return hash;
+
+  size_t size = (size_t)length;
+  std::vector <jlong> pointers (size);
+  std::vector <jdouble> locations (size * 3, 0.0);
+  std::vector <jdouble> dests (size * 3, 0.0);
+  std::vector <jlong> batteries (size, 0);
+  std::vector <jboolean> mobiles (size, JNI_FALSE);
+
+  env->GetLongArrayRegion (agents, 0, length, &pointers[0]);
+
+  for (size_t i = 0; i < size; ++i)
+  {
+    variables::Agent * agent = (variables::Agent *) pointers[i];
+
+    if (agent)
+    {
+      for (size_t j = 0; j < 3; ++j)
+      {
+        locations[j * size + i] = element (agent->location, j);
+        dests[j * size + i] = element (agent->dest, j);
+      }
+      batteries[i] = (jlong)agent->battery_remaining.to_integer ();
+      mobiles[i] = agent->is_mobile.to_integer () ? JNI_TRUE : JNI_FALSE;
+    }
+
+    for (size_t j = 0; j < 3; ++j)
+    {
+      hash_double (hash, locations[j * size + i]);
+      hash_double (hash, dests[j * size + i]);
+    }
+    hash_bits (hash, batteries[i]);
+    hash_bits (hash, mobiles[i]);
+  }
+
+  env->SetDoubleArrayRegion (x, 0, length, &locations[0]);
+  env->SetDoubleArrayRegion (y, 0, length, &locations[size]);
+  env->SetDoubleArrayRegion (z, 0, length, &locations[size * 2]);
+  env->SetDoubleArrayRegion (dest_x, 0, length, &dests[0]);
+  env->SetDoubleArrayRegion (dest_y, 0, length, &dests[size]);
+  env->SetDoubleArrayRegion (dest_z, 0, length, &dests[size * 2]);
+  env->SetLongArrayRegion (battery, 0, length, &batteries[0]);
+  env->SetBooleanArrayRegion (mobile, 0, length, &mobiles[0]);
+
+  return hash;
+}
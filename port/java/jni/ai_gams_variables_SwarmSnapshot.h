@@ -0,0 +1,22 @@
+/* DO NOT EDIT THIS FILE - it is machine generated */
+#include <jni.h>
+#include "gams/GamsExport.h"
+/* Header for class ai_gams_variables_SwarmSnapshot */
+
+#ifndef _Included_ai_gams_variables_SwarmSnapshot
+#define _Included_ai_gams_variables_SwarmSnapshot
+#ifdef __cplusplus
+extern "C" {
+#endif
+/*
+ * Class:     ai_gams_variables_SwarmSnapshot
+ * Method:    jni_fill
+ * Signature: ([JI[D[D[D[D[D[D[J[Z)J
+ */
+GAMS_EXPORT jlong JNICALL Java_ai_gams_variables_SwarmSnapshot_jni_1fill
+  (JNIEnv *, jclass, jlongArray, jint, jdoubleArray, jdoubleArray, jdoubleArray, jdoubleArray, jdoubleArray, jdoubleArray, jlongArray, jbooleanArray);
+
+#ifdef __cplusplus
+}
+#endif
+#endif
@@ -1,5 +1,6 @@
 
 #include <algorithm>
+#include <atomic>
 #include <string>
 #include <assert.h>
 
@@ -11,6 +12,120 @@ namespace loggers = gams::loggers;
 
 static jobject gams_class_loader;
 
+namespace
+{
+  /// if true, threads attached for callbacks stay attached
+  std::atomic<bool> gams_persistent_attach (false);
+
+  /// diagnostics for attach churn
+  std::atomic<jlong> gams_attach_count (0);
+  std::atomic<jlong> gams_detach_count (0);
+  std::atomic<jlong> gams_persistent_threads (0);
+
+  /**
+   * Holds the environment of a persistently attached thread and detaches
+   * the thread when it exits
+   **/
+  struct PersistentAttachment
+  {
+    JNIEnv * env;
+
+    PersistentAttachment ()
+      : env (0)
+    {
+    }
+
+    ~PersistentAttachment ()
+    {
+      release ();
+    }
+
+    void release (void)
+    {
+      if (env)
+      {
+        env = 0;
+        --gams_persistent_threads;
+
+        if (gams_JVM)
+        {
+          gams_JVM->DetachCurrentThread ();
+          ++gams_detach_count;
+        }
+      }
+    }
+  };
+
+#ifndef MADARA_NO_THREAD_LOCAL
+  thread_local PersistentAttachment gams_thread_attachment;
+
+  /// returns the environment of a persistently attached thread, or 0
+  inline JNIEnv * persistent_env (void)
+  {
+    return gams_thread_attachment.env;
+  }
+
+  /// keeps a newly attached thread attached if enabled
+  inline void keep_attached (JNIEnv * env)
+  {
+    if (gams_persistent_attach)
+    {
+      gams_thread_attachment.env = env;
+      ++gams_persistent_threads;
+    }
+  }
+
+  /// detaches a persistently attached thread, returning false if the
+  /// thread is not persistently attached
+  inline bool release_persistent (void)
+  {
+    if (gams_thread_attachment.env)
+    {
+      gams_thread_attachment.release ();
+      return true;
+    }
+    return false;
+  }
+#else
+  /**
+   * Without thread local storage, nothing can detach a thread when it
+   * exits, so every call attaches and detaches its thread
+   **/
+  inline JNIEnv * persistent_env (void)
+  {
+    return 0;
+  }
+
+  inline void keep_attached (JNIEnv *)
+  {
+  }
+
+  inline bool release_persistent (void)
+  {
+    return false;
+  }
+#endif
+
+  JNIEnv * attach_current_thread (void)
+  {
+    JNIEnv * env (0);
+
+#ifndef _USING_OPENJDK_
+    gams_JVM->AttachCurrentThread ( (void **)&env, NULL);
+#else
+    gams_JVM->AttachCurrentThread (&env, NULL);
+#endif
+
+    if (env)
+    {
+      ++gams_attach_count;
+      keep_attached (env);
+    }
+
+    return env;
+  }
+}
+
 
 jint JNICALL JNI_OnLoad (JavaVM* vm, void* /*reserved*/)
 {
@@ -146,9 +261,9 @@ void JNICALL JNI_OnUnload (JavaVM* vm, void* /*reserved*/)
 
 bool gams_jni_is_attached ()
 {
-  JNIEnv * env (0);
+  JNIEnv * env (persistent_env ());
 
-  if (gams_JVM)
+  if (env == 0 && gams_JVM)
   {
     gams_JVM->GetEnv ( (void**)&env, JNI_VERSION_1_6);
   }
@@ -158,19 +273,25 @@ bool gams_jni_is_attached ()
 
 JNIEnv* gams_jni_get_env ()
 {
-  JNIEnv * env (0);
+  bool needs_detach;
+  return gams_jni_acquire_env (needs_detach);
+}
+
+JNIEnv* gams_jni_acquire_env (bool & needs_detach)
+{
+  needs_detach = false;
 
-  if (gams_JVM)
+  // persistently attached threads skip the VM lookup entirely
+  JNIEnv * env (persistent_env ());
+
+  if (env == 0 && gams_JVM)
   {
     gams_JVM->GetEnv ( (void**)&env, JNI_VERSION_1_6);
     if (env == 0)
     {
       //Thread is not attached
-#ifndef _USING_OPENJDK_
-      gams_JVM->AttachCurrentThread ( (void **)&env, NULL);
-#else
-      gams_JVM->AttachCurrentThread (&env, NULL);
-#endif
+      env = attach_current_thread ();
+      needs_detach = env != 0 && persistent_env () == 0;
     }
   }
   return env;
@@ -188,12 +309,58 @@ JNIEnv* jni_attach ()
 
 void jni_detach ()
 {
-  if (gams_JVM)
+  if (!release_persistent () && gams_JVM)
   {
     gams_JVM->DetachCurrentThread ();
+    ++gams_detach_count;
   }
 }
 
+void gams::utility::java::set_persistent_attach (bool enabled)
+{
+  madara_logger_ptr_log (loggers::global_logger.get (),
+    loggers::LOG_MAJOR,
+    "gams::utility::java::set_persistent_attach: "
+    "persistent attachment %s\n", enabled ? "enabled" : "disabled");
+
+  gams_persistent_attach = enabled;
+}
+
+bool gams::utility::java::is_persistent_attach (void)
+{
+#ifndef MADARA_NO_THREAD_LOCAL
+  return gams_persistent_attach;
+#else
+  return false;
+#endif
+}
+
+void gams::utility::java::detach_persistent (void)
+{
+  release_persistent ();
+}
+
+jlong gams::utility::java::get_attach_count (void)
+{
+  return gams_attach_count;
+}
+
+jlong gams::utility::java::get_detach_count (void)
+{
+  return gams_detach_count;
+}
+
+jlong gams::utility::java::get_persistent_thread_count (void)
+{
+  return gams_persistent_threads;
+}
+
+void gams::utility::java::reset_attach_counts (void)
+{
+  gams_attach_count = 0;
+  gams_detach_count = 0;
+}
+
 
 jclass gams::utility::java::find_class (JNIEnv * env, const char * name)
 {
@@ -284,3 +451,30 @@ void gams::utility::java::throw_dead_obj_exception (
     "ai/gams/exceptions/GamsDeadObjectException");
   	env->ThrowNew(excp_cls, message);
 }
+
+jmethodID gams::utility::java::get_method_id (JNIEnv * env, jclass cls,
+  const char * name, const char * signature)
+{
+  jmethodID result (0);
+
+  if (env != 0 && cls != 0)
+  {
+    result = env->GetMethodID (cls, name, signature);
+
+    if (env->ExceptionCheck ())
+    {
+      env->ExceptionClear ();
+      result = 0;
+    }
+
+    if (result == 0)
+    {
+      madara_logger_ptr_log (loggers::global_logger.get (),
+        loggers::LOG_MINOR,
+        "gams::utility::java::get_method_id: "
+        "Method %s%s was not found. Returning zero.\n", name, signature);
+    }
+  }
+
+  return result;
+}
@@ -16,6 +16,16 @@ GAMS_EXPORT JavaVM * gams_jni_jvm ();
 GAMS_EXPORT JNIEnv * jni_attach ();
 GAMS_EXPORT void jni_detach ();
 
+/**
+ * Returns the JNI environment of the current thread, attaching the thread
+ * if necessary
+ * @param  needs_detach  set to true if the thread was attached by this
+ *                       call and should be detached when done. Always
+ *                       false when persistent attachment is enabled.
+ * @return the environment, or 0 if there is no VM
+ **/
+GAMS_EXPORT JNIEnv * gams_jni_acquire_env (bool & needs_detach);
+
 namespace gams
 {
   namespace utility
@@ -35,6 +45,65 @@ namespace gams
        * @param  name  Message to embed in exception
        **/
       void GAMS_EXPORT throw_dead_obj_exception (JNIEnv * env, const char * message);
+
+      /**
+       * Looks up an instance method, clearing the pending exception if the
+       * method does not exist
+       * @param  env        Java environment
+       * @param  cls        class to search
+       * @param  name       name of the method
+       * @param  signature  JNI signature of the method
+       * @return the method ID, or zero if not found
+       **/
+      jmethodID GAMS_EXPORT get_method_id (JNIEnv * env, jclass cls,
+        const char * name, const char * signature);
+
+      /**
+       * Enables or disables persistent attachment. While enabled, a native
+       * thread that is attached to the VM for a callback stays attached,
+       * with its JNIEnv cached, until the thread exits or calls
+       * detach_persistent. Threads already attached are not affected.
+       * Has no effect in builds without thread local storage
+       * (MADARA_NO_THREAD_LOCAL), which attach and detach on every call.
+       * @param  enabled  true to keep newly attached threads attached
+       **/
+      void GAMS_EXPORT set_persistent_attach (bool enabled);
+
+      /**
+       * Checks if persistent attachment is enabled
+       * @return true if newly attached threads stay attached. Always
+       *         false without thread local storage.
+       **/
+      bool GAMS_EXPORT is_persistent_attach (void);
+
+      /**
+       * Detaches the current thread if it is persistently attached. Useful
+       * for threads that outlive their use of the VM.
+       **/
+      void GAMS_EXPORT detach_persistent (void);
+
+      /**
+       * Returns the number of times a native thread was attached to the VM
+       * @return attaches since load or the last reset
+       **/
+      jlong GAMS_EXPORT get_attach_count (void);
+
+      /**
+       * Returns the number of times a native thread was detached from the VM
+       * @return detaches since load or the last reset
+       **/
+      jlong GAMS_EXPORT get_detach_count (void);
+
+      /**
+       * Returns the number of threads currently kept attached
+       * @return persistently attached threads
+       **/
+      jlong GAMS_EXPORT get_persistent_thread_count (void);
+
+      /**
+       * Resets the attach and detach counts
+       **/
+      void GAMS_EXPORT reset_attach_counts (void);
     }
   }
 }
@@ -47,9 +47,13 @@
 package ai.gams;
 
 /**
- * Abstract class that insures loading of libMADARA.so and holds the C pointer
+ * Abstract class that insures loading of libMADARA.so and holds the C pointer.
+ * Wrappers that own their C object release it with {@link #free()}, or with
+ * {@link #close()} in a try-with-resources block. Owned objects that are
+ * never freed are released by a background thread after they become
+ * unreachable, and are counted by {@link NativeAllocations} until then.
  */
-public abstract class GamsJNI
+public abstract class GamsJNI implements AutoCloseable
 {
   static
   {
@@ -62,6 +66,11 @@ public abstract class GamsJNI
    */
   private long cptr = 0;
 
+  /**
+   * Cleanup record for the C object, if this object owns it
+   */
+  private NativeAllocations.Allocation allocation = null;
+
   /**
    * Set the C pointer to the object
    *
@@ -70,6 +79,11 @@ public abstract class GamsJNI
   protected void setCPtr(long cptr)
   {
     this.cptr = cptr;
+
+    if (allocation != null)
+    {
+      allocation.cptr = cptr;
+    }
   }
 
 
@@ -81,6 +95,70 @@ public abstract class GamsJNI
     return cptr;
   }
 
+  /**
+   * Takes ownership of the current C pointer. If this object becomes
+   * unreachable before it is freed, the disposer releases the pointer.
+   * Replaces any previous ownership without freeing it.
+   *
+   * @param disposer  frees C objects of this type
+   */
+  protected void track(NativeDisposer disposer)
+  {
+    untrack();
+
+    if (cptr != 0)
+    {
+      allocation = NativeAllocations.register(this, cptr, disposer);
+    }
+  }
+
+  /**
+   * Gives up ownership of the current C pointer without freeing it. Should
+   * be called right before the C object is freed explicitly, or when
+   * another owner takes over.
+   */
+  protected void untrack()
+  {
+    if (allocation != null)
+    {
+      NativeAllocations.unregister(allocation);
+      allocation = null;
+    }
+  }
+
+  /**
+   * Keeps the current C object from being freed by the cleanup thread
+   * while a view of its memory is reachable, e.g., a direct buffer over
+   * native memory, which would otherwise not keep this wrapper alive.
+   * Has no effect if this object does not own its C object.
+   *
+   * @param view  the object that views the C object's memory
+   */
+  protected void retain(Object view)
+  {
+    if (allocation != null)
+    {
+      NativeAllocations.retain(allocation, view);
+    }
+  }
+
+  /**
+   * Deletes the C instantiation if this object owns it. Wrappers that own
+   * C objects override this.
+   */
+  public void free() throws ai.gams.exceptions.GamsDeadObjectException
+  {
+  }
+
+  /**
+   * Frees the underlying C object. Equivalent to {@link #free()}.
+   */
+  @Override
+  public void close() throws ai.gams.exceptions.GamsDeadObjectException
+  {
+    free();
+  }
+
 
   /**
    * @return &lt;ClassName&gt;[&lt;C Pointer&gt;]
@@ -91,4 +169,3 @@ public abstract class GamsJNI
     return getClass().getName() + "[" + cptr + "]";
   }
 }
-
@@ -0,0 +1,330 @@
+/*********************************************************************
+ * Copyright (c) 2013-2015 Carnegie Mellon University. All Rights Reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following acknowledgments and disclaimers.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *
+ * 3. The names "Carnegie Mellon University," "SEI" and/or
+ * "Software Engineering Institute" shall not be used to endorse or promote
+ * products derived from this software without prior written permission. For
+ * written permission, please contact permission@sei.cmu.edu.
+ *
+ * 4. Products derived from this software may not be called "SEI" nor may "SEI"
+ * appear in their names without prior written permission of
+ * permission@sei.cmu.edu.
+ *
+ * 5. Redistributions of any form whatsoever must retain the following
+ * acknowledgment:
+ *
+ * This material is based upon work funded and supported by the Department of
+ * Defense under Contract No. FA8721-05-C-0003 with Carnegie Mellon University
+ * for the operation of the Software Engineering Institute, a federally funded
+ * research and development center. Any opinions, findings and conclusions or
+ * recommendations expressed in this material are those of the author(s) and
+ * do not necessarily reflect the views of the United States Department of
+ * Defense.
+ *
+ * NO WARRANTY. THIS CARNEGIE MELLON UNIVERSITY AND SOFTWARE ENGINEERING
+ * INSTITUTE MATERIAL IS FURNISHED ON AN "AS-IS" BASIS. CARNEGIE MELLON
+ * UNIVERSITY MAKES NO WARRANTIES OF ANY KIND, EITHER EXPRESSED OR IMPLIED,
+ * AS TO ANY MATTER INCLUDING, BUT NOT LIMITED TO, WARRANTY OF FITNESS FOR
+ * PURPOSE OR MERCHANTABILITY, EXCLUSIVITY, OR RESULTS OBTAINED FROM USE OF THE
+ * MATERIAL. CARNEGIE MELLON UNIVERSITY DOES NOT MAKE ANY WARRANTY OF ANY KIND
+ * WITH RESPECT TO FREEDOM FROM PATENT, TRADEMARK, OR COPYRIGHT INFRINGEMENT.
+ *
+ * This material has been approved for public release and unlimited
+ * distribution.
+ *
+ * @author James Edmondson <jedmondson@gmail.com>
+ *********************************************************************/
+package ai.gams;
+
+import java.lang.ref.PhantomReference;
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Tracks C objects owned by Java wrappers and frees the ones whose wrappers
+ * were garbage collected without being freed. Unlike finalization, freeing
+ * an object explicitly costs the collector nothing, and leaked objects are
+ * released by a single daemon thread without resurrecting their wrappers.
+ * <p>
+ * The counts are also a leak diagnostic: a steadily growing live count or
+ * cleaned count for a type means callers are not freeing that type.
+ */
+public final class NativeAllocations
+{
+  private static native long jni_sizeOf(java.lang.String type);
+
+  private static final ReferenceQueue<Object> queue = new ReferenceQueue<Object>();
+
+  /**
+   * Keeps the phantom references themselves reachable until they are
+   * freed or cleaned
+   */
+  private static final Set<Allocation> allocations =
+    Collections.newSetFromMap(new ConcurrentHashMap<Allocation, Boolean>());
+
+  /**
+   * Keeps the view references reachable until their views are collected
+   */
+  private static final Set<View> views =
+    Collections.newSetFromMap(new ConcurrentHashMap<View, Boolean>());
+
+  private static final Map<java.lang.String, NativeDisposer> disposers =
+    new ConcurrentHashMap<java.lang.String, NativeDisposer>();
+
+  private static final AtomicLong cleaned = new AtomicLong();
+
+  static
+  {
+    System.loadLibrary("MADARA");
+    System.loadLibrary("GAMS");
+
+    Thread cleaner = new Thread(new Runnable()
+    {
+      @Override
+      public void run()
+      {
+        while (true)
+        {
+          try
+          {
+            clean(queue.remove());
+          }
+          catch (InterruptedException e)
+          {
+            // the cleaner lives as long as the JVM
+          }
+        }
+      }
+    }, "gams-native-cleaner");
+
+    cleaner.setDaemon(true);
+    cleaner.start();
+  }
+
+  private NativeAllocations()
+  {
+  }
+
+  /**
+   * Cleanup record for one owned C object. It must not refer to its
+   * wrapper, or the wrapper would never become unreachable.
+   */
+  static final class Allocation extends PhantomReference<Object>
+  {
+    volatile long cptr;
+    final NativeDisposer disposer;
+
+    /**
+     * The wrapper and each reachable view hold the C object
+     */
+    final AtomicInteger holds = new AtomicInteger(1);
+
+    Allocation(GamsJNI owner, long cptr, NativeDisposer disposer)
+    {
+      super(owner, queue);
+      this.cptr = cptr;
+      this.disposer = disposer;
+    }
+  }
+
+  /**
+   * Cleanup record for an object that views the memory of an owned C
+   * object, such as a direct buffer over native cells
+   */
+  static final class View extends PhantomReference<Object>
+  {
+    final Allocation owner;
+
+    View(Object view, Allocation owner)
+    {
+      super(view, queue);
+      this.owner = owner;
+    }
+  }
+
+  static Allocation register(GamsJNI owner, long cptr, NativeDisposer disposer)
+  {
+    Allocation result = new Allocation(owner, cptr, disposer);
+    allocations.add(result);
+    disposer.live.incrementAndGet();
+    return result;
+  }
+
+  /**
+   * Keeps the cleanup thread from freeing a C object while a view of its
+   * memory is reachable, even if the wrapper is not. Explicitly freeing
+   * the wrapper still frees the C object.
+   */
+  static void retain(Allocation allocation, Object view)
+  {
+    allocation.holds.incrementAndGet();
+    views.add(new View(view, allocation));
+  }
+
+  static void unregister(Allocation allocation)
+  {
+    if (allocations.remove(allocation))
+    {
+      allocation.disposer.live.decrementAndGet();
+    }
+    allocation.clear();
+  }
+
+  static void addDisposer(NativeDisposer disposer)
+  {
+    disposers.put(disposer.getType(), disposer);
+  }
+
+  static long sizeOf(java.lang.String type)
+  {
+    try
+    {
+      return jni_sizeOf(type);
+    }
+    catch (UnsatisfiedLinkError e)
+    {
+      return 0;
+    }
+  }
+
+  private static void clean(Reference<?> reference)
+  {
+    Allocation allocation;
+    if (reference instanceof View)
+    {
+      views.remove(reference);
+      allocation = ((View)reference).owner;
+    }
+    else
+    {
+      allocation = (Allocation)reference;
+    }
+
+    // free once the wrapper and all of its views are unreachable
+    if (allocation.holds.decrementAndGet() == 0 &&
+      allocations.remove(allocation))
+    {
+      allocation.disposer.live.decrementAndGet();
+      cleaned.incrementAndGet();
+
+      long cptr = allocation.cptr;
+      if (cptr != 0)
+      {
+        try
+        {
+          allocation.disposer.dispose(cptr);
+        }
+        catch (Throwable t)
+        {
+          // nothing can be done for a wrapper that is already gone
+        }
+      }
+    }
+  }
+
+  /**
+   * @param type  the fully qualified name of a wrapper class
+   * @return the number of unfreed C objects owned by wrappers of the type
+   */
+  public static long getLiveCount(java.lang.String type)
+  {
+    NativeDisposer disposer = disposers.get(type);
+    return disposer == null ? 0 : disposer.getLiveCount();
+  }
+
+  /**
+   * @param type  the fully qualified name of a wrapper class
+   * @return the bytes held by unfreed C objects owned by wrappers of the
+   *         type
+   */
+  public static long getLiveBytes(java.lang.String type)
+  {
+    NativeDisposer disposer = disposers.get(type);
+    return disposer == null ? 0 : disposer.getLiveBytes();
+  }
+
+  /**
+   * @return the number of unfreed C objects owned by all wrappers
+   */
+  public static long getLiveCount()
+  {
+    long result = 0;
+    for (NativeDisposer disposer : disposers.values())
+    {
+      result += disposer.getLiveCount();
+    }
+    return result;
+  }
+
+  /**
+   * @return the bytes held by unfreed C objects owned by all wrappers
+   */
+  public static long getLiveBytes()
+  {
+    long result = 0;
+    for (NativeDisposer disposer : disposers.values())
+    {
+      result += disposer.getLiveBytes();
+    }
+    return result;
+  }
+
+  /**
+   * @return the number of C objects freed by the cleanup thread because
+   *         their wrappers were collected without being freed
+   */
+  public static long getCleanedCount()
+  {
+    return cleaned.get();
+  }
+
+  /**
+   * @return live counts of every wrapper type that has allocated, sorted
+   *         by type name
+   */
+  public static Map<java.lang.String, Long> getLiveCounts()
+  {
+    Map<java.lang.String, Long> result = new TreeMap<java.lang.String, Long>();
+    for (NativeDisposer disposer : disposers.values())
+    {
+      result.put(disposer.getType(), disposer.getLiveCount());
+    }
+    return result;
+  }
+
+  /**
+   * @return a line per wrapper type with its live count and bytes
+   */
+  public static java.lang.String report()
+  {
+    StringBuilder buffer = new StringBuilder();
+    Map<java.lang.String, NativeDisposer> sorted =
+      new TreeMap<java.lang.String, NativeDisposer>(disposers);
+
+    for (NativeDisposer disposer : sorted.values())
+    {
+      buffer.append(disposer.getType()).append(": ");
+      buffer.append(disposer.getLiveCount()).append(" live, ");
+      buffer.append(disposer.getLiveBytes()).append(" bytes\n");
+    }
+    buffer.append("cleaned without free: ").append(cleaned.get()).append('\n');
+    return buffer.toString();
+  }
+}
@@ -46,12 +46,16 @@
  *********************************************************************/
 package ai.gams.algorithms;
 
-import java.util.HashMap;
-import java.util.HashSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 import ai.gams.exceptions.GamsDeadObjectException;
+import ai.gams.utility.LatencyHistogram;
+import ai.gams.utility.SequenceTracker;
 import ai.madara.exceptions.MadaraDeadObjectException;
+import ai.madara.knowledge.KnowledgeBase;
 import ai.madara.knowledge.Variables;
+import ai.madara.transport.QoSTransportSettings;
 import ai.madara.transport.TransportContext;
 import ai.madara.transport.filters.Packet;
 
@@ -63,10 +67,35 @@ public class MessageProfiling extends BaseAlgorithm
 {
   private static final String keyPrefix = "message_profiling";
 
+  /**
+   * Percentiles published for each histogram
+   */
+  private static final double[] percentiles = { 50, 99, 99.9 };
+
+  /**
+   * Key suffixes matching percentiles
+   */
+  private static final String[] percentileNames = { "p50", "p99", "p999" };
+
+  /**
+   * Offset from System.nanoTime to nanoseconds since the epoch
+   */
+  private static final long epochOffset =
+    System.currentTimeMillis () * 1000000L - System.nanoTime ();
+
+  /**
+   * Returns the wall clock time with the resolution of System.nanoTime, so
+   * that send and receive times can be compared between processes
+   */
+  private static long now ()
+  {
+    return epochOffset + System.nanoTime ();
+  }
+
   /**
    * @class MessageProfilingFilter
    * @brief The MessageProfilingFilter counts the expected messages received to
-   *        the KnowledgeBase
+   *        the KnowledgeBase and measures their latency and jitter
    **/
   private class MessageProfilingFilter implements ai.madara.transport.filters.AggregateFilter
   {
@@ -75,96 +104,250 @@ public class MessageProfiling extends BaseAlgorithm
      */
     private class MessageData
     {
-      public ai.madara.knowledge.containers.Integer first;
-      public ai.madara.knowledge.containers.Integer last;
-      public ai.madara.knowledge.containers.Double percentMissing;
-      public HashSet<Long> missing;
+      public final String firstKey;
+      public final String lastKey;
+      public final String percentMissingKey;
+      public final String duplicatesKey;
+      public final String reorderDepthKey;
+      public final String[] latencyKeys;
+      public final String[] jitterKeys;
+      public final String[] interArrivalKeys;
+      public final String burstinessKey;
+
+      public final SequenceTracker sequences;
+      public final LatencyHistogram latency;
+      public final LatencyHistogram jitter;
+      public final LatencyHistogram interArrival;
+
+      /**
+       * Transit time of the previous message, for jitter
+       */
+      public final AtomicLong lastTransit = new AtomicLong (Long.MIN_VALUE);
 
-      MessageData (String id, ai.madara.knowledge.Variables var) throws MadaraDeadObjectException
+      /**
+       * Arrival time of the previous message, for inter-arrival times
+       */
+      public final AtomicLong lastArrival = new AtomicLong (Long.MIN_VALUE);
+
+      /**
+       * Time of the last publish into the knowledge base. Only used by the
+       * controller thread.
+       */
+      public long lastPublish = Long.MIN_VALUE;
+
+      MessageData (String id)
+      {
+        String prefix = "." + keyPrefix + "." + id + ".";
+
+        firstKey = prefix + "first";
+        lastKey = prefix + "last";
+        percentMissingKey = prefix + "percent_missing";
+        duplicatesKey = prefix + "duplicates";
+        reorderDepthKey = prefix + "reorder_depth";
+        latencyKeys = percentileKeys (prefix + "latency.");
+        jitterKeys = percentileKeys (prefix + "jitter.");
+        interArrivalKeys = percentileKeys (prefix + "interarrival.");
+        burstinessKey = prefix + "burstiness";
+
+        sequences = new SequenceTracker ();
+        latency = new LatencyHistogram ();
+        jitter = new LatencyHistogram ();
+        interArrival = new LatencyHistogram ();
+      }
+
+      /**
+       * Records a received profiling message
+       * @param  msgNum    the sequence number of the message
+       * @param  sent      the send time in nanoseconds since the epoch, or
+       *                   -1 if the message did not carry one
+       * @param  received  the receive time in nanoseconds since the epoch
+       */
+      void record (long msgNum, long sent, long received)
       {
-        String prefix = new String ("." + keyPrefix + "." + id + ".");
+        if (!sequences.record (msgNum))
+        {
+          // duplicates would skew the timing histograms
+          return;
+        }
+
+        long previous = lastArrival.getAndSet (received);
+        if (previous != Long.MIN_VALUE)
+        {
+          interArrival.record (received - previous);
+        }
+
+        if (sent >= 0)
+        {
+          // one-way latency, which includes any clock offset between hosts.
+          // Jitter is the change in transit time between consecutive
+          // messages (RFC 3550), so a constant offset cancels out.
+          long transit = received - sent;
+          latency.record (transit);
+
+          previous = lastTransit.getAndSet (transit);
+          if (previous != Long.MIN_VALUE)
+          {
+            jitter.record (Math.abs (transit - previous));
+          }
+        }
+      }
 
-        first = new ai.madara.knowledge.containers.Integer ();
-        ai.madara.logger.GlobalLogger.log (6, "first.set_name");
-        first.setName (var, prefix + "first");
-        first.set (-1);
+      /**
+       * Publishes the current counts and percentiles if at least a publish
+       * period has passed since the last publish
+       */
+      void publish (KnowledgeBase knowledge, long time) throws MadaraDeadObjectException
+      {
+        if (lastPublish != Long.MIN_VALUE && time - lastPublish < publishPeriod)
+        {
+          return;
+        }
+        lastPublish = time;
 
-        last = new ai.madara.knowledge.containers.Integer ();
-        ai.madara.logger.GlobalLogger.log (6, "last.set_name");
-        last.setName (var, prefix + "last");
+        knowledge.set (firstKey, sequences.getFirst ());
+        knowledge.set (lastKey, sequences.getLast ());
+        knowledge.set (percentMissingKey, sequences.getLossPercent ());
+        knowledge.set (duplicatesKey, sequences.getDuplicates ());
+        knowledge.set (reorderDepthKey, sequences.getMaxReorderDepth ());
 
-        percentMissing = new ai.madara.knowledge.containers.Double ();
-        ai.madara.logger.GlobalLogger.log (6, "percent_missing.set_name");
-        percentMissing.setName (var, prefix + "percent_missing");
+        publishPercentiles (knowledge, latencyKeys, latency);
+        publishPercentiles (knowledge, jitterKeys, jitter);
+        long median = publishPercentiles (knowledge, interArrivalKeys, interArrival);
 
-        missing = new HashSet<Long> ();
+        // ratio of the tail to the typical gap between arrivals: 1 for an
+        // even stream, growing as messages arrive in bursts
+        double burstiness = median == 0 ?
+          0 : (double)interArrival.getPercentile (99) / median;
+        knowledge.set (burstinessKey, burstiness);
       }
     };
 
     /**
      * Keep a MessageData struct for each peer
      */
-    HashMap<String, MessageData> msgMap;
+    final ConcurrentHashMap<String, MessageData> msgMap =
+      new ConcurrentHashMap<String, MessageData> ();
+
+    /**
+     * Minimum time between publishes for a peer, in nanoseconds
+     */
+    volatile long publishPeriod = 1000000000L;
+
+    /**
+     * Returns the data for a peer
+     * @param  origin  the originator of the messages
+     * @return the data, or null if nothing has been received from origin
+     */
+    MessageData get (String origin)
+    {
+      return msgMap.get (origin);
+    }
 
     /**
      * Filter the incoming packets
      */
     public void filter (Packet packet, TransportContext context, Variables variables) throws MadaraDeadObjectException
     {
+      long received = now ();
+
       // get/construct data struct
       String origin = context.getOriginator ();
-      if (msgMap.get (origin) == null)
+      MessageData data = msgMap.get (origin);
+      if (data == null)
       {
-        msgMap.put (origin, new MessageData(origin, variables));
+        MessageData created = new MessageData (origin);
+        data = msgMap.putIfAbsent (origin, created);
+        if (data == null)
+        {
+          data = created;
+        }
       }
-      MessageData data = msgMap.get (origin);
 
       // loop through each update
       for (String key : packet.getKeys ())
       {
         // we only care about specific messages
-        ai.madara.knowledge.KnowledgeRecord record = packet.get (key);
-        if (record.getType () == ai.madara.knowledge.KnowledgeType.STRING &&
-          record.toString ().indexOf (keyPrefix) == 0)
+        if (!key.startsWith (keyPrefix))
         {
-          // get msg number
-          String[] split = record.toString ().split (",");
-          long msgNum = Long.parseLong (split[0]);
+          continue;
+        }
 
-          // is this the first?
-          if (data.first.toLong () == -1)
+        ai.madara.knowledge.KnowledgeRecord record = packet.get (key);
+        if (record.getType () == ai.madara.knowledge.KnowledgeType.STRING)
+        {
+          // payload is "<msg number>,<send time>,<padding>"
+          String value = record.toString ();
+          long msgNum = parseLong (value, 0);
+          if (msgNum >= 0)
           {
-            data.first.set (msgNum);
-            data.last.set (msgNum);
-          }
+            int comma = value.indexOf (',');
+            long sent = comma < 0 ? -1 : parseLong (value, comma + 1);
 
-          // is this a previously missing message?
-          else if (msgNum < data.last.toLong ())
-          {
-            // is this earlier than first?
-            if (msgNum < data.first.toLong ())
-            {
-              for (long i = msgNum + 1; i < data.first.toLong (); ++i)
-                data.missing.add (i);
-              data.first.set (msgNum);
-            }
-            else // it is between first and last, remove from missing set
-            {
-              data.missing.remove (msgNum);
-            }
-          }
-          else // this could only be a new message past last
-          {
-            for (long i = data.last.toLong () + 1; i < msgNum; ++i)
-              data.missing.add (i);
-            data.last.set (msgNum);
+            data.record (msgNum, sent, received);
           }
+        }
+      }
+    }
 
-          long expected = data.first.toLong () - data.last.toLong () + 1;
-          data.percentMissing.set ((double)data.missing.size () / (double) expected);
+    /**
+     * Parses a non-negative number from a profiling message
+     * @param  value  the message payload
+     * @param  start  the index of the first digit
+     * @return the number, or -1 if value has no digit at start
+     */
+    private long parseLong (String value, int start)
+    {
+      long result = 0;
+      int length = value.length ();
+      int i = start;
+
+      for (; i < length; ++i)
+      {
+        char c = value.charAt (i);
+        if (c < '0' || c > '9')
+        {
+          break;
         }
+        result = result * 10 + (c - '0');
       }
+
+      return i == start ? -1 : result;
+    }
+  }
+
+  /**
+   * Builds the knowledge base keys for the published percentiles
+   * @param  prefix  the key prefix of the histogram
+   * @return one key per entry of percentiles
+   */
+  private static String[] percentileKeys (String prefix)
+  {
+    String[] keys = new String[percentileNames.length];
+    for (int i = 0; i < keys.length; ++i)
+    {
+      keys[i] = prefix + percentileNames[i];
     }
+    return keys;
+  }
+
+  /**
+   * Publishes the percentiles of a histogram in nanoseconds
+   * @return the median that was published
+   */
+  private static long publishPercentiles (KnowledgeBase knowledge, String[] keys,
+    LatencyHistogram histogram) throws MadaraDeadObjectException
+  {
+    long median = 0;
+    for (int i = 0; i < keys.length; ++i)
+    {
+      long value = histogram.getPercentile (percentiles[i]);
+      knowledge.set (keys[i], value);
+      if (i == 0)
+      {
+        median = value;
+      }
+    }
+    return median;
   }
 
   /**
@@ -187,30 +370,100 @@ public class MessageProfiling extends BaseAlgorithm
   }
 
   /**
-   * Initialize values, must be called after initAlgorithm for controller that will run algorithm
-   * NOTE: DISABLED UNTIL KnowledgeBase.attachTransport (String, TransportSettings) is added to MADARA
+   * Returns the loss, duplicate and reordering counts for a peer
+   * @param  origin  the originator of the profiling messages
+   * @return the tracker, or null if nothing has been received from origin
+   **/
+  public SequenceTracker getSequences (String origin)
+  {
+    MessageProfilingFilter.MessageData data = filter.get (origin);
+    return data == null ? null : data.sequences;
+  }
+
+  /**
+   * Returns the one-way latencies of messages from a peer. These include
+   * any offset between the clocks of the two hosts.
+   * @param  origin  the originator of the profiling messages
+   * @return the histogram, or null if nothing has been received from origin
+   **/
+  public LatencyHistogram getLatency (String origin)
+  {
+    MessageProfilingFilter.MessageData data = filter.get (origin);
+    return data == null ? null : data.latency;
+  }
+
+  /**
+   * Returns the change in transit time between consecutive messages from a
+   * peer
+   * @param  origin  the originator of the profiling messages
+   * @return the histogram, or null if nothing has been received from origin
+   **/
+  public LatencyHistogram getJitter (String origin)
+  {
+    MessageProfilingFilter.MessageData data = filter.get (origin);
+    return data == null ? null : data.jitter;
+  }
+
+  /**
+   * Returns the times between arrivals of messages from a peer
+   * @param  origin  the originator of the profiling messages
+   * @return the histogram, or null if nothing has been received from origin
+   **/
+  public LatencyHistogram getInterArrival (String origin)
+  {
+    MessageProfilingFilter.MessageData data = filter.get (origin);
+    return data == null ? null : data.interArrival;
+  }
+
+  /**
+   * Sets how often the statistics of each peer are published into the
+   * knowledge base under .message_profiling.{id}. Publishing happens in
+   * {@link #analyze()}, so the controller's loop period bounds the rate.
+   * @param  seconds  the minimum time between publishes
+   **/
+  public void setPublishPeriod (double seconds)
+  {
+    filter.publishPeriod = (long)(seconds * 1000000000.0);
+  }
+
+  /**
+   * Adds the profiling filter to the receive filters of transport settings.
+   * Transports take their filters when the knowledge base is created, so
+   * call this before creating the controller's knowledge base with the
+   * settings.
+   * @param  settings  the settings of the transport to profile
+   **/
+  public void addFilters (QoSTransportSettings settings)
+  {
+    settings.addReceiveFilter (filter);
+  }
+
+  /**
+   * Initialize values, must be called after initAlgorithm and initVars for
+   * controller that will run algorithm, since the message key uses the
+   * agent id
    */
-//  public void initVars (ai.madara.transport.QoSTransportSettings settings)
-//  {
-//    // attach filter
-//    settings.addReceiveFilter (filter);
-//
-//    // attach transport
-//    knowledge.attachTransport (knowledge.getID (), settings);
-//
-//    // create message container
-//    final String key = new String (keyPrefix + "." +
-//      knowledge.get (".id").toString () + ".data");
-//    message.setName (knowledge, key);
-//  }
-
-  /**
-   * Analyzes the algorithm for new status information. This should be
-   * a non-blocking call.
+  public void initVars () throws MadaraDeadObjectException
+  {
+    // create message container
+    final String key = keyPrefix + "." + self.id.get () + ".data";
+    message.setName (knowledge, key);
+  }
+
+  /**
+   * Analyzes the algorithm for new status information. Publishes the
+   * statistics of each peer once per publish period, whether or not new
+   * messages have arrived. This should be a non-blocking call.
    * @return  status information (@see Status)
    **/
-  public int analyze ()
+  public int analyze () throws MadaraDeadObjectException
   {
+    long time = now ();
+    for (MessageProfilingFilter.MessageData data : filter.msgMap.values ())
+    {
+      data.publish (knowledge, time);
+    }
+
     return ai.gams.algorithms.AlgorithmStatusEnum.OK.value();
   }
 
@@ -235,6 +488,7 @@ public class MessageProfiling extends BaseAlgorithm
 
     // construct value
     String value = Long.toString (executions);
+    value += "," + Long.toString (now ());
     value += ",aaaaaaaaaaaaaaaaaa";
 
     // actually set knowledge
@@ -0,0 +1,274 @@
+/*********************************************************************
+ * Copyright (c) 2013-2015 Carnegie Mellon University. All Rights Reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following acknowledgments and disclaimers.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *
+ * 3. The names "Carnegie Mellon University," "SEI" and/or
+ * "Software Engineering Institute" shall not be used to endorse or promote
+ * products derived from this software without prior written permission. For
+ * written permission, please contact permission@sei.cmu.edu.
+ *
+ * 4. Products derived from this software may not be called "SEI" nor may "SEI"
+ * appear in their names without prior written permission of
+ * permission@sei.cmu.edu.
+ *
+ * 5. Redistributions of any form whatsoever must retain the following
+ * acknowledgment:
+ *
+ * This material is based upon work funded and supported by the Department of
+ * Defense under Contract No. FA8721-05-C-0003 with Carnegie Mellon University
+ * for the operation of the Software Engineering Institute, a federally funded
+ * research and development center. Any opinions, findings and conclusions or
+ * recommendations expressed in this material are those of the author(s) and
+ * do not necessarily reflect the views of the United States Department of
+ * Defense.
+ *
+ * NO WARRANTY. THIS CARNEGIE MELLON UNIVERSITY AND SOFTWARE ENGINEERING
+ * INSTITUTE MATERIAL IS FURNISHED ON AN "AS-IS" BASIS. CARNEGIE MELLON
+ * UNIVERSITY MAKES NO WARRANTIES OF ANY KIND, EITHER EXPRESSED OR IMPLIED,
+ * AS TO ANY MATTER INCLUDING, BUT NOT LIMITED TO, WARRANTY OF FITNESS FOR
+ * PURPOSE OR MERCHANTABILITY, EXCLUSIVITY, OR RESULTS OBTAINED FROM USE OF THE
+ * MATERIAL. CARNEGIE MELLON UNIVERSITY DOES NOT MAKE ANY WARRANTY OF ANY KIND
+ * WITH RESPECT TO FREEDOM FROM PATENT, TRADEMARK, OR COPYRIGHT INFRINGEMENT.
+ *
+ * This material has been approved for public release and unlimited
+ * distribution.
+ *
+ * @author James Edmondson <jedmondson@gmail.com>
+ *********************************************************************/
+package ai.gams.algorithms.coverage;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import ai.gams.GamsJNI;
+import ai.gams.controllers.BaseController;
+import ai.gams.exceptions.GamsDeadObjectException;
+import ai.gams.utility.GpsPosition;
+import ai.gams.variables.Self;
+import ai.madara.knowledge.KnowledgeBase;
+
+/**
+ * Base class of the typed area coverage algorithms. The coverage runs
+ * natively in the controller. To choose waypoints in Java, extend one of
+ * the coverages and override {@link #generateNewPosition()}. Java is then
+ * called only when the agent reaches its waypoint and needs a new one.
+ * Coverages that do not override it never call into Java while running.
+ **/
+public abstract class AreaCoverage extends GamsJNI
+{
+  private native long jni_attach(long controller, java.lang.String type,
+    java.lang.String[] keys, java.lang.Object[] values);
+  private native void jni_setPositionGenerator(long cptr, java.lang.Object obj);
+  private native void jni_generateNativePosition(long cptr);
+  private native void jni_getNextPosition(long cptr, double[] position);
+  private native void jni_setNextPosition(long cptr,
+    double latitude, double longitude, double altitude);
+  private native boolean jni_isInitialized(long cptr);
+  private native long jni_getKnowledgeBase(long cptr);
+  private native long jni_getSelf(long cptr);
+
+  private final java.lang.String type;
+
+  private final Map<java.lang.String, java.lang.Object> args =
+    new LinkedHashMap<java.lang.String, java.lang.Object>();
+
+  private final double[] position = new double[3];
+
+  /**
+   * The controller's knowledge base, set by {@link #init(BaseController)}
+   **/
+  public KnowledgeBase knowledge;
+
+  /**
+   * Self-identifying variables like id and location, set by
+   * {@link #init(BaseController)}
+   **/
+  public Self self;
+
+  /**
+   * Constructor
+   * @param  type  the name of the algorithm in the algorithm factory
+   **/
+  AreaCoverage(java.lang.String type)
+  {
+    this.type = type;
+  }
+
+  /**
+   * Returns the name of the algorithm in the algorithm factory
+   * @return the algorithm type
+   **/
+  public java.lang.String getType()
+  {
+    return type;
+  }
+
+  /**
+   * Sets the region or search area to cover. Only takes effect before
+   * {@link #init(BaseController)}.
+   * @param  searchArea  the name of a region or search area in the
+   *                     knowledge base
+   **/
+  public void setSearchArea(java.lang.String searchArea)
+  {
+    setArg("search_area", searchArea);
+  }
+
+  /**
+   * Sets how long to cover the area. Only takes effect before
+   * {@link #init(BaseController)}.
+   * @param  seconds  the coverage time, or a negative value to cover
+   *                  forever
+   **/
+  public void setTime(double seconds)
+  {
+    setArg("time", seconds);
+  }
+
+  /**
+   * Sets an argument of the native algorithm factory
+   * @param  key    the argument name
+   * @param  value  a String, Number or double[]
+   **/
+  protected void setArg(java.lang.String key, java.lang.Object value)
+  {
+    args.put(key, value);
+  }
+
+  /**
+   * Creates the native coverage in a controller, replacing its current
+   * algorithm. Usually called through
+   * {@link BaseController#initAlgorithm(AreaCoverage)}. The controller owns
+   * the native coverage, which stays valid until the controller gets
+   * another algorithm or is freed.
+   * @param  controller  the controller that will run the coverage
+   **/
+  public void init(BaseController controller) throws GamsDeadObjectException
+  {
+    java.lang.String[] keys = args.keySet().toArray(
+      new java.lang.String[args.size()]);
+    java.lang.Object[] values = args.values().toArray();
+
+    setCPtr(jni_attach(controller.getCPtr(), type, keys, values));
+
+    if (getCPtr() == 0)
+    {
+      // the factory needs a platform and agent variables to create it
+      throw new IllegalStateException(
+        "AreaCoverage::init: controller could not create " + type);
+    }
+
+    knowledge = KnowledgeBase.fromPointer(jni_getKnowledgeBase(getCPtr()), false);
+    self = Self.fromPointer(jni_getSelf(getCPtr()), false);
+
+    if (overridesGenerateNewPosition())
+    {
+      jni_setPositionGenerator(getCPtr(), this);
+    }
+  }
+
+  /**
+   * Chooses the next waypoint. Called from the controller's plan phase when
+   * the agent reaches its current waypoint. The default uses the native
+   * strategy of the coverage. Subclasses that override this should call
+   * {@link #setNextPosition(double, double, double)}, or this method to
+   * fall back to the native strategy.
+   **/
+  public void generateNewPosition() throws GamsDeadObjectException
+  {
+    jni_generateNativePosition(getCPtr());
+  }
+
+  /**
+   * Returns the waypoint the coverage is moving to
+   * @return the next position
+   **/
+  public GpsPosition getNextPosition() throws GamsDeadObjectException
+  {
+    jni_getNextPosition(getCPtr(), position);
+    return new GpsPosition(position[0], position[1], position[2]);
+  }
+
+  /**
+   * Reads the waypoint the coverage is moving to without allocating
+   * @param  result  array of at least 3 to receive latitude, longitude
+   *                 and altitude
+   **/
+  public void getNextPosition(double[] result) throws GamsDeadObjectException
+  {
+    jni_getNextPosition(getCPtr(), result);
+  }
+
+  /**
+   * Sets the waypoint the coverage is moving to
+   * @param  latitude   latitude in degrees
+   * @param  longitude  longitude in degrees
+   * @param  altitude   altitude in meters
+   **/
+  public void setNextPosition(double latitude, double longitude,
+    double altitude) throws GamsDeadObjectException
+  {
+    jni_setNextPosition(getCPtr(), latitude, longitude, altitude);
+  }
+
+  /**
+   * Sets the waypoint the coverage is moving to
+   * @param  position  the next position
+   **/
+  public void setNextPosition(GpsPosition position)
+    throws GamsDeadObjectException
+  {
+    setNextPosition(position.getLatitude(), position.getLongitude(),
+      position.getAltitude());
+  }
+
+  /**
+   * Checks if the coverage has chosen its first waypoint
+   * @return true if initialized
+   **/
+  public boolean isInitialized() throws GamsDeadObjectException
+  {
+    return jni_isInitialized(getCPtr());
+  }
+
+  /**
+   * Converts the coverage to a string
+   * @return the type and native pointer
+   **/
+  @Override
+  public java.lang.String toString()
+  {
+    return type + "[" + getCPtr() + "]";
+  }
+
+  /**
+   * Checks if a subclass replaces generateNewPosition, in which case the
+   * native coverage has to call into Java for waypoints
+   **/
+  private boolean overridesGenerateNewPosition()
+  {
+    for (Class<?> current = getClass(); current != AreaCoverage.class;
+      current = current.getSuperclass())
+    {
+      try
+      {
+        current.getDeclaredMethod("generateNewPosition");
+        return true;
+      }
+      catch (NoSuchMethodException e)
+      {
+        // keep looking in the superclass
+      }
+    }
+    return false;
+  }
+}
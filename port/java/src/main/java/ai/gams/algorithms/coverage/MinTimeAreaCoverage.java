@@ -0,0 +1,127 @@
+/*********************************************************************
+ * Copyright (c) 2013-2015 Carnegie Mellon University. All Rights Reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following acknowledgments and disclaimers.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *
+ * 3. The names "Carnegie Mellon University," "SEI" and/or
+ * "Software Engineering Institute" shall not be used to endorse or promote
+ * products derived from this software without prior written permission. For
+ * written permission, please contact permission@sei.cmu.edu.
+ *
+ * 4. Products derived from this software may not be called "SEI" nor may "SEI"
+ * appear in their names without prior written permission of
+ * permission@sei.cmu.edu.
+ *
+ * 5. Redistributions of any form whatsoever must retain the following
+ * acknowledgment:
+ *
+ * This material is based upon work funded and supported by the Department of
+ * Defense under Contract No. FA8721-05-C-0003 with Carnegie Mellon University
+ * for the operation of the Software Engineering Institute, a federally funded
+ * research and development center. Any opinions, findings and conclusions or
+ * recommendations expressed in this material are those of the author(s) and
+ * do not necessarily reflect the views of the United States Department of
+ * Defense.
+ *
+ * NO WARRANTY. THIS CARNEGIE MELLON UNIVERSITY AND SOFTWARE ENGINEERING
+ * INSTITUTE MATERIAL IS FURNISHED ON AN "AS-IS" BASIS. CARNEGIE MELLON
+ * UNIVERSITY MAKES NO WARRANTIES OF ANY KIND, EITHER EXPRESSED OR IMPLIED,
+ * AS TO ANY MATTER INCLUDING, BUT NOT LIMITED TO, WARRANTY OF FITNESS FOR
+ * PURPOSE OR MERCHANTABILITY, EXCLUSIVITY, OR RESULTS OBTAINED FROM USE OF THE
+ * MATERIAL. CARNEGIE MELLON UNIVERSITY DOES NOT MAKE ANY WARRANTY OF ANY KIND
+ * WITH RESPECT TO FREEDOM FROM PATENT, TRADEMARK, OR COPYRIGHT INFRINGEMENT.
+ *
+ * This material has been approved for public release and unlimited
+ * distribution.
+ *
+ * @author James Edmondson <jedmondson@gmail.com>
+ *********************************************************************/
+package ai.gams.algorithms.coverage;
+
+import ai.gams.exceptions.GamsDeadObjectException;
+import ai.gams.variables.Sensor;
+
+/**
+ * Moves along the path whose cells have gone the longest without being
+ * observed. The time since each cell was observed is kept in the utility
+ * cache of the coverage sensor, which is available through
+ * {@link #getSensor()} after the coverage is initialized.
+ **/
+public class MinTimeAreaCoverage extends AreaCoverage
+{
+  private native long jni_getSensor(long cptr);
+
+  /**
+   * Constructor
+   * @param  searchArea  the name of the region or search area to cover
+   **/
+  public MinTimeAreaCoverage(java.lang.String searchArea)
+  {
+    this("mtac", searchArea);
+  }
+
+  /**
+   * Constructor
+   * @param  searchArea  the name of the region or search area to cover
+   * @param  time        how long to cover the area in seconds
+   **/
+  public MinTimeAreaCoverage(java.lang.String searchArea, double time)
+  {
+    this(searchArea);
+    setTime(time);
+  }
+
+  /**
+   * Constructor for coverages that share the min time implementation
+   * @param  type        the name of the algorithm in the algorithm factory
+   * @param  searchArea  the name of the region or search area to cover
+   **/
+  MinTimeAreaCoverage(java.lang.String type, java.lang.String searchArea)
+  {
+    super(type);
+    setSearchArea(searchArea);
+  }
+
+  /**
+   * Sets the maximum number of destinations scored per plan. Larger areas
+   * score a lattice of cells that shifts every plan. Only takes effect
+   * before {@link #init(ai.gams.controllers.BaseController)}.
+   * @param  candidates  the maximum, or 0 to score every cell
+   **/
+  public void setMaxCandidates(int candidates)
+  {
+    setArg("candidates", candidates);
+  }
+
+  /**
+   * Sets the number of threads that score destinations. The chosen
+   * destination does not depend on the number of threads. Overrides
+   * {@link ai.gams.controllers.BaseController#setAlgorithmThreads(int)}
+   * and only takes effect before
+   * {@link #init(ai.gams.controllers.BaseController)}.
+   * @param  threads  the number of threads, or 0 for one per processor
+   **/
+  public void setThreads(int threads)
+  {
+    setArg("threads", threads);
+  }
+
+  /**
+   * Returns the sensor that holds the time since each cell was observed.
+   * The coverage owns the sensor, which stays valid while the coverage
+   * runs in the controller.
+   * @return the coverage sensor
+   **/
+  public Sensor getSensor() throws GamsDeadObjectException
+  {
+    return Sensor.fromPointer(jni_getSensor(getCPtr()), false);
+  }
+}
@@ -0,0 +1,121 @@
+/*********************************************************************
+ * Copyright (c) 2013-2015 Carnegie Mellon University. All Rights Reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following acknowledgments and disclaimers.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *
+ * 3. The names "Carnegie Mellon University," "SEI" and/or
+ * "Software Engineering Institute" shall not be used to endorse or promote
+ * products derived from this software without prior written permission. For
+ * written permission, please contact permission@sei.cmu.edu.
+ *
+ * 4. Products derived from this software may not be called "SEI" nor may "SEI"
+ * appear in their names without prior written permission of
+ * permission@sei.cmu.edu.
+ *
+ * 5. Redistributions of any form whatsoever must retain the following
+ * acknowledgment:
+ *
+ * This material is based upon work funded and supported by the Department of
+ * Defense under Contract No. FA8721-05-C-0003 with Carnegie Mellon University
+ * for the operation of the Software Engineering Institute, a federally funded
+ * research and development center. Any opinions, findings and conclusions or
+ * recommendations expressed in this material are those of the author(s) and
+ * do not necessarily reflect the views of the United States Department of
+ * Defense.
+ *
+ * NO WARRANTY. THIS CARNEGIE MELLON UNIVERSITY AND SOFTWARE ENGINEERING
+ * INSTITUTE MATERIAL IS FURNISHED ON AN "AS-IS" BASIS. CARNEGIE MELLON
+ * UNIVERSITY MAKES NO WARRANTIES OF ANY KIND, EITHER EXPRESSED OR IMPLIED,
+ * AS TO ANY MATTER INCLUDING, BUT NOT LIMITED TO, WARRANTY OF FITNESS FOR
+ * PURPOSE OR MERCHANTABILITY, EXCLUSIVITY, OR RESULTS OBTAINED FROM USE OF THE
+ * MATERIAL. CARNEGIE MELLON UNIVERSITY DOES NOT MAKE ANY WARRANTY OF ANY KIND
+ * WITH RESPECT TO FREEDOM FROM PATENT, TRADEMARK, OR COPYRIGHT INFRINGEMENT.
+ *
+ * This material has been approved for public release and unlimited
+ * distribution.
+ *
+ * @author James Edmondson <jedmondson@gmail.com>
+ *********************************************************************/
+package ai.gams.controllers;
+
+/**
+ * Adjusts the loop rate to the measured cost of an iteration. The period
+ * tracks a moving average of iteration time divided by a target
+ * utilization, bounded by a minimum and maximum rate, so the loop slows
+ * down under load instead of overrunning and speeds up again when the
+ * work gets cheaper.
+ **/
+public class AdaptiveRateScheduler implements LoopScheduler
+{
+  private static final double SMOOTHING = 0.125;
+
+  private final long minPeriod;
+  private final long maxPeriod;
+  private final double utilization;
+
+  private double average;
+  private long period;
+
+  /**
+   * Constructor
+   * @param  minHz        the slowest rate the loop may run at
+   * @param  maxHz        the fastest rate the loop may run at
+   * @param  utilization  the fraction of each period the iteration should
+   *                      occupy, in (0, 1]
+   **/
+  public AdaptiveRateScheduler(double minHz, double maxHz, double utilization)
+  {
+    if (minHz <= 0 || maxHz < minHz || utilization <= 0 || utilization > 1)
+    {
+      throw new IllegalArgumentException(
+        "AdaptiveRateScheduler requires 0 < minHz <= maxHz and 0 < utilization <= 1");
+    }
+
+    this.minPeriod = (long)(1000000000.0 / maxHz);
+    this.maxPeriod = (long)(1000000000.0 / minHz);
+    this.utilization = utilization;
+    this.period = minPeriod;
+  }
+
+  @Override
+  public void start(long now)
+  {
+    average = 0;
+    period = minPeriod;
+  }
+
+  @Override
+  public long next(long start, long end)
+  {
+    long work = end - start;
+    average = average == 0 ? work : average + SMOOTHING * (work - average);
+
+    period = Math.min(maxPeriod,
+      Math.max(minPeriod, (long)(average / utilization)));
+
+    return start + period;
+  }
+
+  @Override
+  public double getPeriod()
+  {
+    return period / 1000000000.0;
+  }
+
+  /**
+   * Returns the rate the scheduler has settled on
+   * @return the current loop rate in hz
+   **/
+  public double getHz()
+  {
+    return 1000000000.0 / period;
+  }
+}
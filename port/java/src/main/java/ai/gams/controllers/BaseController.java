@@ -46,10 +46,15 @@
  *********************************************************************/
 package ai.gams.controllers;
 
+import java.util.concurrent.atomic.AtomicLongArray;
+
 import ai.gams.GamsJNI;
+import ai.gams.NativeDisposer;
 import ai.gams.algorithms.AlgorithmFactory;
 import ai.gams.algorithms.BaseAlgorithm;
 import ai.gams.algorithms.DebuggerAlgorithm;
+import ai.gams.algorithms.coverage.AreaCoverage;
+import ai.gams.controllers.ControllerMetrics.Phase;
 import ai.gams.exceptions.GamsDeadObjectException;
 import ai.gams.platforms.BasePlatform;
 import ai.gams.platforms.DebuggerPlatform;
@@ -81,7 +86,24 @@ public class BaseController extends GamsJNI
   private native long jni_run(long cptr, double period, double max) throws GamsDeadObjectException;
   private native long jni_run(long cptr, double loopPeriod, double max, double sendPeriod) throws GamsDeadObjectException;
   private native long jni_runHz(long cptr, double loopHz, double max, double sendHz) throws GamsDeadObjectException;
+  private native long jni_runOnce(long cptr) throws GamsDeadObjectException;
+  private native void jni_sendModifieds(long cptr) throws GamsDeadObjectException;
   private native long jni_systemAnalyze(long cptr) throws GamsDeadObjectException;
+  private native void jni_getMetrics(long cptr, long[] values) throws GamsDeadObjectException;
+  private native void jni_resetMetrics(long cptr) throws GamsDeadObjectException;
+  private native void jni_setMetricsPrefix(long cptr, java.lang.String prefix) throws GamsDeadObjectException;
+  private native void jni_setAlgorithmThreads(long cptr, int threads) throws GamsDeadObjectException;
+  private native int jni_getAlgorithmThreads(long cptr) throws GamsDeadObjectException;
+
+  private static final NativeDisposer DISPOSER =
+    new NativeDisposer("ai.gams.controllers.BaseController")
+  {
+    @Override
+    protected void dispose(long cptr) throws Exception
+    {
+      jni_freeBaseController(cptr);
+    }
+  };
 
   private BaseAlgorithm  algorithm = null;
   private BasePlatform   platform = null;
@@ -90,6 +112,12 @@ public class BaseController extends GamsJNI
 
   private boolean manageMemory = true;
 
+  /**
+   * Wall time of phases called from Java, indexed by ControllerMetrics.Phase
+   */
+  private final AtomicLongArray javaNanos =
+    new AtomicLongArray(ControllerMetrics.Phase.values().length);
+
   /**
    * Constructor from C pointers
    * @param cptr the C-style pointer to the Base_Controller class instance
@@ -106,6 +134,7 @@ public class BaseController extends GamsJNI
   public BaseController(KnowledgeBase knowledge) throws GamsDeadObjectException
   {
     setCPtr(jni_BaseControllerFromKb(knowledge.getCPtr ()));
+    track(DISPOSER);
 
     initVars(0, 1);
     initPlatform(new DebuggerPlatform ());
@@ -119,6 +148,7 @@ public class BaseController extends GamsJNI
   public BaseController(BaseController input) throws GamsDeadObjectException
   {
     setCPtr(jni_BaseController(input.getCPtr()));
+    track(DISPOSER);
   }
 
   /**
@@ -131,7 +161,11 @@ public class BaseController extends GamsJNI
   public static BaseController fromPointer(long cptr, boolean shouldManage)
   {
     BaseController ret = new BaseController(cptr);
-    ret.manageMemory=shouldManage;
+    ret.manageMemory = shouldManage;
+    if (shouldManage)
+    {
+      ret.track(DISPOSER);
+    }
     return ret;
   }
 
@@ -141,7 +175,10 @@ public class BaseController extends GamsJNI
    *         currently checked.
    **/
   public long analyze () throws GamsDeadObjectException  {
-    return jni_analyze(getCPtr());
+    long start = System.nanoTime();
+    long result = jni_analyze(getCPtr());
+    javaNanos.addAndGet(Phase.ANALYZE.ordinal(), System.nanoTime() - start);
+    return result;
   }
 
   /**
@@ -150,7 +187,10 @@ public class BaseController extends GamsJNI
    *         currently checked.
    **/
   public long execute () throws GamsDeadObjectException  {
-    return jni_execute(getCPtr());
+    long start = System.nanoTime();
+    long result = jni_execute(getCPtr());
+    javaNanos.addAndGet(Phase.EXECUTE.ordinal(), System.nanoTime() - start);
+    return result;
   }
 
   /**
@@ -215,6 +255,18 @@ public class BaseController extends GamsJNI
     algorithm.init(this);
   }
 
+  /**
+   * Initialize a native area coverage within the controller. The coverage
+   * only calls into Java for waypoints if it overrides
+   * {@link AreaCoverage#generateNewPosition()}.
+   *
+   * @param  coverage  the coverage to add to the controller
+   */
+  public void initAlgorithm(AreaCoverage coverage) throws GamsDeadObjectException  {
+    this.algorithm = null;
+    coverage.init(this);
+  }
+
   /**
    * Initialize a platform within the controller
    *
@@ -279,7 +331,10 @@ public class BaseController extends GamsJNI
    *         currently checked.
    **/
   public long monitor () throws GamsDeadObjectException  {
-    return jni_monitor(getCPtr());
+    long start = System.nanoTime();
+    long result = jni_monitor(getCPtr());
+    javaNanos.addAndGet(Phase.MONITOR.ordinal(), System.nanoTime() - start);
+    return result;
   }
 
   /**
@@ -288,7 +343,10 @@ public class BaseController extends GamsJNI
    *         currently checked.
    **/
   public long plan () throws GamsDeadObjectException  {
-    return jni_plan(getCPtr());
+    long start = System.nanoTime();
+    long result = jni_plan(getCPtr());
+    javaNanos.addAndGet(Phase.PLAN.ordinal(), System.nanoTime() - start);
+    return result;
   }
 
   /**
@@ -337,13 +395,99 @@ public class BaseController extends GamsJNI
     return jni_runHz(getCPtr(), loopHz, duration, sendHz);
   }
 
+  /**
+   * Runs a single monitor, analyze, plan and execute iteration while
+   * holding the knowledge base lock, and then sends all updates
+   * @return status of the iteration. 0 is full success, though this is not
+   *         currently checked.
+   **/
+  public long runOnce () throws GamsDeadObjectException  {
+    long start = System.nanoTime();
+    long result = jni_runOnce(getCPtr());
+    javaNanos.addAndGet(Phase.ITERATION.ordinal(), System.nanoTime() - start);
+    return result;
+  }
+
+  /**
+   * Sends all modified variables over the network with the controller's
+   * evaluation settings, as run does at each send epoch
+   **/
+  public void sendModifieds () throws GamsDeadObjectException  {
+    long start = System.nanoTime();
+    jni_sendModifieds(getCPtr());
+    javaNanos.addAndGet(Phase.SEND.ordinal(), System.nanoTime() - start);
+  }
+
   /**
    * Analyzes the controller and system
    * @return status of analyze. 0 is full success, though this is not
    *         currently checked.
    **/
   public long systemAnalyze () throws GamsDeadObjectException  {
-    return jni_systemAnalyze(getCPtr());
+    long start = System.nanoTime();
+    long result = jni_systemAnalyze(getCPtr());
+    javaNanos.addAndGet(Phase.SYSTEM_ANALYZE.ordinal(), System.nanoTime() - start);
+    return result;
+  }
+
+  /**
+   * Returns a snapshot of the timing metrics of the controller loop,
+   * whether the loop is run natively or driven from Java
+   * @return the current metrics
+   **/
+  public ControllerMetrics getMetrics () throws GamsDeadObjectException  {
+    long[] values = new long[ControllerMetrics.SIZE];
+    jni_getMetrics(getCPtr(), values);
+
+    long[] nanos = new long[javaNanos.length()];
+    for (int i = 0; i < nanos.length; ++i)
+    {
+      nanos[i] = javaNanos.get(i);
+    }
+
+    return new ControllerMetrics(values, nanos);
+  }
+
+  /**
+   * Clears the timing metrics of the controller loop
+   **/
+  public void resetMetrics () throws GamsDeadObjectException  {
+    jni_resetMetrics(getCPtr());
+    for (int i = 0; i < javaNanos.length(); ++i)
+    {
+      javaNanos.set(i, 0);
+    }
+  }
+
+  /**
+   * Mirrors the native timing metrics into the knowledge base before each
+   * send, e.g., {prefix}.execute.total_nanos and {prefix}.missed_deadlines.
+   * Use a prefix starting with "." to keep the values local.
+   * @param  prefix  the variable prefix, or an empty string to stop
+   *                 mirroring
+   **/
+  public void setMetricsPrefix (java.lang.String prefix) throws GamsDeadObjectException  {
+    jni_setMetricsPrefix(getCPtr(), prefix);
+  }
+
+  /**
+   * Sets the default number of threads that native algorithms may use to
+   * plan, e.g., to score candidate destinations of area coverages. A
+   * "threads" argument of the algorithm takes precedence. Only affects
+   * algorithms initialized after the call.
+   * @param  threads  the number of threads, or 0 for one per processor
+   **/
+  public void setAlgorithmThreads (int threads) throws GamsDeadObjectException  {
+    jni_setAlgorithmThreads(getCPtr(), threads);
+  }
+
+  /**
+   * Returns the default number of threads that native algorithms may use
+   * to plan
+   * @return the number of threads, or 0 for one per processor
+   **/
+  public int getAlgorithmThreads () throws GamsDeadObjectException  {
+    return jni_getAlgorithmThreads(getCPtr());
   }
 
   /**
@@ -363,25 +507,10 @@ public class BaseController extends GamsJNI
   {
     if (manageMemory)
     {
+      untrack();
       jni_freeBaseController(getCPtr());
     }
     setCPtr(0);
   }
-
-  /**
-   * Cleans up underlying C resources
-   * @throws Throwable necessary for override but unused
-   */
-  @Override
-  protected void finalize() throws Throwable
-  {
-    try {
-      free();
-    } catch (Throwable t) {
-      throw t;
-    } finally {
-      super.finalize();
-    }
-  }
 }
 
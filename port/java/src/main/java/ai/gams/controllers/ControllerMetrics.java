@@ -0,0 +1,247 @@
+/*********************************************************************
+ * Copyright (c) 2013-2015 Carnegie Mellon University. All Rights Reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following acknowledgments and disclaimers.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *
+ * 3. The names "Carnegie Mellon University," "SEI" and/or
+ * "Software Engineering Institute" shall not be used to endorse or promote
+ * products derived from this software without prior written permission. For
+ * written permission, please contact permission@sei.cmu.edu.
+ *
+ * 4. Products derived from this software may not be called "SEI" nor may "SEI"
+ * appear in their names without prior written permission of
+ * permission@sei.cmu.edu.
+ *
+ * 5. Redistributions of any form whatsoever must retain the following
+ * acknowledgment:
+ *
+ * This material is based upon work funded and supported by the Department of
+ * Defense under Contract No. FA8721-05-C-0003 with Carnegie Mellon University
+ * for the operation of the Software Engineering Institute, a federally funded
+ * research and development center. Any opinions, findings and conclusions or
+ * recommendations expressed in this material are those of the author(s) and
+ * do not necessarily reflect the views of the United States Department of
+ * Defense.
+ *
+ * NO WARRANTY. THIS CARNEGIE MELLON UNIVERSITY AND SOFTWARE ENGINEERING
+ * INSTITUTE MATERIAL IS FURNISHED ON AN "AS-IS" BASIS. CARNEGIE MELLON
+ * UNIVERSITY MAKES NO WARRANTIES OF ANY KIND, EITHER EXPRESSED OR IMPLIED,
+ * AS TO ANY MATTER INCLUDING, BUT NOT LIMITED TO, WARRANTY OF FITNESS FOR
+ * PURPOSE OR MERCHANTABILITY, EXCLUSIVITY, OR RESULTS OBTAINED FROM USE OF THE
+ * MATERIAL. CARNEGIE MELLON UNIVERSITY DOES NOT MAKE ANY WARRANTY OF ANY KIND
+ * WITH RESPECT TO FREEDOM FROM PATENT, TRADEMARK, OR COPYRIGHT INFRINGEMENT.
+ *
+ * This material has been approved for public release and unlimited
+ * distribution.
+ *
+ * @author James Edmondson <jedmondson@gmail.com>
+ *********************************************************************/
+package ai.gams.controllers;
+
+/**
+ * A point-in-time copy of the timing metrics of a {@link BaseController}.
+ * Each phase of the loop reports its wall time, the part of it spent in
+ * Java algorithm and platform callbacks, and, for phases called from Java,
+ * the overhead of crossing into native code. The loop itself reports
+ * missed deadlines and sends. Obtain one with
+ * {@link BaseController#getMetrics()}.
+ **/
+public class ControllerMetrics
+{
+  /**
+   * The timed parts of a controller loop
+   **/
+  public enum Phase
+  {
+    MONITOR,
+    ANALYZE,
+    PLAN,
+    EXECUTE,
+    SYSTEM_ANALYZE,
+    SEND,
+    /**
+     * A full iteration of the native loop, or a call to runOnce
+     **/
+    ITERATION
+  }
+
+  // layout of the native snapshot, see gams::controllers::ControllerMetrics
+  static final int PHASE_FIELDS = 6;
+  static final int COUNT = 0;
+  static final int TOTAL_NANOS = 1;
+  static final int MAX_NANOS = 2;
+  static final int CALLBACK_NANOS = 3;
+  static final int EXTERNAL_COUNT = 4;
+  static final int EXTERNAL_NANOS = 5;
+
+  static final int LOOP_OFFSET = Phase.values().length * PHASE_FIELDS;
+  static final int MISSED_DEADLINES = LOOP_OFFSET;
+  static final int MAX_OVERRUN_NANOS = LOOP_OFFSET + 1;
+  static final int SENDS = LOOP_OFFSET + 2;
+
+  static final int SIZE = LOOP_OFFSET + 3;
+
+  private final long[] values;
+  private final long[] javaNanos;
+
+  /**
+   * Constructor
+   * @param  values     the native snapshot of SIZE values
+   * @param  javaNanos  the wall time of calls made from Java, per phase
+   **/
+  ControllerMetrics(long[] values, long[] javaNanos)
+  {
+    this.values = values;
+    this.javaNanos = javaNanos;
+  }
+
+  /**
+   * Returns the number of times a phase ran
+   * @param  phase  the phase of interest
+   * @return the number of runs
+   **/
+  public long getCount(Phase phase)
+  {
+    return get(phase, COUNT);
+  }
+
+  /**
+   * Returns the total wall time of a phase
+   * @param  phase  the phase of interest
+   * @return the time in nanoseconds
+   **/
+  public long getTotalNanos(Phase phase)
+  {
+    return get(phase, TOTAL_NANOS);
+  }
+
+  /**
+   * Returns the mean wall time of a phase
+   * @param  phase  the phase of interest
+   * @return the time in nanoseconds, or 0 if the phase has not run
+   **/
+  public double getMeanNanos(Phase phase)
+  {
+    long count = getCount(phase);
+    return count == 0 ? 0 : (double)getTotalNanos(phase) / count;
+  }
+
+  /**
+   * Returns the longest single run of a phase
+   * @param  phase  the phase of interest
+   * @return the time in nanoseconds
+   **/
+  public long getMaxNanos(Phase phase)
+  {
+    return get(phase, MAX_NANOS);
+  }
+
+  /**
+   * Returns the time a phase spent inside Java algorithm and platform
+   * callbacks, including the native to Java transition of each callback
+   * @param  phase  the phase of interest
+   * @return the time in nanoseconds
+   **/
+  public long getCallbackNanos(Phase phase)
+  {
+    return get(phase, CALLBACK_NANOS);
+  }
+
+  /**
+   * Returns the time a phase spent in native code, outside of callbacks
+   * @param  phase  the phase of interest
+   * @return the time in nanoseconds
+   **/
+  public long getNativeNanos(Phase phase)
+  {
+    return Math.max(0, getTotalNanos(phase) - getCallbackNanos(phase));
+  }
+
+  /**
+   * Returns the number of runs of a phase that were called from Java, such
+   * as through {@link BaseController#monitor()} or a {@link LoopDriver}
+   * @param  phase  the phase of interest
+   * @return the number of runs
+   **/
+  public long getJavaCallCount(Phase phase)
+  {
+    return get(phase, EXTERNAL_COUNT);
+  }
+
+  /**
+   * Returns the overhead of calling a phase from Java: the wall time seen
+   * by the Java caller minus the time spent in native code
+   * @param  phase  the phase of interest
+   * @return the time in nanoseconds
+   **/
+  public long getJniOverheadNanos(Phase phase)
+  {
+    return Math.max(0, javaNanos[phase.ordinal()] - get(phase, EXTERNAL_NANOS));
+  }
+
+  /**
+   * Returns the number of iterations of the native loop that ended after
+   * the next iteration was due
+   * @return the number of missed deadlines
+   **/
+  public long getMissedDeadlines()
+  {
+    return values[MISSED_DEADLINES];
+  }
+
+  /**
+   * Returns the largest amount an iteration ended after the next one was
+   * due
+   * @return the overrun in nanoseconds
+   **/
+  public long getMaxOverrunNanos()
+  {
+    return values[MAX_OVERRUN_NANOS];
+  }
+
+  /**
+   * Returns the number of sends of modified variables
+   * @return the number of sends
+   **/
+  public long getSends()
+  {
+    return values[SENDS];
+  }
+
+  /**
+   * Converts the metrics to a summary of each phase
+   * @return one line per phase, followed by the loop values
+   **/
+  @Override
+  public java.lang.String toString()
+  {
+    StringBuilder buffer = new StringBuilder();
+    buffer.append("ControllerMetrics:\n");
+    for (Phase phase : Phase.values())
+    {
+      buffer.append(String.format(
+        "  %s: count=%d mean=%.1fus max=%.1fus callback=%.1fus " +
+        "native=%.1fus jni=%.1fus\n", phase, getCount(phase),
+        getMeanNanos(phase) / 1000.0, getMaxNanos(phase) / 1000.0,
+        getCallbackNanos(phase) / 1000.0, getNativeNanos(phase) / 1000.0,
+        getJniOverheadNanos(phase) / 1000.0));
+    }
+    buffer.append(String.format(
+      "  missed deadlines=%d max overrun=%.1fus sends=%d\n",
+      getMissedDeadlines(), getMaxOverrunNanos() / 1000.0, getSends()));
+    return buffer.toString();
+  }
+
+  private long get(Phase phase, int field)
+  {
+    return values[phase.ordinal() * PHASE_FIELDS + field];
+  }
+}
@@ -0,0 +1,113 @@
+/*********************************************************************
+ * Copyright (c) 2013-2015 Carnegie Mellon University. All Rights Reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following acknowledgments and disclaimers.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *
+ * 3. The names "Carnegie Mellon University," "SEI" and/or
+ * "Software Engineering Institute" shall not be used to endorse or promote
+ * products derived from this software without prior written permission. For
+ * written permission, please contact permission@sei.cmu.edu.
+ *
+ * 4. Products derived from this software may not be called "SEI" nor may "SEI"
+ * appear in their names without prior written permission of
+ * permission@sei.cmu.edu.
+ *
+ * 5. Redistributions of any form whatsoever must retain the following
+ * acknowledgment:
+ *
+ * This material is based upon work funded and supported by the Department of
+ * Defense under Contract No. FA8721-05-C-0003 with Carnegie Mellon University
+ * for the operation of the Software Engineering Institute, a federally funded
+ * research and development center. Any opinions, findings and conclusions or
+ * recommendations expressed in this material are those of the author(s) and
+ * do not necessarily reflect the views of the United States Department of
+ * Defense.
+ *
+ * NO WARRANTY. THIS CARNEGIE MELLON UNIVERSITY AND SOFTWARE ENGINEERING
+ * INSTITUTE MATERIAL IS FURNISHED ON AN "AS-IS" BASIS. CARNEGIE MELLON
+ * UNIVERSITY MAKES NO WARRANTIES OF ANY KIND, EITHER EXPRESSED OR IMPLIED,
+ * AS TO ANY MATTER INCLUDING, BUT NOT LIMITED TO, WARRANTY OF FITNESS FOR
+ * PURPOSE OR MERCHANTABILITY, EXCLUSIVITY, OR RESULTS OBTAINED FROM USE OF THE
+ * MATERIAL. CARNEGIE MELLON UNIVERSITY DOES NOT MAKE ANY WARRANTY OF ANY KIND
+ * WITH RESPECT TO FREEDOM FROM PATENT, TRADEMARK, OR COPYRIGHT INFRINGEMENT.
+ *
+ * This material has been approved for public release and unlimited
+ * distribution.
+ *
+ * @author James Edmondson <jedmondson@gmail.com>
+ *********************************************************************/
+package ai.gams.controllers;
+
+/**
+ * Gives each iteration a deadline one period after it starts, and starts
+ * the next iteration at that deadline. An iteration that misses its
+ * deadline is followed immediately by the next one, and the schedule is
+ * re-anchored there instead of trying to catch up.
+ **/
+public class DeadlineScheduler implements LoopScheduler
+{
+  private final long period;
+  private long misses;
+  private long worstLateness;
+
+  /**
+   * Constructor
+   * @param  period  the deadline of each iteration in seconds
+   **/
+  public DeadlineScheduler(double period)
+  {
+    this.period = period > 0 ? (long)(period * 1000000000.0) : 0;
+  }
+
+  @Override
+  public void start(long now)
+  {
+    misses = 0;
+    worstLateness = 0;
+  }
+
+  @Override
+  public long next(long start, long end)
+  {
+    long deadline = start + period;
+    if (end > deadline)
+    {
+      ++misses;
+      worstLateness = Math.max(worstLateness, end - deadline);
+      return end;
+    }
+    return deadline;
+  }
+
+  @Override
+  public double getPeriod()
+  {
+    return period / 1000000000.0;
+  }
+
+  /**
+   * Returns the number of iterations that finished after their deadline
+   * @return missed deadlines since the last start
+   **/
+  public long getMisses()
+  {
+    return misses;
+  }
+
+  /**
+   * Returns how late the worst iteration finished
+   * @return the largest overrun in nanoseconds
+   **/
+  public long getWorstLateness()
+  {
+    return worstLateness;
+  }
+}
@@ -0,0 +1,357 @@
+/*********************************************************************
+ * Copyright (c) 2013-2015 Carnegie Mellon University. All Rights Reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following acknowledgments and disclaimers.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *
+ * 3. The names "Carnegie Mellon University," "SEI" and/or
+ * "Software Engineering Institute" shall not be used to endorse or promote
+ * products derived from this software without prior written permission. For
+ * written permission, please contact permission@sei.cmu.edu.
+ *
+ * 4. Products derived from this software may not be called "SEI" nor may "SEI"
+ * appear in their names without prior written permission of
+ * permission@sei.cmu.edu.
+ *
+ * 5. Redistributions of any form whatsoever must retain the following
+ * acknowledgment:
+ *
+ * This material is based upon work funded and supported by the Department of
+ * Defense under Contract No. FA8721-05-C-0003 with Carnegie Mellon University
+ * for the operation of the Software Engineering Institute, a federally funded
+ * research and development center. Any opinions, findings and conclusions or
+ * recommendations expressed in this material are those of the author(s) and
+ * do not necessarily reflect the views of the United States Department of
+ * Defense.
+ *
+ * NO WARRANTY. THIS CARNEGIE MELLON UNIVERSITY AND SOFTWARE ENGINEERING
+ * INSTITUTE MATERIAL IS FURNISHED ON AN "AS-IS" BASIS. CARNEGIE MELLON
+ * UNIVERSITY MAKES NO WARRANTIES OF ANY KIND, EITHER EXPRESSED OR IMPLIED,
+ * AS TO ANY MATTER INCLUDING, BUT NOT LIMITED TO, WARRANTY OF FITNESS FOR
+ * PURPOSE OR MERCHANTABILITY, EXCLUSIVITY, OR RESULTS OBTAINED FROM USE OF THE
+ * MATERIAL. CARNEGIE MELLON UNIVERSITY DOES NOT MAKE ANY WARRANTY OF ANY KIND
+ * WITH RESPECT TO FREEDOM FROM PATENT, TRADEMARK, OR COPYRIGHT INFRINGEMENT.
+ *
+ * This material has been approved for public release and unlimited
+ * distribution.
+ *
+ * @author James Edmondson <jedmondson@gmail.com>
+ *********************************************************************/
+package ai.gams.controllers;
+
+import java.util.EnumMap;
+import java.util.concurrent.locks.LockSupport;
+
+import ai.gams.exceptions.GamsDeadObjectException;
+import ai.gams.utility.LatencyHistogram;
+
+/**
+ * Drives the monitor, analyze, plan and execute loop of a controller from
+ * Java instead of handing the whole loop to {@link BaseController#run}.
+ * The calling thread runs every phase, a {@link LoopScheduler} decides when
+ * each iteration starts, and each phase is timed into a
+ * {@link LatencyHistogram}. Updates are sent through the controller's
+ * native send, with the same send epoch rules as the native loop.
+ * <p>
+ * Unlike the native loop, the knowledge base is not locked across the
+ * four phases, so other threads may update it in between.
+ **/
+public class LoopDriver implements Runnable
+{
+  /**
+   * The timed parts of an iteration
+   **/
+  public enum Phase
+  {
+    MONITOR,
+    ANALYZE,
+    PLAN,
+    EXECUTE,
+    SYSTEM_ANALYZE,
+    SEND,
+    /**
+     * The full iteration, including the send if there was one
+     **/
+    ITERATION,
+    /**
+     * How late each iteration started compared to its schedule
+     **/
+    JITTER
+  }
+
+  private final BaseController controller;
+  private final LoopScheduler scheduler;
+  private final EnumMap<Phase, LatencyHistogram> histograms =
+    new EnumMap<Phase, LatencyHistogram>(Phase.class);
+
+  private double sendPeriod = 0;
+  private volatile boolean running = false;
+  private volatile boolean stopRequested = false;
+  private volatile GamsDeadObjectException failure = null;
+  private volatile long iterations = 0;
+
+  /**
+   * Constructor
+   * @param  controller  the controller whose phases will be called
+   * @param  scheduler   decides when each iteration starts
+   **/
+  public LoopDriver(BaseController controller, LoopScheduler scheduler)
+  {
+    this.controller = controller;
+    this.scheduler = scheduler;
+
+    for (Phase phase : Phase.values())
+    {
+      histograms.put(phase, new LatencyHistogram());
+    }
+  }
+
+  /**
+   * Sets the time between sends of modified variables
+   * @param  period  the send period in seconds. If non-positive, the
+   *                 scheduler's current loop period is used, which means
+   *                 sending after every iteration of an unpaced loop.
+   **/
+  public void setSendPeriod(double period)
+  {
+    sendPeriod = period;
+  }
+
+  /**
+   * Sets the rate of sends of modified variables
+   * @param  hz  the send rate. If non-positive, the loop period is used.
+   **/
+  public void setSendHz(double hz)
+  {
+    sendPeriod = hz > 0 ? 1.0 / hz : 0;
+  }
+
+  /**
+   * Runs iterations until the duration passes or {@link #stop()} is called.
+   * If stop was called while no loop was running, e.g., right after the
+   * driver was handed to another thread, this returns without iterating.
+   * @param  duration  the time to run in seconds. Negative means run until
+   *                   stopped, and 0 means run one iteration.
+   * @return the result of the last iteration
+   * @throws GamsDeadObjectException if the controller has been freed
+   **/
+  public long run(double duration) throws GamsDeadObjectException
+  {
+    running = true;
+    failure = null;
+
+    long now = System.nanoTime();
+    long endTime = now + (long)(Math.max(0, duration) * 1000000000.0);
+    long nextSend = now + sendWindow();
+    long scheduled = now;
+    boolean first = true;
+    long result = 0;
+
+    scheduler.start(now);
+
+    try
+    {
+      result = controller.systemAnalyze();
+
+      while (!stopRequested && (first || duration < 0 || now < endTime))
+      {
+        long start = System.nanoTime();
+        record(Phase.JITTER, scheduled, start);
+
+        long mark = start;
+        result = controller.monitor();
+        mark = record(Phase.MONITOR, mark, System.nanoTime());
+        result |= controller.analyze();
+        mark = record(Phase.ANALYZE, mark, System.nanoTime());
+        result |= controller.plan();
+        mark = record(Phase.PLAN, mark, System.nanoTime());
+        result |= controller.execute();
+        mark = record(Phase.EXECUTE, mark, System.nanoTime());
+        result |= controller.systemAnalyze();
+        now = record(Phase.SYSTEM_ANALYZE, mark, System.nanoTime());
+
+        // always send at least once, then on each send epoch
+        if (first || now > nextSend)
+        {
+          controller.sendModifieds();
+          now = record(Phase.SEND, now, System.nanoTime());
+
+          long window = sendWindow();
+          if (window > 0)
+          {
+            while (nextSend <= now)
+            {
+              nextSend += window;
+            }
+          }
+        }
+
+        record(Phase.ITERATION, start, now);
+        ++iterations;
+        first = false;
+
+        scheduled = scheduler.next(start, now);
+
+        if (duration < 0 || now < endTime)
+        {
+          sleepUntil(scheduled);
+        }
+
+        now = System.nanoTime();
+      }
+    }
+    catch (GamsDeadObjectException e)
+    {
+      failure = e;
+      throw e;
+    }
+    finally
+    {
+      // the stop request has been served
+      stopRequested = false;
+      running = false;
+    }
+
+    return result;
+  }
+
+  /**
+   * Runs until stopped. Intended for handing the driver to a thread or
+   * executor of the caller's choosing. If the controller has been freed,
+   * the loop ends, the cause is kept for {@link #getFailure()}, and an
+   * IllegalStateException wrapping it is thrown to the thread or executor.
+   **/
+  @Override
+  public void run()
+  {
+    try
+    {
+      run(-1);
+    }
+    catch (GamsDeadObjectException e)
+    {
+      throw new IllegalStateException(
+        "LoopDriver::run: controller is released already", e);
+    }
+  }
+
+  /**
+   * Asks the loop to stop after the current iteration. May be called from
+   * any thread. A request made while no loop is running stops the next
+   * run before its first iteration.
+   **/
+  public void stop()
+  {
+    stopRequested = true;
+  }
+
+  /**
+   * Returns why the last run ended early, if it did
+   * @return the dead object exception that ended the last run, or null
+   *         if it ran to completion or was stopped
+   **/
+  public GamsDeadObjectException getFailure()
+  {
+    return failure;
+  }
+
+  /**
+   * Checks if the loop is running
+   * @return true if an iteration is running or scheduled
+   **/
+  public boolean isRunning()
+  {
+    return running;
+  }
+
+  /**
+   * Returns the number of completed iterations
+   * @return iterations completed since construction or the last reset
+   **/
+  public long getIterations()
+  {
+    return iterations;
+  }
+
+  /**
+   * Returns the latency histogram of a phase
+   * @param  phase  the phase of interest
+   * @return the live histogram for the phase
+   **/
+  public LatencyHistogram getHistogram(Phase phase)
+  {
+    return histograms.get(phase);
+  }
+
+  /**
+   * Returns the scheduler used by the driver
+   * @return the scheduler
+   **/
+  public LoopScheduler getScheduler()
+  {
+    return scheduler;
+  }
+
+  /**
+   * Clears all histograms and the iteration count
+   **/
+  public void reset()
+  {
+    for (LatencyHistogram histogram : histograms.values())
+    {
+      histogram.reset();
+    }
+    iterations = 0;
+  }
+
+  /**
+   * Converts the driver to a summary of its phase latencies
+   * @return one line per phase
+   **/
+  @Override
+  public java.lang.String toString()
+  {
+    StringBuilder buffer = new StringBuilder();
+    buffer.append("LoopDriver: ").append(iterations).append(" iterations\n");
+    for (Phase phase : Phase.values())
+    {
+      buffer.append("  ").append(phase).append(": ");
+      buffer.append(histograms.get(phase)).append('\n');
+    }
+    return buffer.toString();
+  }
+
+  private long record(Phase phase, long start, long end)
+  {
+    histograms.get(phase).record(end - start);
+    return end;
+  }
+
+  private long sendWindow()
+  {
+    double period = sendPeriod > 0 ? sendPeriod : scheduler.getPeriod();
+    return (long)(period * 1000000000.0);
+  }
+
+  private void sleepUntil(long deadline)
+  {
+    long remaining;
+    while (!stopRequested && (remaining = deadline - System.nanoTime()) > 0)
+    {
+      LockSupport.parkNanos(this, remaining);
+      if (Thread.interrupted())
+      {
+        // stop, and restore the interrupt for the caller to see
+        stopRequested = true;
+        Thread.currentThread().interrupt();
+      }
+    }
+  }
+}
@@ -0,0 +1,374 @@
+/*********************************************************************
+ * Copyright (c) 2013-2015 Carnegie Mellon University. All Rights Reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following acknowledgments and disclaimers.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *
+ * 3. The names "Carnegie Mellon University," "SEI" and/or
+ * "Software Engineering Institute" shall not be used to endorse or promote
+ * products derived from this software without prior written permission. For
+ * written permission, please contact permission@sei.cmu.edu.
+ *
+ * 4. Products derived from this software may not be called "SEI" nor may "SEI"
+ * appear in their names without prior written permission of
+ * permission@sei.cmu.edu.
+ *
+ * 5. Redistributions of any form whatsoever must retain the following
+ * acknowledgment:
+ *
+ * This material is based upon work funded and supported by the Department of
+ * Defense under Contract No. FA8721-05-C-0003 with Carnegie Mellon University
+ * for the operation of the Software Engineering Institute, a federally funded
+ * research and development center. Any opinions, findings and conclusions or
+ * recommendations expressed in this material are those of the author(s) and
+ * do not necessarily reflect the views of the United States Department of
+ * Defense.
+ *
+ * NO WARRANTY. THIS CARNEGIE MELLON UNIVERSITY AND SOFTWARE ENGINEERING
+ * INSTITUTE MATERIAL IS FURNISHED ON AN "AS-IS" BASIS. CARNEGIE MELLON
+ * UNIVERSITY MAKES NO WARRANTIES OF ANY KIND, EITHER EXPRESSED OR IMPLIED,
+ * AS TO ANY MATTER INCLUDING, BUT NOT LIMITED TO, WARRANTY OF FITNESS FOR
+ * PURPOSE OR MERCHANTABILITY, EXCLUSIVITY, OR RESULTS OBTAINED FROM USE OF THE
+ * MATERIAL. CARNEGIE MELLON UNIVERSITY DOES NOT MAKE ANY WARRANTY OF ANY KIND
+ * WITH RESPECT TO FREEDOM FROM PATENT, TRADEMARK, OR COPYRIGHT INFRINGEMENT.
+ *
+ * This material has been approved for public release and unlimited
+ * distribution.
+ *
+ * @author James Edmondson <jedmondson@gmail.com>
+ *********************************************************************/
+package ai.gams.controllers;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import ai.gams.GamsJNI;
+import ai.gams.NativeDisposer;
+import ai.gams.algorithms.BaseAlgorithm;
+import ai.gams.exceptions.GamsDeadObjectException;
+import ai.gams.platforms.BasePlatform;
+import ai.madara.knowledge.KnowledgeBase;
+import ai.madara.knowledge.KnowledgeList;
+
+/**
+ * A controller that hosts many agents in one process. Each slot is a
+ * {@link BaseController} with its own platform and algorithm, and all
+ * slots share one knowledge base and one native MAPE loop.
+ **/
+public class Multicontroller extends GamsJNI
+{
+  private native long jni_Multicontroller(long kb, long numControllers) throws GamsDeadObjectException;
+  private static native void jni_freeMulticontroller(long cptr) throws GamsDeadObjectException;
+  private native void jni_resize(long cptr, long numControllers) throws GamsDeadObjectException;
+  private native long jni_getSize(long cptr) throws GamsDeadObjectException;
+  private native long jni_getController(long cptr, long index) throws GamsDeadObjectException;
+  private native long jni_monitor(long cptr) throws GamsDeadObjectException;
+  private native long jni_analyze(long cptr) throws GamsDeadObjectException;
+  private native long jni_plan(long cptr) throws GamsDeadObjectException;
+  private native long jni_execute(long cptr) throws GamsDeadObjectException;
+  private native long jni_systemAnalyze(long cptr) throws GamsDeadObjectException;
+  private native long jni_runOnce(long cptr) throws GamsDeadObjectException;
+  private native long jni_run(long cptr, double loopPeriod, double max, double sendPeriod) throws GamsDeadObjectException;
+  private native long jni_runHz(long cptr, double loopHz, double max, double sendHz) throws GamsDeadObjectException;
+  private native void jni_initVars(long cptr, long id, long processes) throws GamsDeadObjectException;
+
+  private static final NativeDisposer DISPOSER =
+    new NativeDisposer("ai.gams.controllers.Multicontroller")
+  {
+    @Override
+    protected void dispose(long cptr) throws Exception
+    {
+      jni_freeMulticontroller(cptr);
+    }
+  };
+
+  /**
+   * Views of each slot's controller. The views keep the Java platforms
+   * and algorithms of the slots reachable while the native loop runs.
+   **/
+  private final List<BaseController> controllers = new ArrayList<BaseController>();
+
+  private boolean manageMemory = true;
+
+  /**
+   * Constructor from C pointers
+   * @param cptr the C-style pointer to the Multicontroller class instance
+   */
+  private Multicontroller(long cptr)
+  {
+    setCPtr(cptr);
+  }
+
+  /**
+   * Constructor
+   * @param knowledge       knowledge base shared by all slots
+   * @param numControllers  the number of agent slots
+   */
+  public Multicontroller(KnowledgeBase knowledge, int numControllers) throws GamsDeadObjectException
+  {
+    setCPtr(jni_Multicontroller(knowledge.getCPtr(), numControllers));
+    track(DISPOSER);
+    refreshControllers();
+  }
+
+  /**
+   * Creates a java object instance from a C/C++ pointer
+   *
+   * @param cptr C pointer to the object
+   * @return a new java instance of the underlying pointer
+   **/
+  public static Multicontroller fromPointer(long cptr) throws GamsDeadObjectException
+  {
+    return fromPointer(cptr, true);
+  }
+
+  /**
+   * Creates a java object instance from a C/C++ pointer
+   *
+   * @param cptr C pointer to the object
+   * @param shouldManage  if true, manage the pointer
+   * @return a new java instance of the underlying pointer
+   **/
+  public static Multicontroller fromPointer(long cptr, boolean shouldManage) throws GamsDeadObjectException
+  {
+    Multicontroller ret = new Multicontroller(cptr);
+    ret.manageMemory = shouldManage;
+    if (shouldManage)
+    {
+      ret.track(DISPOSER);
+    }
+    ret.refreshControllers();
+    return ret;
+  }
+
+  /**
+   * Changes the number of agent slots. Slots that are removed are deleted
+   * along with their platforms and algorithms, and their controller views
+   * are released.
+   * @param  numControllers  the new number of slots
+   **/
+  public void resize(int numControllers) throws GamsDeadObjectException
+  {
+    jni_resize(getCPtr(), numControllers);
+    refreshControllers();
+  }
+
+  /**
+   * Returns the number of agent slots
+   * @return the number of slots
+   **/
+  public int size()
+  {
+    return controllers.size();
+  }
+
+  /**
+   * Returns the controller of a slot. The controller is owned by the
+   * Multicontroller and must not be freed by the caller.
+   * @param  slot  the slot
+   * @return the slot's controller
+   **/
+  public BaseController getController(int slot)
+  {
+    return controllers.get(slot);
+  }
+
+  /**
+   * Initializes the variables of every slot. Slot i becomes agent id + i.
+   * The slots share one knowledge base, so the id and prefix of slot i are
+   * kept in .slot.{i}.id and .slot.{i}.prefix instead of .id and .prefix.
+   * Algorithms should read them through their self variables.
+   * @param  id         the id of the first slot within the swarm
+   * @param  processes  the number of processes participating in the swarm.
+   *                    If negative, id plus the number of slots is used.
+   */
+  public void initVars(long id, long processes) throws GamsDeadObjectException
+  {
+    jni_initVars(getCPtr(), id, processes);
+  }
+
+  /**
+   * Initializes an algorithm in one slot
+   * @param  slot       the slot
+   * @param  algorithm  the algorithm to add to the slot
+   */
+  public void initAlgorithm(int slot, BaseAlgorithm algorithm) throws GamsDeadObjectException
+  {
+    controllers.get(slot).initAlgorithm(algorithm);
+  }
+
+  /**
+   * Initializes a named algorithm in one slot
+   * @param  slot  the slot
+   * @param  name  the name of the algorithm
+   * @param  args  the arguments to the algorithm
+   */
+  public void initAlgorithm(int slot, java.lang.String name, KnowledgeList args) throws GamsDeadObjectException
+  {
+    controllers.get(slot).initAlgorithm(name, args);
+  }
+
+  /**
+   * Initializes a platform in one slot
+   * @param  slot      the slot
+   * @param  platform  the platform to add to the slot
+   */
+  public void initPlatform(int slot, BasePlatform platform) throws GamsDeadObjectException
+  {
+    controllers.get(slot).initPlatform(platform);
+  }
+
+  /**
+   * Initializes a named platform in one slot
+   * @param  slot  the slot
+   * @param  name  the name of the platform
+   */
+  public void initPlatform(int slot, java.lang.String name) throws GamsDeadObjectException
+  {
+    controllers.get(slot).initPlatform(name);
+  }
+
+  /**
+   * Monitors the platforms of all slots
+   * @return bitwise or of the slot results
+   **/
+  public long monitor() throws GamsDeadObjectException
+  {
+    return jni_monitor(getCPtr());
+  }
+
+  /**
+   * Analyzes the platforms, algorithms and accents of all slots
+   * @return bitwise or of the slot results
+   **/
+  public long analyze() throws GamsDeadObjectException
+  {
+    return jni_analyze(getCPtr());
+  }
+
+  /**
+   * Plans the algorithms and accents of all slots
+   * @return bitwise or of the slot results
+   **/
+  public long plan() throws GamsDeadObjectException
+  {
+    return jni_plan(getCPtr());
+  }
+
+  /**
+   * Executes the algorithms and accents of all slots
+   * @return bitwise or of the slot results
+   **/
+  public long execute() throws GamsDeadObjectException
+  {
+    return jni_execute(getCPtr());
+  }
+
+  /**
+   * Analyzes the controllers and system of all slots
+   * @return bitwise or of the slot results
+   **/
+  public long systemAnalyze() throws GamsDeadObjectException
+  {
+    return jni_systemAnalyze(getCPtr());
+  }
+
+  /**
+   * Runs one MAPE iteration over all slots and sends the updates
+   * @return status of the iteration. 0 is full success.
+   **/
+  public long runOnce() throws GamsDeadObjectException
+  {
+    return jni_runOnce(getCPtr());
+  }
+
+  /**
+   * Runs iterations of the MAPE loop over all slots with specified periods
+   * @param  loopPeriod time in seconds between executions of the loop. 0
+   *                    means run as fast as possible (no sleeps).
+   * @param  duration   the duration of time spent running the loop in seconds.
+   *                    Negative duration means run loop forever. 0 duration
+   *                    means run once.
+   * @param  sendPeriod time in seconds between sending updates over network.
+   *                    If sendPeriod is non-positive, loopPeriod is used.
+   * @return status of run. 0 is full success.
+   **/
+  public long run(double loopPeriod, double duration, double sendPeriod) throws GamsDeadObjectException
+  {
+    return jni_run(getCPtr(), loopPeriod, duration, sendPeriod);
+  }
+
+  /**
+   * Runs iterations of the MAPE loop over all slots with specified hertz
+   * @param  loopHz   the intended hz at which the loop should execute.
+   *                  0hz is treated as infinite hertz.
+   * @param  duration the duration of time spent running the loop in seconds.
+   *                  Negative duration means run loop forever. 0 duration means
+   *                  run once.
+   * @param  sendHz   the intended hz at which updates should be sent. If
+   *                  non-positive, loopHz is used.
+   * @return status of run. 0 is full success.
+   **/
+  public long runHz(double loopHz, double duration, double sendHz) throws GamsDeadObjectException
+  {
+    return jni_runHz(getCPtr(), loopHz, duration, sendHz);
+  }
+
+  /**
+   * Converts the value to a string
+   *
+   * @return current string value
+   */
+  public java.lang.String toString()
+  {
+    return "Multicontroller";
+  }
+
+  /**
+   * Deletes the C instantiation, including every slot. To prevent memory
+   * leaks, this <b>must</b> be called before an instance of
+   * Multicontroller gets garbage collected
+   */
+  public void free() throws GamsDeadObjectException
+  {
+    for (BaseController controller : controllers)
+    {
+      controller.free();
+    }
+    controllers.clear();
+
+    if (manageMemory)
+    {
+      untrack();
+      jni_freeMulticontroller(getCPtr());
+    }
+    setCPtr(0);
+  }
+
+  /**
+   * Synchronizes the slot views with the native slots, keeping the views
+   * (and their Java platforms and algorithms) of slots that still exist
+   **/
+  private void refreshControllers() throws GamsDeadObjectException
+  {
+    int count = (int)jni_getSize(getCPtr());
+
+    while (controllers.size() > count)
+    {
+      controllers.remove(controllers.size() - 1).free();
+    }
+
+    while (controllers.size() < count)
+    {
+      controllers.add(BaseController.fromPointer(
+        jni_getController(getCPtr(), controllers.size()), false));
+    }
+  }
+}
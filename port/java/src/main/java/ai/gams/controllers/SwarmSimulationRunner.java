@@ -0,0 +1,434 @@
+/*********************************************************************
+ * Copyright (c) 2013-2015 Carnegie Mellon University. All Rights Reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following acknowledgments and disclaimers.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *
+ * 3. The names "Carnegie Mellon University," "SEI" and/or
+ * "Software Engineering Institute" shall not be used to endorse or promote
+ * products derived from this software without prior written permission. For
+ * written permission, please contact permission@sei.cmu.edu.
+ *
+ * 4. Products derived from this software may not be called "SEI" nor may "SEI"
+ * appear in their names without prior written permission of
+ * permission@sei.cmu.edu.
+ *
+ * 5. Redistributions of any form whatsoever must retain the following
+ * acknowledgment:
+ *
+ * This material is based upon work funded and supported by the Department of
+ * Defense under Contract No. FA8721-05-C-0003 with Carnegie Mellon University
+ * for the operation of the Software Engineering Institute, a federally funded
+ * research and development center. Any opinions, findings and conclusions or
+ * recommendations expressed in this material are those of the author(s) and
+ * do not necessarily reflect the views of the United States Department of
+ * Defense.
+ *
+ * NO WARRANTY. THIS CARNEGIE MELLON UNIVERSITY AND SOFTWARE ENGINEERING
+ * INSTITUTE MATERIAL IS FURNISHED ON AN "AS-IS" BASIS. CARNEGIE MELLON
+ * UNIVERSITY MAKES NO WARRANTIES OF ANY KIND, EITHER EXPRESSED OR IMPLIED,
+ * AS TO ANY MATTER INCLUDING, BUT NOT LIMITED TO, WARRANTY OF FITNESS FOR
+ * PURPOSE OR MERCHANTABILITY, EXCLUSIVITY, OR RESULTS OBTAINED FROM USE OF THE
+ * MATERIAL. CARNEGIE MELLON UNIVERSITY DOES NOT MAKE ANY WARRANTY OF ANY KIND
+ * WITH RESPECT TO FREEDOM FROM PATENT, TRADEMARK, OR COPYRIGHT INFRINGEMENT.
+ *
+ * This material has been approved for public release and unlimited
+ * distribution.
+ *
+ * @author James Edmondson <jedmondson@gmail.com>
+ *********************************************************************/
+package ai.gams.controllers;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+import ai.gams.exceptions.GamsDeadObjectException;
+import ai.gams.utility.LatencyHistogram;
+
+/**
+ * Steps many controllers in lockstep ticks without a thread per controller.
+ * Controllers are split into fixed batches in the order they were added.
+ * Each tick runs every batch as one task on a bounded pool (or on virtual
+ * threads when the JDK has them), and the next tick does not start until
+ * every controller has finished the current one. Within a batch,
+ * controllers always step in the same order, so a tick is deterministic
+ * for controllers that do not share a knowledge base.
+ * <p>
+ * A step of a controller is monitor, analyze, plan, execute and system
+ * analyze, followed by a send of modified variables every
+ * {@link #setSendInterval(int)} ticks.
+ **/
+public class SwarmSimulationRunner
+{
+  private final List<BaseController> controllers = new ArrayList<BaseController>();
+  private final ExecutorService executor;
+  private final boolean ownsExecutor;
+  private final boolean virtual;
+
+  private List<Callable<Void>> batches = null;
+  private int batchSize = 0;
+  private int sendInterval = 1;
+
+  private final LatencyHistogram tickLatency = new LatencyHistogram();
+  private volatile long ticks = 0;
+  private volatile long agentTicks = 0;
+  private volatile long busyNanos = 0;
+
+  private long currentTick = 0;
+
+  /**
+   * Constructor that steps controllers on a bounded pool of platform
+   * threads
+   * @param  threads  the number of pool threads
+   **/
+  public SwarmSimulationRunner(int threads)
+  {
+    this(Executors.newFixedThreadPool(threads, new RunnerThreadFactory()),
+      true, false);
+  }
+
+  /**
+   * Constructor that steps controllers on a caller-provided executor. The
+   * executor is not shut down by {@link #shutdown()}.
+   * @param  executor  the executor that runs each batch
+   **/
+  public SwarmSimulationRunner(ExecutorService executor)
+  {
+    this(executor, false, false);
+  }
+
+  private SwarmSimulationRunner(ExecutorService executor, boolean owns,
+    boolean virtual)
+  {
+    this.executor = executor;
+    this.ownsExecutor = owns;
+    this.virtual = virtual;
+  }
+
+  /**
+   * Creates a runner that uses a virtual thread per batch if the JDK
+   * supports virtual threads, and a bounded pool otherwise. Native calls
+   * pin their carrier thread, so the number of carriers, not the number
+   * of batches, bounds how many controllers step at once.
+   * @param  threads  the pool size to fall back to
+   * @return the new runner
+   **/
+  public static SwarmSimulationRunner withVirtualThreads(int threads)
+  {
+    try
+    {
+      Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+      return new SwarmSimulationRunner(
+        (ExecutorService)factory.invoke(null), true, true);
+    }
+    catch (Exception e)
+    {
+      return new SwarmSimulationRunner(threads);
+    }
+  }
+
+  /**
+   * Adds a controller. Controllers should be fully initialized with their
+   * platforms and algorithms before the first step.
+   * @param  controller  the controller to step
+   * @return the index of the controller in the runner
+   **/
+  public synchronized int add(BaseController controller)
+  {
+    controllers.add(controller);
+    batches = null;
+    return controllers.size() - 1;
+  }
+
+  /**
+   * Returns the number of controllers
+   * @return the number of controllers added
+   **/
+  public synchronized int size()
+  {
+    return controllers.size();
+  }
+
+  /**
+   * Sets the number of controllers stepped by each task
+   * @param  size  controllers per batch. Non-positive values split the
+   *               controllers evenly over four tasks per available
+   *               processor.
+   **/
+  public synchronized void setBatchSize(int size)
+  {
+    batchSize = size;
+    batches = null;
+  }
+
+  /**
+   * Sets how often controllers send their modified variables
+   * @param  interval  send every interval ticks. Non-positive values
+   *                   disable sending.
+   **/
+  public synchronized void setSendInterval(int interval)
+  {
+    sendInterval = interval;
+  }
+
+  /**
+   * Checks if batches run on virtual threads
+   * @return true if the runner uses virtual threads
+   **/
+  public boolean isVirtual()
+  {
+    return virtual;
+  }
+
+  /**
+   * Steps every controller once
+   * @return the bitwise or of all controller results for the tick
+   **/
+  public synchronized long step() throws GamsDeadObjectException
+  {
+    if (batches == null)
+    {
+      batches = partition();
+    }
+
+    long start = System.nanoTime();
+    long result = 0;
+
+    try
+    {
+      List<Future<Void>> pending = executor.invokeAll(batches);
+      for (Future<Void> future : pending)
+      {
+        future.get();
+      }
+    }
+    catch (InterruptedException e)
+    {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("SwarmSimulationRunner interrupted during a tick", e);
+    }
+    catch (ExecutionException e)
+    {
+      Throwable cause = e.getCause();
+      if (cause instanceof GamsDeadObjectException)
+      {
+        throw (GamsDeadObjectException)cause;
+      }
+      if (cause instanceof RuntimeException)
+      {
+        throw (RuntimeException)cause;
+      }
+      throw new IllegalStateException(cause);
+    }
+
+    for (Callable<Void> batch : batches)
+    {
+      result |= ((Batch)batch).result;
+    }
+
+    long elapsed = System.nanoTime() - start;
+    tickLatency.record(elapsed);
+    busyNanos += elapsed;
+    agentTicks += controllers.size();
+    ++ticks;
+    ++currentTick;
+
+    return result;
+  }
+
+  /**
+   * Steps every controller for a number of ticks as fast as possible
+   * @param  count  the number of ticks
+   * @return the result of the last tick
+   **/
+  public long run(long count) throws GamsDeadObjectException
+  {
+    return run(count, new FixedRateScheduler(0));
+  }
+
+  /**
+   * Steps every controller for a number of ticks, paced by a scheduler
+   * @param  count      the number of ticks
+   * @param  scheduler  decides when each tick starts
+   * @return the result of the last tick
+   **/
+  public long run(long count, LoopScheduler scheduler) throws GamsDeadObjectException
+  {
+    long result = 0;
+    long now = System.nanoTime();
+    scheduler.start(now);
+
+    for (long i = 0; i < count; ++i)
+    {
+      long start = System.nanoTime();
+      result = step();
+
+      if (i + 1 < count)
+      {
+        long next = scheduler.next(start, System.nanoTime());
+        long remaining;
+        while ((remaining = next - System.nanoTime()) > 0)
+        {
+          LockSupport.parkNanos(this, remaining);
+        }
+      }
+    }
+
+    return result;
+  }
+
+  /**
+   * Returns the number of ticks completed
+   * @return ticks since construction or the last reset
+   **/
+  public long getTicks()
+  {
+    return ticks;
+  }
+
+  /**
+   * Returns the number of controller steps completed
+   * @return agent-ticks since construction or the last reset
+   **/
+  public long getAgentTicks()
+  {
+    return agentTicks;
+  }
+
+  /**
+   * Returns the aggregate stepping throughput, excluding time spent
+   * waiting between paced ticks
+   * @return agent-ticks per second
+   **/
+  public double getAgentTicksPerSecond()
+  {
+    long busy = busyNanos;
+    return busy == 0 ? 0 : agentTicks * 1000000000.0 / busy;
+  }
+
+  /**
+   * Returns the latencies of whole ticks
+   * @return the live tick latency histogram
+   **/
+  public LatencyHistogram getTickLatency()
+  {
+    return tickLatency;
+  }
+
+  /**
+   * Clears all statistics. The tick counter used for send intervals is
+   * not affected.
+   **/
+  public synchronized void reset()
+  {
+    tickLatency.reset();
+    ticks = 0;
+    agentTicks = 0;
+    busyNanos = 0;
+  }
+
+  /**
+   * Shuts down the executor if the runner created it. Controllers are
+   * not freed.
+   **/
+  public void shutdown()
+  {
+    if (ownsExecutor)
+    {
+      executor.shutdown();
+    }
+  }
+
+  /**
+   * Converts the runner to a summary of its statistics
+   * @return the summary
+   **/
+  @Override
+  public java.lang.String toString()
+  {
+    return String.format(
+      "SwarmSimulationRunner: %d controllers, %d ticks, %.1f agent-ticks/s, tick %s",
+      controllers.size(), ticks, getAgentTicksPerSecond(), tickLatency);
+  }
+
+  private List<Callable<Void>> partition()
+  {
+    int size = batchSize;
+    if (size <= 0)
+    {
+      int tasks = Runtime.getRuntime().availableProcessors() * 4;
+      size = Math.max(1, (controllers.size() + tasks - 1) / tasks);
+    }
+
+    List<Callable<Void>> result = new ArrayList<Callable<Void>>();
+    for (int i = 0; i < controllers.size(); i += size)
+    {
+      result.add(new Batch(controllers.subList(i,
+        Math.min(controllers.size(), i + size)).toArray(new BaseController[0])));
+    }
+    return result;
+  }
+
+  private class Batch implements Callable<Void>
+  {
+    private final BaseController[] members;
+    long result;
+
+    Batch(BaseController[] members)
+    {
+      this.members = members;
+    }
+
+    @Override
+    public Void call() throws GamsDeadObjectException
+    {
+      boolean send = sendInterval > 0 && currentTick % sendInterval == 0;
+      result = 0;
+
+      for (BaseController controller : members)
+      {
+        result |= controller.monitor();
+        result |= controller.analyze();
+        result |= controller.plan();
+        result |= controller.execute();
+        result |= controller.systemAnalyze();
+
+        if (send)
+        {
+          controller.sendModifieds();
+        }
+      }
+      return null;
+    }
+  }
+
+  private static class RunnerThreadFactory implements ThreadFactory
+  {
+    private final AtomicInteger count = new AtomicInteger();
+
+    @Override
+    public Thread newThread(Runnable task)
+    {
+      Thread thread = new Thread(task,
+        "gams-swarm-runner-" + count.incrementAndGet());
+      thread.setDaemon(true);
+      return thread;
+    }
+  }
+}
@@ -0,0 +1,623 @@
+/*********************************************************************
+ * Copyright (c) 2013-2015 Carnegie Mellon University. All Rights Reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following acknowledgments and disclaimers.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * 
+ * 3. The names "Carnegie Mellon University," "SEI" and/or
+ * "Software Engineering Institute" shall not be used to endorse or promote
+ * products derived from this software without prior written permission. For
+ * written permission, please contact permission@sei.cmu.edu.
+ * 
+ * 4. Products derived from this software may not be called "SEI" nor may "SEI"
+ * appear in their names without prior written permission of
+ * permission@sei.cmu.edu.
+ *
+ * 5. Redistributions of any form whatsoever must retain the following
+ * acknowledgment:
+ *
+ * This material is based upon work funded and supported by the Department of
+ * Defense under Contract No. FA8721-05-C-0003 with Carnegie Mellon University
+ * for the operation of the Software Engineering Institute, a federally funded
+ * research and development center. Any opinions, findings and conclusions or
+ * recommendations expressed in this material are those of the author(s) and
+ * do not necessarily reflect the views of the United States Department of
+ * Defense.
+ * 
+ * NO WARRANTY. THIS CARNEGIE MELLON UNIVERSITY AND SOFTWARE ENGINEERING
+ * INSTITUTE MATERIAL IS FURNISHED ON AN "AS-IS" BASIS. CARNEGIE MELLON
+ * UNIVERSITY MAKES NO WARRANTIES OF ANY KIND, EITHER EXPRESSED OR IMPLIED,
+ * AS TO ANY MATTER INCLUDING, BUT NOT LIMITED TO, WARRANTY OF FITNESS FOR
+ * PURPOSE OR MERCHANTABILITY, EXCLUSIVITY, OR RESULTS OBTAINED FROM USE OF THE
+ * MATERIAL. CARNEGIE MELLON UNIVERSITY DOES NOT MAKE ANY WARRANTY OF ANY KIND
+ * WITH RESPECT TO FREEDOM FROM PATENT, TRADEMARK, OR COPYRIGHT INFRINGEMENT.
+ * 
+ * This material has been approved for public release and unlimited
+ * distribution.
+ * 
+ * @author James Edmondson <jedmondson@gmail.com>
+ *********************************************************************/
+package ai.gams.maps;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.util.Arrays;
+
+import ai.gams.GamsJNI;
+import ai.gams.NativeDisposer;
+import ai.gams.exceptions.GamsDeadObjectException;
+import ai.madara.knowledge.KnowledgeBase;
+
+/**
+ * A 2D or 3D grid of double values, such as occupancy or coverage, backed
+ * by gams::variables::Grid. Cells are kept in square (or cubic) tiles of
+ * native memory. Each tile can be viewed as a direct {@link DoubleBuffer}
+ * without copying, with cells stored x first, then y, then z. A sparse grid
+ * only allocates the tiles that are written. Whole tiles can be saved to
+ * and loaded from a knowledge base, one double array per tile.
+ **/
+public class Grid extends GamsJNI
+{
+  private native long jni_Grid(int sizeX, int sizeY, int sizeZ, int tileSize,
+    double defaultValue, boolean sparse);
+  private native long jni_Grid(long cptr);
+  private static native void jni_freeGrid(long cptr);
+  private native void jni_getDimensions(long cptr, int[] dimensions);
+  private native double jni_getDefaultValue(long cptr);
+  private native boolean jni_isSparse(long cptr);
+  private native int jni_getAllocatedTiles(long cptr);
+  private native double jni_get(long cptr, int x, int y, int z);
+  private native void jni_set(long cptr, int x, int y, int z, double value);
+  private native void jni_fill(long cptr, int minX, int minY, int minZ,
+    int maxX, int maxY, int maxZ, double value);
+  private native void jni_query(long cptr, int minX, int minY, int minZ,
+    int maxX, int maxY, int maxZ, double[] results);
+  private native ByteBuffer jni_getTile(long cptr, int index, boolean create);
+  private native void jni_resize(long cptr, int sizeX, int sizeY, int sizeZ,
+    int tileSize, double defaultValue, boolean sparse);
+  private native void jni_clear(long cptr);
+  private native void jni_initVars(long cptr, java.lang.String name, long kb);
+  private native void jni_write(long cptr);
+  private native boolean jni_read(long cptr);
+
+  private static final NativeDisposer DISPOSER =
+    new NativeDisposer("ai.gams.maps.Grid")
+  {
+    @Override
+    protected void dispose(long cptr) throws Exception
+    {
+      jni_freeGrid(cptr);
+    }
+  };
+
+  /**
+   * Summary of the cells in a region of a grid
+   **/
+  public static class Stats
+  {
+    /**
+     * Number of cells in the region
+     **/
+    public long count;
+
+    /**
+     * Sum of the cell values
+     **/
+    public double sum;
+
+    /**
+     * Smallest cell value
+     **/
+    public double min;
+
+    /**
+     * Largest cell value
+     **/
+    public double max;
+
+    /**
+     * Returns the mean cell value
+     * @return the mean, or 0 for an empty region
+     **/
+    public double getMean()
+    {
+      return count == 0 ? 0 : sum / count;
+    }
+
+    /**
+     * Converts the stats to a string
+     * @return the count, sum, minimum and maximum
+     **/
+    @Override
+    public java.lang.String toString()
+    {
+      return "count=" + count + " sum=" + sum + " min=" + min + " max=" + max;
+    }
+  }
+
+  // sizeX, sizeY, sizeZ, tileSize, tileDepth, tilesX, tilesY, tilesZ
+  private final int[] dimensions = new int[8];
+
+  // direct views of the native tiles, created on first use
+  private DoubleBuffer[] tiles = new DoubleBuffer[0];
+
+  private final double[] results = new double[4];
+
+  /**
+   * Constructor for a sparse 2D grid with the default tile size
+   * @param  sizeX  number of cells along x
+   * @param  sizeY  number of cells along y
+   **/
+  public Grid(int sizeX, int sizeY)
+  {
+    this(sizeX, sizeY, 1, 64, 0, true);
+  }
+
+  /**
+   * Constructor
+   * @param  sizeX         number of cells along x
+   * @param  sizeY         number of cells along y
+   * @param  sizeZ         number of cells along z. 1 is a 2D grid.
+   * @param  tileSize      number of cells along each side of a tile
+   * @param  defaultValue  value of cells that have not been written
+   * @param  sparse        if true, tiles are allocated on first write.
+   *                       Otherwise every tile is allocated now.
+   **/
+  public Grid(int sizeX, int sizeY, int sizeZ, int tileSize,
+    double defaultValue, boolean sparse)
+  {
+    setCPtr(jni_Grid(sizeX, sizeY, sizeZ, tileSize, defaultValue, sparse));
+    track(DISPOSER);
+    refresh();
+  }
+
+  /**
+   * Copy constructor. Copies all tiles.
+   * @param  input  the grid to copy
+   **/
+  public Grid(Grid input)
+  {
+    setCPtr(jni_Grid(input.getCPtr()));
+    track(DISPOSER);
+    refresh();
+  }
+
+  /**
+   * Returns the number of cells along x
+   * @return cells along x
+   **/
+  public int getSizeX()
+  {
+    return dimensions[0];
+  }
+
+  /**
+   * Returns the number of cells along y
+   * @return cells along y
+   **/
+  public int getSizeY()
+  {
+    return dimensions[1];
+  }
+
+  /**
+   * Returns the number of cells along z
+   * @return cells along z, 1 for a 2D grid
+   **/
+  public int getSizeZ()
+  {
+    return dimensions[2];
+  }
+
+  /**
+   * Returns the number of cells along x and y in a tile
+   * @return the tile size
+   **/
+  public int getTileSize()
+  {
+    return dimensions[3];
+  }
+
+  /**
+   * Returns the number of cells along z in a tile
+   * @return 1 for a 2D grid, otherwise the tile size
+   **/
+  public int getTileDepth()
+  {
+    return dimensions[4];
+  }
+
+  /**
+   * Returns the number of tiles along x
+   * @return tiles along x
+   **/
+  public int getTilesX()
+  {
+    return dimensions[5];
+  }
+
+  /**
+   * Returns the number of tiles along y
+   * @return tiles along y
+   **/
+  public int getTilesY()
+  {
+    return dimensions[6];
+  }
+
+  /**
+   * Returns the number of tiles along z
+   * @return tiles along z
+   **/
+  public int getTilesZ()
+  {
+    return dimensions[7];
+  }
+
+  /**
+   * Returns the total number of tiles
+   * @return tiles in the grid, allocated or not
+   **/
+  public int getTileCount()
+  {
+    return tiles.length;
+  }
+
+  /**
+   * Returns the number of allocated tiles
+   * @return tiles that hold native memory
+   **/
+  public int getAllocatedTiles() throws GamsDeadObjectException
+  {
+    return jni_getAllocatedTiles(getCPtr());
+  }
+
+  /**
+   * Returns the value of unwritten cells
+   * @return the default value
+   **/
+  public double getDefaultValue() throws GamsDeadObjectException
+  {
+    return jni_getDefaultValue(getCPtr());
+  }
+
+  /**
+   * Checks if tiles are allocated on first write
+   * @return true if sparse
+   **/
+  public boolean isSparse() throws GamsDeadObjectException
+  {
+    return jni_isSparse(getCPtr());
+  }
+
+  /**
+   * Returns the value of a cell in a 2D grid
+   * @param  x  cell index along x
+   * @param  y  cell index along y
+   * @return the cell value, or the default value outside of the grid
+   **/
+  public double get(int x, int y) throws GamsDeadObjectException
+  {
+    return get(x, y, 0);
+  }
+
+  /**
+   * Returns the value of a cell. Reads through an already created tile
+   * view when possible, which avoids a native call.
+   * @param  x  cell index along x
+   * @param  y  cell index along y
+   * @param  z  cell index along z
+   * @return the cell value, or the default value outside of the grid
+   **/
+  public double get(int x, int y, int z) throws GamsDeadObjectException
+  {
+    if (getCPtr() != 0 && contains(x, y, z))
+    {
+      DoubleBuffer tile = tiles[getTileIndex(x, y, z)];
+      if (tile != null)
+      {
+        return tile.get(getCellOffset(x, y, z));
+      }
+    }
+    return jni_get(getCPtr(), x, y, z);
+  }
+
+  /**
+   * Sets the value of a cell in a 2D grid
+   * @param  x      cell index along x
+   * @param  y      cell index along y
+   * @param  value  the new value
+   **/
+  public void set(int x, int y, double value) throws GamsDeadObjectException
+  {
+    set(x, y, 0, value);
+  }
+
+  /**
+   * Sets the value of a cell. Cells outside of the grid are ignored.
+   * Writes through an already created tile view when possible, which
+   * avoids a native call.
+   * @param  x      cell index along x
+   * @param  y      cell index along y
+   * @param  z      cell index along z
+   * @param  value  the new value
+   **/
+  public void set(int x, int y, int z, double value)
+    throws GamsDeadObjectException
+  {
+    if (getCPtr() != 0 && contains(x, y, z))
+    {
+      DoubleBuffer tile = tiles[getTileIndex(x, y, z)];
+      if (tile != null)
+      {
+        tile.put(getCellOffset(x, y, z), value);
+        return;
+      }
+    }
+    jni_set(getCPtr(), x, y, z, value);
+  }
+
+  /**
+   * Sets every cell in a rectangle of a 2D grid. The rectangle is clipped
+   * to the grid.
+   * @param  minX   first cell along x
+   * @param  minY   first cell along y
+   * @param  maxX   one past the last cell along x
+   * @param  maxY   one past the last cell along y
+   * @param  value  the new value
+   **/
+  public void fill(int minX, int minY, int maxX, int maxY, double value)
+    throws GamsDeadObjectException
+  {
+    fill(minX, minY, 0, maxX, maxY, 1, value);
+  }
+
+  /**
+   * Sets every cell in a box of cells. The box is clipped to the grid.
+   * @param  minX   first cell along x
+   * @param  minY   first cell along y
+   * @param  minZ   first cell along z
+   * @param  maxX   one past the last cell along x
+   * @param  maxY   one past the last cell along y
+   * @param  maxZ   one past the last cell along z
+   * @param  value  the new value
+   **/
+  public void fill(int minX, int minY, int minZ, int maxX, int maxY, int maxZ,
+    double value) throws GamsDeadObjectException
+  {
+    jni_fill(getCPtr(), minX, minY, minZ, maxX, maxY, maxZ, value);
+  }
+
+  /**
+   * Summarizes every cell in a rectangle of a 2D grid
+   * @param  minX   first cell along x
+   * @param  minY   first cell along y
+   * @param  maxX   one past the last cell along x
+   * @param  maxY   one past the last cell along y
+   * @return the count, sum, minimum and maximum of the cells
+   **/
+  public Stats query(int minX, int minY, int maxX, int maxY)
+    throws GamsDeadObjectException
+  {
+    return query(minX, minY, 0, maxX, maxY, 1, new Stats());
+  }
+
+  /**
+   * Summarizes every cell in a box of cells without allocating. The box
+   * is clipped to the grid, and missing tiles count as cells of the
+   * default value.
+   * @param  minX    first cell along x
+   * @param  minY    first cell along y
+   * @param  minZ    first cell along z
+   * @param  maxX    one past the last cell along x
+   * @param  maxY    one past the last cell along y
+   * @param  maxZ    one past the last cell along z
+   * @param  result  the stats to fill in
+   * @return result
+   **/
+  public Stats query(int minX, int minY, int minZ, int maxX, int maxY,
+    int maxZ, Stats result) throws GamsDeadObjectException
+  {
+    jni_query(getCPtr(), minX, minY, minZ, maxX, maxY, maxZ, results);
+    result.count = (long)results[0];
+    result.sum = results[1];
+    result.min = results[2];
+    result.max = results[3];
+    return result;
+  }
+
+  /**
+   * Returns the index of the tile holding a cell
+   * @param  x  cell index along x
+   * @param  y  cell index along y
+   * @param  z  cell index along z
+   * @return the tile index
+   **/
+  public int getTileIndex(int x, int y, int z)
+  {
+    return x / dimensions[3] +
+      dimensions[5] * (y / dimensions[3] + dimensions[6] * (z / dimensions[4]));
+  }
+
+  /**
+   * Returns the position of a cell within the view of its tile
+   * @param  x  cell index along x
+   * @param  y  cell index along y
+   * @param  z  cell index along z
+   * @return the offset into the tile's buffer
+   **/
+  public int getCellOffset(int x, int y, int z)
+  {
+    int size = dimensions[3];
+    return x % size + size * (y % size + size * (z % dimensions[4]));
+  }
+
+  /**
+   * Returns a view of the native cells of a tile, allocating the tile if
+   * it is missing. Reads and writes go straight to native memory, and the
+   * view, along with any buffer derived from it, keeps the native grid
+   * from being garbage collected while reachable.
+   * <p>
+   * {@link #resize}, {@link #clear}, {@link #read} and {@link #free}
+   * release tile memory. A view must not be used after any of them, even
+   * though it stays reachable; call this again for a fresh view.
+   * @param  index  the tile index
+   * @return the cells of the tile, x first, then y, then z
+   * @throws GamsDeadObjectException if the grid has been freed
+   **/
+  public DoubleBuffer getTileBuffer(int index) throws GamsDeadObjectException
+  {
+    checkLive("getTileBuffer");
+
+    DoubleBuffer result = tiles[index];
+    if (result == null)
+    {
+      ByteBuffer cells = jni_getTile(getCPtr(), index, true);
+
+      // derived buffers reference this one, so it tracks them all
+      retain(cells);
+      result = cells.order(ByteOrder.nativeOrder()).asDoubleBuffer();
+      tiles[index] = result;
+    }
+    return result;
+  }
+
+  /**
+   * Returns a view of the tile holding a cell, allocating the tile if it
+   * is missing
+   * @param  x  cell index along x
+   * @param  y  cell index along y
+   * @param  z  cell index along z
+   * @return the cells of the tile, indexed by {@link #getCellOffset}
+   **/
+  public DoubleBuffer getTileBuffer(int x, int y, int z)
+    throws GamsDeadObjectException
+  {
+    checkLive("getTileBuffer");
+    return getTileBuffer(getTileIndex(x, y, z));
+  }
+
+  /**
+   * Changes the dimensions of the grid and drops all cell values
+   * @param  sizeX         number of cells along x
+   * @param  sizeY         number of cells along y
+   * @param  sizeZ         number of cells along z. 1 is a 2D grid.
+   * @param  tileSize      number of cells along each side of a tile
+   * @param  defaultValue  value of cells that have not been written
+   * @param  sparse        if true, tiles are allocated on first write
+   **/
+  public void resize(int sizeX, int sizeY, int sizeZ, int tileSize,
+    double defaultValue, boolean sparse) throws GamsDeadObjectException
+  {
+    jni_resize(getCPtr(), sizeX, sizeY, sizeZ, tileSize, defaultValue, sparse);
+    refresh();
+  }
+
+  /**
+   * Drops all cell values. Views from {@link #getTileBuffer} must be
+   * requested again.
+   **/
+  public void clear() throws GamsDeadObjectException
+  {
+    jni_clear(getCPtr());
+    refresh();
+  }
+
+  /**
+   * Sets the knowledge base and variable prefix used by
+   * {@link #write()} and {@link #read()}
+   * @param  name       the prefix of the grid variables
+   * @param  knowledge  the knowledge base
+   **/
+  public void initVars(java.lang.String name, KnowledgeBase knowledge)
+    throws GamsDeadObjectException
+  {
+    jni_initVars(getCPtr(), name, knowledge.getCPtr());
+  }
+
+  /**
+   * Saves the dimensions and all allocated tiles into the knowledge base,
+   * as {name}.dimensions, {name}.default and one double array per tile at
+   * {name}.tiles.{index}
+   **/
+  public void write() throws GamsDeadObjectException
+  {
+    jni_write(getCPtr());
+  }
+
+  /**
+   * Loads the dimensions and tiles from the knowledge base, replacing the
+   * grid's contents. Views from {@link #getTileBuffer} must be requested
+   * again.
+   * @return true if a grid was loaded
+   **/
+  public boolean read() throws GamsDeadObjectException
+  {
+    boolean result = jni_read(getCPtr());
+    refresh();
+    return result;
+  }
+
+  /**
+   * Deletes the C instantiation. To prevent memory leaks, this <b>must</b> be
+   * called before an instance gets garbage collected. Views from
+   * {@link #getTileBuffer} must not be used afterwards, and later calls
+   * on the grid throw {@link GamsDeadObjectException}.
+   */
+  public void free()
+  {
+    if (getCPtr() != 0)
+    {
+      untrack();
+      jni_freeGrid(getCPtr());
+      setCPtr(0);
+    }
+    Arrays.fill(dimensions, 0);
+    tiles = new DoubleBuffer[0];
+  }
+
+  /**
+   * Converts the grid to a string
+   * @return the dimensions of the grid
+   **/
+  @Override
+  public java.lang.String toString()
+  {
+    return "Grid(" + getSizeX() + "x" + getSizeY() + "x" + getSizeZ() +
+      ", tiles of " + getTileSize() + ")";
+  }
+
+  private void checkLive(java.lang.String method)
+    throws GamsDeadObjectException
+  {
+    if (getCPtr() == 0)
+    {
+      throw new GamsDeadObjectException("Grid::" + method + ": " +
+        "Grid object is released already");
+    }
+  }
+
+  private boolean contains(int x, int y, int z)
+  {
+    return x >= 0 && y >= 0 && z >= 0 &&
+      x < dimensions[0] && y < dimensions[1] && z < dimensions[2];
+  }
+
+  /**
+   * Reloads the dimensions and drops cached tile views, which may point to
+   * memory the native grid has released
+   **/
+  private void refresh()
+  {
+    jni_getDimensions(getCPtr(), dimensions);
+    tiles = new DoubleBuffer[dimensions[5] * dimensions[6] * dimensions[7]];
+  }
+}
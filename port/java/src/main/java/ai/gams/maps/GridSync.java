@@ -0,0 +1,339 @@
+/*********************************************************************
+ * Copyright (c) 2013-2015 Carnegie Mellon University. All Rights Reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following acknowledgments and disclaimers.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * 
+ * 3. The names "Carnegie Mellon University," "SEI" and/or
+ * "Software Engineering Institute" shall not be used to endorse or promote
+ * products derived from this software without prior written permission. For
+ * written permission, please contact permission@sei.cmu.edu.
+ * 
+ * 4. Products derived from this software may not be called "SEI" nor may "SEI"
+ * appear in their names without prior written permission of
+ * permission@sei.cmu.edu.
+ *
+ * 5. Redistributions of any form whatsoever must retain the following
+ * acknowledgment:
+ *
+ * This material is based upon work funded and supported by the Department of
+ * Defense under Contract No. FA8721-05-C-0003 with Carnegie Mellon University
+ * for the operation of the Software Engineering Institute, a federally funded
+ * research and development center. Any opinions, findings and conclusions or
+ * recommendations expressed in this material are those of the author(s) and
+ * do not necessarily reflect the views of the United States Department of
+ * Defense.
+ * 
+ * NO WARRANTY. THIS CARNEGIE MELLON UNIVERSITY AND SOFTWARE ENGINEERING
+ * INSTITUTE MATERIAL IS FURNISHED ON AN "AS-IS" BASIS. CARNEGIE MELLON
+ * UNIVERSITY MAKES NO WARRANTIES OF ANY KIND, EITHER EXPRESSED OR IMPLIED,
+ * AS TO ANY MATTER INCLUDING, BUT NOT LIMITED TO, WARRANTY OF FITNESS FOR
+ * PURPOSE OR MERCHANTABILITY, EXCLUSIVITY, OR RESULTS OBTAINED FROM USE OF THE
+ * MATERIAL. CARNEGIE MELLON UNIVERSITY DOES NOT MAKE ANY WARRANTY OF ANY KIND
+ * WITH RESPECT TO FREEDOM FROM PATENT, TRADEMARK, OR COPYRIGHT INFRINGEMENT.
+ * 
+ * This material has been approved for public release and unlimited
+ * distribution.
+ * 
+ * @author James Edmondson <jedmondson@gmail.com>
+ *********************************************************************/
+package ai.gams.maps;
+
+import ai.gams.GamsJNI;
+import ai.gams.NativeDisposer;
+import ai.gams.exceptions.GamsDeadObjectException;
+import ai.madara.knowledge.KnowledgeBase;
+
+/**
+ * Shares a {@link Grid} between agents by publishing binary deltas of the
+ * tiles that changed, backed by gams::variables::GridSync. Each agent
+ * writes one variable, {name}.sync.{id}, however many cells changed.
+ * Writes made through the tile buffers of a Grid are detected as well.
+ **/
+public class GridSync extends GamsJNI
+{
+  private native long jni_GridSync(long grid, long kb, java.lang.String id,
+    java.lang.String name);
+  private static native void jni_freeGridSync(long cptr);
+  private native long jni_send(long cptr);
+  private native long jni_receive(long cptr);
+  private native void jni_sendAll(long cptr);
+  private native void jni_setKeyframeInterval(long cptr, long interval);
+  private native long jni_getKeyframeInterval(long cptr);
+  private native long jni_getVersion(long cptr, int index);
+  private native java.lang.String jni_getKey(long cptr);
+  private native void jni_getStats(long cptr, long[] stats);
+  private native void jni_resetStats(long cptr);
+
+  private static final NativeDisposer DISPOSER =
+    new NativeDisposer("ai.gams.maps.GridSync")
+  {
+    @Override
+    protected void dispose(long cptr) throws Exception
+    {
+      jni_freeGridSync(cptr);
+    }
+  };
+
+  /**
+   * Traffic counters of a GridSync
+   **/
+  public static class Stats
+  {
+    /**
+     * Number of deltas published
+     **/
+    public long sends;
+
+    /**
+     * Total encoded bytes published
+     **/
+    public long bytesSent;
+
+    /**
+     * Size of the last delta published
+     **/
+    public long lastBytesSent;
+
+    /**
+     * Number of tiles published
+     **/
+    public long tilesSent;
+
+    /**
+     * Number of tiles published in full
+     **/
+    public long fullTilesSent;
+
+    /**
+     * Number of changed cells published
+     **/
+    public long cellsSent;
+
+    /**
+     * Number of peer deltas applied
+     **/
+    public long receives;
+
+    /**
+     * Total encoded bytes applied
+     **/
+    public long bytesReceived;
+
+    /**
+     * Number of peer tiles applied
+     **/
+    public long tilesReceived;
+
+    /**
+     * Number of peer tiles that skipped one or more versions
+     **/
+    public long versionGaps;
+
+    /**
+     * Number of peer deltas dropped as malformed or mismatched
+     **/
+    public long rejected;
+
+    /**
+     * Returns the mean size of a published delta
+     * @return bytes per update, or 0 if nothing was sent
+     **/
+    public double getBytesPerUpdate()
+    {
+      return sends == 0 ? 0 : (double)bytesSent / sends;
+    }
+
+    /**
+     * Returns the mean cost of a changed cell, which is 8 bytes for a raw
+     * double and less when runs of a value compress
+     * @return bytes per changed cell, or 0 if nothing was sent
+     **/
+    public double getBytesPerCell()
+    {
+      return cellsSent == 0 ? 0 : (double)bytesSent / cellsSent;
+    }
+
+    /**
+     * Converts the stats to a string
+     * @return the traffic counters
+     **/
+    @Override
+    public java.lang.String toString()
+    {
+      return "sends=" + sends + " bytes=" + bytesSent +
+        " bytes/update=" + String.format("%.1f", getBytesPerUpdate()) +
+        " bytes/cell=" + String.format("%.2f", getBytesPerCell()) +
+        " tiles=" + tilesSent + " full=" + fullTilesSent +
+        " receives=" + receives + " gaps=" + versionGaps +
+        " rejected=" + rejected;
+    }
+  }
+
+  // keeps the grid alive while the native sync refers to it
+  private final Grid grid;
+
+  private final long[] stats = new long[11];
+
+  /**
+   * Constructor that uses the name the grid was initialized with
+   * @param  grid       the grid to share
+   * @param  knowledge  the knowledge base to share through
+   * @param  id         unique id of this agent, e.g., its agent index
+   **/
+  public GridSync(Grid grid, KnowledgeBase knowledge, java.lang.String id)
+  {
+    this(grid, knowledge, id, "");
+  }
+
+  /**
+   * Constructor
+   * @param  grid       the grid to share
+   * @param  knowledge  the knowledge base to share through
+   * @param  id         unique id of this agent, e.g., its agent index
+   * @param  name       the prefix of the sync variables
+   **/
+  public GridSync(Grid grid, KnowledgeBase knowledge, java.lang.String id,
+    java.lang.String name)
+  {
+    this.grid = grid;
+    setCPtr(jni_GridSync(grid.getCPtr(), knowledge.getCPtr(), id, name));
+    track(DISPOSER);
+  }
+
+  /**
+   * Returns the grid being shared
+   * @return the grid
+   **/
+  public Grid getGrid()
+  {
+    return grid;
+  }
+
+  /**
+   * Publishes the tiles changed since the last send
+   * @return the size of the published delta in bytes, or 0 if no tile
+   *         changed
+   **/
+  public long send() throws GamsDeadObjectException
+  {
+    return jni_send(getCPtr());
+  }
+
+  /**
+   * Applies new deltas from other agents to the grid
+   * @return the number of tiles applied
+   **/
+  public long receive() throws GamsDeadObjectException
+  {
+    return jni_receive(getCPtr());
+  }
+
+  /**
+   * Marks every allocated tile to be sent in full on the next send, e.g.,
+   * when a new agent joins
+   **/
+  public void sendAll() throws GamsDeadObjectException
+  {
+    jni_sendAll(getCPtr());
+  }
+
+  /**
+   * Sets the number of tile versions between full tiles, which bounds
+   * how long a receiver that missed an update stays out of date
+   * @param  interval  the interval. 0 disables full tiles.
+   **/
+  public void setKeyframeInterval(long interval)
+    throws GamsDeadObjectException
+  {
+    jni_setKeyframeInterval(getCPtr(), interval);
+  }
+
+  /**
+   * Returns the number of tile versions between full tiles
+   * @return the keyframe interval
+   **/
+  public long getKeyframeInterval() throws GamsDeadObjectException
+  {
+    return jni_getKeyframeInterval(getCPtr());
+  }
+
+  /**
+   * Returns the version of a tile published by this agent
+   * @param  index  the tile index
+   * @return the version, 0 if never published
+   **/
+  public long getVersion(int index) throws GamsDeadObjectException
+  {
+    return jni_getVersion(getCPtr(), index);
+  }
+
+  /**
+   * Returns the variable this agent publishes to
+   * @return {name}.sync.{id}
+   **/
+  public java.lang.String getKey() throws GamsDeadObjectException
+  {
+    return jni_getKey(getCPtr());
+  }
+
+  /**
+   * Returns the traffic counters
+   * @return the counters since the last reset
+   **/
+  public Stats getStats() throws GamsDeadObjectException
+  {
+    return getStats(new Stats());
+  }
+
+  /**
+   * Reads the traffic counters without allocating
+   * @param  result  the stats to fill in
+   * @return result
+   **/
+  public Stats getStats(Stats result) throws GamsDeadObjectException
+  {
+    jni_getStats(getCPtr(), stats);
+    result.sends = stats[0];
+    result.bytesSent = stats[1];
+    result.lastBytesSent = stats[2];
+    result.tilesSent = stats[3];
+    result.fullTilesSent = stats[4];
+    result.cellsSent = stats[5];
+    result.receives = stats[6];
+    result.bytesReceived = stats[7];
+    result.tilesReceived = stats[8];
+    result.versionGaps = stats[9];
+    result.rejected = stats[10];
+    return result;
+  }
+
+  /**
+   * Clears the traffic counters
+   **/
+  public void resetStats() throws GamsDeadObjectException
+  {
+    jni_resetStats(getCPtr());
+  }
+
+  /**
+   * Deletes the C instantiation. To prevent memory leaks, this <b>must</b> be
+   * called before an instance gets garbage collected
+   */
+  public void free()
+  {
+    if (getCPtr() != 0)
+    {
+      untrack();
+      jni_freeGridSync(getCPtr());
+      setCPtr(0);
+    }
+  }
+}
@@ -100,11 +100,12 @@ public class DebuggerPlatform extends BasePlatform
   }
 
   /**
-   * Returns the current GPS position
+   * Returns the current GPS position. The position is owned by the platform
+   * and reused by every call, so callers must not free it.
    **/
   public Position getPosition() throws MadaraDeadObjectException, GamsDeadObjectException
   {
-    Position position = new Position(0.0, 0.0, 0.0);
+    position.set(0.0, 0.0, 0.0);
     System.out.println(self.id.get() + ":" + executions.get () +
       ":  Platform.getPosition called");
     return position;
@@ -256,5 +257,10 @@ public class DebuggerPlatform extends BasePlatform
   }
 
   private ai.madara.knowledge.containers.Integer executions;
+
+  /**
+   * Reused by getPosition
+   **/
+  private final Position position = new Position(0.0, 0.0, 0.0);
 }
 
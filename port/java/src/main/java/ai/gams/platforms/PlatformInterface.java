@@ -100,7 +100,9 @@ public interface PlatformInterface
   /**
    * Initializes a move to the target position. This should be
    * a non-blocking call.
-   * @param   target     the new position to move to
+   * @param   target     the new position to move to. The controller reuses
+   *                     this object between calls, so copy it to keep it
+   *                     and do not free it.
    * @param   proximity  the minimum distance between current position
    *                   and target position that terminates the move.
    * @return  status information (@see PlatformReturnStatusEnum)
@@ -110,7 +112,9 @@ public interface PlatformInterface
   /**
    * Initializes a rotate along x, y, z axes. This should be
    * a non-blocking call and implements an extrinsic rotation.
-   * @param   axes       parameters for rotation along x, y, z axes
+   * @param   axes       parameters for rotation along x, y, z axes. The
+   *                     controller reuses this object between calls, so
+   *                     copy it to keep it and do not free it.
    * @return  status information (@see PlatformReturnStatusEnum)
    **/
   public int rotate (Axes axes) throws MadaraDeadObjectException, GamsDeadObjectException;
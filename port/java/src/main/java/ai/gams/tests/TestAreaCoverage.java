@@ -0,0 +1,109 @@
+/*********************************************************************
+ * Copyright (c) 2013-2015 Carnegie Mellon University. All Rights Reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following acknowledgments and disclaimers.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *
+ * 3. The names "Carnegie Mellon University," "SEI" and/or
+ * "Software Engineering Institute" shall not be used to endorse or promote
+ * products derived from this software without prior written permission. For
+ * written permission, please contact permission@sei.cmu.edu.
+ *
+ * 4. Products derived from this software may not be called "SEI" nor may "SEI"
+ * appear in their names without prior written permission of
+ * permission@sei.cmu.edu.
+ *
+ * 5. Redistributions of any form whatsoever must retain the following
+ * acknowledgment:
+ *
+ * This material is based upon work funded and supported by the Department of
+ * Defense under Contract No. FA8721-05-C-0003 with Carnegie Mellon University
+ * for the operation of the Software Engineering Institute, a federally funded
+ * research and development center. Any opinions, findings and conclusions or
+ * recommendations expressed in this material are those of the author(s) and
+ * do not necessarily reflect the views of the United States Department of
+ * Defense.
+ *
+ * NO WARRANTY. THIS CARNEGIE MELLON UNIVERSITY AND SOFTWARE ENGINEERING
+ * INSTITUTE MATERIAL IS FURNISHED ON AN "AS-IS" BASIS. CARNEGIE MELLON
+ * UNIVERSITY MAKES NO WARRANTIES OF ANY KIND, EITHER EXPRESSED OR IMPLIED,
+ * AS TO ANY MATTER INCLUDING, BUT NOT LIMITED TO, WARRANTY OF FITNESS FOR
+ * PURPOSE OR MERCHANTABILITY, EXCLUSIVITY, OR RESULTS OBTAINED FROM USE OF THE
+ * MATERIAL. CARNEGIE MELLON UNIVERSITY DOES NOT MAKE ANY WARRANTY OF ANY KIND
+ * WITH RESPECT TO FREEDOM FROM PATENT, TRADEMARK, OR COPYRIGHT INFRINGEMENT.
+ *
+ * This material has been approved for public release and unlimited
+ * distribution.
+ *
+ * @author James Edmondson <jedmondson@gmail.com>
+ *********************************************************************/
+package ai.gams.tests;
+
+import ai.gams.algorithms.coverage.WaypointsCoverage;
+import ai.gams.controllers.BaseController;
+import ai.gams.exceptions.GamsDeadObjectException;
+import ai.madara.knowledge.KnowledgeBase;
+
+/**
+ * Runs a native waypoints coverage whose waypoint step is written in Java,
+ * and shows that the controller only calls into Java when a new waypoint
+ * is needed rather than on every loop iteration
+ **/
+public class TestAreaCoverage
+{
+	static private class FixedAltitudeCoverage extends WaypointsCoverage
+	{
+		public long calls = 0;
+
+		private final double[] next = new double[3];
+
+		public FixedAltitudeCoverage(double[]... waypoints)
+		{
+			super(waypoints);
+		}
+
+		@Override
+		public void generateNewPosition() throws GamsDeadObjectException
+		{
+			++calls;
+
+			// let the native coverage choose, then hold a fixed altitude
+			super.generateNewPosition();
+			getNextPosition(next);
+			setNextPosition(next[0], next[1], 5.0);
+		}
+	}
+
+	public static void main(String... args) throws Exception
+	{
+		int iterations = args.length > 0 ? Integer.parseInt(args[0]) : 1000;
+
+		KnowledgeBase knowledge = new KnowledgeBase();
+		BaseController controller = new BaseController(knowledge);
+		controller.initVars(0, 1);
+		controller.initPlatform("debug");
+
+		FixedAltitudeCoverage coverage = new FixedAltitudeCoverage(
+				new double[] { 0, 0 }, new double[] { 0, 1 }, new double[] { 1, 1 });
+		controller.initAlgorithm(coverage);
+
+		for (int i = 0; i < iterations; ++i)
+		{
+			controller.runOnce();
+		}
+
+		System.out.println(iterations + " controller iterations made "
+				+ coverage.calls + " Java waypoint calls");
+		System.out.println("Next position: " + coverage.getNextPosition());
+
+		controller.free();
+		knowledge.free();
+	}
+}
@@ -0,0 +1,106 @@
+/*********************************************************************
+ * Copyright (c) 2013-2015 Carnegie Mellon University. All Rights Reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following acknowledgments and disclaimers.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *
+ * 3. The names "Carnegie Mellon University," "SEI" and/or
+ * "Software Engineering Institute" shall not be used to endorse or promote
+ * products derived from this software without prior written permission. For
+ * written permission, please contact permission@sei.cmu.edu.
+ *
+ * 4. Products derived from this software may not be called "SEI" nor may "SEI"
+ * appear in their names without prior written permission of
+ * permission@sei.cmu.edu.
+ *
+ * 5. Redistributions of any form whatsoever must retain the following
+ * acknowledgment:
+ *
+ * This material is based upon work funded and supported by the Department of
+ * Defense under Contract No. FA8721-05-C-0003 with Carnegie Mellon University
+ * for the operation of the Software Engineering Institute, a federally funded
+ * research and development center. Any opinions, findings and conclusions or
+ * recommendations expressed in this material are those of the author(s) and
+ * do not necessarily reflect the views of the United States Department of
+ * Defense.
+ *
+ * NO WARRANTY. THIS CARNEGIE MELLON UNIVERSITY AND SOFTWARE ENGINEERING
+ * INSTITUTE MATERIAL IS FURNISHED ON AN "AS-IS" BASIS. CARNEGIE MELLON
+ * UNIVERSITY MAKES NO WARRANTIES OF ANY KIND, EITHER EXPRESSED OR IMPLIED,
+ * AS TO ANY MATTER INCLUDING, BUT NOT LIMITED TO, WARRANTY OF FITNESS FOR
+ * PURPOSE OR MERCHANTABILITY, EXCLUSIVITY, OR RESULTS OBTAINED FROM USE OF THE
+ * MATERIAL. CARNEGIE MELLON UNIVERSITY DOES NOT MAKE ANY WARRANTY OF ANY KIND
+ * WITH RESPECT TO FREEDOM FROM PATENT, TRADEMARK, OR COPYRIGHT INFRINGEMENT.
+ *
+ * This material has been approved for public release and unlimited
+ * distribution.
+ *
+ * @author James Edmondson <jedmondson@gmail.com>
+ *********************************************************************/
+
+package ai.gams.tests;
+
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import ai.gams.variables.ChangeListener;
+import ai.gams.variables.ChangeSubscription;
+import ai.gams.variables.Swarm;
+import ai.madara.knowledge.KnowledgeBase;
+
+public class TestChangeSubscription
+{
+	public static void main(String... args) throws Exception
+	{
+		int writes = args.length > 0 ? Integer.parseInt(args[0]) : 1000;
+
+		KnowledgeBase knowledge = new KnowledgeBase();
+		Swarm swarm = new Swarm();
+		swarm.init(knowledge, "swarm");
+
+		final AtomicLong notified = new AtomicLong();
+		ExecutorService executor = Executors.newSingleThreadExecutor();
+
+		ChangeSubscription subscription = swarm.subscribe(knowledge, executor,
+				new ChangeListener()
+				{
+					@Override
+					public void changed(ChangeSubscription source, Set<String> keys)
+					{
+						notified.incrementAndGet();
+					}
+				});
+
+		System.out.println("Watching " + subscription.getKeys());
+
+		// idle: no listener calls and no polling
+		Thread.sleep(500);
+		System.out.println("Calls while idle: " + notified.get());
+
+		for (int i = 0; i < writes; ++i)
+		{
+			swarm.command.set("move" + (i % 2));
+		}
+		swarm.size.set(writes);
+
+		Thread.sleep(500);
+		System.out.println(writes + " writes coalesced into " + notified.get()
+				+ " listener calls");
+
+		subscription.free();
+		executor.shutdown();
+		executor.awaitTermination(1, TimeUnit.SECONDS);
+		swarm.free();
+		knowledge.free();
+	}
+}
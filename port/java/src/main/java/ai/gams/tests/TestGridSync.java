@@ -0,0 +1,113 @@
+/*********************************************************************
+ * Copyright (c) 2013-2015 Carnegie Mellon University. All Rights Reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following acknowledgments and disclaimers.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *
+ * 3. The names "Carnegie Mellon University," "SEI" and/or
+ * "Software Engineering Institute" shall not be used to endorse or promote
+ * products derived from this software without prior written permission. For
+ * written permission, please contact permission@sei.cmu.edu.
+ *
+ * 4. Products derived from this software may not be called "SEI" nor may "SEI"
+ * appear in their names without prior written permission of
+ * permission@sei.cmu.edu.
+ *
+ * 5. Redistributions of any form whatsoever must retain the following
+ * acknowledgment:
+ *
+ * This material is based upon work funded and supported by the Department of
+ * Defense under Contract No. FA8721-05-C-0003 with Carnegie Mellon University
+ * for the operation of the Software Engineering Institute, a federally funded
+ * research and development center. Any opinions, findings and conclusions or
+ * recommendations expressed in this material are those of the author(s) and
+ * do not necessarily reflect the views of the United States Department of
+ * Defense.
+ *
+ * NO WARRANTY. THIS CARNEGIE MELLON UNIVERSITY AND SOFTWARE ENGINEERING
+ * INSTITUTE MATERIAL IS FURNISHED ON AN "AS-IS" BASIS. CARNEGIE MELLON
+ * UNIVERSITY MAKES NO WARRANTIES OF ANY KIND, EITHER EXPRESSED OR IMPLIED,
+ * AS TO ANY MATTER INCLUDING, BUT NOT LIMITED TO, WARRANTY OF FITNESS FOR
+ * PURPOSE OR MERCHANTABILITY, EXCLUSIVITY, OR RESULTS OBTAINED FROM USE OF THE
+ * MATERIAL. CARNEGIE MELLON UNIVERSITY DOES NOT MAKE ANY WARRANTY OF ANY KIND
+ * WITH RESPECT TO FREEDOM FROM PATENT, TRADEMARK, OR COPYRIGHT INFRINGEMENT.
+ *
+ * This material has been approved for public release and unlimited
+ * distribution.
+ *
+ * @author James Edmondson <jedmondson@gmail.com>
+ *********************************************************************/
+package ai.gams.tests;
+
+import ai.gams.maps.Grid;
+import ai.gams.maps.GridSync;
+import ai.madara.knowledge.KnowledgeBase;
+
+public class TestGridSync
+{
+	public static void main(String... args) throws Exception
+	{
+		int size = args.length > 0 ? Integer.parseInt(args[0]) : 1000;
+		int steps = args.length > 1 ? Integer.parseInt(args[1]) : 1000;
+		int footprint = 5;
+
+		KnowledgeBase knowledge = new KnowledgeBase();
+		Grid local = new Grid(size, size);
+		Grid remote = new Grid(size, size);
+		GridSync sender = new GridSync(local, knowledge, "0", "coverage");
+		GridSync receiver = new GridSync(remote, knowledge, "1", "coverage");
+
+		// a lawnmower sweep that marks its footprint as covered each step
+		int x = 0;
+		int y = 0;
+		int dx = footprint;
+		long cells = 0;
+
+		for (int i = 0; i < steps; ++i)
+		{
+			local.fill(x, y, x + footprint, y + footprint, 1.0);
+			cells += footprint * footprint;
+
+			sender.send();
+			receiver.receive();
+
+			x += dx;
+			if (x < 0 || x + footprint > size)
+			{
+				dx = -dx;
+				x += dx;
+				y = (y + footprint) % size;
+			}
+		}
+
+		GridSync.Stats stats = sender.getStats();
+		System.out.println("Sender:   " + stats);
+		System.out.println("Receiver: " + receiver.getStats());
+
+		// a map with one variable per cell sends at least the key and a
+		// double for every written cell
+		String key = "coverage." + (size - 1) + "." + (size - 1);
+		System.out.println("Per-cell variables: " + cells + " updates, at least "
+				+ cells * (key.length() + 8) + " bytes");
+		System.out.println("Tile deltas: " + stats.bytesSent + " bytes in "
+				+ local.getAllocatedTiles() + " of " + local.getTileCount()
+				+ " tiles");
+
+		Grid.Stats covered = remote.query(0, 0, size, size);
+		System.out.println("Remote coverage sum: " + covered.sum + ", local: "
+				+ local.query(0, 0, size, size).sum);
+
+		receiver.free();
+		sender.free();
+		remote.free();
+		local.free();
+		knowledge.free();
+	}
+}
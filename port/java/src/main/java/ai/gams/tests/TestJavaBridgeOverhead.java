@@ -0,0 +1,262 @@
+/*********************************************************************
+ * Copyright (c) 2013-2015 Carnegie Mellon University. All Rights Reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following acknowledgments and disclaimers.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *
+ * 3. The names "Carnegie Mellon University," "SEI" and/or
+ * "Software Engineering Institute" shall not be used to endorse or promote
+ * products derived from this software without prior written permission. For
+ * written permission, please contact permission@sei.cmu.edu.
+ *
+ * 4. Products derived from this software may not be called "SEI" nor may "SEI"
+ * appear in their names without prior written permission of
+ * permission@sei.cmu.edu.
+ *
+ * 5. Redistributions of any form whatsoever must retain the following
+ * acknowledgment:
+ *
+ * This material is based upon work funded and supported by the Department of
+ * Defense under Contract No. FA8721-05-C-0003 with Carnegie Mellon University
+ * for the operation of the Software Engineering Institute, a federally funded
+ * research and development center. Any opinions, findings and conclusions or
+ * recommendations expressed in this material are those of the author(s) and
+ * do not necessarily reflect the views of the United States Department of
+ * Defense.
+ *
+ * NO WARRANTY. THIS CARNEGIE MELLON UNIVERSITY AND SOFTWARE ENGINEERING
+ * INSTITUTE MATERIAL IS FURNISHED ON AN "AS-IS" BASIS. CARNEGIE MELLON
+ * UNIVERSITY MAKES NO WARRANTIES OF ANY KIND, EITHER EXPRESSED OR IMPLIED,
+ * AS TO ANY MATTER INCLUDING, BUT NOT LIMITED TO, WARRANTY OF FITNESS FOR
+ * PURPOSE OR MERCHANTABILITY, EXCLUSIVITY, OR RESULTS OBTAINED FROM USE OF THE
+ * MATERIAL. CARNEGIE MELLON UNIVERSITY DOES NOT MAKE ANY WARRANTY OF ANY KIND
+ * WITH RESPECT TO FREEDOM FROM PATENT, TRADEMARK, OR COPYRIGHT INFRINGEMENT.
+ *
+ * This material has been approved for public release and unlimited
+ * distribution.
+ *
+ * @author James Edmondson <jedmondson@gmail.com>
+ *********************************************************************/
+package ai.gams.tests;
+
+import ai.gams.NativeAllocations;
+import ai.gams.algorithms.BaseAlgorithm;
+import ai.gams.controllers.BaseController;
+import ai.gams.platforms.BasePlatform;
+import ai.gams.platforms.PlatformStatusEnum;
+import ai.gams.utility.Axes;
+import ai.gams.utility.Position;
+import ai.gams.utility.ThreadAttachment;
+import ai.madara.knowledge.KnowledgeBase;
+
+/**
+ * Measures the per-call cost of the C++ to Java bridge for algorithm and
+ * platform callbacks. Each MAPE phase is driven from Java through the
+ * controller, so every call crosses into C++ and back into the trivial
+ * Java callbacks below. Run it against builds before and after a bridge
+ * change to compare the nanoseconds per call.
+ **/
+public class TestJavaBridgeOverhead
+{
+  static private class NullAlgorithm extends BaseAlgorithm
+  {
+    public long calls = 0;
+
+    public int analyze()
+    {
+      ++calls;
+      return 0;
+    }
+
+    public int plan()
+    {
+      ++calls;
+      return 0;
+    }
+
+    public int execute()
+    {
+      ++calls;
+      return 0;
+    }
+  }
+
+  static private class NullPlatform extends BasePlatform
+  {
+    public long calls = 0;
+
+    public int analyze()
+    {
+      ++calls;
+      return PlatformStatusEnum.OK.value();
+    }
+
+    public double getAccuracy()
+    {
+      return 0.0;
+    }
+
+    public double getPositionAccuracy()
+    {
+      return 0.0;
+    }
+
+    public Position getPosition()
+    {
+      return null;
+    }
+
+    public int home()
+    {
+      return PlatformStatusEnum.OK.value();
+    }
+
+    public int land()
+    {
+      return PlatformStatusEnum.OK.value();
+    }
+
+    public int move(Position target, double proximity)
+    {
+      ++calls;
+      return PlatformStatusEnum.OK.value();
+    }
+
+    public int rotate(Axes axes)
+    {
+      ++calls;
+      return PlatformStatusEnum.OK.value();
+    }
+
+    public double getMinSensorRange()
+    {
+      return 0.0;
+    }
+
+    public double getMoveSpeed()
+    {
+      return 0.0;
+    }
+
+    public java.lang.String getId()
+    {
+      return "null";
+    }
+
+    public java.lang.String getName()
+    {
+      return "Null Platform";
+    }
+
+    public int sense()
+    {
+      ++calls;
+      return PlatformStatusEnum.OK.value();
+    }
+
+    public void setMoveSpeed(double speed)
+    {
+    }
+
+    public int takeoff()
+    {
+      return PlatformStatusEnum.OK.value();
+    }
+
+    public void stopMove()
+    {
+    }
+  }
+
+  private static void report(java.lang.String phase, long iterations,
+    long calls, long elapsed)
+  {
+    System.out.println(phase + ": " + iterations + " iterations, " +
+      calls + " Java callbacks, " + (elapsed / iterations) +
+      " ns/iteration, " + (calls > 0 ? elapsed / calls : 0) + " ns/callback");
+  }
+
+  public static void main(java.lang.String... args) throws Exception
+  {
+    long iterations = 100000;
+
+    if (args.length > 0)
+    {
+      try
+      {
+        iterations = Long.parseLong(args[0]);
+      }
+      catch (NumberFormatException e)
+      {
+        System.err.println("Argument 1 (" + args[0] + ") is supposed to be the number of iterations.");
+        System.err.println("Usage: java ai.gams.tests.TestJavaBridgeOverhead [iterations]");
+        return;
+      }
+    }
+
+    KnowledgeBase knowledge = new KnowledgeBase();
+    BaseController controller = new BaseController(knowledge);
+    NullAlgorithm algorithm = new NullAlgorithm();
+    NullPlatform platform = new NullPlatform();
+
+    controller.initVars(0, 1);
+    controller.initPlatform(platform);
+    controller.initAlgorithm(algorithm);
+
+    // warm up the JIT and the JNI call paths
+    for (long i = 0; i < iterations / 10; ++i)
+    {
+      controller.monitor();
+      controller.analyze();
+      controller.plan();
+      controller.execute();
+    }
+
+    algorithm.calls = 0;
+    platform.calls = 0;
+    ThreadAttachment.resetCounts();
+
+    long start = System.nanoTime();
+    for (long i = 0; i < iterations; ++i)
+      controller.monitor();
+    report("monitor", iterations, platform.calls, System.nanoTime() - start);
+
+    platform.calls = 0;
+    start = System.nanoTime();
+    for (long i = 0; i < iterations; ++i)
+      controller.analyze();
+    report("analyze", iterations, algorithm.calls + platform.calls,
+      System.nanoTime() - start);
+
+    algorithm.calls = 0;
+    start = System.nanoTime();
+    for (long i = 0; i < iterations; ++i)
+      controller.plan();
+    report("plan", iterations, algorithm.calls, System.nanoTime() - start);
+
+    algorithm.calls = 0;
+    start = System.nanoTime();
+    for (long i = 0; i < iterations; ++i)
+      controller.execute();
+    report("execute", iterations, algorithm.calls, System.nanoTime() - start);
+
+    // callbacks on this Java thread should never need to attach
+    System.out.println("JVM attaches during measurement: " +
+      ThreadAttachment.getAttachCount() + ", detaches: " +
+      ThreadAttachment.getDetachCount());
+
+    controller.free();
+    knowledge.free();
+
+    // anything still live here was never freed by the platform callbacks
+    System.out.println("Native objects still owned by Java:");
+    System.out.print(NativeAllocations.report());
+  }
+}
@@ -47,6 +47,13 @@
 
 package ai.gams.tests;
 
+import ai.gams.algorithms.MessageProfiling;
+import ai.gams.controllers.BaseController;
+import ai.gams.exceptions.GamsDeadObjectException;
+import ai.madara.exceptions.MadaraDeadObjectException;
+import ai.madara.knowledge.KnowledgeBase;
+import ai.madara.transport.QoSTransportSettings;
+
 public class TestMessageProfilingAlgorithm
 {
   public String host;
@@ -62,39 +69,47 @@ public class TestMessageProfilingAlgorithm
     id = 0;
   }
 
-  // DISABLED UNTIL TRANSPORT CHANGES ADDED TO MADARA
-  public void test ()
+  public void test () throws MadaraDeadObjectException, GamsDeadObjectException
   {
-//    // select transport
-//    QoSTransportSettings settings = new QoSTransportSettings ();
-//
-//    // set host
-//    String[] hosts = new String[1];
-//    hosts[0] = "239.255.0.1:4150";
-//    settings.setHosts(hosts);
-//
-//    // select multicast
-//    settings.setType (ai.madara.transport.TransportType.MULTICAST_TRANSPORT);
-// 
-//    // create Knowledge Base
-//    KnowledgeBase knowledge = new KnowledgeBase (host, settings);
-//
-//    // set initial variables
-//    knowledge.set (".id", id);
-//
-//    // create controller
-//    BaseController controller = new BaseController (knowledge);
-//
-//    // init platform
-//    controller.initPlatform ("null");
-//
-//    // init algorithm
-//    MessageProfiling algo = new MessageProfiling ();
-//    controller.initAlgorithm (algo);
-//    algo.initVars (settings);
-//
-//    // run controller
-//    controller.run (1.0 / rate, duration);
+    // select transport
+    QoSTransportSettings settings = new QoSTransportSettings ();
+
+    // set host
+    String[] hosts = new String[1];
+    hosts[0] = "239.255.0.1:4150";
+    settings.setHosts(hosts);
+
+    // select multicast
+    settings.setType (ai.madara.transport.TransportType.MULTICAST_TRANSPORT);
+
+    // the filter must be in the settings before the transport is created
+    MessageProfiling algo = new MessageProfiling ();
+    algo.addFilters (settings);
+
+    // create Knowledge Base
+    KnowledgeBase knowledge = new KnowledgeBase (host, settings);
+
+    // create controller
+    BaseController controller = new BaseController (knowledge);
+
+    // set initial variables
+    controller.initVars (id, id + 1);
+
+    // init platform
+    controller.initPlatform ("null");
+
+    // init algorithm
+    controller.initAlgorithm (algo);
+    algo.initVars ();
+
+    // run controller
+    controller.run (1.0 / rate, duration);
+
+    knowledge.print ();
+
+    controller.free ();
+    knowledge.free ();
+    settings.free ();
   }
 
   public static void parseArgs (String[] args, TestMessageProfilingAlgorithm obj)
@@ -127,6 +142,7 @@ public class TestMessageProfilingAlgorithm
   }
 
   public static void main (String[] args)
+    throws MadaraDeadObjectException, GamsDeadObjectException
   {
     TestMessageProfilingAlgorithm obj = new TestMessageProfilingAlgorithm ();
     parseArgs (args, obj);
@@ -47,136 +47,531 @@
 
 package ai.gams.tests;
 
-import ai.gams.exceptions.GamsDeadObjectException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import ai.gams.utility.LatencyHistogram;
+import ai.gams.utility.SequenceTracker;
 import ai.madara.exceptions.MadaraDeadObjectException;
+import ai.madara.knowledge.EvalSettings;
 import ai.madara.knowledge.KnowledgeBase;
+import ai.madara.knowledge.KnowledgeRecord;
+import ai.madara.knowledge.KnowledgeType;
 import ai.madara.knowledge.Variables;
 import ai.madara.transport.QoSTransportSettings;
 import ai.madara.transport.TransportContext;
+import ai.madara.transport.TransportType;
 import ai.madara.transport.filters.Packet;
 
+/**
+ * Load generator for measuring MADARA messaging throughput. Writer threads
+ * each own a knowledge base and send messages of a configurable number of
+ * keys and payload size on an open-loop schedule, so a slow receiver does
+ * not slow down the offered load. Each payload carries a sequence number
+ * and its scheduled send time, which the reader uses to report messages/s,
+ * bytes/s, loss and latency percentiles after a warmup period. By default
+ * writers and reader talk over UDP on the loopback interface, so the whole
+ * test runs on a single machine with "-t both".
+ **/
 public class TestMessagingThroughput
 {
+  private static final String keyPrefix = "throughput.";
+
+  private static final char WARMUP = 'w';
+  private static final char MEASURED = 'm';
+
   public String type;
   public String host;
-  public long duration;
+  public String transport;
+  public String address;
+  public int writerPort;
+  public double duration;
+  public double warmup;
   public double rate;
+  public int size;
+  public int keys;
+  public int writers;
 
   public TestMessagingThroughput ()
   {
+    type = "both";
     host = "";
+    transport = "udp";
+    address = "127.0.0.1:40000";
+    writerPort = 40001;
     duration = 10;
-    rate = 2;
+    warmup = 2;
+    rate = 0;
+    size = 128;
+    keys = 1;
+    writers = 1;
+  }
+
+  /**
+   * Offset from System.nanoTime to nanoseconds since the epoch, so that
+   * reader and writer processes on one host share a time base
+   */
+  private static final long epochOffset =
+    System.currentTimeMillis () * 1000000L - System.nanoTime ();
+
+  /**
+   * Statistics of the messages received from one writer
+   */
+  private static class WriterStats
+  {
+    public final SequenceTracker sequences = new SequenceTracker ();
   }
 
-  private class CounterFilter implements ai.madara.transport.filters.AggregateFilter
+  /**
+   * Receive filter that parses load messages and records their arrival
+   */
+  private static class ThroughputFilter implements ai.madara.transport.filters.AggregateFilter
   {
-    public int counter;
+    public final ConcurrentHashMap<String, WriterStats> writers =
+      new ConcurrentHashMap<String, WriterStats> ();
+    public final LatencyHistogram latency = new LatencyHistogram ();
+    public final AtomicLong messages = new AtomicLong ();
+    public final AtomicLong bytes = new AtomicLong ();
+    public final AtomicLong warmupMessages = new AtomicLong ();
+    public final AtomicLong firstReceive = new AtomicLong (Long.MIN_VALUE);
+    public final AtomicLong lastReceive = new AtomicLong (Long.MIN_VALUE);
+
+    public void filter (Packet packet, TransportContext context, Variables variables) throws MadaraDeadObjectException
+    {
+      long received = System.nanoTime ();
+
+      String payload = null;
+      int count = 0;
+      for (String key : packet.getKeys ())
+      {
+        if (key.startsWith (keyPrefix))
+        {
+          if (payload == null)
+          {
+            KnowledgeRecord record = packet.get (key);
+            if (record.getType () != KnowledgeType.STRING)
+            {
+              continue;
+            }
+            payload = record.toString ();
+          }
+          ++count;
+        }
+      }
+
+      if (payload == null)
+      {
+        return;
+      }
+
+      // payload is "<seq>,<scheduled send time>,<phase>,<padding>"
+      int first = payload.indexOf (',');
+      int second = first < 0 ? -1 : payload.indexOf (',', first + 1);
+      if (second < 0 || second + 1 >= payload.length ())
+      {
+        return;
+      }
+
+      if (payload.charAt (second + 1) != MEASURED)
+      {
+        warmupMessages.incrementAndGet ();
+        return;
+      }
+
+      long seq = parseLong (payload, 0, first);
+      long sent = parseLong (payload, first + 1, second);
+
+      String origin = context.getOriginator ();
+      WriterStats stats = writers.get (origin);
+      if (stats == null)
+      {
+        WriterStats created = new WriterStats ();
+        stats = writers.putIfAbsent (origin, created);
+        if (stats == null)
+        {
+          stats = created;
+        }
+      }
+
+      if (!stats.sequences.record (seq))
+      {
+        return;
+      }
+
+      latency.record (epochOffset + received - sent);
+      messages.incrementAndGet ();
+      bytes.addAndGet ((long)count * payload.length ());
 
-    public CounterFilter ()
+      firstReceive.compareAndSet (Long.MIN_VALUE, received);
+      long current;
+      while (received > (current = lastReceive.get ()) &&
+        !lastReceive.compareAndSet (current, received))
+      {
+      }
+    }
+
+    public void report ()
     {
-      counter = 0;
+      long expected = 0;
+      long missing = 0;
+      long duplicates = 0;
+      long reorderDepth = 0;
+      for (WriterStats stats : writers.values ())
+      {
+        expected += stats.sequences.getExpected ();
+        missing += stats.sequences.getMissing ();
+        duplicates += stats.sequences.getDuplicates ();
+        reorderDepth = Math.max (reorderDepth,
+          stats.sequences.getMaxReorderDepth ());
+      }
+
+      long received = messages.get ();
+      double seconds = (lastReceive.get () - firstReceive.get ()) / 1e9;
+      if (received < 2 || seconds <= 0)
+      {
+        System.out.println ("reader: received " + received +
+          " measured messages (" + warmupMessages.get () +
+          " warmup), not enough to report throughput");
+        return;
+      }
+
+      System.out.println (String.format (
+        "reader: %d writers, %d messages in %.2f s, %.0f msgs/s, %.2f MB/s",
+        writers.size (), received, seconds, received / seconds,
+        bytes.get () / seconds / 1e6));
+      System.out.println (String.format (
+        "reader: loss %.3f%% (%d of %d), %d duplicates, max reorder depth %d",
+        expected == 0 ? 0 : 100.0 * missing / expected, missing, expected,
+        duplicates, reorderDepth));
+      System.out.println ("reader: latency " + latency);
     }
 
-    public void filter (Packet packet, TransportContext context, Variables variables)
+    private static long parseLong (String value, int start, int end)
     {
-      ++counter;
+      long result = 0;
+      for (int i = start; i < end; ++i)
+      {
+        result = result * 10 + (value.charAt (i) - '0');
+      }
+      return result;
     }
   }
 
-  public void testReader () throws MadaraDeadObjectException, GamsDeadObjectException
+  /**
+   * Sends load messages from its own knowledge base on an open-loop
+   * schedule
+   */
+  private class Writer extends Thread
   {
-    QoSTransportSettings settings = new QoSTransportSettings ();
-    CounterFilter filter = new CounterFilter ();
-    settings.addReceiveFilter (filter);
+    public final LatencyHistogram lag = new LatencyHistogram ();
+    public long messages;
+    public long bytes;
+    public long nanos;
 
-    final String default_multicast = new String ("239.255.0.1:4150");
-    String[] hosts = new String[1];
-    hosts[0] = default_multicast;
-    settings.setHosts (hosts);
-    settings.setType (ai.madara.transport.TransportType.MULTICAST_TRANSPORT);
+    private final int index;
 
-    KnowledgeBase kb = new KnowledgeBase(host, settings);
+    public Writer (int index)
+    {
+      super ("throughput-writer-" + index);
+      this.index = index;
+    }
+
+    @Override
+    public void run ()
+    {
+      KnowledgeBase kb = null;
+      EvalSettings delay = new EvalSettings ();
+      delay.setDelaySendingModifieds (true);
+
+      try
+      {
+        String[] hosts;
+        if (transport.equals ("udp"))
+        {
+          String bind = address.substring (0, address.lastIndexOf (':') + 1) +
+            (writerPort + index);
+          hosts = new String[] { bind, address };
+        }
+        else
+        {
+          hosts = new String[] { address };
+        }
+        kb = new KnowledgeBase (host + "writer" + index,
+          createSettings (hosts, null));
+
+        String[] names = new String[keys];
+        for (int k = 0; k < keys; ++k)
+        {
+          names[k] = keyPrefix + index + "." + k;
+        }
+
+        StringBuilder buffer = new StringBuilder (size + 32);
 
-    ai.madara.util.Utility.sleep (duration);
+        // writers share the rate evenly; 0 sends as fast as possible
+        long interval = rate > 0 ? (long)(1e9 * writers / rate) : 0;
+        long start = System.nanoTime ();
+        long measureStart = start + (long)(warmup * 1e9);
+        long end = measureStart + (long)(duration * 1e9);
+        long next = start;
+        long measuredStart = 0;
+        long measuredEnd = 0;
 
-    ai.madara.logger.GlobalLogger.log (6, "Counter: " + filter.counter);
+        for (long seq = 0;; ++seq)
+        {
+          long scheduled;
+          if (interval > 0)
+          {
+            // open loop: wait for the schedule, but never skip a send when
+            // behind, so backlog shows up as latency instead of lower load
+            long now;
+            while ((now = System.nanoTime ()) < next)
+            {
+              LockSupport.parkNanos (next - now);
+            }
+            scheduled = next;
+            next += interval;
+          }
+          else
+          {
+            scheduled = System.nanoTime ();
+          }
+
+          if (scheduled >= end)
+          {
+            break;
+          }
+
+          boolean measured = scheduled >= measureStart;
+
+          buffer.setLength (0);
+          buffer.append (seq).append (',').append (epochOffset + scheduled)
+            .append (',').append (measured ? MEASURED : WARMUP).append (',');
+          while (buffer.length () < size)
+          {
+            buffer.append ('a');
+          }
+          String payload = buffer.toString ();
+
+          for (int k = 0; k < keys; ++k)
+          {
+            kb.set (names[k], payload, delay);
+          }
+          kb.sendModifieds ();
+
+          if (measured)
+          {
+            long sent = System.nanoTime ();
+            if (measuredStart == 0)
+            {
+              measuredStart = scheduled;
+            }
+            measuredEnd = sent;
+            lag.record (sent - scheduled);
+            ++messages;
+            bytes += (long)keys * payload.length ();
+          }
+        }
+
+        nanos = measuredEnd - measuredStart;
+      }
+      catch (MadaraDeadObjectException e)
+      {
+        e.printStackTrace ();
+      }
+      finally
+      {
+        if (kb != null)
+        {
+          kb.free ();
+        }
+        delay.free ();
+      }
+    }
   }
 
-  public void testWriter () throws MadaraDeadObjectException, GamsDeadObjectException
+  private QoSTransportSettings createSettings (String[] hosts,
+    ThroughputFilter filter)
   {
     QoSTransportSettings settings = new QoSTransportSettings ();
-
-    final String default_multicast = new String ("239.255.0.1:4150");
-    String[] hosts = new String[1];
-    hosts[0] = default_multicast;
+    if (filter != null)
+    {
+      settings.addReceiveFilter (filter);
+    }
     settings.setHosts (hosts);
-    settings.setType (ai.madara.transport.TransportType.MULTICAST_TRANSPORT);
 
-    KnowledgeBase kb = new KnowledgeBase(host, settings);
-
-    int iterations = (int) duration * (int) rate;
-    for (int i = 0; i < iterations; ++i)
+    if (transport.equals ("udp"))
+    {
+      settings.setType (TransportType.UDP_TRANSPORT);
+    }
+    else if (transport.equals ("broadcast"))
     {
-      kb.set ("data", 1);
-      ai.madara.util.Utility.sleep (1 / rate);
+      settings.setType (TransportType.BROADCAST_TRANSPORT);
     }
+    else
+    {
+      settings.setType (TransportType.MULTICAST_TRANSPORT);
+    }
+
+    return settings;
   }
 
-  public void testBoth () throws MadaraDeadObjectException, GamsDeadObjectException
+  private KnowledgeBase startReader (ThroughputFilter filter)
   {
-    QoSTransportSettings settings = new QoSTransportSettings ();
-    CounterFilter filter = new CounterFilter ();
-    settings.addReceiveFilter (filter);
+    return new KnowledgeBase (host + "reader",
+      createSettings (new String[] { address }, filter));
+  }
 
-    final String default_multicast = new String ("239.255.0.1:4150");
-    String[] hosts = new String[1];
-    hosts[0] = default_multicast;
-    settings.setHosts (hosts);
-    settings.setType (ai.madara.transport.TransportType.MULTICAST_TRANSPORT);
+  private void runWriters () throws InterruptedException
+  {
+    Writer[] threads = new Writer[writers];
+    for (int i = 0; i < writers; ++i)
+    {
+      threads[i] = new Writer (i);
+      threads[i].start ();
+    }
 
-    KnowledgeBase kb = new KnowledgeBase(host, settings);
+    LatencyHistogram lag = new LatencyHistogram ();
+    long messages = 0;
+    long bytes = 0;
+    long nanos = 0;
+    for (Writer writer : threads)
+    {
+      writer.join ();
+      lag.add (writer.lag);
+      messages += writer.messages;
+      bytes += writer.bytes;
+      nanos = Math.max (nanos, writer.nanos);
+    }
 
-    int iterations = (int) duration * (int) rate;
-    for (int i = 0; i < iterations; ++i)
+    double seconds = nanos / 1e9;
+    if (seconds <= 0)
     {
-      kb.set ("data", 1);
-      ai.madara.util.Utility.sleep (1 / rate);
+      System.out.println ("writer: no measured messages were sent");
+      return;
     }
 
-    ai.madara.logger.GlobalLogger.log (6, "Counter: " + filter.counter);
+    System.out.println (String.format (
+      "writer: %d threads, %d messages in %.2f s, %.0f msgs/s, %.2f MB/s",
+      writers, messages, seconds, messages / seconds, bytes / seconds / 1e6));
+    System.out.println ("writer: send lag " + lag);
+  }
+
+  public void testReader () throws InterruptedException
+  {
+    ThroughputFilter filter = new ThroughputFilter ();
+    KnowledgeBase kb = startReader (filter);
+
+    System.out.println ("reader: listening on " + address + " for " +
+      (warmup + duration) + " s");
+    Thread.sleep ((long)((warmup + duration + 1) * 1000));
+
+    kb.free ();
+    filter.report ();
+  }
+
+  public void testWriter () throws InterruptedException
+  {
+    runWriters ();
+  }
+
+  public void testBoth () throws InterruptedException
+  {
+    ThroughputFilter filter = new ThroughputFilter ();
+    KnowledgeBase kb = startReader (filter);
+
+    runWriters ();
+
+    // let in-flight messages arrive
+    Thread.sleep (1000);
+
+    kb.free ();
+    filter.report ();
+  }
+
+  public static void printUsage ()
+  {
+    System.err.println (
+      "TestMessagingThroughput [options]\n" +
+      "  -t, --type reader|writer|both  role of this process (default both)\n" +
+      "  -h, --host id                  prefix for knowledge base ids\n" +
+      "  -p, --transport udp|multicast|broadcast  (default udp)\n" +
+      "  -a, --address host:port        reader address (default 127.0.0.1:40000)\n" +
+      "  -P, --writer-port port         first UDP port for writers (default 40001)\n" +
+      "  -d, --duration seconds         measured time (default 10)\n" +
+      "  -u, --warmup seconds           unmeasured time before (default 2)\n" +
+      "  -r, --rate msgs/s              total offered load, 0 is unlimited\n" +
+      "  -s, --size bytes               payload size per key (default 128)\n" +
+      "  -k, --keys count               keys per message (default 1)\n" +
+      "  -w, --writers count            writer threads (default 1)");
   }
 
   public static void parseArgs (String[] args, TestMessagingThroughput obj)
   {
     for (int i = 0; i < args.length; ++i)
     {
-      if (args[i] == "-t" || args[i] == "--type")
+      if (i + 1 >= args.length)
+      {
+        System.err.println ("Missing value for argument: " + args[i]);
+        printUsage ();
+        System.exit (-1);
+      }
+
+      if (args[i].equals ("-t") || args[i].equals ("--type"))
       {
         obj.type = args[i + 1];
       }
-      else if (args[i] == "-h" || args[i] == "--host")
+      else if (args[i].equals ("-h") || args[i].equals ("--host"))
       {
         obj.host = args[i + 1];
       }
-      else if (args[i] == "-d" || args[i] == "--duration")
+      else if (args[i].equals ("-p") || args[i].equals ("--transport"))
       {
-        obj.duration = Long.parseLong (args[i + 1]);
+        obj.transport = args[i + 1];
       }
-      else if (args[i] == "-r" || args[i] == "--rate")
+      else if (args[i].equals ("-a") || args[i].equals ("--address"))
+      {
+        obj.address = args[i + 1];
+      }
+      else if (args[i].equals ("-P") || args[i].equals ("--writer-port"))
+      {
+        obj.writerPort = Integer.parseInt (args[i + 1]);
+      }
+      else if (args[i].equals ("-d") || args[i].equals ("--duration"))
+      {
+        obj.duration = Double.parseDouble (args[i + 1]);
+      }
+      else if (args[i].equals ("-u") || args[i].equals ("--warmup"))
+      {
+        obj.warmup = Double.parseDouble (args[i + 1]);
+      }
+      else if (args[i].equals ("-r") || args[i].equals ("--rate"))
       {
         obj.rate = Double.parseDouble (args[i + 1]);
       }
+      else if (args[i].equals ("-s") || args[i].equals ("--size"))
+      {
+        obj.size = Integer.parseInt (args[i + 1]);
+      }
+      else if (args[i].equals ("-k") || args[i].equals ("--keys"))
+      {
+        obj.keys = Integer.parseInt (args[i + 1]);
+      }
+      else if (args[i].equals ("-w") || args[i].equals ("--writers"))
+      {
+        obj.writers = Integer.parseInt (args[i + 1]);
+      }
       else
       {
         System.err.println ("Invalid argument: " + args[i]);
+        printUsage ();
         System.exit (-1);
       }
       ++i;
     }
   }
 
-  public static void main (String[] args) throws MadaraDeadObjectException, GamsDeadObjectException
+  public static void main (String[] args) throws InterruptedException
   {
     TestMessagingThroughput obj = new TestMessagingThroughput ();
     parseArgs (args, obj);
@@ -194,6 +589,7 @@ public class TestMessagingThroughput
         break;
       default:
         System.out.println ("Invalid type specified: " + obj.type);
+        printUsage ();
         System.exit (-1);
     }
   }
@@ -0,0 +1,240 @@
+/*********************************************************************
+ * Copyright (c) 2013-2015 Carnegie Mellon University. All Rights Reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following acknowledgments and disclaimers.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *
+ * 3. The names "Carnegie Mellon University," "SEI" and/or
+ * "Software Engineering Institute" shall not be used to endorse or promote
+ * products derived from this software without prior written permission. For
+ * written permission, please contact permission@sei.cmu.edu.
+ *
+ * 4. Products derived from this software may not be called "SEI" nor may "SEI"
+ * appear in their names without prior written permission of
+ * permission@sei.cmu.edu.
+ *
+ * 5. Redistributions of any form whatsoever must retain the following
+ * acknowledgment:
+ *
+ * This material is based upon work funded and supported by the Department of
+ * Defense under Contract No. FA8721-05-C-0003 with Carnegie Mellon University
+ * for the operation of the Software Engineering Institute, a federally funded
+ * research and development center. Any opinions, findings and conclusions or
+ * recommendations expressed in this material are those of the author(s) and
+ * do not necessarily reflect the views of the United States Department of
+ * Defense.
+ *
+ * NO WARRANTY. THIS CARNEGIE MELLON UNIVERSITY AND SOFTWARE ENGINEERING
+ * INSTITUTE MATERIAL IS FURNISHED ON AN "AS-IS" BASIS. CARNEGIE MELLON
+ * UNIVERSITY MAKES NO WARRANTIES OF ANY KIND, EITHER EXPRESSED OR IMPLIED,
+ * AS TO ANY MATTER INCLUDING, BUT NOT LIMITED TO, WARRANTY OF FITNESS FOR
+ * PURPOSE OR MERCHANTABILITY, EXCLUSIVITY, OR RESULTS OBTAINED FROM USE OF THE
+ * MATERIAL. CARNEGIE MELLON UNIVERSITY DOES NOT MAKE ANY WARRANTY OF ANY KIND
+ * WITH RESPECT TO FREEDOM FROM PATENT, TRADEMARK, OR COPYRIGHT INFRINGEMENT.
+ *
+ * This material has been approved for public release and unlimited
+ * distribution.
+ *
+ * @author James Edmondson <jedmondson@gmail.com>
+ *********************************************************************/
+package ai.gams.tests;
+
+import ai.gams.utility.SequenceTracker;
+
+/**
+ * Drives a SequenceTracker directly with gaps, duplicates, reordering and
+ * concurrent receivers. Exits with an AssertionError on the first failure.
+ **/
+public class TestSequenceTracker
+{
+  private static void testing(String name, int tabs)
+  {
+    StringBuilder buffer = new StringBuilder();
+    for (int i = 0; i < tabs; ++i)
+    {
+      buffer.append('\t');
+    }
+    System.out.println(buffer.append("testing ").append(name).append("..."));
+  }
+
+  private static void check(boolean condition, String message)
+  {
+    if (!condition)
+    {
+      throw new AssertionError(message);
+    }
+  }
+
+  public static void testInOrder()
+  {
+    testing("in order", 0);
+
+    SequenceTracker tracker = new SequenceTracker();
+    check(tracker.getFirst() == -1 && tracker.getLast() == -1, "empty range");
+    check(tracker.getLossPercent() == 0, "empty loss");
+
+    for (long i = 0; i < 100; ++i)
+    {
+      check(tracker.record(i), "new number " + i);
+    }
+
+    check(tracker.getFirst() == 0, "first");
+    check(tracker.getLast() == 99, "last");
+    check(tracker.getExpected() == 100, "expected");
+    check(tracker.getReceived() == 100, "received");
+    check(tracker.getMissing() == 0, "missing");
+    check(tracker.getDuplicates() == 0, "duplicates");
+    check(tracker.getReordered() == 0, "reordered");
+  }
+
+  public static void testGaps()
+  {
+    testing("gaps", 0);
+
+    SequenceTracker tracker = new SequenceTracker();
+    for (long i = 0; i < 20; ++i)
+    {
+      if (i < 10 || i >= 15)
+      {
+        tracker.record(i);
+      }
+    }
+
+    check(tracker.getExpected() == 20, "expected");
+    check(tracker.getReceived() == 15, "received");
+    check(tracker.getMissing() == 5, "missing");
+    check(tracker.getLossPercent() == 25, "loss");
+
+    testing("late arrivals fill the gap", 1);
+    tracker.record(12);
+    tracker.record(10);
+    check(tracker.getMissing() == 3, "missing after late arrivals");
+    check(tracker.getReordered() == 2, "late arrivals are reordered");
+
+    testing("a gap before the first number", 1);
+    tracker.record(100);
+    check(tracker.getExpected() == 101, "expected after a jump");
+    check(tracker.getMissing() == 101 - 18, "missing after a jump");
+  }
+
+  public static void testDuplicates()
+  {
+    testing("duplicates", 0);
+
+    SequenceTracker tracker = new SequenceTracker();
+    for (long i = 0; i < 50; ++i)
+    {
+      tracker.record(i);
+    }
+
+    check(!tracker.record(49), "duplicate of the highest number");
+    check(!tracker.record(0), "duplicate of the lowest number");
+    check(!tracker.record(31), "duplicate at a block boundary");
+    check(!tracker.record(32), "duplicate after a block boundary");
+    check(tracker.getDuplicates() == 4, "duplicates");
+    check(tracker.getReceived() == 50, "duplicates are not received");
+    check(tracker.getMissing() == 0, "duplicates hide no loss");
+
+    testing("duplicates after the window slides", 1);
+    long window = tracker.getWindow();
+    for (long i = 50; i < 50 + 3 * window; ++i)
+    {
+      tracker.record(i);
+    }
+    long recent = 50 + 3 * window - window / 2;
+    check(!tracker.record(recent), "duplicate inside the window");
+    check(tracker.getDuplicates() == 5, "duplicates after sliding");
+  }
+
+  public static void testReordering()
+  {
+    testing("reordering", 0);
+
+    SequenceTracker tracker = new SequenceTracker();
+    tracker.record(0);
+    tracker.record(3);
+    tracker.record(1);
+    tracker.record(2);
+
+    check(tracker.getReceived() == 4, "received");
+    check(tracker.getMissing() == 0, "missing");
+    check(tracker.getReordered() == 2, "reordered");
+    check(tracker.getMaxReorderDepth() == 2, "max reorder depth");
+
+    testing("older than the window", 1);
+    SequenceTracker small = new SequenceTracker(64);
+    long window = small.getWindow();
+    for (long i = 0; i < 4 * window; ++i)
+    {
+      if (i != 5)
+      {
+        small.record(i);
+      }
+    }
+    check(small.getMissing() == 1, "missing before the late arrival");
+    check(small.record(5), "a late arrival is not a duplicate");
+    check(small.getStale() == 1, "stale");
+    check(small.getMissing() == 0, "missing after the late arrival");
+    check(small.getMaxReorderDepth() == 4 * window - 1 - 5, "depth");
+  }
+
+  public static void testConcurrent() throws InterruptedException
+  {
+    testing("concurrent receivers", 0);
+
+    final int threads = 4;
+    final long count = 100000;
+    final SequenceTracker tracker = new SequenceTracker();
+    Thread[] workers = new Thread[threads];
+
+    // the threads share out the numbers, so racing window slides must
+    // never report a duplicate or lose a number
+    for (int t = 0; t < threads; ++t)
+    {
+      final int offset = t;
+      workers[t] = new Thread(new Runnable()
+      {
+        @Override
+        public void run()
+        {
+          for (long i = offset; i < count; i += threads)
+          {
+            tracker.record(i);
+          }
+        }
+      });
+    }
+
+    for (Thread worker : workers)
+    {
+      worker.start();
+    }
+    for (Thread worker : workers)
+    {
+      worker.join();
+    }
+
+    check(tracker.getReceived() == count, "received");
+    check(tracker.getDuplicates() == 0, "duplicates");
+    check(tracker.getFirst() == 0 && tracker.getLast() == count - 1, "range");
+    check(tracker.getMissing() == 0, "missing");
+
+    System.out.println("\t" + tracker);
+  }
+
+  public static void main(String[] args) throws InterruptedException
+  {
+    testInOrder();
+    testGaps();
+    testDuplicates();
+    testReordering();
+    testConcurrent();
+  }
+}
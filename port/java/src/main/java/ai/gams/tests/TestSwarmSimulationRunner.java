@@ -0,0 +1,96 @@
+/*********************************************************************
+ * Copyright (c) 2013-2015 Carnegie Mellon University. All Rights Reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following acknowledgments and disclaimers.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *
+ * 3. The names "Carnegie Mellon University," "SEI" and/or
+ * "Software Engineering Institute" shall not be used to endorse or promote
+ * products derived from this software without prior written permission. For
+ * written permission, please contact permission@sei.cmu.edu.
+ *
+ * 4. Products derived from this software may not be called "SEI" nor may "SEI"
+ * appear in their names without prior written permission of
+ * permission@sei.cmu.edu.
+ *
+ * 5. Redistributions of any form whatsoever must retain the following
+ * acknowledgment:
+ *
+ * This material is based upon work funded and supported by the Department of
+ * Defense under Contract No. FA8721-05-C-0003 with Carnegie Mellon University
+ * for the operation of the Software Engineering Institute, a federally funded
+ * research and development center. Any opinions, findings and conclusions or
+ * recommendations expressed in this material are those of the author(s) and
+ * do not necessarily reflect the views of the United States Department of
+ * Defense.
+ *
+ * NO WARRANTY. THIS CARNEGIE MELLON UNIVERSITY AND SOFTWARE ENGINEERING
+ * INSTITUTE MATERIAL IS FURNISHED ON AN "AS-IS" BASIS. CARNEGIE MELLON
+ * UNIVERSITY MAKES NO WARRANTIES OF ANY KIND, EITHER EXPRESSED OR IMPLIED,
+ * AS TO ANY MATTER INCLUDING, BUT NOT LIMITED TO, WARRANTY OF FITNESS FOR
+ * PURPOSE OR MERCHANTABILITY, EXCLUSIVITY, OR RESULTS OBTAINED FROM USE OF THE
+ * MATERIAL. CARNEGIE MELLON UNIVERSITY DOES NOT MAKE ANY WARRANTY OF ANY KIND
+ * WITH RESPECT TO FREEDOM FROM PATENT, TRADEMARK, OR COPYRIGHT INFRINGEMENT.
+ *
+ * This material has been approved for public release and unlimited
+ * distribution.
+ *
+ * @author James Edmondson <jedmondson@gmail.com>
+ *********************************************************************/
+
+package ai.gams.tests;
+
+import ai.gams.algorithms.DebuggerAlgorithm;
+import ai.gams.controllers.BaseController;
+import ai.gams.controllers.FixedRateScheduler;
+import ai.gams.controllers.SwarmSimulationRunner;
+import ai.gams.platforms.DebuggerPlatform;
+import ai.madara.knowledge.KnowledgeBase;
+
+public class TestSwarmSimulationRunner
+{
+	public static void main(String... args) throws Exception
+	{
+		int numControllers = args.length > 0 ? Integer.parseInt(args[0]) : 200;
+		double hertz = args.length > 1 ? Double.parseDouble(args[1]) : 0;
+		long ticks = args.length > 2 ? Long.parseLong(args[2]) : 100;
+		int threads = args.length > 3 ? Integer.parseInt(args[3])
+				: Runtime.getRuntime().availableProcessors();
+
+		SwarmSimulationRunner runner = SwarmSimulationRunner.withVirtualThreads(threads);
+		KnowledgeBase[] knowledge = new KnowledgeBase[numControllers];
+		BaseController[] controllers = new BaseController[numControllers];
+
+		System.out.println("Creating " + numControllers + " base controllers"
+				+ (runner.isVirtual() ? " on virtual threads..." : " on " + threads + " threads..."));
+
+		for (int i = 0; i < numControllers; ++i)
+		{
+			knowledge[i] = new KnowledgeBase();
+			controllers[i] = new BaseController(knowledge[i]);
+			controllers[i].initVars(i, numControllers);
+			controllers[i].initPlatform(new DebuggerPlatform());
+			controllers[i].initAlgorithm(new DebuggerAlgorithm());
+			runner.add(controllers[i]);
+		}
+
+		System.out.println("Running " + ticks + " ticks at " + hertz + "hz...");
+		runner.run(ticks, new FixedRateScheduler(hertz));
+
+		System.out.println(runner);
+
+		runner.shutdown();
+		for (int i = 0; i < numControllers; ++i)
+		{
+			controllers[i].free();
+			knowledge[i].free();
+		}
+	}
+}
@@ -47,6 +47,7 @@
 package ai.gams.utility;
 
 import ai.gams.GamsJNI;
+import ai.gams.NativeDisposer;
 
 /**
  * Axes of a device/agent
@@ -64,6 +65,17 @@ public class Axes extends GamsJNI
   private native void jni_setX(long cptr, double input);
   private native void jni_setY(long cptr, double input);
   private native void jni_setZ(long cptr, double input);
+  private native void jni_set(long cptr, double inx, double iny, double inz);
+
+  private static final NativeDisposer DISPOSER =
+    new NativeDisposer("ai.gams.utility.Axes")
+  {
+    @Override
+    protected void dispose(long cptr) throws Exception
+    {
+      jni_freeAxes(cptr);
+    }
+  };
 
   private boolean manageMemory = true;
 
@@ -73,6 +85,22 @@ public class Axes extends GamsJNI
   public Axes()
   {
     setCPtr(jni_Axes());
+    track(DISPOSER);
+  }
+
+  /**
+   * Constructor for an existing C object. Does not allocate.
+   * @param cptr  C pointer to the object
+   * @param shouldManage  if true, manage the pointer
+   **/
+  private Axes(long cptr, boolean shouldManage)
+  {
+    manageMemory = shouldManage;
+    setCPtr(cptr);
+    if (shouldManage)
+    {
+      track(DISPOSER);
+    }
   }
 
   /**
@@ -84,6 +112,7 @@ public class Axes extends GamsJNI
   public Axes(double inx, double iny, double inz)                                   
   {
     setCPtr(jni_Axes(inx,iny,inz));
+    track(DISPOSER);
   }
 
   /**
@@ -93,6 +122,7 @@ public class Axes extends GamsJNI
   public Axes(Axes input)
   {
     setCPtr(jni_Axes(input.getCPtr()));
+    track(DISPOSER);
   }
 
   /**
@@ -186,6 +216,17 @@ public class Axes extends GamsJNI
   {
     jni_setZ(getCPtr(),input);
   }
+
+  /**
+   * Sets x, y and z with a single JNI call
+   * @param inx the x coordinate
+   * @param iny the y coordinate
+   * @param inz the z coordinate
+   **/
+  public void set(double inx, double iny, double inz)
+  {
+    jni_set(getCPtr(), inx, iny, inz);
+  }
       
   /**
    * Creates a java object instance from a C/C++ pointer
@@ -195,10 +236,7 @@ public class Axes extends GamsJNI
    */
   public static Axes fromPointer(long cptr)
   {
-    Axes ret = new Axes();
-    ret.manageMemory = true;
-    ret.setCPtr(cptr);
-    return ret;
+    return new Axes(cptr, true);
   }
   
   /**
@@ -210,10 +248,45 @@ public class Axes extends GamsJNI
    */
   public static Axes fromPointer(long cptr, boolean shouldManage)
   {
-    Axes ret = new Axes();
-    ret.manageMemory=shouldManage;
-    ret.setCPtr(cptr);
-    return ret;
+    return new Axes(cptr, shouldManage);
+  }
+
+  /**
+   * Points an existing java object at a C/C++ pointer without allocating.
+   * The C object the wrapper previously managed, if any, is freed unless it
+   * is cptr itself.
+   *
+   * @param cptr C pointer to the object
+   * @param shouldManage  if true, manage the pointer
+   * @param result  the wrapper to reuse
+   * @return result, now wrapping cptr
+   */
+  public static Axes fromPointer(long cptr, boolean shouldManage, Axes result)
+  {
+    if (result.getCPtr() != cptr)
+    {
+      result.free();
+      result.setCPtr(cptr);
+    }
+
+    result.manageMemory = shouldManage;
+    if (shouldManage)
+    {
+      result.track(DISPOSER);
+    }
+    else
+    {
+      result.untrack();
+    }
+    return result;
+  }
+
+  /**
+   * @return true if free() deletes the C object
+   */
+  boolean isManaged()
+  {
+    return manageMemory;
   }
 
   /**
@@ -224,25 +297,10 @@ public class Axes extends GamsJNI
   {
     if(manageMemory)
     {
+      untrack();
       jni_freeAxes(getCPtr());
       setCPtr(0);
     }
   }
-  
-  /**
-   * Cleans up underlying C resources
-   * @throws Throwable necessary for override but unused
-   */
-  @Override
-  protected void finalize() throws Throwable
-  {
-    try {
-      free();
-    } catch (Throwable t) {
-      throw t;
-    } finally {
-      super.finalize();
-    }
-  }           
 }
 
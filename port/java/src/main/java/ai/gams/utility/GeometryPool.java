@@ -0,0 +1,314 @@
+/*********************************************************************
+ * Copyright (c) 2013-2015 Carnegie Mellon University. All Rights Reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following acknowledgments and disclaimers.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *
+ * 3. The names "Carnegie Mellon University," "SEI" and/or
+ * "Software Engineering Institute" shall not be used to endorse or promote
+ * products derived from this software without prior written permission. For
+ * written permission, please contact permission@sei.cmu.edu.
+ *
+ * 4. Products derived from this software may not be called "SEI" nor may "SEI"
+ * appear in their names without prior written permission of
+ * permission@sei.cmu.edu.
+ *
+ * 5. Redistributions of any form whatsoever must retain the following
+ * acknowledgment:
+ *
+ * This material is based upon work funded and supported by the Department of
+ * Defense under Contract No. FA8721-05-C-0003 with Carnegie Mellon University
+ * for the operation of the Software Engineering Institute, a federally funded
+ * research and development center. Any opinions, findings and conclusions or
+ * recommendations expressed in this material are those of the author(s) and
+ * do not necessarily reflect the views of the United States Department of
+ * Defense.
+ *
+ * NO WARRANTY. THIS CARNEGIE MELLON UNIVERSITY AND SOFTWARE ENGINEERING
+ * INSTITUTE MATERIAL IS FURNISHED ON AN "AS-IS" BASIS. CARNEGIE MELLON
+ * UNIVERSITY MAKES NO WARRANTIES OF ANY KIND, EITHER EXPRESSED OR IMPLIED,
+ * AS TO ANY MATTER INCLUDING, BUT NOT LIMITED TO, WARRANTY OF FITNESS FOR
+ * PURPOSE OR MERCHANTABILITY, EXCLUSIVITY, OR RESULTS OBTAINED FROM USE OF THE
+ * MATERIAL. CARNEGIE MELLON UNIVERSITY DOES NOT MAKE ANY WARRANTY OF ANY KIND
+ * WITH RESPECT TO FREEDOM FROM PATENT, TRADEMARK, OR COPYRIGHT INFRINGEMENT.
+ *
+ * This material has been approved for public release and unlimited
+ * distribution.
+ *
+ * @author James Edmondson <jedmondson@gmail.com>
+ *********************************************************************/
+package ai.gams.utility;
+
+import java.util.ArrayDeque;
+
+import ai.gams.exceptions.GamsDeadObjectException;
+
+/**
+ * A pool of reusable Position, GpsPosition and Axes instances for control
+ * loops that need temporaries every iteration. Once the pool has grown to
+ * the loop's working set, acquire and release allocate neither C objects
+ * nor Java wrappers.
+ * <p>
+ * A pool is confined to the thread that created it. Use {@link #get()} for
+ * the calling thread's pool. Instances must be released at most once, and
+ * must not be used after they are released.
+ **/
+public class GeometryPool
+{
+  private static final ThreadLocal<GeometryPool> pools =
+    new ThreadLocal<GeometryPool>()
+  {
+    @Override
+    protected GeometryPool initialValue()
+    {
+      return new GeometryPool();
+    }
+  };
+
+  private final Thread owner = Thread.currentThread();
+
+  private final ArrayDeque<Position> positions = new ArrayDeque<Position>();
+  private final ArrayDeque<GpsPosition> gpsPositions =
+    new ArrayDeque<GpsPosition>();
+  private final ArrayDeque<Axes> axes = new ArrayDeque<Axes>();
+
+  private int maxIdle = 64;
+  private long created = 0;
+
+  /**
+   * @return the pool of the calling thread
+   **/
+  public static GeometryPool get()
+  {
+    return pools.get();
+  }
+
+  /**
+   * Acquires a position. Its coordinates are left over from its last use.
+   * @return a managed position
+   **/
+  public Position acquirePosition()
+  {
+    checkOwner();
+
+    Position result = positions.pollFirst();
+    if (result == null)
+    {
+      result = new Position();
+      ++created;
+    }
+    return result;
+  }
+
+  /**
+   * Acquires a position set to the given coordinates
+   * @param inx the x coordinate
+   * @param iny the y coordinate
+   * @param inz the z coordinate
+   * @return a managed position
+   **/
+  public Position acquirePosition(double inx, double iny, double inz)
+    throws GamsDeadObjectException
+  {
+    Position result = acquirePosition();
+    result.set(inx, iny, inz);
+    return result;
+  }
+
+  /**
+   * Acquires a GPS position. Its coordinates are left over from its last
+   * use.
+   * @return a managed GPS position
+   **/
+  public GpsPosition acquireGpsPosition() throws GamsDeadObjectException
+  {
+    checkOwner();
+
+    GpsPosition result = gpsPositions.pollFirst();
+    if (result == null)
+    {
+      result = new GpsPosition();
+      ++created;
+    }
+    return result;
+  }
+
+  /**
+   * Acquires a GPS position set to the given coordinates
+   * @param lat the latitude
+   * @param lon the longitude
+   * @param alt the altitude
+   * @return a managed GPS position
+   **/
+  public GpsPosition acquireGpsPosition(double lat, double lon, double alt)
+    throws GamsDeadObjectException
+  {
+    GpsPosition result = acquireGpsPosition();
+    result.set(lat, lon, alt);
+    return result;
+  }
+
+  /**
+   * Acquires axes. Their values are left over from their last use.
+   * @return managed axes
+   **/
+  public Axes acquireAxes()
+  {
+    checkOwner();
+
+    Axes result = axes.pollFirst();
+    if (result == null)
+    {
+      result = new Axes();
+      ++created;
+    }
+    return result;
+  }
+
+  /**
+   * Acquires axes set to the given values
+   * @param inx the x value
+   * @param iny the y value
+   * @param inz the z value
+   * @return managed axes
+   **/
+  public Axes acquireAxes(double inx, double iny, double inz)
+  {
+    Axes result = acquireAxes();
+    result.set(inx, iny, inz);
+    return result;
+  }
+
+  /**
+   * Returns a position or GPS position to the pool. Freed positions and
+   * positions that do not own their C object are ignored. Positions beyond
+   * the idle limit are freed.
+   * @param position  the position to release
+   **/
+  public void release(Position position) throws GamsDeadObjectException
+  {
+    checkOwner();
+
+    if (position == null || position.getCPtr() == 0 || !position.isManaged())
+    {
+      return;
+    }
+
+    if (position instanceof GpsPosition)
+    {
+      if (gpsPositions.size() < maxIdle)
+      {
+        gpsPositions.addFirst((GpsPosition)position);
+        return;
+      }
+    }
+    else if (positions.size() < maxIdle)
+    {
+      positions.addFirst(position);
+      return;
+    }
+
+    position.free();
+  }
+
+  /**
+   * Returns axes to the pool. Freed axes and axes that do not own their C
+   * object are ignored. Axes beyond the idle limit are freed.
+   * @param value  the axes to release
+   **/
+  public void release(Axes value)
+  {
+    checkOwner();
+
+    if (value == null || value.getCPtr() == 0 || !value.isManaged())
+    {
+      return;
+    }
+
+    if (axes.size() < maxIdle)
+    {
+      axes.addFirst(value);
+    }
+    else
+    {
+      value.free();
+    }
+  }
+
+  /**
+   * Sets how many idle instances of each type the pool keeps
+   * @param maxIdle  the idle limit per type
+   **/
+  public void setMaxIdle(int maxIdle)
+  {
+    this.maxIdle = Math.max(0, maxIdle);
+  }
+
+  /**
+   * @return the idle limit per type
+   **/
+  public int getMaxIdle()
+  {
+    return maxIdle;
+  }
+
+  /**
+   * @return the number of instances the pool has created. This stops
+   *         growing once a loop reaches its steady state.
+   **/
+  public long getCreatedCount()
+  {
+    return created;
+  }
+
+  /**
+   * @return the number of idle instances of all types
+   **/
+  public int getIdleCount()
+  {
+    return positions.size() + gpsPositions.size() + axes.size();
+  }
+
+  /**
+   * Frees all idle instances
+   **/
+  public void clear() throws GamsDeadObjectException
+  {
+    checkOwner();
+
+    for (Position position : positions)
+    {
+      position.free();
+    }
+    positions.clear();
+
+    for (GpsPosition position : gpsPositions)
+    {
+      position.free();
+    }
+    gpsPositions.clear();
+
+    for (Axes value : axes)
+    {
+      value.free();
+    }
+    axes.clear();
+  }
+
+  private void checkOwner()
+  {
+    if (Thread.currentThread() != owner)
+    {
+      throw new IllegalStateException(
+        "GeometryPool: used by " + Thread.currentThread().getName() +
+        " but owned by " + owner.getName());
+    }
+  }
+}
@@ -46,6 +46,7 @@
  *********************************************************************/
 package ai.gams.utility;
 
+import ai.gams.NativeDisposer;
 import ai.gams.exceptions.GamsDeadObjectException;
 
 public class GpsPosition extends Position
@@ -62,21 +63,61 @@ public class GpsPosition extends Position
   private native void jni_setLongitude(long cptr, double input) throws GamsDeadObjectException;
   private native void jni_setAltitude(long cptr, double input) throws GamsDeadObjectException;
 
+  private static final NativeDisposer DISPOSER =
+    new NativeDisposer("ai.gams.utility.GpsPosition")
+  {
+    @Override
+    protected void dispose(long cptr) throws Exception
+    {
+      jni_freeGpsPosition(cptr);
+    }
+  };
+
   private boolean manageMemory = true;
 
+  /**
+   * Constructor for an existing C object. Does not allocate.
+   * @param cptr  C pointer to the object
+   * @param shouldManage  if true, manage the pointer
+   **/
+  private GpsPosition(long cptr, boolean shouldManage)
+  {
+    super(0, false);
+    manageMemory = shouldManage;
+    setCPtr(cptr);
+    if (shouldManage)
+    {
+      track(DISPOSER);
+    }
+  }
+
   public GpsPosition() throws GamsDeadObjectException
   {
+    super(0, false);
     setCPtr(jni_GpsPosition());
+    track(DISPOSER);
   }
 
   public GpsPosition(double lat, double lon, double alt) throws GamsDeadObjectException
   {
+    super(0, false);
     setCPtr(jni_GpsPosition(lat,lon,alt));
+    track(DISPOSER);
   }
 
   public GpsPosition(Position input) throws GamsDeadObjectException
   {
+    super(0, false);
     setCPtr(jni_GpsPosition(input.getCPtr()));
+    track(DISPOSER);
+  }
+
+  public GpsPosition(GpsValue input) throws GamsDeadObjectException
+  {
+    super(0, false);
+    setCPtr(jni_GpsPosition(
+      input.getLatitude(), input.getLongitude(), input.getAltitude()));
+    track(DISPOSER);
   }
 
   /**
@@ -87,11 +128,12 @@ public class GpsPosition extends Position
   {
     String result = "";
     try{
-    result += getLatitude();
+    double[] coords = toArray();
+    result += coords[0];
     result += ",";
-    result += getLongitude();
+    result += coords[1];
     result += ",";
-    result += getAltitude();
+    result += coords[2];
     }catch(Exception e){
     	e.printStackTrace();
     }
@@ -153,6 +195,25 @@ public class GpsPosition extends Position
     jni_setAltitude(getCPtr(),input);
   }
 
+  /**
+   * Creates a heap-only copy of this GPS position with a single JNI call
+   * @return immutable value of this GPS position
+   **/
+  public GpsValue toGpsValue() throws GamsDeadObjectException
+  {
+    return GpsValue.fromArray(toArray());
+  }
+
+  /**
+   * Sets latitude, longitude and altitude from a heap-only GPS value with
+   * a single JNI call
+   * @param value  the GPS value to copy
+   **/
+  public void set(GpsValue value) throws GamsDeadObjectException
+  {
+    fromArray(value.toArray());
+  }
+
   /**
    * Creates a java object instance from a C/C++ pointer
    *
@@ -161,10 +222,7 @@ public class GpsPosition extends Position
    */
   public static GpsPosition fromPointer(long cptr) throws GamsDeadObjectException
   {
-    GpsPosition ret = new GpsPosition();
-    ret.manageMemory = true;
-    ret.setCPtr(cptr);
-    return ret;
+    return new GpsPosition(cptr, true);
   }
 
   /**
@@ -176,10 +234,44 @@ public class GpsPosition extends Position
    */
   public static GpsPosition fromPointer(long cptr, boolean shouldManage) throws GamsDeadObjectException
   {
-    GpsPosition ret = new GpsPosition();
-    ret.manageMemory=shouldManage;
-    ret.setCPtr(cptr);
-    return ret;
+    return new GpsPosition(cptr, shouldManage);
+  }
+
+  /**
+   * Points an existing java object at a C/C++ pointer without allocating.
+   * The C object the wrapper previously managed, if any, is freed unless it
+   * is cptr itself.
+   *
+   * @param cptr C pointer to the object
+   * @param shouldManage  if true, manage the pointer
+   * @param result  the wrapper to reuse
+   * @return result, now wrapping cptr
+   */
+  public static GpsPosition fromPointer(long cptr, boolean shouldManage,
+    GpsPosition result) throws GamsDeadObjectException
+  {
+    if (result.getCPtr() != cptr)
+    {
+      result.free();
+      result.setCPtr(cptr);
+    }
+
+    result.manageMemory = shouldManage;
+    if (shouldManage)
+    {
+      result.track(DISPOSER);
+    }
+    else
+    {
+      result.untrack();
+    }
+    return result;
+  }
+
+  @Override
+  boolean isManaged()
+  {
+    return manageMemory;
   }
 
   /**
@@ -190,25 +282,10 @@ public class GpsPosition extends Position
   {
     if(manageMemory)
     {
+      untrack();
       jni_freeGpsPosition(getCPtr());
       setCPtr(0);
     }
   }
-
-  /**
-   * Cleans up underlying C resources
-   * @throws Throwable necessary for override but unused
-   */
-  @Override
-  protected void finalize() throws Throwable
-  {
-    try {
-      free();
-    } catch (Throwable t) {
-      throw t;
-    } finally {
-      super.finalize();
-    }
-  }
 }
 
@@ -0,0 +1,279 @@
+/*********************************************************************
+ * Copyright (c) 2013-2015 Carnegie Mellon University. All Rights Reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following acknowledgments and disclaimers.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *
+ * 3. The names "Carnegie Mellon University," "SEI" and/or
+ * "Software Engineering Institute" shall not be used to endorse or promote
+ * products derived from this software without prior written permission. For
+ * written permission, please contact permission@sei.cmu.edu.
+ *
+ * 4. Products derived from this software may not be called "SEI" nor may "SEI"
+ * appear in their names without prior written permission of
+ * permission@sei.cmu.edu.
+ *
+ * 5. Redistributions of any form whatsoever must retain the following
+ * acknowledgment:
+ *
+ * This material is based upon work funded and supported by the Department of
+ * Defense under Contract No. FA8721-05-C-0003 with Carnegie Mellon University
+ * for the operation of the Software Engineering Institute, a federally funded
+ * research and development center. Any opinions, findings and conclusions or
+ * recommendations expressed in this material are those of the author(s) and
+ * do not necessarily reflect the views of the United States Department of
+ * Defense.
+ *
+ * NO WARRANTY. THIS CARNEGIE MELLON UNIVERSITY AND SOFTWARE ENGINEERING
+ * INSTITUTE MATERIAL IS FURNISHED ON AN "AS-IS" BASIS. CARNEGIE MELLON
+ * UNIVERSITY MAKES NO WARRANTIES OF ANY KIND, EITHER EXPRESSED OR IMPLIED,
+ * AS TO ANY MATTER INCLUDING, BUT NOT LIMITED TO, WARRANTY OF FITNESS FOR
+ * PURPOSE OR MERCHANTABILITY, EXCLUSIVITY, OR RESULTS OBTAINED FROM USE OF THE
+ * MATERIAL. CARNEGIE MELLON UNIVERSITY DOES NOT MAKE ANY WARRANTY OF ANY KIND
+ * WITH RESPECT TO FREEDOM FROM PATENT, TRADEMARK, OR COPYRIGHT INFRINGEMENT.
+ *
+ * This material has been approved for public release and unlimited
+ * distribution.
+ *
+ * @author James Edmondson <jedmondson@gmail.com>
+ *********************************************************************/
+package ai.gams.utility;
+
+import java.nio.DoubleBuffer;
+
+/**
+ * An immutable, heap-only GPS position. Unlike {@link GpsPosition}, a
+ * GpsValue holds no native memory, so all accessors and geometry
+ * operations run without crossing into JNI. The geometry mirrors the
+ * flat-earth approximations used by the C++ utility::GPSPosition class.
+ **/
+public final class GpsValue
+{
+  /**
+   * Radius of the Earth in meters, assuming a perfect sphere
+   **/
+  public static final double EARTH_RADIUS = 6371000.0;
+
+  /**
+   * Circumference of the Earth in meters, assuming a perfect sphere
+   **/
+  public static final double EARTH_CIRCUMFERENCE = 2 * EARTH_RADIUS * Math.PI;
+
+  private final double latitude;
+  private final double longitude;
+  private final double altitude;
+
+  /**
+   * Constructor
+   * @param latitude   the latitude in degrees
+   * @param longitude  the longitude in degrees
+   * @param altitude   the altitude in meters
+   **/
+  public GpsValue(double latitude, double longitude, double altitude)
+  {
+    this.latitude = latitude;
+    this.longitude = longitude;
+    this.altitude = altitude;
+  }
+
+  /**
+   * Creates a GPS value from an array of {lat, lon[, alt]}
+   * @param arr     the source array
+   * @param offset  the index of the latitude within arr
+   * @return the new GPS value
+   **/
+  public static GpsValue fromArray(double[] arr, int offset)
+  {
+    return new GpsValue(arr[offset], arr[offset + 1],
+      arr.length > offset + 2 ? arr[offset + 2] : 0.0);
+  }
+
+  /**
+   * Creates a GPS value from an array of {lat, lon[, alt]}
+   * @param arr  the source array
+   * @return the new GPS value
+   **/
+  public static GpsValue fromArray(double[] arr)
+  {
+    return fromArray(arr, 0);
+  }
+
+  /**
+   * Creates a GPS value from three consecutive doubles in a buffer
+   * @param buffer  the source buffer
+   * @param offset  the absolute index of the latitude within buffer
+   * @return the new GPS value
+   **/
+  public static GpsValue fromBuffer(DoubleBuffer buffer, int offset)
+  {
+    return new GpsValue(
+      buffer.get(offset), buffer.get(offset + 1), buffer.get(offset + 2));
+  }
+
+  /**
+   * Converts a Cartesian offset in meters relative to a reference GPS
+   * position into a GPS value
+   * @param source  offset in meters (x is north, y is east, z is up)
+   * @param ref     the reference GPS position
+   * @return the GPS value of the offset
+   **/
+  public static GpsValue fromPosition(PositionValue source, GpsValue ref)
+  {
+    double lat = source.getX() * 360.0 / EARTH_CIRCUMFERENCE + ref.latitude;
+    double circumference =
+      2 * EARTH_RADIUS * Math.cos(Math.toRadians(ref.latitude)) * Math.PI;
+    double lon = source.getY() / circumference * 360.0 + ref.longitude;
+
+    return new GpsValue(lat, lon, ref.altitude + source.getZ());
+  }
+
+  /**
+   * @return the latitude in degrees
+   **/
+  public double getLatitude()
+  {
+    return latitude;
+  }
+
+  /**
+   * @return the longitude in degrees
+   **/
+  public double getLongitude()
+  {
+    return longitude;
+  }
+
+  /**
+   * @return the altitude in meters
+   **/
+  public double getAltitude()
+  {
+    return altitude;
+  }
+
+  /**
+   * Converts this GPS value into a Cartesian offset in meters relative
+   * to a reference GPS position
+   * @param ref  the reference GPS position
+   * @return offset in meters (x is north, y is east, z is up)
+   **/
+  public PositionValue toPosition(GpsValue ref)
+  {
+    double x = EARTH_CIRCUMFERENCE * (latitude - ref.latitude) / 360.0;
+    double circumference =
+      2 * EARTH_RADIUS * Math.cos(Math.toRadians(ref.latitude)) * Math.PI;
+    double y = circumference * (longitude - ref.longitude) / 360.0;
+
+    return new PositionValue(x, y, altitude - ref.altitude);
+  }
+
+  /**
+   * Computes the distance in meters to another GPS value, assuming the
+   * curvature of the Earth is insignificant over the distance
+   * @param other  the other GPS value
+   * @return the distance in meters
+   **/
+  public double distanceTo(GpsValue other)
+  {
+    double nsDif = EARTH_CIRCUMFERENCE * (latitude - other.latitude) / 360.0;
+    double circumference =
+      2 * EARTH_RADIUS * Math.cos(Math.toRadians(latitude)) * Math.PI;
+    double ewDif = circumference * (longitude - other.longitude) / 360.0;
+    double altDif = altitude - other.altitude;
+
+    return Math.sqrt(nsDif * nsDif + ewDif * ewDif + altDif * altDif);
+  }
+
+  /**
+   * Checks if another GPS value is within a distance of this one
+   * @param other    the other GPS value
+   * @param epsilon  the maximum distance in meters
+   * @return true if the distance to other is at most epsilon
+   **/
+  public boolean approximately(GpsValue other, double epsilon)
+  {
+    return distanceTo(other) <= epsilon;
+  }
+
+  /**
+   * Get double array representation of the GPS value
+   * @return a new array of {latitude, longitude, altitude}
+   **/
+  public double[] toArray()
+  {
+    return new double[] { latitude, longitude, altitude };
+  }
+
+  /**
+   * Copies the coordinates into an existing array
+   * @param arr     the destination array
+   * @param offset  the index of the latitude within arr
+   **/
+  public void toArray(double[] arr, int offset)
+  {
+    arr[offset] = latitude;
+    arr[offset + 1] = longitude;
+    arr[offset + 2] = altitude;
+  }
+
+  /**
+   * Copies the coordinates into three consecutive doubles of a buffer
+   * @param buffer  the destination buffer
+   * @param offset  the absolute index of the latitude within buffer
+   **/
+  public void toBuffer(DoubleBuffer buffer, int offset)
+  {
+    buffer.put(offset, latitude);
+    buffer.put(offset + 1, longitude);
+    buffer.put(offset + 2, altitude);
+  }
+
+  /**
+   * Checks two instances for equality of all coordinates
+   * @param other  the object to check against
+   * @return true if other is a GpsValue with identical coordinates
+   **/
+  @Override
+  public boolean equals(Object other)
+  {
+    if (this == other)
+      return true;
+    if (!(other instanceof GpsValue))
+      return false;
+
+    GpsValue rhs = (GpsValue)other;
+    return Double.compare(latitude, rhs.latitude) == 0 &&
+           Double.compare(longitude, rhs.longitude) == 0 &&
+           Double.compare(altitude, rhs.altitude) == 0;
+  }
+
+  /**
+   * Gets a hashcode consistent with {@link #equals(Object)}
+   * @return hashcode for the coordinates
+   **/
+  @Override
+  public int hashCode()
+  {
+    long bits = Double.doubleToLongBits(latitude);
+    bits = 31 * bits + Double.doubleToLongBits(longitude);
+    bits = 31 * bits + Double.doubleToLongBits(altitude);
+    return (int)(bits ^ (bits >>> 32));
+  }
+
+  /**
+   * Converts the GPS value into a string
+   * @return GPS value as a string in the same format as {@link GpsPosition}
+   **/
+  @Override
+  public java.lang.String toString()
+  {
+    return latitude + "," + longitude + "," + altitude;
+  }
+}
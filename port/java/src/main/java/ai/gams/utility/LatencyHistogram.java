@@ -0,0 +1,253 @@
+/*********************************************************************
+ * Copyright (c) 2013-2015 Carnegie Mellon University. All Rights Reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following acknowledgments and disclaimers.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *
+ * 3. The names "Carnegie Mellon University," "SEI" and/or
+ * "Software Engineering Institute" shall not be used to endorse or promote
+ * products derived from this software without prior written permission. For
+ * written permission, please contact permission@sei.cmu.edu.
+ *
+ * 4. Products derived from this software may not be called "SEI" nor may "SEI"
+ * appear in their names without prior written permission of
+ * permission@sei.cmu.edu.
+ *
+ * 5. Redistributions of any form whatsoever must retain the following
+ * acknowledgment:
+ *
+ * This material is based upon work funded and supported by the Department of
+ * Defense under Contract No. FA8721-05-C-0003 with Carnegie Mellon University
+ * for the operation of the Software Engineering Institute, a federally funded
+ * research and development center. Any opinions, findings and conclusions or
+ * recommendations expressed in this material are those of the author(s) and
+ * do not necessarily reflect the views of the United States Department of
+ * Defense.
+ *
+ * NO WARRANTY. THIS CARNEGIE MELLON UNIVERSITY AND SOFTWARE ENGINEERING
+ * INSTITUTE MATERIAL IS FURNISHED ON AN "AS-IS" BASIS. CARNEGIE MELLON
+ * UNIVERSITY MAKES NO WARRANTIES OF ANY KIND, EITHER EXPRESSED OR IMPLIED,
+ * AS TO ANY MATTER INCLUDING, BUT NOT LIMITED TO, WARRANTY OF FITNESS FOR
+ * PURPOSE OR MERCHANTABILITY, EXCLUSIVITY, OR RESULTS OBTAINED FROM USE OF THE
+ * MATERIAL. CARNEGIE MELLON UNIVERSITY DOES NOT MAKE ANY WARRANTY OF ANY KIND
+ * WITH RESPECT TO FREEDOM FROM PATENT, TRADEMARK, OR COPYRIGHT INFRINGEMENT.
+ *
+ * This material has been approved for public release and unlimited
+ * distribution.
+ *
+ * @author James Edmondson <jedmondson@gmail.com>
+ *********************************************************************/
+package ai.gams.utility;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A fixed-size histogram of latencies in nanoseconds. Values are kept in
+ * log-linear buckets (32 linear sub-buckets per power of two), so
+ * percentiles are accurate to roughly 3% across the whole range of a long
+ * without any allocation while recording. Recording is lock-free and may
+ * happen concurrently with reads from other threads.
+ **/
+public class LatencyHistogram
+{
+  private static final int SUB_BITS = 5;
+  private static final int SUB_COUNT = 1 << SUB_BITS;
+  private static final int BUCKETS = (64 - SUB_BITS) * SUB_COUNT;
+
+  private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+  private final AtomicLong count = new AtomicLong();
+  private final AtomicLong total = new AtomicLong();
+  private final AtomicLong min = new AtomicLong(Long.MAX_VALUE);
+  private final AtomicLong max = new AtomicLong();
+
+  /**
+   * Records a latency
+   * @param  nanos  the latency in nanoseconds. Negative values are treated
+   *                as zero.
+   **/
+  public void record(long nanos)
+  {
+    if (nanos < 0)
+    {
+      nanos = 0;
+    }
+
+    counts.incrementAndGet(indexOf(nanos));
+    count.incrementAndGet();
+    total.addAndGet(nanos);
+
+    long current;
+    while (nanos < (current = min.get()) && !min.compareAndSet(current, nanos))
+    {
+    }
+    while (nanos > (current = max.get()) && !max.compareAndSet(current, nanos))
+    {
+    }
+  }
+
+  /**
+   * Returns the number of recorded latencies
+   * @return the number of calls to record since the last reset
+   **/
+  public long getCount()
+  {
+    return count.get();
+  }
+
+  /**
+   * Returns the smallest recorded latency
+   * @return the minimum in nanoseconds, or 0 if nothing is recorded
+   **/
+  public long getMin()
+  {
+    long result = min.get();
+    return result == Long.MAX_VALUE ? 0 : result;
+  }
+
+  /**
+   * Returns the largest recorded latency
+   * @return the maximum in nanoseconds
+   **/
+  public long getMax()
+  {
+    return max.get();
+  }
+
+  /**
+   * Returns the mean of the recorded latencies
+   * @return the mean in nanoseconds, or 0 if nothing is recorded
+   **/
+  public double getMean()
+  {
+    long samples = count.get();
+    return samples == 0 ? 0 : (double)total.get() / samples;
+  }
+
+  /**
+   * Returns the latency at a percentile
+   * @param  percentile  the percentile in the range [0, 100]
+   * @return the upper bound of the bucket holding the percentile in
+   *         nanoseconds, never more than the recorded maximum
+   **/
+  public long getPercentile(double percentile)
+  {
+    long samples = 0;
+    long[] snapshot = new long[BUCKETS];
+    for (int i = 0; i < BUCKETS; ++i)
+    {
+      snapshot[i] = counts.get(i);
+      samples += snapshot[i];
+    }
+
+    if (samples == 0)
+    {
+      return 0;
+    }
+
+    double clamped = Math.min(100.0, Math.max(0.0, percentile));
+    long rank = Math.max(1, (long)Math.ceil(clamped / 100.0 * samples));
+
+    long seen = 0;
+    for (int i = 0; i < BUCKETS; ++i)
+    {
+      seen += snapshot[i];
+      if (seen >= rank)
+      {
+        return Math.min(upperBoundOf(i), getMax());
+      }
+    }
+
+    return getMax();
+  }
+
+  /**
+   * Adds all recordings of another histogram to this one
+   * @param  other  the histogram to merge in
+   **/
+  public void add(LatencyHistogram other)
+  {
+    for (int i = 0; i < BUCKETS; ++i)
+    {
+      long value = other.counts.get(i);
+      if (value != 0)
+      {
+        counts.addAndGet(i, value);
+      }
+    }
+
+    count.addAndGet(other.count.get());
+    total.addAndGet(other.total.get());
+
+    long current;
+    long value = other.min.get();
+    while (value < (current = min.get()) && !min.compareAndSet(current, value))
+    {
+    }
+    value = other.max.get();
+    while (value > (current = max.get()) && !max.compareAndSet(current, value))
+    {
+    }
+  }
+
+  /**
+   * Clears all recordings
+   **/
+  public void reset()
+  {
+    for (int i = 0; i < BUCKETS; ++i)
+    {
+      counts.set(i, 0);
+    }
+    count.set(0);
+    total.set(0);
+    min.set(Long.MAX_VALUE);
+    max.set(0);
+  }
+
+  /**
+   * Converts the histogram to a summary string
+   * @return count, mean and common percentiles in microseconds
+   **/
+  @Override
+  public java.lang.String toString()
+  {
+    return String.format(
+      "count=%d mean=%.1fus p50=%.1fus p99=%.1fus p999=%.1fus max=%.1fus",
+      getCount(), getMean() / 1000.0, getPercentile(50) / 1000.0,
+      getPercentile(99) / 1000.0, getPercentile(99.9) / 1000.0,
+      getMax() / 1000.0);
+  }
+
+  private static int indexOf(long value)
+  {
+    if (value < SUB_COUNT)
+    {
+      return (int)value;
+    }
+
+    int exponent = 63 - Long.numberOfLeadingZeros(value);
+    int sub = (int)(value >>> (exponent - SUB_BITS)) & (SUB_COUNT - 1);
+    return (exponent - SUB_BITS + 1) * SUB_COUNT + sub;
+  }
+
+  private static long upperBoundOf(int index)
+  {
+    if (index < SUB_COUNT)
+    {
+      return index;
+    }
+
+    int exponent = index / SUB_COUNT + SUB_BITS - 1;
+    long sub = index % SUB_COUNT;
+    long lower = (SUB_COUNT + sub) << (exponent - SUB_BITS);
+    return lower + (1L << (exponent - SUB_BITS)) - 1;
+  }
+}
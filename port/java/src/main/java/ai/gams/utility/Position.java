@@ -46,7 +46,11 @@
  *********************************************************************/
 package ai.gams.utility;
 
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+
 import ai.gams.GamsJNI;
+import ai.gams.NativeDisposer;
 import ai.gams.exceptions.GamsDeadObjectException;
 import ai.madara.exceptions.MadaraDeadObjectException;
 import ai.madara.knowledge.containers.NativeDoubleVector;
@@ -67,6 +71,21 @@ public class Position extends GamsJNI
   private native void jni_setX(long cptr, double input);
   private native void jni_setY(long cptr, double input);
   private native void jni_setZ(long cptr, double input);
+  private native void jni_toArray(long cptr, double[] output);
+  private native void jni_fromArray(long cptr, double[] input);
+  private native void jni_toBuffer(long cptr, DoubleBuffer buffer, int index);
+  private native void jni_fromBuffer(long cptr, DoubleBuffer buffer, int index);
+  private native void jni_set(long cptr, double inx, double iny, double inz);
+
+  private static final NativeDisposer DISPOSER =
+    new NativeDisposer("ai.gams.utility.Position")
+  {
+    @Override
+    protected void dispose(long cptr) throws Exception
+    {
+      jni_freePosition(cptr);
+    }
+  };
 
   private boolean manageMemory = true;
 
@@ -76,6 +95,22 @@ public class Position extends GamsJNI
   public Position()
   {
     setCPtr(jni_Position());
+    track(DISPOSER);
+  }
+
+  /**
+   * Constructor for an existing C object. Does not allocate.
+   * @param cptr  C pointer to the object, or 0 if a subclass will set it
+   * @param shouldManage  if true, manage the pointer
+   **/
+  protected Position(long cptr, boolean shouldManage)
+  {
+    manageMemory = shouldManage;
+    setCPtr(cptr);
+    if (shouldManage)
+    {
+      track(DISPOSER);
+    }
   }
 
   /**
@@ -87,6 +122,7 @@ public class Position extends GamsJNI
   public Position(double inx, double iny, double inz)
   {
     setCPtr(jni_Position(inx,iny,inz));
+    track(DISPOSER);
   }
 
   /**
@@ -96,6 +132,7 @@ public class Position extends GamsJNI
    **/
   public Position(NativeDoubleVector cont) throws GamsDeadObjectException, MadaraDeadObjectException
   {
+    this();
     fromContainer(cont);
   }
 
@@ -106,6 +143,17 @@ public class Position extends GamsJNI
   public Position(Position input)
   {
     setCPtr(jni_Position(input.getCPtr()));
+    track(DISPOSER);
+  }
+
+  /**
+   * Constructor from a heap-only position value
+   * @param input the position value to copy
+   **/
+  public Position(PositionValue input)
+  {
+    setCPtr(jni_Position(input.getX(), input.getY(), input.getZ()));
+    track(DISPOSER);
   }
 
   /**
@@ -116,9 +164,10 @@ public class Position extends GamsJNI
    **/
   public boolean equals (Position other) throws GamsDeadObjectException
   {
-    return getX() == other.getX() &&
-           getY() == other.getY() &&
-           getZ() == other.getZ();
+    double[] lhs = toArray();
+    double[] rhs = other.toArray();
+
+    return lhs[0] == rhs[0] && lhs[1] == rhs[1] && lhs[2] == rhs[2];
   }
 
   /**
@@ -139,11 +188,12 @@ public class Position extends GamsJNI
   {
     String result = "";
     try{
-    result += getX();
+    double[] coords = toArray();
+    result += coords[0];
     result += ",";
-    result += getY();
+    result += coords[1];
     result += ",";
-    result += getZ();
+    result += coords[2];
     }catch(GamsDeadObjectException e){
     	e.printStackTrace();
     }
@@ -211,27 +261,115 @@ public class Position extends GamsJNI
   public double[] toArray() throws GamsDeadObjectException
   {
     double[] retVal = new double[3];
-    retVal[0] = getX();
-    retVal[1] = getY();
-    retVal[2] = getZ();
+    jni_toArray(getCPtr(), retVal);
     return retVal;
   }
 
+  /**
+   * Copies x, y and z into the first three elements of an existing array
+   * with a single JNI call
+   * @param output  array of at least 3 elements to copy into
+   **/
+  public void toArray(double[] output) throws GamsDeadObjectException
+  {
+    if(output.length < 3)
+    {
+      throw new IllegalArgumentException(
+        "Position.toArray: output must have at least 3 elements");
+    }
+
+    jni_toArray(getCPtr(), output);
+  }
+
+  /**
+   * Sets x, y and z with a single JNI call
+   * @param inx the x coordinate
+   * @param iny the y coordinate
+   * @param inz the z coordinate
+   **/
+  public void set(double inx, double iny, double inz) throws GamsDeadObjectException
+  {
+    jni_set(getCPtr(), inx, iny, inz);
+  }
+
   /**
    * Copy values from Array. Does nothing if arr has fewer than 2 elements
    * @param arr   Array to copy
    **/
   public void fromArray(double[] arr) throws GamsDeadObjectException
   {
-    if(arr.length >= 2)
+    if(arr.length >= 3)
+    {
+      jni_fromArray(getCPtr(), arr);
+    }
+    else if(arr.length == 2)
     {
-      setX(arr[0]);
-      setY(arr[1]);
+      jni_fromArray(getCPtr(), new double[] { arr[0], arr[1], 0.0 });
+    }
+  }
 
-      if(arr.length>= 3)
-        setZ(arr[2]);
-      else
-        setZ(0.0);
+  /**
+   * Copies x, y and z into three consecutive doubles of a direct buffer
+   * with a single JNI call. The buffer must be direct and in native byte
+   * order, e.g., ByteBuffer.allocateDirect(n * 8)
+   * .order(ByteOrder.nativeOrder()).asDoubleBuffer().
+   * @param buffer  direct buffer to copy into
+   * @param index   absolute index of x within the buffer
+   **/
+  public void toBuffer(DoubleBuffer buffer, int index) throws GamsDeadObjectException
+  {
+    checkBuffer(buffer, index);
+    jni_toBuffer(getCPtr(), buffer, index);
+  }
+
+  /**
+   * Copies x, y and z from three consecutive doubles of a direct buffer
+   * with a single JNI call
+   * @param buffer  direct, native-ordered buffer to copy from
+   * @param index   absolute index of x within the buffer
+   **/
+  public void fromBuffer(DoubleBuffer buffer, int index) throws GamsDeadObjectException
+  {
+    checkBuffer(buffer, index);
+    jni_fromBuffer(getCPtr(), buffer, index);
+  }
+
+  /**
+   * Creates a heap-only copy of this position with a single JNI call
+   * @return immutable value of this position
+   **/
+  public PositionValue toValue() throws GamsDeadObjectException
+  {
+    return PositionValue.fromArray(toArray());
+  }
+
+  /**
+   * Sets x, y and z from a heap-only position with a single JNI call
+   * @param value  the position value to copy
+   **/
+  public void set(PositionValue value) throws GamsDeadObjectException
+  {
+    jni_fromArray(getCPtr(), value.toArray());
+  }
+
+  /**
+   * Validates a buffer for use with the bulk buffer methods
+   * @param buffer  the buffer to check
+   * @param index   absolute index of the first coordinate
+   **/
+  private static void checkBuffer(DoubleBuffer buffer, int index)
+  {
+    if(!buffer.isDirect() || buffer.order() != ByteOrder.nativeOrder())
+    {
+      throw new IllegalArgumentException(
+        "Position: buffer must be direct and in native byte order");
+    }
+
+    if(index < 0 || index + 3 > buffer.capacity())
+    {
+      throw new IndexOutOfBoundsException(
+        "Position: index " + index + " out of bounds for buffer capacity " +
+        buffer.capacity());
     }
   }
 
@@ -275,10 +413,7 @@ public class Position extends GamsJNI
    */
   public static Position fromPointer(long cptr) throws GamsDeadObjectException
   {
-    Position ret = new Position();
-    ret.manageMemory = true;
-    ret.setCPtr(cptr);
-    return ret;
+    return new Position(cptr, true);
   }
 
   /**
@@ -290,10 +425,51 @@ public class Position extends GamsJNI
    */
   public static Position fromPointer(long cptr, boolean shouldManage) throws GamsDeadObjectException
   {
-    Position ret = new Position();
-    ret.manageMemory=shouldManage;
-    ret.setCPtr(cptr);
-    return ret;
+    return new Position(cptr, shouldManage);
+  }
+
+  /**
+   * Points an existing java object at a C/C++ pointer without allocating.
+   * The C object the wrapper previously managed, if any, is freed unless it
+   * is cptr itself.
+   *
+   * @param cptr C pointer to the object
+   * @param shouldManage  if true, manage the pointer
+   * @param result  the wrapper to reuse
+   * @return result, now wrapping cptr
+   */
+  public static Position fromPointer(long cptr, boolean shouldManage,
+    Position result) throws GamsDeadObjectException
+  {
+    if (result instanceof GpsPosition)
+    {
+      return GpsPosition.fromPointer(cptr, shouldManage, (GpsPosition)result);
+    }
+
+    if (result.getCPtr() != cptr)
+    {
+      result.free();
+      result.setCPtr(cptr);
+    }
+
+    result.manageMemory = shouldManage;
+    if (shouldManage)
+    {
+      result.track(DISPOSER);
+    }
+    else
+    {
+      result.untrack();
+    }
+    return result;
+  }
+
+  /**
+   * @return true if free() deletes the C object
+   */
+  boolean isManaged()
+  {
+    return manageMemory;
   }
 
   /**
@@ -305,24 +481,9 @@ public class Position extends GamsJNI
   {
     if(manageMemory)
     {
+      untrack();
       jni_freePosition(getCPtr());
       setCPtr(0);
     }
   }
-
-  /**
-   * Cleans up underlying C resources
-   * @throws Throwable necessary for override but unused
-   */
-  @Override
-  protected void finalize() throws Throwable
-  {
-    try {
-      free();
-    } catch (Throwable t) {
-      throw t;
-    } finally {
-      super.finalize();
-		}
-	}
 }
@@ -0,0 +1,299 @@
+/*********************************************************************
+ * Copyright (c) 2013-2015 Carnegie Mellon University. All Rights Reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following acknowledgments and disclaimers.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *
+ * 3. The names "Carnegie Mellon University," "SEI" and/or
+ * "Software Engineering Institute" shall not be used to endorse or promote
+ * products derived from this software without prior written permission. For
+ * written permission, please contact permission@sei.cmu.edu.
+ *
+ * 4. Products derived from this software may not be called "SEI" nor may "SEI"
+ * appear in their names without prior written permission of
+ * permission@sei.cmu.edu.
+ *
+ * 5. Redistributions of any form whatsoever must retain the following
+ * acknowledgment:
+ *
+ * This material is based upon work funded and supported by the Department of
+ * Defense under Contract No. FA8721-05-C-0003 with Carnegie Mellon University
+ * for the operation of the Software Engineering Institute, a federally funded
+ * research and development center. Any opinions, findings and conclusions or
+ * recommendations expressed in this material are those of the author(s) and
+ * do not necessarily reflect the views of the United States Department of
+ * Defense.
+ *
+ * NO WARRANTY. THIS CARNEGIE MELLON UNIVERSITY AND SOFTWARE ENGINEERING
+ * INSTITUTE MATERIAL IS FURNISHED ON AN "AS-IS" BASIS. CARNEGIE MELLON
+ * UNIVERSITY MAKES NO WARRANTIES OF ANY KIND, EITHER EXPRESSED OR IMPLIED,
+ * AS TO ANY MATTER INCLUDING, BUT NOT LIMITED TO, WARRANTY OF FITNESS FOR
+ * PURPOSE OR MERCHANTABILITY, EXCLUSIVITY, OR RESULTS OBTAINED FROM USE OF THE
+ * MATERIAL. CARNEGIE MELLON UNIVERSITY DOES NOT MAKE ANY WARRANTY OF ANY KIND
+ * WITH RESPECT TO FREEDOM FROM PATENT, TRADEMARK, OR COPYRIGHT INFRINGEMENT.
+ *
+ * This material has been approved for public release and unlimited
+ * distribution.
+ *
+ * @author James Edmondson <jedmondson@gmail.com>
+ *********************************************************************/
+package ai.gams.utility;
+
+import java.nio.DoubleBuffer;
+
+/**
+ * An immutable, heap-only Cartesian position. Unlike {@link Position}, a
+ * PositionValue holds no native memory, so all accessors and geometry
+ * operations run without crossing into JNI. Use
+ * {@link Position#toValue()} and {@link Position#set(PositionValue)} to
+ * convert to and from native-backed positions in a single JNI call.
+ **/
+public final class PositionValue
+{
+  /**
+   * The origin (0,0,0)
+   **/
+  public static final PositionValue ORIGIN = new PositionValue(0.0, 0.0, 0.0);
+
+  private final double x;
+  private final double y;
+  private final double z;
+
+  /**
+   * Constructor for a provided x,y,z coordinate
+   * @param x the x coordinate
+   * @param y the y coordinate
+   * @param z the z coordinate
+   **/
+  public PositionValue(double x, double y, double z)
+  {
+    this.x = x;
+    this.y = y;
+    this.z = z;
+  }
+
+  /**
+   * Creates a position from an array of at least 2 elements. If the array
+   * has only 2 elements, z is 0.
+   * @param arr     the source array
+   * @param offset  the index of the x coordinate within arr
+   * @return the new position
+   **/
+  public static PositionValue fromArray(double[] arr, int offset)
+  {
+    return new PositionValue(arr[offset], arr[offset + 1],
+      arr.length > offset + 2 ? arr[offset + 2] : 0.0);
+  }
+
+  /**
+   * Creates a position from an array of at least 2 elements
+   * @param arr  the source array
+   * @return the new position
+   **/
+  public static PositionValue fromArray(double[] arr)
+  {
+    return fromArray(arr, 0);
+  }
+
+  /**
+   * Creates a position from three consecutive doubles in a buffer
+   * @param buffer  the source buffer
+   * @param offset  the absolute index of the x coordinate within buffer
+   * @return the new position
+   **/
+  public static PositionValue fromBuffer(DoubleBuffer buffer, int offset)
+  {
+    return new PositionValue(
+      buffer.get(offset), buffer.get(offset + 1), buffer.get(offset + 2));
+  }
+
+  /**
+   * @return the x coordinate
+   **/
+  public double getX()
+  {
+    return x;
+  }
+
+  /**
+   * @return the y coordinate
+   **/
+  public double getY()
+  {
+    return y;
+  }
+
+  /**
+   * @return the z coordinate
+   **/
+  public double getZ()
+  {
+    return z;
+  }
+
+  /**
+   * Adds another position to this one
+   * @param other  the position to add
+   * @return the sum of the two positions
+   **/
+  public PositionValue plus(PositionValue other)
+  {
+    return new PositionValue(x + other.x, y + other.y, z + other.z);
+  }
+
+  /**
+   * Subtracts another position from this one
+   * @param other  the position to subtract
+   * @return the difference of the two positions
+   **/
+  public PositionValue minus(PositionValue other)
+  {
+    return new PositionValue(x - other.x, y - other.y, z - other.z);
+  }
+
+  /**
+   * Multiplies each coordinate by a scalar
+   * @param factor  the scalar
+   * @return the scaled position
+   **/
+  public PositionValue scale(double factor)
+  {
+    return new PositionValue(x * factor, y * factor, z * factor);
+  }
+
+  /**
+   * Computes the dot product with another position
+   * @param other  the other position
+   * @return the dot product
+   **/
+  public double dot(PositionValue other)
+  {
+    return x * other.x + y * other.y + z * other.z;
+  }
+
+  /**
+   * @return the distance from the origin
+   **/
+  public double norm()
+  {
+    return Math.sqrt(x * x + y * y + z * z);
+  }
+
+  /**
+   * Computes the Euclidean distance to another position
+   * @param other  the other position
+   * @return the distance between the two positions
+   **/
+  public double distanceTo(PositionValue other)
+  {
+    double dx = x - other.x;
+    double dy = y - other.y;
+    double dz = z - other.z;
+    return Math.sqrt(dx * dx + dy * dy + dz * dz);
+  }
+
+  /**
+   * Computes the distance to another position, ignoring z
+   * @param other  the other position
+   * @return the distance between the two positions on the x/y plane
+   **/
+  public double distanceTo2d(PositionValue other)
+  {
+    double dx = x - other.x;
+    double dy = y - other.y;
+    return Math.sqrt(dx * dx + dy * dy);
+  }
+
+  /**
+   * Checks if another position is within a distance of this one
+   * @param other    the other position
+   * @param epsilon  the maximum distance
+   * @return true if the distance to other is at most epsilon
+   **/
+  public boolean approximately(PositionValue other, double epsilon)
+  {
+    return distanceTo(other) <= epsilon;
+  }
+
+  /**
+   * Get double array representation of the position
+   * @return a new array of {x, y, z}
+   **/
+  public double[] toArray()
+  {
+    return new double[] { x, y, z };
+  }
+
+  /**
+   * Copies the coordinates into an existing array
+   * @param arr     the destination array
+   * @param offset  the index of the x coordinate within arr
+   **/
+  public void toArray(double[] arr, int offset)
+  {
+    arr[offset] = x;
+    arr[offset + 1] = y;
+    arr[offset + 2] = z;
+  }
+
+  /**
+   * Copies the coordinates into three consecutive doubles of a buffer
+   * @param buffer  the destination buffer
+   * @param offset  the absolute index of the x coordinate within buffer
+   **/
+  public void toBuffer(DoubleBuffer buffer, int offset)
+  {
+    buffer.put(offset, x);
+    buffer.put(offset + 1, y);
+    buffer.put(offset + 2, z);
+  }
+
+  /**
+   * Checks two instances for equality of all coordinates
+   * @param other  the object to check against
+   * @return true if other is a PositionValue with identical coordinates
+   **/
+  @Override
+  public boolean equals(Object other)
+  {
+    if (this == other)
+      return true;
+    if (!(other instanceof PositionValue))
+      return false;
+
+    PositionValue rhs = (PositionValue)other;
+    return Double.compare(x, rhs.x) == 0 &&
+           Double.compare(y, rhs.y) == 0 &&
+           Double.compare(z, rhs.z) == 0;
+  }
+
+  /**
+   * Gets a hashcode consistent with {@link #equals(Object)}
+   * @return hashcode for the coordinates
+   **/
+  @Override
+  public int hashCode()
+  {
+    long bits = Double.doubleToLongBits(x);
+    bits = 31 * bits + Double.doubleToLongBits(y);
+    bits = 31 * bits + Double.doubleToLongBits(z);
+    return (int)(bits ^ (bits >>> 32));
+  }
+
+  /**
+   * Converts the position into a string
+   * @return position as a string in the same format as {@link Position}
+   **/
+  @Override
+  public java.lang.String toString()
+  {
+    return x + "," + y + "," + z;
+  }
+}
@@ -46,6 +46,7 @@
  *********************************************************************/
 package ai.gams.utility;
 
+import ai.gams.NativeDisposer;
 import ai.gams.exceptions.GamsDeadObjectException;
 import ai.madara.knowledge.KnowledgeBase;
 
@@ -63,14 +64,42 @@ public class PrioritizedRegion extends Region
   private native long jni_getPriority(long cptr);
   private native void jni_setPriority(long cptr, long priority);
 
+  private static final NativeDisposer DISPOSER =
+    new NativeDisposer("ai.gams.utility.PrioritizedRegion")
+  {
+    @Override
+    protected void dispose(long cptr) throws Exception
+    {
+      jni_freePrioritizedRegion(cptr);
+    }
+  };
+
   private boolean manageMemory = true;
 
+  /**
+   * Constructor for an existing C object. Does not allocate.
+   * @param cptr  C pointer to the object
+   * @param shouldManage  if true, manage the pointer
+   **/
+  private PrioritizedRegion(long cptr, boolean shouldManage)
+  {
+    super(0, false);
+    manageMemory = shouldManage;
+    setCPtr(cptr);
+    if (shouldManage)
+    {
+      track(DISPOSER);
+    }
+  }
+
   /**
    * Default constructor
    **/
   public PrioritizedRegion() throws GamsDeadObjectException
   {
+    super(0, false);
     setCPtr(jni_PrioritizedRegion());
+    track(DISPOSER);
   }
 
   /**
@@ -108,10 +137,7 @@ public class PrioritizedRegion extends Region
    */
   public static PrioritizedRegion fromPointer(long cptr) throws GamsDeadObjectException
   {
-    PrioritizedRegion ret = new PrioritizedRegion();
-    ret.manageMemory = true;
-    ret.setCPtr(cptr);
-    return ret;
+    return new PrioritizedRegion(cptr, true);
   }
 
   /**
@@ -123,10 +149,7 @@ public class PrioritizedRegion extends Region
    */
   public static PrioritizedRegion fromPointer(long cptr, boolean shouldManage) throws GamsDeadObjectException
   {
-    PrioritizedRegion ret = new PrioritizedRegion();
-    ret.manageMemory=shouldManage;
-    ret.setCPtr(cptr);
-    return ret;
+    return new PrioritizedRegion(cptr, shouldManage);
   }
 
   /**
@@ -183,25 +206,10 @@ public class PrioritizedRegion extends Region
   {
     if(manageMemory)
     {
+      untrack();
       jni_freePrioritizedRegion(getCPtr());
       setCPtr(0);
     }
   }
-
-  /**
-   * Cleans up underlying C resources
-   * @throws Throwable necessary for override but unused
-   */
-  @Override
-  protected void finalize() throws Throwable
-  {
-    try {
-      free();
-    } catch (Throwable t) {
-      throw t;
-    } finally {
-      super.finalize();
-    }
-  }
 }
 
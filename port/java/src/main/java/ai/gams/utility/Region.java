@@ -47,6 +47,7 @@
 package ai.gams.utility;
 
 import ai.gams.GamsJNI;
+import ai.gams.NativeDisposer;
 import ai.gams.exceptions.GamsDeadObjectException;
 
 /**
@@ -74,6 +75,12 @@ public class Region extends GamsJNI
 
 	private native long[] jni_getVertices(long cptr);
 
+	private native double[] jni_getVertexArray(long cptr);
+
+	private native int jni_getVertexCount(long cptr);
+
+	private native void jni_copyVertex(long cptr, int index, long target);
+
 	private native double jni_getArea(long cptr);
 
 	private native long jni_getBoundingBox(long cptr);
@@ -94,14 +101,40 @@ public class Region extends GamsJNI
 
 	private native double jni_getMinLong(long cptr);
 
+	private static final NativeDisposer DISPOSER =
+		new NativeDisposer("ai.gams.utility.Region")
+	{
+		@Override
+		protected void dispose(long cptr) throws Exception
+		{
+			jni_freeRegion(cptr);
+		}
+	};
+
 	private boolean manageMemory = true;
 
+	/**
+	 * Constructor for an existing C object. Does not allocate.
+	 * @param cptr  C pointer to the object, or 0 if a subclass will set it
+	 * @param shouldManage  if true, manage the pointer
+	 **/
+	protected Region(long cptr, boolean shouldManage)
+	{
+		manageMemory = shouldManage;
+		setCPtr(cptr);
+		if (shouldManage)
+		{
+			track(DISPOSER);
+		}
+	}
+
 	/**
 	 * Default constructor
 	 **/
 	public Region()
 	{
 		setCPtr(jni_Region());
+		track(DISPOSER);
 	}
 
 	/**
@@ -163,9 +196,7 @@ public class Region extends GamsJNI
 	 **/
 	public Region getBoundingBox() throws GamsDeadObjectException
 	{
-		Region result = new Region();
-		result.setCPtr(jni_getBoundingBox(getCPtr()));
-		return result;
+		return new Region(jni_getBoundingBox(getCPtr()), true);
 	}
 
 	/**
@@ -206,11 +237,56 @@ public class Region extends GamsJNI
 		{
 			result = new GpsPosition[vertices.length];
 			for (int i = 0; i < vertices.length; ++i)
-				result[i].fromPointer(vertices[i]);
+				result[i] = GpsPosition.fromPointer(vertices[i]);
 		}
 		return result;
 	}
 
+	/**
+	 * Copies the vertices into existing positions without allocating C
+	 * objects or wrappers. Null elements are filled with new positions,
+	 * which are kept for later calls. If the array is shorter than the
+	 * vertex count, only the first result.length vertices are copied.
+	 *
+	 * @param result
+	 *            positions to copy the vertices into
+	 * @return the number of vertices in the region
+	 **/
+	public int getVertices(GpsPosition[] result) throws GamsDeadObjectException
+	{
+		int count = jni_getVertexCount(getCPtr());
+		int filled = Math.min(count, result.length);
+
+		for (int i = 0; i < filled; ++i)
+		{
+			if (result[i] == null)
+				result[i] = new GpsPosition();
+			jni_copyVertex(getCPtr(), i, result[i].getCPtr());
+		}
+		return count;
+	}
+
+	/**
+	 * Gets the vertices packed as {lat0, lon0, alt0, lat1, lon1, alt1, ...}
+	 * with a single JNI call
+	 *
+	 * @return packed vertices that form the region boundary
+	 **/
+	public double[] getVertexArray() throws GamsDeadObjectException
+	{
+		return jni_getVertexArray(getCPtr());
+	}
+
+	/**
+	 * Creates a pure Java snapshot of this region for repeated queries
+	 *
+	 * @return the geometry of the region at the time of the call
+	 **/
+	public RegionGeometry getGeometry() throws GamsDeadObjectException
+	{
+		return RegionGeometry.fromRegion(this);
+	}
+
 	/**
 	 * Gets the maximum altitude
 	 *
@@ -280,10 +356,7 @@ public class Region extends GamsJNI
 	 */
 	public static Region fromPointer(long cptr) throws GamsDeadObjectException
 	{
-		Region ret = new Region();
-		ret.manageMemory = true;
-		ret.setCPtr(cptr);
-		return ret;
+		return new Region(cptr, true);
 	}
 
 	/**
@@ -297,10 +370,7 @@ public class Region extends GamsJNI
 	 */
 	public static Region fromPointer(long cptr, boolean shouldManage) throws GamsDeadObjectException
 	{
-		Region ret = new Region();
-		ret.manageMemory = shouldManage;
-		ret.setCPtr(cptr);
-		return ret;
+		return new Region(cptr, shouldManage);
 	}
 
 	/**
@@ -367,29 +437,9 @@ public class Region extends GamsJNI
 	{
 		if (manageMemory)
 		{
+			untrack();
 			jni_freeRegion(getCPtr());
 			setCPtr(0);
 		}
 	}
-
-	/**
-	 * Cleans up underlying C resources
-	 *
-	 * @throws Throwable
-	 *             necessary for override but unused
-	 */
-	@Override
-	protected void finalize() throws Throwable
-	{
-		try
-		{
-			free();
-		} catch (Throwable t)
-		{
-			throw t;
-		} finally
-		{
-			super.finalize();
-		}
-	}
 }
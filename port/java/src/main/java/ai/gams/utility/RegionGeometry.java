@@ -0,0 +1,393 @@
+/*********************************************************************
+ * Copyright (c) 2013-2015 Carnegie Mellon University. All Rights Reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following acknowledgments and disclaimers.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *
+ * 3. The names "Carnegie Mellon University," "SEI" and/or
+ * "Software Engineering Institute" shall not be used to endorse or promote
+ * products derived from this software without prior written permission. For
+ * written permission, please contact permission@sei.cmu.edu.
+ *
+ * 4. Products derived from this software may not be called "SEI" nor may "SEI"
+ * appear in their names without prior written permission of
+ * permission@sei.cmu.edu.
+ *
+ * 5. Redistributions of any form whatsoever must retain the following
+ * acknowledgment:
+ *
+ * This material is based upon work funded and supported by the Department of
+ * Defense under Contract No. FA8721-05-C-0003 with Carnegie Mellon University
+ * for the operation of the Software Engineering Institute, a federally funded
+ * research and development center. Any opinions, findings and conclusions or
+ * recommendations expressed in this material are those of the author(s) and
+ * do not necessarily reflect the views of the United States Department of
+ * Defense.
+ *
+ * NO WARRANTY. THIS CARNEGIE MELLON UNIVERSITY AND SOFTWARE ENGINEERING
+ * INSTITUTE MATERIAL IS FURNISHED ON AN "AS-IS" BASIS. CARNEGIE MELLON
+ * UNIVERSITY MAKES NO WARRANTIES OF ANY KIND, EITHER EXPRESSED OR IMPLIED,
+ * AS TO ANY MATTER INCLUDING, BUT NOT LIMITED TO, WARRANTY OF FITNESS FOR
+ * PURPOSE OR MERCHANTABILITY, EXCLUSIVITY, OR RESULTS OBTAINED FROM USE OF THE
+ * MATERIAL. CARNEGIE MELLON UNIVERSITY DOES NOT MAKE ANY WARRANTY OF ANY KIND
+ * WITH RESPECT TO FREEDOM FROM PATENT, TRADEMARK, OR COPYRIGHT INFRINGEMENT.
+ *
+ * This material has been approved for public release and unlimited
+ * distribution.
+ *
+ * @author James Edmondson <jedmondson@gmail.com>
+ *********************************************************************/
+package ai.gams.utility;
+
+import ai.gams.exceptions.GamsDeadObjectException;
+
+/**
+ * A heap-only snapshot of a {@link Region} that answers point-in-polygon,
+ * distance and area queries in pure Java. The vertices are copied once
+ * from the native region with a single JNI call, after which no query
+ * crosses into native code. The results mirror the C++ pose::Region
+ * implementation, including its equirectangular projection for distance
+ * and area. A snapshot does not track later changes to the source region.
+ **/
+public class RegionGeometry
+{
+  /**
+   * Number of doubles per vertex in a packed vertex array
+   **/
+  public static final int STRIDE = 3;
+
+  private final double[] lats;
+  private final double[] lons;
+  private final double[] alts;
+
+  /**
+   * Vertices projected into meters relative to the south-west corner
+   **/
+  private final double[] xs;
+  private final double[] ys;
+
+  private double minLat = Double.MAX_VALUE;
+  private double maxLat = -Double.MAX_VALUE;
+  private double minLon = Double.MAX_VALUE;
+  private double maxLon = -Double.MAX_VALUE;
+  private double minAlt = Double.MAX_VALUE;
+  private double maxAlt = -Double.MAX_VALUE;
+
+  /**
+   * Meters per degree of latitude and longitude at the south-west corner
+   **/
+  private final double metersPerLat;
+  private final double metersPerLon;
+
+  private final double area;
+
+  /**
+   * Constructor from a packed vertex array
+   * @param vertices  vertices as {lat0, lon0, alt0, lat1, lon1, alt1, ...}
+   **/
+  public RegionGeometry(double[] vertices)
+  {
+    int size = vertices.length / STRIDE;
+
+    lats = new double[size];
+    lons = new double[size];
+    alts = new double[size];
+    xs = new double[size];
+    ys = new double[size];
+
+    for (int i = 0; i < size; ++i)
+    {
+      lats[i] = vertices[i * STRIDE];
+      lons[i] = vertices[i * STRIDE + 1];
+      alts[i] = vertices[i * STRIDE + 2];
+
+      minLat = Math.min(minLat, lats[i]);
+      maxLat = Math.max(maxLat, lats[i]);
+      minLon = Math.min(minLon, lons[i]);
+      maxLon = Math.max(maxLon, lons[i]);
+      minAlt = Math.min(minAlt, alts[i]);
+      maxAlt = Math.max(maxAlt, alts[i]);
+    }
+
+    if (size > 0)
+    {
+      metersPerLat = GpsValue.EARTH_CIRCUMFERENCE / 360.0;
+      metersPerLon = 2 * GpsValue.EARTH_RADIUS *
+        Math.cos(Math.toRadians(minLat)) * Math.PI / 360.0;
+    }
+    else
+    {
+      metersPerLat = 0.0;
+      metersPerLon = 0.0;
+    }
+
+    for (int i = 0; i < size; ++i)
+    {
+      xs[i] = (lons[i] - minLon) * metersPerLon;
+      ys[i] = (lats[i] - minLat) * metersPerLat;
+    }
+
+    area = computeArea();
+  }
+
+  /**
+   * Creates a snapshot of a native region with a single JNI call
+   * @param region  the region to snapshot
+   * @return the geometry of the region
+   **/
+  public static RegionGeometry fromRegion(Region region) throws GamsDeadObjectException
+  {
+    return new RegionGeometry(region.getVertexArray());
+  }
+
+  /**
+   * Creates a geometry from heap-only GPS vertices
+   * @param vertices  the vertices of the polygon, in order
+   * @return the geometry of the polygon
+   **/
+  public static RegionGeometry fromVertices(GpsValue... vertices)
+  {
+    double[] packed = new double[vertices.length * STRIDE];
+    for (int i = 0; i < vertices.length; ++i)
+      vertices[i].toArray(packed, i * STRIDE);
+
+    return new RegionGeometry(packed);
+  }
+
+  /**
+   * @return the number of vertices
+   **/
+  public int size()
+  {
+    return lats.length;
+  }
+
+  /**
+   * Gets a vertex of the region
+   * @param index  the index of the vertex
+   * @return the vertex at index
+   **/
+  public GpsValue getVertex(int index)
+  {
+    return new GpsValue(lats[index], lons[index], alts[index]);
+  }
+
+  /**
+   * Checks to see if a latitude/longitude is contained in this region
+   * @param lat  latitude of the point
+   * @param lon  longitude of the point
+   * @return true if the point is inside the region or on a vertex
+   **/
+  public boolean contains(double lat, double lon)
+  {
+    int size = lats.length;
+
+    if (size < 1 || lat < minLat || lat > maxLat ||
+        lon < minLon || lon > maxLon)
+    {
+      return false;
+    }
+
+    // point in polygon test from
+    // http://www.ecse.rpi.edu/Homepages/wrf/Research/ShortNotes/pnpoly.html
+    boolean result = false;
+    for (int i = 0, j = size - 1; i < size; j = i++)
+    {
+      if ((lons[i] > lon) != (lons[j] > lon) &&
+          lat < (lats[j] - lats[i]) * (lon - lons[i]) /
+                (lons[j] - lons[i]) + lats[i])
+      {
+        result = !result;
+      }
+    }
+
+    // check if this is a vertex point
+    for (int i = 0; i < size && !result; ++i)
+    {
+      result = lats[i] == lat && lons[i] == lon;
+    }
+
+    return result;
+  }
+
+  /**
+   * Checks to see if the point is contained in this region
+   * @param point  point to check
+   * @return true if the point is inside the region or on a vertex
+   **/
+  public boolean contains(GpsValue point)
+  {
+    return contains(point.getLatitude(), point.getLongitude());
+  }
+
+  /**
+   * Checks many points against this region
+   * @param lats  latitudes of the points
+   * @param lons  longitudes of the points, same length as lats
+   * @param out   receives true for each contained point, same length as lats
+   * @return the number of contained points
+   **/
+  public int containsAll(double[] lats, double[] lons, boolean[] out)
+  {
+    checkLengths(lats, lons, out.length);
+
+    int count = 0;
+    for (int i = 0; i < lats.length; ++i)
+    {
+      out[i] = contains(lats[i], lons[i]);
+      if (out[i])
+        ++count;
+    }
+
+    return count;
+  }
+
+  /**
+   * Get distance from any point in this region. As in the native
+   * implementation, the distance is measured to the nearest vertex on the
+   * ground plane.
+   * @param lat  latitude of the point
+   * @param lon  longitude of the point
+   * @return 0 if in region, otherwise distance from region in meters
+   **/
+  public double getDistance(double lat, double lon)
+  {
+    if (lats.length < 1)
+      return Double.MAX_VALUE;
+
+    if (contains(lat, lon))
+      return 0.0;
+
+    double x = (lon - minLon) * metersPerLon;
+    double y = (lat - minLat) * metersPerLat;
+
+    double minDistSq = Double.MAX_VALUE;
+    for (int i = 0; i < xs.length; ++i)
+    {
+      double dx = xs[i] - x;
+      double dy = ys[i] - y;
+      minDistSq = Math.min(minDistSq, dx * dx + dy * dy);
+    }
+
+    return Math.sqrt(minDistSq);
+  }
+
+  /**
+   * Get distance from any point in this region
+   * @param point  point to check
+   * @return 0 if in region, otherwise distance from region in meters
+   **/
+  public double getDistance(GpsValue point)
+  {
+    return getDistance(point.getLatitude(), point.getLongitude());
+  }
+
+  /**
+   * Computes the distance from this region for many points
+   * @param lats  latitudes of the points
+   * @param lons  longitudes of the points, same length as lats
+   * @param out   receives the distance for each point, same length as lats
+   **/
+  public void getDistanceAll(double[] lats, double[] lons, double[] out)
+  {
+    checkLengths(lats, lons, out.length);
+
+    for (int i = 0; i < lats.length; ++i)
+      out[i] = getDistance(lats[i], lons[i]);
+  }
+
+  /**
+   * Gets area of the region
+   * @return area of this region in square meters
+   **/
+  public double getArea()
+  {
+    return area;
+  }
+
+  /**
+   * @return minimum altitude in the region
+   **/
+  public double getMinAlt()
+  {
+    return minAlt;
+  }
+
+  /**
+   * @return maximum altitude in the region
+   **/
+  public double getMaxAlt()
+  {
+    return maxAlt;
+  }
+
+  /**
+   * @return minimum latitude in the region
+   **/
+  public double getMinLat()
+  {
+    return minLat;
+  }
+
+  /**
+   * @return maximum latitude in the region
+   **/
+  public double getMaxLat()
+  {
+    return maxLat;
+  }
+
+  /**
+   * @return minimum longitude in the region
+   **/
+  public double getMinLong()
+  {
+    return minLon;
+  }
+
+  /**
+   * @return maximum longitude in the region
+   **/
+  public double getMaxLong()
+  {
+    return maxLon;
+  }
+
+  /**
+   * Computes the polygon area with the shoelace formula on the projected
+   * vertices
+   * @return area in square meters
+   **/
+  private double computeArea()
+  {
+    int size = xs.length;
+
+    if (size < 3)
+      return 0.0;
+
+    double sum = 0.0;
+    for (int i = 0, j = size - 1; i < size; j = i++)
+      sum += xs[j] * ys[i] - xs[i] * ys[j];
+
+    return Math.abs(sum / 2.0);
+  }
+
+  /**
+   * Validates the lengths of batch query arrays
+   **/
+  private static void checkLengths(double[] lats, double[] lons, int outLength)
+  {
+    if (lats.length != lons.length || lats.length != outLength)
+    {
+      throw new IllegalArgumentException(
+        "RegionGeometry: lats, lons and out must have the same length");
+    }
+  }
+}
@@ -47,6 +47,7 @@
 package ai.gams.utility;
 
 import ai.gams.GamsJNI;
+import ai.gams.NativeDisposer;
 import ai.gams.exceptions.GamsDeadObjectException;
 
 /**
@@ -73,12 +74,45 @@ public class SearchArea extends GamsJNI
   private native double jni_getMinLong(long cptr);
   private native long jni_getGpsPriority(long cptr, long coord);
   private native long[] jni_getRegions(long cptr);
+  private native int jni_getRegionCount(long cptr);
+  private native void jni_copyRegion(long cptr, int index, long target);
+
+  private static final NativeDisposer DISPOSER =
+    new NativeDisposer("ai.gams.utility.SearchArea")
+  {
+    @Override
+    protected void dispose(long cptr) throws Exception
+    {
+      jni_freeSearchArea(cptr);
+    }
+  };
 
   private boolean manageMemory = true;
 
+  /**
+   * Spatial index over the regions, built on first use by getIndex
+   **/
+  private SearchAreaIndex index = null;
+
+  /**
+   * Constructor for an existing C object. Does not allocate.
+   * @param cptr  C pointer to the object
+   * @param shouldManage  if true, manage the pointer
+   **/
+  private SearchArea(long cptr, boolean shouldManage)
+  {
+    manageMemory = shouldManage;
+    setCPtr(cptr);
+    if (shouldManage)
+    {
+      track(DISPOSER);
+    }
+  }
+
   public SearchArea()
   {
     setCPtr(jni_SearchArea());
+    track(DISPOSER);
   }
 
   /**
@@ -115,6 +149,23 @@ public class SearchArea extends GamsJNI
   public void add(PrioritizedRegion region) throws GamsDeadObjectException
   {
     jni_addPrioritizedRegion(getCPtr(),region.getCPtr());
+
+    if (index != null)
+      index.add(region);
+  }
+
+  /**
+   * Gets a spatial index over the regions of this search area for fast
+   * priority and containment queries. The index is built on the first
+   * call and kept current by add and fromContainer.
+   * @return the spatial index of the regions
+   **/
+  public SearchAreaIndex getIndex() throws GamsDeadObjectException
+  {
+    if (index == null)
+      index = new SearchAreaIndex(this);
+
+    return index;
   }
 
   /**
@@ -207,15 +258,37 @@ public class SearchArea extends GamsJNI
   public PrioritizedRegion[] getRegions() throws GamsDeadObjectException
   {
     long[] vertices = jni_getRegions(getCPtr());
+
+    if (vertices == null)
+      return new PrioritizedRegion[0];
+
     PrioritizedRegion[] result = new PrioritizedRegion[vertices.length];
+    for (int i = 0; i < vertices.length; ++i)
+      result[i] = PrioritizedRegion.fromPointer(vertices[i]);
+
+    return result;
+  }
 
-    if(vertices.length > 0)
+  /**
+   * Copies the regions into existing regions without allocating wrappers.
+   * Null elements are filled with new regions, which are kept for later
+   * calls. If the array is shorter than the region count, only the first
+   * result.length regions are copied.
+   * @param result  regions to copy into
+   * @return the number of regions in the search area
+   **/
+  public int getRegions(PrioritizedRegion[] result) throws GamsDeadObjectException
+  {
+    int count = jni_getRegionCount(getCPtr());
+    int filled = Math.min(count, result.length);
+
+    for (int i = 0; i < filled; ++i)
     {
-      result = new PrioritizedRegion[vertices.length];
-      for (int i = 0; i < vertices.length; ++i)
-        result[i].fromPointer(vertices[i]);
+      if (result[i] == null)
+        result[i] = new PrioritizedRegion();
+      jni_copyRegion(getCPtr(), i, result[i].getCPtr());
     }
-    return result;
+    return count;
   }
 
   /**
@@ -226,10 +299,7 @@ public class SearchArea extends GamsJNI
    */
   public static SearchArea fromPointer(long cptr) throws GamsDeadObjectException
   {
-    SearchArea ret = new SearchArea();
-    ret.manageMemory = true;
-    ret.setCPtr(cptr);
-    return ret;
+    return new SearchArea(cptr, true);
   }
 
   /**
@@ -241,10 +311,7 @@ public class SearchArea extends GamsJNI
    */
   public static SearchArea fromPointer(long cptr, boolean shouldManage) throws GamsDeadObjectException
   {
-    SearchArea ret = new SearchArea();
-    ret.manageMemory=shouldManage;
-    ret.setCPtr(cptr);
-    return ret;
+    return new SearchArea(cptr, shouldManage);
   }
 
   /**
@@ -264,6 +331,9 @@ public class SearchArea extends GamsJNI
   public void fromContainer(ai.madara.knowledge.KnowledgeBase kb, String name) throws GamsDeadObjectException
   {
     jni_fromContainer(getCPtr(), kb.getCPtr(), name);
+
+    if (index != null)
+      index.rebuild(this);
   }
 
   /**
@@ -301,25 +371,10 @@ public class SearchArea extends GamsJNI
   {
     if(manageMemory)
     {
+      untrack();
       jni_freeSearchArea(getCPtr());
       setCPtr(0);
     }
   }
-
-  /**
-   * Cleans up underlying C resources
-   * @throws Throwable necessary for override but unused
-   */
-  @Override
-  protected void finalize() throws Throwable
-  {
-    try {
-      free();
-    } catch (Throwable t) {
-      throw t;
-    } finally {
-      super.finalize();
-    }
-  }
 }
 
@@ -0,0 +1,430 @@
+/*********************************************************************
+ * Copyright (c) 2013-2015 Carnegie Mellon University. All Rights Reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following acknowledgments and disclaimers.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *
+ * 3. The names "Carnegie Mellon University," "SEI" and/or
+ * "Software Engineering Institute" shall not be used to endorse or promote
+ * products derived from this software without prior written permission. For
+ * written permission, please contact permission@sei.cmu.edu.
+ *
+ * 4. Products derived from this software may not be called "SEI" nor may "SEI"
+ * appear in their names without prior written permission of
+ * permission@sei.cmu.edu.
+ *
+ * 5. Redistributions of any form whatsoever must retain the following
+ * acknowledgment:
+ *
+ * This material is based upon work funded and supported by the Department of
+ * Defense under Contract No. FA8721-05-C-0003 with Carnegie Mellon University
+ * for the operation of the Software Engineering Institute, a federally funded
+ * research and development center. Any opinions, findings and conclusions or
+ * recommendations expressed in this material are those of the author(s) and
+ * do not necessarily reflect the views of the United States Department of
+ * Defense.
+ *
+ * NO WARRANTY. THIS CARNEGIE MELLON UNIVERSITY AND SOFTWARE ENGINEERING
+ * INSTITUTE MATERIAL IS FURNISHED ON AN "AS-IS" BASIS. CARNEGIE MELLON
+ * UNIVERSITY MAKES NO WARRANTIES OF ANY KIND, EITHER EXPRESSED OR IMPLIED,
+ * AS TO ANY MATTER INCLUDING, BUT NOT LIMITED TO, WARRANTY OF FITNESS FOR
+ * PURPOSE OR MERCHANTABILITY, EXCLUSIVITY, OR RESULTS OBTAINED FROM USE OF THE
+ * MATERIAL. CARNEGIE MELLON UNIVERSITY DOES NOT MAKE ANY WARRANTY OF ANY KIND
+ * WITH RESPECT TO FREEDOM FROM PATENT, TRADEMARK, OR COPYRIGHT INFRINGEMENT.
+ *
+ * This material has been approved for public release and unlimited
+ * distribution.
+ *
+ * @author James Edmondson <jedmondson@gmail.com>
+ *********************************************************************/
+package ai.gams.utility;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+import ai.gams.exceptions.GamsDeadObjectException;
+
+/**
+ * A pure Java R-tree over the prioritized regions of a {@link SearchArea}.
+ * Regions are bulk loaded with Sort-Tile-Recursive packing, so priority and
+ * containment queries only test the regions whose bounding boxes hold the
+ * point. Regions added after the last packing are kept in a small pending
+ * list and folded into the tree once that list grows past a fraction of
+ * the indexed regions. The results match SearchArea.getPriority and
+ * SearchArea.contains. This class is not thread safe.
+ **/
+public class SearchAreaIndex
+{
+  /**
+   * Maximum number of children per tree node
+   **/
+  public static final int NODE_CAPACITY = 16;
+
+  /**
+   * A region geometry and its priority
+   **/
+  private static final class Entry
+  {
+    final RegionGeometry geometry;
+    final long priority;
+
+    Entry(RegionGeometry geometry, long priority)
+    {
+      this.geometry = geometry;
+      this.priority = priority;
+    }
+
+    double centerLat()
+    {
+      return (geometry.getMinLat() + geometry.getMaxLat()) / 2;
+    }
+
+    double centerLon()
+    {
+      return (geometry.getMinLong() + geometry.getMaxLong()) / 2;
+    }
+  }
+
+  private static final Comparator<Entry> BY_LAT = new Comparator<Entry>()
+  {
+    public int compare(Entry a, Entry b)
+    {
+      return Double.compare(a.centerLat(), b.centerLat());
+    }
+  };
+
+  private static final Comparator<Entry> BY_LON = new Comparator<Entry>()
+  {
+    public int compare(Entry a, Entry b)
+    {
+      return Double.compare(a.centerLon(), b.centerLon());
+    }
+  };
+
+  /**
+   * Indexed entries in packed order
+   **/
+  private Entry[] entries = new Entry[0];
+
+  /**
+   * Bounding boxes per tree level as {minLat, maxLat, minLon, maxLon} per
+   * node. Level 0 holds one box per entry and the last level is the root.
+   **/
+  private double[][] levels = new double[0][];
+
+  /**
+   * Entries added since the tree was last packed
+   **/
+  private final List<Entry> pending = new ArrayList<Entry>();
+
+  /**
+   * Constructor for an empty index
+   **/
+  public SearchAreaIndex()
+  {
+  }
+
+  /**
+   * Constructor that indexes all regions of a search area
+   * @param area  the search area to index
+   **/
+  public SearchAreaIndex(SearchArea area) throws GamsDeadObjectException
+  {
+    rebuild(area);
+  }
+
+  /**
+   * Discards the index and reloads every region from a search area
+   * @param area  the search area to index
+   **/
+  public void rebuild(SearchArea area) throws GamsDeadObjectException
+  {
+    PrioritizedRegion[] regions = area.getRegions();
+    List<Entry> loaded = new ArrayList<Entry>(regions.length);
+
+    for (PrioritizedRegion region : regions)
+    {
+      loaded.add(new Entry(region.getGeometry(), region.getPriority()));
+      region.free();
+    }
+
+    pending.clear();
+    pack(loaded);
+  }
+
+  /**
+   * Adds a prioritized region to the index
+   * @param region  the region to add
+   **/
+  public void add(PrioritizedRegion region) throws GamsDeadObjectException
+  {
+    add(region.getGeometry(), region.getPriority());
+  }
+
+  /**
+   * Adds a region geometry with a priority to the index
+   * @param geometry  the geometry of the region
+   * @param priority  the priority of the region
+   **/
+  public void add(RegionGeometry geometry, long priority)
+  {
+    pending.add(new Entry(geometry, priority));
+
+    if (pending.size() > Math.max(NODE_CAPACITY, entries.length / 4))
+    {
+      List<Entry> all = new ArrayList<Entry>(entries.length + pending.size());
+      all.addAll(Arrays.asList(entries));
+      all.addAll(pending);
+      pending.clear();
+      pack(all);
+    }
+  }
+
+  /**
+   * @return the number of regions in the index
+   **/
+  public int size()
+  {
+    return entries.length + pending.size();
+  }
+
+  /**
+   * Gets priority of a position, which is the highest priority of the
+   * regions that contain it
+   * @param lat  latitude of the point
+   * @param lon  longitude of the point
+   * @return the priority at the point, or 0 if no region contains it
+   **/
+  public long getPriority(double lat, double lon)
+  {
+    long priority = 0;
+
+    if (levels.length > 0)
+      priority = search(levels.length - 1, 0, lat, lon, priority, false);
+
+    for (Entry entry : pending)
+    {
+      if (entry.priority > priority && entry.geometry.contains(lat, lon))
+        priority = entry.priority;
+    }
+
+    return priority;
+  }
+
+  /**
+   * Gets priority of a position
+   * @param point  point to check
+   * @return the priority at the point, or 0 if no region contains it
+   **/
+  public long getPriority(GpsValue point)
+  {
+    return getPriority(point.getLatitude(), point.getLongitude());
+  }
+
+  /**
+   * Checks to see if a position is contained in any region
+   * @param lat  latitude of the point
+   * @param lon  longitude of the point
+   * @return true if a region contains the point
+   **/
+  public boolean contains(double lat, double lon)
+  {
+    if (levels.length > 0 &&
+        search(levels.length - 1, 0, lat, lon, 0, true) != 0)
+    {
+      return true;
+    }
+
+    for (Entry entry : pending)
+    {
+      if (entry.geometry.contains(lat, lon))
+        return true;
+    }
+
+    return false;
+  }
+
+  /**
+   * Checks to see if a position is contained in any region
+   * @param point  point to check
+   * @return true if a region contains the point
+   **/
+  public boolean contains(GpsValue point)
+  {
+    return contains(point.getLatitude(), point.getLongitude());
+  }
+
+  /**
+   * Gets the priorities of many positions
+   * @param lats  latitudes of the points
+   * @param lons  longitudes of the points, same length as lats
+   * @param out   receives the priority of each point, same length as lats
+   **/
+  public void getPriorities(double[] lats, double[] lons, long[] out)
+  {
+    checkLengths(lats, lons, out.length);
+
+    for (int i = 0; i < lats.length; ++i)
+      out[i] = getPriority(lats[i], lons[i]);
+  }
+
+  /**
+   * Checks many positions for containment
+   * @param lats  latitudes of the points
+   * @param lons  longitudes of the points, same length as lats
+   * @param out   receives true for each contained point, same length as lats
+   * @return the number of contained points
+   **/
+  public int containsAll(double[] lats, double[] lons, boolean[] out)
+  {
+    checkLengths(lats, lons, out.length);
+
+    int count = 0;
+    for (int i = 0; i < lats.length; ++i)
+    {
+      out[i] = contains(lats[i], lons[i]);
+      if (out[i])
+        ++count;
+    }
+
+    return count;
+  }
+
+  /**
+   * Descends the tree from a node, tracking the highest priority of the
+   * regions containing the point
+   * @param level     level of the node
+   * @param node      index of the node within its level
+   * @param lat       latitude of the point
+   * @param lon       longitude of the point
+   * @param priority  highest priority found so far
+   * @param any       if true, return 1 as soon as any region contains the point
+   * @return the highest priority found
+   **/
+  private long search(int level, int node, double lat, double lon,
+    long priority, boolean any)
+  {
+    double[] boxes = levels[level];
+    int box = node * 4;
+
+    if (lat < boxes[box] || lat > boxes[box + 1] ||
+        lon < boxes[box + 2] || lon > boxes[box + 3])
+    {
+      return priority;
+    }
+
+    if (level == 0)
+    {
+      Entry entry = entries[node];
+      if ((any || entry.priority > priority) &&
+          entry.geometry.contains(lat, lon))
+      {
+        return any ? 1 : entry.priority;
+      }
+      return priority;
+    }
+
+    int first = node * NODE_CAPACITY;
+    int last = Math.min(first + NODE_CAPACITY, levels[level - 1].length / 4);
+    for (int child = first; child < last; ++child)
+    {
+      priority = search(level - 1, child, lat, lon, priority, any);
+      if (any && priority != 0)
+        return priority;
+    }
+
+    return priority;
+  }
+
+  /**
+   * Packs entries into a new tree with Sort-Tile-Recursive ordering
+   * @param all  the entries to index
+   **/
+  private void pack(List<Entry> all)
+  {
+    Entry[] sorted = all.toArray(new Entry[all.size()]);
+    int count = sorted.length;
+
+    if (count == 0)
+    {
+      entries = sorted;
+      levels = new double[0][];
+      return;
+    }
+
+    // sort into vertical slices by latitude, then each slice by longitude
+    Arrays.sort(sorted, BY_LAT);
+    int leaves = (count + NODE_CAPACITY - 1) / NODE_CAPACITY;
+    int slices = (int) Math.ceil(Math.sqrt(leaves));
+    int sliceSize = slices * NODE_CAPACITY;
+    for (int start = 0; start < count; start += sliceSize)
+      Arrays.sort(sorted, start, Math.min(start + sliceSize, count), BY_LON);
+
+    List<double[]> built = new ArrayList<double[]>();
+    double[] boxes = new double[count * 4];
+    for (int i = 0; i < count; ++i)
+    {
+      RegionGeometry geometry = sorted[i].geometry;
+      boxes[i * 4] = geometry.getMinLat();
+      boxes[i * 4 + 1] = geometry.getMaxLat();
+      boxes[i * 4 + 2] = geometry.getMinLong();
+      boxes[i * 4 + 3] = geometry.getMaxLong();
+    }
+    built.add(boxes);
+
+    // each parent covers NODE_CAPACITY consecutive children
+    while (boxes.length > 4)
+    {
+      int children = boxes.length / 4;
+      int parents = (children + NODE_CAPACITY - 1) / NODE_CAPACITY;
+      double[] parentBoxes = new double[parents * 4];
+
+      for (int p = 0; p < parents; ++p)
+      {
+        double minLat = Double.MAX_VALUE, maxLat = -Double.MAX_VALUE;
+        double minLon = Double.MAX_VALUE, maxLon = -Double.MAX_VALUE;
+        int last = Math.min((p + 1) * NODE_CAPACITY, children);
+
+        for (int c = p * NODE_CAPACITY; c < last; ++c)
+        {
+          minLat = Math.min(minLat, boxes[c * 4]);
+          maxLat = Math.max(maxLat, boxes[c * 4 + 1]);
+          minLon = Math.min(minLon, boxes[c * 4 + 2]);
+          maxLon = Math.max(maxLon, boxes[c * 4 + 3]);
+        }
+
+        parentBoxes[p * 4] = minLat;
+        parentBoxes[p * 4 + 1] = maxLat;
+        parentBoxes[p * 4 + 2] = minLon;
+        parentBoxes[p * 4 + 3] = maxLon;
+      }
+
+      built.add(parentBoxes);
+      boxes = parentBoxes;
+    }
+
+    entries = sorted;
+    levels = built.toArray(new double[built.size()][]);
+  }
+
+  /**
+   * Validates the lengths of batch query arrays
+   **/
+  private static void checkLengths(double[] lats, double[] lons, int outLength)
+  {
+    if (lats.length != lons.length || lats.length != outLength)
+    {
+      throw new IllegalArgumentException(
+        "SearchAreaIndex: lats, lons and out must have the same length");
+    }
+  }
+}
@@ -0,0 +1,328 @@
+/*********************************************************************
+ * Copyright (c) 2013-2015 Carnegie Mellon University. All Rights Reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following acknowledgments and disclaimers.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *
+ * 3. The names "Carnegie Mellon University," "SEI" and/or
+ * "Software Engineering Institute" shall not be used to endorse or promote
+ * products derived from this software without prior written permission. For
+ * written permission, please contact permission@sei.cmu.edu.
+ *
+ * 4. Products derived from this software may not be called "SEI" nor may "SEI"
+ * appear in their names without prior written permission of
+ * permission@sei.cmu.edu.
+ *
+ * 5. Redistributions of any form whatsoever must retain the following
+ * acknowledgment:
+ *
+ * This material is based upon work funded and supported by the Department of
+ * Defense under Contract No. FA8721-05-C-0003 with Carnegie Mellon University
+ * for the operation of the Software Engineering Institute, a federally funded
+ * research and development center. Any opinions, findings and conclusions or
+ * recommendations expressed in this material are those of the author(s) and
+ * do not necessarily reflect the views of the United States Department of
+ * Defense.
+ *
+ * NO WARRANTY. THIS CARNEGIE MELLON UNIVERSITY AND SOFTWARE ENGINEERING
+ * INSTITUTE MATERIAL IS FURNISHED ON AN "AS-IS" BASIS. CARNEGIE MELLON
+ * UNIVERSITY MAKES NO WARRANTIES OF ANY KIND, EITHER EXPRESSED OR IMPLIED,
+ * AS TO ANY MATTER INCLUDING, BUT NOT LIMITED TO, WARRANTY OF FITNESS FOR
+ * PURPOSE OR MERCHANTABILITY, EXCLUSIVITY, OR RESULTS OBTAINED FROM USE OF THE
+ * MATERIAL. CARNEGIE MELLON UNIVERSITY DOES NOT MAKE ANY WARRANTY OF ANY KIND
+ * WITH RESPECT TO FREEDOM FROM PATENT, TRADEMARK, OR COPYRIGHT INFRINGEMENT.
+ *
+ * This material has been approved for public release and unlimited
+ * distribution.
+ *
+ * @author James Edmondson <jedmondson@gmail.com>
+ *********************************************************************/
+package ai.gams.utility;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Tracks the sequence numbers received from a single sender in a sliding
+ * window bitmap, so message loss, reordering and duplicates can be measured
+ * without keeping a set of missing numbers. Each word of the window holds
+ * 32 arrival bits and the 32-bit tag of the block of sequence numbers it
+ * currently covers, which lets a receive claim its bit and slide the window
+ * with a single compare-and-set. Recording is lock-free, allocation-free
+ * and may happen concurrently from several receive threads.
+ **/
+public class SequenceTracker
+{
+  private static final int BLOCK_BITS = 5;
+  private static final int BLOCK_SIZE = 1 << BLOCK_BITS;
+  private static final long BITS_MASK = 0xFFFFFFFFL;
+
+  /**
+   * Default number of sequence numbers covered by the window
+   **/
+  public static final int DEFAULT_WINDOW = 4096;
+
+  private final AtomicLongArray words;
+  private final int wordMask;
+  private final long window;
+
+  private final AtomicLong lowest = new AtomicLong(Long.MAX_VALUE);
+  private final AtomicLong highest = new AtomicLong(Long.MIN_VALUE);
+  private final AtomicLong received = new AtomicLong();
+  private final AtomicLong duplicates = new AtomicLong();
+  private final AtomicLong reordered = new AtomicLong();
+  private final AtomicLong stale = new AtomicLong();
+  private final AtomicLong maxReorderDepth = new AtomicLong();
+
+  /**
+   * Constructor for a window of {@link #DEFAULT_WINDOW} sequence numbers
+   **/
+  public SequenceTracker()
+  {
+    this(DEFAULT_WINDOW);
+  }
+
+  /**
+   * Constructor
+   * @param  window  the number of sequence numbers behind the highest one
+   *                 for which duplicates can still be told apart from late
+   *                 arrivals. Rounded up to a power of two of at least 64.
+   **/
+  public SequenceTracker(int window)
+  {
+    int wordCount = 2;
+    while (wordCount * BLOCK_SIZE < window)
+    {
+      wordCount <<= 1;
+    }
+
+    words = new AtomicLongArray(wordCount);
+    wordMask = wordCount - 1;
+
+    // the oldest block may be partially recycled by a racing receive, so
+    // only the blocks behind it are guaranteed to still be tracked
+    this.window = (long)(wordCount - 1) * BLOCK_SIZE;
+  }
+
+  /**
+   * Records the arrival of a sequence number
+   * @param  sequence  the sequence number of the received message
+   * @return false if the sequence number was already received, true
+   *         otherwise
+   **/
+  public boolean record(long sequence)
+  {
+    long current;
+    while (sequence < (current = lowest.get()) &&
+      !lowest.compareAndSet(current, sequence))
+    {
+    }
+
+    long previous;
+    while (sequence > (previous = highest.get()) &&
+      !highest.compareAndSet(previous, sequence))
+    {
+    }
+
+    long depth = 0;
+    if (previous != Long.MIN_VALUE && sequence < previous)
+    {
+      depth = previous - sequence;
+    }
+    if (depth >= window)
+    {
+      // the bits for this number have already been recycled, so assume it
+      // is a late arrival rather than a duplicate
+      stale.incrementAndGet();
+      onArrival(depth);
+      return true;
+    }
+
+    long block = sequence >> BLOCK_BITS;
+    int tag = (int)block;
+    long bit = 1L << (int)(sequence & (BLOCK_SIZE - 1));
+    int index = (int)block & wordMask;
+
+    while (true)
+    {
+      long word = words.get(index);
+      int age = tag - (int)(word >>> 32);
+      long updated;
+
+      if (word != 0 && age == 0)
+      {
+        if ((word & bit) != 0)
+        {
+          duplicates.incrementAndGet();
+          return false;
+        }
+        updated = word | bit;
+      }
+      else if (word == 0 || age > 0)
+      {
+        // slide the window: this word now tracks the newer block. A claimed
+        // word always has a bit set, so zero marks a word never used.
+        updated = ((long)tag << 32) | bit;
+      }
+      else
+      {
+        // a newer block has claimed the word since the window check
+        stale.incrementAndGet();
+        onArrival(depth);
+        return true;
+      }
+
+      if (words.compareAndSet(index, word, updated))
+      {
+        onArrival(depth);
+        return true;
+      }
+    }
+  }
+
+  /**
+   * Returns the lowest received sequence number
+   * @return the lowest sequence number, or -1 if nothing is received
+   **/
+  public long getFirst()
+  {
+    long result = lowest.get();
+    return result == Long.MAX_VALUE ? -1 : result;
+  }
+
+  /**
+   * Returns the highest received sequence number
+   * @return the highest sequence number, or -1 if nothing is received
+   **/
+  public long getLast()
+  {
+    long result = highest.get();
+    return result == Long.MIN_VALUE ? -1 : result;
+  }
+
+  /**
+   * Returns the number of messages expected between the first and last
+   * received sequence numbers, inclusive
+   * @return the expected number of messages
+   **/
+  public long getExpected()
+  {
+    long first = lowest.get();
+    long last = highest.get();
+    return first > last ? 0 : last - first + 1;
+  }
+
+  /**
+   * Returns the number of distinct messages received
+   * @return received messages, excluding detected duplicates
+   **/
+  public long getReceived()
+  {
+    return received.get();
+  }
+
+  /**
+   * Returns the number of expected messages that have not been received
+   * @return the number of missing messages
+   **/
+  public long getMissing()
+  {
+    return Math.max(0, getExpected() - received.get());
+  }
+
+  /**
+   * Returns the fraction of expected messages that have not been received
+   * @return the loss as a percentage in the range [0, 100]
+   **/
+  public double getLossPercent()
+  {
+    long expected = getExpected();
+    return expected == 0 ? 0 : 100.0 * getMissing() / expected;
+  }
+
+  /**
+   * Returns the number of duplicate messages that were detected
+   * @return the number of duplicates
+   **/
+  public long getDuplicates()
+  {
+    return duplicates.get();
+  }
+
+  /**
+   * Returns the number of messages that arrived after a higher sequence
+   * number
+   * @return the number of reordered messages
+   **/
+  public long getReordered()
+  {
+    return reordered.get();
+  }
+
+  /**
+   * Returns the largest distance a message arrived behind the highest
+   * sequence number seen at the time
+   * @return the maximum reorder depth in sequence numbers
+   **/
+  public long getMaxReorderDepth()
+  {
+    return maxReorderDepth.get();
+  }
+
+  /**
+   * Returns the number of messages that arrived too late to be checked
+   * against the window. These are counted as received, since a duplicate
+   * can no longer be told apart from a late arrival.
+   * @return the number of messages older than the window
+   **/
+  public long getStale()
+  {
+    return stale.get();
+  }
+
+  /**
+   * Returns the number of sequence numbers covered by the window
+   * @return the window size
+   **/
+  public long getWindow()
+  {
+    return window;
+  }
+
+  /**
+   * Converts the tracker to a summary string
+   * @return the range, loss, duplicate and reordering counts
+   **/
+  @Override
+  public java.lang.String toString()
+  {
+    return String.format(
+      "first=%d last=%d received=%d missing=%d loss=%.2f%% duplicates=%d " +
+      "reordered=%d max_reorder_depth=%d stale=%d",
+      getFirst(), getLast(), getReceived(), getMissing(), getLossPercent(),
+      getDuplicates(), getReordered(), getMaxReorderDepth(), getStale());
+  }
+
+  private void onArrival(long depth)
+  {
+    received.incrementAndGet();
+
+    if (depth > 0)
+    {
+      reordered.incrementAndGet();
+
+      long current;
+      while (depth > (current = maxReorderDepth.get()) &&
+        !maxReorderDepth.compareAndSet(current, depth))
+      {
+      }
+    }
+  }
+}
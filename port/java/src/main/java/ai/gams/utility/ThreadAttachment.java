@@ -0,0 +1,121 @@
+/*********************************************************************
+ * Copyright (c) 2013-2015 Carnegie Mellon University. All Rights Reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following acknowledgments and disclaimers.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *
+ * 3. The names "Carnegie Mellon University," "SEI" and/or
+ * "Software Engineering Institute" shall not be used to endorse or promote
+ * products derived from this software without prior written permission. For
+ * written permission, please contact permission@sei.cmu.edu.
+ *
+ * 4. Products derived from this software may not be called "SEI" nor may "SEI"
+ * appear in their names without prior written permission of
+ * permission@sei.cmu.edu.
+ *
+ * 5. Redistributions of any form whatsoever must retain the following
+ * acknowledgment:
+ *
+ * This material is based upon work funded and supported by the Department of
+ * Defense under Contract No. FA8721-05-C-0003 with Carnegie Mellon University
+ * for the operation of the Software Engineering Institute, a federally funded
+ * research and development center. Any opinions, findings and conclusions or
+ * recommendations expressed in this material are those of the author(s) and
+ * do not necessarily reflect the views of the United States Department of
+ * Defense.
+ *
+ * NO WARRANTY. THIS CARNEGIE MELLON UNIVERSITY AND SOFTWARE ENGINEERING
+ * INSTITUTE MATERIAL IS FURNISHED ON AN "AS-IS" BASIS. CARNEGIE MELLON
+ * UNIVERSITY MAKES NO WARRANTIES OF ANY KIND, EITHER EXPRESSED OR IMPLIED,
+ * AS TO ANY MATTER INCLUDING, BUT NOT LIMITED TO, WARRANTY OF FITNESS FOR
+ * PURPOSE OR MERCHANTABILITY, EXCLUSIVITY, OR RESULTS OBTAINED FROM USE OF THE
+ * MATERIAL. CARNEGIE MELLON UNIVERSITY DOES NOT MAKE ANY WARRANTY OF ANY KIND
+ * WITH RESPECT TO FREEDOM FROM PATENT, TRADEMARK, OR COPYRIGHT INFRINGEMENT.
+ *
+ * This material has been approved for public release and unlimited
+ * distribution.
+ *
+ * @author James Edmondson <jedmondson@gmail.com>
+ *********************************************************************/
+package ai.gams.utility;
+
+import ai.gams.GamsJNI;
+
+/**
+ * Controls how native threads are attached to the JVM for callbacks into
+ * Java platforms and algorithms, and reports how often attaching happens.
+ * By default, a native thread is attached for each callback and detached
+ * afterwards. With persistent attachment, it stays attached until it
+ * exits, so a steady-state MAPE loop on a native thread attaches once.
+ **/
+public abstract class ThreadAttachment extends GamsJNI
+{
+  private static native void jni_setPersistent(boolean enabled);
+  private static native boolean jni_isPersistent();
+  private static native long jni_getAttachCount();
+  private static native long jni_getDetachCount();
+  private static native long jni_getPersistentThreadCount();
+  private static native void jni_resetCounts();
+
+  /**
+   * Enables or disables persistent attachment for threads attached from
+   * now on. Native builds without thread local storage ignore this and
+   * attach for every callback.
+   * @param  enabled  true to keep attached threads attached
+   **/
+  public static void setPersistent(boolean enabled)
+  {
+    jni_setPersistent(enabled);
+  }
+
+  /**
+   * Checks if persistent attachment is enabled
+   * @return true if attached threads stay attached
+   **/
+  public static boolean isPersistent()
+  {
+    return jni_isPersistent();
+  }
+
+  /**
+   * Returns the number of native thread attaches
+   * @return attaches since the library loaded or the last reset
+   **/
+  public static long getAttachCount()
+  {
+    return jni_getAttachCount();
+  }
+
+  /**
+   * Returns the number of native thread detaches
+   * @return detaches since the library loaded or the last reset
+   **/
+  public static long getDetachCount()
+  {
+    return jni_getDetachCount();
+  }
+
+  /**
+   * Returns the number of threads kept attached
+   * @return threads currently attached persistently
+   **/
+  public static long getPersistentThreadCount()
+  {
+    return jni_getPersistentThreadCount();
+  }
+
+  /**
+   * Resets the attach and detach counts
+   **/
+  public static void resetCounts()
+  {
+    jni_resetCounts();
+  }
+}
@@ -47,6 +47,7 @@
 package ai.gams.variables;
 
 import ai.gams.GamsJNI;
+import ai.gams.NativeDisposer;
 import ai.gams.exceptions.GamsDeadObjectException;
 import ai.madara.knowledge.KnowledgeBase;
 import ai.madara.knowledge.Variables;
@@ -62,12 +63,23 @@ public class AccentStatus extends GamsJNI
   private native long jni_getCommand(long cptr);
   private native long jni_getArgs(long cptr);
 
+  private static final NativeDisposer DISPOSER =
+    new NativeDisposer("ai.gams.variables.AccentStatus")
+  {
+    @Override
+    protected void dispose(long cptr) throws Exception
+    {
+      jni_freeAccentStatus(cptr);
+    }
+  };
+
   /**
    * Default constructor
    **/
   public AccentStatus() throws GamsDeadObjectException
   {
     setCPtr(jni_AccentStatus());
+    track(DISPOSER);
     init();
   }
 
@@ -78,6 +90,7 @@ public class AccentStatus extends GamsJNI
   public AccentStatus(AccentStatus input) throws GamsDeadObjectException
   {
     setCPtr(jni_AccentStatus(input.getCPtr()));
+    track(DISPOSER);
     init();
   }
 
@@ -152,24 +165,9 @@ public class AccentStatus extends GamsJNI
    */
   public void free()
   {
-    jni_AccentStatus(getCPtr());
-      setCPtr(0);
-  }
-
-  /**
-   * Cleans up underlying C resources
-   * @throws Throwable necessary for override but unused
-   */
-  @Override
-  protected void finalize() throws Throwable
-  {
-    try {
-      free();
-    } catch (Throwable t) {
-      throw t;
-    } finally {
-      super.finalize();
-    }
+    untrack();
+    jni_freeAccentStatus(getCPtr());
+    setCPtr(0);
   }
 }
 
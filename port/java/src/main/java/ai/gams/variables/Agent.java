@@ -46,8 +46,12 @@
  *********************************************************************/
 package ai.gams.variables;
 
+import java.util.concurrent.Executor;
+
 import ai.gams.GamsJNI;
+import ai.gams.NativeDisposer;
 import ai.gams.exceptions.GamsDeadObjectException;
+import ai.madara.exceptions.MadaraDeadObjectException;
 import ai.madara.knowledge.KnowledgeBase;
 import ai.madara.knowledge.Variables;
 
@@ -73,14 +77,41 @@ public class Agent extends GamsJNI
   private native long jni_getSource(long cptr);
   private native long jni_getTemperature(long cptr);
 
+  private static final NativeDisposer DISPOSER =
+    new NativeDisposer("ai.gams.variables.Agent")
+  {
+    @Override
+    protected void dispose(long cptr) throws Exception
+    {
+      jni_freeAgent(cptr);
+    }
+  };
+
   private boolean manageMemory = true;
 
+  /**
+   * Constructor for an existing C object. Does not allocate the agent.
+   * @param cptr  C pointer to the object
+   * @param shouldManage  if true, manage the pointer
+   **/
+  private Agent(long cptr, boolean shouldManage) throws GamsDeadObjectException
+  {
+    manageMemory = shouldManage;
+    setCPtr(cptr);
+    if (shouldManage)
+    {
+      track(DISPOSER);
+    }
+    init();
+  }
+
   /**
    * Default constructor
    **/
   public Agent() throws GamsDeadObjectException
   {
     setCPtr(jni_Agent());
+    track(DISPOSER);
     init();
   }
 
@@ -91,6 +122,7 @@ public class Agent extends GamsJNI
   public Agent(Agent input) throws GamsDeadObjectException
   {
     setCPtr(jni_Agent(input.getCPtr()));
+    track(DISPOSER);
     init();
   }
 
@@ -102,11 +134,7 @@ public class Agent extends GamsJNI
    */
   public static Agent fromPointer(long cptr) throws GamsDeadObjectException
   {
-    Agent ret = new Agent();
-    ret.manageMemory = true;
-    ret.setCPtr(cptr);
-    ret.init();
-    return ret;
+    return new Agent(cptr, true);
   }
 
   /**
@@ -118,11 +146,40 @@ public class Agent extends GamsJNI
    */
   public static Agent fromPointer(long cptr, boolean shouldManage) throws GamsDeadObjectException
   {
-    Agent ret = new Agent();
-    ret.manageMemory=shouldManage;
-    ret.setCPtr(cptr);
-    ret.init();
-    return ret;
+    return new Agent(cptr, shouldManage);
+  }
+
+  /**
+   * Points an existing java object at a C/C++ pointer. If result already
+   * wraps cptr, its containers are kept and nothing is allocated.
+   * Otherwise the agent result previously managed, if any, is freed and the
+   * containers are rebuilt.
+   *
+   * @param cptr C pointer to the object
+   * @param shouldManage  if true, manage the pointer
+   * @param result  the wrapper to reuse
+   * @return result, now wrapping cptr
+   */
+  public static Agent fromPointer(long cptr, boolean shouldManage,
+    Agent result) throws GamsDeadObjectException
+  {
+    if (result.getCPtr() != cptr)
+    {
+      result.free();
+      result.setCPtr(cptr);
+      result.init();
+    }
+
+    result.manageMemory = shouldManage;
+    if (shouldManage)
+    {
+      result.track(DISPOSER);
+    }
+    else
+    {
+      result.untrack();
+    }
+    return result;
   }
 
   /**
@@ -254,6 +311,38 @@ public class Agent extends GamsJNI
    */
   public ai.madara.knowledge.containers.Double temperature;
 
+  /**
+   * Subscribes to changes of any of the agent's containers, without
+   * polling. To watch only some of them, create a ChangeSubscription and
+   * watch those containers.
+   * @param  knowledge  the knowledge base the containers refer to
+   * @param  executor   runs the listener calls
+   * @param  listener   receives the changed keys
+   * @return the started subscription. Free it to stop notifications.
+   */
+  public ChangeSubscription subscribe(KnowledgeBase knowledge,
+    Executor executor, ChangeListener listener)
+    throws GamsDeadObjectException, MadaraDeadObjectException
+  {
+    ChangeSubscription result =
+      new ChangeSubscription(knowledge, executor, listener);
+    result.watch(algorithm);
+    result.watch(algorithmArgs);
+    result.watch(batteryRemaining);
+    result.watch(bridgeId);
+    result.watch(coverageType);
+    result.watch(dest);
+    result.watch(home);
+    result.watch(isMobile);
+    result.watch(location);
+    result.watch(minAlt);
+    result.watch(nextCoverageType);
+    result.watch(searchAreaId);
+    result.watch(source);
+    result.watch(temperature);
+    return result.start();
+  }
+
   /**
    * Converts the value to a string
    *
@@ -272,25 +361,10 @@ public class Agent extends GamsJNI
   {
     if (manageMemory)
     {
+      untrack();
       jni_freeAgent(getCPtr());
       setCPtr(0);
     }
   }
-
-  /**
-   * Cleans up underlying C resources
-   * @throws Throwable necessary for override but unused
-   */
-  @Override
-  protected void finalize() throws Throwable
-  {
-    try {
-      free();
-    } catch (Throwable t) {
-      throw t;
-    } finally {
-      super.finalize();
-    }
-  }
 }
 
@@ -49,16 +49,28 @@ package ai.gams.variables;
 import java.util.AbstractList;
 
 import ai.gams.exceptions.GamsDeadObjectException;
+import ai.madara.knowledge.KnowledgeBase;
 
 /**
- * Agents provides a read-only interface for agents
+ * Agents provides a read-only interface for agents. The Agent returned for
+ * an index is created once, with its containers, and reused by every later
+ * call, so iterating the list repeatedly does not allocate.
  */
 public class Agents extends AbstractList<Agent>
 {
 	private native void jni_freeAgents(long[] records, int length);
 
+	private native long[] jni_initAgents(long kb, long processes);
+
+	private native void jni_getLocations(long[] records, int length, double[] result);
+
 	private long[] agents;
 
+	/**
+	 * Cached views of the agents, created on first access
+	 */
+	private Agent[] views;
+
 	/**
 	 * Constructor
 	 *
@@ -68,10 +80,26 @@ public class Agents extends AbstractList<Agent>
 	public Agents(long[] input)
 	{
 		agents = input;
+		views = new Agent[size()];
+	}
+
+	/**
+	 * Constructor for the agents agent.0 through agent.{processes - 1}
+	 *
+	 * @param knowledge
+	 *            the knowledge base that houses the agents
+	 * @param processes
+	 *            the number of agents in the swarm
+	 **/
+	public Agents(KnowledgeBase knowledge, long processes)
+	{
+		agents = jni_initAgents(knowledge.getCPtr(), processes);
+		views = new Agent[size()];
 	}
 
 	/**
-	 * Gets the agent at the specified index
+	 * Gets the agent at the specified index. The agent is owned by this
+	 * list and must not be freed.
 	 *
 	 * @see java.util.AbstractList#get (int)
 	 * @param index
@@ -80,15 +108,54 @@ public class Agents extends AbstractList<Agent>
 	@Override
 	public Agent get(int index)
 	{
-		try
+		Agent result = views[index];
+
+		if (result == null)
+		{
+			try
+			{
+				result = Agent.fromPointer(agents[index], false);
+				views[index] = result;
+			} catch (GamsDeadObjectException e)
+			{
+				e.printStackTrace();
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Copies the location of every agent into a packed array
+	 * {x0, y0, z0, x1, y1, z1, ...} with a single JNI call. Missing
+	 * coordinates are 0.
+	 *
+	 * @param result
+	 *            array to reuse. A new array is returned if it is null or
+	 *            shorter than 3 * size().
+	 * @return the packed locations
+	 */
+	public double[] getLocations(double[] result)
+	{
+		int length = size();
+
+		if (result == null || result.length < length * 3)
 		{
-			return Agent.fromPointer(agents[index]);
-		} catch (GamsDeadObjectException e)
+			result = new double[length * 3];
+		}
+
+		if (length > 0)
 		{
-			// TODO Auto-generated catch block
-			e.printStackTrace();
+			jni_getLocations(agents, length, result);
 		}
-		return null;
+		return result;
+	}
+
+	/**
+	 * @return the C pointers of the agents, or null if freed
+	 */
+	long[] getPointers()
+	{
+		return agents;
 	}
 
 	/**
@@ -105,7 +172,8 @@ public class Agents extends AbstractList<Agent>
 
 	/**
 	 * Deletes the C instantiation. To prevent memory leaks, this <b>must</b> be
-	 * called before an instance gets garbage collected
+	 * called before an instance gets garbage collected. Agents returned by
+	 * get must not be used afterwards.
 	 */
 	public void free()
 	{
@@ -113,5 +181,6 @@ public class Agents extends AbstractList<Agent>
 			return;
 		jni_freeAgents(agents, agents.length);
 		agents = null;
+		views = new Agent[0];
 	}
 }
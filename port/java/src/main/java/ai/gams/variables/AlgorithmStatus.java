@@ -47,6 +47,7 @@
 package ai.gams.variables;
 
 import ai.gams.GamsJNI;
+import ai.gams.NativeDisposer;
 import ai.gams.exceptions.GamsDeadObjectException;
 import ai.madara.knowledge.KnowledgeBase;
 import ai.madara.knowledge.Variables;
@@ -68,6 +69,16 @@ public class AlgorithmStatus extends GamsJNI
   private native long jni_getWaiting(long cptr);
   private native long jni_getFinished(long cptr);
 
+  private static final NativeDisposer DISPOSER =
+    new NativeDisposer("ai.gams.variables.AlgorithmStatus")
+  {
+    @Override
+    protected void dispose(long cptr) throws Exception
+    {
+      jni_freeAlgorithmStatus(cptr);
+    }
+  };
+
   private boolean manageMemory = true;
 
   /**
@@ -76,6 +87,7 @@ public class AlgorithmStatus extends GamsJNI
   public AlgorithmStatus() throws GamsDeadObjectException
   {
     setCPtr(jni_AlgorithmStatus());
+    track(DISPOSER);
     init();
   }
 
@@ -86,6 +98,7 @@ public class AlgorithmStatus extends GamsJNI
   public AlgorithmStatus(AlgorithmStatus input) throws GamsDeadObjectException
   {
     setCPtr(jni_AlgorithmStatus(input.getCPtr()));
+    track(DISPOSER);
     init();
   }
 
@@ -100,6 +113,7 @@ public class AlgorithmStatus extends GamsJNI
     AlgorithmStatus ret = new AlgorithmStatus();
     ret.manageMemory = true;
     ret.setCPtr(cptr);
+    ret.track(DISPOSER);
     ret.init();
     return ret;
   }
@@ -116,6 +130,14 @@ public class AlgorithmStatus extends GamsJNI
     AlgorithmStatus ret = new AlgorithmStatus();
     ret.manageMemory=shouldManage;
     ret.setCPtr(cptr);
+    if (shouldManage)
+    {
+      ret.track(DISPOSER);
+    }
+    else
+    {
+      ret.untrack();
+    }
     ret.init();
     return ret;
   }
@@ -223,25 +245,10 @@ public class AlgorithmStatus extends GamsJNI
   {
     if (manageMemory)
     {
+      untrack();
       jni_freeAlgorithmStatus(getCPtr());
       setCPtr(0);
     }
   }
-
-  /**
-   * Cleans up underlying C resources
-   * @throws Throwable necessary for override but unused
-   */
-  @Override
-  protected void finalize() throws Throwable
-  {
-    try {
-      free();
-    } catch (Throwable t) {
-      throw t;
-    } finally {
-      super.finalize();
-    }
-  }
 }
 
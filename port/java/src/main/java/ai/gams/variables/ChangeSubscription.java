@@ -0,0 +1,361 @@
+/*********************************************************************
+ * Copyright (c) 2013-2015 Carnegie Mellon University. All Rights Reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following acknowledgments and disclaimers.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *
+ * 3. The names "Carnegie Mellon University," "SEI" and/or
+ * "Software Engineering Institute" shall not be used to endorse or promote
+ * products derived from this software without prior written permission. For
+ * written permission, please contact permission@sei.cmu.edu.
+ *
+ * 4. Products derived from this software may not be called "SEI" nor may "SEI"
+ * appear in their names without prior written permission of
+ * permission@sei.cmu.edu.
+ *
+ * 5. Redistributions of any form whatsoever must retain the following
+ * acknowledgment:
+ *
+ * This material is based upon work funded and supported by the Department of
+ * Defense under Contract No. FA8721-05-C-0003 with Carnegie Mellon University
+ * for the operation of the Software Engineering Institute, a federally funded
+ * research and development center. Any opinions, findings and conclusions or
+ * recommendations expressed in this material are those of the author(s) and
+ * do not necessarily reflect the views of the United States Department of
+ * Defense.
+ *
+ * NO WARRANTY. THIS CARNEGIE MELLON UNIVERSITY AND SOFTWARE ENGINEERING
+ * INSTITUTE MATERIAL IS FURNISHED ON AN "AS-IS" BASIS. CARNEGIE MELLON
+ * UNIVERSITY MAKES NO WARRANTIES OF ANY KIND, EITHER EXPRESSED OR IMPLIED,
+ * AS TO ANY MATTER INCLUDING, BUT NOT LIMITED TO, WARRANTY OF FITNESS FOR
+ * PURPOSE OR MERCHANTABILITY, EXCLUSIVITY, OR RESULTS OBTAINED FROM USE OF THE
+ * MATERIAL. CARNEGIE MELLON UNIVERSITY DOES NOT MAKE ANY WARRANTY OF ANY KIND
+ * WITH RESPECT TO FREEDOM FROM PATENT, TRADEMARK, OR COPYRIGHT INFRINGEMENT.
+ *
+ * This material has been approved for public release and unlimited
+ * distribution.
+ *
+ * @author James Edmondson <jedmondson@gmail.com>
+ *********************************************************************/
+package ai.gams.variables;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executor;
+
+import ai.gams.GamsJNI;
+import ai.gams.NativeDisposer;
+import ai.gams.exceptions.GamsDeadObjectException;
+import ai.madara.exceptions.MadaraDeadObjectException;
+import ai.madara.knowledge.KnowledgeBase;
+import ai.madara.knowledge.containers.BaseContainer;
+import ai.madara.knowledge.containers.Map;
+import ai.madara.knowledge.containers.Vector;
+
+/**
+ * Watches knowledge base keys and notifies a listener when their values
+ * change, whether through local writes or remote updates. A dispatcher
+ * thread blocks in native code on the knowledge base's change signal, so a
+ * subscription costs no CPU while nothing changes. Changes are compared by
+ * value, and bursts of changes are coalesced into one listener call per
+ * executor task.
+ * <p>
+ * Keys are added with watch or watchPrefix before start. A prefix watch
+ * covers every key that begins with the prefix, which suits Vector and Map
+ * containers. The knowledge base must outlive the subscription.
+ */
+public class ChangeSubscription extends GamsJNI
+{
+  private native long jni_ChangeSubscription(long kb);
+  private static native void jni_freeChangeSubscription(long cptr);
+  private native void jni_watch(long cptr, java.lang.String key, boolean prefix);
+  private native int jni_waitForChanges(long cptr, int[] changed);
+  private native void jni_close(long cptr);
+
+  private static final NativeDisposer DISPOSER =
+    new NativeDisposer("ai.gams.variables.ChangeSubscription")
+  {
+    @Override
+    protected void dispose(long cptr) throws Exception
+    {
+      jni_freeChangeSubscription(cptr);
+    }
+  };
+
+  private final Executor executor;
+  private final ChangeListener listener;
+
+  private final List<java.lang.String> keys = new ArrayList<java.lang.String>();
+
+  /**
+   * Changed key indices not yet delivered. Guarded by this.
+   */
+  private boolean[] pending = new boolean[0];
+  private boolean hasPending = false;
+  private boolean delivering = false;
+
+  private volatile boolean closed = false;
+  private Thread dispatcher = null;
+  private long deliveries = 0;
+
+  private final Runnable delivery = new Runnable()
+  {
+    @Override
+    public void run()
+    {
+      deliver();
+    }
+  };
+
+  /**
+   * Constructor
+   * @param knowledge  the knowledge base to watch
+   * @param executor  runs listener calls. An executor that runs tasks in
+   *                  the calling thread calls the listener on the
+   *                  dispatcher thread.
+   * @param listener  receives the changes
+   */
+  public ChangeSubscription(KnowledgeBase knowledge, Executor executor,
+    ChangeListener listener) throws GamsDeadObjectException
+  {
+    this.executor = executor;
+    this.listener = listener;
+    setCPtr(jni_ChangeSubscription(knowledge.getCPtr()));
+    track(DISPOSER);
+  }
+
+  /**
+   * Watches a single key
+   * @param key  the key to watch
+   * @return this subscription
+   */
+  public synchronized ChangeSubscription watch(java.lang.String key)
+    throws GamsDeadObjectException
+  {
+    return add(key, false);
+  }
+
+  /**
+   * Watches every key that starts with a prefix
+   * @param prefix  the prefix of the keys to watch, e.g. "swarm.command.args."
+   * @return this subscription
+   */
+  public synchronized ChangeSubscription watchPrefix(java.lang.String prefix)
+    throws GamsDeadObjectException
+  {
+    return add(prefix, true);
+  }
+
+  /**
+   * Watches the keys of a container. Vector and Map containers are watched
+   * by prefix (name + "."), other containers by name.
+   * @param container  the container to watch
+   * @return this subscription
+   */
+  public synchronized ChangeSubscription watch(BaseContainer container)
+    throws GamsDeadObjectException, MadaraDeadObjectException
+  {
+    if (container instanceof Vector || container instanceof Map)
+    {
+      return add(container.getName() + ".", true);
+    }
+    return add(container.getName(), false);
+  }
+
+  private ChangeSubscription add(java.lang.String key, boolean prefix)
+    throws GamsDeadObjectException
+  {
+    if (dispatcher != null)
+    {
+      throw new IllegalStateException(
+        "ChangeSubscription: keys must be watched before start");
+    }
+
+    jni_watch(getCPtr(), key, prefix);
+    keys.add(key);
+    return this;
+  }
+
+  /**
+   * @return the watched keys and prefixes, in the order they were added
+   */
+  public synchronized List<java.lang.String> getKeys()
+  {
+    return Collections.unmodifiableList(new ArrayList<java.lang.String>(keys));
+  }
+
+  /**
+   * Starts the dispatcher thread. Values at this point are the baseline;
+   * only later changes are reported.
+   * @return this subscription
+   */
+  public synchronized ChangeSubscription start()
+  {
+    if (dispatcher == null && !closed)
+    {
+      pending = new boolean[keys.size()];
+
+      dispatcher = new Thread(new Runnable()
+      {
+        @Override
+        public void run()
+        {
+          dispatch();
+        }
+      }, "gams-change-subscription");
+      dispatcher.setDaemon(true);
+      dispatcher.start();
+    }
+    return this;
+  }
+
+  /**
+   * @return the number of listener calls made so far
+   */
+  public synchronized long getDeliveryCount()
+  {
+    return deliveries;
+  }
+
+  private void dispatch()
+  {
+    int[] changed = new int[keys.size()];
+
+    while (!closed)
+    {
+      int count = jni_waitForChanges(getCPtr(), changed);
+
+      if (count < 0)
+      {
+        break;
+      }
+
+      boolean submit = false;
+
+      synchronized (this)
+      {
+        for (int i = 0; i < count; ++i)
+        {
+          pending[changed[i]] = true;
+        }
+
+        if (count > 0 && !delivering)
+        {
+          hasPending = true;
+          delivering = true;
+          submit = true;
+        }
+        else if (count > 0)
+        {
+          hasPending = true;
+        }
+      }
+
+      if (submit)
+      {
+        executor.execute(delivery);
+      }
+    }
+  }
+
+  private void deliver()
+  {
+    while (true)
+    {
+      Set<java.lang.String> changedKeys = new LinkedHashSet<java.lang.String>();
+
+      synchronized (this)
+      {
+        if (!hasPending || closed)
+        {
+          delivering = false;
+          return;
+        }
+
+        for (int i = 0; i < pending.length; ++i)
+        {
+          if (pending[i])
+          {
+            changedKeys.add(keys.get(i));
+            pending[i] = false;
+          }
+        }
+        hasPending = false;
+        ++deliveries;
+      }
+
+      try
+      {
+        listener.changed(this, Collections.unmodifiableSet(changedKeys));
+      }
+      catch (RuntimeException e)
+      {
+        e.printStackTrace();
+      }
+    }
+  }
+
+  /**
+   * Stops the dispatcher and deletes the C instantiation. Pending changes
+   * are dropped.
+   */
+  @Override
+  public void free()
+  {
+    Thread thread;
+
+    synchronized (this)
+    {
+      if (getCPtr() == 0)
+      {
+        return;
+      }
+
+      closed = true;
+      thread = dispatcher;
+    }
+
+    jni_close(getCPtr());
+
+    // the dispatcher may be inside the native wait until it exits, so an
+    // interrupt must not cut the join short
+    boolean interrupted = false;
+
+    if (thread != null && thread != Thread.currentThread())
+    {
+      while (thread.isAlive())
+      {
+        try
+        {
+          thread.join();
+        }
+        catch (InterruptedException e)
+        {
+          interrupted = true;
+        }
+      }
+    }
+
+    synchronized (this)
+    {
+      untrack();
+      jni_freeChangeSubscription(getCPtr());
+      setCPtr(0);
+    }
+
+    if (interrupted)
+    {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
@@ -47,6 +47,7 @@
 package ai.gams.variables;
 
 import ai.gams.GamsJNI;
+import ai.gams.NativeDisposer;
 import ai.gams.exceptions.GamsDeadObjectException;
 import ai.madara.knowledge.KnowledgeBase;
 import ai.madara.knowledge.Variables;
@@ -73,6 +74,16 @@ public class PlatformStatus extends GamsJNI
   private native long jni_getSensorsAvailable(long cptr);
   private native long jni_getWaiting(long cptr);
 
+  private static final NativeDisposer DISPOSER =
+    new NativeDisposer("ai.gams.variables.PlatformStatus")
+  {
+    @Override
+    protected void dispose(long cptr) throws Exception
+    {
+      jni_freePlatformStatus(cptr);
+    }
+  };
+
   private boolean manageMemory = true;
 
   /**
@@ -81,6 +92,7 @@ public class PlatformStatus extends GamsJNI
   public PlatformStatus() throws GamsDeadObjectException
   {
     setCPtr(jni_PlatformStatus());
+    track(DISPOSER);
     init();
   }
 
@@ -91,6 +103,7 @@ public class PlatformStatus extends GamsJNI
   public PlatformStatus(PlatformStatus input) throws GamsDeadObjectException
   {
     setCPtr(jni_PlatformStatus(input.getCPtr()));
+    track(DISPOSER);
     init();
   }
 
@@ -115,6 +128,7 @@ public class PlatformStatus extends GamsJNI
     PlatformStatus ret = new PlatformStatus();
     ret.manageMemory = true;
     ret.setCPtr(cptr);
+    ret.track(DISPOSER);
     ret.init();
     return ret;
   }
@@ -131,6 +145,14 @@ public class PlatformStatus extends GamsJNI
     PlatformStatus ret = new PlatformStatus();
     ret.manageMemory=shouldManage;
     ret.setCPtr(cptr);
+    if (shouldManage)
+    {
+      ret.track(DISPOSER);
+    }
+    else
+    {
+      ret.untrack();
+    }
     ret.init();
     return ret;
   }
@@ -268,24 +290,9 @@ public class PlatformStatus extends GamsJNI
   {
     if (manageMemory)
     {
+      untrack();
       jni_freePlatformStatus(getCPtr());
     }
   }
-
-  /**
-   * Cleans up underlying C resources
-   * @throws Throwable necessary for override but unused
-   */
-  @Override
-  protected void finalize() throws Throwable
-  {
-    try {
-      free();
-    } catch (Throwable t) {
-      throw t;
-    } finally {
-      super.finalize();
-    }
-  }
 }
 
@@ -47,6 +47,7 @@
 package ai.gams.variables;
 
 import ai.gams.GamsJNI;
+import ai.gams.NativeDisposer;
 import ai.madara.knowledge.KnowledgeBase;
 import ai.madara.knowledge.Variables;
 
@@ -60,12 +61,23 @@ public class Region extends GamsJNI
   private native java.lang.String jni_toString(long cptr);
   private native long jni_getVertices(long cptr);
 
+  private static final NativeDisposer DISPOSER =
+    new NativeDisposer("ai.gams.variables.Region")
+  {
+    @Override
+    protected void dispose(long cptr) throws Exception
+    {
+      jni_freeRegion(cptr);
+    }
+  };
+
   /**
    * Default constructor
    **/
   public Region()
   {
     setCPtr(jni_Region());
+    track(DISPOSER);
     init();
   }
 
@@ -76,6 +88,7 @@ public class Region extends GamsJNI
   public Region(Region input)
   {
     setCPtr(jni_Region(input.getCPtr()));
+    track(DISPOSER);
     init();
   }
 
@@ -143,6 +156,7 @@ public class Region extends GamsJNI
    */
   public void free()
   {
+    untrack();
     jni_freeRegion(getCPtr());
     setCPtr(0);
   }
@@ -46,8 +46,12 @@
  *********************************************************************/
 package ai.gams.variables;
 
+import java.util.concurrent.Executor;
+
 import ai.gams.GamsJNI;
+import ai.gams.NativeDisposer;
 import ai.gams.exceptions.GamsDeadObjectException;
+import ai.madara.exceptions.MadaraDeadObjectException;
 import ai.madara.knowledge.KnowledgeBase;
 import ai.madara.knowledge.Variables;
 import ai.madara.knowledge.containers.Integer;
@@ -62,6 +66,16 @@ public class Self extends GamsJNI
   private native long jni_getId(long cptr);
   private native long jni_getAgent(long cptr);
 
+  private static final NativeDisposer DISPOSER =
+    new NativeDisposer("ai.gams.variables.Self")
+  {
+    @Override
+    protected void dispose(long cptr) throws Exception
+    {
+      jni_freeSelf(cptr);
+    }
+  };
+
   private boolean manageMemory = true;
 
   /**
@@ -70,6 +84,7 @@ public class Self extends GamsJNI
   public Self() throws GamsDeadObjectException
   {
     setCPtr(jni_Self());
+    track(DISPOSER);
     init();
   }
 
@@ -80,6 +95,7 @@ public class Self extends GamsJNI
   public Self(Self input) throws GamsDeadObjectException
   {
     setCPtr(jni_Self(input.getCPtr()));
+    track(DISPOSER);
     init();
   }
 
@@ -94,6 +110,7 @@ public class Self extends GamsJNI
     Self ret = new Self();
     ret.manageMemory = true;
     ret.setCPtr(cptr);
+    ret.track(DISPOSER);
     ret.init();
     return ret;
   }
@@ -110,6 +127,14 @@ public class Self extends GamsJNI
     Self ret = new Self();
     ret.manageMemory=shouldManage;
     ret.setCPtr(cptr);
+    if (shouldManage)
+    {
+      ret.track(DISPOSER);
+    }
+    else
+    {
+      ret.untrack();
+    }
     ret.init();
     return ret;
   }
@@ -157,6 +182,38 @@ public class Self extends GamsJNI
    */
   public Agent agent;
 
+  /**
+   * Subscribes to changes of the agent id or any of the agent's containers,
+   * without polling
+   * @param  knowledge  the knowledge base the containers refer to
+   * @param  executor   runs the listener calls
+   * @param  listener   receives the changed keys
+   * @return the started subscription. Free it to stop notifications.
+   */
+  public ChangeSubscription subscribe(KnowledgeBase knowledge,
+    Executor executor, ChangeListener listener)
+    throws GamsDeadObjectException, MadaraDeadObjectException
+  {
+    ChangeSubscription result =
+      new ChangeSubscription(knowledge, executor, listener);
+    result.watch(id);
+    result.watch(agent.algorithm);
+    result.watch(agent.algorithmArgs);
+    result.watch(agent.batteryRemaining);
+    result.watch(agent.bridgeId);
+    result.watch(agent.coverageType);
+    result.watch(agent.dest);
+    result.watch(agent.home);
+    result.watch(agent.isMobile);
+    result.watch(agent.location);
+    result.watch(agent.minAlt);
+    result.watch(agent.nextCoverageType);
+    result.watch(agent.searchAreaId);
+    result.watch(agent.source);
+    result.watch(agent.temperature);
+    return result.start();
+  }
+
   /**
    * Converts the value to a string
    *
@@ -175,25 +232,10 @@ public class Self extends GamsJNI
   {
     if (manageMemory)
     {
+      untrack();
       jni_freeSelf(getCPtr());
       setCPtr(0);
     }
   }
-
-  /**
-   * Cleans up underlying C resources
-   * @throws Throwable necessary for override but unused
-   */
-  @Override
-  protected void finalize() throws Throwable
-  {
-    try {
-      free();
-    } catch (Throwable t) {
-      throw t;
-    } finally {
-      super.finalize();
-    }
-  }
 }
 
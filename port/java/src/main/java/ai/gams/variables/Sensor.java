@@ -49,6 +49,7 @@ package ai.gams.variables;
 import java.util.HashSet;
 
 import ai.gams.GamsJNI;
+import ai.gams.NativeDisposer;
 import ai.gams.exceptions.GamsDeadObjectException;
 import ai.gams.utility.GpsPosition;
 import ai.gams.utility.Position;
@@ -75,6 +76,30 @@ public class Sensor extends GamsJNI
   private native double jni_getDiscretization(long cptr);
   private native long[] jni_discretizeRegion(long cptr, long region);
   private native long[] jni_discretizeSearchArea(long cptr, long area);
+  private native int[] jni_discretizeRegionToArray(long cptr, long region);
+  private native int[] jni_discretizeSearchAreaToArray(long cptr, long area);
+  private native void jni_readGrid(long cptr, java.nio.ByteBuffer buffer, int minX, int minY, int width, int height);
+  private native void jni_writeGrid(long cptr, java.nio.ByteBuffer buffer, int minX, int minY, int width, int[] spans);
+  private native void jni_initUtilityCache(long cptr, long area, double time);
+  private native void jni_initUtilityCacheCells(long cptr, int minX, int minY, int width, int height, int[] cells, double time);
+  private native void jni_markVisited(long cptr, int x, int y, double time);
+  private native void jni_markVisitedCells(long cptr, int[] cells, double time);
+  private native double jni_getLastVisit(long cptr, int x, int y);
+  private native double jni_getUtility(long cptr, int x, int y, double time);
+  private native int jni_refreshUtilityCache(long cptr, double time);
+  private native int jni_getUtilityCacheDirtyRows(long cptr);
+  private native double jni_getPathUtility(long cptr, int startX, int startY, int endX, int endY, double radius, double time);
+  private native void jni_getPathUtilities(long cptr, int startX, int startY, int[] ends, double radius, double time, double[] results, int threads);
+
+  private static final NativeDisposer DISPOSER =
+    new NativeDisposer("ai.gams.variables.Sensor")
+  {
+    @Override
+    protected void dispose(long cptr) throws Exception
+    {
+      jni_freeSensor(cptr);
+    }
+  };
 
   private boolean manageMemory = true;
 
@@ -84,6 +109,7 @@ public class Sensor extends GamsJNI
   public Sensor()
   {
     setCPtr(jni_Sensor());
+    track(DISPOSER);
   }
 
   /**
@@ -93,6 +119,7 @@ public class Sensor extends GamsJNI
   public Sensor(Sensor input)
   {
     setCPtr(jni_Sensor(input.getCPtr()));
+    track(DISPOSER);
   }
 
   /**
@@ -234,6 +261,233 @@ public class Sensor extends GamsJNI
     return hash;
   }
 
+  /**
+   * Discretizes the region into cell indices with a single JNI call
+   * @param  region  the region to discretize
+   * @return cell indices within the region packed as {x0, y0, x1, y1, ...}
+   **/
+  public int[] discretizeToArray(ai.gams.utility.Region region) throws GamsDeadObjectException
+  {
+    return jni_discretizeRegionToArray(getCPtr(), region.getCPtr());
+  }
+
+  /**
+   * Discretizes the area into cell indices with a single JNI call
+   * @param  area  the area to discretize
+   * @return cell indices within the area packed as {x0, y0, x1, y1, ...}
+   **/
+  public int[] discretizeToArray(ai.gams.utility.SearchArea area) throws GamsDeadObjectException
+  {
+    return jni_discretizeSearchAreaToArray(getCPtr(), area.getCPtr());
+  }
+
+  /**
+   * Reads a window of cell values from the knowledge base into a direct,
+   * native-order buffer laid out row by row
+   * @param  buffer  destination with room for width * height doubles
+   * @param  minX    x index of the first column
+   * @param  minY    y index of the first row
+   * @param  width   number of columns
+   * @param  height  number of rows
+   **/
+  void readGrid(java.nio.ByteBuffer buffer, int minX, int minY, int width, int height) throws GamsDeadObjectException
+  {
+    jni_readGrid(getCPtr(), buffer, minX, minY, width, height);
+  }
+
+  /**
+   * Writes spans of cell values from a direct, native-order buffer into
+   * the knowledge base
+   * @param  buffer  source laid out row by row
+   * @param  minX    x index of the first column
+   * @param  minY    y index of the first row
+   * @param  width   number of columns
+   * @param  spans   spans packed as {row, first column, last column, ...}.
+   *                 Negative rows and columns outside of [0, width) are
+   *                 skipped.
+   **/
+  void writeGrid(java.nio.ByteBuffer buffer, int minX, int minY, int width, int[] spans) throws GamsDeadObjectException
+  {
+    jni_writeGrid(getCPtr(), buffer, minX, minY, width, spans);
+  }
+
+  /**
+   * Discretizes the region into cells that can be iterated without
+   * allocation
+   * @param  region  the region to discretize
+   * @return cells within the region
+   **/
+  public SensorCells discretizeCells(ai.gams.utility.Region region) throws GamsDeadObjectException
+  {
+    return new SensorCells(discretizeToArray(region));
+  }
+
+  /**
+   * Discretizes the area into cells that can be iterated without
+   * allocation
+   * @param  area  the area to discretize
+   * @return cells within the area
+   **/
+  public SensorCells discretizeCells(ai.gams.utility.SearchArea area) throws GamsDeadObjectException
+  {
+    return new SensorCells(discretizeToArray(area));
+  }
+
+  /**
+   * Builds the utility cache over the cells of a search area. The cache
+   * holds the last visit time of each cell, and the utility of a cell is
+   * the cube of the time since its last visit. It lives in native memory
+   * and is not shared through the knowledge base.
+   * @param  area  the area to cover
+   * @param  time  the initial visit time of every cell
+   **/
+  public void initUtilityCache(ai.gams.utility.SearchArea area, double time) throws GamsDeadObjectException
+  {
+    jni_initUtilityCache(getCPtr(), area.getCPtr(), time);
+  }
+
+  /**
+   * Builds the utility cache over a set of cells
+   * @param  cells  the cells to cover
+   * @param  time   the initial visit time of every cell
+   **/
+  public void initUtilityCache(SensorCells cells, double time) throws GamsDeadObjectException
+  {
+    jni_initUtilityCacheCells(getCPtr(), cells.getMinX(), cells.getMinY(),
+      cells.getWidth(), cells.getHeight(), cells.toArray(), time);
+  }
+
+  /**
+   * Marks a cell as visited in the utility cache. Only the row of the
+   * cell is recomputed on the next refresh.
+   * @param  x     x index of the cell
+   * @param  y     y index of the cell
+   * @param  time  time of the visit
+   **/
+  public void markVisited(int x, int y, double time) throws GamsDeadObjectException
+  {
+    jni_markVisited(getCPtr(), x, y, time);
+  }
+
+  /**
+   * Marks cells as visited in the utility cache with a single JNI call
+   * @param  cells  cell indices packed as {x0, y0, x1, y1, ...}
+   * @param  time   time of the visits
+   **/
+  public void markVisited(int[] cells, double time) throws GamsDeadObjectException
+  {
+    jni_markVisitedCells(getCPtr(), cells, time);
+  }
+
+  /**
+   * Gets the last visit time of a cell in the utility cache
+   * @param  x  x index of the cell
+   * @param  y  y index of the cell
+   * @return the time of the last visit
+   **/
+  public double getLastVisit(int x, int y) throws GamsDeadObjectException
+  {
+    return jni_getLastVisit(getCPtr(), x, y);
+  }
+
+  /**
+   * Gets the utility of a single cell in the utility cache
+   * @param  x     x index of the cell
+   * @param  y     y index of the cell
+   * @param  time  the current time
+   * @return the cube of the time since the last visit
+   **/
+  public double getUtility(int x, int y, double time) throws GamsDeadObjectException
+  {
+    return jni_getUtility(getCPtr(), x, y, time);
+  }
+
+  /**
+   * Recomputes the rows of the utility cache touched since the last
+   * refresh. Path utilities read the cache as of the last refresh.
+   * @param  time  the current time
+   * @return the number of rows recomputed
+   **/
+  public int refreshUtilityCache(double time) throws GamsDeadObjectException
+  {
+    return jni_refreshUtilityCache(getCPtr(), time);
+  }
+
+  /**
+   * @return the number of utility cache rows waiting for a refresh
+   **/
+  public int getUtilityCacheDirtyRows() throws GamsDeadObjectException
+  {
+    return jni_getUtilityCacheDirtyRows(getCPtr());
+  }
+
+  /**
+   * Sums the utilities of the cells within a radius of a path
+   * @param  startX  x index of the start of the path
+   * @param  startY  y index of the start of the path
+   * @param  endX    x index of the end of the path
+   * @param  endY    y index of the end of the path
+   * @param  radius  the radius around the path, in cells
+   * @param  time    the current time
+   * @return the utility of the path
+   **/
+  public double getPathUtility(int startX, int startY, int endX, int endY,
+    double radius, double time) throws GamsDeadObjectException
+  {
+    return jni_getPathUtility(getCPtr(), startX, startY, endX, endY,
+      radius, time);
+  }
+
+  /**
+   * Sums the utilities along paths from one cell to many with a single
+   * JNI call
+   * @param  startX   x index of the start of the paths
+   * @param  startY   y index of the start of the paths
+   * @param  ends     path ends packed as {x0, y0, x1, y1, ...}
+   * @param  radius   the radius around each path, in cells
+   * @param  time     the current time
+   * @param  results  receives one utility per path end
+   **/
+  public void getPathUtilities(int startX, int startY, int[] ends,
+    double radius, double time, double[] results) throws GamsDeadObjectException
+  {
+    getPathUtilities(startX, startY, ends, radius, time, results, 1);
+  }
+
+  /**
+   * Sums the utilities along paths from one cell to many with a single
+   * JNI call, splitting the paths over native threads. Each result is
+   * computed by one thread, so results do not depend on the number of
+   * threads. The cache must not be modified during the call.
+   * @param  startX   x index of the start of the paths
+   * @param  startY   y index of the start of the paths
+   * @param  ends     path ends packed as {x0, y0, x1, y1, ...}
+   * @param  radius   the radius around each path, in cells
+   * @param  time     the current time
+   * @param  results  receives one utility per path end
+   * @param  threads  the number of threads, or 0 for one per processor
+   **/
+  public void getPathUtilities(int startX, int startY, int[] ends,
+    double radius, double time, double[] results, int threads)
+    throws GamsDeadObjectException
+  {
+    if (results.length < ends.length / 2)
+    {
+      throw new IllegalArgumentException(
+        "Sensor::getPathUtilities: results has room for " + results.length +
+        " of " + ends.length / 2 + " paths");
+    }
+
+    if (threads < 0)
+    {
+      throw new IllegalArgumentException(
+        "Sensor::getPathUtilities: threads must not be negative");
+    }
+
+    jni_getPathUtilities(getCPtr(), startX, startY, ends, radius, time,
+      results, threads);
+  }
+
   /**
    * Creates a java object instance from a C/C++ pointer
    *
@@ -245,6 +499,7 @@ public class Sensor extends GamsJNI
     Sensor ret = new Sensor();
     ret.manageMemory = true;
     ret.setCPtr(cptr);
+    ret.track(DISPOSER);
     return ret;
   }
 
@@ -260,6 +515,14 @@ public class Sensor extends GamsJNI
     Sensor ret = new Sensor();
     ret.manageMemory=shouldManage;
     ret.setCPtr(cptr);
+    if (shouldManage)
+    {
+      ret.track(DISPOSER);
+    }
+    else
+    {
+      ret.untrack();
+    }
     return ret;
   }
 
@@ -303,25 +566,10 @@ public class Sensor extends GamsJNI
   {
     if (manageMemory)
     {
+      untrack();
       jni_freeSensor(getCPtr());
       setCPtr(0);
     }
   }
-
-  /**
-   * Cleans up underlying C resources
-   * @throws Throwable necessary for override but unused
-   */
-  @Override
-  protected void finalize() throws Throwable
-  {
-    try {
-      free();
-    } catch (Throwable t) {
-      throw t;
-    } finally {
-      super.finalize();
-    }
-  }
 }
 
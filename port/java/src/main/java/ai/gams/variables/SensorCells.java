@@ -0,0 +1,236 @@
+/*********************************************************************
+ * Copyright (c) 2013-2015 Carnegie Mellon University. All Rights Reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following acknowledgments and disclaimers.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *
+ * 3. The names "Carnegie Mellon University," "SEI" and/or
+ * "Software Engineering Institute" shall not be used to endorse or promote
+ * products derived from this software without prior written permission. For
+ * written permission, please contact permission@sei.cmu.edu.
+ *
+ * 4. Products derived from this software may not be called "SEI" nor may "SEI"
+ * appear in their names without prior written permission of
+ * permission@sei.cmu.edu.
+ *
+ * 5. Redistributions of any form whatsoever must retain the following
+ * acknowledgment:
+ *
+ * This material is based upon work funded and supported by the Department of
+ * Defense under Contract No. FA8721-05-C-0003 with Carnegie Mellon University
+ * for the operation of the Software Engineering Institute, a federally funded
+ * research and development center. Any opinions, findings and conclusions or
+ * recommendations expressed in this material are those of the author(s) and
+ * do not necessarily reflect the views of the United States Department of
+ * Defense.
+ *
+ * NO WARRANTY. THIS CARNEGIE MELLON UNIVERSITY AND SOFTWARE ENGINEERING
+ * INSTITUTE MATERIAL IS FURNISHED ON AN "AS-IS" BASIS. CARNEGIE MELLON
+ * UNIVERSITY MAKES NO WARRANTIES OF ANY KIND, EITHER EXPRESSED OR IMPLIED,
+ * AS TO ANY MATTER INCLUDING, BUT NOT LIMITED TO, WARRANTY OF FITNESS FOR
+ * PURPOSE OR MERCHANTABILITY, EXCLUSIVITY, OR RESULTS OBTAINED FROM USE OF THE
+ * MATERIAL. CARNEGIE MELLON UNIVERSITY DOES NOT MAKE ANY WARRANTY OF ANY KIND
+ * WITH RESPECT TO FREEDOM FROM PATENT, TRADEMARK, OR COPYRIGHT INFRINGEMENT.
+ *
+ * This material has been approved for public release and unlimited
+ * distribution.
+ *
+ * @author James Edmondson <jedmondson@gmail.com>
+ *********************************************************************/
+package ai.gams.variables;
+
+import java.util.BitSet;
+
+/**
+ * Heap-only set of discretized sensor cells, stored as packed x,y index
+ * pairs. Cells can be visited by position or with the built-in cursor,
+ * neither of which allocates, or converted to a bitmap over their
+ * bounding box.
+ * <pre>
+ * SensorCells cells = sensor.discretizeCells(region);
+ * while (cells.next())
+ *   visit(cells.getX(), cells.getY());
+ * </pre>
+ **/
+public class SensorCells
+{
+  private final int[] cells;
+  private final int count;
+
+  private int minX = 0;
+  private int maxX = -1;
+  private int minY = 0;
+  private int maxY = -1;
+
+  /**
+   * Index of the current cell of the cursor, or -1 before the first cell
+   **/
+  private int cursor = -1;
+
+  /**
+   * Constructor
+   * @param cells  cell indices packed as {x0, y0, x1, y1, ...}
+   **/
+  public SensorCells(int[] cells)
+  {
+    this.cells = cells == null ? new int[0] : cells;
+    this.count = this.cells.length / 2;
+
+    if (count > 0)
+    {
+      minX = maxX = this.cells[0];
+      minY = maxY = this.cells[1];
+      for (int i = 1; i < count; ++i)
+      {
+        minX = Math.min(minX, this.cells[i * 2]);
+        maxX = Math.max(maxX, this.cells[i * 2]);
+        minY = Math.min(minY, this.cells[i * 2 + 1]);
+        maxY = Math.max(maxY, this.cells[i * 2 + 1]);
+      }
+    }
+  }
+
+  /**
+   * @return the number of cells
+   **/
+  public int size()
+  {
+    return count;
+  }
+
+  /**
+   * Gets the x index of a cell
+   * @param  i  the cell
+   * @return the x index of cell i
+   **/
+  public int getX(int i)
+  {
+    return cells[i * 2];
+  }
+
+  /**
+   * Gets the y index of a cell
+   * @param  i  the cell
+   * @return the y index of cell i
+   **/
+  public int getY(int i)
+  {
+    return cells[i * 2 + 1];
+  }
+
+  /**
+   * Moves the cursor before the first cell
+   **/
+  public void reset()
+  {
+    cursor = -1;
+  }
+
+  /**
+   * Advances the cursor to the next cell
+   * @return true if the cursor is on a cell, false if all cells were visited
+   **/
+  public boolean next()
+  {
+    if (cursor < count)
+      ++cursor;
+
+    return cursor < count;
+  }
+
+  /**
+   * @return the x index of the cell under the cursor
+   **/
+  public int getX()
+  {
+    return cells[cursor * 2];
+  }
+
+  /**
+   * @return the y index of the cell under the cursor
+   **/
+  public int getY()
+  {
+    return cells[cursor * 2 + 1];
+  }
+
+  /**
+   * @return the smallest x index, or 0 if there are no cells
+   **/
+  public int getMinX()
+  {
+    return minX;
+  }
+
+  /**
+   * @return the largest x index, or -1 if there are no cells
+   **/
+  public int getMaxX()
+  {
+    return maxX;
+  }
+
+  /**
+   * @return the smallest y index, or 0 if there are no cells
+   **/
+  public int getMinY()
+  {
+    return minY;
+  }
+
+  /**
+   * @return the largest y index, or -1 if there are no cells
+   **/
+  public int getMaxY()
+  {
+    return maxY;
+  }
+
+  /**
+   * @return the width of the bounding box in cells
+   **/
+  public int getWidth()
+  {
+    return maxX - minX + 1;
+  }
+
+  /**
+   * @return the height of the bounding box in cells
+   **/
+  public int getHeight()
+  {
+    return maxY - minY + 1;
+  }
+
+  /**
+   * Converts the cells to a bitmap over their bounding box. The bit for
+   * cell (x, y) is (y - getMinY()) * getWidth() + (x - getMinX()).
+   * @return the bitmap of cells
+   **/
+  public BitSet toBitmap()
+  {
+    BitSet bitmap = new BitSet(count > 0 ? getWidth() * getHeight() : 0);
+    int width = getWidth();
+
+    for (int i = 0; i < count; ++i)
+      bitmap.set((cells[i * 2 + 1] - minY) * width + (cells[i * 2] - minX));
+
+    return bitmap;
+  }
+
+  /**
+   * Returns the packed cells. The array is shared, not copied.
+   * @return cell indices packed as {x0, y0, x1, y1, ...}
+   **/
+  public int[] toArray()
+  {
+    return cells;
+  }
+}
@@ -0,0 +1,432 @@
+/*********************************************************************
+ * Copyright (c) 2013-2015 Carnegie Mellon University. All Rights Reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following acknowledgments and disclaimers.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *
+ * 3. The names "Carnegie Mellon University," "SEI" and/or
+ * "Software Engineering Institute" shall not be used to endorse or promote
+ * products derived from this software without prior written permission. For
+ * written permission, please contact permission@sei.cmu.edu.
+ *
+ * 4. Products derived from this software may not be called "SEI" nor may "SEI"
+ * appear in their names without prior written permission of
+ * permission@sei.cmu.edu.
+ *
+ * 5. Redistributions of any form whatsoever must retain the following
+ * acknowledgment:
+ *
+ * This material is based upon work funded and supported by the Department of
+ * Defense under Contract No. FA8721-05-C-0003 with Carnegie Mellon University
+ * for the operation of the Software Engineering Institute, a federally funded
+ * research and development center. Any opinions, findings and conclusions or
+ * recommendations expressed in this material are those of the author(s) and
+ * do not necessarily reflect the views of the United States Department of
+ * Defense.
+ *
+ * NO WARRANTY. THIS CARNEGIE MELLON UNIVERSITY AND SOFTWARE ENGINEERING
+ * INSTITUTE MATERIAL IS FURNISHED ON AN "AS-IS" BASIS. CARNEGIE MELLON
+ * UNIVERSITY MAKES NO WARRANTIES OF ANY KIND, EITHER EXPRESSED OR IMPLIED,
+ * AS TO ANY MATTER INCLUDING, BUT NOT LIMITED TO, WARRANTY OF FITNESS FOR
+ * PURPOSE OR MERCHANTABILITY, EXCLUSIVITY, OR RESULTS OBTAINED FROM USE OF THE
+ * MATERIAL. CARNEGIE MELLON UNIVERSITY DOES NOT MAKE ANY WARRANTY OF ANY KIND
+ * WITH RESPECT TO FREEDOM FROM PATENT, TRADEMARK, OR COPYRIGHT INFRINGEMENT.
+ *
+ * This material has been approved for public release and unlimited
+ * distribution.
+ *
+ * @author James Edmondson <jedmondson@gmail.com>
+ *********************************************************************/
+package ai.gams.variables;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
+
+import ai.gams.exceptions.GamsDeadObjectException;
+
+/**
+ * An off-heap window onto the values of a {@link Sensor}, indexed by cell
+ * (x, y). Values live in a direct or memory-mapped buffer, so reads and
+ * writes never cross JNI. Changed cells are tracked as one column span per
+ * row, and {@link #flush()} writes only those spans into the sensor's
+ * knowledge base container with a single JNI call. {@link #load()} fills
+ * the window from the knowledge base in one call. This class is not
+ * thread safe.
+ **/
+public class SensorGrid
+{
+  private final Sensor sensor;
+  private final int minX;
+  private final int minY;
+  private final int width;
+  private final int height;
+
+  private final ByteBuffer buffer;
+  private final DoubleBuffer values;
+
+  /**
+   * First and last dirty column per row, or -1 if the row is clean
+   **/
+  private final int[] dirtyFirst;
+  private final int[] dirtyLast;
+  private int dirtyRows = 0;
+
+  /**
+   * Constructor for a window backed by a new direct buffer
+   * @param sensor  the sensor whose values are viewed
+   * @param minX    x index of the first column
+   * @param minY    y index of the first row
+   * @param width   number of columns
+   * @param height  number of rows
+   **/
+  public SensorGrid(Sensor sensor, int minX, int minY, int width, int height)
+  {
+    this(sensor, minX, minY, width, height,
+      ByteBuffer.allocateDirect(checkSize(width, height)));
+  }
+
+  /**
+   * Constructor for a window covering the bounding box of some cells
+   * @param sensor  the sensor whose values are viewed
+   * @param cells   the cells to cover
+   **/
+  public SensorGrid(Sensor sensor, SensorCells cells)
+  {
+    this(sensor, cells.getMinX(), cells.getMinY(),
+      Math.max(cells.getWidth(), 1), Math.max(cells.getHeight(), 1));
+  }
+
+  private SensorGrid(Sensor sensor, int minX, int minY, int width, int height,
+    ByteBuffer buffer)
+  {
+    this.sensor = sensor;
+    this.minX = minX;
+    this.minY = minY;
+    this.width = width;
+    this.height = height;
+    this.buffer = buffer.order(ByteOrder.nativeOrder());
+    this.values = this.buffer.asDoubleBuffer();
+    this.dirtyFirst = new int[height];
+    this.dirtyLast = new int[height];
+
+    Arrays.fill(dirtyFirst, -1);
+    Arrays.fill(dirtyLast, -1);
+  }
+
+  /**
+   * Creates a window backed by a memory-mapped file, which is created or
+   * resized as needed. The file holds width * height native-order doubles.
+   * @param sensor  the sensor whose values are viewed
+   * @param file    the file to map
+   * @param minX    x index of the first column
+   * @param minY    y index of the first row
+   * @param width   number of columns
+   * @param height  number of rows
+   * @return the mapped window
+   * @throws IOException if the file cannot be mapped
+   **/
+  public static SensorGrid map(Sensor sensor, File file,
+    int minX, int minY, int width, int height) throws IOException
+  {
+    int size = checkSize(width, height);
+    RandomAccessFile raf = new RandomAccessFile(file, "rw");
+    try
+    {
+      FileChannel channel = raf.getChannel();
+      ByteBuffer mapped = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+      return new SensorGrid(sensor, minX, minY, width, height, mapped);
+    }
+    finally
+    {
+      raf.close();
+    }
+  }
+
+  /**
+   * @return x index of the first column
+   **/
+  public int getMinX()
+  {
+    return minX;
+  }
+
+  /**
+   * @return y index of the first row
+   **/
+  public int getMinY()
+  {
+    return minY;
+  }
+
+  /**
+   * @return number of columns
+   **/
+  public int getWidth()
+  {
+    return width;
+  }
+
+  /**
+   * @return number of rows
+   **/
+  public int getHeight()
+  {
+    return height;
+  }
+
+  /**
+   * Checks if a cell is inside the window
+   * @param x  x index of the cell
+   * @param y  y index of the cell
+   * @return true if the cell is inside the window
+   **/
+  public boolean inBounds(int x, int y)
+  {
+    return x >= minX && x < minX + width && y >= minY && y < minY + height;
+  }
+
+  /**
+   * Gets the value of a cell
+   * @param x  x index of the cell
+   * @param y  y index of the cell
+   * @return the value of the cell
+   **/
+  public double get(int x, int y)
+  {
+    return values.get(offset(x, y));
+  }
+
+  /**
+   * Sets the value of a cell and marks it dirty
+   * @param x      x index of the cell
+   * @param y      y index of the cell
+   * @param value  the new value
+   **/
+  public void set(int x, int y, double value)
+  {
+    values.put(offset(x, y), value);
+    markDirty(y - minY, x - minX, x - minX);
+  }
+
+  /**
+   * Copies a rectangle of values into an array, row by row
+   * @param x       x index of the first column
+   * @param y       y index of the first row
+   * @param w       number of columns
+   * @param h       number of rows
+   * @param output  destination of at least w * h values
+   **/
+  public void read(int x, int y, int w, int h, double[] output)
+  {
+    checkRect(x, y, w, h, output.length);
+
+    DoubleBuffer view = values.duplicate();
+    for (int row = 0; row < h; ++row)
+    {
+      view.position(offset(x, y + row));
+      view.get(output, row * w, w);
+    }
+  }
+
+  /**
+   * Copies a rectangle of values from an array, row by row, and marks
+   * the rectangle dirty
+   * @param x      x index of the first column
+   * @param y      y index of the first row
+   * @param w      number of columns
+   * @param h      number of rows
+   * @param input  source of at least w * h values
+   **/
+  public void write(int x, int y, int w, int h, double[] input)
+  {
+    checkRect(x, y, w, h, input.length);
+
+    DoubleBuffer view = values.duplicate();
+    for (int row = 0; row < h; ++row)
+    {
+      view.position(offset(x, y + row));
+      view.put(input, row * w, w);
+      markDirty(y + row - minY, x - minX, x - minX + w - 1);
+    }
+  }
+
+  /**
+   * Sets every value in a rectangle and marks it dirty
+   * @param x      x index of the first column
+   * @param y      y index of the first row
+   * @param w      number of columns
+   * @param h      number of rows
+   * @param value  the new value
+   **/
+  public void fill(int x, int y, int w, int h, double value)
+  {
+    checkRect(x, y, w, h, w * h);
+
+    for (int row = 0; row < h; ++row)
+    {
+      int start = offset(x, y + row);
+      for (int col = 0; col < w; ++col)
+        values.put(start + col, value);
+      markDirty(y + row - minY, x - minX, x - minX + w - 1);
+    }
+  }
+
+  /**
+   * Returns a zero-copy view of the values, row by row. Writes through
+   * this view are not tracked; call {@link #markDirty(int, int, int, int)}.
+   * @return the values of the window
+   **/
+  public DoubleBuffer getValues()
+  {
+    return values.duplicate();
+  }
+
+  /**
+   * Marks a rectangle of cells as changed
+   * @param x  x index of the first column
+   * @param y  y index of the first row
+   * @param w  number of columns
+   * @param h  number of rows
+   **/
+  public void markDirty(int x, int y, int w, int h)
+  {
+    checkRect(x, y, w, h, w * h);
+
+    for (int row = 0; row < h; ++row)
+      markDirty(y + row - minY, x - minX, x - minX + w - 1);
+  }
+
+  /**
+   * @return true if any cell changed since the last load or flush
+   **/
+  public boolean isDirty()
+  {
+    return dirtyRows > 0;
+  }
+
+  /**
+   * @return the number of cells within the dirty spans
+   **/
+  public long getDirtyCells()
+  {
+    long result = 0;
+    for (int row = 0; row < height; ++row)
+    {
+      if (dirtyFirst[row] >= 0)
+        result += dirtyLast[row] - dirtyFirst[row] + 1;
+    }
+    return result;
+  }
+
+  /**
+   * Replaces the whole window with the values in the knowledge base and
+   * clears the dirty spans
+   **/
+  public void load() throws GamsDeadObjectException
+  {
+    sensor.readGrid(buffer, minX, minY, width, height);
+    clearDirty();
+  }
+
+  /**
+   * Writes the dirty spans into the knowledge base with one JNI call and
+   * clears them
+   * @return the number of cells written
+   **/
+  public long flush() throws GamsDeadObjectException
+  {
+    if (dirtyRows == 0)
+      return 0;
+
+    long cells = getDirtyCells();
+    int[] spans = new int[dirtyRows * 3];
+    int cur = 0;
+    for (int row = 0; row < height; ++row)
+    {
+      if (dirtyFirst[row] >= 0)
+      {
+        spans[cur++] = row;
+        spans[cur++] = dirtyFirst[row];
+        spans[cur++] = dirtyLast[row];
+      }
+    }
+
+    sensor.writeGrid(buffer, minX, minY, width, spans);
+    clearDirty();
+
+    return cells;
+  }
+
+  /**
+   * Forgets all changes without writing them
+   **/
+  public void clearDirty()
+  {
+    Arrays.fill(dirtyFirst, -1);
+    Arrays.fill(dirtyLast, -1);
+    dirtyRows = 0;
+  }
+
+  private void markDirty(int row, int first, int last)
+  {
+    if (dirtyFirst[row] < 0)
+    {
+      dirtyFirst[row] = first;
+      dirtyLast[row] = last;
+      ++dirtyRows;
+    }
+    else
+    {
+      dirtyFirst[row] = Math.min(dirtyFirst[row], first);
+      dirtyLast[row] = Math.max(dirtyLast[row], last);
+    }
+  }
+
+  private int offset(int x, int y)
+  {
+    if (!inBounds(x, y))
+    {
+      throw new IndexOutOfBoundsException(
+        "SensorGrid: cell " + x + "x" + y + " is outside the window");
+    }
+    return (y - minY) * width + (x - minX);
+  }
+
+  private void checkRect(int x, int y, int w, int h, int length)
+  {
+    if (w < 0 || h < 0 || length < w * h)
+    {
+      throw new IllegalArgumentException(
+        "SensorGrid: invalid rectangle size or array length");
+    }
+    if (w > 0 && h > 0 && (!inBounds(x, y) || !inBounds(x + w - 1, y + h - 1)))
+    {
+      throw new IndexOutOfBoundsException(
+        "SensorGrid: rectangle is outside the window");
+    }
+  }
+
+  private static int checkSize(int width, int height)
+  {
+    long size = (long) width * height * 8;
+    if (width <= 0 || height <= 0 || size > Integer.MAX_VALUE)
+    {
+      throw new IllegalArgumentException(
+        "SensorGrid: invalid dimensions " + width + "x" + height);
+    }
+    return (int) size;
+  }
+}
@@ -46,8 +46,12 @@
  *********************************************************************/
 package ai.gams.variables;
 
+import java.util.concurrent.Executor;
+
 import ai.gams.GamsJNI;
+import ai.gams.NativeDisposer;
 import ai.gams.exceptions.GamsDeadObjectException;
+import ai.madara.exceptions.MadaraDeadObjectException;
 import ai.madara.knowledge.KnowledgeBase;
 import ai.madara.knowledge.Variables;
 
@@ -63,6 +67,16 @@ public class Swarm extends GamsJNI
   private native long jni_getMinAlt(long cptr);
   private native long jni_getSize(long cptr);
 
+  private static final NativeDisposer DISPOSER =
+    new NativeDisposer("ai.gams.variables.Swarm")
+  {
+    @Override
+    protected void dispose(long cptr) throws Exception
+    {
+      jni_freeSwarm(cptr);
+    }
+  };
+
   private boolean manageMemory = true;
 
   /**
@@ -71,6 +85,7 @@ public class Swarm extends GamsJNI
   public Swarm() throws GamsDeadObjectException
   {
     setCPtr(jni_Swarm());
+    track(DISPOSER);
     init();
   }
 
@@ -81,6 +96,7 @@ public class Swarm extends GamsJNI
   public Swarm(Swarm input) throws GamsDeadObjectException
   {
     setCPtr(jni_Swarm(input.getCPtr()));
+    track(DISPOSER);
     init();
   }
 
@@ -95,6 +111,7 @@ public class Swarm extends GamsJNI
     Swarm ret = new Swarm();
     ret.manageMemory = true;
     ret.setCPtr(cptr);
+    ret.track(DISPOSER);
     ret.init();
     return ret;
   }
@@ -111,6 +128,14 @@ public class Swarm extends GamsJNI
     Swarm ret = new Swarm();
     ret.manageMemory=shouldManage;
     ret.setCPtr(cptr);
+    if (shouldManage)
+    {
+      ret.track(DISPOSER);
+    }
+    else
+    {
+      ret.untrack();
+    }
     ret.init();
     return ret;
   }
@@ -174,6 +199,27 @@ public class Swarm extends GamsJNI
    */
   public ai.madara.knowledge.containers.Integer size;
 
+  /**
+   * Subscribes to changes of the swarm command, command args, minimum
+   * altitude and size, without polling
+   * @param  knowledge  the knowledge base the containers refer to
+   * @param  executor   runs the listener calls
+   * @param  listener   receives the changed keys
+   * @return the started subscription. Free it to stop notifications.
+   */
+  public ChangeSubscription subscribe(KnowledgeBase knowledge,
+    Executor executor, ChangeListener listener)
+    throws GamsDeadObjectException, MadaraDeadObjectException
+  {
+    ChangeSubscription result =
+      new ChangeSubscription(knowledge, executor, listener);
+    result.watch(command);
+    result.watch(args);
+    result.watch(minAlt);
+    result.watch(size);
+    return result.start();
+  }
+
   /**
    * Converts the value to a string
    *
@@ -192,25 +238,10 @@ public class Swarm extends GamsJNI
   {
     if (manageMemory)
     {
+      untrack();
       jni_freeSwarm(getCPtr());
       setCPtr(0);
     }
   }
-
-  /**
-   * Cleans up underlying C resources
-   * @throws Throwable necessary for override but unused
-   */
-  @Override
-  protected void finalize() throws Throwable
-  {
-    try {
-      free();
-    } catch (Throwable t) {
-      throw t;
-    } finally {
-      super.finalize();
-    }
-  }
 }
 
@@ -0,0 +1,189 @@
+/*********************************************************************
+ * Copyright (c) 2013-2015 Carnegie Mellon University. All Rights Reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following acknowledgments and disclaimers.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *
+ * 3. The names "Carnegie Mellon University," "SEI" and/or
+ * "Software Engineering Institute" shall not be used to endorse or promote
+ * products derived from this software without prior written permission. For
+ * written permission, please contact permission@sei.cmu.edu.
+ *
+ * 4. Products derived from this software may not be called "SEI" nor may "SEI"
+ * appear in their names without prior written permission of
+ * permission@sei.cmu.edu.
+ *
+ * 5. Redistributions of any form whatsoever must retain the following
+ * acknowledgment:
+ *
+ * This material is based upon work funded and supported by the Department of
+ * Defense under Contract No. FA8721-05-C-0003 with Carnegie Mellon University
+ * for the operation of the Software Engineering Institute, a federally funded
+ * research and development center. Any opinions, findings and conclusions or
+ * recommendations expressed in this material are those of the author(s) and
+ * do not necessarily reflect the views of the United States Department of
+ * Defense.
+ *
+ * NO WARRANTY. THIS CARNEGIE MELLON UNIVERSITY AND SOFTWARE ENGINEERING
+ * INSTITUTE MATERIAL IS FURNISHED ON AN "AS-IS" BASIS. CARNEGIE MELLON
+ * UNIVERSITY MAKES NO WARRANTIES OF ANY KIND, EITHER EXPRESSED OR IMPLIED,
+ * AS TO ANY MATTER INCLUDING, BUT NOT LIMITED TO, WARRANTY OF FITNESS FOR
+ * PURPOSE OR MERCHANTABILITY, EXCLUSIVITY, OR RESULTS OBTAINED FROM USE OF THE
+ * MATERIAL. CARNEGIE MELLON UNIVERSITY DOES NOT MAKE ANY WARRANTY OF ANY KIND
+ * WITH RESPECT TO FREEDOM FROM PATENT, TRADEMARK, OR COPYRIGHT INFRINGEMENT.
+ *
+ * This material has been approved for public release and unlimited
+ * distribution.
+ *
+ * @author James Edmondson <jedmondson@gmail.com>
+ *********************************************************************/
+package ai.gams.variables;
+
+/**
+ * A structure-of-arrays copy of the per-agent state that swarm algorithms
+ * read every tick. Element i of every array belongs to agent i of the
+ * Agents list that was last passed to refresh. One refresh copies all of
+ * the fields for all agents with a single JNI call, and the arrays are
+ * reused across refreshes as long as the swarm size does not change.
+ * <p>
+ * The version only changes when the copied values change, so readers can
+ * remember the last version they processed and skip unchanged snapshots.
+ * A snapshot is not thread-safe; share it between threads only with
+ * external synchronization.
+ */
+public class SwarmSnapshot
+{
+  private static native long jni_fill(long[] agents, int length,
+    double[] x, double[] y, double[] z,
+    double[] destX, double[] destY, double[] destZ,
+    long[] battery, boolean[] mobile);
+
+  /**
+   * Location x (latitude) of each agent
+   */
+  public double[] x = new double[0];
+
+  /**
+   * Location y (longitude) of each agent
+   */
+  public double[] y = new double[0];
+
+  /**
+   * Location z (altitude) of each agent
+   */
+  public double[] z = new double[0];
+
+  /**
+   * Destination x of each agent
+   */
+  public double[] destX = new double[0];
+
+  /**
+   * Destination y of each agent
+   */
+  public double[] destY = new double[0];
+
+  /**
+   * Destination z of each agent
+   */
+  public double[] destZ = new double[0];
+
+  /**
+   * Remaining battery of each agent
+   */
+  public long[] battery = new long[0];
+
+  /**
+   * Whether each agent is mobile
+   */
+  public boolean[] mobile = new boolean[0];
+
+  private int size = 0;
+  private long version = 0;
+  private long hash = 0;
+  private long timestamp = 0;
+
+  /**
+   * Copies the current state of the agents into this snapshot
+   * @param agents  the agents to copy
+   * @return true if any copied value changed, in which case the version
+   *         was incremented
+   */
+  public boolean refresh(Agents agents)
+  {
+    long[] pointers = agents.getPointers();
+    int length = pointers == null ? 0 : pointers.length;
+
+    boolean resized = length != size || version == 0;
+    if (resized)
+    {
+      resize(length);
+    }
+    timestamp = System.nanoTime();
+
+    long current = length == 0 ? 0 :
+      jni_fill(pointers, length, x, y, z, destX, destY, destZ, battery, mobile);
+
+    if (resized || current != hash)
+    {
+      hash = current;
+      ++version;
+      return true;
+    }
+
+    return false;
+  }
+
+  /**
+   * @return the number of agents in the snapshot
+   */
+  public int size()
+  {
+    return size;
+  }
+
+  /**
+   * @return the version of the snapshot contents. 0 means never refreshed.
+   */
+  public long getVersion()
+  {
+    return version;
+  }
+
+  /**
+   * @param version  a version previously returned by getVersion
+   * @return true if the contents have changed since that version
+   */
+  public boolean isNewerThan(long version)
+  {
+    return this.version != version;
+  }
+
+  /**
+   * @return the System.nanoTime of the last refresh
+   */
+  public long getTimestamp()
+  {
+    return timestamp;
+  }
+
+  private void resize(int length)
+  {
+    x = new double[length];
+    y = new double[length];
+    z = new double[length];
+    destX = new double[length];
+    destY = new double[length];
+    destZ = new double[length];
+    battery = new long[length];
+    mobile = new boolean[length];
+    size = length;
+  }
+}
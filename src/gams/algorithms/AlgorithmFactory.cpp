@@ -52,7 +52,8 @@ using std::cerr;
 using std::endl;
 
 gams::algorithms::AlgorithmFactory::AlgorithmFactory ()
-  : knowledge_ (0), agents_ (0), platform_ (0), self_ (0), sensors_ (0)
+  : knowledge_ (0), agents_ (0), platform_ (0), self_ (0), sensors_ (0),
+  threads_ (1)
 {
 }
 
@@ -90,3 +91,9 @@ gams::algorithms::AlgorithmFactory::set_sensors (variables::Sensors * sensors)
 {
   sensors_ = sensors;
 }
+
+void
+gams::algorithms::AlgorithmFactory::set_threads (size_t threads)
+{
+  threads_ = threads;
+}
@@ -129,6 +129,15 @@ namespace gams
        * @param  sensors      map of sensor names to sensor information
        **/
       void set_sensors (variables::Sensors * sensors);
+
+      /**
+       * Sets the default number of threads for algorithms that can
+       * spread their planning over threads. An algorithm's "threads"
+       * argument takes precedence.
+       * @param  threads   the number of threads, or 0 for one per
+       *                   hardware thread
+       **/
+      void set_threads (size_t threads);
       
     protected:
       
@@ -146,6 +155,9 @@ namespace gams
 
       /// sensor variables
       variables::Sensors * sensors_;
+
+      /// default number of planning threads
+      size_t threads_;
     };
   }
 }
@@ -76,10 +76,10 @@
 #include "gams/algorithms/area_coverage/SnakeAreaCoverage.h"
 #include "gams/algorithms/area_coverage/PerimeterPatrolCoverage.h"
 #include "gams/algorithms/area_coverage/WaypointsCoverage.h"
-
-#if 0
 #include "gams/algorithms/area_coverage/MinTimeAreaCoverage.h"
 #include "gams/algorithms/area_coverage/PrioritizedMinTimeAreaCoverage.h"
+
+#if 0
 #include "gams/algorithms/area_coverage/LocalPheremoneAreaCoverage.h"
 #endif
 
@@ -103,7 +103,7 @@ algorithms::AlgorithmFactoryRepository::AlgorithmFactoryRepository (
   variables::Self * self,
   variables::Agents * agents)
 : agents_ (agents), knowledge_ (knowledge), platform_ (platform),
-  self_ (self), sensors_ (sensors), init_started_(false),
+  self_ (self), sensors_ (sensors), threads_ (1), init_started_(false),
   init_finished_(false)
 {
 }
@@ -127,6 +127,7 @@ algorithms::AlgorithmFactoryRepository::add (
     factory->set_platform (platform_);
     factory->set_self (self_);
     factory->set_sensors (sensors_);
+    factory->set_threads (threads_);
 
     madara_logger_ptr_log (gams::loggers::global_logger.get (),
       gams::loggers::LOG_MAJOR,
@@ -272,6 +273,8 @@ void algorithms::AlgorithmFactoryRepository::initialize_default_mappings (
     aliases[0] = "snake";
     aliases[1] = "sac";
 
+    add (aliases, new area_coverage::SnakeAreaCoverageFactory ());
+
     // the wait
     aliases.resize (1);
     aliases[0] = "wait";
@@ -298,13 +301,7 @@ void algorithms::AlgorithmFactoryRepository::initialize_default_mappings (
     aliases[0] = "local pheremone";
 
     add (aliases, new area_coverage::LocalPheremoneAreaCoverageFactory ());
-
-    // the minimum time coverage algorithm
-    aliases.resize (2);
-    aliases[0] = "min time";
-    aliases[1] = "mtac";
-
-    add (aliases, new area_coverage::MinTimeAreaCoverageFactory ());
+#endif
 
     // the prioritized min time area coverage
     aliases.resize (2);
@@ -312,7 +309,13 @@ void algorithms::AlgorithmFactoryRepository::initialize_default_mappings (
     aliases[1] = "pmtac";
 
     add (aliases, new area_coverage::PrioritizedMinTimeAreaCoverageFactory ());
-#endif
+
+    // the minimum time coverage algorithm
+    aliases.resize (2);
+    aliases[0] = "min time";
+    aliases[1] = "mtac";
+
+    add (aliases, new area_coverage::MinTimeAreaCoverageFactory ());
 
     // the perimeter patrol algorithm
     aliases.resize (2);
@@ -328,8 +331,6 @@ void algorithms::AlgorithmFactoryRepository::initialize_default_mappings (
 
     add (aliases, new area_coverage::PriorityWeightedRandomAreaCoverageFactory ());
 
-    add (aliases, new area_coverage::SnakeAreaCoverageFactory ());
-
     // the uniform random area coverage algorithm
     aliases.resize (2);
     aliases[0] = "uniform random area coverage";
@@ -384,6 +385,7 @@ algorithms::AlgorithmFactoryRepository::create (
     AlgorithmFactoryMap::iterator it = factory_map_.find (lowercased_type);
     if (it != factory_map_.end ())
     {
+      it->second->set_threads (threads_);
       result = it->second->create (args, knowledge_, platform_,
         sensors_, self_, agents_);
     }
@@ -441,3 +443,9 @@ algorithms::AlgorithmFactoryRepository::set_sensors (
 {
   sensors_ = sensors;
 }
+
+void
+algorithms::AlgorithmFactoryRepository::set_threads (size_t threads)
+{
+  threads_ = threads;
+}
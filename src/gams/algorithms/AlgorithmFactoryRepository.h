@@ -147,6 +147,14 @@ namespace gams
        * @param  sensors      map of sensor names to sensor information
        **/
       void set_sensors (variables::Sensors * sensors);
+
+      /**
+       * Sets the default number of threads for algorithms that can
+       * spread their planning over threads
+       * @param  threads   the number of threads, or 0 for one per
+       *                   hardware thread
+       **/
+      void set_threads (size_t threads);
       
       /**
        * Initializes factories for all supported GAMS algorithms
@@ -170,6 +178,9 @@ namespace gams
       /// sensor variables
       variables::Sensors * sensors_;
 
+      /// default number of planning threads
+      size_t threads_;
+
       /// a map of all aliases to factories
       AlgorithmFactoryMap  factory_map_;
 
@@ -125,8 +125,7 @@ gams::algorithms::MessageProfiling::MessageProfiling (
 
   // setup containers
   const size_t size = send.to_integer ();
-  const string key = key_prefix_ + "." +
-    knowledge_->get (".id").to_string ();
+  const string key = key_prefix_ + "." + self->id.to_string ();
   data_.set_name (key + ".data", *local_knowledge_);
   data_ = string (size - 1, 'a'); // set value, will never change
   //count_.set_name (key + ".count", *knowledge);
@@ -58,6 +58,10 @@
 
 #include "gams/algorithms/area_coverage/BaseAreaCoverage.h"
 
+gams::algorithms::area_coverage::PositionGenerator::~PositionGenerator ()
+{
+}
+
 gams::algorithms::area_coverage::BaseAreaCoverage::BaseAreaCoverage (
   madara::knowledge::KnowledgeBase * knowledge,
   platforms::BasePlatform * platform,
@@ -66,7 +70,8 @@ gams::algorithms::area_coverage::BaseAreaCoverage::BaseAreaCoverage (
   variables::Agents * agents,
   double e_time) :
   BaseAlgorithm (knowledge, platform, sensors, self, agents), 
-  max_time_ (e_time), enforcer_ (e_time, e_time)
+  initialized_ (false), max_time_ (e_time), enforcer_ (e_time, e_time),
+  generator_ (0)
 {
   madara_logger_ptr_log (gams::loggers::global_logger.get (),
     gams::loggers::LOG_MAJOR,
@@ -76,6 +81,7 @@ gams::algorithms::area_coverage::BaseAreaCoverage::BaseAreaCoverage (
 
 gams::algorithms::area_coverage::BaseAreaCoverage::~BaseAreaCoverage ()
 {
+  delete generator_;
 }
 
 void
@@ -137,7 +143,7 @@ gams::algorithms::area_coverage::BaseAreaCoverage::execute (void)
       "gams::algorithms::area_coverage::BaseAreaCoverage::execute:" \
       " algorithm is not initialized. Generating new position.\n");
 
-    generate_new_position ();
+    next_waypoint ();
   }
   else if (status_.finished == 1)
   {
@@ -184,7 +190,7 @@ gams::algorithms::area_coverage::BaseAreaCoverage::plan (void)
         gams::loggers::LOG_DETAILED,
         "gams::algorithms::area_coverage::BaseAreaCoverage::plan:" \
         " generating new position\n");
-      generate_new_position ();
+      next_waypoint ();
     }
   }
   return 0;
@@ -196,6 +202,59 @@ gams::algorithms::area_coverage::BaseAreaCoverage::get_next_position() const
   return next_position_;
 }
 
+void
+gams::algorithms::area_coverage::BaseAreaCoverage::set_next_position (
+  const utility::GPSPosition & position)
+{
+  next_position_ = position;
+  initialized_ = true;
+}
+
+void
+gams::algorithms::area_coverage::BaseAreaCoverage::generate_native_position (
+  void)
+{
+  generate_new_position ();
+}
+
+void
+gams::algorithms::area_coverage::BaseAreaCoverage::set_position_generator (
+  PositionGenerator * generator)
+{
+  if (generator != generator_)
+  {
+    delete generator_;
+    generator_ = generator;
+  }
+}
+
+gams::algorithms::area_coverage::PositionGenerator *
+gams::algorithms::area_coverage::BaseAreaCoverage::get_position_generator (
+  void) const
+{
+  return generator_;
+}
+
+bool
+gams::algorithms::area_coverage::BaseAreaCoverage::is_initialized (
+  void) const
+{
+  return initialized_;
+}
+
+void
+gams::algorithms::area_coverage::BaseAreaCoverage::next_waypoint (void)
+{
+  if (generator_)
+  {
+    generator_->generate (*this);
+  }
+  else
+  {
+    generate_new_position ();
+  }
+}
+
 int
 gams::algorithms::area_coverage::BaseAreaCoverage::check_if_finished (
   int ret_val) const
@@ -67,6 +67,30 @@ namespace gams
   {
     namespace area_coverage
     {
+      class BaseAreaCoverage;
+
+      /**
+       * Replaces the waypoint step of an area coverage, e.g., with one
+       * written in Java. The rest of the coverage still runs natively, so
+       * the generator is only called when a new waypoint is needed.
+       **/
+      class GAMS_EXPORT PositionGenerator
+      {
+      public:
+        /**
+         * Destructor
+         **/
+        virtual ~PositionGenerator ();
+
+        /**
+         * Chooses the next waypoint of a coverage. Implementations call
+         * coverage.set_next_position, or generate_native_position to fall
+         * back to the coverage's own strategy.
+         * @param  coverage  the coverage that needs a new waypoint
+         **/
+        virtual void generate (BaseAreaCoverage & coverage) = 0;
+      };
+
       /**
        * Base class for all area coverages
        **/
@@ -125,12 +149,50 @@ namespace gams
          **/
         utility::GPSPosition get_next_position (void) const;
 
+        /**
+         * Sets the next position and marks the coverage as initialized
+         * @param  position  the next waypoint
+         **/
+        void set_next_position (const utility::GPSPosition & position);
+
+        /**
+         * Generates a new position with this coverage's own strategy,
+         * even if a position generator is set
+         **/
+        void generate_native_position (void);
+
+        /**
+         * Replaces the waypoint step of this coverage. The coverage takes
+         * ownership of the generator and deletes it when replaced.
+         * @param  generator  the new generator, or 0 to use the
+         *                    coverage's own strategy
+         **/
+        void set_position_generator (PositionGenerator * generator);
+
+        /**
+         * Returns the generator set by set_position_generator
+         * @return the generator, or 0 if none is set
+         **/
+        PositionGenerator * get_position_generator (void) const;
+
+        /**
+         * Checks if the coverage has chosen its first waypoint
+         * @return true if initialized
+         **/
+        bool is_initialized (void) const;
+
       protected:
         /**
          * Generate new next position
          */
         virtual void generate_new_position (void) = 0;
 
+        /**
+         * Generates a new position with the position generator if one is
+         * set, otherwise with generate_new_position
+         */
+        void next_waypoint (void);
+
         /**
          * Check if finished based on time
          */
@@ -147,6 +209,9 @@ namespace gams
 
         /// enforcer for maximum time
         madara::utility::EpochEnforcer<std::chrono::steady_clock> enforcer_;
+
+        /// replaces generate_new_position when set
+        PositionGenerator * generator_;
       };
     } // namespace area_coverage
   } // namespace algorithms
@@ -52,25 +52,21 @@
  * region. Each agent selects a destination coordinate which provides the 
  * highest increase in sensor utility determined by time since last observation.
  *
- * NOTE: the Area Coverage algorithms currently use the deprecated
- * utility::Position classes, and should not be used as examples.
- *
- * Disabled pending repair of the variables::Sensor class
+ * Times since observation are kept in the utility cache of the coverage
+ * sensor as last visit times, so a tick does not touch every cell, and the
+ * utility of a path costs one lookup per row of the path. Destinations are
+ * scored in parallel, and the best of each chunk is reduced in order, so
+ * the choice does not depend on the number of threads.
  **/
 
-#if 0
-
 #include "gams/loggers/GlobalLogger.h"
 #include "gams/algorithms/area_coverage/MinTimeAreaCoverage.h"
 
-#include "gams/utility/GPSPosition.h"
-#include "gams/utility/Position.h"
-
-#include <iostream>
+#include <algorithm>
+#include <cfloat>
 #include <cmath>
 #include <string>
-#include <set>
-#include <map>
+#include <vector>
 
 #include "gams/utility/ArgumentParser.h"
 
@@ -100,6 +96,9 @@ gams::algorithms::area_coverage::MinTimeAreaCoverageFactory::create (
   {
     std::string search_area;
     double time = 360;
+    size_t candidates =
+      area_coverage::MinTimeAreaCoverage::DEFAULT_MAX_CANDIDATES;
+    size_t threads = threads_;
 
     for (KnowledgeMap::const_iterator i = args.begin (); i != args.end (); ++i)
     {
@@ -108,6 +107,19 @@ gams::algorithms::area_coverage::MinTimeAreaCoverageFactory::create (
 
       switch (i->first[0])
       {
+      case 'c':
+        if (i->first == "candidates")
+        {
+          candidates = (size_t)std::max (i->second.to_integer (),
+            (madara::knowledge::KnowledgeRecord::Integer)0);
+
+          madara_logger_ptr_log (gams::loggers::global_logger.get (),
+            gams::loggers::LOG_DETAILED,
+            "MinTimeAreaCoverageFactory::create:" \
+            " setting candidates to %u\n", (unsigned int)candidates);
+          break;
+        }
+        goto unknown;
       case 'a':
         if (i->first == "area")
         {
@@ -143,6 +155,17 @@ gams::algorithms::area_coverage::MinTimeAreaCoverageFactory::create (
             " setting time to %f\n", time);
           break;
         }
+        else if (i->first == "threads")
+        {
+          threads = (size_t)std::max (i->second.to_integer (),
+            (madara::knowledge::KnowledgeRecord::Integer)0);
+
+          madara_logger_ptr_log (gams::loggers::global_logger.get (),
+            gams::loggers::LOG_DETAILED,
+            "MinTimeAreaCoverageFactory::create:" \
+            " setting threads to %u\n", (unsigned int)threads);
+          break;
+        }
         goto unknown;
       unknown:
       default:
@@ -167,7 +190,8 @@ gams::algorithms::area_coverage::MinTimeAreaCoverageFactory::create (
     {
       result = new area_coverage::MinTimeAreaCoverage (
         search_area, time,
-        knowledge, platform, sensors, self, agents);
+        knowledge, platform, sensors, self, agents, "mtac", candidates,
+        threads);
     }
   }
 
@@ -180,9 +204,11 @@ gams::algorithms::area_coverage::MinTimeAreaCoverage::
   madara::knowledge::KnowledgeBase * knowledge,
   platforms::BasePlatform * platform, variables::Sensors * sensors,
   variables::Self * self, variables::Agents * agents,
-  const std::string & algo_name) :
+  const std::string & algo_name, size_t max_candidates, size_t threads) :
   BaseAreaCoverage (knowledge, platform, sensors, self, agents, e_time),
-  min_time_ (search_id + "." + algo_name, knowledge)
+  min_time_ (search_id + "." + algo_name, knowledge),
+  max_candidates_ (max_candidates), plans_ (0), pool_ (threads),
+  last_generation_ (0)
 {
   // init status vars
   status_.init_vars (*knowledge, algo_name, self->agent.prefix);
@@ -198,31 +224,39 @@ gams::algorithms::area_coverage::MinTimeAreaCoverage::
    * controller infrastructure yet, this will have to do. When the controller
    * is in place, the set_range, set_origin should not be called by the agents.
    */
-  utility::GPSPosition origin;
+  pose::Position origin (pose::gps_frame ());
   madara::knowledge::containers::NativeDoubleArray origin_container;
   origin_container.set_name ("sensor.coverage.origin", *knowledge, 3);
   origin.from_container (origin_container);
+
+  // without a shared origin, index from a corner of the search area
+  pose::Region hull = search_area_.get_convex_hull ();
+  if (origin.x () == 0 && origin.y () == 0 && hull.vertices.size () > 0)
+  {
+    origin = pose::Position (pose::gps_frame (),
+      hull.vertices[0].x (), hull.vertices[0].y ());
+  }
+
   min_time_.set_origin (origin);
   min_time_.set_range (2.5); // balance this between resolution and performance
+  radius_ = min_time_.get_range () / min_time_.get_discretization ();
 
   // perform setup
   /**
-   * In this algorithm, individual agents will increment their local copies of
-   * the sensor map to limit the amount of communication required.
+   * In this algorithm, individual agents keep local utility caches to limit
+   * the amount of communication required, and learn about the cells other
+   * agents visit from the agent locations. Every cell starts one step old.
    */
-  valid_positions_ = min_time_.discretize (search_area_);
-  static const madara::knowledge::KnowledgeUpdateSettings
-    NO_BROADCAST (true, false);
-  knowledge_->lock ();
-  for (std::set<utility::Position>::iterator it = valid_positions_.begin ();
-    it != valid_positions_.end (); ++it)
-  {
-    min_time_.set_value (*it, min_time_.get_value (*it) + 1, NO_BROADCAST);
-  }
-  knowledge_->unlock ();
+  min_time_.init_utility_cache (search_area_, (double)executions_ - 1);
 
-  // find first position to go to
-  generate_new_position ();
+  madara_logger_ptr_log (gams::loggers::global_logger.get (),
+    gams::loggers::LOG_MAJOR,
+    "MinTimeAreaCoverage::constructor:" \
+    " %u cells in a %dx%d cache, scored on %u threads\n",
+    (unsigned int)min_time_.get_utility_cache ().get_cell_count (),
+    min_time_.get_utility_cache ().get_width (),
+    min_time_.get_utility_cache ().get_height (),
+    (unsigned int)pool_.size ());
 }
 
 void
@@ -233,7 +267,12 @@ gams::algorithms::area_coverage::MinTimeAreaCoverage::operator= (
   {
     this->search_area_ = rhs.search_area_;
     this->min_time_ = rhs.min_time_;
-    this->valid_positions_ = rhs.valid_positions_;
+    this->radius_ = rhs.radius_;
+    this->max_candidates_ = rhs.max_candidates_;
+    this->plans_ = rhs.plans_;
+    this->pool_.resize (rhs.pool_.size ());
+    this->claimed_ = rhs.claimed_;
+    this->last_generation_ = rhs.last_generation_;
     this->BaseAreaCoverage::operator= (rhs);
   }
 }
@@ -243,34 +282,118 @@ gams::algorithms::area_coverage::MinTimeAreaCoverage::analyze (void)
 {
   ++executions_;
 
-  // increment time since last seen for all cells
   /**
-   * As with the initial setup, we don't broadcast our sensor map updates to
-   * limit the communications.
+   * Time since last seen is now minus the last visit, so time passing does
+   * not touch the cells. We only mark the cells under the agents, which
+   * includes the cells other agents have observed.
    */
-  static const madara::knowledge::KnowledgeUpdateSettings
-    NO_BROADCAST (true, false);
-  knowledge_->lock ();
-  for (std::set<utility::Position>::iterator it = valid_positions_.begin ();
-    it != valid_positions_.end (); ++it)
+  const double now = executions_;
+  pose::Position current (platform_->get_frame ());
+  current.from_container (self_->agent.location);
+  min_time_.mark_visited (current, now);
+
+  if (agents_)
   {
-    min_time_.set_value (*it, min_time_.get_value (*it) + 1, NO_BROADCAST);
+    for (size_t i = 0; i < agents_->size (); ++i)
+    {
+      pose::Position location (platform_->get_frame ());
+      location.from_container ((*agents_)[i].location);
+      min_time_.mark_visited (location, now);
+    }
+  }
+  
+  return check_if_finished (OK);
+}
+
+gams::variables::Sensor &
+gams::algorithms::area_coverage::MinTimeAreaCoverage::get_sensor (void)
+{
+  return min_time_;
+}
+
+gams::variables::CellIndex
+gams::algorithms::area_coverage::MinTimeAreaCoverage::get_cell (
+  const pose::Position & pos)
+{
+  pose::Position index = min_time_.get_index_from_gps (pos);
+  return variables::CellIndex ((int)index.x (), (int)index.y ());
+}
+
+int
+gams::algorithms::area_coverage::MinTimeAreaCoverage::get_candidate_stride (
+  void) const
+{
+  return get_candidate_stride (
+    min_time_.get_utility_cache ().get_cell_count (), max_candidates_);
+}
+
+int
+gams::algorithms::area_coverage::MinTimeAreaCoverage::get_candidate_stride (
+  size_t cells, size_t max_candidates)
+{
+  int stride = 1;
+
+  if (max_candidates > 0 && cells > max_candidates)
+  {
+    stride = (int)std::ceil (std::sqrt ((double)cells / max_candidates));
+  }
+
+  return stride;
+}
+
+void
+gams::algorithms::area_coverage::MinTimeAreaCoverage::get_candidates (
+  const variables::UtilityCache & cache, size_t max_candidates, size_t plan,
+  std::vector<variables::CellIndex> & candidates)
+{
+  const int stride = get_candidate_stride (
+    cache.get_cell_count (), max_candidates);
+  const int offset_x = (int)(plan % stride);
+  const int offset_y = (int)((plan / stride) % stride);
+
+  const int max_x = cache.get_min_x () + cache.get_width ();
+  const int max_y = cache.get_min_y () + cache.get_height ();
+
+  candidates.clear ();
+  for (int y = cache.get_min_y () + offset_y; y < max_y; y += stride)
+  {
+    for (int x = cache.get_min_x () + offset_x; x < max_x; x += stride)
+    {
+      if (cache.contains (x, y))
+      {
+        candidates.push_back (variables::CellIndex (x, y));
+      }
+    }
   }
-  knowledge_->unlock ();
 
-  // mark current position as seen
-  utility::GPSPosition current;
-  current.from_container (self_->agent.location);
   /**
-   * However, we do need to communicate when we reset a time value for out
-   * current location. Note that due to lack of synchronization, this value 
-   * could be changed to 1 on other agents before it is actually considered for
-   * utility calculations. This is inconsequential.
+   * The stride assumes a compact area. A lattice may miss a thin or sparse
+   * area entirely, so fall back to every cell, or hold more cells than
+   * allowed, so keep an even spread of them, still in row major order.
    */
-  min_time_.set_value (current, 0);
-  position_value_map_.erase (min_time_.get_index_from_gps (current));
-  
-  return check_if_finished (OK);
+  if (candidates.empty () && stride > 1)
+  {
+    for (int y = cache.get_min_y (); y < max_y; ++y)
+    {
+      for (int x = cache.get_min_x (); x < max_x; ++x)
+      {
+        if (cache.contains (x, y))
+        {
+          candidates.push_back (variables::CellIndex (x, y));
+        }
+      }
+    }
+  }
+
+  const size_t count = candidates.size ();
+  if (max_candidates > 0 && count > max_candidates)
+  {
+    for (size_t i = 0; i < max_candidates; ++i)
+    {
+      candidates[i] = candidates[i * count / max_candidates];
+    }
+    candidates.resize (max_candidates);
+  }
 }
 
 void
@@ -283,70 +406,105 @@ gams::algorithms::area_coverage::MinTimeAreaCoverage::
     review_last_move ();
     last_generation_ = executions_;
 
-    // check each possible destination for max utility
-    double max_util = -DBL_MAX;
-    std::set<utility::Position> online;
-    utility::GPSPosition current;
+    // only the rows visited since the last plan are recomputed
+    variables::UtilityCache & cache = min_time_.get_utility_cache ();
+    const double now = executions_;
+    cache.refresh (now);
+
+    pose::Position current (platform_->get_frame ());
     current.from_container (self_->agent.location);
-    next_position_ = current;
-    utility::Position cur_index = min_time_.get_index_from_gps (current);
-    for (std::set<utility::Position>::const_iterator it = valid_positions_.begin ();
-      it != valid_positions_.end (); ++it)
+    const variables::CellIndex cur_index = get_cell (current);
+
+    /**
+     * Large areas score a lattice of destinations instead of every cell.
+     * The lattice shifts on every plan, so every cell is eventually scored.
+     */
+    get_candidates (cache, max_candidates_, plans_, candidates_);
+    ++plans_;
+
+    /**
+     * Each chunk of destinations keeps its first maximum. The chunks are
+     * contiguous and reduced in order, so ties go to the earliest
+     * destination, exactly as in a single threaded scan.
+     */
+    const size_t count = candidates_.size ();
+    std::vector<std::pair<double, size_t> > chunk_best (
+      pool_.get_chunks (count), std::make_pair (-DBL_MAX, count));
+
+    pool_.run (count,
+      [this, &cur_index, &chunk_best] (size_t begin, size_t end, size_t chunk)
+    {
+      std::pair<double, size_t> & result = chunk_best[chunk];
+      for (size_t i = begin; i < end; ++i)
+      {
+        double util = get_utility (cur_index, candidates_[i]);
+        if (util > result.first)
+        {
+          result.first = util;
+          result.second = i;
+        }
+      }
+    });
+
+    double max_util = -DBL_MAX;
+    variables::CellIndex best = cur_index;
+    for (size_t i = 0; i < chunk_best.size (); ++i)
     {
-      std::set<utility::Position> cur_online;
-      double util = get_utility (cur_index, *it, cur_online);
-      if (util > max_util)
+      if (chunk_best[i].first > max_util)
       {
-        max_util = util;
-        next_position_ = min_time_.get_gps_from_index (*it);
-        next_position_.altitude (self_->agent.desired_altitude.to_double ());
-        online.swap (cur_online);
+        max_util = chunk_best[i].first;
+        best = candidates_[chunk_best[i].second];
       }
     }
 
+    pose::Position destination = min_time_.get_gps_from_index (
+      pose::Position (pose::gps_frame (), best.first, best.second));
+    next_position_ = utility::GPSPosition (destination);
+    next_position_.altitude (self_->agent.desired_altitude.to_double ());
+
     /**
-     * Here we 0 out the cells along the line from our current cell to our
-     * destination cell. Importantly, we also store the values that we are
-     * clearing. Once the move is complete, we will check if we actually hit the
-     * cells and update them if we did not.
+     * Here we mark the cells along the line from our current cell to our
+     * destination cell as visited now. Importantly, we also store the visit
+     * times that we are replacing. Once the move is complete, we will check
+     * if we actually hit the cells and restore them if we did not.
      */
-    for (std::set<utility::Position>::iterator it = online.begin ();
-      it != online.end (); ++it)
+    std::vector<variables::CellIndex> online;
+    cache.get_path_cells (cur_index.first, cur_index.second,
+      best.first, best.second, radius_, online);
+
+    for (size_t i = 0; i < online.size (); ++i)
     {
-      position_value_map_[*it] = min_time_.get_value (*it);
-      min_time_.set_value (*it, 0.0);
+      claimed_.push_back (std::make_pair (online[i],
+        cache.get_last_visit (online[i].first, online[i].second)));
+      cache.set_last_visit (online[i].first, online[i].second, now);
     }
 
+    madara_logger_ptr_log (gams::loggers::global_logger.get (),
+      gams::loggers::LOG_MAJOR,
+      "MinTimeAreaCoverage::generate_new_position:" \
+      " moving to cell %dx%d with utility %f, claiming %u cells\n",
+      best.first, best.second, max_util, (unsigned int)online.size ());
+
     initialized_ = true;
   }
 }
 
 double
 gams::algorithms::area_coverage::MinTimeAreaCoverage::get_utility (
-  const utility::Position& start, const utility::Position& end,
-  std::set<utility::Position>& online)
+  const variables::CellIndex & start, const variables::CellIndex & end) const
 {
   /**
-   * check each valid position and add its value to utility if it is along
-   * the possible travel path of the agent
+   * sum the utility of each valid position along the possible travel path
+   * of the agent
    */
-  double util = 0.0;
-  const double radius =
-    min_time_.get_range () / min_time_.get_discretization ();
-  for (std::set<utility::Position>::const_iterator it = valid_positions_.begin ();
-    it != valid_positions_.end (); ++it)
-  {
-    if (start.distance_to_2d (end, *it) < radius)
-    {
-      double time = min_time_.get_value (*it);
-      double delta_util = pow (time, 3.0);
-      util += delta_util;
-      online.insert (*it);
-    }
-  }
-  
+  double util = min_time_.get_utility_cache ().get_path_utility (
+    start.first, start.second, end.first, end.second,
+    radius_, (double)executions_);
+
   // modify the utility based on the distance that will be travelled
-  return util / sqrt(start.distance_to_2d (end) + 1);
+  double dx = end.first - start.first;
+  double dy = end.second - start.second;
+  return util / sqrt (sqrt (dx * dx + dy * dy) + 1);
 }
 
 void
@@ -358,17 +516,14 @@ gams::algorithms::area_coverage::MinTimeAreaCoverage::review_last_move ()
    * reset. We also allow for the possibility that other agents coincidentally 
    * observed a cell that we were going to.
    */
-  double expected = executions_ - last_generation_;
-  for (std::map<utility::Position, double>::const_iterator it = 
-    position_value_map_.begin (); it != position_value_map_.end ();
-    ++it)
+  variables::UtilityCache & cache = min_time_.get_utility_cache ();
+  const double expected = last_generation_;
+  for (size_t i = 0; i < claimed_.size (); ++i)
   {
-    if (min_time_.get_value (it->first) == expected)
-      min_time_.set_value (it->first,
-        min_time_.get_value (it->first) + it->second);
+    const variables::CellIndex & cell = claimed_[i].first;
+    if (cache.get_last_visit (cell.first, cell.second) == expected)
+      cache.set_last_visit (cell.first, cell.second, claimed_[i].second);
   }
 
-  position_value_map_.clear ();
+  claimed_.clear ();
 }
-
-#endif
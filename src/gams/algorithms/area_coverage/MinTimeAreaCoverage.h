@@ -50,10 +50,9 @@
  *
  * The original use of this class was for time based coverage where agents would
  * select their destination based on how long it had been since it was last 
- * visited. It should probably be slightly modified to easily accept custom 
- * utility calculation functions.
- *
- * NOTE: Disabled pending repair of the variables::Sensor class
+ * visited. Utilities are kept in the utility cache of the coverage sensor,
+ * and subclasses may override get_utility for custom utility calculation.
+ * Candidate destinations may be scored on several threads.
  */
 
 #ifndef _GAMS_ALGORITHMS_AREA_COVERAGE_MIN_TIME_AREA_COVERAGE_H_
@@ -61,14 +60,13 @@
 
 #include "gams/algorithms/area_coverage/BaseAreaCoverage.h"
 
-#include <map>
-#include <set>
 #include <string>
-
-#include "madara/knowledge/KnowledgeUpdateSettings.h"
+#include <utility>
+#include <vector>
 
 #include "gams/pose/SearchArea.h"
-#include "gams/utility/GPSPosition.h"
+#include "gams/variables/Sensor.h"
+#include "gams/utility/WorkerPool.h"
 #include "gams/algorithms/AlgorithmFactory.h"
 
 
@@ -84,6 +82,9 @@ namespace gams
       class GAMS_EXPORT MinTimeAreaCoverage : public BaseAreaCoverage
       {
       public:
+        /// default maximum number of destinations scored per plan
+        static const size_t DEFAULT_MAX_CANDIDATES = 4096;
+
         /**
          * Constructor
          * @param  search_id    the region or search area to be covered
@@ -94,13 +95,19 @@ namespace gams
          * @param  self         self-referencing variables
          * @param  agents      variables relating to agents
          * @param  algo_name    name to use in Sensor for differentiation
+         * @param  max_candidates  maximum number of destinations to score
+         *                      per plan, or 0 to score every cell
+         * @param  threads      number of threads that score destinations,
+         *                      or 0 for one per hardware thread
          **/
         MinTimeAreaCoverage (
           const std::string& search_id, double e_time, 
           madara::knowledge::KnowledgeBase * knowledge = 0,
           platforms::BasePlatform * platform = 0, variables::Sensors * sensors = 0,
           variables::Self * self = 0, variables::Agents * agents = 0, 
-          const std::string& algo_name = "mtac");
+          const std::string& algo_name = "mtac",
+          size_t max_candidates = DEFAULT_MAX_CANDIDATES,
+          size_t threads = 1);
   
         /**
          * Assignment operator
@@ -109,36 +116,97 @@ namespace gams
         void operator= (const MinTimeAreaCoverage & rhs);
 
         /**
-         * Increment sensor values
+         * Marks the cells under every agent as visited
          */
         virtual int analyze (void);
 
+        /**
+         * Gets the sensor that holds the time since each cell was visited
+         * @return the coverage sensor, which owns the utility cache
+         **/
+        variables::Sensor & get_sensor (void);
+
+        /**
+         * Gets the distance between candidate destinations for an area
+         * @param  cells           number of cells in the covered area
+         * @param  max_candidates  maximum number of destinations, or 0 for
+         *                         every cell
+         * @return the stride between candidates along x and y
+         **/
+        static int get_candidate_stride (size_t cells, size_t max_candidates);
+
+        /**
+         * Lists the destinations scored by one plan. Areas with more than
+         * max_candidates cells are sampled on a lattice that shifts with
+         * each plan, so every cell is eventually scored. If the lattice
+         * misses the area, every cell is listed instead, and if the list
+         * holds more than max_candidates cells, it is thinned evenly.
+         * @param  cache           the cells of the covered area
+         * @param  max_candidates  maximum number of destinations, or 0 for
+         *                         every cell
+         * @param  plan            number of plans made before this one
+         * @param  candidates      the list to fill, in row major order
+         **/
+        static void get_candidates (const variables::UtilityCache & cache,
+          size_t max_candidates, size_t plan,
+          std::vector<variables::CellIndex> & candidates);
+
       protected:
         /// generate new next position
         virtual void generate_new_position (void);
   
         /**
-         * A better way to manage this would probably be to take a function
-         * pointer to handle utility calculation.
-         */
-        /// get utility of moving from one index position to another
-        virtual double get_utility (const utility::Position& start,
-          const utility::Position& end, std::set<utility::Position>& online);
+         * Gets the utility of moving from one index position to another.
+         * Reads the utility cache as of its last refresh. Called from
+         * several threads at once when more than one thread is used, so
+         * overrides must only read.
+         * @param  start   the cell the agent is in
+         * @param  end     the destination cell
+         * @return the utility of the move
+         **/
+        virtual double get_utility (const variables::CellIndex & start,
+          const variables::CellIndex & end) const;
 
         /// review if last move was good, did we hit all cells we said we would
         virtual void review_last_move ();
+
+        /**
+         * Gets the distance between candidate destinations, chosen so that
+         * at most max_candidates_ cells are scored per plan
+         * @return the stride between candidates along x and y
+         **/
+        int get_candidate_stride (void) const;
+
+        /**
+         * Gets the cell that contains a position
+         * @param  pos   the position
+         * @return the index of the cell
+         **/
+        variables::CellIndex get_cell (const pose::Position & pos);
   
         /// Search Area to cover
         pose::SearchArea search_area_;
   
         /// time since last coverage
         variables::Sensor min_time_;
-  
-        /// discretized positions in search area
-        std::set<utility::Position> valid_positions_;
 
-        /// positions we will be passing through and their previous values
-        std::map<utility::Position, double> position_value_map_;
+        /// radius around a path that a move covers, in cells
+        double radius_;
+
+        /// maximum number of destinations scored per plan
+        size_t max_candidates_;
+
+        /// number of plans made, used to rotate the candidate lattice
+        size_t plans_;
+
+        /// destinations of the current plan, in row major order
+        std::vector<variables::CellIndex> candidates_;
+
+        /// threads that score the destinations
+        utility::WorkerPool pool_;
+
+        /// cells claimed for the current move and their previous visit times
+        std::vector<std::pair<variables::CellIndex, double> > claimed_;
 
         /// time step of last position generation
         unsigned int last_generation_;
@@ -151,10 +219,12 @@ namespace gams
         : public AlgorithmFactory
       {
       public:
-
         /**
          * Creates a minimum time area coverage Algorithm.
-         * @param   args      args[0] = search area id
+         * @param   args      args["search_area"] = search area id,
+         *                    args["time"] = time to cover,
+         *                    args["candidates"] = destinations per plan,
+         *                    args["threads"] = scoring threads
          * @param   knowledge the knowledge base to use
          * @param   platform  the platform. This will be set by the
          *                    controller in init_vars.
@@ -43,7 +43,6 @@
  *      This material has been approved for public release and unlimited
  *      distribution.
  **/
-
 /**
  * @file PrioritizedMinTimeAreaCoverage.cpp
  * @author Anton Dukeman <anton.dukeman@gmail.com>
@@ -52,31 +51,21 @@
  * region. Each agent selects a destination coordinate which provides the 
  * highest increase in sensor utility determined by time since last observation.
  *
- * NOTE: the Area Coverage algorithms currently use the deprecated
- * utility::Position classes, and should not be used as examples.
- *
- * Disabled pending repair of the variables::Sensor class
+ * The priority of each cell is the weight of the cell in the utility cache,
+ * so the utility of a cell is (priority * time since last observation)^3
+ * and scoring costs the same as in minimum time coverage.
  **/
 
-#if 0
-
 #include "gams/loggers/GlobalLogger.h"
 #include "gams/algorithms/area_coverage/PrioritizedMinTimeAreaCoverage.h"
 
+#include <algorithm>
 #include <string>
-using std::string;
-#include <iostream>
-using std::cerr;
-using std::endl;
-#include <cmath>
-#include <set>
-using std::set;
-
-#include "gams/utility/GPSPosition.h"
-#include "gams/utility/Position.h"
 
 #include "gams/utility/ArgumentParser.h"
 
+using std::string;
+
 namespace engine = madara::knowledge;
 namespace containers = engine::containers;
 
@@ -103,6 +92,9 @@ gams::algorithms::area_coverage::PrioritizedMinTimeAreaCoverageFactory::create (
   {
     std::string search_area;
     double time = 360;
+    size_t candidates =
+      area_coverage::MinTimeAreaCoverage::DEFAULT_MAX_CANDIDATES;
+    size_t threads = threads_;
 
     for (KnowledgeMap::const_iterator i = args.begin (); i != args.end (); ++i)
     {
@@ -118,11 +110,23 @@ gams::algorithms::area_coverage::PrioritizedMinTimeAreaCoverageFactory::create (
 
           madara_logger_ptr_log (gams::loggers::global_logger.get (),
             gams::loggers::LOG_DETAILED,
-            "gams::algorithms::FormationSyncFactory:" \
+            "gams::algorithms::area_coverage::PrioritizedMinTimeAreaCoverageFactory:" \
             " setting search_area to %s\n", search_area.c_str ());
           break;
         }
         goto unknown;
+      case 'c':
+        if (i->first == "candidates")
+        {
+          candidates = (size_t)std::max (i->second.to_integer (), (Integer)0);
+
+          madara_logger_ptr_log (gams::loggers::global_logger.get (),
+            gams::loggers::LOG_DETAILED,
+            "gams::algorithms::area_coverage::PrioritizedMinTimeAreaCoverageFactory:" \
+            " setting candidates to %u\n", (unsigned int)candidates);
+          break;
+        }
+        goto unknown;
       case 's':
         if (i->first == "search_area")
         {
@@ -130,7 +134,7 @@ gams::algorithms::area_coverage::PrioritizedMinTimeAreaCoverageFactory::create (
 
           madara_logger_ptr_log (gams::loggers::global_logger.get (),
             gams::loggers::LOG_DETAILED,
-            "gams::algorithms::FormationSyncFactory:" \
+            "gams::algorithms::area_coverage::PrioritizedMinTimeAreaCoverageFactory:" \
             " setting search_area to %s\n", search_area.c_str ());
           break;
         }
@@ -142,16 +146,26 @@ gams::algorithms::area_coverage::PrioritizedMinTimeAreaCoverageFactory::create (
 
           madara_logger_ptr_log (gams::loggers::global_logger.get (),
             gams::loggers::LOG_DETAILED,
-            "gams::algorithms::FormationSyncFactory:" \
+            "gams::algorithms::area_coverage::PrioritizedMinTimeAreaCoverageFactory:" \
             " setting time to %f\n", time);
           break;
         }
+        else if (i->first == "threads")
+        {
+          threads = (size_t)std::max (i->second.to_integer (), (Integer)0);
+
+          madara_logger_ptr_log (gams::loggers::global_logger.get (),
+            gams::loggers::LOG_DETAILED,
+            "gams::algorithms::area_coverage::PrioritizedMinTimeAreaCoverageFactory:" \
+            " setting threads to %u\n", (unsigned int)threads);
+          break;
+        }
         goto unknown;
       unknown:
       default:
         madara_logger_ptr_log (gams::loggers::global_logger.get (),
           gams::loggers::LOG_MAJOR,
-          "gams::algorithms::FormationSyncFactory:" \
+          "gams::algorithms::area_coverage::PrioritizedMinTimeAreaCoverageFactory:" \
           " argument unknown: %s -> %s\n",
           i->first.c_str (), i->second.to_string ().c_str ());
         break;
@@ -170,7 +184,8 @@ gams::algorithms::area_coverage::PrioritizedMinTimeAreaCoverageFactory::create (
     {
       result = new area_coverage::PrioritizedMinTimeAreaCoverage (
         search_area, time,
-        knowledge, platform, sensors, self, agents);
+        knowledge, platform, sensors, self, agents, "pmtac",
+        candidates, threads);
     }
   }
 
@@ -184,46 +199,37 @@ gams::algorithms::area_coverage::PrioritizedMinTimeAreaCoverage::
   madara::knowledge::KnowledgeBase * knowledge,
   platforms::BasePlatform * platform, variables::Sensors * sensors,
   variables::Self * self, variables::Agents * agents,
-  const string& algo_name) :
-  MinTimeAreaCoverage (search_id, e_time, knowledge, platform, sensors, self, agents, algo_name)
-{
-}
-
-void
-gams::algorithms::area_coverage::PrioritizedMinTimeAreaCoverage::operator= (
-  const PrioritizedMinTimeAreaCoverage & rhs)
-{
-  this->MinTimeAreaCoverage::operator= (rhs);
-}
-
-double
-gams::algorithms::area_coverage::PrioritizedMinTimeAreaCoverage::get_utility (
-  const utility::Position& start, const utility::Position& end,
-  set<utility::Position>& online)
+  const string& algo_name, size_t max_candidates, size_t threads) :
+  MinTimeAreaCoverage (search_id, e_time, knowledge, platform, sensors, self,
+    agents, algo_name, max_candidates, threads)
 {
   /**
-   * check each valid position and add its value to utility if it is along
-   * the possible travel path of the agent
+   * Weight each cell by the priority of its region. Cells in regions of
+   * no priority get a weight of zero and are never destinations.
    */
-  double util = 0.0;
-  const double radius =
-    min_time_.get_range () / min_time_.get_discretization ();
-  for (set<utility::Position>::const_iterator it = valid_positions_.begin ();
-    it != valid_positions_.end (); ++it)
+  variables::UtilityCache & cache = min_time_.get_utility_cache ();
+  const int max_x = cache.get_min_x () + cache.get_width ();
+  const int max_y = cache.get_min_y () + cache.get_height ();
+
+  for (int y = cache.get_min_y (); y < max_y; ++y)
   {
-    if (start.distance_to_2d (end, *it) < radius)
+    for (int x = cache.get_min_x (); x < max_x; ++x)
     {
-      const utility::GPSPosition gps = min_time_.get_gps_from_index (*it);
-      double time = min_time_.get_value (*it) * search_area_.get_priority (gps);
-      double delta_util = pow (time, 3.0);
-      util += delta_util;
-      online.insert (*it);
+      if (cache.contains (x, y))
+      {
+        const pose::Position gps = min_time_.get_gps_from_index (
+          pose::Position (pose::gps_frame (), x, y));
+        cache.set_weight (x, y, (double)search_area_.get_priority (gps));
+      }
     }
   }
-  
-  // modify the utility based on the distance that will be travelled
-  util = util / sqrt (start.distance_to_2d (end) + 1);
-  return util;
+
+  cache.refresh ((double)executions_ - 1);
 }
 
-#endif
+void
+gams::algorithms::area_coverage::PrioritizedMinTimeAreaCoverage::operator= (
+  const PrioritizedMinTimeAreaCoverage & rhs)
+{
+  this->MinTimeAreaCoverage::operator= (rhs);
+}
@@ -43,12 +43,12 @@
  *      This material has been approved for public release and unlimited
  *      distribution.
  **/
-
 /**
  * @file PrioritizedMinTimeAreaCoverage.h
  * @author Anton Dukeman <anton.dukeman@gmail.com>
  *
- * NOTE: Disabled pending repair of the variables::Sensor class
+ * Minimum time coverage where the time since a cell was last visited is
+ * scaled by the priority of the region that contains the cell
  **/
 
 #ifndef _GAMS_ALGORITHMS_AREA_COVERAGE_PRIORITIZED_MIN_TIME_AREA_COVERAGE_H_
@@ -57,9 +57,7 @@
 #include "gams/algorithms/area_coverage/MinTimeAreaCoverage.h"
 
 #include <string>
-#include <set>
 
-#include "madara/knowledge/KnowledgeUpdateSettings.h"
 #include "gams/algorithms/AlgorithmFactory.h"
 
 namespace gams
@@ -86,6 +84,10 @@ namespace gams
          * @param  self         self-referencing variables
          * @param  agents      variables referencing agents
          * @param  algo_name    algorithm name
+         * @param  max_candidates  maximum number of destinations to score
+         *                      per plan, or 0 to score every cell
+         * @param  threads      number of threads that score destinations,
+         *                      or 0 for one per hardware thread
          **/
         PrioritizedMinTimeAreaCoverage (
           const std::string& search_id, 
@@ -95,18 +97,15 @@ namespace gams
           variables::Sensors * sensors = 0,
           variables::Self * self = 0,
           variables::Agents * agents = 0,
-          const std::string& algo_name = "pmtac");
+          const std::string& algo_name = "pmtac",
+          size_t max_candidates = DEFAULT_MAX_CANDIDATES,
+          size_t threads = 1);
 
         /**
          * Assignment operator
          * @param  rhs   values to copy
          **/
         void operator= (const PrioritizedMinTimeAreaCoverage & rhs);
-  
-      protected:
-        /// get utility of moving from one index position to another
-        virtual double get_utility (const utility::Position& start,
-          const utility::Position& end, std::set<utility::Position>& online);
       }; // class PrioritizedMinTimeAreaCoverage
 
       /**
@@ -120,7 +119,10 @@ namespace gams
 
         /**
          * Creates a prioritized minimum time coverage algorithm
-         * @param   args      args[0] = search area id
+         * @param   args      args["search_area"] = search area id,
+         *                    args["time"] = time to cover,
+         *                    args["candidates"] = destinations per plan,
+         *                    args["threads"] = scoring threads
          * @param   knowledge the knowledge base to use
          * @param   platform  the platform. This will be set by the
          *                    controller in init_vars.
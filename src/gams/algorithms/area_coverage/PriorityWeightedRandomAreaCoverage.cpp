@@ -51,12 +51,17 @@
  * Prioritized Random Area Coverage prioritizes certain regions of a search area
  * based on specified priorities
  *
+ * Random positions are drawn in rounds and tested against the selected
+ * region on several threads. The first position inside the region wins,
+ * which is the position a one at a time search would have taken.
+ *
  * NOTE: the Area Coverage algorithms currently use the deprecated
  * utility::Position classes, and should not be used as examples.
  **/
 
 #include "gams/algorithms/area_coverage/PriorityWeightedRandomAreaCoverage.h"
 
+#include <algorithm>
 #include <iostream>
 #include <vector>
 
@@ -93,6 +98,7 @@ gams::algorithms::area_coverage::PriorityWeightedRandomAreaCoverageFactory::crea
   {
     std::string search_area;
     double time = 360;
+    size_t threads = threads_;
 
     for (KnowledgeMap::const_iterator i = args.begin (); i != args.end (); ++i)
     {
@@ -136,6 +142,16 @@ gams::algorithms::area_coverage::PriorityWeightedRandomAreaCoverageFactory::crea
             " setting time to %f\n", time);
           break;
         }
+        else if (i->first == "threads")
+        {
+          threads = (size_t)std::max (i->second.to_integer (), (Integer)0);
+
+          madara_logger_ptr_log (gams::loggers::global_logger.get (),
+            gams::loggers::LOG_DETAILED,
+            "gams::algorithms::area_coverage::PriorityWeightedRandomAreaCoverageFactory:" \
+            " setting threads to %u\n", (unsigned int)threads);
+          break;
+        }
         goto unknown;
       unknown:
       default:
@@ -160,7 +176,7 @@ gams::algorithms::area_coverage::PriorityWeightedRandomAreaCoverageFactory::crea
     {
       result = new area_coverage::PriorityWeightedRandomAreaCoverage (
         search_area, time,
-        knowledge, platform, sensors, self, agents);
+        knowledge, platform, sensors, self, agents, threads);
     }
   }
 
@@ -178,9 +194,9 @@ PriorityWeightedRandomAreaCoverage (
   double e_time,
   madara::knowledge::KnowledgeBase * knowledge,
   platforms::BasePlatform * platform, variables::Sensors * sensors,
-  variables::Self * self, variables::Agents * agents) :
+  variables::Self * self, variables::Agents * agents, size_t threads) :
   BaseAreaCoverage (knowledge, platform, sensors, self, agents, e_time),
-  total_priority_ (0.0)
+  total_priority_ (0.0), pool_ (threads)
 {
   // init status vars
   status_.init_vars (*knowledge, "pwrac", self->agent.prefix);
@@ -211,6 +227,7 @@ gams::algorithms::area_coverage::PriorityWeightedRandomAreaCoverage::
     this->search_area_ = rhs.search_area_;
     this->priority_total_by_region_ = rhs.priority_total_by_region_;
     this->total_priority_ = rhs.total_priority_;
+    this->pool_.resize (rhs.pool_.size ());
     this->BaseAreaCoverage::operator= (rhs);
   }
 }
@@ -238,16 +255,52 @@ gams::algorithms::area_coverage::PriorityWeightedRandomAreaCoverage::
       }
     }
 
-    // select point in region
-    do
+    /**
+     * Select point in region. Each round draws its positions on this thread
+     * in the same order as drawing them one at a time, and keeps the first
+     * one inside the region, so the number of threads does not change the
+     * chosen point.
+     */
+    const size_t round = pool_.size () == 1 ?
+      1 : pool_.size () * SAMPLES_PER_THREAD;
+    size_t found = round;
+    while (found == round)
     {
-      next_position_.latitude (madara::utility::rand_double (selected_region->min_lat_,
-        selected_region->max_lat_));
-      next_position_.longitude (madara::utility::rand_double (selected_region->min_lon_,
-        selected_region->max_lon_));
-      next_position_.altitude (madara::utility::rand_double (selected_region->min_alt_,
-        selected_region->max_alt_));
-    } while (!selected_region->contains (next_position_.to_gps_pos()));
+      samples_.resize (round);
+      for (size_t i = 0; i < round; ++i)
+      {
+        double lat = madara::utility::rand_double (selected_region->min_lat_,
+          selected_region->max_lat_);
+        double lon = madara::utility::rand_double (selected_region->min_lon_,
+          selected_region->max_lon_);
+        double alt = madara::utility::rand_double (selected_region->min_alt_,
+          selected_region->max_alt_);
+        samples_[i] = utility::GPSPosition (lat, lon, alt);
+      }
+
+      // the first position inside the region in each chunk
+      vector<size_t> chunk_first (pool_.get_chunks (round), round);
+      pool_.run (round,
+        [this, selected_region, &chunk_first] (
+          size_t begin, size_t end, size_t chunk)
+      {
+        for (size_t i = begin; i < end; ++i)
+        {
+          if (selected_region->contains (samples_[i].to_gps_pos ()))
+          {
+            chunk_first[chunk] = i;
+            break;
+          }
+        }
+      });
+
+      for (size_t i = 0; i < chunk_first.size () && found == round; ++i)
+      {
+        found = chunk_first[i];
+      }
+    }
+
+    next_position_ = samples_[found];
 
     // found an acceptable position, so set it as next
     utility::GPSPosition current;
@@ -61,6 +61,7 @@
 #include <vector>
 
 #include "gams/pose/SearchArea.h"
+#include "gams/utility/WorkerPool.h"
 
 namespace gams
 {
@@ -75,6 +76,9 @@ namespace gams
       class GAMS_EXPORT PriorityWeightedRandomAreaCoverage : public BaseAreaCoverage
       {
       public:
+        /// random positions tested per thread in each round of sampling
+        static const size_t SAMPLES_PER_THREAD = 64;
+
         /**
          * Constructor
          * @param  search_id    search area identifier
@@ -84,6 +88,8 @@ namespace gams
          * @param  sensors      map of sensor names to sensor information
          * @param  self         self-referencing variables
          * @param  agents      variables related to agents
+         * @param  threads      number of threads that test random positions,
+         *                      or 0 for one per hardware thread
          **/
         PriorityWeightedRandomAreaCoverage (
           const std::string& search_id, 
@@ -92,7 +98,8 @@ namespace gams
           platforms::BasePlatform * platform = 0,
           variables::Sensors * sensors = 0,
           variables::Self * self = 0,
-          variables::Agents * agents = 0);
+          variables::Agents * agents = 0,
+          size_t threads = 1);
   
         /**
          * Assignment operator
@@ -114,6 +121,12 @@ namespace gams
   
         /// total priority
         double total_priority_;
+
+        /// random positions of the current round of sampling
+        std::vector<utility::GPSPosition> samples_;
+
+        /// threads that test the random positions
+        utility::WorkerPool pool_;
       }; // class PriorityWeightedAreaCoverage
 
       /**
@@ -127,7 +140,9 @@ namespace gams
 
         /**
          * Creates a priority-weighted random area coverage algorithm
-         * @param   args      args[0] = search area id
+         * @param   args      args["search_area"] = search area id,
+         *                    args["time"] = time to cover,
+         *                    args["threads"] = sampling threads
          * @param   knowledge the knowledge base to use
          * @param   platform  the platform. This will be set by the
          *                    controller in init_vars.
@@ -45,6 +45,7 @@
  **/
 #include "JavaAlgorithm.h"
 #include "gams/utility/java/Acquire_VM.h"
+#include "gams/utility/CallbackTimer.h"
 #include "gams/loggers/GlobalLogger.h"
 
 gams::algorithms::JavaAlgorithmFactory::JavaAlgorithmFactory (
@@ -213,7 +214,9 @@ gams::algorithms::JavaAlgorithm::JavaAlgorithm (
   variables::Sensors * sensors,
   variables::Self * self,
   variables::Agents * agents)
-  : BaseAlgorithm (knowledge, platform, sensors, self, agents)
+  : BaseAlgorithm (knowledge, platform, sensors, self, agents),
+  obj_ (0), class_ (0), analyze_call_ (0), execute_call_ (0),
+  plan_call_ (0), get_id_call_ (0), get_name_call_ (0)
 {
   gams::utility::java::Acquire_VM jvm;
 
@@ -239,6 +242,8 @@ gams::algorithms::JavaAlgorithm::JavaAlgorithm (
           gams::loggers::LOG_MAJOR,
            "gams::algorithms::JavaAlgorithm::constructor:" \
           " class and object obtained successfully.\n");
+
+        cache_method_ids (jvm.env);
       }
       else
       {
@@ -314,6 +319,8 @@ gams::algorithms::JavaAlgorithm::operator= (const JavaAlgorithm & rhs)
 
       obj_ = jvm.env->NewGlobalRef (rhs.obj_);
       class_ = (jclass) jvm.env->NewGlobalRef (rhs.class_);
+
+      cache_method_ids (jvm.env);
     }
     else
     {
@@ -325,6 +332,26 @@ gams::algorithms::JavaAlgorithm::operator= (const JavaAlgorithm & rhs)
   }
 }
  
+void
+gams::algorithms::JavaAlgorithm::cache_method_ids (JNIEnv * env)
+{
+  madara_logger_ptr_log (gams::loggers::global_logger.get (),
+    gams::loggers::LOG_MAJOR,
+    "gams::algorithms::JavaAlgorithm::cache_method_ids:" \
+    " resolving user-defined callback methods.\n");
+
+  analyze_call_ = gams::utility::java::get_method_id (
+    env, class_, "analyze", "()I");
+  execute_call_ = gams::utility::java::get_method_id (
+    env, class_, "execute", "()I");
+  plan_call_ = gams::utility::java::get_method_id (
+    env, class_, "plan", "()I");
+  get_id_call_ = gams::utility::java::get_method_id (
+    env, class_, "getId", "()Ljava/lang/String;");
+  get_name_call_ = gams::utility::java::get_method_id (
+    env, class_, "getName", "()Ljava/lang/String;");
+}
+
 int
 gams::algorithms::JavaAlgorithm::analyze (void)
 {
@@ -336,9 +363,9 @@ gams::algorithms::JavaAlgorithm::analyze (void)
     madara_logger_ptr_log (gams::loggers::global_logger.get (),
       gams::loggers::LOG_MAJOR,
       "gams::algorithms::JavaAlgorithm::analyze:" \
-      " Obtaining user-defined analyze method.\n");
+      " Using cached user-defined analyze method.\n");
 
-    jmethodID call = jvm.env->GetMethodID (class_, "analyze", "()I");
+    jmethodID call = analyze_call_;
 
     if (call)
     {
@@ -346,6 +373,7 @@ gams::algorithms::JavaAlgorithm::analyze (void)
         gams::loggers::LOG_MAJOR,
         "gams::algorithms::JavaAlgorithm::analyze:" \
         " Calling user-defined analyze method.\n");
+      gams::utility::CallbackTimer timer;
       result = jvm.env->CallIntMethod (obj_, call);
     }
     else
@@ -378,9 +406,9 @@ std::string gams::algorithms::JavaAlgorithm::get_id () const
     madara_logger_ptr_log (gams::loggers::global_logger.get (),
       gams::loggers::LOG_MAJOR,
       "gams::algorithms::JavaAlgorithm::get_id:" \
-      " Obtaining user-defined getId method.\n");
+      " Using cached user-defined getId method.\n");
 
-    jmethodID call = jvm.env->GetMethodID (class_, "getId", "()Ljava.lang.String;");
+    jmethodID call = get_id_call_;
 
     if (call)
     {
@@ -390,8 +418,14 @@ std::string gams::algorithms::JavaAlgorithm::get_id () const
         " Calling user-defined getId method.\n");
 
       result = (jstring)jvm.env->CallObjectMethod (obj_, call);
-      const char * id_chars = jvm.env->GetStringUTFChars (result, 0);
-      id = id_chars;
+
+      if (result)
+      {
+        const char * id_chars = jvm.env->GetStringUTFChars (result, 0);
+        id = id_chars;
+        jvm.env->ReleaseStringUTFChars (result, id_chars);
+        jvm.env->DeleteLocalRef (result);
+      }
     }
     else
     {
@@ -423,9 +457,9 @@ std::string gams::algorithms::JavaAlgorithm::get_name () const
     madara_logger_ptr_log (gams::loggers::global_logger.get (),
       gams::loggers::LOG_MAJOR,
       "gams::algorithms::JavaAlgorithm::get_name:" \
-      " Obtaining user-defined getName method.\n");
+      " Using cached user-defined getName method.\n");
 
-    jmethodID call = jvm.env->GetMethodID (class_, "getName", "()Ljava.lang.String;");
+    jmethodID call = get_name_call_;
 
     if (call)
     {
@@ -435,8 +469,14 @@ std::string gams::algorithms::JavaAlgorithm::get_name () const
         " Calling user-defined getName method.\n");
 
       result = (jstring)jvm.env->CallObjectMethod (obj_, call);
-      const char * name_chars = jvm.env->GetStringUTFChars (result, 0);
-      name = name_chars;
+
+      if (result)
+      {
+        const char * name_chars = jvm.env->GetStringUTFChars (result, 0);
+        name = name_chars;
+        jvm.env->ReleaseStringUTFChars (result, name_chars);
+        jvm.env->DeleteLocalRef (result);
+      }
     }
     else
     {
@@ -468,9 +508,9 @@ gams::algorithms::JavaAlgorithm::execute (void)
     madara_logger_ptr_log (gams::loggers::global_logger.get (),
       gams::loggers::LOG_MAJOR,
       "gams::algorithms::JavaAlgorithm::execute:" \
-      " Obtaining user-defined execute method.\n");
+      " Using cached user-defined execute method.\n");
 
-    jmethodID call = jvm.env->GetMethodID (class_, "execute", "()I");
+    jmethodID call = execute_call_;
 
     if (call)
     {
@@ -479,6 +519,7 @@ gams::algorithms::JavaAlgorithm::execute (void)
         "gams::algorithms::JavaAlgorithm::execute:" \
         " Calling user-defined execute method.\n");
 
+      gams::utility::CallbackTimer timer;
       result = jvm.env->CallIntMethod (obj_, call);
     }
     else
@@ -511,9 +552,9 @@ gams::algorithms::JavaAlgorithm::plan (void)
     madara_logger_ptr_log (gams::loggers::global_logger.get (),
       gams::loggers::LOG_MAJOR,
       "gams::algorithms::JavaAlgorithm::plan:" \
-      " Obtaining user-defined plan method.\n");
+      " Using cached user-defined plan method.\n");
 
-    jmethodID call = jvm.env->GetMethodID (class_, "plan", "()I");
+    jmethodID call = plan_call_;
 
     if (call)
     {
@@ -522,6 +563,7 @@ gams::algorithms::JavaAlgorithm::plan (void)
         "gams::algorithms::JavaAlgorithm::plan:" \
         " Calling user-defined plan method.\n");
 
+      gams::utility::CallbackTimer timer;
       result = jvm.env->CallIntMethod (obj_, call);
     }
     else
@@ -142,11 +142,33 @@ namespace gams
       jobject get_java_instance (void);
 
     protected:
+      /**
+       * Resolves the callback method IDs on class_. Called whenever
+       * class_ changes so that MAPE calls do not look them up again.
+       * @param  env   the Java environment of the calling thread
+       **/
+      void cache_method_ids (JNIEnv * env);
+
       /// the Java object with callable methods
       jobject obj_;
 
       /// the class of the Java object obj_
       jclass class_;
+
+      /// cached ID of the analyze method
+      jmethodID analyze_call_;
+
+      /// cached ID of the execute method
+      jmethodID execute_call_;
+
+      /// cached ID of the plan method
+      jmethodID plan_call_;
+
+      /// cached ID of the getId method
+      jmethodID get_id_call_;
+
+      /// cached ID of the getName method
+      jmethodID get_name_call_;
     };
 
 
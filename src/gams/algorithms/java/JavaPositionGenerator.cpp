@@ -0,0 +1,134 @@
+/**
+ * Copyright (c) 2017 Carnegie Mellon University. All Rights Reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following acknowledgments and disclaimers.
+ * 
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * 3. The names "Carnegie Mellon University," "SEI" and/or "Software
+ *    Engineering Institute" shall not be used to endorse or promote products
+ *    derived from this software without prior written permission. For written
+ *    permission, please contact permission@sei.cmu.edu.
+ * 
+ * 4. Products derived from this software may not be called "SEI" nor may "SEI"
+ *    appear in their names without prior written permission of
+ *    permission@sei.cmu.edu.
+ * 
+ * 5. Redistributions of any form whatsoever must retain the following
+ *    acknowledgment:
+ * 
+ *      This material is based upon work funded and supported by the Department
+ *      of Defense under Contract No. FA8721-05-C-0003 with Carnegie Mellon
+ *      University for the operation of the Software Engineering Institute, a
+ *      federally funded research and development center. Any opinions,
+ *      findings and conclusions or recommendations expressed in this material
+ *      are those of the author(s) and do not necessarily reflect the views of
+ *      the United States Department of Defense.
+ * 
+ *      NO WARRANTY. THIS CARNEGIE MELLON UNIVERSITY AND SOFTWARE ENGINEERING
+ *      INSTITUTE MATERIAL IS FURNISHED ON AN "AS-IS" BASIS. CARNEGIE MELLON
+ *      UNIVERSITY MAKES NO WARRANTIES OF ANY KIND, EITHER EXPRESSED OR
+ *      IMPLIED, AS TO ANY MATTER INCLUDING, BUT NOT LIMITED TO, WARRANTY OF
+ *      FITNESS FOR PURPOSE OR MERCHANTABILITY, EXCLUSIVITY, OR RESULTS
+ *      OBTAINED FROM USE OF THE MATERIAL. CARNEGIE MELLON UNIVERSITY DOES
+ *      NOT MAKE ANY WARRANTY OF ANY KIND WITH RESPECT TO FREEDOM FROM PATENT,
+ *      TRADEMARK, OR COPYRIGHT INFRINGEMENT.
+ * 
+ *      This material has been approved for public release and unlimited
+ *      distribution.
+ **/
+
+#include "JavaPositionGenerator.h"
+#include "gams/utility/java/Acquire_VM.h"
+#include "gams/utility/CallbackTimer.h"
+#include "gams/loggers/GlobalLogger.h"
+
+gams::algorithms::JavaPositionGenerator::JavaPositionGenerator (jobject obj)
+  : obj_ (0), generate_call_ (0)
+{
+  gams::utility::java::Acquire_VM jvm;
+
+  if (jvm.env)
+  {
+    obj_ = jvm.env->NewGlobalRef (obj);
+
+    if (obj_)
+    {
+      jclass obj_class = jvm.env->GetObjectClass (obj_);
+      generate_call_ = gams::utility::java::get_method_id (
+        jvm.env, obj_class, "generateNewPosition", "()V");
+      jvm.env->DeleteLocalRef (obj_class);
+    }
+
+    if (!generate_call_)
+    {
+      madara_logger_ptr_log (gams::loggers::global_logger.get (),
+        gams::loggers::LOG_ERROR,
+        "gams::algorithms::JavaPositionGenerator::constructor:" \
+        " ERROR: object has no generateNewPosition method.\n");
+    }
+  }
+  else
+  {
+    madara_logger_ptr_log (gams::loggers::global_logger.get (),
+      gams::loggers::LOG_ERROR,
+      "gams::algorithms::JavaPositionGenerator::constructor:" \
+      " ERROR: unable to acquire JAVA environment.\n");
+  }
+}
+
+gams::algorithms::JavaPositionGenerator::~JavaPositionGenerator ()
+{
+  gams::utility::java::Acquire_VM jvm;
+
+  if (jvm.env && obj_)
+  {
+    jvm.env->DeleteGlobalRef (obj_);
+  }
+}
+
+void
+gams::algorithms::JavaPositionGenerator::generate (
+  area_coverage::BaseAreaCoverage & coverage)
+{
+  gams::utility::java::Acquire_VM jvm;
+
+  if (jvm.env && generate_call_)
+  {
+    madara_logger_ptr_log (gams::loggers::global_logger.get (),
+      gams::loggers::LOG_DETAILED,
+      "gams::algorithms::JavaPositionGenerator::generate:" \
+      " Calling user-defined generateNewPosition method.\n");
+
+    {
+      gams::utility::CallbackTimer timer;
+      jvm.env->CallVoidMethod (obj_, generate_call_);
+    }
+
+    // a pending exception would poison every later JNI call in the loop
+    if (jvm.env->ExceptionCheck ())
+    {
+      madara_logger_ptr_log (gams::loggers::global_logger.get (),
+        gams::loggers::LOG_ERROR,
+        "gams::algorithms::JavaPositionGenerator::generate:" \
+        " user-defined generateNewPosition threw an exception." \
+        " Using the native position.\n");
+
+      jvm.env->ExceptionDescribe ();
+      jvm.env->ExceptionClear ();
+
+      coverage.generate_native_position ();
+    }
+  }
+  else
+  {
+    // keep the coverage moving with its own strategy
+    coverage.generate_native_position ();
+  }
+}
@@ -0,0 +1,105 @@
+/**
+ * Copyright (c) 2017 Carnegie Mellon University. All Rights Reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following acknowledgments and disclaimers.
+ * 
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * 3. The names "Carnegie Mellon University," "SEI" and/or "Software
+ *    Engineering Institute" shall not be used to endorse or promote products
+ *    derived from this software without prior written permission. For written
+ *    permission, please contact permission@sei.cmu.edu.
+ * 
+ * 4. Products derived from this software may not be called "SEI" nor may "SEI"
+ *    appear in their names without prior written permission of
+ *    permission@sei.cmu.edu.
+ * 
+ * 5. Redistributions of any form whatsoever must retain the following
+ *    acknowledgment:
+ * 
+ *      This material is based upon work funded and supported by the Department
+ *      of Defense under Contract No. FA8721-05-C-0003 with Carnegie Mellon
+ *      University for the operation of the Software Engineering Institute, a
+ *      federally funded research and development center. Any opinions,
+ *      findings and conclusions or recommendations expressed in this material
+ *      are those of the author(s) and do not necessarily reflect the views of
+ *      the United States Department of Defense.
+ * 
+ *      NO WARRANTY. THIS CARNEGIE MELLON UNIVERSITY AND SOFTWARE ENGINEERING
+ *      INSTITUTE MATERIAL IS FURNISHED ON AN "AS-IS" BASIS. CARNEGIE MELLON
+ *      UNIVERSITY MAKES NO WARRANTIES OF ANY KIND, EITHER EXPRESSED OR
+ *      IMPLIED, AS TO ANY MATTER INCLUDING, BUT NOT LIMITED TO, WARRANTY OF
+ *      FITNESS FOR PURPOSE OR MERCHANTABILITY, EXCLUSIVITY, OR RESULTS
+ *      OBTAINED FROM USE OF THE MATERIAL. CARNEGIE MELLON UNIVERSITY DOES
+ *      NOT MAKE ANY WARRANTY OF ANY KIND WITH RESPECT TO FREEDOM FROM PATENT,
+ *      TRADEMARK, OR COPYRIGHT INFRINGEMENT.
+ * 
+ *      This material has been approved for public release and unlimited
+ *      distribution.
+ **/
+
+/**
+ * @file JavaPositionGenerator.h
+ * @author James Edmondson <jedmondson@gmail.com>
+ *
+ * This file contains the definition of a position generator that lets Java
+ * area coverages choose their own waypoints
+ **/
+
+#ifndef   _GAMS_ALGORITHM_JAVA_POSITION_GENERATOR_H_
+#define   _GAMS_ALGORITHM_JAVA_POSITION_GENERATOR_H_
+
+#include "gams/algorithms/area_coverage/BaseAreaCoverage.h"
+
+#ifdef _GAMS_JAVA_
+#include <jni.h>
+#include "gams_jni.h"
+#endif
+
+namespace gams
+{
+  namespace algorithms
+  {
+    /**
+    * Calls the generateNewPosition method of a Java
+    * ai.gams.algorithms.coverage.AreaCoverage. The coverage itself keeps
+    * running natively, so Java is only entered when a waypoint is reached.
+    **/
+    class GAMS_EXPORT JavaPositionGenerator :
+      public area_coverage::PositionGenerator
+    {
+    public:
+      /**
+       * Constructor
+       * @param  obj  the Java coverage to call generateNewPosition on
+       **/
+      JavaPositionGenerator (jobject obj);
+
+      /**
+       * Destructor
+       **/
+      ~JavaPositionGenerator ();
+
+      /**
+       * Calls generateNewPosition on the Java coverage
+       * @param  coverage  the coverage that needs a new waypoint
+       **/
+      virtual void generate (area_coverage::BaseAreaCoverage & coverage);
+
+    protected:
+      /// the Java coverage
+      jobject obj_;
+
+      /// cached ID of the generateNewPosition method
+      jmethodID generate_call_;
+    };
+  }
+}
+
+#endif // _GAMS_ALGORITHM_JAVA_POSITION_GENERATOR_H_
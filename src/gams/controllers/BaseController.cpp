@@ -46,6 +46,7 @@
 
 #include "BaseController.h"
 
+#include <algorithm>
 #include <iostream>
 #include <sstream>
 
@@ -139,6 +140,7 @@ void gams::controllers::BaseController::add_algorithm_factory (
 int
 gams::controllers::BaseController::monitor (void)
 {
+  ControllerMetrics::PhaseTimer timer (metrics_, ControllerMetrics::MONITOR);
   int result (0);
 
   if (platform_)
@@ -171,6 +173,7 @@ gams::controllers::BaseController::monitor (void)
 int
 gams::controllers::BaseController::system_analyze (void)
 {
+  ControllerMetrics::PhaseTimer timer (metrics_, ControllerMetrics::SYSTEM_ANALYZE);
   int return_value (0);
   //bool error (false);
 
@@ -337,6 +340,7 @@ gams::controllers::BaseController::system_analyze (void)
 int
 gams::controllers::BaseController::analyze (void)
 {
+  ControllerMetrics::PhaseTimer timer (metrics_, ControllerMetrics::ANALYZE);
   int return_value (0);
 
   if (platform_)
@@ -407,6 +411,7 @@ gams::controllers::BaseController::analyze (void)
 int
 gams::controllers::BaseController::plan (void)
 {
+  ControllerMetrics::PhaseTimer timer (metrics_, ControllerMetrics::PLAN);
   int return_value (0);
 
   if (algorithm_)
@@ -453,6 +458,7 @@ gams::controllers::BaseController::plan (void)
 int
 gams::controllers::BaseController::execute (void)
 {
+  ControllerMetrics::PhaseTimer timer (metrics_, ControllerMetrics::EXECUTE);
   int return_value (0);
 
   if (algorithm_)
@@ -578,6 +584,8 @@ gams::controllers::BaseController::run_once_ (void)
 int
 gams::controllers::BaseController::run_once (void)
 {
+  ControllerMetrics::PhaseTimer timer (metrics_, ControllerMetrics::ITERATION);
+
   // return value
   int return_value (run_once_ ());
 
@@ -587,12 +595,35 @@ gams::controllers::BaseController::run_once (void)
     " sending updates\n");
 
   // send modified values through network
-  knowledge_.send_modifieds ("BaseController::run_once",
-      settings_.eval_settings);
+  send_ ("BaseController::run_once");
 
   return return_value;
 }
 
+void
+gams::controllers::BaseController::send_modifieds (void)
+{
+  madara_logger_ptr_log (gams::loggers::global_logger.get (),
+    gams::loggers::LOG_MAJOR,
+    "gams::controllers::BaseController::send_modifieds:" \
+    " sending updates\n");
+
+  send_ ("BaseController::send_modifieds");
+}
+
+void
+gams::controllers::BaseController::send_ (const char * caller)
+{
+  {
+    ControllerMetrics::PhaseTimer timer (metrics_, ControllerMetrics::SEND);
+
+    metrics_.mirror (knowledge_);
+    knowledge_.send_modifieds (caller, settings_.eval_settings);
+  }
+
+  metrics_.sent ();
+}
+
 
 int
 gams::controllers::BaseController::run (void)
@@ -726,6 +757,10 @@ gams::controllers::BaseController::run (double loop_period,
     //unsigned int iterations = 0;
     while (first_execute || max_runtime < 0 || current < end_time)
     {
+      std::chrono::steady_clock::time_point iteration_start =
+        std::chrono::steady_clock::now ();
+      uint64_t callback_start = utility::callback_nanos ();
+
       // return value should be last return value of mape loop
       return_value = run_once_ ();
 
@@ -756,8 +791,7 @@ gams::controllers::BaseController::run (double loop_period,
         }
 
         // send modified values through network
-        knowledge_.send_modifieds ("BaseController::run",
-            settings_.eval_settings);
+        send_ ("BaseController::run");
 
         // setup the next send epoch
         if (send_period > 0)
@@ -771,6 +805,19 @@ gams::controllers::BaseController::run (double loop_period,
 
       current = madara::utility::Clock::now ();
 
+      metrics_.record (ControllerMetrics::ITERATION, (uint64_t)
+        std::chrono::duration_cast<std::chrono::nanoseconds> (
+          std::chrono::steady_clock::now () - iteration_start).count (),
+        utility::callback_nanos () - callback_start);
+
+      // an iteration that ends after the next one was due has overrun
+      if (loop_period > 0.0 && current > next_loop)
+      {
+        metrics_.missed_deadline ((uint64_t)
+          std::chrono::duration_cast<std::chrono::nanoseconds> (
+            current - next_loop).count ());
+      }
+
       // check to see if we need to sleep for next loop epoch
       if (loop_period > 0.0 && (max_runtime < 0 || current < end_time))
       {
@@ -884,6 +931,8 @@ const madara::knowledge::KnowledgeMap & args)
     algorithms::global_algorithm_factory()->set_self (&self_);
     algorithms::global_algorithm_factory()->set_sensors (&sensors_);
     algorithms::global_algorithm_factory()->set_platform (platform_);
+    algorithms::global_algorithm_factory()->set_threads (
+      (size_t)std::max (settings_.algorithm_threads, 0));
 
     new_accent = algorithms::global_algorithm_factory()->create (
       algorithm, args);
@@ -957,6 +1006,8 @@ gams::controllers::BaseController::init_algorithm (
     algorithms::global_algorithm_factory()->set_self (&self_);
     algorithms::global_algorithm_factory()->set_sensors (&sensors_);
     algorithms::global_algorithm_factory()->set_platform (platform_);
+    algorithms::global_algorithm_factory()->set_threads (
+      (size_t)std::max (settings_.algorithm_threads, 0));
 
     algorithm_ = algorithms::global_algorithm_factory()->create (
       algorithm, args);
@@ -1326,7 +1377,7 @@ gams::controllers::BaseController::init_vars (
       self_prefix.c_str ());
   }
 
-  self_.init_vars (knowledge_, self_prefix);
+  self_.init_vars (knowledge_, self_prefix, settings_.self_scope);
   swarm_.init_vars (knowledge_);
 
   if (settings_.madara_log_level >= 0)
@@ -1354,7 +1405,7 @@ const Integer & processes)
   // initialize the agents, swarm, and self variables
   variables::init_vars (agents_, knowledge_, processes);
   swarm_.init_vars (knowledge_, processes);
-  self_.init_vars (knowledge_, id);
+  self_.init_vars (knowledge_, id, settings_.self_scope);
 
   if (settings_.madara_log_level >= 0)
   {
@@ -1418,3 +1469,21 @@ gams::controllers::BaseController::get_sensors (void)
 {
   return &sensors_;
 }
+
+gams::controllers::ControllerMetrics &
+gams::controllers::BaseController::get_metrics (void)
+{
+  return metrics_;
+}
+
+void
+gams::controllers::BaseController::set_algorithm_threads (int threads)
+{
+  settings_.algorithm_threads = threads < 0 ? 1 : threads;
+}
+
+int
+gams::controllers::BaseController::get_algorithm_threads (void) const
+{
+  return settings_.algorithm_threads;
+}
@@ -54,6 +54,7 @@
 #ifndef   _GAMS_BASE_CONTROLLER_H_
 #define   _GAMS_BASE_CONTROLLER_H_
 
+#include "ControllerMetrics.h"
 #include "ControllerSettings.h"
 
 #include "gams/GamsExport.h"
@@ -139,6 +140,14 @@ namespace gams
        **/
       int run_once (void);
 
+      /**
+       * Sends all modified variables through the knowledge base transports
+       * using the controller's evaluation settings. This is the send that
+       * run performs at each send epoch, made available to callers that
+       * drive the MAPE phases themselves.
+       **/
+      void send_modifieds (void);
+
       /**
        * Runs iterations of the MAPE loop with specified periods
        * @param  loop_period  time (in seconds) between executions of the loop.
@@ -342,6 +351,26 @@ namespace gams
       **/
       variables::Sensors * get_sensors (void);
 
+      /**
+      * Gets the timing metrics of the controller loop
+      * @return the metrics, which may be read from any thread
+      **/
+      ControllerMetrics & get_metrics (void);
+
+      /**
+      * Sets the default number of threads that new algorithms may use to
+      * plan. Algorithms created before the call are not affected.
+      * @param  threads  the number of threads, or 0 for one per hardware
+      *                  thread
+      **/
+      void set_algorithm_threads (int threads);
+
+      /**
+      * Gets the default number of threads that new algorithms may use to plan
+      * @return the number of threads, or 0 for one per hardware thread
+      **/
+      int get_algorithm_threads (void) const;
+
       /**
        * Saves a checkpoint according to the configured settings
        **/
@@ -384,10 +413,16 @@ namespace gams
 
       /// keeps track of the checkpoints saved in the control loop
       int checkpoint_count_;
+
+      /// timing of the loop phases, callbacks, deadlines and sends
+      ControllerMetrics metrics_;
     private:
 
       /// Code shared between run and run_once
       int run_once_ (void);
+
+      /// Mirrors the metrics and sends all modified variables
+      void send_ (const char * caller);
     };
   }
 }
@@ -0,0 +1,256 @@
+/**
+ * Copyright (c) 2017 Carnegie Mellon University. All Rights Reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following acknowledgments and disclaimers.
+ * 
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * 3. The names "Carnegie Mellon University," "SEI" and/or "Software
+ *    Engineering Institute" shall not be used to endorse or promote products
+ *    derived from this software without prior written permission. For written
+ *    permission, please contact permission@sei.cmu.edu.
+ * 
+ * 4. Products derived from this software may not be called "SEI" nor may "SEI"
+ *    appear in their names without prior written permission of
+ *    permission@sei.cmu.edu.
+ * 
+ * 5. Redistributions of any form whatsoever must retain the following
+ *    acknowledgment:
+ * 
+ *      This material is based upon work funded and supported by the Department
+ *      of Defense under Contract No. FA8721-05-C-0003 with Carnegie Mellon
+ *      University for the operation of the Software Engineering Institute, a
+ *      federally funded research and development center. Any opinions,
+ *      findings and conclusions or recommendations expressed in this material
+ *      are those of the author(s) and do not necessarily reflect the views of
+ *      the United States Department of Defense.
+ * 
+ *      NO WARRANTY. THIS CARNEGIE MELLON UNIVERSITY AND SOFTWARE ENGINEERING
+ *      INSTITUTE MATERIAL IS FURNISHED ON AN "AS-IS" BASIS. CARNEGIE MELLON
+ *      UNIVERSITY MAKES NO WARRANTIES OF ANY KIND, EITHER EXPRESSED OR
+ *      IMPLIED, AS TO ANY MATTER INCLUDING, BUT NOT LIMITED TO, WARRANTY OF
+ *      FITNESS FOR PURPOSE OR MERCHANTABILITY, EXCLUSIVITY, OR RESULTS
+ *      OBTAINED FROM USE OF THE MATERIAL. CARNEGIE MELLON UNIVERSITY DOES
+ *      NOT MAKE ANY WARRANTY OF ANY KIND WITH RESPECT TO FREEDOM FROM PATENT,
+ *      TRADEMARK, OR COPYRIGHT INFRINGEMENT.
+ * 
+ *      This material has been approved for public release and unlimited
+ *      distribution.
+ **/
+
+/**
+ * @file ControllerMetrics.cpp
+ * @author James Edmondson <jedmondson@gmail.com>
+ *
+ * This file contains timing metrics for the phases of a controller loop
+ **/
+
+#include "ControllerMetrics.h"
+
+namespace
+{
+  const char * phase_names[] = {
+    "monitor",
+    "analyze",
+    "plan",
+    "execute",
+    "system_analyze",
+    "send",
+    "iteration"
+  };
+
+  const char * phase_field_names[] = {
+    "count",
+    "total_nanos",
+    "max_nanos",
+    "callback_nanos",
+    "external_count",
+    "external_nanos"
+  };
+
+  const char * loop_field_names[] = {
+    "missed_deadlines",
+    "max_overrun_nanos",
+    "sends"
+  };
+
+  void
+  store_max (std::atomic<int64_t> & target, int64_t value)
+  {
+    int64_t current = target.load (std::memory_order_relaxed);
+    while (value > current && !target.compare_exchange_weak (
+      current, value, std::memory_order_relaxed))
+    {
+    }
+  }
+}
+
+gams::controllers::ControllerMetrics::ControllerMetrics ()
+{
+  reset ();
+}
+
+gams::controllers::ControllerMetrics::ControllerMetrics (
+  const ControllerMetrics & other)
+{
+  *this = other;
+}
+
+gams::controllers::ControllerMetrics &
+gams::controllers::ControllerMetrics::operator= (
+  const ControllerMetrics & other)
+{
+  if (this != &other)
+  {
+    int64_t values[SNAPSHOT_SIZE];
+    other.snapshot (values);
+
+    const int64_t * value = values;
+    for (int phase = 0; phase < NUM_PHASES; ++phase)
+    {
+      for (int field = 0; field < NUM_PHASE_FIELDS; ++field)
+      {
+        phases_[phase][field].store (*value++, std::memory_order_relaxed);
+      }
+    }
+
+    for (int field = 0; field < NUM_LOOP_FIELDS; ++field)
+    {
+      loop_[field].store (*value++, std::memory_order_relaxed);
+    }
+
+    set_mirror_prefix (other.get_mirror_prefix ());
+  }
+
+  return *this;
+}
+
+void
+gams::controllers::ControllerMetrics::record (
+  Phase phase, uint64_t nanos, uint64_t callback)
+{
+  std::atomic<int64_t> * fields = phases_[phase];
+
+  fields[COUNT].fetch_add (1, std::memory_order_relaxed);
+  fields[TOTAL_NANOS].fetch_add ((int64_t)nanos, std::memory_order_relaxed);
+  fields[CALLBACK_NANOS].fetch_add (
+    (int64_t)callback, std::memory_order_relaxed);
+  store_max (fields[MAX_NANOS], (int64_t)nanos);
+}
+
+void
+gams::controllers::ControllerMetrics::record_external (
+  Phase phase, uint64_t nanos)
+{
+  std::atomic<int64_t> * fields = phases_[phase];
+
+  fields[EXTERNAL_COUNT].fetch_add (1, std::memory_order_relaxed);
+  fields[EXTERNAL_NANOS].fetch_add (
+    (int64_t)nanos, std::memory_order_relaxed);
+}
+
+void
+gams::controllers::ControllerMetrics::missed_deadline (uint64_t overrun)
+{
+  loop_[MISSED_DEADLINES].fetch_add (1, std::memory_order_relaxed);
+  store_max (loop_[MAX_OVERRUN_NANOS], (int64_t)overrun);
+}
+
+void
+gams::controllers::ControllerMetrics::sent (void)
+{
+  loop_[SENDS].fetch_add (1, std::memory_order_relaxed);
+}
+
+void
+gams::controllers::ControllerMetrics::snapshot (int64_t * values) const
+{
+  for (int phase = 0; phase < NUM_PHASES; ++phase)
+  {
+    for (int field = 0; field < NUM_PHASE_FIELDS; ++field)
+    {
+      *values++ = phases_[phase][field].load (std::memory_order_relaxed);
+    }
+  }
+
+  for (int field = 0; field < NUM_LOOP_FIELDS; ++field)
+  {
+    *values++ = loop_[field].load (std::memory_order_relaxed);
+  }
+}
+
+void
+gams::controllers::ControllerMetrics::reset (void)
+{
+  for (int phase = 0; phase < NUM_PHASES; ++phase)
+  {
+    for (int field = 0; field < NUM_PHASE_FIELDS; ++field)
+    {
+      phases_[phase][field].store (0, std::memory_order_relaxed);
+    }
+  }
+
+  for (int field = 0; field < NUM_LOOP_FIELDS; ++field)
+  {
+    loop_[field].store (0, std::memory_order_relaxed);
+  }
+}
+
+void
+gams::controllers::ControllerMetrics::set_mirror_prefix (
+  const std::string & prefix)
+{
+  std::lock_guard<std::mutex> guard (mirror_mutex_);
+  mirror_prefix_ = prefix;
+}
+
+std::string
+gams::controllers::ControllerMetrics::get_mirror_prefix (void) const
+{
+  std::lock_guard<std::mutex> guard (mirror_mutex_);
+  return mirror_prefix_;
+}
+
+void
+gams::controllers::ControllerMetrics::mirror (
+  madara::knowledge::KnowledgeBase & knowledge) const
+{
+  std::string prefix (get_mirror_prefix ());
+
+  if (prefix == "")
+  {
+    return;
+  }
+
+  int64_t values[SNAPSHOT_SIZE];
+  snapshot (values);
+
+  // mirrored values are sent with the next send, like any other update
+  madara::knowledge::EvalSettings settings;
+  settings.delay_sending_modifieds = true;
+
+  madara::knowledge::ContextGuard guard (knowledge);
+
+  const int64_t * value = values;
+  for (int phase = 0; phase < NUM_PHASES; ++phase)
+  {
+    std::string phase_prefix (prefix + "." + phase_names[phase] + ".");
+    for (int field = 0; field < NUM_PHASE_FIELDS; ++field)
+    {
+      knowledge.set (phase_prefix + phase_field_names[field],
+        (madara::knowledge::KnowledgeRecord::Integer)*value++, settings);
+    }
+  }
+
+  for (int field = 0; field < NUM_LOOP_FIELDS; ++field)
+  {
+    knowledge.set (prefix + "." + loop_field_names[field],
+      (madara::knowledge::KnowledgeRecord::Integer)*value++, settings);
+  }
+}
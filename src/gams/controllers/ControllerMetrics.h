@@ -0,0 +1,264 @@
+/**
+ * Copyright (c) 2017 Carnegie Mellon University. All Rights Reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following acknowledgments and disclaimers.
+ * 
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * 3. The names "Carnegie Mellon University," "SEI" and/or "Software
+ *    Engineering Institute" shall not be used to endorse or promote products
+ *    derived from this software without prior written permission. For written
+ *    permission, please contact permission@sei.cmu.edu.
+ * 
+ * 4. Products derived from this software may not be called "SEI" nor may "SEI"
+ *    appear in their names without prior written permission of
+ *    permission@sei.cmu.edu.
+ * 
+ * 5. Redistributions of any form whatsoever must retain the following
+ *    acknowledgment:
+ * 
+ *      This material is based upon work funded and supported by the Department
+ *      of Defense under Contract No. FA8721-05-C-0003 with Carnegie Mellon
+ *      University for the operation of the Software Engineering Institute, a
+ *      federally funded research and development center. Any opinions,
+ *      findings and conclusions or recommendations expressed in this material
+ *      are those of the author(s) and do not necessarily reflect the views of
+ *      the United States Department of Defense.
+ * 
+ *      NO WARRANTY. THIS CARNEGIE MELLON UNIVERSITY AND SOFTWARE ENGINEERING
+ *      INSTITUTE MATERIAL IS FURNISHED ON AN "AS-IS" BASIS. CARNEGIE MELLON
+ *      UNIVERSITY MAKES NO WARRANTIES OF ANY KIND, EITHER EXPRESSED OR
+ *      IMPLIED, AS TO ANY MATTER INCLUDING, BUT NOT LIMITED TO, WARRANTY OF
+ *      FITNESS FOR PURPOSE OR MERCHANTABILITY, EXCLUSIVITY, OR RESULTS
+ *      OBTAINED FROM USE OF THE MATERIAL. CARNEGIE MELLON UNIVERSITY DOES
+ *      NOT MAKE ANY WARRANTY OF ANY KIND WITH RESPECT TO FREEDOM FROM PATENT,
+ *      TRADEMARK, OR COPYRIGHT INFRINGEMENT.
+ * 
+ *      This material has been approved for public release and unlimited
+ *      distribution.
+ **/
+
+/**
+ * @file ControllerMetrics.h
+ * @author James Edmondson <jedmondson@gmail.com>
+ *
+ * This file contains timing metrics for the phases of a controller loop
+ **/
+
+#ifndef   _GAMS_CONTROLLERS_CONTROLLERMETRICS_H_
+#define   _GAMS_CONTROLLERS_CONTROLLERMETRICS_H_
+
+#include <atomic>
+#include <chrono>
+#include <cstdint>
+#include <mutex>
+#include <string>
+
+#include "madara/knowledge/KnowledgeBase.h"
+#include "gams/GamsExport.h"
+#include "gams/utility/CallbackTimer.h"
+
+namespace gams { namespace controllers {
+
+/**
+ * Lock-free counters of the time a controller spends in each phase of its
+ * loop, how much of that time was spent in user-defined callbacks, how
+ * many loop deadlines were missed and how many sends were made. Updated by
+ * the controller thread and readable from any thread.
+ **/
+class GAMS_EXPORT ControllerMetrics
+{
+public:
+  /**
+   * The timed parts of a controller loop
+   **/
+  enum Phase
+  {
+    MONITOR = 0,
+    ANALYZE,
+    PLAN,
+    EXECUTE,
+    SYSTEM_ANALYZE,
+    SEND,
+    ITERATION,
+    NUM_PHASES
+  };
+
+  /**
+   * Values kept for each phase, in the order written by snapshot
+   **/
+  enum PhaseField
+  {
+    /// number of times the phase ran
+    COUNT = 0,
+    /// total wall time of the phase in nanoseconds
+    TOTAL_NANOS,
+    /// longest single run of the phase in nanoseconds
+    MAX_NANOS,
+    /// time spent in user-defined callbacks during the phase
+    CALLBACK_NANOS,
+    /// number of runs of the phase that were called through JNI
+    EXTERNAL_COUNT,
+    /// native wall time of the runs called through JNI
+    EXTERNAL_NANOS,
+    NUM_PHASE_FIELDS
+  };
+
+  /**
+   * Values kept for the whole loop, written by snapshot after the phases
+   **/
+  enum LoopField
+  {
+    /// number of loop iterations that ended after the next was due
+    MISSED_DEADLINES = 0,
+    /// largest amount an iteration ended after the next was due
+    MAX_OVERRUN_NANOS,
+    /// number of sends of modified variables
+    SENDS,
+    NUM_LOOP_FIELDS
+  };
+
+  /// number of values written by snapshot
+  static const size_t SNAPSHOT_SIZE =
+    NUM_PHASES * NUM_PHASE_FIELDS + NUM_LOOP_FIELDS;
+
+  /**
+   * Times a phase for as long as it is in scope, including the time spent
+   * in callbacks on the current thread
+   **/
+  class PhaseTimer
+  {
+  public:
+    /**
+     * Constructor. Starts timing.
+     * @param  metrics  the metrics to record into
+     * @param  phase    the phase being timed
+     **/
+    PhaseTimer (ControllerMetrics & metrics, Phase phase)
+      : metrics_ (metrics), phase_ (phase),
+        start_ (std::chrono::steady_clock::now ()),
+        callback_start_ (utility::callback_nanos ())
+    {
+    }
+
+    /**
+     * Destructor. Records the phase.
+     **/
+    ~PhaseTimer ()
+    {
+      metrics_.record (phase_, (uint64_t)
+        std::chrono::duration_cast<std::chrono::nanoseconds> (
+          std::chrono::steady_clock::now () - start_).count (),
+        utility::callback_nanos () - callback_start_);
+    }
+
+  private:
+    PhaseTimer (const PhaseTimer &);
+    PhaseTimer & operator= (const PhaseTimer &);
+
+    ControllerMetrics & metrics_;
+    Phase phase_;
+    std::chrono::steady_clock::time_point start_;
+    uint64_t callback_start_;
+  };
+
+  /**
+   * Constructor
+   **/
+  ControllerMetrics ();
+
+  /**
+   * Copy constructor. Copies the current values and mirror prefix.
+   * @param  other   the metrics to copy
+   **/
+  ControllerMetrics (const ControllerMetrics & other);
+
+  /**
+   * Assignment operator. Copies the current values and mirror prefix.
+   * @param  other   the metrics to copy
+   * @return this object
+   **/
+  ControllerMetrics & operator= (const ControllerMetrics & other);
+
+  /**
+   * Records a run of a phase
+   * @param  phase     the phase that ran
+   * @param  nanos     the wall time of the phase
+   * @param  callback  the part of nanos spent in user-defined callbacks
+   **/
+  void record (Phase phase, uint64_t nanos, uint64_t callback);
+
+  /**
+   * Records the native time of a phase that was called through JNI. The
+   * caller's own wall time for the call, minus this, is the JNI overhead.
+   * @param  phase     the phase that ran
+   * @param  nanos     the native wall time of the call
+   **/
+  void record_external (Phase phase, uint64_t nanos);
+
+  /**
+   * Records an iteration that ended after the next one was due
+   * @param  overrun   how late the iteration ended in nanoseconds
+   **/
+  void missed_deadline (uint64_t overrun);
+
+  /**
+   * Records a send of modified variables
+   **/
+  void sent (void);
+
+  /**
+   * Copies all values into an array
+   * @param  values   array of at least SNAPSHOT_SIZE entries, filled with
+   *                  the phase fields of each phase in order, followed by
+   *                  the loop fields
+   **/
+  void snapshot (int64_t * values) const;
+
+  /**
+   * Clears all values
+   **/
+  void reset (void);
+
+  /**
+   * Sets where the metrics are mirrored in a knowledge base by mirror
+   * @param  prefix   the variable prefix, e.g., ".controller.metrics".
+   *                  Empty disables mirroring.
+   **/
+  void set_mirror_prefix (const std::string & prefix);
+
+  /**
+   * Returns the mirror prefix
+   * @return the prefix, or empty if mirroring is disabled
+   **/
+  std::string get_mirror_prefix (void) const;
+
+  /**
+   * Writes the counts, totals and maximums of each phase and the loop
+   * values into the knowledge base under the mirror prefix, e.g.,
+   * {prefix}.execute.total_nanos and {prefix}.missed_deadlines. Does
+   * nothing if mirroring is disabled.
+   * @param  knowledge  the knowledge base to write into
+   **/
+  void mirror (madara::knowledge::KnowledgeBase & knowledge) const;
+
+private:
+  std::atomic<int64_t> phases_[NUM_PHASES][NUM_PHASE_FIELDS];
+  std::atomic<int64_t> loop_[NUM_LOOP_FIELDS];
+
+  /// names of the mirrored variables, empty if mirroring is disabled
+  std::string mirror_prefix_;
+
+  /// protects mirror_prefix_, which may be set from another thread
+  mutable std::mutex mirror_mutex_;
+};
+
+} }
+
+#endif // _GAMS_CONTROLLERS_CONTROLLERMETRICS_H_
@@ -90,6 +90,13 @@ public:
    **/
   std::string agent_prefix = "agent.0";
 
+  /**
+   * the default number of threads that algorithms may use to plan, e.g.,
+   * to score candidate destinations. 0 means one per hardware thread.
+   * Algorithm arguments named "threads" take precedence.
+   **/
+  int algorithm_threads = 1;
+
   /**
    * the knowledge checkpointing file system prefix (e.g., "./checkpoint" will
    * save checkpoints to currently directory in files that start with checkpoint
@@ -111,6 +118,13 @@ public:
   /// maximum runtime (-1 means persistent, forever)
   double run_time = -1;
 
+  /**
+   * the prefix of the self id and prefix variables (e.g., ".slot.1" keeps
+   * them in .slot.1.id and .slot.1.prefix). Empty uses .id and .prefix.
+   * Controllers that share a knowledge base need distinct scopes.
+   **/
+  std::string self_scope = "";
+
   /// the hertz rate to call send_modifieds at
   double send_hertz = 1.0;
 
@@ -44,36 +44,31 @@
  *      distribution.
  **/
 
+
 #include "Multicontroller.h"
 
-#include <iostream>
 #include <sstream>
+#include <thread>
 
 #include "madara/utility/Utility.h"
 #include "gams/algorithms/AlgorithmFactoryRepository.h"
 #include "gams/platforms/PlatformFactoryRepository.h"
 #include "gams/loggers/GlobalLogger.h"
-#include "madara/utility/EpochEnforcer.h"
-
-// Java-specific header includes
-#ifdef _GAMS_JAVA_
-#include "gams/algorithms/java/JavaAlgorithm.h"
-#include "gams/platforms/java/JavaPlatform.h"
-#include "gams/utility/java/Acquire_VM.h"
-#endif
 
 typedef  madara::knowledge::KnowledgeRecord::Integer  Integer;
 
-typedef  madara::utility::EpochEnforcer<std::chrono::steady_clock> EpochEnforcer;
-
 gams::controllers::Multicontroller::Multicontroller (
-  madara::knowledge::KnowledgeBase & knowledge)
-  : algorithm_ (0), knowledge_ (knowledge), platform_ (0)
+  madara::knowledge::KnowledgeBase & knowledge,
+  size_t num_controllers,
+  const ControllerSettings & settings)
+  : knowledge_ (knowledge), settings_ (settings)
 {
   madara_logger_ptr_log (gams::loggers::global_logger.get (),
     gams::loggers::LOG_MAJOR,
     "gams::controllers::Multicontroller::constructor:" \
-    " default constructor called.\n");
+    " creating %d controllers.\n", (int)num_controllers);
+
+  resize (num_controllers);
 }
 
 gams::controllers::Multicontroller::~Multicontroller ()
@@ -81,26 +76,53 @@ gams::controllers::Multicontroller::~Multicontroller ()
   madara_logger_ptr_log (gams::loggers::global_logger.get (),
     gams::loggers::LOG_MAJOR,
     "gams::controllers::Multicontroller::destructor:" \
-    " deleting algorithm.\n");
-  delete algorithm_;
+    " deleting %d controllers.\n", (int)controllers_.size ());
 
-  madara_logger_ptr_log (gams::loggers::global_logger.get (),
-    gams::loggers::LOG_MAJOR,
-    "gams::controllers::Multicontroller::destructor:" \
-    " deleting platform.\n");
-  delete platform_;
+  resize (0);
+}
 
-  madara_logger_ptr_log (gams::loggers::global_logger.get (),
-    gams::loggers::LOG_MAJOR,
-    "gams::controllers::Multicontroller::destructor:" \
-    " deleting accents.\n");
-  for (algorithms::Algorithms::iterator i = accents_.begin ();
-    i != accents_.end (); ++i)
+void
+gams::controllers::Multicontroller::resize (size_t num_controllers)
+{
+  // delete any slots that are being removed
+  for (size_t i = num_controllers; i < controllers_.size (); ++i)
   {
-    delete *i;
+    delete controllers_[i];
+  }
+
+  size_t old_size = controllers_.size ();
+  controllers_.resize (num_controllers, 0);
+
+  // each new slot starts out as agent.{index}. Slots share the knowledge
+  // base, so each keeps its self id and prefix in .slot.{index}
+  for (size_t i = old_size; i < num_controllers; ++i)
+  {
+    ControllerSettings slot_settings (settings_);
+
+    std::stringstream prefix;
+    prefix << "agent." << i;
+    slot_settings.agent_prefix = prefix.str ();
+
+    std::stringstream scope;
+    scope << settings_.self_scope << ".slot." << i;
+    slot_settings.self_scope = scope.str ();
+
+    controllers_[i] = new BaseController (knowledge_, slot_settings);
   }
 }
 
+size_t
+gams::controllers::Multicontroller::size (void) const
+{
+  return controllers_.size ();
+}
+
+gams::controllers::BaseController *
+gams::controllers::Multicontroller::get_controller (size_t index)
+{
+  return index < controllers_.size () ? controllers_[index] : 0;
+}
+
 void gams::controllers::Multicontroller::add_platform_factory (
   const std::vector <std::string> & aliases,
   platforms::PlatformFactory * factory)
@@ -120,21 +142,9 @@ gams::controllers::Multicontroller::monitor (void)
 {
   int result (0);
 
-  if (platform_)
+  for (size_t i = 0; i < controllers_.size (); ++i)
   {
-    madara_logger_ptr_log (gams::loggers::global_logger.get (),
-      gams::loggers::LOG_MAJOR,
-      "gams::controllers::Multicontroller::monitor:" \
-      " calling platform_->sense ()\n");
-
-    result = platform_->sense ();
-  }
-  else
-  {
-    madara_logger_ptr_log (gams::loggers::global_logger.get (),
-      gams::loggers::LOG_WARNING,
-      "gams::controllers::Multicontroller::monitor:" \
-      " Platform undefined. Unable to call platform_->sense ()\n");
+    result |= controllers_[i]->monitor ();
   }
 
   return result;
@@ -143,223 +153,53 @@ gams::controllers::Multicontroller::monitor (void)
 int
 gams::controllers::Multicontroller::system_analyze (void)
 {
-  int return_value (0);
-  //bool error (false);
-
-  /**
-   * Note that certain agent variables like command are kept local only.
-   * @see gams::variables::Agent::init_vars
-   * @see gams::variables::Swarm::init_vars
-   **/
-
-  madara_logger_ptr_log (gams::loggers::global_logger.get (),
-    gams::loggers::LOG_MAJOR,
-    "gams::controllers::Multicontroller::system_analyze:" \
-    " checking agent and swarm commands\n");
-
-  if (self_.agent.algorithm != "")
-  {
-    std::string prefix(self_.agent.algorithm.get_name() + ".");
-    madara::knowledge::KnowledgeMap args(knowledge_.to_map_stripped(prefix));
-
-    self_.agent.algorithm_args.sync_keys();
-
-    madara_logger_ptr_log (gams::loggers::global_logger.get (),
-      gams::loggers::LOG_MAJOR,
-      "gams::controllers::Multicontroller::system_analyze:" \
-      " Processing agent command: %s\n", (*self_.agent.algorithm).c_str());
-
-    init_algorithm (self_.agent.algorithm.to_string (), args);
-
-    self_.agent.last_algorithm = self_.agent.algorithm.to_string ();
-
-    // reset the command
-    self_.agent.algorithm = "";
-    self_.agent.last_algorithm_args.clear(true);
-    self_.agent.algorithm_args.exchange(self_.agent.last_algorithm_args,
-                                      true, true);
-  }
-  else if (swarm_.algorithm != "")
-  {
-    std::string prefix(swarm_.algorithm.get_name() + ".");
-    madara::knowledge::KnowledgeMap args(knowledge_.to_map_stripped(prefix));
-
-    swarm_.algorithm_args.sync_keys();
-
-    madara_logger_ptr_log (gams::loggers::global_logger.get (),
-      gams::loggers::LOG_MAJOR,
-      "gams::controllers::Multicontroller::system_analyze:" \
-      " Processing swarm command: %s\n", (*swarm_.algorithm).c_str());
-
-    init_algorithm (swarm_.algorithm.to_string (), args);
-
-    self_.agent.last_algorithm = swarm_.algorithm.to_string ();
-
-    // reset the command
-    swarm_.algorithm = "";
-    self_.agent.last_algorithm_args.clear(true);
-    swarm_.algorithm_args.exchange(self_.agent.last_algorithm_args,
-                                 true, true);
-  }
+  int result (0);
 
-  if (self_.agent.madara_debug_level !=
-    (Integer)madara::logger::global_logger->get_level ())
+  for (size_t i = 0; i < controllers_.size (); ++i)
   {
-    madara_logger_ptr_log (gams::loggers::global_logger.get (),
-      gams::loggers::LOG_MAJOR,
-      "gams::controllers::Multicontroller::system_analyze:" \
-      " Settings MADARA debug level to %d\n", (int)*self_.agent.madara_debug_level);
-
-    madara::logger::global_logger->set_level ((int)*self_.agent.madara_debug_level);
+    result |= controllers_[i]->system_analyze ();
   }
 
-  if (self_.agent.gams_debug_level !=
-    (Integer)gams::loggers::global_logger->get_level ())
-  {
-    madara_logger_ptr_log (gams::loggers::global_logger.get (),
-      gams::loggers::LOG_MAJOR,
-      "gams::controllers::Multicontroller::system_analyze:" \
-      " Settings GAMS debug level to %d\n", (int)*self_.agent.gams_debug_level);
-
-    gams::loggers::global_logger->set_level ((int)*self_.agent.gams_debug_level);
-  }
-
-  return return_value;
+  return result;
 }
 
 int
 gams::controllers::Multicontroller::analyze (void)
 {
-  int return_value (0);
-
-  if (platform_)
-  {
-    madara_logger_ptr_log (gams::loggers::global_logger.get (),
-      gams::loggers::LOG_MAJOR,
-      "gams::controllers::Multicontroller::analyze:" \
-      " calling platform_->analyze ()\n");
-
-    return_value |= platform_->analyze ();
-  }
-  else
-  {
-    madara_logger_ptr_log (gams::loggers::global_logger.get (),
-      gams::loggers::LOG_MAJOR,
-      "gams::controllers::Multicontroller::analyze:" \
-      " Platform undefined. Unable to call platform_->analyze ()\n");
-  }
-
-  madara_logger_ptr_log (gams::loggers::global_logger.get (),
-    gams::loggers::LOG_MAJOR,
-    "gams::controllers::Multicontroller::analyze:" \
-    " calling system_analyze ()\n");
-  return_value |= system_analyze ();
-
-  if (algorithm_)
-  {
-    madara_logger_ptr_log (gams::loggers::global_logger.get (),
-      gams::loggers::LOG_MAJOR,
-      "gams::controllers::Multicontroller::analyze:" \
-      " calling algorithm_->analyze ()\n");
-
-    return_value |= algorithm_->analyze ();
-  }
-  else
-  {
-    madara_logger_ptr_log (gams::loggers::global_logger.get (),
-      gams::loggers::LOG_MAJOR,
-      "gams::controllers::Multicontroller::analyze:" \
-      " Algorithm undefined. Unable to call algorithm_->analyze ()\n");
-  }
-
+  int result (0);
 
-  if (accents_.size () > 0)
+  for (size_t i = 0; i < controllers_.size (); ++i)
   {
-    madara_logger_ptr_log (gams::loggers::global_logger.get (),
-      gams::loggers::LOG_MAJOR,
-      "gams::controllers::Multicontroller::analyze:" \
-      " calling analyze on accents\n");
-    for (algorithms::Algorithms::iterator i = accents_.begin ();
-      i != accents_.end (); ++i)
-    {
-      (*i)->analyze ();
-    }
+    result |= controllers_[i]->analyze ();
   }
 
-  return return_value;
+  return result;
 }
 
 int
 gams::controllers::Multicontroller::plan (void)
 {
-  int return_value (0);
-
-  if (algorithm_)
-  {
-    madara_logger_ptr_log (gams::loggers::global_logger.get (),
-      gams::loggers::LOG_MAJOR,
-      "gams::controllers::Multicontroller::plan:" \
-      " calling algorithm_->plan ()\n");
-
-    return_value |= algorithm_->plan ();
-  }
-  else
-  {
-    madara_logger_ptr_log (gams::loggers::global_logger.get (),
-      gams::loggers::LOG_MAJOR,
-      "gams::controllers::Multicontroller::plan:" \
-      " Algorithm undefined. Unable to call algorithm_->plan ()\n");
-  }
+  int result (0);
 
-  if (accents_.size () > 0)
+  for (size_t i = 0; i < controllers_.size (); ++i)
   {
-    madara_logger_ptr_log (gams::loggers::global_logger.get (),
-      gams::loggers::LOG_MAJOR,
-      "gams::controllers::Multicontroller::plan:" \
-      " calling plan on accents\n");
-
-    for (algorithms::Algorithms::iterator i = accents_.begin ();
-      i != accents_.end (); ++i)
-    {
-      (*i)->plan ();
-    }
+    result |= controllers_[i]->plan ();
   }
 
-  return return_value;
+  return result;
 }
 
 int
 gams::controllers::Multicontroller::execute (void)
 {
-  int return_value (0);
-
-  if (algorithm_)
-  {
-    madara_logger_ptr_log (gams::loggers::global_logger.get (),
-      gams::loggers::LOG_MAJOR,
-      "gams::controllers::Multicontroller::execute:" \
-      " calling algorithm_->execute ()\n");
-
-    return_value |= algorithm_->execute ();
-  }
-  else
-  {
-    madara_logger_ptr_log (gams::loggers::global_logger.get (),
-      gams::loggers::LOG_WARNING,
-      "gams::controllers::Multicontroller::execute:" \
-      " Algorithm undefined. Unable to call algorithm_->execute ()\n");
-  }
+  int result (0);
 
-  if (accents_.size () > 0)
+  for (size_t i = 0; i < controllers_.size (); ++i)
   {
-    for (algorithms::Algorithms::iterator i = accents_.begin ();
-      i != accents_.end (); ++i)
-    {
-      (*i)->execute ();
-    }
+    result |= controllers_[i]->execute ();
   }
 
-  return return_value;
+  return result;
 }
 
 int
@@ -371,264 +211,201 @@ gams::controllers::Multicontroller::run_once_ (void)
   madara_logger_ptr_log (gams::loggers::global_logger.get (),
     gams::loggers::LOG_MAJOR,
     "gams::controllers::Multicontroller::run:" \
-    " calling monitor ()\n");
+    " running MAPE on %d controllers\n", (int)controllers_.size ());
 
   // lock the context from any external updates
   madara::knowledge::ContextGuard guard (knowledge_);
 
-  return_value |= monitor ();
+  // each slot finishes its own MAPE pass before the next slot starts,
+  // as if each agent ran its own controller
+  for (size_t i = 0; i < controllers_.size (); ++i)
+  {
+    return_value |= controllers_[i]->monitor ();
+    return_value |= controllers_[i]->analyze ();
+    return_value |= controllers_[i]->plan ();
+    return_value |= controllers_[i]->execute ();
+  }
 
   madara_logger_ptr_log (gams::loggers::global_logger.get (),
     gams::loggers::LOG_MAJOR,
     "gams::controllers::Multicontroller::run:" \
-    " after monitor (), %d modifications to send\n",
+    " after MAPE, %d modifications to send\n",
     (int)knowledge_.get_context ().get_modifieds ().size ());
 
-  madara_logger_ptr_log (gams::loggers::global_logger.get (),
-    gams::loggers::LOG_DETAILED,
-    "%s\n",
-    knowledge_.debug_modifieds ().c_str ());
+  return return_value;
+}
+
+int
+gams::controllers::Multicontroller::run_once (void)
+{
+  // return value
+  int return_value (run_once_ ());
 
   madara_logger_ptr_log (gams::loggers::global_logger.get (),
     gams::loggers::LOG_MAJOR,
-    "gams::controllers::Multicontroller::run:" \
-    " calling analyze ()\n");
+    "gams::controllers::Multicontroller::run_once:" \
+    " sending updates\n");
 
-  return_value |= analyze ();
+  // send modified values through network
+  knowledge_.send_modifieds ("Multicontroller::run_once",
+    settings_.eval_settings);
 
-  madara_logger_ptr_log (gams::loggers::global_logger.get (),
-    gams::loggers::LOG_MAJOR,
-    "gams::controllers::Multicontroller::run:" \
-    " after analyze (), %d modifications to send\n",
-    (int)knowledge_.get_context ().get_modifieds ().size ());
+  return return_value;
+}
 
-  madara_logger_ptr_log (gams::loggers::global_logger.get (),
-    gams::loggers::LOG_DETAILED,
-    "%s\n",
-    knowledge_.debug_modifieds ().c_str ());
+int
+gams::controllers::Multicontroller::run (double loop_period,
+  double max_runtime, double send_period)
+{
+  // return value
+  int return_value (0);
+  bool first_execute (true);
 
-  madara_logger_ptr_log (gams::loggers::global_logger.get (),
-    gams::loggers::LOG_MAJOR,
-    "gams::controllers::Multicontroller::run:" \
-    " calling plan ()\n");
+  // if user specified non-positive, then we are to use loop_period
+  if (send_period <= 0)
+  {
+    send_period = loop_period;
+  }
 
-  return_value |= plan ();
+  madara::utility::TimeValue current = madara::utility::Clock::now ();
+  madara::utility::Duration loop_window =
+    madara::utility::seconds_to_duration (loop_period);
+  madara::utility::Duration send_window =
+    madara::utility::seconds_to_duration (send_period);
+  madara::utility::TimeValue next_loop = current + loop_window;
+  madara::utility::TimeValue next_send = current + send_window;
+  madara::utility::TimeValue end_time = current +
+    madara::utility::seconds_to_duration (max_runtime);
 
   madara_logger_ptr_log (gams::loggers::global_logger.get (),
     gams::loggers::LOG_MAJOR,
     "gams::controllers::Multicontroller::run:" \
-    " after plan (), %d modifications to send\n",
-    (int)knowledge_.get_context ().get_modifieds ().size ());
+    " %d controllers, loop_period: %fs, max_runtime: %fs, send_period: %fs\n",
+    (int)controllers_.size (), loop_period, max_runtime, send_period);
 
-  madara_logger_ptr_log (gams::loggers::global_logger.get (),
-    gams::loggers::LOG_DETAILED,
-    "%s\n",
-    knowledge_.debug_modifieds ().c_str ());
+  return_value |= system_analyze ();
 
-  madara_logger_ptr_log (gams::loggers::global_logger.get (),
-    gams::loggers::LOG_MAJOR,
-    "gams::controllers::Multicontroller::run:" \
-    " calling execute ()\n");
+  if (loop_period >= 0.0)
+  {
+    while (first_execute || max_runtime < 0 || current < end_time)
+    {
+      // return value should be last return value of mape loop
+      return_value = run_once_ ();
+      return_value |= system_analyze ();
 
-  return_value |= execute ();
+      current = madara::utility::Clock::now ();
 
-  madara_logger_ptr_log (gams::loggers::global_logger.get (),
-    gams::loggers::LOG_MAJOR,
-    "gams::controllers::Multicontroller::run:" \
-    " after execute (), %d modifications to send\n",
-    (int)knowledge_.get_context ().get_modifieds ().size ());
+      // run will always try to send at least once
+      if (first_execute || current > next_send)
+      {
+        madara_logger_ptr_log (gams::loggers::global_logger.get (),
+          gams::loggers::LOG_MAJOR,
+          "gams::controllers::Multicontroller::run:" \
+          " sending updates\n");
 
-  madara_logger_ptr_log (gams::loggers::global_logger.get (),
-    gams::loggers::LOG_DETAILED,
-    "%s\n",
-    knowledge_.debug_modifieds ().c_str ());
+        // send modified values of all slots in one message
+        knowledge_.send_modifieds ("Multicontroller::run",
+          settings_.eval_settings);
 
-  return return_value;
-}
+        // setup the next send epoch
+        if (send_period > 0)
+        {
+          while (next_send <= current)
+          {
+            next_send += send_window;
+          }
+        }
+      }
 
-int
-gams::controllers::Multicontroller::run_once (void)
-{
-  // return value
-  int return_value (run_once_ ());
+      current = madara::utility::Clock::now ();
 
-  madara_logger_ptr_log (gams::loggers::global_logger.get (),
-    gams::loggers::LOG_MAJOR,
-    "gams::controllers::Multicontroller::run:" \
-    " sending updates\n");
+      // check to see if we need to sleep for next loop epoch
+      if (loop_period > 0.0 && (max_runtime < 0 || current < end_time))
+      {
+        std::this_thread::sleep_until (next_loop);
 
-  // send modified values through network
-  knowledge_.send_modifieds ();
+        current = madara::utility::Clock::now ();
+        while (next_loop <= current)
+        {
+          next_loop += loop_window;
+        }
+      }
 
-  return return_value;
-}
+      // run will always execute at least one time
+      first_execute = false;
 
-int
-gams::controllers::Multicontroller::run (double ,
-  double , double )
-{
-  return 0;
+      current = madara::utility::Clock::now ();
+    }
+  }
+
+  return return_value;
 }
 
 void
 gams::controllers::Multicontroller::init_accent (const std::string & algorithm,
-const madara::knowledge::KnowledgeMap & args)
+  const madara::knowledge::KnowledgeMap & args)
 {
-  madara_logger_ptr_log (gams::loggers::global_logger.get (),
-    gams::loggers::LOG_MAJOR,
-    "gams::controllers::Multicontroller::init_accent:" \
-    " initializing accent %s\n", algorithm.c_str ());
-
-  if (algorithm == "")
+  for (size_t i = 0; i < controllers_.size (); ++i)
   {
-    madara_logger_ptr_log (gams::loggers::global_logger.get (),
-      gams::loggers::LOG_ERROR,
-      "gams::controllers::Multicontroller::init_accent:" \
-      " ERROR: accent name is null\n");
-  }
-  else
-  {
-    // create new accent pointer and algorithm factory
-    algorithms::BaseAlgorithm * new_accent (0);
-    madara_logger_ptr_log (gams::loggers::global_logger.get (),
-      gams::loggers::LOG_MAJOR,
-      "gams::controllers::Multicontroller::init_accent:" \
-      " factory is creating accent %s\n", algorithm.c_str ());
-
-    new_accent = algorithms::global_algorithm_factory()->create (algorithm, args);
-
-    if (new_accent)
-    {
-      accents_.push_back (new_accent);
-    }
-    else
-    {
-      madara_logger_ptr_log (gams::loggers::global_logger.get (),
-        gams::loggers::LOG_ERROR,
-        "gams::controllers::Multicontroller::init_accent:" \
-        " ERROR: created accent is null.\n");
-    }
+    controllers_[i]->init_accent (algorithm, args);
   }
 }
 
 void gams::controllers::Multicontroller::clear_accents (void)
 {
-  madara_logger_ptr_log (gams::loggers::global_logger.get (),
-    gams::loggers::LOG_MAJOR,
-    "gams::controllers::Multicontroller::clear_accents:" \
-    " deleting and clearing all accents\n");
-
-  for (unsigned int i = 0; i < accents_.size (); ++i)
+  for (size_t i = 0; i < controllers_.size (); ++i)
   {
-    delete accents_[i];
+    controllers_[i]->clear_accents ();
   }
-
-  accents_.clear ();
 }
+
 void
 gams::controllers::Multicontroller::init_algorithm (
-const std::string & algorithm, const madara::knowledge::KnowledgeMap & args)
+  const std::string & algorithm, const madara::knowledge::KnowledgeMap & args)
 {
-  // initialize the algorithm
+  for (size_t i = 0; i < controllers_.size (); ++i)
+  {
+    controllers_[i]->init_algorithm (algorithm, args);
+  }
+}
 
-  madara_logger_ptr_log (gams::loggers::global_logger.get (),
-    gams::loggers::LOG_MAJOR,
-    "gams::controllers::Multicontroller::init_algorithm:" \
-    " initializing algorithm %s\n", algorithm.c_str ());
+void
+gams::controllers::Multicontroller::init_algorithm (size_t index,
+  const std::string & algorithm, const madara::knowledge::KnowledgeMap & args)
+{
+  BaseController * controller = get_controller (index);
 
-  if (algorithm == "")
+  if (controller)
   {
-    madara_logger_ptr_log (gams::loggers::global_logger.get (),
-      gams::loggers::LOG_MAJOR,
-      "Algorithm is empty.\n\n" \
-      "SUPPORTED ALGORITHMS:\n" \
-      "  bridge | bridging\n" \
-      "  random area coverage\n" \
-      "  priotized area coverage\n"
-      );
+    controller->init_algorithm (algorithm, args);
   }
   else
   {
     madara_logger_ptr_log (gams::loggers::global_logger.get (),
-      gams::loggers::LOG_MAJOR,
+      gams::loggers::LOG_ERROR,
       "gams::controllers::Multicontroller::init_algorithm:" \
-      " deleting old algorithm\n");
+      " ERROR: no controller at index %d\n", (int)index);
+  }
+}
 
-    delete algorithm_;
+void
+gams::controllers::Multicontroller::init_algorithm (size_t index,
+  algorithms::BaseAlgorithm * algorithm)
+{
+  BaseController * controller = get_controller (index);
 
+  if (controller)
+  {
+    controller->init_algorithm (algorithm);
+  }
+  else
+  {
     madara_logger_ptr_log (gams::loggers::global_logger.get (),
-      gams::loggers::LOG_MAJOR,
+      gams::loggers::LOG_ERROR,
       "gams::controllers::Multicontroller::init_algorithm:" \
-      " factory is creating algorithm %s\n", algorithm.c_str ());
-
-    algorithm_ = algorithms::global_algorithm_factory()->create (
-      algorithm, args);
-
-    if (algorithm_ == 0)
-    {
-      // the user is going to expect this kind of error to be printed immediately
-      madara_logger_ptr_log (gams::loggers::global_logger.get (),
-        gams::loggers::LOG_MAJOR,
-        "gams::controllers::Multicontroller::init_algorithm:" \
-        " failed to create algorithm\n");
-    }
-    else
-    {
-#ifdef _GAMS_JAVA_
-      algorithms::JavaAlgorithm * jalg =
-        dynamic_cast <algorithms::JavaAlgorithm *> (algorithm_);
+      " ERROR: no controller at index %d. Deleting algorithm.\n", (int)index);
 
-      if (jalg)
-      {
-        // Acquire the Java virtual machine
-        gams::utility::java::Acquire_VM jvm;
-
-        jclass controller_class = gams::utility::java::find_class (
-          jvm.env, "ai/gams/controllers/Multicontroller");
-        jobject alg = jalg->get_java_instance ();
-        jclass alg_class = jvm.env->GetObjectClass (alg);
-        
-        jmethodID init_call = jvm.env->GetMethodID (alg_class,
-          "init", "(Lai/gams/controllers/Multicontroller;)V");
-        jmethodID controllerFromPointerCall = jvm.env->GetStaticMethodID (
-          controller_class,
-          "fromPointer", "(JZ)Lai/gams/controllers/Multicontroller;");
-
-        if (init_call && controllerFromPointerCall)
-        {
-          madara_logger_ptr_log (gams::loggers::global_logger.get (),
-            gams::loggers::LOG_MAJOR,
-            "gams::controllers::Multicontroller::init_algorithm:" \
-            " Calling BaseAlgorithm init method.\n");
-          jobject controller = jvm.env->CallStaticObjectMethod (controller_class,
-            controllerFromPointerCall, (jlong)this, (jboolean)false); 
-
-          jvm.env->CallVoidMethod (
-            alg, init_call, controller);
-
-          jvm.env->DeleteLocalRef (controller);
-        }
-        else
-        {
-          madara_logger_ptr_log (gams::loggers::global_logger.get (),
-            gams::loggers::LOG_ERROR,
-            "gams::controllers::Multicontroller::init_algorithm:" \
-            " ERROR. Could not locate init and fromPointer calls in "
-            "Multicontroller. Unable to initialize algorithm.\n");
-        }
-
-        jvm.env->DeleteLocalRef (alg_class);
-        jvm.env->DeleteLocalRef (alg);
-        jvm.env->DeleteWeakGlobalRef (controller_class);
-      }
-      else
-      {
-        init_vars (*algorithm_);
-      }
-#else
-      init_vars (*algorithm_);
-#endif
-    }
+    delete algorithm;
   }
 }
 
@@ -637,185 +414,90 @@ gams::controllers::Multicontroller::init_platform (
   const std::string & platform,
   const madara::knowledge::KnowledgeMap & args)
 {
-  // initialize the platform
-
-  madara_logger_ptr_log (gams::loggers::global_logger.get (),
-    gams::loggers::LOG_MAJOR,
-    "gams::controllers::Multicontroller::init_platform:" \
-    " initializing platform %s\n", platform.c_str ());
-
-  if (platform == "")
+  for (size_t i = 0; i < controllers_.size (); ++i)
   {
-    madara_logger_ptr_log (gams::loggers::global_logger.get (),
-      gams::loggers::LOG_ERROR,
-      "Platform is empty.\n\n" \
-      "SUPPORTED PLATFORMS:\n" \
-      "  drone-rk\n" \
-      "  vrep\n" \
-      );
-  }
-  else
-  {
-    madara_logger_ptr_log (gams::loggers::global_logger.get (),
-      gams::loggers::LOG_MAJOR,
-      "gams::controllers::Multicontroller::init_platform:" \
-      " deleting old platform\n");
-
-    delete platform_;
-    platforms::PlatformFactoryRepository factory (&knowledge_, &sensors_, &platforms_, &self_);
-
-    madara_logger_ptr_log (gams::loggers::global_logger.get (),
-      gams::loggers::LOG_MAJOR,
-      "gams::controllers::Multicontroller::init_platform:" \
-      " factory is creating platform %s\n", platform.c_str ());
-
-    platform_ = factory.create (platform, args);
-
-    init_vars (*platform_);
-
-    if (algorithm_)
-    {
-      madara_logger_ptr_log (gams::loggers::global_logger.get (),
-        gams::loggers::LOG_MAJOR,
-        "gams::controllers::Multicontroller::init_platform:" \
-        " algorithm is already initialized. Updating to new platform\n");
-
-      algorithm_->set_platform (platform_);
-    }
+    controllers_[i]->init_platform (platform, args);
   }
 }
 
-void gams::controllers::Multicontroller::init_algorithm (algorithms::BaseAlgorithm * algorithm)
+void
+gams::controllers::Multicontroller::init_platform (size_t index,
+  const std::string & platform,
+  const madara::knowledge::KnowledgeMap & args)
 {
-  madara_logger_ptr_log (gams::loggers::global_logger.get (),
-    gams::loggers::LOG_MAJOR,
-    "gams::controllers::Multicontroller::init_algorithm:" \
-    " deleting old algorithm\n");
+  BaseController * controller = get_controller (index);
 
-  delete algorithm_;
-  algorithm_ = algorithm;
-
-  if (algorithm_)
+  if (controller)
   {
-    madara_logger_ptr_log (gams::loggers::global_logger.get (),
-      gams::loggers::LOG_MAJOR,
-      "gams::controllers::Multicontroller::init_algorithm:" \
-      " initializing vars in algorithm\n");
-
-    init_vars (*algorithm_);
+    controller->init_platform (platform, args);
   }
   else
   {
     madara_logger_ptr_log (gams::loggers::global_logger.get (),
-      gams::loggers::LOG_MAJOR,
-      "gams::controllers::Multicontroller::init_algorithm:" \
-      " algorithm was reset to none\n");
+      gams::loggers::LOG_ERROR,
+      "gams::controllers::Multicontroller::init_platform:" \
+      " ERROR: no controller at index %d\n", (int)index);
   }
 }
 
-
-void gams::controllers::Multicontroller::init_platform (platforms::BasePlatform * platform)
+void
+gams::controllers::Multicontroller::init_platform (size_t index,
+  platforms::BasePlatform * platform)
 {
-  madara_logger_ptr_log (gams::loggers::global_logger.get (),
-    gams::loggers::LOG_MAJOR,
-    "gams::controllers::Multicontroller::init_platform:" \
-    " deleting old platform\n");
+  BaseController * controller = get_controller (index);
 
-  delete platform_;
-  platform_ = platform;
-
-  if (platform_)
+  if (controller)
   {
-    madara_logger_ptr_log (gams::loggers::global_logger.get (),
-      gams::loggers::LOG_MAJOR,
-      "gams::controllers::Multicontroller::init_platform:" \
-      " initializing vars in platform\n");
-
-    init_vars (*platform_);
-
-    if (algorithm_)
-    {
-      madara_logger_ptr_log (gams::loggers::global_logger.get (),
-        gams::loggers::LOG_MAJOR,
-        "gams::controllers::Multicontroller::init_platform:" \
-        " algorithm is already initialized. Updating to new platform\n");
-
-      algorithm_->set_platform (platform_);
-    }
+    controller->init_platform (platform);
   }
   else
   {
     madara_logger_ptr_log (gams::loggers::global_logger.get (),
-      gams::loggers::LOG_MAJOR,
+      gams::loggers::LOG_ERROR,
       "gams::controllers::Multicontroller::init_platform:" \
-      " platform was reset to none\n");
+      " ERROR: no controller at index %d. Deleting platform.\n", (int)index);
+
+    delete platform;
   }
 }
 
 #ifdef _GAMS_JAVA_
 
-void gams::controllers::Multicontroller::init_algorithm (jobject algorithm)
+void
+gams::controllers::Multicontroller::init_algorithm (size_t index,
+  jobject algorithm)
 {
-  madara_logger_ptr_log (gams::loggers::global_logger.get (),
-    gams::loggers::LOG_MAJOR,
-    "gams::controllers::Multicontroller::init_algorithm (java):" \
-    " deleting old algorithm\n");
-
-  delete algorithm_;
-
-  madara_logger_ptr_log (gams::loggers::global_logger.get (),
-    gams::loggers::LOG_MAJOR,
-    "gams::controllers::Multicontroller::init_algorithm (java):" \
-    " creating new Java algorithm\n");
-
-  algorithm_ = new gams::algorithms::JavaAlgorithm (algorithm);
+  BaseController * controller = get_controller (index);
 
-  if (algorithm_)
+  if (controller)
+  {
+    controller->init_algorithm (algorithm);
+  }
+  else
   {
     madara_logger_ptr_log (gams::loggers::global_logger.get (),
-      gams::loggers::LOG_MAJOR,
+      gams::loggers::LOG_ERROR,
       "gams::controllers::Multicontroller::init_algorithm (java):" \
-      " initializing vars for algorithm\n");
-
-    init_vars (*algorithm_);
+      " ERROR: no controller at index %d\n", (int)index);
   }
 }
 
-
-void gams::controllers::Multicontroller::init_platform (jobject platform)
+void
+gams::controllers::Multicontroller::init_platform (size_t index,
+  jobject platform)
 {
-  madara_logger_ptr_log (gams::loggers::global_logger.get (),
-    gams::loggers::LOG_MAJOR,
-    "gams::controllers::Multicontroller::init_platform (java):" \
-    " deleting old platform\n");
+  BaseController * controller = get_controller (index);
 
-  delete platform_;
-
-  madara_logger_ptr_log (gams::loggers::global_logger.get (),
-    gams::loggers::LOG_MAJOR,
-    "gams::controllers::Multicontroller::init_platform (java):" \
-    " creating new Java platform\n");
-
-  platform_ = new gams::platforms::JavaPlatform (platform);
-
-  if (platform_)
+  if (controller)
+  {
+    controller->init_platform (platform);
+  }
+  else
   {
     madara_logger_ptr_log (gams::loggers::global_logger.get (),
-      gams::loggers::LOG_MAJOR,
+      gams::loggers::LOG_ERROR,
       "gams::controllers::Multicontroller::init_platform (java):" \
-      " initializing vars for platform\n");
-
-    init_vars (*platform_);
-
-    if (algorithm_)
-    {
-      madara_logger_ptr_log (gams::loggers::global_logger.get (),
-        gams::loggers::LOG_MAJOR,
-        "gams::controllers::Multicontroller::init_platform (java):" \
-        " Algorithm exists. Updating its platform.\n");
-
-      algorithm_->set_platform (platform_);
-    }
+      " ERROR: no controller at index %d\n", (int)index);
   }
 }
 
@@ -823,57 +505,37 @@ void gams::controllers::Multicontroller::init_platform (jobject platform)
 
 void
 gams::controllers::Multicontroller::init_vars (
-const Integer & id,
-const Integer & processes)
-{
-  madara_logger_ptr_log (gams::loggers::global_logger.get (),
-    gams::loggers::LOG_MAJOR,
-    "gams::controllers::Multicontroller::init_vars:" \
-    " %" PRId64 " id, %" PRId64 " processes\n", id, processes);
-
-  // initialize the agents, swarm, and self variables
-  variables::init_vars (agents_, knowledge_, processes);
-  swarm_.init_vars (knowledge_, processes);
-  self_.init_vars (knowledge_, id);
-}
-
-void
-gams::controllers::Multicontroller::init_vars (platforms::BasePlatform & platform)
+  const Integer & id,
+  const Integer & processes)
 {
-  madara_logger_ptr_log (gams::loggers::global_logger.get (),
-    gams::loggers::LOG_MAJOR,
-    "gams::controllers::Multicontroller::init_vars:" \
-    " initializing platform's vars\n");
-
-  platform.knowledge_ = &knowledge_;
-  platform.self_ = &self_;
-  platform.sensors_ = &sensors_;
-}
+  Integer total (processes);
 
+  if (total < 0)
+  {
+    total = id + (Integer)controllers_.size ();
+  }
 
-void
-gams::controllers::Multicontroller::init_vars (algorithms::BaseAlgorithm & algorithm)
-{
   madara_logger_ptr_log (gams::loggers::global_logger.get (),
     gams::loggers::LOG_MAJOR,
     "gams::controllers::Multicontroller::init_vars:" \
-    " initializing algorithm's vars\n");
+    " %" PRId64 " first id, %" PRId64 " processes\n", id, total);
 
-  algorithm.agents_ = &agents_;
-  algorithm.knowledge_ = &knowledge_;
-  algorithm.platform_ = platform_;
-  algorithm.self_ = &self_;
-  algorithm.sensors_ = &sensors_;
+  for (size_t i = 0; i < controllers_.size (); ++i)
+  {
+    controllers_[i]->init_vars (id + (Integer)i, total);
+  }
 }
 
 gams::algorithms::BaseAlgorithm *
-gams::controllers::Multicontroller::get_algorithm (void)
+gams::controllers::Multicontroller::get_algorithm (size_t index)
 {
-  return algorithm_;
+  BaseController * controller = get_controller (index);
+  return controller ? controller->get_algorithm () : 0;
 }
 
 gams::platforms::BasePlatform *
-gams::controllers::Multicontroller::get_platform (void)
+gams::controllers::Multicontroller::get_platform (size_t index)
 {
-  return platform_;
+  BaseController * controller = get_controller (index);
+  return controller ? controller->get_platform () : 0;
 }
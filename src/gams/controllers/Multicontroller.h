@@ -48,27 +48,22 @@
  * @file Multicontroller.h
  * @author James Edmondson <jedmondson@gmail.com>
  *
- * This file contains the multithreaded controller class declaration
+ * This file contains a controller that hosts many agents in one process
  **/
 
 #ifndef   _GAMS_CONTROLLERS_MULTICONTROLLER_H_
 #define   _GAMS_CONTROLLERS_MULTICONTROLLER_H_
 
+#include <vector>
+
 #include "gams/GamsExport.h"
-#include "gams/variables/Agent.h"
-#include "gams/variables/Swarm.h"
-#include "gams/variables/Self.h"
-#include "gams/variables/Sensor.h"
-#include "gams/variables/AlgorithmStatus.h"
-#include "gams/variables/PlatformStatus.h"
+#include "gams/controllers/BaseController.h"
+#include "gams/controllers/ControllerSettings.h"
 #include "gams/algorithms/BaseAlgorithm.h"
 #include "gams/platforms/BasePlatform.h"
 #include "gams/algorithms/AlgorithmFactory.h"
 #include "gams/platforms/PlatformFactory.h"
 
-#include "madara/knowledge/containers/String.h"
-#include "madara/knowledge/containers/Vector.h"
-
 #ifdef _GAMS_JAVA_
 #include <jni.h>
 #endif
@@ -78,16 +73,26 @@ namespace gams
   namespace controllers
   {
     /**
-     * A controller that has the capability of starting many different threads
+     * A controller that hosts many agents in one process. Each agent is a
+     * slot with its own platform, algorithm and self variables, and all
+     * slots share a single knowledge base and a single MAPE loop. Updates
+     * from all slots are sent together at each send epoch. The self id
+     * and prefix of slot i are kept in .slot.{i}.id and .slot.{i}.prefix
+     * rather than the global .id and .prefix, so algorithms should read
+     * them through their Self variables.
      **/
     class GAMS_EXPORT Multicontroller
     {
     public:
       /**
        * Constructor
-       * @param   knowledge   The knowledge base to reference and mutate
+       * @param   knowledge        The knowledge base to reference and mutate
+       * @param   num_controllers  The number of agent slots to create
+       * @param   settings         an initial configuration for the slots
        **/
-      Multicontroller (madara::knowledge::KnowledgeBase & knowledge);
+      Multicontroller (madara::knowledge::KnowledgeBase & knowledge,
+        size_t num_controllers = 0,
+        const ControllerSettings & settings = ControllerSettings ());
 
       /**
        * Destructor
@@ -95,38 +100,59 @@ namespace gams
       virtual ~Multicontroller ();
 
       /**
-      * Defines the monitor function (the M of MAPE). This function should
-      * return a 0 unless the MAPE loop should stop.
+       * Changes the number of agent slots. New slots have no platform or
+       * algorithm. Removed slots are deleted with their platforms and
+       * algorithms.
+       * @param  num_controllers  the new number of slots
+       **/
+      void resize (size_t num_controllers);
+
+      /**
+       * Returns the number of agent slots
+       * @return the number of slots
+       **/
+      size_t size (void) const;
+
+      /**
+       * Returns the controller of an agent slot
+       * @param  index  the slot
+       * @return the controller, or 0 if index is out of range. The
+       *         Multicontroller retains ownership.
+       **/
+      BaseController * get_controller (size_t index);
+
+      /**
+      * Calls monitor on every slot
+      * @return the bitwise or of the slot results
       **/
       virtual int monitor (void);
 
       /**
-      * Analyzes the system to determine if platform or algorithm changes
-      * are necessary. This function should
-      * return a 0 unless the MAPE loop should stop.
+      * Calls system_analyze on every slot
+      * @return the bitwise or of the slot results
       **/
       virtual int system_analyze (void);
 
       /**
-      * Defines the analyze function (the A of MAPE). This function should
-      * return a 0 unless the MAPE loop should stop.
+      * Calls analyze on every slot
+      * @return the bitwise or of the slot results
       **/
       virtual int analyze (void);
 
       /**
-      * Defines the plan function (the P of MAPE). This function should
-      * return a 0 unless the MAPE loop should stop.
+      * Calls plan on every slot
+      * @return the bitwise or of the slot results
       **/
       virtual int plan (void);
 
       /**
-      * Defines the execute function (the E of MAPE). This function should
-      * return a 0 unless the MAPE loop should stop.
+      * Calls execute on every slot
+      * @return the bitwise or of the slot results
       **/
       virtual int execute (void);
 
       /**
-       * Runs a single iteration of the MAPE loop
+       * Runs a single iteration of the MAPE loop over all slots.
        * Always sends updates after the iteration.
        *
        * @return  the result of the MAPE loop iteration
@@ -147,7 +173,7 @@ namespace gams
       int run (double loop_period = 0.0,
         double max_runtime = -1,
         double send_period = -1.0);
-      
+
       /**
        * Runs iterations of the MAPE loop with specified hertz
        * @param  loop_hz  the intended hz at which the loop should execute.
@@ -182,7 +208,7 @@ namespace gams
       }
 
       /**
-       * Adds an accent algorithm
+       * Adds an accent algorithm to every slot
        * @param  algorithm   the name of the accent algorithm to add
        * @param  args        vector of knowledge record arguments
        **/
@@ -190,14 +216,14 @@ namespace gams
         const madara::knowledge::KnowledgeMap & args = madara::knowledge::KnowledgeMap ());
 
       /**
-       * Clears all accent algorithms
+       * Clears all accent algorithms in every slot
        **/
       void clear_accents (void);
 
       /**
        * Adds an aliased platform factory. This factory will be
        * initialized with all appropriate variables in the
-       * PlatformFactory class by the Multicontroller.
+       * PlatformFactory class by the slot that creates a platform.
        * @param  aliases   the named aliases for the factory. All
        *                   aliases will be converted to lower case
        * @param  factory   the factory for creating a platform
@@ -209,7 +235,7 @@ namespace gams
       /**
        * Adds an aliased algorithm factory. This factory will be
        * initialized with all appropriate variables in the
-       * AlgorithmFactory class by the Multicontroller.
+       * AlgorithmFactory class by the slot that creates an algorithm.
        * @param  aliases   the named aliases for the factory. All
        *                   aliases will be converted to lower case
        * @param  factory   the factory for creating an algorithm
@@ -219,119 +245,109 @@ namespace gams
         algorithms::AlgorithmFactory * factory);
 
       /**
-       * Initializes an algorithm
+       * Initializes the same named algorithm in every slot
        * @param  algorithm   the name of the algorithm to run
        * @param  args        vector of knowledge record arguments
        **/
       void init_algorithm (const std::string & algorithm,
         const madara::knowledge::KnowledgeMap & args = madara::knowledge::KnowledgeMap ());
+
+      /**
+       * Initializes a named algorithm in one slot
+       * @param  index       the slot
+       * @param  algorithm   the name of the algorithm to run
+       * @param  args        vector of knowledge record arguments
+       **/
+      void init_algorithm (size_t index, const std::string & algorithm,
+        const madara::knowledge::KnowledgeMap & args = madara::knowledge::KnowledgeMap ());
  
       /**
-       * Initializes the controller with a user-provided algorithm. This
+       * Initializes a slot with a user-provided algorithm. This
        * algorithm's memory will be maintained by the controller. DO NOT
        * DELETE THIS POINTER.
+       * @param  index       the slot
        * @param  algorithm   the algorithm to use
        **/
-      void init_algorithm (algorithms::BaseAlgorithm * algorithm);
+      void init_algorithm (size_t index, algorithms::BaseAlgorithm * algorithm);
 
       /**
-       * Initializes the platform
-       * @param  platform   the name of the platform the controller is using
-       * @param  args        vector of knowledge record arguments
+       * Initializes the same named platform in every slot
+       * @param  platform   the name of the platform the slots are using
+       * @param  args       vector of knowledge record arguments
        **/
       void init_platform (const std::string & platform,
         const madara::knowledge::KnowledgeMap & args =
           madara::knowledge::KnowledgeMap ());
+
+      /**
+       * Initializes a named platform in one slot
+       * @param  index      the slot
+       * @param  platform   the name of the platform the slot is using
+       * @param  args       vector of knowledge record arguments
+       **/
+      void init_platform (size_t index, const std::string & platform,
+        const madara::knowledge::KnowledgeMap & args =
+          madara::knowledge::KnowledgeMap ());
        
       /**
-       * Initializes the controller with a user-provided platform. This
+       * Initializes a slot with a user-provided platform. This
        * platform's memory will be maintained by the controller. DO NOT
        * DELETE THIS POINTER.
+       * @param  index      the slot
        * @param  platform   the platform to use
        **/
-      void init_platform (platforms::BasePlatform * platform);
+      void init_platform (size_t index, platforms::BasePlatform * platform);
            
 #ifdef _GAMS_JAVA_
       /**
-       * Initializes a Java-based algorithm
+       * Initializes a Java-based algorithm in one slot
+       * @param  index      the slot
        * @param  algorithm  the java-based algorithm to use
        **/
-      void init_algorithm (jobject algorithm);
+      void init_algorithm (size_t index, jobject algorithm);
       
       /**
-       * Initializes a Java-based platform
+       * Initializes a Java-based platform in one slot
+       * @param  index     the slot
        * @param  platform  the java-based platform to use
        **/
-      void init_platform (jobject platform);
+      void init_platform (size_t index, jobject platform);
 #endif
 
       /**
-       * Initializes global variable containers
-       * @param   id         node identifier
-       * @param   processes  processes
+       * Initializes global variable containers of every slot. Slot i
+       * becomes agent id + i, with its id in .slot.{i}.id.
+       * @param   id         node identifier of the first slot
+       * @param   processes  processes. If negative, the number of slots
+       *                     after id is used.
        **/
       void init_vars (const madara::knowledge::KnowledgeRecord::Integer & id = 0,
         const madara::knowledge::KnowledgeRecord::Integer & processes = -1);
-      
-      /**
-       * Initializes containers and knowledge base in a platform
-       * This is usually the first thing a developer should do with
-       * a user-defined platform.
-       * @param   platform   the platform to initialize
-       **/
-      void init_vars (platforms::BasePlatform & platform);
-      
-      /**
-       * Initializes containers and knowledge base in an algorithm.
-       * This is usually the first thing a developer should do with
-       * a user-defined algorithm.
-       * @param   algorithm   the algorithm to initialize
-       **/
-      void init_vars (algorithms::BaseAlgorithm & algorithm);
 
       /**
-       * Gets the current algorithm
-       * @return the algorithm
+       * Gets the algorithm of a slot
+       * @param  index  the slot
+       * @return the algorithm, or 0 if there is none
        **/
-      algorithms::BaseAlgorithm * get_algorithm (void);
+      algorithms::BaseAlgorithm * get_algorithm (size_t index);
       
       /**
-       * Gets the current platform
-       * @return the platform
+       * Gets the platform of a slot
+       * @param  index  the slot
+       * @return the platform, or 0 if there is none
        **/
-      platforms::BasePlatform * get_platform (void);
+      platforms::BasePlatform * get_platform (size_t index);
 
     protected:
 
-      /// Accents on the primary algorithm
-      algorithms::Algorithms accents_;
-
-      /// Algorithm to perform
-      algorithms::BaseAlgorithm * algorithm_;
-
-      /// Containers for algorithm information
-      variables::Algorithms algorithms_;
-      
-      /// Containers for agent-related variables
-      variables::Agents agents_;
+      /// Controllers for each agent slot
+      std::vector <BaseController *> controllers_;
 
-      /// Knowledge base
+      /// Knowledge base shared by all slots
       madara::knowledge::KnowledgeBase & knowledge_;
 
-      /// Platform on which the controller is running
-      platforms::BasePlatform * platform_;
-
-      /// Containers for platform information
-      variables::Platforms platforms_;
-
-      /// Containers for self-referencing variables
-      variables::Self self_;
-
-      /// Containers for sensor information
-      variables::Sensors sensors_;
-
-      /// Containers for swarm-related variables
-      variables::Swarm swarm_;
+      /// Settings used for new slots and for sending
+      ControllerSettings settings_;
 
     private:
 
@@ -45,11 +45,54 @@
  **/
 #include "Grid.h"
 
+#include <algorithm>
+
 typedef  madara::knowledge::KnowledgeRecord::Integer  Integer;
 
+namespace
+{
+  /// indices into the dimensions container
+  enum Dimension
+  {
+    SIZE_X = 0,
+    SIZE_Y,
+    SIZE_Z,
+    TILE_SIZE,
+    SPARSE,
+    NUM_DIMENSIONS
+  };
+
+  /// tile changed since the last take_dirty_tiles
+  const char DIRTY = 1;
+
+  /// tile memory handed out by get_tile
+  const char EXPOSED = 2;
+
+  inline size_t
+  ceil_div (size_t numerator, size_t denominator)
+  {
+    return (numerator + denominator - 1) / denominator;
+  }
+}
 
 gams::variables::Grid::Grid ()
+  : size_x_ (0), size_y_ (0), size_z_ (0), tile_size_ (DEFAULT_TILE_SIZE),
+  tile_depth_ (1), tiles_x_ (0), tiles_y_ (0), tiles_z_ (0),
+  default_value_ (0), sparse_ (true), initialized_ (false)
+{
+}
+
+gams::variables::Grid::Grid (size_t size_x, size_t size_y, size_t size_z,
+  size_t tile_size, double default_value, bool sparse)
+  : initialized_ (false)
+{
+  resize (size_x, size_y, size_z, tile_size, default_value, sparse);
+}
+
+gams::variables::Grid::Grid (const Grid & rhs)
+  : initialized_ (false)
 {
+  copy_from (rhs);
 }
 
 gams::variables::Grid::~Grid ()
@@ -61,18 +104,540 @@ gams::variables::Grid::operator= (const Grid & rhs)
 {
   if (this != &rhs)
   {
+    copy_from (rhs);
+  }
+}
+
+void
+gams::variables::Grid::copy_from (const Grid & rhs)
+{
+  size_x_ = rhs.size_x_;
+  size_y_ = rhs.size_y_;
+  size_z_ = rhs.size_z_;
+  tile_size_ = rhs.tile_size_;
+  tile_depth_ = rhs.tile_depth_;
+  tiles_x_ = rhs.tiles_x_;
+  tiles_y_ = rhs.tiles_y_;
+  tiles_z_ = rhs.tiles_z_;
+  default_value_ = rhs.default_value_;
+  sparse_ = rhs.sparse_;
+
+  size_t cells = get_tile_cells ();
+
+  tiles_.clear ();
+  tiles_.resize (rhs.tiles_.size ());
+  for (size_t i = 0; i < rhs.tiles_.size (); ++i)
+  {
+    if (rhs.tiles_[i])
+    {
+      tiles_[i].reset (new double[cells]);
+      std::copy (rhs.tiles_[i].get (), rhs.tiles_[i].get () + cells,
+        tiles_[i].get ());
+    }
+  }
+
+  reset_dirty ();
+}
+
+void
+gams::variables::Grid::resize (size_t size_x, size_t size_y, size_t size_z,
+  size_t tile_size, double default_value, bool sparse)
+{
+  size_x_ = size_x;
+  size_y_ = size_y;
+  size_z_ = std::max<size_t> (size_z, 1);
+  tile_size_ = std::max<size_t> (tile_size, 1);
+  tile_depth_ = size_z_ > 1 ? tile_size_ : 1;
+  tiles_x_ = ceil_div (size_x_, tile_size_);
+  tiles_y_ = ceil_div (size_y_, tile_size_);
+  tiles_z_ = ceil_div (size_z_, tile_depth_);
+  default_value_ = default_value;
+  sparse_ = sparse;
+
+  tiles_.clear ();
+  tiles_.resize (tiles_x_ * tiles_y_ * tiles_z_);
+  reset_dirty ();
+
+  if (!sparse_)
+  {
+    for (size_t i = 0; i < tiles_.size (); ++i)
+    {
+      edit_tile (i);
+    }
+  }
+}
+
+size_t
+gams::variables::Grid::get_size_x (void) const
+{
+  return size_x_;
+}
+
+size_t
+gams::variables::Grid::get_size_y (void) const
+{
+  return size_y_;
+}
+
+size_t
+gams::variables::Grid::get_size_z (void) const
+{
+  return size_z_;
+}
+
+size_t
+gams::variables::Grid::get_tile_size (void) const
+{
+  return tile_size_;
+}
+
+size_t
+gams::variables::Grid::get_tile_depth (void) const
+{
+  return tile_depth_;
+}
+
+size_t
+gams::variables::Grid::get_tile_cells (void) const
+{
+  return tile_size_ * tile_size_ * tile_depth_;
+}
+
+size_t
+gams::variables::Grid::get_tiles_x (void) const
+{
+  return tiles_x_;
+}
+
+size_t
+gams::variables::Grid::get_tiles_y (void) const
+{
+  return tiles_y_;
+}
+
+size_t
+gams::variables::Grid::get_tiles_z (void) const
+{
+  return tiles_z_;
+}
+
+size_t
+gams::variables::Grid::get_tile_count (void) const
+{
+  return tiles_.size ();
+}
+
+size_t
+gams::variables::Grid::get_allocated_tiles (void) const
+{
+  size_t result (0);
+  for (size_t i = 0; i < tiles_.size (); ++i)
+  {
+    if (tiles_[i])
+    {
+      ++result;
+    }
+  }
+  return result;
+}
+
+double
+gams::variables::Grid::get_default_value (void) const
+{
+  return default_value_;
+}
+
+bool
+gams::variables::Grid::is_sparse (void) const
+{
+  return sparse_;
+}
+
+double
+gams::variables::Grid::get (size_t x, size_t y, size_t z) const
+{
+  if (x >= size_x_ || y >= size_y_ || z >= size_z_)
+  {
+    return default_value_;
+  }
+
+  const double * tile = tiles_[get_tile_index (x, y, z)].get ();
+  if (!tile)
+  {
+    return default_value_;
+  }
+
+  return tile[x % tile_size_ +
+    tile_size_ * (y % tile_size_ + tile_size_ * (z % tile_depth_))];
+}
+
+void
+gams::variables::Grid::set (size_t x, size_t y, size_t z, double value)
+{
+  if (x >= size_x_ || y >= size_y_ || z >= size_z_)
+  {
+    return;
+  }
+
+  double * tile = edit_tile (get_tile_index (x, y, z));
+
+  tile[x % tile_size_ +
+    tile_size_ * (y % tile_size_ + tile_size_ * (z % tile_depth_))] = value;
+}
+
+void
+gams::variables::Grid::set (size_t x, size_t y, double value)
+{
+  set (x, y, 0, value);
+}
+
+void
+gams::variables::Grid::fill (size_t min_x, size_t min_y, size_t min_z,
+  size_t max_x, size_t max_y, size_t max_z, double value)
+{
+  max_x = std::min (max_x, size_x_);
+  max_y = std::min (max_y, size_y_);
+  max_z = std::min (max_z, size_z_);
+
+  if (min_x >= max_x || min_y >= max_y || min_z >= max_z)
+  {
+    return;
+  }
+
+  for (size_t tz = min_z / tile_depth_; tz <= (max_z - 1) / tile_depth_; ++tz)
+  {
+    size_t z0 = std::max (min_z, tz * tile_depth_) - tz * tile_depth_;
+    size_t z1 = std::min (max_z, (tz + 1) * tile_depth_) - tz * tile_depth_;
+
+    for (size_t ty = min_y / tile_size_; ty <= (max_y - 1) / tile_size_; ++ty)
+    {
+      size_t y0 = std::max (min_y, ty * tile_size_) - ty * tile_size_;
+      size_t y1 = std::min (max_y, (ty + 1) * tile_size_) - ty * tile_size_;
+
+      for (size_t tx = min_x / tile_size_;
+        tx <= (max_x - 1) / tile_size_; ++tx)
+      {
+        size_t x0 = std::max (min_x, tx * tile_size_) - tx * tile_size_;
+        size_t x1 = std::min (max_x, (tx + 1) * tile_size_) - tx * tile_size_;
+
+        size_t index = tx + tiles_x_ * (ty + tiles_y_ * tz);
+
+        // filling a missing tile with the default changes nothing
+        if (!tiles_[index] && value == default_value_)
+        {
+          continue;
+        }
+
+        double * tile = edit_tile (index);
+        for (size_t z = z0; z < z1; ++z)
+        {
+          for (size_t y = y0; y < y1; ++y)
+          {
+            double * row = tile + tile_size_ * (y + tile_size_ * z);
+            std::fill (row + x0, row + x1, value);
+          }
+        }
+      }
+    }
+  }
+}
+
+gams::variables::GridStats
+gams::variables::Grid::query (size_t min_x, size_t min_y, size_t min_z,
+  size_t max_x, size_t max_y, size_t max_z) const
+{
+  GridStats result;
+
+  max_x = std::min (max_x, size_x_);
+  max_y = std::min (max_y, size_y_);
+  max_z = std::min (max_z, size_z_);
+
+  if (min_x >= max_x || min_y >= max_y || min_z >= max_z)
+  {
+    return result;
+  }
+
+  result.min = result.max = get (min_x, min_y, min_z);
+
+  for (size_t tz = min_z / tile_depth_; tz <= (max_z - 1) / tile_depth_; ++tz)
+  {
+    size_t z0 = std::max (min_z, tz * tile_depth_) - tz * tile_depth_;
+    size_t z1 = std::min (max_z, (tz + 1) * tile_depth_) - tz * tile_depth_;
+
+    for (size_t ty = min_y / tile_size_; ty <= (max_y - 1) / tile_size_; ++ty)
+    {
+      size_t y0 = std::max (min_y, ty * tile_size_) - ty * tile_size_;
+      size_t y1 = std::min (max_y, (ty + 1) * tile_size_) - ty * tile_size_;
+
+      for (size_t tx = min_x / tile_size_;
+        tx <= (max_x - 1) / tile_size_; ++tx)
+      {
+        size_t x0 = std::max (min_x, tx * tile_size_) - tx * tile_size_;
+        size_t x1 = std::min (max_x, (tx + 1) * tile_size_) - tx * tile_size_;
+
+        size_t cells = (x1 - x0) * (y1 - y0) * (z1 - z0);
+        const double * tile =
+          tiles_[tx + tiles_x_ * (ty + tiles_y_ * tz)].get ();
+
+        result.count += cells;
+
+        if (!tile)
+        {
+          result.sum += default_value_ * cells;
+          result.min = std::min (result.min, default_value_);
+          result.max = std::max (result.max, default_value_);
+          continue;
+        }
+
+        for (size_t z = z0; z < z1; ++z)
+        {
+          for (size_t y = y0; y < y1; ++y)
+          {
+            const double * row = tile + tile_size_ * (y + tile_size_ * z);
+            for (size_t x = x0; x < x1; ++x)
+            {
+              result.sum += row[x];
+              result.min = std::min (result.min, row[x]);
+              result.max = std::max (result.max, row[x]);
+            }
+          }
+        }
+      }
+    }
+  }
+
+  return result;
+}
+
+size_t
+gams::variables::Grid::get_tile_index (size_t x, size_t y, size_t z) const
+{
+  return x / tile_size_ +
+    tiles_x_ * (y / tile_size_ + tiles_y_ * (z / tile_depth_));
+}
+
+double *
+gams::variables::Grid::get_tile (size_t index, bool create)
+{
+  double * result = create ? edit_tile (index) :
+    index < tiles_.size () ? tiles_[index].get () : 0;
+
+  if (result && !(dirty_[index] & EXPOSED))
+  {
+    dirty_[index] |= EXPOSED;
+    exposed_tiles_.push_back (index);
+    mark_dirty (index);
+  }
+
+  return result;
+}
+
+double *
+gams::variables::Grid::edit_tile (size_t index)
+{
+  if (index >= tiles_.size ())
+  {
+    return 0;
+  }
+
+  if (!tiles_[index])
+  {
+    size_t cells = get_tile_cells ();
+    tiles_[index].reset (new double[cells]);
+    std::fill (tiles_[index].get (), tiles_[index].get () + cells,
+      default_value_);
+  }
+
+  mark_dirty (index);
+  return tiles_[index].get ();
+}
+
+void
+gams::variables::Grid::mark_dirty (size_t index)
+{
+  if (index < dirty_.size () && !(dirty_[index] & DIRTY))
+  {
+    dirty_[index] |= DIRTY;
+    dirty_tiles_.push_back (index);
   }
 }
 
+void
+gams::variables::Grid::take_dirty_tiles (std::vector <size_t> & tiles)
+{
+  for (size_t i = 0; i < dirty_tiles_.size (); ++i)
+  {
+    dirty_[dirty_tiles_[i]] &= ~DIRTY;
+  }
+  tiles.insert (tiles.end (), dirty_tiles_.begin (), dirty_tiles_.end ());
+  dirty_tiles_.clear ();
+
+  // writes through handed out pointers cannot be seen
+  for (size_t i = 0; i < exposed_tiles_.size (); ++i)
+  {
+    mark_dirty (exposed_tiles_[i]);
+  }
+}
+
+void
+gams::variables::Grid::reset_dirty (void)
+{
+  dirty_.assign (tiles_.size (), DIRTY);
+  dirty_tiles_.resize (tiles_.size ());
+  for (size_t i = 0; i < dirty_tiles_.size (); ++i)
+  {
+    dirty_tiles_[i] = i;
+  }
+  exposed_tiles_.clear ();
+}
+
+const double *
+gams::variables::Grid::get_tile (size_t index) const
+{
+  return index < tiles_.size () ? tiles_[index].get () : 0;
+}
+
+void
+gams::variables::Grid::clear (void)
+{
+  size_t cells = get_tile_cells ();
+
+  for (size_t i = 0; i < tiles_.size (); ++i)
+  {
+    if (!tiles_[i])
+    {
+      continue;
+    }
+
+    mark_dirty (i);
+    if (sparse_)
+    {
+      tiles_[i].reset ();
+      dirty_[i] &= ~EXPOSED;
+    }
+    else
+    {
+      std::fill (tiles_[i].get (), tiles_[i].get () + cells, default_value_);
+    }
+  }
+
+  if (sparse_)
+  {
+    exposed_tiles_.clear ();
+  }
+}
+
+template <typename Context>
+void
+gams::variables::Grid::init_containers (
+  const std::string & name, Context & knowledge)
+{
+  name_ = name;
+  dimensions_.set_name (name + ".dimensions", knowledge, NUM_DIMENSIONS);
+  tile_records_.set_name (name + ".tiles", knowledge);
+  default_record_.set_name (name + ".default", knowledge);
+  initialized_ = true;
+}
 
 void
 gams::variables::Grid::init_vars (
-  madara::knowledge::KnowledgeBase & /*knowledge*/)
+  madara::knowledge::KnowledgeBase & knowledge)
 {
+  init_containers ("grid", knowledge);
 }
 
 void
 gams::variables::Grid::init_vars (
-  madara::knowledge::Variables & /*knowledge*/)
+  madara::knowledge::Variables & knowledge)
+{
+  init_containers ("grid", knowledge);
+}
+
+void
+gams::variables::Grid::init_vars (const std::string & name,
+  madara::knowledge::KnowledgeBase & knowledge)
+{
+  init_containers (name, knowledge);
+}
+
+void
+gams::variables::Grid::init_vars (const std::string & name,
+  madara::knowledge::Variables & knowledge)
+{
+  init_containers (name, knowledge);
+}
+
+void
+gams::variables::Grid::write (void)
+{
+  if (!initialized_)
+  {
+    return;
+  }
+
+  dimensions_.set (SIZE_X, (Integer)size_x_);
+  dimensions_.set (SIZE_Y, (Integer)size_y_);
+  dimensions_.set (SIZE_Z, (Integer)size_z_);
+  dimensions_.set (TILE_SIZE, (Integer)tile_size_);
+  dimensions_.set (SPARSE, sparse_ ? 1 : 0);
+  default_record_ = default_value_;
+
+  size_t cells = get_tile_cells ();
+  tile_records_.resize ((int)tiles_.size ());
+
+  for (size_t i = 0; i < tiles_.size (); ++i)
+  {
+    if (tiles_[i])
+    {
+      tile_records_.set (i, std::vector <double> (
+        tiles_[i].get (), tiles_[i].get () + cells));
+    }
+  }
+}
+
+bool
+gams::variables::Grid::read (void)
+{
+  if (!initialized_ || dimensions_.size () < NUM_DIMENSIONS)
+  {
+    return false;
+  }
+
+  Integer size_x = dimensions_[SIZE_X];
+  Integer size_y = dimensions_[SIZE_Y];
+  Integer size_z = dimensions_[SIZE_Z];
+  Integer tile_size = dimensions_[TILE_SIZE];
+
+  if (size_x <= 0 || size_y <= 0 || tile_size <= 0)
+  {
+    return false;
+  }
+
+  resize ((size_t)size_x, (size_t)size_y, (size_t)size_z,
+    (size_t)tile_size, *default_record_, dimensions_[SPARSE] != 0);
+
+  // pick up tiles written by other agents since init_vars
+  tile_records_.resize (-1, false);
+
+  size_t cells = get_tile_cells ();
+  size_t count = std::min (tiles_.size (), tile_records_.size ());
+
+  for (size_t i = 0; i < count; ++i)
+  {
+    madara::knowledge::KnowledgeRecord record (tile_records_[i]);
+    if (record.type () == madara::knowledge::KnowledgeRecord::DOUBLE_ARRAY &&
+      record.size () == cells)
+    {
+      std::vector <double> values (record.to_doubles ());
+      std::copy (values.begin (), values.end (), edit_tile (i));
+    }
+  }
+
+  return true;
+}
+
+std::string
+gams::variables::Grid::get_name (void) const
 {
+  return name_;
 }
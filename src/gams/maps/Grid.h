@@ -48,52 +48,404 @@
  * @file Grid.h
  * @author James Edmondson <jedmondson@gmail.com>
  *
- * This file contains the definition of helper functions for grid-based
- * interactions
+ * This file contains the definition of a 2D/3D grid of cell values, such
+ * as occupancy or coverage, that is stored in tiles and can be saved to
+ * and loaded from a knowledge base
  **/
 
 #ifndef   _GAMS_VARIABLES_GRID_H_
 #define   _GAMS_VARIABLES_GRID_H_
 
+#include <memory>
+#include <string>
+#include <vector>
+
 #include "gams/GamsExport.h"
 #include "madara/knowledge/containers/Double.h"
-#include "madara/knowledge/containers/Map.h"
+#include "madara/knowledge/containers/NativeIntegerVector.h"
+#include "madara/knowledge/containers/Vector.h"
 #include "madara/knowledge/KnowledgeBase.h"
 
 namespace gams
 {
   namespace variables
   {
+    /**
+     * Summary of the cells in a region of a grid
+     **/
+    struct GAMS_EXPORT GridStats
+    {
+      /// number of cells in the region
+      size_t count = 0;
+
+      /// sum of the cell values
+      double sum = 0;
+
+      /// smallest cell value
+      double min = 0;
+
+      /// largest cell value
+      double max = 0;
+    };
+
+    /**
+     * A grid of double values over a 2D or 3D area. Cells are kept in
+     * square (or cubic) tiles of contiguous memory, so large maps only pay
+     * for the tiles they use. A dense grid allocates every tile up front.
+     * A sparse grid allocates a tile on its first write, and cells in
+     * missing tiles read as the default value. A tile does not move once
+     * allocated, so a pointer from get_tile stays valid across get, set,
+     * fill, query and write. resize, read and assignment release every
+     * tile, and clear releases the tiles of a sparse grid, so pointers
+     * must be fetched again after any of them.
+     *
+     * Each tile is saved to the knowledge base as one double array at
+     * {name}.tiles.{index}, with the grid dimensions at {name}.dimensions
+     * and the default value at {name}.default, so the whole grid costs one
+     * variable per tile rather than one per cell.
+     **/
     class GAMS_EXPORT Grid
     {
     public:
+      /// default number of cells along each side of a tile
+      static const size_t DEFAULT_TILE_SIZE = 64;
+
       /**
-       * Constructor
+       * Constructor for an empty grid
        **/
       Grid ();
 
+      /**
+       * Constructor
+       * @param  size_x         number of cells along x
+       * @param  size_y         number of cells along y
+       * @param  size_z         number of cells along z. 1 is a 2D grid.
+       * @param  tile_size      number of cells along each side of a tile
+       * @param  default_value  value of cells that have not been written
+       * @param  sparse         if true, allocate tiles on first write
+       **/
+      Grid (size_t size_x, size_t size_y, size_t size_z = 1,
+        size_t tile_size = DEFAULT_TILE_SIZE, double default_value = 0,
+        bool sparse = true);
+
+      /**
+       * Copy constructor. Copies all tiles.
+       * @param  rhs   grid to copy
+       **/
+      Grid (const Grid & rhs);
+
       /**
        * Destructor
        **/
       ~Grid ();
 
       /**
-       * Assignment operator
+       * Assignment operator. Copies all tiles, releasing the old ones.
        * @param  rhs   values to copy
        **/
       void operator= (const Grid & rhs);
 
       /**
-       * Initializes variable containers
+       * Changes the dimensions of the grid and drops all cell values.
+       * Releases every tile, invalidating pointers from get_tile.
+       * @param  size_x         number of cells along x
+       * @param  size_y         number of cells along y
+       * @param  size_z         number of cells along z. 1 is a 2D grid.
+       * @param  tile_size      number of cells along each side of a tile
+       * @param  default_value  value of cells that have not been written
+       * @param  sparse         if true, allocate tiles on first write
+       **/
+      void resize (size_t size_x, size_t size_y, size_t size_z = 1,
+        size_t tile_size = DEFAULT_TILE_SIZE, double default_value = 0,
+        bool sparse = true);
+
+      /**
+       * Returns the number of cells along x
+       * @return cells along x
+       **/
+      size_t get_size_x (void) const;
+
+      /**
+       * Returns the number of cells along y
+       * @return cells along y
+       **/
+      size_t get_size_y (void) const;
+
+      /**
+       * Returns the number of cells along z
+       * @return cells along z, 1 for a 2D grid
+       **/
+      size_t get_size_z (void) const;
+
+      /**
+       * Returns the number of cells along each side of a tile
+       * @return the tile size
+       **/
+      size_t get_tile_size (void) const;
+
+      /**
+       * Returns the number of cells along z in a tile
+       * @return 1 for a 2D grid, otherwise the tile size
+       **/
+      size_t get_tile_depth (void) const;
+
+      /**
+       * Returns the number of cells in one tile
+       * @return cells per tile
+       **/
+      size_t get_tile_cells (void) const;
+
+      /**
+       * Returns the number of tiles along x
+       * @return tiles along x
+       **/
+      size_t get_tiles_x (void) const;
+
+      /**
+       * Returns the number of tiles along y
+       * @return tiles along y
+       **/
+      size_t get_tiles_y (void) const;
+
+      /**
+       * Returns the number of tiles along z
+       * @return tiles along z
+       **/
+      size_t get_tiles_z (void) const;
+
+      /**
+       * Returns the total number of tiles
+       * @return tiles in the grid, allocated or not
+       **/
+      size_t get_tile_count (void) const;
+
+      /**
+       * Returns the number of allocated tiles
+       * @return tiles that hold memory
+       **/
+      size_t get_allocated_tiles (void) const;
+
+      /**
+       * Returns the value of unwritten cells
+       * @return the default value
+       **/
+      double get_default_value (void) const;
+
+      /**
+       * Checks if tiles are allocated on first write
+       * @return true if sparse
+       **/
+      bool is_sparse (void) const;
+
+      /**
+       * Returns the value of a cell. Cells outside of the grid read as the
+       * default value.
+       * @param  x   cell index along x
+       * @param  y   cell index along y
+       * @param  z   cell index along z
+       * @return the cell value
+       **/
+      double get (size_t x, size_t y, size_t z = 0) const;
+
+      /**
+       * Sets the value of a cell. Cells outside of the grid are ignored.
+       * @param  x     cell index along x
+       * @param  y     cell index along y
+       * @param  z     cell index along z
+       * @param  value the new value
+       **/
+      void set (size_t x, size_t y, size_t z, double value);
+
+      /**
+       * Sets the value of a cell in a 2D grid
+       * @param  x     cell index along x
+       * @param  y     cell index along y
+       * @param  value the new value
+       **/
+      void set (size_t x, size_t y, double value);
+
+      /**
+       * Sets every cell in a box of cells. The box is clipped to the grid.
+       * @param  min_x  first cell along x
+       * @param  min_y  first cell along y
+       * @param  min_z  first cell along z
+       * @param  max_x  one past the last cell along x
+       * @param  max_y  one past the last cell along y
+       * @param  max_z  one past the last cell along z
+       * @param  value  the new value
+       **/
+      void fill (size_t min_x, size_t min_y, size_t min_z,
+        size_t max_x, size_t max_y, size_t max_z, double value);
+
+      /**
+       * Summarizes every cell in a box of cells. The box is clipped to the
+       * grid. Missing tiles count as cells of the default value without
+       * being allocated.
+       * @param  min_x  first cell along x
+       * @param  min_y  first cell along y
+       * @param  min_z  first cell along z
+       * @param  max_x  one past the last cell along x
+       * @param  max_y  one past the last cell along y
+       * @param  max_z  one past the last cell along z
+       * @return the count, sum, minimum and maximum of the cells
+       **/
+      GridStats query (size_t min_x, size_t min_y, size_t min_z,
+        size_t max_x, size_t max_y, size_t max_z) const;
+
+      /**
+       * Returns the index of the tile holding a cell
+       * @param  x   cell index along x
+       * @param  y   cell index along y
+       * @param  z   cell index along z
+       * @return the tile index
+       **/
+      size_t get_tile_index (size_t x, size_t y, size_t z = 0) const;
+
+      /**
+       * Returns the cells of a tile. Cells are stored x first, then y,
+       * then z. The memory stays valid until the grid is resized, read,
+       * assigned, cleared (if sparse) or destroyed. Since writes through
+       * the pointer cannot be seen, the tile is reported as dirty by
+       * take_dirty_tiles until it is released.
+       * @param  index   the tile index
+       * @param  create  if true, allocate a missing tile
+       * @return the cells, or 0 if the tile is missing and create is false
+       **/
+      double * get_tile (size_t index, bool create = true);
+
+      /**
+       * Returns the cells of a tile for an immediate write, allocating a
+       * missing tile, and marks the tile dirty once. Unlike get_tile, the
+       * pointer must not be kept past the write.
+       * @param  index   the tile index
+       * @return the cells, or 0 if the index is outside of the grid
+       **/
+      double * edit_tile (size_t index);
+
+      /**
+       * Marks a tile as changed, e.g., after writing through a pointer
+       * from edit_tile
+       * @param  index   the tile index
+       **/
+      void mark_dirty (size_t index);
+
+      /**
+       * Appends the indices of the tiles changed since the last call, in
+       * no particular order, and starts a new record. Tiles released since
+       * the last call are included, as are all tiles after a resize, read
+       * or assignment. Meant for a single consumer, such as a GridSync.
+       * @param  tiles   the vector to append to
+       **/
+      void take_dirty_tiles (std::vector <size_t> & tiles);
+
+      /**
+       * Returns the cells of a tile
+       * @param  index   the tile index
+       * @return the cells, or 0 if the tile is missing
+       **/
+      const double * get_tile (size_t index) const;
+
+      /**
+       * Drops all cell values. A sparse grid releases its tiles, which
+       * invalidates pointers from get_tile. A dense grid keeps its tiles
+       * and resets them to the default value.
+       **/
+      void clear (void);
+
+      /**
+       * Initializes variable containers with the name "grid"
        * @param   knowledge  the variable context
        **/
       void init_vars (madara::knowledge::KnowledgeBase & knowledge);
 
       /**
-       * Initializes variable containers
+       * Initializes variable containers with the name "grid"
        * @param   knowledge  the variable context
        **/
       void init_vars (madara::knowledge::Variables & knowledge);
+
+      /**
+       * Initializes variable containers
+       * @param   name       the prefix of the grid variables
+       * @param   knowledge  the variable context
+       **/
+      void init_vars (const std::string & name,
+        madara::knowledge::KnowledgeBase & knowledge);
+
+      /**
+       * Initializes variable containers
+       * @param   name       the prefix of the grid variables
+       * @param   knowledge  the variable context
+       **/
+      void init_vars (const std::string & name,
+        madara::knowledge::Variables & knowledge);
+
+      /**
+       * Saves the dimensions and all allocated tiles into the knowledge
+       * base. Does nothing before init_vars.
+       **/
+      void write (void);
+
+      /**
+       * Loads the dimensions and tiles from the knowledge base, replacing
+       * the grid's contents. Does nothing before init_vars or if the
+       * knowledge base has no grid under the name. Loading a grid resizes
+       * it, which invalidates pointers from get_tile.
+       * @return true if a grid was loaded
+       **/
+      bool read (void);
+
+      /**
+       * Returns the prefix of the grid variables
+       * @return the name passed to init_vars
+       **/
+      std::string get_name (void) const;
+
+    protected:
+      /// the prefix of the grid variables
+      std::string name_;
+
+      /// size_x, size_y, size_z, tile_size and sparse
+      madara::knowledge::containers::NativeIntegerVector dimensions_;
+
+      /// one double array per tile
+      madara::knowledge::containers::Vector tile_records_;
+
+      /// the value of unwritten cells
+      madara::knowledge::containers::Double default_record_;
+
+    private:
+      void copy_from (const Grid & rhs);
+
+      template <typename Context>
+      void init_containers (const std::string & name, Context & knowledge);
+
+      /// marks every tile dirty and forgets handed out pointers
+      void reset_dirty (void);
+
+      size_t size_x_;
+      size_t size_y_;
+      size_t size_z_;
+      size_t tile_size_;
+      size_t tile_depth_;
+      size_t tiles_x_;
+      size_t tiles_y_;
+      size_t tiles_z_;
+      double default_value_;
+      bool sparse_;
+      bool initialized_;
+
+      /// the tiles, null until allocated
+      std::vector <std::unique_ptr <double[]> > tiles_;
+
+      /// DIRTY and EXPOSED flags of each tile
+      std::vector <char> dirty_;
+
+      /// tiles changed since the last take_dirty_tiles
+      std::vector <size_t> dirty_tiles_;
+
+      /// tiles handed out by get_tile, which are always dirty
+      std::vector <size_t> exposed_tiles_;
     };
   }
 }
@@ -0,0 +1,652 @@
+/**
+ * Copyright (c) 2017 Carnegie Mellon University. All Rights Reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following acknowledgments and disclaimers.
+ * 
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * 3. The names "Carnegie Mellon University," "SEI" and/or "Software
+ *    Engineering Institute" shall not be used to endorse or promote products
+ *    derived from this software without prior written permission. For written
+ *    permission, please contact permission@sei.cmu.edu.
+ * 
+ * 4. Products derived from this software may not be called "SEI" nor may "SEI"
+ *    appear in their names without prior written permission of
+ *    permission@sei.cmu.edu.
+ * 
+ * 5. Redistributions of any form whatsoever must retain the following
+ *    acknowledgment:
+ * 
+ *      This material is based upon work funded and supported by the Department
+ *      of Defense under Contract No. FA8721-05-C-0003 with Carnegie Mellon
+ *      University for the operation of the Software Engineering Institute, a
+ *      federally funded research and development center. Any opinions,
+ *      findings and conclusions or recommendations expressed in this material
+ *      are those of the author(s) and do not necessarily reflect the views of
+ *      the United States Department of Defense.
+ * 
+ *      NO WARRANTY. THIS CARNEGIE MELLON UNIVERSITY AND SOFTWARE ENGINEERING
+ *      INSTITUTE MATERIAL IS FURNISHED ON AN "AS-IS" BASIS. CARNEGIE MELLON
+ *      UNIVERSITY MAKES NO WARRANTIES OF ANY KIND, EITHER EXPRESSED OR
+ *      IMPLIED, AS TO ANY MATTER INCLUDING, BUT NOT LIMITED TO, WARRANTY OF
+ *      FITNESS FOR PURPOSE OR MERCHANTABILITY, EXCLUSIVITY, OR RESULTS
+ *      OBTAINED FROM USE OF THE MATERIAL. CARNEGIE MELLON UNIVERSITY DOES
+ *      NOT MAKE ANY WARRANTY OF ANY KIND WITH RESPECT TO FREEDOM FROM PATENT,
+ *      TRADEMARK, OR COPYRIGHT INFRINGEMENT.
+ * 
+ *      This material has been approved for public release and unlimited
+ *      distribution.
+ **/
+
+/**
+ * @file GridSync.cpp
+ * @author James Edmondson <jedmondson@gmail.com>
+ *
+ * This file contains the implementation of a tile-delta synchronizer that
+ * shares a Grid between agents through a knowledge base
+ **/
+
+#include "GridSync.h"
+
+#include <algorithm>
+#include <cstring>
+
+#include "madara/utility/Utility.h"
+
+namespace knowledge = madara::knowledge;
+
+namespace
+{
+  /// version of the delta format
+  const unsigned char FORMAT = 1;
+
+  /// tile flag for a tile encoded against default values
+  const unsigned char FULL_TILE = 1;
+
+  inline uint64_t bits_of (double value)
+  {
+    uint64_t result;
+    memcpy (&result, &value, sizeof (result));
+    return result;
+  }
+
+  inline void put_varint (std::vector <unsigned char> & buffer,
+    uint64_t value)
+  {
+    while (value >= 0x80)
+    {
+      buffer.push_back ((unsigned char)(value | 0x80));
+      value >>= 7;
+    }
+    buffer.push_back ((unsigned char)value);
+  }
+
+  inline void put_double (std::vector <unsigned char> & buffer,
+    double value)
+  {
+    // little endian regardless of host
+    uint64_t bits = bits_of (value);
+    for (int i = 0; i < 8; ++i, bits >>= 8)
+    {
+      buffer.push_back ((unsigned char)bits);
+    }
+  }
+
+  /**
+   * Reads a varint and advances pos. Returns false if the data ends
+   * first or the value overflows.
+   **/
+  inline bool get_varint (const unsigned char * data, size_t size,
+    size_t & pos, uint64_t & value)
+  {
+    value = 0;
+    for (unsigned shift = 0; shift < 64 && pos < size; shift += 7)
+    {
+      unsigned char byte = data[pos++];
+      value |= (uint64_t)(byte & 0x7f) << shift;
+      if (!(byte & 0x80))
+      {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  inline double get_double (const unsigned char * data)
+  {
+    uint64_t bits = 0;
+    for (int i = 7; i >= 0; --i)
+    {
+      bits = (bits << 8) | data[i];
+    }
+
+    double result;
+    memcpy (&result, &bits, sizeof (result));
+    return result;
+  }
+
+  /// appends one run, where count is the number of cells written
+  inline void put_run (std::vector <unsigned char> & buffer,
+    size_t skip, size_t count, bool repeated, const double * values)
+  {
+    put_varint (buffer, ((uint64_t)count << 1) | (repeated ? 1 : 0));
+    put_varint (buffer, skip);
+
+    size_t stored = repeated ? 1 : count;
+    for (size_t i = 0; i < stored; ++i)
+    {
+      put_double (buffer, values[i]);
+    }
+  }
+}
+
+gams::variables::GridSync::GridSync (Grid & grid,
+  knowledge::KnowledgeBase & knowledge,
+  const std::string & id, const std::string & name)
+: grid_ (grid), knowledge_ (knowledge), cells_ (0),
+  epoch_ ((uint64_t)madara::utility::get_time ()), sequence_ (0),
+  keyframe_interval_ (DEFAULT_KEYFRAME_INTERVAL)
+{
+  prefix_ = name;
+  if (prefix_ == "")
+  {
+    prefix_ = grid.get_name ();
+  }
+  if (prefix_ == "")
+  {
+    prefix_ = "grid";
+  }
+
+  prefix_ += ".sync.";
+  key_ = prefix_ + id;
+}
+
+size_t
+gams::variables::GridSync::encode_tile (size_t cells,
+  const double * current, const double * previous,
+  std::vector <unsigned char> & buffer)
+{
+  size_t encoded = 0;
+  size_t last = 0;
+  size_t i = 0;
+
+  while (i < cells)
+  {
+    if (bits_of (current[i]) == bits_of (previous[i]))
+    {
+      ++i;
+      continue;
+    }
+
+    // find the span of changed cells starting at i
+    size_t end = i + 1;
+    while (end < cells && bits_of (current[end]) != bits_of (previous[end]))
+    {
+      ++end;
+    }
+
+    encoded += end - i;
+
+    size_t skip = i - last;
+    while (i < end)
+    {
+      size_t repeat = i + 1;
+      while (repeat < end && bits_of (current[repeat]) == bits_of (current[i]))
+      {
+        ++repeat;
+      }
+
+      if (repeat - i >= 2)
+      {
+        put_run (buffer, skip, repeat - i, true, current + i);
+        i = repeat;
+      }
+      else
+      {
+        // literals until the next pair of repeated values
+        size_t literal = i + 1;
+        while (literal < end && !(literal + 1 < end &&
+          bits_of (current[literal]) == bits_of (current[literal + 1])))
+        {
+          ++literal;
+        }
+
+        put_run (buffer, skip, literal - i, false, current + i);
+        i = literal;
+      }
+      skip = 0;
+    }
+
+    last = end;
+  }
+
+  put_varint (buffer, 0);
+  return encoded;
+}
+
+size_t
+gams::variables::GridSync::decode_tile (size_t cells,
+  const unsigned char * data, size_t size, double * tile, double * shadow)
+{
+  size_t pos = 0;
+  size_t cell = 0;
+
+  for (;;)
+  {
+    uint64_t header, skip;
+    if (!get_varint (data, size, pos, header))
+    {
+      return 0;
+    }
+    if (header == 0)
+    {
+      return pos;
+    }
+    if (!get_varint (data, size, pos, skip))
+    {
+      return 0;
+    }
+
+    uint64_t count = header >> 1;
+    bool repeated = (header & 1) != 0;
+    uint64_t stored = repeated ? 1 : count;
+
+    if (skip > cells - cell || count > cells - cell - skip ||
+      stored > (size - pos) / 8)
+    {
+      return 0;
+    }
+
+    cell += (size_t)skip;
+
+    for (uint64_t i = 0; i < count; ++i, ++cell)
+    {
+      double value = get_double (data + pos + (repeated ? 0 : i * 8));
+      if (tile)
+      {
+        tile[cell] = value;
+      }
+      if (shadow)
+      {
+        shadow[cell] = value;
+      }
+    }
+
+    pos += (size_t)stored * 8;
+  }
+}
+
+void
+gams::variables::GridSync::check_layout (void)
+{
+  size_t cells = grid_.get_tile_cells ();
+  size_t count = grid_.get_tile_count ();
+  double default_value = grid_.get_default_value ();
+
+  if (cells != cells_ || count != shadow_.size ())
+  {
+    cells_ = cells;
+    shadow_.clear ();
+    shadow_.resize (count);
+    versions_.assign (count, 0);
+    force_full_.assign (count, false);
+
+    for (std::map <std::string, Peer>::iterator i = peers_.begin ();
+      i != peers_.end (); ++i)
+    {
+      i->second.versions.assign (count, 0);
+    }
+
+    // compare every tile against the new, empty shadows
+    for (size_t i = 0; i < count; ++i)
+    {
+      grid_.mark_dirty (i);
+    }
+  }
+
+  scratch_.resize (cells * 2);
+
+  if (default_tile_.size () != cells ||
+    (cells > 0 && bits_of (default_tile_[0]) != bits_of (default_value)))
+  {
+    default_tile_.assign (cells, default_value);
+  }
+}
+
+size_t
+gams::variables::GridSync::send (void)
+{
+  check_layout ();
+
+  // only tiles written since the last send can differ from their shadows
+  dirty_.clear ();
+  grid_.take_dirty_tiles (dirty_);
+  std::sort (dirty_.begin (), dirty_.end ());
+
+  buffer_.clear ();
+  buffer_.push_back (FORMAT);
+  put_varint (buffer_, epoch_);
+  put_varint (buffer_, sequence_ + 1);
+  put_varint (buffer_, cells_);
+
+  size_t header_size = buffer_.size ();
+  size_t tiles = 0;
+  size_t full_tiles = 0;
+  size_t cells = 0;
+  const Grid & grid = grid_;
+
+  for (size_t d = 0; d < dirty_.size (); ++d)
+  {
+    size_t i = dirty_[d];
+    if (i >= shadow_.size ())
+    {
+      continue;
+    }
+
+    const double * tile = grid.get_tile (i);
+    double * shadow = shadow_[i].get ();
+    bool full = force_full_[i] || !shadow;
+
+    if (!tile)
+    {
+      // the grid dropped the tile, so peers reset it to default values
+      if (!shadow)
+      {
+        continue;
+      }
+      tile = &default_tile_[0];
+      full = true;
+    }
+    else if (!full && memcmp (tile, shadow, cells_ * sizeof (double)) == 0)
+    {
+      continue;
+    }
+
+    uint64_t version = ++versions_[i];
+    if (keyframe_interval_ > 0 && version % keyframe_interval_ == 0)
+    {
+      full = true;
+    }
+
+    put_varint (buffer_, i + 1);
+    put_varint (buffer_, version);
+    buffer_.push_back (full ? FULL_TILE : 0);
+    cells += encode_tile (cells_, tile,
+      full ? &default_tile_[0] : shadow, buffer_);
+
+    if (tile == &default_tile_[0])
+    {
+      shadow_[i].reset ();
+    }
+    else
+    {
+      if (!shadow)
+      {
+        shadow = new double[cells_];
+        shadow_[i].reset (shadow);
+      }
+      std::copy (tile, tile + cells_, shadow);
+    }
+
+    force_full_[i] = false;
+    ++tiles;
+    if (full)
+    {
+      ++full_tiles;
+    }
+  }
+
+  if (buffer_.size () == header_size)
+  {
+    return 0;
+  }
+
+  put_varint (buffer_, 0);
+
+  ++sequence_;
+  knowledge_.set_file (key_, &buffer_[0], buffer_.size ());
+
+  ++stats_.sends;
+  stats_.bytes_sent += buffer_.size ();
+  stats_.last_bytes_sent = buffer_.size ();
+  stats_.tiles_sent += tiles;
+  stats_.full_tiles_sent += full_tiles;
+  stats_.cells_sent += cells;
+
+  return buffer_.size ();
+}
+
+size_t
+gams::variables::GridSync::receive (void)
+{
+  check_layout ();
+
+  size_t result = 0;
+  std::map <std::string, knowledge::KnowledgeRecord> records =
+    knowledge_.to_map (prefix_);
+
+  for (std::map <std::string, knowledge::KnowledgeRecord>::iterator i =
+    records.begin (); i != records.end (); ++i)
+  {
+    if (i->first == key_ || !i->second.is_binary_file_type ())
+    {
+      continue;
+    }
+
+    size_t size = 0;
+    unsigned char * data = i->second.to_unmanaged_buffer (size);
+
+    if (data)
+    {
+      std::map <std::string, Peer>::iterator peer = peers_.find (i->first);
+      if (peer == peers_.end ())
+      {
+        peer = peers_.insert (std::make_pair (i->first, Peer ())).first;
+        peer->second.versions.assign (shadow_.size (), 0);
+      }
+
+      result += apply (peer->second, data, size);
+      delete [] data;
+    }
+  }
+
+  return result;
+}
+
+size_t
+gams::variables::GridSync::apply (Peer & peer,
+  const unsigned char * data, size_t size)
+{
+  size_t pos = 1;
+  uint64_t epoch, sequence, cells;
+
+  if (size == 0 || data[0] != FORMAT ||
+    !get_varint (data, size, pos, epoch) ||
+    !get_varint (data, size, pos, sequence) ||
+    !get_varint (data, size, pos, cells))
+  {
+    ++stats_.rejected;
+    return 0;
+  }
+
+  if (epoch != peer.epoch || sequence < peer.sequence)
+  {
+    // a new or restarted peer, whose tile versions start over
+    peer.epoch = epoch;
+    peer.versions.assign (shadow_.size (), 0);
+  }
+  else if (sequence == peer.sequence)
+  {
+    // already applied
+    return 0;
+  }
+
+  if (cells != cells_)
+  {
+    ++stats_.rejected;
+    peer.sequence = sequence;
+    return 0;
+  }
+
+  peer.sequence = sequence;
+
+  size_t result = 0;
+
+  for (;;)
+  {
+    uint64_t index, version;
+    if (!get_varint (data, size, pos, index) || index > shadow_.size ())
+    {
+      ++stats_.rejected;
+      break;
+    }
+    if (index == 0)
+    {
+      ++stats_.receives;
+      stats_.bytes_received += size;
+      break;
+    }
+    --index;
+
+    if (!get_varint (data, size, pos, version) || pos >= size)
+    {
+      ++stats_.rejected;
+      break;
+    }
+
+    bool full = (data[pos++] & FULL_TILE) != 0;
+    uint64_t & seen = peer.versions[(size_t)index];
+
+    if (version <= seen)
+    {
+      // already applied through a later version. Parse it to move past it.
+      size_t read = decode_tile (cells_, data + pos, size - pos, 0, 0);
+      if (read == 0)
+      {
+        ++stats_.rejected;
+        break;
+      }
+      pos += read;
+      continue;
+    }
+
+    // decode into copies of the tile and its shadow, so a malformed tile
+    // leaves the grid untouched
+    const Grid & grid = grid_;
+    const double * tile = grid.get_tile ((size_t)index);
+    double * shadow = shadow_[(size_t)index].get ();
+    double * scratch_tile = &scratch_[0];
+    double * scratch_shadow = &scratch_[cells_];
+
+    if (full || !tile)
+    {
+      std::copy (default_tile_.begin (), default_tile_.end (), scratch_tile);
+    }
+    else
+    {
+      std::copy (tile, tile + cells_, scratch_tile);
+    }
+
+    if (full || !shadow)
+    {
+      std::copy (default_tile_.begin (), default_tile_.end (),
+        scratch_shadow);
+    }
+    else
+    {
+      std::copy (shadow, shadow + cells_, scratch_shadow);
+    }
+
+    // a full tile with no runs resets the tile to default values
+    bool empty = full && pos < size && data[pos] == 0;
+
+    size_t read = decode_tile (cells_, data + pos, size - pos,
+      scratch_tile, scratch_shadow);
+    if (read == 0)
+    {
+      ++stats_.rejected;
+      break;
+    }
+    pos += read;
+
+    if (!full && version != seen + 1)
+    {
+      ++stats_.version_gaps;
+    }
+    seen = version;
+
+    if (empty && !tile)
+    {
+      // nothing to reset, and no tile to allocate
+      continue;
+    }
+
+    if (!shadow)
+    {
+      shadow = new double[cells_];
+      shadow_[(size_t)index].reset (shadow);
+    }
+    std::copy (scratch_shadow, scratch_shadow + cells_, shadow);
+    std::copy (scratch_tile, scratch_tile + cells_,
+      grid_.edit_tile ((size_t)index));
+
+    ++stats_.tiles_received;
+    ++result;
+  }
+
+  return result;
+}
+
+void
+gams::variables::GridSync::set_keyframe_interval (uint64_t interval)
+{
+  keyframe_interval_ = interval;
+}
+
+uint64_t
+gams::variables::GridSync::get_keyframe_interval (void) const
+{
+  return keyframe_interval_;
+}
+
+void
+gams::variables::GridSync::send_all (void)
+{
+  check_layout ();
+  force_full_.assign (shadow_.size (), true);
+
+  for (size_t i = 0; i < shadow_.size (); ++i)
+  {
+    grid_.mark_dirty (i);
+  }
+}
+
+uint64_t
+gams::variables::GridSync::get_version (size_t index) const
+{
+  return index < versions_.size () ? versions_[index] : 0;
+}
+
+const gams::variables::GridSyncStats &
+gams::variables::GridSync::get_stats (void) const
+{
+  return stats_;
+}
+
+void
+gams::variables::GridSync::reset_stats (void)
+{
+  stats_ = GridSyncStats ();
+}
+
+std::string
+gams::variables::GridSync::get_key (void) const
+{
+  return key_;
+}
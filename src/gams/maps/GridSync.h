@@ -0,0 +1,287 @@
+/**
+ * Copyright (c) 2017 Carnegie Mellon University. All Rights Reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following acknowledgments and disclaimers.
+ * 
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * 3. The names "Carnegie Mellon University," "SEI" and/or "Software
+ *    Engineering Institute" shall not be used to endorse or promote products
+ *    derived from this software without prior written permission. For written
+ *    permission, please contact permission@sei.cmu.edu.
+ * 
+ * 4. Products derived from this software may not be called "SEI" nor may "SEI"
+ *    appear in their names without prior written permission of
+ *    permission@sei.cmu.edu.
+ * 
+ * 5. Redistributions of any form whatsoever must retain the following
+ *    acknowledgment:
+ * 
+ *      This material is based upon work funded and supported by the Department
+ *      of Defense under Contract No. FA8721-05-C-0003 with Carnegie Mellon
+ *      University for the operation of the Software Engineering Institute, a
+ *      federally funded research and development center. Any opinions,
+ *      findings and conclusions or recommendations expressed in this material
+ *      are those of the author(s) and do not necessarily reflect the views of
+ *      the United States Department of Defense.
+ * 
+ *      NO WARRANTY. THIS CARNEGIE MELLON UNIVERSITY AND SOFTWARE ENGINEERING
+ *      INSTITUTE MATERIAL IS FURNISHED ON AN "AS-IS" BASIS. CARNEGIE MELLON
+ *      UNIVERSITY MAKES NO WARRANTIES OF ANY KIND, EITHER EXPRESSED OR
+ *      IMPLIED, AS TO ANY MATTER INCLUDING, BUT NOT LIMITED TO, WARRANTY OF
+ *      FITNESS FOR PURPOSE OR MERCHANTABILITY, EXCLUSIVITY, OR RESULTS
+ *      OBTAINED FROM USE OF THE MATERIAL. CARNEGIE MELLON UNIVERSITY DOES
+ *      NOT MAKE ANY WARRANTY OF ANY KIND WITH RESPECT TO FREEDOM FROM PATENT,
+ *      TRADEMARK, OR COPYRIGHT INFRINGEMENT.
+ * 
+ *      This material has been approved for public release and unlimited
+ *      distribution.
+ **/
+
+/**
+ * @file GridSync.h
+ * @author James Edmondson <jedmondson@gmail.com>
+ *
+ * This file contains the definition of a tile-delta synchronizer that
+ * shares a Grid between agents through a knowledge base
+ **/
+
+#ifndef   _GAMS_VARIABLES_GRID_SYNC_H_
+#define   _GAMS_VARIABLES_GRID_SYNC_H_
+
+#include <cstdint>
+#include <map>
+#include <memory>
+#include <string>
+#include <vector>
+
+#include "gams/GamsExport.h"
+#include "gams/maps/Grid.h"
+#include "madara/knowledge/KnowledgeBase.h"
+
+namespace gams
+{
+  namespace variables
+  {
+    /**
+     * Traffic counters for a GridSync
+     **/
+    struct GAMS_EXPORT GridSyncStats
+    {
+      /// number of deltas published
+      uint64_t sends = 0;
+
+      /// total encoded bytes published
+      uint64_t bytes_sent = 0;
+
+      /// size of the last delta published
+      uint64_t last_bytes_sent = 0;
+
+      /// number of tiles published
+      uint64_t tiles_sent = 0;
+
+      /// number of tiles published in full
+      uint64_t full_tiles_sent = 0;
+
+      /// number of changed cells published
+      uint64_t cells_sent = 0;
+
+      /// number of peer deltas applied
+      uint64_t receives = 0;
+
+      /// total encoded bytes applied
+      uint64_t bytes_received = 0;
+
+      /// number of peer tiles applied
+      uint64_t tiles_received = 0;
+
+      /// number of peer tiles that skipped one or more versions
+      uint64_t version_gaps = 0;
+
+      /// number of peer deltas dropped as malformed or mismatched
+      uint64_t rejected = 0;
+    };
+
+    /**
+     * Shares a Grid between agents by publishing only the tiles that
+     * changed. On each send, the tiles the grid reports as dirty are
+     * compared with a copy of what was last published. Writes through
+     * Grid::set, fill and edit_tile mark a tile dirty once, while tiles
+     * handed out by Grid::get_tile, e.g., as Java buffers, are compared on
+     * every send since their writes cannot be seen. Changed tiles are
+     * encoded into one binary delta per agent at
+     * {name}.sync.{id}, so an update costs one variable no matter how many
+     * cells changed.
+     *
+     * Each tile delta lists runs of changed cells with their new values.
+     * A run of one repeated value is stored once. Integers are varints.
+     * Receivers overwrite those cells, so deltas from several agents merge
+     * with the last writer winning per cell. Every tile carries a version.
+     * A receiver counts a gap when a version is skipped, which happens
+     * when the knowledge base coalesces updates. Every keyframe interval,
+     * a changed tile is sent in full so receivers converge after a gap.
+     * send_all resends every tile, e.g., for agents that join late.
+     *
+     * Each GridSync stamps its deltas with an epoch taken at construction.
+     * When a peer's epoch changes or its sequence goes backward, the peer
+     * has restarted, so its tile versions are forgotten rather than its
+     * new tiles being dropped as stale. A tile is only written to the
+     * grid once all of its runs have been decoded.
+     **/
+    class GAMS_EXPORT GridSync
+    {
+    public:
+      /// default number of tile versions between full tiles
+      static const uint64_t DEFAULT_KEYFRAME_INTERVAL = 16;
+
+      /**
+       * Constructor
+       * @param  grid       the grid to share. Must outlive this object.
+       * @param  knowledge  the knowledge base to share through
+       * @param  id         unique id of this agent, e.g., its agent index
+       * @param  name       the prefix of the sync variables. If empty,
+       *                    the grid's name is used.
+       **/
+      GridSync (Grid & grid, madara::knowledge::KnowledgeBase & knowledge,
+        const std::string & id, const std::string & name = "");
+
+      /**
+       * Encodes the tiles changed since the last send and publishes them
+       * @return  the size of the published delta in bytes, or 0 if no
+       *          tile changed
+       **/
+      size_t send (void);
+
+      /**
+       * Applies new deltas from other agents to the grid
+       * @return  the number of tiles applied
+       **/
+      size_t receive (void);
+
+      /**
+       * Sets the number of versions between full tiles
+       * @param  interval  the interval. 0 disables keyframes.
+       **/
+      void set_keyframe_interval (uint64_t interval);
+
+      /**
+       * Returns the number of versions between full tiles
+       * @return the keyframe interval
+       **/
+      uint64_t get_keyframe_interval (void) const;
+
+      /**
+       * Marks every allocated tile to be sent in full on the next send,
+       * e.g., when a new agent joins
+       **/
+      void send_all (void);
+
+      /**
+       * Returns the version of a tile published by this agent
+       * @param  index  the tile index
+       * @return the version, 0 if never published
+       **/
+      uint64_t get_version (size_t index) const;
+
+      /**
+       * Returns the traffic counters
+       * @return the counters since the last reset
+       **/
+      const GridSyncStats & get_stats (void) const;
+
+      /**
+       * Clears the traffic counters
+       **/
+      void reset_stats (void);
+
+      /**
+       * Returns the variable this agent publishes to
+       * @return {name}.sync.{id}
+       **/
+      std::string get_key (void) const;
+
+      /**
+       * Encodes the changes of a tile from a previous copy
+       * @param  cells     number of cells in the tile
+       * @param  current   the tile now
+       * @param  previous  the tile as last published, or a tile of default
+       *                   values to encode the whole tile
+       * @param  buffer    the buffer to append to
+       * @return the number of cells encoded
+       **/
+      static size_t encode_tile (size_t cells, const double * current,
+        const double * previous, std::vector <unsigned char> & buffer);
+
+      /**
+       * Applies an encoded tile
+       * @param  cells   number of cells in the tile
+       * @param  data    the encoded tile
+       * @param  size    bytes available at data
+       * @param  tile    the tile to write into, or null to only validate
+       * @param  shadow  a copy of the tile to keep in step, or null
+       * @return the number of bytes read, or 0 if malformed
+       **/
+      static size_t decode_tile (size_t cells,
+        const unsigned char * data, size_t size,
+        double * tile, double * shadow);
+
+    private:
+      /// which versions of each tile have been seen from a peer
+      struct Peer
+      {
+        uint64_t epoch = 0;
+        uint64_t sequence = 0;
+        std::vector <uint64_t> versions;
+      };
+
+      /// copies of the tiles as they were last published or received
+      std::vector <std::unique_ptr <double[]> > shadow_;
+
+      /// versions of the tiles published by this agent
+      std::vector <uint64_t> versions_;
+
+      /// tiles to send in full on the next send
+      std::vector <bool> force_full_;
+
+      /// state of each peer, keyed by the peer's variable
+      std::map <std::string, Peer> peers_;
+
+      /// buffer reused between sends
+      std::vector <unsigned char> buffer_;
+
+      /// a tile of default values
+      std::vector <double> default_tile_;
+
+      /// tiles to compare on the next send
+      std::vector <size_t> dirty_;
+
+      /// a peer tile and its shadow while being decoded
+      std::vector <double> scratch_;
+
+      Grid & grid_;
+      madara::knowledge::KnowledgeBase & knowledge_;
+      std::string prefix_;
+      std::string key_;
+      size_t cells_;
+      uint64_t epoch_;
+      uint64_t sequence_;
+      uint64_t keyframe_interval_;
+      GridSyncStats stats_;
+
+      /// resets the per-tile state and marks every tile dirty if the grid
+      /// layout has changed
+      void check_layout (void);
+
+      /// applies one peer delta, returning the number of tiles applied
+      size_t apply (Peer & peer, const unsigned char * data, size_t size);
+    };
+  }
+}
+
+#endif // _GAMS_VARIABLES_GRID_SYNC_H_
@@ -45,6 +45,7 @@
  **/
 #include "JavaPlatform.h"
 #include "gams/utility/java/Acquire_VM.h"
+#include "gams/utility/CallbackTimer.h"
 #include "gams/loggers/GlobalLogger.h"
 
 
@@ -54,23 +55,17 @@ gams::platforms::JavaPlatform::JavaPlatform (
   variables::Sensors * sensors,
   variables::Platforms * platforms,
   variables::Self * self)
-  : BasePlatform (knowledge, sensors, self)
+  : BasePlatform (knowledge, sensors, self),
+  obj_ (0), class_ (0), analyze_call_ (0), get_accuracy_call_ (0),
+  get_id_call_ (0), get_name_call_ (0), get_move_speed_call_ (0),
+  home_call_ (0), land_call_ (0), move_call_ (0), rotate_call_ (0),
+  sense_call_ (0), set_move_speed_call_ (0), takeoff_call_ (0),
+  move_arg_ (0), orient_target_ (0, 0, 0), orient_arg_ (0)
 {
   gams::utility::java::Acquire_VM jvm;
   
   if (jvm.env)
   {
-    madara_logger_ptr_log (gams::loggers::global_logger.get (),
-      gams::loggers::LOG_MAJOR,
-       "gams::platforms::JavaPlatform::constructor:" \
-      " initializing platform and status.\n");
-  
-    if (platforms && knowledge)
-    {
-      (*platforms)[get_id ()].init_vars (*knowledge, get_id ());
-      status_ = (*platforms)[get_id ()];
-    }
-
     madara_logger_ptr_log (gams::loggers::global_logger.get (),
       gams::loggers::LOG_MAJOR,
        "gams::platforms::JavaPlatform::constructor:" \
@@ -91,6 +86,8 @@ gams::platforms::JavaPlatform::JavaPlatform (
           gams::loggers::LOG_MAJOR,
            "gams::platforms::JavaPlatform::constructor:" \
           " class and object obtained successfully.\n");
+
+        cache_java_refs (jvm.env);
       }
       else
       {
@@ -107,6 +104,19 @@ gams::platforms::JavaPlatform::JavaPlatform (
          "gams::platforms::JavaPlatform::constructor:" \
         " ERROR: object is invalid.\n");
     }
+
+    madara_logger_ptr_log (gams::loggers::global_logger.get (),
+      gams::loggers::LOG_MAJOR,
+       "gams::platforms::JavaPlatform::constructor:" \
+      " initializing platform and status.\n");
+
+    // get_id calls into Java, so the object and methods must be ready
+    if (platforms && knowledge)
+    {
+      std::string id = get_id ();
+      (*platforms)[id].init_vars (*knowledge, id);
+      status_ = (*platforms)[id];
+    }
   }
 }
 
@@ -120,6 +130,7 @@ gams::platforms::JavaPlatform::~JavaPlatform ()
        "gams::platforms::JavaPlatform::destructor:" \
       " Deleting global references.\n");
 
+    release_java_refs (jvm.env);
     jvm.env->DeleteGlobalRef (obj_);
     jvm.env->DeleteGlobalRef (class_);
   }
@@ -154,15 +165,124 @@ gams::platforms::JavaPlatform::operator= (const JavaPlatform & rhs)
          "gams::platforms::JavaPlatform::assignment:" \
         " Deleting global references.\n");
 
+      release_java_refs (jvm.env);
       jvm.env->DeleteGlobalRef (obj_);
       jvm.env->DeleteGlobalRef (class_);
 
       obj_ = jvm.env->NewGlobalRef (rhs.obj_);
       class_ = (jclass) jvm.env->NewGlobalRef (rhs.class_);
+
+      cache_java_refs (jvm.env);
     }
   }
 }
  
+namespace
+{
+  /**
+   * Creates a global reference to a Java wrapper that points at, but
+   * does not manage, a native object
+   * @param  env         the Java environment of the calling thread
+   * @param  class_name  the wrapper class, e.g. ai/gams/utility/Position
+   * @param  signature   signature of the static fromPointer(long, boolean)
+   * @param  target      the native object to wrap
+   * @return global reference to the wrapper, or zero on failure
+   **/
+  jobject wrap_unmanaged (JNIEnv * env, const char * class_name,
+    const char * signature, void * target)
+  {
+    jobject result (0);
+    jclass wrapper_class = gams::utility::java::find_class (env, class_name);
+
+    if (wrapper_class)
+    {
+      jmethodID from_pointer = env->GetStaticMethodID (
+        wrapper_class, "fromPointer", signature);
+
+      if (from_pointer)
+      {
+        jobject local = env->CallStaticObjectMethod (
+          wrapper_class, from_pointer, (jlong)target, (jboolean)JNI_FALSE);
+
+        if (local)
+        {
+          result = env->NewGlobalRef (local);
+          env->DeleteLocalRef (local);
+        }
+      }
+
+      if (env->ExceptionCheck ())
+      {
+        env->ExceptionClear ();
+      }
+
+      env->DeleteWeakGlobalRef (wrapper_class);
+    }
+
+    return result;
+  }
+}
+
+void
+gams::platforms::JavaPlatform::cache_java_refs (JNIEnv * env)
+{
+  madara_logger_ptr_log (gams::loggers::global_logger.get (),
+    gams::loggers::LOG_MAJOR,
+     "gams::platforms::JavaPlatform::cache_java_refs:" \
+    " resolving user-defined callback methods.\n");
+
+  analyze_call_ = gams::utility::java::get_method_id (
+    env, class_, "analyze", "()I");
+  get_accuracy_call_ = gams::utility::java::get_method_id (
+    env, class_, "getAccuracy", "()D");
+  get_id_call_ = gams::utility::java::get_method_id (
+    env, class_, "getId", "()Ljava/lang/String;");
+  get_name_call_ = gams::utility::java::get_method_id (
+    env, class_, "getName", "()Ljava/lang/String;");
+  get_move_speed_call_ = gams::utility::java::get_method_id (
+    env, class_, "getMoveSpeed", "()D");
+  home_call_ = gams::utility::java::get_method_id (
+    env, class_, "home", "()I");
+  land_call_ = gams::utility::java::get_method_id (
+    env, class_, "land", "()I");
+  move_call_ = gams::utility::java::get_method_id (
+    env, class_, "move", "(Lai/gams/utility/Position;D)I");
+  rotate_call_ = gams::utility::java::get_method_id (
+    env, class_, "rotate", "(Lai/gams/utility/Axes;)I");
+  sense_call_ = gams::utility::java::get_method_id (
+    env, class_, "sense", "()I");
+  set_move_speed_call_ = gams::utility::java::get_method_id (
+    env, class_, "setMoveSpeed", "(D)V");
+  takeoff_call_ = gams::utility::java::get_method_id (
+    env, class_, "takeoff", "()I");
+
+  madara_logger_ptr_log (gams::loggers::global_logger.get (),
+    gams::loggers::LOG_MAJOR,
+     "gams::platforms::JavaPlatform::cache_java_refs:" \
+    " creating reusable move and orient arguments.\n");
+
+  move_arg_ = wrap_unmanaged (env, "ai/gams/utility/Position",
+    "(JZ)Lai/gams/utility/Position;", &move_target_);
+  orient_arg_ = wrap_unmanaged (env, "ai/gams/utility/Axes",
+    "(JZ)Lai/gams/utility/Axes;", &orient_target_);
+}
+
+void
+gams::platforms::JavaPlatform::release_java_refs (JNIEnv * env)
+{
+  if (move_arg_)
+  {
+    env->DeleteGlobalRef (move_arg_);
+    move_arg_ = 0;
+  }
+
+  if (orient_arg_)
+  {
+    env->DeleteGlobalRef (orient_arg_);
+    orient_arg_ = 0;
+  }
+}
+
 int
 gams::platforms::JavaPlatform::analyze (void)
 {
@@ -174,9 +294,9 @@ gams::platforms::JavaPlatform::analyze (void)
     madara_logger_ptr_log (gams::loggers::global_logger.get (),
       gams::loggers::LOG_MAJOR,
       "gams::platforms::JavaPlatform::analyze:" \
-      " Obtaining user-defined analyze method.\n");
+      " Using cached user-defined analyze method.\n");
 
-    jmethodID call = jvm.env->GetMethodID (class_, "analyze", "()I");
+    jmethodID call = analyze_call_;
 
     if (call)
     {
@@ -184,6 +304,7 @@ gams::platforms::JavaPlatform::analyze (void)
         gams::loggers::LOG_MAJOR,
         "gams::platforms::JavaPlatform::analyze:" \
         " Calling user-defined analyze method.\n");
+      gams::utility::CallbackTimer timer;
       result = jvm.env->CallIntMethod (obj_, call);
     }
     else
@@ -217,9 +338,9 @@ gams::platforms::JavaPlatform::get_accuracy () const
     madara_logger_ptr_log (gams::loggers::global_logger.get (),
       gams::loggers::LOG_MAJOR,
       "gams::platforms::JavaPlatform::get_accuracy:" \
-      " Obtaining user-defined getAccuracy method.\n");
+      " Using cached user-defined getAccuracy method.\n");
 
-    jmethodID call = jvm.env->GetMethodID (class_, "getAccuracy", "()D");
+    jmethodID call = get_accuracy_call_;
 
     if (call)
     {
@@ -228,6 +349,7 @@ gams::platforms::JavaPlatform::get_accuracy () const
         "gams::platforms::JavaPlatform::get_accuracy:" \
         " Calling user-defined getAccuracy method.\n");
 
+      gams::utility::CallbackTimer timer;
       result = jvm.env->CallDoubleMethod (obj_, call);
     }
     else
@@ -265,9 +387,9 @@ std::string gams::platforms::JavaPlatform::get_id () const
     madara_logger_ptr_log (gams::loggers::global_logger.get (),
       gams::loggers::LOG_MAJOR,
        "gams::platforms::JavaPlatform::get_id:" \
-      " Obtaining user-defined getId method.\n");
+      " Using cached user-defined getId method.\n");
 
-    jmethodID call = jvm.env->GetMethodID(class_, "getId", "()Ljava.lang.String;" );
+    jmethodID call = get_id_call_;
 
     if (call)
     {
@@ -277,8 +399,14 @@ std::string gams::platforms::JavaPlatform::get_id () const
         " Calling user-defined getId method.\n");
 
       result = (jstring) jvm.env->CallObjectMethod (obj_, call);
-      const char * id_chars = jvm.env->GetStringUTFChars(result, 0);
-      id = id_chars;
+
+      if (result)
+      {
+        const char * id_chars = jvm.env->GetStringUTFChars(result, 0);
+        id = id_chars;
+        jvm.env->ReleaseStringUTFChars(result, id_chars);
+        jvm.env->DeleteLocalRef (result);
+      }
     }
     else
     {
@@ -309,9 +437,9 @@ std::string gams::platforms::JavaPlatform::get_name () const
     madara_logger_ptr_log (gams::loggers::global_logger.get (),
       gams::loggers::LOG_MAJOR,
        "gams::platforms::JavaPlatform::get_name:" \
-      " Obtaining user-defined getName method.\n");
+      " Using cached user-defined getName method.\n");
 
-    jmethodID call = jvm.env->GetMethodID(class_, "getName", "()Ljava.lang.String;" );
+    jmethodID call = get_name_call_;
 
     if (call)
     {
@@ -321,8 +449,14 @@ std::string gams::platforms::JavaPlatform::get_name () const
         " Calling user-defined getName method.\n");
 
       result = (jstring) jvm.env->CallObjectMethod (obj_, call);
-      const char * name_chars = jvm.env->GetStringUTFChars(result, 0);
-      name = name_chars;
+
+      if (result)
+      {
+        const char * name_chars = jvm.env->GetStringUTFChars(result, 0);
+        name = name_chars;
+        jvm.env->ReleaseStringUTFChars(result, name_chars);
+        jvm.env->DeleteLocalRef (result);
+      }
     }
     else
     {
@@ -355,9 +489,9 @@ gams::platforms::JavaPlatform::get_move_speed () const
     madara_logger_ptr_log (gams::loggers::global_logger.get (),
       gams::loggers::LOG_MAJOR,
       "gams::platforms::JavaPlatform::get_move_speed:" \
-      " Obtaining user-defined getMoveSpeed method\n");
+      " Using cached user-defined getMoveSpeed method\n");
 
-    jmethodID call = jvm.env->GetMethodID (class_, "getMoveSpeed", "()D");
+    jmethodID call = get_move_speed_call_;
 
     if (call)
     {
@@ -366,6 +500,7 @@ gams::platforms::JavaPlatform::get_move_speed () const
         "gams::platforms::JavaPlatform::get_move_speed:" \
         " Calling user-defined getMoveSpeed method.\n");
 
+      gams::utility::CallbackTimer timer;
       result = jvm.env->CallDoubleMethod (obj_, call);
     }
     else
@@ -398,9 +533,9 @@ gams::platforms::JavaPlatform::home (void)
     madara_logger_ptr_log (gams::loggers::global_logger.get (),
       gams::loggers::LOG_MAJOR,
        "gams::platforms::JavaPlatform::home:" \
-      " Obtaining user-defined home method\n");
+      " Using cached user-defined home method\n");
 
-    jmethodID call = jvm.env->GetMethodID(class_, "home", "()I" );
+    jmethodID call = home_call_;
 
     if (call)
     {
@@ -409,6 +544,7 @@ gams::platforms::JavaPlatform::home (void)
          "gams::platforms::JavaPlatform::home:" \
         " Calling user-defined home method.\n");
 
+      gams::utility::CallbackTimer timer;
       result = jvm.env->CallIntMethod (obj_, call);
     }
     else
@@ -440,9 +576,9 @@ gams::platforms::JavaPlatform::land (void)
     madara_logger_ptr_log (gams::loggers::global_logger.get (),
       gams::loggers::LOG_MAJOR,
        "gams::platforms::JavaPlatform::land:" \
-      " Obtaining user-defined land method\n");
+      " Using cached user-defined land method\n");
 
-    jmethodID call = jvm.env->GetMethodID(class_, "land", "()I" );
+    jmethodID call = land_call_;
 
     if (call)
     {
@@ -451,6 +587,7 @@ gams::platforms::JavaPlatform::land (void)
          "gams::platforms::JavaPlatform::land:" \
         " Calling user-defined land method.\n");
 
+      gams::utility::CallbackTimer timer;
       result = jvm.env->CallIntMethod (obj_, call);
     }
     else
@@ -481,32 +618,16 @@ gams::platforms::JavaPlatform::move (const pose::Position & position,
 
   if (jvm.env)
   {
-    madara_logger_ptr_log (gams::loggers::global_logger.get (),
-      gams::loggers::LOG_MAJOR,
-       "gams::platforms::JavaPlatform::move:" \
-      " Obtaining user-defined move method\n");
-
-    jmethodID move_call = jvm.env->GetMethodID(
-      class_, "move", "(Lai/gams/utility/Position;D)I" );
-
-    madara_logger_ptr_log (gams::loggers::global_logger.get (),
-      gams::loggers::LOG_MAJOR,
-       "gams::platforms::JavaPlatform::move:" \
-      " Obtaining Position class and constructor\n");
-
-    jclass pos_class = utility::java::find_class (jvm.env, "ai/gams/pose/Position");
-    jmethodID pos_const = jvm.env->GetMethodID (pos_class, "<init>", "(DDD)V");
-    jmethodID pos_free = jvm.env->GetMethodID (pos_class, "free", "()V");
-
-    if (move_call)
+    if (move_call_ && move_arg_)
     {
       madara_logger_ptr_log (gams::loggers::global_logger.get (),
         gams::loggers::LOG_MINOR,
          "gams::platforms::JavaPlatform::move:" \
-        " Creating new position object.\n");
+        " Updating reusable position argument.\n");
 
-      jobject inpos = jvm.env->NewObject (
-        pos_class, pos_const, position.x (), position.y (), position.z ());
+      move_target_.x = position.x ();
+      move_target_.y = position.y ();
+      move_target_.z = position.z ();
       jdouble inepsilon (0.1); // TODO support bounds checking in Java
 
       madara_logger_ptr_log (gams::loggers::global_logger.get (),
@@ -514,11 +635,8 @@ gams::platforms::JavaPlatform::move (const pose::Position & position,
          "gams::platforms::JavaPlatform::move:" \
         " Calling user-defined move method.\n");
 
-      result = jvm.env->CallIntMethod (obj_, move_call, inpos, inepsilon);
-
-      jvm.env->CallVoidMethod (inpos, pos_free);
-
-      jvm.env->DeleteLocalRef (inpos);
+      gams::utility::CallbackTimer timer;
+      result = jvm.env->CallIntMethod (obj_, move_call_, move_arg_, inepsilon);
     }
     else
     {
@@ -527,14 +645,12 @@ gams::platforms::JavaPlatform::move (const pose::Position & position,
          "gams::platforms::JavaPlatform::move:" \
         " ERROR: Unable to find user-defined move method.\n");
     }
-
-    jvm.env->DeleteWeakGlobalRef (pos_class);
   }
   else
   {
     madara_logger_ptr_log (gams::loggers::global_logger.get (),
       gams::loggers::LOG_ERROR,
-      "gams::platforms::JavaPlatform::analyze:" \
+      "gams::platforms::JavaPlatform::move:" \
       " ERROR: Unable to obtain JVM environment.\n");
   }
 
@@ -550,58 +666,38 @@ gams::platforms::JavaPlatform::orient (const pose::Orientation & axes,
 
   if (jvm.env)
   {
-    madara_logger_ptr_log (gams::loggers::global_logger.get (),
-      gams::loggers::LOG_MAJOR,
-       "gams::platforms::JavaPlatform::rotate:" \
-      " Obtaining user-defined rotate method\n");
-
-    jmethodID move_call = jvm.env->GetMethodID (
-      class_, "move", "(Lai/gams/utility/Position;D)I");
-
-    madara_logger_ptr_log (gams::loggers::global_logger.get (),
-      gams::loggers::LOG_MINOR,
-       "gams::platforms::JavaPlatform::rotate:" \
-      " Obtaining Axes class and constructor\n");
-
-    jclass axes_class = utility::java::find_class (jvm.env, "ai/gams/pose/Orientation");
-    jmethodID axes_const = jvm.env->GetMethodID (axes_class, "<init>", "(DDD)V");
-    jmethodID axes_free = jvm.env->GetMethodID (axes_class, "free", "()V");
-
-    if (move_call)
+    if (rotate_call_ && orient_arg_)
     {
       madara_logger_ptr_log (gams::loggers::global_logger.get (),
         gams::loggers::LOG_MINOR,
-         "gams::platforms::JavaPlatform::rotate:" \
-        " Creating new axes object.\n");
+         "gams::platforms::JavaPlatform::orient:" \
+        " Updating reusable axes argument.\n");
 
-      jobject inaxes = jvm.env->NewObject (
-        axes_class, axes_const, axes.rx (), axes.ry (), axes.rz ());
+      orient_target_.rx (axes.rx ());
+      orient_target_.ry (axes.ry ());
+      orient_target_.rz (axes.rz ());
 
       madara_logger_ptr_log (gams::loggers::global_logger.get (),
         gams::loggers::LOG_MAJOR,
-         "gams::platforms::JavaPlatform::rotate:" \
+         "gams::platforms::JavaPlatform::orient:" \
         " Calling user-defined rotate method.\n");
 
-      result = jvm.env->CallIntMethod (obj_, move_call, inaxes);
-
-      jvm.env->CallVoidMethod (inaxes, axes_free);
-      jvm.env->DeleteLocalRef (inaxes);
+      gams::utility::CallbackTimer timer;
+      result = jvm.env->CallIntMethod (obj_, rotate_call_, orient_arg_);
     }
     else
     {
       madara_logger_ptr_log (gams::loggers::global_logger.get (),
         gams::loggers::LOG_ERROR,
-         "gams::platforms::JavaPlatform::rotate:" \
+         "gams::platforms::JavaPlatform::orient:" \
         " ERROR: Unable to find user-defined rotate method.\n");
     }
-
-    jvm.env->DeleteWeakGlobalRef (axes_class);
   }
   else
   {
     madara_logger_ptr_log (gams::loggers::global_logger.get (),
       gams::loggers::LOG_ERROR,
-      "gams::platforms::JavaPlatform::rotate:" \
+      "gams::platforms::JavaPlatform::orient:" \
       " ERROR: Unable to obtain JVM environment.\n");
   }
 
@@ -619,9 +715,9 @@ gams::platforms::JavaPlatform::sense (void)
     madara_logger_ptr_log (gams::loggers::global_logger.get (),
       gams::loggers::LOG_MAJOR,
        "gams::platforms::JavaPlatform::sense:" \
-      " Obtaining user-defined sense method\n");
+      " Using cached user-defined sense method\n");
 
-    jmethodID call = jvm.env->GetMethodID(class_, "sense", "()I" );
+    jmethodID call = sense_call_;
 
     if (call)
     {
@@ -630,6 +726,7 @@ gams::platforms::JavaPlatform::sense (void)
          "gams::platforms::JavaPlatform::sense:" \
         " Calling user-defined sense method.\n");
 
+      gams::utility::CallbackTimer timer;
       result = jvm.env->CallIntMethod (obj_, call);
     }
     else
@@ -684,9 +781,9 @@ gams::platforms::JavaPlatform::set_move_speed (const double & speed)
     madara_logger_ptr_log (gams::loggers::global_logger.get (),
       gams::loggers::LOG_MAJOR,
        "gams::platforms::JavaPlatform::set_move_speed:" \
-      " Obtaining user-defined setMoveSpeed method\n");
+      " Using cached user-defined setMoveSpeed method\n");
 
-    jmethodID call = jvm.env->GetMethodID(class_, "setMoveSpeed", "(D)V" );
+    jmethodID call = set_move_speed_call_;
 
     if (call)
     {
@@ -696,6 +793,7 @@ gams::platforms::JavaPlatform::set_move_speed (const double & speed)
         " Calling user-defined setMoveSpeed method.\n");
 
       jdouble jspeed (speed);
+      gams::utility::CallbackTimer timer;
       jvm.env->CallVoidMethod (obj_, call, jspeed);
     }
     else
@@ -726,9 +824,9 @@ gams::platforms::JavaPlatform::takeoff (void)
     madara_logger_ptr_log (gams::loggers::global_logger.get (),
       gams::loggers::LOG_MAJOR,
        "gams::platforms::JavaPlatform::takeoff:" \
-      " Obtaining user-defined takeoff method\n");
+      " Using cached user-defined takeoff method\n");
 
-    jmethodID call = jvm.env->GetMethodID(class_, "takeoff", "()I" );
+    jmethodID call = takeoff_call_;
 
     if (call)
     {
@@ -737,6 +835,7 @@ gams::platforms::JavaPlatform::takeoff (void)
          "gams::platforms::JavaPlatform::takeoff:" \
         " Calling user-defined takeoff method.\n");
 
+      gams::utility::CallbackTimer timer;
       result = jvm.env->CallIntMethod (obj_, call);
     }
     else
@@ -192,11 +192,73 @@ namespace gams
       jobject get_java_instance (void);
 
     protected:
+      /**
+       * Resolves the callback method IDs on class_ and creates the
+       * reusable Java arguments for move and orient. Called whenever
+       * class_ changes so that MAPE calls do not look them up again.
+       * @param  env   the Java environment of the calling thread
+       **/
+      void cache_java_refs (JNIEnv * env);
+
+      /**
+       * Releases the reusable Java arguments for move and orient
+       * @param  env   the Java environment of the calling thread
+       **/
+      void release_java_refs (JNIEnv * env);
+
       /// the Java object with callable methods
       jobject obj_;
 
       /// the class of the Java object obj_
       jclass class_;
+
+      /// cached ID of the analyze method
+      jmethodID analyze_call_;
+
+      /// cached ID of the getAccuracy method
+      jmethodID get_accuracy_call_;
+
+      /// cached ID of the getId method
+      jmethodID get_id_call_;
+
+      /// cached ID of the getName method
+      jmethodID get_name_call_;
+
+      /// cached ID of the getMoveSpeed method
+      jmethodID get_move_speed_call_;
+
+      /// cached ID of the home method
+      jmethodID home_call_;
+
+      /// cached ID of the land method
+      jmethodID land_call_;
+
+      /// cached ID of the move method
+      jmethodID move_call_;
+
+      /// cached ID of the rotate method
+      jmethodID rotate_call_;
+
+      /// cached ID of the sense method
+      jmethodID sense_call_;
+
+      /// cached ID of the setMoveSpeed method
+      jmethodID set_move_speed_call_;
+
+      /// cached ID of the takeoff method
+      jmethodID takeoff_call_;
+
+      /// native target of move, reused for every call
+      utility::Position move_target_;
+
+      /// unmanaged Java Position wrapping move_target_
+      jobject move_arg_;
+
+      /// native target of orient, reused for every call
+      pose::Orientation orient_target_;
+
+      /// unmanaged Java Axes wrapping orient_target_
+      jobject orient_arg_;
     };
   }
 }
@@ -1029,8 +1029,8 @@ inline bool operator < (
     const Framed<BasicVector<LDerived, Units>> &lhs,
     const Framed<BasicVector<RDerived, Units>> &rhs)
 {
-  return &lhs.frame() < &rhs.frame() || (lhs.frame() == rhs.frame() &&
-    static_cast<const BasicVector<LDerived, Units> &>(lhs) ==
+  return lhs.frame() < rhs.frame() || (!(rhs.frame() < lhs.frame()) &&
+    static_cast<const BasicVector<LDerived, Units> &>(lhs) <
     static_cast<const BasicVector<RDerived, Units> &>(rhs));
 }
 
@@ -1040,8 +1040,8 @@ inline bool operator < (
     const Stamped<Framed<BasicVector<RDerived, Units>>> &rhs)
 {
   return lhs.time() < rhs.time() || (lhs.time() == rhs.time() &&
-    static_cast<const Framed<BasicVector<LDerived, Units> &>>(lhs) ==
-    static_cast<const Framed<BasicVector<RDerived, Units> &>>(rhs));
+    static_cast<const Framed<BasicVector<LDerived, Units>> &>(lhs) <
+    static_cast<const Framed<BasicVector<RDerived, Units>> &>(rhs));
 }
 
 template<typename LDerived, typename RDerived, typename Units>
@@ -102,6 +102,8 @@ void print_usage (char * prog_name)
 "     Loop controller setup for gams\n" \
 " [-A |--algorithm type]        algorithm to start with\n" \
 " [-a |--accent type]           accent algorithm to start with\n" \
+" [--algorithm-threads num]     default threads algorithms may plan with\n" \
+"                               (0 for one per hardware thread)\n" \
 " [-b |--broadcast ip:port]     the broadcast ip to send and listen to\n" \
 " [--checkpoint-on-loop]        save checkpoint after each control loop\n" \
 " [--checkpoint-on-send]        save checkpoint before send of updates\n" \
@@ -159,6 +161,18 @@ void handle_arguments (int argc, char ** argv)
 
       ++i;
     }
+    else if (arg1 == "--algorithm-threads")
+    {
+      if (i + 1 < argc && argv[i + 1][0] != '-')
+      {
+        std::stringstream buffer (argv[i + 1]);
+        buffer >> controller_settings.algorithm_threads;
+      }
+      else
+        print_usage (argv[0]);
+
+      ++i;
+    }
     else if (arg1 == "-b" || arg1 == "--broadcast")
     {
       if (i + 1 < argc && argv[i + 1][0] != '-')
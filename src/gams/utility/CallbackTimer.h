@@ -0,0 +1,157 @@
+/**
+ * Copyright (c) 2017 Carnegie Mellon University. All Rights Reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following acknowledgments and disclaimers.
+ * 
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * 3. The names "Carnegie Mellon University," "SEI" and/or "Software
+ *    Engineering Institute" shall not be used to endorse or promote products
+ *    derived from this software without prior written permission. For written
+ *    permission, please contact permission@sei.cmu.edu.
+ * 
+ * 4. Products derived from this software may not be called "SEI" nor may "SEI"
+ *    appear in their names without prior written permission of
+ *    permission@sei.cmu.edu.
+ * 
+ * 5. Redistributions of any form whatsoever must retain the following
+ *    acknowledgment:
+ * 
+ *      This material is based upon work funded and supported by the Department
+ *      of Defense under Contract No. FA8721-05-C-0003 with Carnegie Mellon
+ *      University for the operation of the Software Engineering Institute, a
+ *      federally funded research and development center. Any opinions,
+ *      findings and conclusions or recommendations expressed in this material
+ *      are those of the author(s) and do not necessarily reflect the views of
+ *      the United States Department of Defense.
+ * 
+ *      NO WARRANTY. THIS CARNEGIE MELLON UNIVERSITY AND SOFTWARE ENGINEERING
+ *      INSTITUTE MATERIAL IS FURNISHED ON AN "AS-IS" BASIS. CARNEGIE MELLON
+ *      UNIVERSITY MAKES NO WARRANTIES OF ANY KIND, EITHER EXPRESSED OR
+ *      IMPLIED, AS TO ANY MATTER INCLUDING, BUT NOT LIMITED TO, WARRANTY OF
+ *      FITNESS FOR PURPOSE OR MERCHANTABILITY, EXCLUSIVITY, OR RESULTS
+ *      OBTAINED FROM USE OF THE MATERIAL. CARNEGIE MELLON UNIVERSITY DOES
+ *      NOT MAKE ANY WARRANTY OF ANY KIND WITH RESPECT TO FREEDOM FROM PATENT,
+ *      TRADEMARK, OR COPYRIGHT INFRINGEMENT.
+ * 
+ *      This material has been approved for public release and unlimited
+ *      distribution.
+ **/
+
+/**
+ * @file CallbackTimer.h
+ * @author James Edmondson <jedmondson@gmail.com>
+ *
+ * This file contains a timer for user-defined callbacks, such as the Java
+ * algorithm and platform methods, so that controllers can tell time spent
+ * in callbacks apart from their own work
+ **/
+
+#ifndef   _GAMS_UTILITY_CALLBACKTIMER_H_
+#define   _GAMS_UTILITY_CALLBACKTIMER_H_
+
+#include <atomic>
+#include <chrono>
+#include <cstdint>
+
+namespace gams
+{
+  namespace utility
+  {
+#ifndef MADARA_NO_THREAD_LOCAL
+    /// storage for callback time of the calling thread
+    inline uint64_t & callback_nanos_storage (void)
+    {
+      static thread_local uint64_t nanos = 0;
+      return nanos;
+    }
+
+    /**
+     * Returns the total time the calling thread has spent inside timed
+     * callbacks. Readers take the difference of two calls.
+     * @return nanoseconds spent in callbacks by this thread
+     **/
+    inline uint64_t callback_nanos (void)
+    {
+      return callback_nanos_storage ();
+    }
+
+    /**
+     * Adds time spent in a callback to the calling thread's total
+     * @param  nanos  nanoseconds spent in the callback
+     **/
+    inline void add_callback_nanos (uint64_t nanos)
+    {
+      callback_nanos_storage () += nanos;
+    }
+#else
+    /// storage for callback time of all threads, since there is no
+    /// thread local storage
+    inline std::atomic<uint64_t> & callback_nanos_storage (void)
+    {
+      static std::atomic<uint64_t> nanos (0);
+      return nanos;
+    }
+
+    /**
+     * Returns the total time all threads have spent inside timed
+     * callbacks. Without thread local storage, a difference of two calls
+     * also counts callbacks made by other threads in between.
+     * @return nanoseconds spent in callbacks
+     **/
+    inline uint64_t callback_nanos (void)
+    {
+      return callback_nanos_storage ();
+    }
+
+    /**
+     * Adds time spent in a callback to the process-wide total
+     * @param  nanos  nanoseconds spent in the callback
+     **/
+    inline void add_callback_nanos (uint64_t nanos)
+    {
+      callback_nanos_storage () += nanos;
+    }
+#endif
+
+    /**
+     * Adds the lifetime of the timer to callback_nanos of the current
+     * thread. Place one on the stack around a user-defined callback.
+     **/
+    class CallbackTimer
+    {
+    public:
+      /**
+       * Constructor. Starts timing.
+       **/
+      CallbackTimer ()
+        : start_ (std::chrono::steady_clock::now ())
+      {
+      }
+
+      /**
+       * Destructor. Stops timing.
+       **/
+      ~CallbackTimer ()
+      {
+        add_callback_nanos ((uint64_t)
+          std::chrono::duration_cast<std::chrono::nanoseconds> (
+            std::chrono::steady_clock::now () - start_).count ());
+      }
+
+    private:
+      CallbackTimer (const CallbackTimer &);
+      CallbackTimer & operator= (const CallbackTimer &);
+
+      std::chrono::steady_clock::time_point start_;
+    };
+  }
+}
+
+#endif // _GAMS_UTILITY_CALLBACKTIMER_H_
@@ -0,0 +1,198 @@
+/**
+ * Copyright (c) 2017 Carnegie Mellon University. All Rights Reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following acknowledgments and disclaimers.
+ * 
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * 3. The names "Carnegie Mellon University," "SEI" and/or "Software
+ *    Engineering Institute" shall not be used to endorse or promote products
+ *    derived from this software without prior written permission. For written
+ *    permission, please contact permission@sei.cmu.edu.
+ * 
+ * 4. Products derived from this software may not be called "SEI" nor may "SEI"
+ *    appear in their names without prior written permission of
+ *    permission@sei.cmu.edu.
+ * 
+ * 5. Redistributions of any form whatsoever must retain the following
+ *    acknowledgment:
+ * 
+ *      This material is based upon work funded and supported by the Department
+ *      of Defense under Contract No. FA8721-05-C-0003 with Carnegie Mellon
+ *      University for the operation of the Software Engineering Institute, a
+ *      federally funded research and development center. Any opinions,
+ *      findings and conclusions or recommendations expressed in this material
+ *      are those of the author(s) and do not necessarily reflect the views of
+ *      the United States Department of Defense.
+ * 
+ *      NO WARRANTY. THIS CARNEGIE MELLON UNIVERSITY AND SOFTWARE ENGINEERING
+ *      INSTITUTE MATERIAL IS FURNISHED ON AN "AS-IS" BASIS. CARNEGIE MELLON
+ *      UNIVERSITY MAKES NO WARRANTIES OF ANY KIND, EITHER EXPRESSED OR
+ *      IMPLIED, AS TO ANY MATTER INCLUDING, BUT NOT LIMITED TO, WARRANTY OF
+ *      FITNESS FOR PURPOSE OR MERCHANTABILITY, EXCLUSIVITY, OR RESULTS
+ *      OBTAINED FROM USE OF THE MATERIAL. CARNEGIE MELLON UNIVERSITY DOES
+ *      NOT MAKE ANY WARRANTY OF ANY KIND WITH RESPECT TO FREEDOM FROM PATENT,
+ *      TRADEMARK, OR COPYRIGHT INFRINGEMENT.
+ * 
+ *      This material has been approved for public release and unlimited
+ *      distribution.
+ **/
+
+#include "gams/utility/WorkerPool.h"
+
+#include <algorithm>
+
+gams::utility::WorkerPool::WorkerPool (size_t threads)
+  : task_ (0), count_ (0), chunks_ (0), pending_ (0), generation_ (0),
+  stopping_ (false)
+{
+  resize (threads);
+}
+
+gams::utility::WorkerPool::~WorkerPool ()
+{
+  stop_ ();
+}
+
+void
+gams::utility::WorkerPool::resize (size_t threads)
+{
+  if (threads == 0)
+    threads = hardware_threads ();
+
+  if (threads == size ())
+    return;
+
+  stop_ ();
+
+  stopping_ = false;
+  workers_.reserve (threads - 1);
+  for (size_t i = 1; i < threads; ++i)
+  {
+    // jobs that finished before the thread starts are not its own
+    workers_.push_back (std::thread (&WorkerPool::work_, this, i,
+      generation_));
+  }
+}
+
+size_t
+gams::utility::WorkerPool::size (void) const
+{
+  return workers_.size () + 1;
+}
+
+size_t
+gams::utility::WorkerPool::get_chunks (size_t count) const
+{
+  return std::min (count, size ());
+}
+
+size_t
+gams::utility::WorkerPool::run (size_t count, const Task & task)
+{
+  const size_t chunks = get_chunks (count);
+
+  if (chunks == 0)
+    return 0;
+
+  if (chunks == 1)
+  {
+    task (0, count, 0);
+    return 1;
+  }
+
+  std::lock_guard<std::mutex> run_guard (run_mutex_);
+
+  {
+    std::lock_guard<std::mutex> guard (mutex_);
+    task_ = &task;
+    count_ = count;
+    chunks_ = chunks;
+    pending_ = chunks - 1;
+    ++generation_;
+  }
+  started_.notify_all ();
+
+  task (0, get_chunk_begin (count, chunks, 1), 0);
+
+  std::unique_lock<std::mutex> lock (mutex_);
+  while (pending_ != 0)
+  {
+    finished_.wait (lock);
+  }
+  task_ = 0;
+
+  return chunks;
+}
+
+size_t
+gams::utility::WorkerPool::get_chunk_begin (size_t count, size_t chunks,
+  size_t chunk)
+{
+  // split as evenly as possible without overflowing count * chunk
+  return (count / chunks) * chunk + std::min (chunk, count % chunks);
+}
+
+size_t
+gams::utility::WorkerPool::hardware_threads (void)
+{
+  return std::max (std::thread::hardware_concurrency (), 1u);
+}
+
+void
+gams::utility::WorkerPool::work_ (size_t chunk, uint64_t seen)
+{
+  std::unique_lock<std::mutex> lock (mutex_);
+
+  for (;;)
+  {
+    while (!stopping_ && generation_ == seen)
+    {
+      started_.wait (lock);
+    }
+
+    if (stopping_)
+      return;
+
+    seen = generation_;
+
+    // small jobs may not need every thread
+    if (chunk < chunks_)
+    {
+      const Task & task = *task_;
+      const size_t begin = get_chunk_begin (count_, chunks_, chunk);
+      const size_t end = get_chunk_begin (count_, chunks_, chunk + 1);
+
+      lock.unlock ();
+      task (begin, end, chunk);
+      lock.lock ();
+
+      if (--pending_ == 0)
+      {
+        finished_.notify_one ();
+      }
+    }
+  }
+}
+
+void
+gams::utility::WorkerPool::stop_ (void)
+{
+  {
+    std::lock_guard<std::mutex> guard (mutex_);
+    stopping_ = true;
+  }
+  started_.notify_all ();
+
+  for (size_t i = 0; i < workers_.size (); ++i)
+  {
+    workers_[i].join ();
+  }
+  workers_.clear ();
+}
@@ -0,0 +1,200 @@
+/**
+ * Copyright (c) 2017 Carnegie Mellon University. All Rights Reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following acknowledgments and disclaimers.
+ * 
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * 3. The names "Carnegie Mellon University," "SEI" and/or "Software
+ *    Engineering Institute" shall not be used to endorse or promote products
+ *    derived from this software without prior written permission. For written
+ *    permission, please contact permission@sei.cmu.edu.
+ * 
+ * 4. Products derived from this software may not be called "SEI" nor may "SEI"
+ *    appear in their names without prior written permission of
+ *    permission@sei.cmu.edu.
+ * 
+ * 5. Redistributions of any form whatsoever must retain the following
+ *    acknowledgment:
+ * 
+ *      This material is based upon work funded and supported by the Department
+ *      of Defense under Contract No. FA8721-05-C-0003 with Carnegie Mellon
+ *      University for the operation of the Software Engineering Institute, a
+ *      federally funded research and development center. Any opinions,
+ *      findings and conclusions or recommendations expressed in this material
+ *      are those of the author(s) and do not necessarily reflect the views of
+ *      the United States Department of Defense.
+ * 
+ *      NO WARRANTY. THIS CARNEGIE MELLON UNIVERSITY AND SOFTWARE ENGINEERING
+ *      INSTITUTE MATERIAL IS FURNISHED ON AN "AS-IS" BASIS. CARNEGIE MELLON
+ *      UNIVERSITY MAKES NO WARRANTIES OF ANY KIND, EITHER EXPRESSED OR
+ *      IMPLIED, AS TO ANY MATTER INCLUDING, BUT NOT LIMITED TO, WARRANTY OF
+ *      FITNESS FOR PURPOSE OR MERCHANTABILITY, EXCLUSIVITY, OR RESULTS
+ *      OBTAINED FROM USE OF THE MATERIAL. CARNEGIE MELLON UNIVERSITY DOES
+ *      NOT MAKE ANY WARRANTY OF ANY KIND WITH RESPECT TO FREEDOM FROM PATENT,
+ *      TRADEMARK, OR COPYRIGHT INFRINGEMENT.
+ * 
+ *      This material has been approved for public release and unlimited
+ *      distribution.
+ **/
+
+/**
+ * @file WorkerPool.h
+ * @author James Edmondson <jedmondson@gmail.com>
+ *
+ * This file contains a pool of threads that split a range of work items
+ * into fixed chunks, so algorithms can spread per-candidate work over cores
+ * and still reduce the chunk results in a reproducible order
+ **/
+
+#ifndef   _GAMS_UTILITY_WORKERPOOL_H_
+#define   _GAMS_UTILITY_WORKERPOOL_H_
+
+#include <condition_variable>
+#include <cstddef>
+#include <cstdint>
+#include <functional>
+#include <mutex>
+#include <thread>
+#include <vector>
+
+#include "gams/GamsExport.h"
+
+namespace gams
+{
+  namespace utility
+  {
+    /**
+     * A fixed set of threads for data parallel loops. The thread that calls
+     * run takes part in the work, so a pool of one thread runs everything
+     * inline and never starts a thread.
+     *
+     * Work items [0, count) are split into contiguous chunks whose bounds
+     * depend only on count and the number of chunks, never on timing. A
+     * caller that keeps one result per chunk and combines the results in
+     * chunk order gets the same answer on every run.
+     **/
+    class GAMS_EXPORT WorkerPool
+    {
+    public:
+      /**
+       * A task over the items [begin, end) of the given chunk
+       **/
+      typedef std::function<void (size_t begin, size_t end, size_t chunk)>
+        Task;
+
+      /**
+       * Constructor
+       * @param  threads  the number of threads, including the caller.
+       *                  Zero uses one per hardware thread.
+       **/
+      explicit WorkerPool (size_t threads = 1);
+
+      /**
+       * Destructor. Stops and joins the threads.
+       **/
+      ~WorkerPool ();
+
+      /**
+       * Changes the number of threads. Must not be called during run.
+       * @param  threads  the number of threads, including the caller.
+       *                  Zero uses one per hardware thread.
+       **/
+      void resize (size_t threads);
+
+      /**
+       * Gets the number of threads, including the caller
+       * @return the number of threads
+       **/
+      size_t size (void) const;
+
+      /**
+       * Gets the number of chunks that run will use for a range
+       * @param  count  the number of work items
+       * @return the number of chunks, at most size ()
+       **/
+      size_t get_chunks (size_t count) const;
+
+      /**
+       * Runs a task over the items [0, count) and returns once every chunk
+       * is done. Chunk 0 runs on the calling thread. The task must not
+       * throw, and calls to run are serialized.
+       * @param  count  the number of work items
+       * @param  task   the task to run on each chunk
+       * @return the number of chunks the task ran on
+       **/
+      size_t run (size_t count, const Task & task);
+
+      /**
+       * Gets the first item of a chunk
+       * @param  count   the number of work items
+       * @param  chunks  the number of chunks
+       * @param  chunk   the chunk
+       * @return the first item of the chunk, or count for chunk == chunks
+       **/
+      static size_t get_chunk_begin (size_t count, size_t chunks,
+        size_t chunk);
+
+      /**
+       * Gets the number of hardware threads
+       * @return the number of hardware threads, at least one
+       **/
+      static size_t hardware_threads (void);
+
+    private:
+      WorkerPool (const WorkerPool &);
+      WorkerPool & operator= (const WorkerPool &);
+
+      /**
+       * Loop of a started thread
+       * @param  chunk  the chunk the thread runs in every job
+       * @param  seen   the last job started before the thread
+       **/
+      void work_ (size_t chunk, uint64_t seen);
+
+      /// stops and joins the threads
+      void stop_ (void);
+
+      /// the started threads, which run chunks 1 and up
+      std::vector<std::thread> workers_;
+
+      /// serializes calls to run
+      std::mutex run_mutex_;
+
+      /// protects the job fields below
+      std::mutex mutex_;
+
+      /// signals workers that a job started or the pool is stopping
+      std::condition_variable started_;
+
+      /// signals the caller that the last worker finished
+      std::condition_variable finished_;
+
+      /// the current task
+      const Task * task_;
+
+      /// the number of items of the current job
+      size_t count_;
+
+      /// the number of chunks of the current job
+      size_t chunks_;
+
+      /// the number of chunks still running on workers
+      size_t pending_;
+
+      /// incremented for every job, so workers can tell new jobs apart
+      uint64_t generation_;
+
+      /// true while the threads are told to exit
+      bool stopping_;
+    };
+  }
+}
+
+#endif // _GAMS_UTILITY_WORKERPOOL_H_
@@ -19,15 +19,18 @@ namespace gams
     {
       /**
        * @class Acquire_VM
-       * @brief This class encapsulates attaching and detaching to a VM
+       * @brief This class encapsulates attaching and detaching to a VM.
+       *        Threads that were not attached are detached again on
+       *        destruction, unless persistent attachment is enabled
+       *        (@see set_persistent_attach), in which case they stay
+       *        attached with a cached environment until they exit.
        **/
       class Acquire_VM
       {
       public:
         Acquire_VM ()
         {
-          needs_detach = !gams_jni_is_attached();
-          env = gams_jni_get_env ();
+          env = gams_jni_acquire_env (needs_detach);
         }
 
         ~Acquire_VM()
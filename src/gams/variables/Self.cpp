@@ -71,11 +71,12 @@ gams::variables::Self::operator= (const Self & rhs)
 void
 gams::variables::Self::init_vars (
   madara::knowledge::KnowledgeBase & knowledge,
-  const std::string & self_prefix)
+  const std::string & self_prefix,
+  const std::string & scope)
 {
-  this->id.set_name (".id", knowledge);
+  this->id.set_name (scope + ".id", knowledge);
   this->id = -1;
-  this->prefix.set_name (".prefix", knowledge);
+  this->prefix.set_name (scope + ".prefix", knowledge);
   this->prefix = self_prefix;
   this->agent.init_vars (knowledge, self_prefix);
 }
@@ -83,12 +84,13 @@ gams::variables::Self::init_vars (
 void
 gams::variables::Self::init_vars (
   madara::knowledge::KnowledgeBase & knowledge,
-  const Integer & id)
+  const Integer & id,
+  const std::string & scope)
 {
   // initialize the variable containers
-  this->id.set_name (".id", knowledge);
+  this->id.set_name (scope + ".id", knowledge);
   this->id = id;
-  this->prefix.set_name (".prefix", knowledge);
+  this->prefix.set_name (scope + ".prefix", knowledge);
   this->prefix = "agent." + this->id.to_string ();
   this->agent.init_vars (knowledge, id);
 }
@@ -96,12 +98,13 @@ gams::variables::Self::init_vars (
 void
 gams::variables::Self::init_vars (
   madara::knowledge::Variables & knowledge,
-  const Integer & id)
+  const Integer & id,
+  const std::string & scope)
 {
   // initialize the variable containers
-  this->id.set_name (".id", knowledge);
+  this->id.set_name (scope + ".id", knowledge);
   this->id = id;
-  this->prefix.set_name (".prefix", knowledge);
+  this->prefix.set_name (scope + ".prefix", knowledge);
   this->prefix = "agent." + this->id.to_string ();
   this->agent.init_vars (knowledge, id);
 }
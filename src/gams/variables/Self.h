@@ -89,25 +89,34 @@ namespace gams
        * Initializes variable containers
        * @param   knowledge  the knowledge base that houses the variables
        * @param   id         node identifier
+       * @param   scope      prefix of the id and prefix variables. Empty
+       *                     uses the global .id and .prefix. Agents that
+       *                     share a knowledge base need distinct scopes.
        **/
       void init_vars (madara::knowledge::KnowledgeBase & knowledge,
-        const madara::knowledge::KnowledgeRecord::Integer & id);
+        const madara::knowledge::KnowledgeRecord::Integer & id,
+        const std::string & scope = "");
 
       /**
       * Initializes variable containers
       * @param   knowledge   the knowledge base that houses the variables
       * @param   self_prefix the prefix of the agent's data in knowledge base
+      * @param   scope       prefix of the id and prefix variables. Empty
+      *                      uses the global .id and .prefix.
       **/
       void init_vars (madara::knowledge::KnowledgeBase & knowledge,
-        const std::string & self_prefix);
+        const std::string & self_prefix, const std::string & scope = "");
 
       /**
        * Initializes variable containers
        * @param   knowledge  the variable context
        * @param   id         node identifier
+       * @param   scope      prefix of the id and prefix variables. Empty
+       *                     uses the global .id and .prefix.
        **/
       void init_vars (madara::knowledge::Variables & knowledge,
-        const madara::knowledge::KnowledgeRecord::Integer & id);
+        const madara::knowledge::KnowledgeRecord::Integer & id,
+        const std::string & scope = "");
 
       /// the id of this agent
       madara::knowledge::containers::Integer id;
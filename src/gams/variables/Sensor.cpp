@@ -46,7 +46,9 @@
 
 #include "gams/variables/Sensor.h"
 
+#include <algorithm>
 #include <float.h>
+#include <limits>
 #include <sstream>
 #include <vector>
 #include <string>
@@ -61,6 +63,8 @@ typedef  madara::knowledge::KnowledgeRecord::Integer  Integer;
 gams::variables::Sensor::Sensor () :
   knowledge_ (0), name_ ("")
 {
+  std::fill (frame_origin_, frame_origin_ + 3,
+    std::numeric_limits<double>::quiet_NaN ());
 }
 
 gams::variables::Sensor::Sensor (const string & name,
@@ -68,6 +72,9 @@ gams::variables::Sensor::Sensor (const string & name,
   const double & range, const pose::Position & origin) :
   knowledge_ (knowledge), name_ (name)
 {
+  std::fill (frame_origin_, frame_origin_ + 3,
+    std::numeric_limits<double>::quiet_NaN ());
+
   init_vars ();
 
   if (range_ == 0.0 && range != 0.0)
@@ -90,7 +97,32 @@ gams::variables::Sensor::operator= (const Sensor & rhs)
     this->origin_ = rhs.origin_;
     this->knowledge_ = rhs.knowledge_;
     this->name_ = rhs.name_;
+    this->local_frame_ = rhs.local_frame_;
+    std::copy (rhs.frame_origin_, rhs.frame_origin_ + 3, this->frame_origin_);
+    this->utility_cache_ = rhs.utility_cache_;
+  }
+}
+
+bool
+gams::variables::Sensor::get_index_bounds (const pose::Region & region,
+  int & min_x, int & min_y, int & max_x, int & max_y)
+{
+  if (region.vertices.size () == 0)
+    return false;
+
+  min_x = min_y = std::numeric_limits<int>::max ();
+  max_x = max_y = std::numeric_limits<int>::min ();
+
+  for (size_t i = 0; i < region.vertices.size (); ++i)
+  {
+    pose::Position index = get_index_from_gps (region.vertices[i]);
+    min_x = std::min (min_x, (int)index.x ());
+    min_y = std::min (min_y, (int)index.y ());
+    max_x = std::max (max_x, (int)index.x ());
+    max_y = std::max (max_y, (int)index.y ());
   }
+
+  return true;
 }
 
 set<gams::pose::Position>
@@ -99,76 +131,22 @@ gams::variables::Sensor::discretize (
 {
   set<pose::Position> ret_val;
 
-  // find northern most point
-  pose::Position northern = region.vertices[0];
-  for (size_t i = 1; i < region.vertices.size (); ++i)
-    if (northern.latitude () < region.vertices[i].latitude ())
-      northern = region.vertices[i];
-  const int max_x = (int)get_index_from_gps (northern).x();
-
-  // find southern most point
-  pose::Position southern = region.vertices[0];
-  for (size_t i = 1; i < region.vertices.size (); ++i)
-    if (southern.latitude () > region.vertices[i].latitude ())
-      southern = region.vertices[i];
-  const int min_x = (int)get_index_from_gps (southern).x();
-
-  // find west most point 
-  pose::Position start;
-  start.longitude (DBL_MAX);
-  for (size_t i = 0; i < region.vertices.size (); ++i)
-    if (start.longitude () > region.vertices[i].longitude ())
-      start = region.vertices[i];
-
-  // find valid corresponding position
-  pose::Position start_index = get_index_from_gps (start);
-  if (!region.contains (get_gps_from_index (start_index)))
+  /**
+   * Index x follows longitude and index y follows latitude, so the index
+   * bounds of the vertices contain every cell that can be in the region.
+   **/
+  int min_x, min_y, max_x, max_y;
+  if (get_index_bounds (region, min_x, min_y, max_x, max_y))
   {
-    start_index.y(start_index.y() + 1); // go one east...
-    pose::Position check = start_index;
-    while ((!region.contains (get_gps_from_index (check))) &&
-      check.x() <= max_x)
+    for (int y = min_y; y <= max_y; ++y)
     {
-      check.x(check.x() + 1); // ... and start looking north for position in region
-    }
-
-    // if we still haven't found a good position...
-    if (!region.contains (get_gps_from_index (check)))
-    {
-      // ...start looking south
-      check = start_index;
-      while ((!region.contains (get_gps_from_index (check))) &&
-        check.x() >= min_x)
+      for (int x = min_x; x <= max_x; ++x)
       {
-        check.x(check.x() - 1);
+        pose::Position index (local_frame_, x, y);
+        if (region.contains (get_gps_from_index (index)))
+          ret_val.insert (index);
       }
     }
-
-    // by now we must have found a starting position, so update start_index
-    start_index = check;
-  }
-
-  // find east most point
-  pose::Position eastern = region.vertices[0];
-  for (size_t i = 1; i < region.vertices.size (); ++i)
-    if (eastern.longitude () < region.vertices[i].longitude ())
-      eastern = region.vertices[i];
-  const int max_y = (int)get_index_from_gps (eastern).y();
-
-  // move east each iteration
-  while (start_index.y() < max_y)
-  {
-    // check north
-    for (pose::Position pos = start_index; pos.x() <= max_x; pos.x(pos.x() + 1))
-      if (region.contains (get_gps_from_index (pos)))
-        ret_val.insert (pos);
-  
-    // check south
-    for (pose::Position pos = start_index; pos.x() >= min_x; pos.x(pos.x() - 1))
-      if (region.contains (get_gps_from_index (pos)))
-        ret_val.insert (pos);
-
-    start_index.y(start_index.y() + 1);
   }
 
   return ret_val;
@@ -197,7 +175,17 @@ gams::variables::Sensor::get_discretization () const
 void
 gams::variables::Sensor::regenerate_local_frame ()
 {
-  local_frame_ = pose::ReferenceFrame(pose::Cartesian, get_origin());
+  pose::Position origin = get_origin ();
+
+  // building a frame is expensive, so only do it when the origin moves
+  if (origin.x () != frame_origin_[0] || origin.y () != frame_origin_[1] ||
+    origin.z () != frame_origin_[2])
+  {
+    local_frame_ = pose::ReferenceFrame(pose::Cartesian, origin);
+    frame_origin_[0] = origin.x ();
+    frame_origin_[1] = origin.y ();
+    frame_origin_[2] = origin.z ();
+  }
 }
 
 gams::pose::Position
@@ -255,10 +243,17 @@ gams::variables::Sensor::get_value (const pose::Position & pos)
   return value_[index_pos_to_index (get_index_from_gps (pos))].to_double ();
 }
 
+double
+gams::variables::Sensor::get_index_value (const pose::Position & index)
+{
+  return value_[index_pos_to_index (index)].to_double ();
+}
+
 void
 gams::variables::Sensor::set_origin (const pose::Position & origin)
 {
   origin.to_container (origin_);
+  regenerate_local_frame ();
 }
 
 void
@@ -276,6 +271,14 @@ gams::variables::Sensor::set_value (const pose::Position & pos,
   value_.set (idx, val, settings);
 }
 
+void
+gams::variables::Sensor::set_index_value (const pose::Position & index,
+  const double & val,
+  const madara::knowledge::KnowledgeUpdateSettings & settings)
+{
+  value_.set (index_pos_to_index (index), val, settings);
+}
+
 string
 gams::variables::Sensor::index_pos_to_index (
   const pose::Position & pos) const
@@ -308,6 +311,9 @@ gams::variables::Sensor::init_vars (const string & name,
   name_ = name;
   knowledge_ = knowledge;
 
+  // bind the containers before checking what is already in the knowledge base
+  init_vars ();
+
   /**
    * We only want to update range if it has not yet been set. This could result 
    * in inconsistencies if multiple agents try to set different ranges. In the 
@@ -315,7 +321,7 @@ gams::variables::Sensor::init_vars (const string & name,
    * Depending on the actual data that is being collected, this might not be an
    * issue.
    */
-  if (range_ != 0.0)
+  if (range_ == 0.0 && range != 0.0)
     range_ = range;
 
   /**
@@ -325,8 +331,74 @@ gams::variables::Sensor::init_vars (const string & name,
    **/
   pose::Position cur_origin(pose::gps_frame());
   cur_origin.from_container (origin_);
-  if (cur_origin.latitude () != 0.0 && origin.latitude () != DBL_MAX)
+  if (cur_origin.latitude () == 0.0 && cur_origin.longitude () == 0.0 &&
+    origin.latitude () != DBL_MAX)
     origin.to_container (origin_);
+}
 
-  init_vars ();
+void
+gams::variables::Sensor::init_utility_cache (const pose::SearchArea & area,
+  double time)
+{
+  const vector<pose::PrioritizedRegion> & regions = area.get_regions ();
+
+  int min_x = std::numeric_limits<int>::max ();
+  int min_y = std::numeric_limits<int>::max ();
+  int max_x = std::numeric_limits<int>::min ();
+  int max_y = std::numeric_limits<int>::min ();
+
+  for (size_t i = 0; i < regions.size (); ++i)
+  {
+    int x0, y0, x1, y1;
+    if (get_index_bounds (regions[i], x0, y0, x1, y1))
+    {
+      min_x = std::min (min_x, x0);
+      min_y = std::min (min_y, y0);
+      max_x = std::max (max_x, x1);
+      max_y = std::max (max_y, y1);
+    }
+  }
+
+  if (min_x > max_x)
+  {
+    utility_cache_.clear ();
+    return;
+  }
+
+  utility_cache_.resize (min_x, min_y,
+    max_x - min_x + 1, max_y - min_y + 1, time);
+
+  for (int y = min_y; y <= max_y; ++y)
+  {
+    for (int x = min_x; x <= max_x; ++x)
+    {
+      if (area.contains (get_gps_from_index (
+        pose::Position (local_frame_, x, y))))
+      {
+        utility_cache_.set_weight (x, y, 1.0);
+      }
+    }
+  }
+
+  utility_cache_.refresh (time);
+}
+
+gams::variables::UtilityCache &
+gams::variables::Sensor::get_utility_cache (void)
+{
+  return utility_cache_;
+}
+
+const gams::variables::UtilityCache &
+gams::variables::Sensor::get_utility_cache (void) const
+{
+  return utility_cache_;
+}
+
+void
+gams::variables::Sensor::mark_visited (const pose::Position & pos,
+  double time)
+{
+  pose::Position index = get_index_from_gps (pos);
+  utility_cache_.set_last_visit ((int)index.x (), (int)index.y (), time);
 }
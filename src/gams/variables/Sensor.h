@@ -66,6 +66,7 @@
 #include "gams/pose/SearchArea.h"
 #include "gams/pose/GPSFrame.h"
 #include "gams/pose/CartesianFrame.h"
+#include "gams/variables/UtilityCache.h"
 
 #include <set>
 using std::set;
@@ -167,6 +168,13 @@ namespace gams
        **/
       double get_value (const pose::Position& pos);
 
+      /**
+       * Gets value at an index position
+       * @param index   index location in cartesian location on sensor map
+       * @return sensor value at index
+       **/
+      double get_index_value (const pose::Position& index);
+
       /**
        * Sets origin
        * @param origin  new origin
@@ -188,6 +196,17 @@ namespace gams
       void set_value (const pose::Position& pos, const double& val,
         const madara::knowledge::KnowledgeUpdateSettings& settings =
           madara::knowledge::KnowledgeUpdateSettings());
+
+      /**
+       * Sets value at an index position
+       * @param index   index location in cartesian location on sensor map
+       * @param val     value to set at index
+       * @param settings  settings to use for mutating value
+       **/
+      void set_index_value (const pose::Position& index, const double& val,
+        const madara::knowledge::KnowledgeUpdateSettings& settings =
+          madara::knowledge::KnowledgeUpdateSettings());
+
       /**
        * Initializes the variables
        * @param name      name of the sensor
@@ -200,7 +219,49 @@ namespace gams
         const double & range = 0.0,
         const pose::Position & origin = pose::Position (pose::gps_frame(), DBL_MAX, DBL_MAX));
 
+      /**
+       * Builds the utility cache over the cells of a search area. Each
+       * cell is weighted 1 and starts as last visited at the given time.
+       * @param area  area to cover
+       * @param time  time of the initial visit of every cell
+       **/
+      void init_utility_cache (const pose::SearchArea & area,
+        double time = 0.0);
+
+      /**
+       * Gets the utility cache, which is local to this object and is not
+       * shared through the knowledge base
+       * @return the utility cache
+       **/
+      UtilityCache & get_utility_cache (void);
+
+      /**
+       * Gets the utility cache
+       * @return the utility cache
+       **/
+      const UtilityCache & get_utility_cache (void) const;
+
+      /**
+       * Marks the cell containing a position as visited in the utility
+       * cache. Positions outside of the cache are ignored.
+       * @param pos   position that was visited
+       * @param time  time of the visit
+       **/
+      void mark_visited (const pose::Position & pos, double time);
+
     protected:
+      /**
+       * Finds the index bounds of the vertices of a region
+       * @param region  region to bound
+       * @param min_x   smallest x index
+       * @param min_y   smallest y index
+       * @param max_x   largest x index
+       * @param max_y   largest y index
+       * @return false if the region has no vertices
+       **/
+      bool get_index_bounds (const pose::Region & region,
+        int & min_x, int & min_y, int & max_x, int & max_y);
+
       /**
        * Convert index position to string index
        * @param pos   gps position
@@ -208,6 +269,9 @@ namespace gams
        **/
       std::string index_pos_to_index (const pose::Position& pos) const;
 
+      /**
+       * Rebuilds the local cartesian frame if the origin has changed
+       **/
       void regenerate_local_frame (void);
 
       /**
@@ -232,6 +296,12 @@ namespace gams
 
       /// local cartesian frame
       pose::ReferenceFrame local_frame_;
+
+      /// origin that local_frame_ was built from
+      double frame_origin_[3];
+
+      /// time since visit utilities of the discretized cells
+      UtilityCache utility_cache_;
     };
 
     /// a map of sensor names to the sensor information
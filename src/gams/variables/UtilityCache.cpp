@@ -0,0 +1,435 @@
+/**
+ * Copyright (c) 2017 Carnegie Mellon University. All Rights Reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following acknowledgments and disclaimers.
+ * 
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * 3. The names "Carnegie Mellon University," "SEI" and/or "Software
+ *    Engineering Institute" shall not be used to endorse or promote products
+ *    derived from this software without prior written permission. For written
+ *    permission, please contact permission@sei.cmu.edu.
+ * 
+ * 4. Products derived from this software may not be called "SEI" nor may "SEI"
+ *    appear in their names without prior written permission of
+ *    permission@sei.cmu.edu.
+ * 
+ * 5. Redistributions of any form whatsoever must retain the following
+ *    acknowledgment:
+ * 
+ *      This material is based upon work funded and supported by the Department
+ *      of Defense under Contract No. FA8721-05-C-0003 with Carnegie Mellon
+ *      University for the operation of the Software Engineering Institute, a
+ *      federally funded research and development center. Any opinions,
+ *      findings and conclusions or recommendations expressed in this material
+ *      are those of the author(s) and do not necessarily reflect the views of
+ *      the United States Department of Defense.
+ * 
+ *      NO WARRANTY. THIS CARNEGIE MELLON UNIVERSITY AND SOFTWARE ENGINEERING
+ *      INSTITUTE MATERIAL IS FURNISHED ON AN "AS-IS" BASIS. CARNEGIE MELLON
+ *      UNIVERSITY MAKES NO WARRANTIES OF ANY KIND, EITHER EXPRESSED OR
+ *      IMPLIED, AS TO ANY MATTER INCLUDING, BUT NOT LIMITED TO, WARRANTY OF
+ *      FITNESS FOR PURPOSE OR MERCHANTABILITY, EXCLUSIVITY, OR RESULTS
+ *      OBTAINED FROM USE OF THE MATERIAL. CARNEGIE MELLON UNIVERSITY DOES
+ *      NOT MAKE ANY WARRANTY OF ANY KIND WITH RESPECT TO FREEDOM FROM PATENT,
+ *      TRADEMARK, OR COPYRIGHT INFRINGEMENT.
+ * 
+ *      This material has been approved for public release and unlimited
+ *      distribution.
+ **/
+
+/**
+ * @file UtilityCache.cpp
+ * @author James Edmondson <jedmondson@gmail.com>
+ *
+ * This file contains the implementation of a cache for time-since-visit
+ * utilities over the cells of a discretized sensor area
+ **/
+
+#include "UtilityCache.h"
+
+#include <algorithm>
+#include <cfloat>
+#include <cmath>
+
+const double gams::variables::UtilityCache::DEFAULT_REBASE_SPAN = 65536.0;
+
+namespace
+{
+  /**
+   * Widens [lo, hi] to include the x range of a disc on a row
+   **/
+  inline void
+  add_disc_span (double cx, double cy, double radius, double y,
+    double & lo, double & hi)
+  {
+    double dy = y - cy;
+    if (dy * dy < radius * radius)
+    {
+      double half = std::sqrt (radius * radius - dy * dy);
+      lo = std::min (lo, cx - half);
+      hi = std::max (hi, cx + half);
+    }
+  }
+
+  /**
+   * Narrows [lo, hi] to the solutions of low < (x - x0) * slope < high
+   **/
+  inline void
+  clip_span (double x0, double slope, double low, double high,
+    double & lo, double & hi)
+  {
+    double a = x0 + low / slope;
+    double b = x0 + high / slope;
+    lo = std::max (lo, std::min (a, b));
+    hi = std::min (hi, std::max (a, b));
+  }
+}
+
+gams::variables::UtilityCache::UtilityCache () :
+  min_x_ (0), min_y_ (0), width_ (0), height_ (0), base_ (0),
+  rebase_span_ (DEFAULT_REBASE_SPAN), cells_ (0)
+{
+}
+
+void
+gams::variables::UtilityCache::resize (int min_x, int min_y,
+  int width, int height, double time)
+{
+  width = std::max (width, 0);
+  height = std::max (height, 0);
+
+  min_x_ = min_x;
+  min_y_ = min_y;
+  width_ = width;
+  height_ = height;
+  base_ = time;
+  cells_ = 0;
+
+  size_t size = (size_t)width * height;
+  weights_.assign (size, 0.0);
+  last_visits_.assign (size, time);
+  prefix_.assign ((size_t)(width + 1) * height, Moments ());
+  dirty_.assign (height, 0);
+  dirty_rows_.clear ();
+
+  reset_stats ();
+}
+
+void
+gams::variables::UtilityCache::clear (void)
+{
+  resize (0, 0, 0, 0);
+}
+
+bool
+gams::variables::UtilityCache::in_bounds (int x, int y) const
+{
+  return x >= min_x_ && x - min_x_ < width_ &&
+    y >= min_y_ && y - min_y_ < height_;
+}
+
+bool
+gams::variables::UtilityCache::contains (int x, int y) const
+{
+  return in_bounds (x, y) &&
+    weights_[(size_t)(y - min_y_) * width_ + (x - min_x_)] != 0;
+}
+
+void
+gams::variables::UtilityCache::set_weight (int x, int y, double weight)
+{
+  if (in_bounds (x, y))
+  {
+    int row = y - min_y_;
+    double & cell = weights_[(size_t)row * width_ + (x - min_x_)];
+
+    if (cell == 0 && weight != 0)
+      ++cells_;
+    else if (cell != 0 && weight == 0)
+      --cells_;
+
+    cell = weight;
+
+    if (!dirty_[row])
+    {
+      dirty_[row] = 1;
+      dirty_rows_.push_back (row);
+    }
+  }
+}
+
+double
+gams::variables::UtilityCache::get_weight (int x, int y) const
+{
+  return in_bounds (x, y) ?
+    weights_[(size_t)(y - min_y_) * width_ + (x - min_x_)] : 0.0;
+}
+
+void
+gams::variables::UtilityCache::set_last_visit (int x, int y, double time)
+{
+  if (in_bounds (x, y))
+  {
+    int row = y - min_y_;
+    last_visits_[(size_t)row * width_ + (x - min_x_)] = time;
+
+    if (!dirty_[row])
+    {
+      dirty_[row] = 1;
+      dirty_rows_.push_back (row);
+    }
+  }
+}
+
+double
+gams::variables::UtilityCache::get_last_visit (int x, int y) const
+{
+  return in_bounds (x, y) ?
+    last_visits_[(size_t)(y - min_y_) * width_ + (x - min_x_)] : 0.0;
+}
+
+double
+gams::variables::UtilityCache::get_utility (int x, int y, double time) const
+{
+  if (!in_bounds (x, y))
+    return 0.0;
+
+  size_t cell = (size_t)(y - min_y_) * width_ + (x - min_x_);
+  double value = weights_[cell] * (time - last_visits_[cell]);
+  return value * value * value;
+}
+
+size_t
+gams::variables::UtilityCache::refresh (double time)
+{
+  size_t result = 0;
+  ++stats_.refreshes;
+
+  if (std::fabs (time - base_) > rebase_span_)
+  {
+    // ages are expanded around base_, so keep it near the current time
+    base_ = time;
+    ++stats_.rebases;
+
+    for (int row = 0; row < height_; ++row)
+    {
+      refresh_row (row);
+      dirty_[row] = 0;
+    }
+    result = height_;
+  }
+  else
+  {
+    for (size_t i = 0; i < dirty_rows_.size (); ++i)
+    {
+      refresh_row (dirty_rows_[i]);
+      dirty_[dirty_rows_[i]] = 0;
+    }
+    result = dirty_rows_.size ();
+  }
+
+  dirty_rows_.clear ();
+  stats_.rows_refreshed += result;
+
+  return result;
+}
+
+void
+gams::variables::UtilityCache::refresh_row (int row)
+{
+  const double * weights = &weights_[(size_t)row * width_];
+  const double * visits = &last_visits_[(size_t)row * width_];
+  Moments * prefix = &prefix_[(size_t)row * (width_ + 1)];
+
+  Moments sum;
+  prefix[0] = sum;
+  for (int col = 0; col < width_; ++col)
+  {
+    double w = weights[col];
+    double tau = visits[col] - base_;
+    double w3 = w * w * w;
+
+    sum.m0 += w3;
+    sum.m1 += w3 * tau;
+    sum.m2 += w3 * tau * tau;
+    sum.m3 += w3 * tau * tau * tau;
+    prefix[col + 1] = sum;
+  }
+}
+
+bool
+gams::variables::UtilityCache::get_path_span (
+  int start_x, int start_y, int end_x, int end_y,
+  double radius, int y, int & first, int & last) const
+{
+  double lo = DBL_MAX;
+  double hi = -DBL_MAX;
+
+  // the capsule around the segment is the two end discs plus the band
+  // between them, and its intersection with a row is one interval
+  add_disc_span (start_x, start_y, radius, y, lo, hi);
+  add_disc_span (end_x, end_y, radius, y, lo, hi);
+
+  double dx = end_x - start_x;
+  double dy = end_y - start_y;
+  double length2 = dx * dx + dy * dy;
+
+  if (length2 > 0)
+  {
+    double band_lo = -DBL_MAX;
+    double band_hi = DBL_MAX;
+    double offset = (y - start_y) * dy;
+    double cross = (y - start_y) * dx;
+    double reach = radius * std::sqrt (length2);
+    bool empty = false;
+
+    // the projection onto the segment must be within [0, length2]
+    if (dx != 0)
+      clip_span (start_x, dx, -offset, length2 - offset, band_lo, band_hi);
+    else if (offset < 0 || offset > length2)
+      empty = true;
+
+    // the distance from the line must be less than the radius
+    if (dy != 0)
+      clip_span (start_x, dy, cross - reach, cross + reach, band_lo, band_hi);
+    else if (std::fabs (cross) >= reach)
+      empty = true;
+
+    if (!empty && band_lo < band_hi)
+    {
+      lo = std::min (lo, band_lo);
+      hi = std::max (hi, band_hi);
+    }
+  }
+
+  if (lo >= hi)
+    return false;
+
+  // cells strictly inside (lo, hi), clipped to the rectangle
+  first = std::max ((int)std::floor (lo) + 1, min_x_);
+  last = std::min ((int)std::ceil (hi) - 1, min_x_ + width_ - 1);
+
+  return first <= last;
+}
+
+double
+gams::variables::UtilityCache::get_path_utility (
+  int start_x, int start_y, int end_x, int end_y,
+  double radius, double time) const
+{
+  Moments sum;
+
+  int first_row = std::max (
+    (int)std::floor (std::min (start_y, end_y) - radius), min_y_);
+  int last_row = std::min (
+    (int)std::ceil (std::max (start_y, end_y) + radius), min_y_ + height_ - 1);
+
+  for (int y = first_row; y <= last_row; ++y)
+  {
+    int first, last;
+    if (get_path_span (start_x, start_y, end_x, end_y, radius, y,
+      first, last))
+    {
+      const Moments * prefix = &prefix_[(size_t)(y - min_y_) * (width_ + 1)];
+      const Moments & high = prefix[last - min_x_ + 1];
+      const Moments & low = prefix[first - min_x_];
+
+      sum.m0 += high.m0 - low.m0;
+      sum.m1 += high.m1 - low.m1;
+      sum.m2 += high.m2 - low.m2;
+      sum.m3 += high.m3 - low.m3;
+    }
+  }
+
+  // sum of w^3 (n - tau)^3 over the path, expanded around the base
+  double n = time - base_;
+  double result = ((sum.m0 * n - 3 * sum.m1) * n + 3 * sum.m2) * n - sum.m3;
+
+  return std::max (result, 0.0);
+}
+
+void
+gams::variables::UtilityCache::get_path_cells (
+  int start_x, int start_y, int end_x, int end_y,
+  double radius, std::vector <CellIndex> & cells) const
+{
+  int first_row = std::max (
+    (int)std::floor (std::min (start_y, end_y) - radius), min_y_);
+  int last_row = std::min (
+    (int)std::ceil (std::max (start_y, end_y) + radius), min_y_ + height_ - 1);
+
+  for (int y = first_row; y <= last_row; ++y)
+  {
+    int first, last;
+    if (get_path_span (start_x, start_y, end_x, end_y, radius, y,
+      first, last))
+    {
+      for (int x = first; x <= last; ++x)
+      {
+        if (contains (x, y))
+          cells.push_back (CellIndex (x, y));
+      }
+    }
+  }
+}
+
+size_t
+gams::variables::UtilityCache::get_dirty_rows (void) const
+{
+  return dirty_rows_.size ();
+}
+
+size_t
+gams::variables::UtilityCache::get_cell_count (void) const
+{
+  return cells_;
+}
+
+int
+gams::variables::UtilityCache::get_min_x (void) const
+{
+  return min_x_;
+}
+
+int
+gams::variables::UtilityCache::get_min_y (void) const
+{
+  return min_y_;
+}
+
+int
+gams::variables::UtilityCache::get_width (void) const
+{
+  return width_;
+}
+
+int
+gams::variables::UtilityCache::get_height (void) const
+{
+  return height_;
+}
+
+void
+gams::variables::UtilityCache::set_rebase_span (double span)
+{
+  rebase_span_ = span;
+}
+
+const gams::variables::UtilityCacheStats &
+gams::variables::UtilityCache::get_stats (void) const
+{
+  return stats_;
+}
+
+void
+gams::variables::UtilityCache::reset_stats (void)
+{
+  stats_ = UtilityCacheStats ();
+}
@@ -0,0 +1,345 @@
+/**
+ * Copyright (c) 2017 Carnegie Mellon University. All Rights Reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following acknowledgments and disclaimers.
+ * 
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * 3. The names "Carnegie Mellon University," "SEI" and/or "Software
+ *    Engineering Institute" shall not be used to endorse or promote products
+ *    derived from this software without prior written permission. For written
+ *    permission, please contact permission@sei.cmu.edu.
+ * 
+ * 4. Products derived from this software may not be called "SEI" nor may "SEI"
+ *    appear in their names without prior written permission of
+ *    permission@sei.cmu.edu.
+ * 
+ * 5. Redistributions of any form whatsoever must retain the following
+ *    acknowledgment:
+ * 
+ *      This material is based upon work funded and supported by the Department
+ *      of Defense under Contract No. FA8721-05-C-0003 with Carnegie Mellon
+ *      University for the operation of the Software Engineering Institute, a
+ *      federally funded research and development center. Any opinions,
+ *      findings and conclusions or recommendations expressed in this material
+ *      are those of the author(s) and do not necessarily reflect the views of
+ *      the United States Department of Defense.
+ * 
+ *      NO WARRANTY. THIS CARNEGIE MELLON UNIVERSITY AND SOFTWARE ENGINEERING
+ *      INSTITUTE MATERIAL IS FURNISHED ON AN "AS-IS" BASIS. CARNEGIE MELLON
+ *      UNIVERSITY MAKES NO WARRANTIES OF ANY KIND, EITHER EXPRESSED OR
+ *      IMPLIED, AS TO ANY MATTER INCLUDING, BUT NOT LIMITED TO, WARRANTY OF
+ *      FITNESS FOR PURPOSE OR MERCHANTABILITY, EXCLUSIVITY, OR RESULTS
+ *      OBTAINED FROM USE OF THE MATERIAL. CARNEGIE MELLON UNIVERSITY DOES
+ *      NOT MAKE ANY WARRANTY OF ANY KIND WITH RESPECT TO FREEDOM FROM PATENT,
+ *      TRADEMARK, OR COPYRIGHT INFRINGEMENT.
+ * 
+ *      This material has been approved for public release and unlimited
+ *      distribution.
+ **/
+
+/**
+ * @file UtilityCache.h
+ * @author James Edmondson <jedmondson@gmail.com>
+ *
+ * This file contains the definition of a cache for time-since-visit
+ * utilities over the cells of a discretized sensor area
+ **/
+
+#ifndef   _GAMS_VARIABLES_UTILITY_CACHE_H_
+#define   _GAMS_VARIABLES_UTILITY_CACHE_H_
+
+#include <cstddef>
+#include <utility>
+#include <vector>
+
+#include "gams/GamsExport.h"
+
+namespace gams
+{
+  namespace variables
+  {
+    /**
+     * A cell index (x, y) on a sensor map
+     **/
+    typedef std::pair <int, int>   CellIndex;
+
+    /**
+     * Counters for the work done by a utility cache
+     **/
+    struct GAMS_EXPORT UtilityCacheStats
+    {
+      /// number of calls to refresh
+      size_t refreshes = 0;
+
+      /// number of rows recomputed by refresh
+      size_t rows_refreshed = 0;
+
+      /// number of times the time base was moved
+      size_t rebases = 0;
+    };
+
+    /**
+     * A cache of coverage utilities over a rectangle of sensor cells. Each
+     * cell holds a weight and the time it was last visited, and the utility
+     * of a cell at time t is (weight * (t - last visit))^3. Cells with zero
+     * weight are outside of the covered area.
+     *
+     * Because the cube of an age expands into a polynomial in t, the cache
+     * keeps per-row prefix sums of weight^3 times the powers 0 to 3 of the
+     * last visit. Ages grow every tick, but these sums only change when a
+     * cell is visited, so a new tick costs nothing and a refresh only
+     * recomputes the rows touched since the last refresh. The utility of
+     * the cells along a path is then one lookup per row of the path.
+     *
+     * Queries read the sums as of the last call to refresh, and are safe
+     * to make from several threads while no thread modifies the cache.
+     **/
+    class GAMS_EXPORT UtilityCache
+    {
+    public:
+      /// default time span after which the time base is moved
+      static const double DEFAULT_REBASE_SPAN;
+
+      /**
+       * Constructor for an empty cache
+       **/
+      UtilityCache ();
+
+      /**
+       * Removes all cells and resizes the cache to a rectangle. All cells
+       * start with zero weight.
+       * @param  min_x    x index of the first column
+       * @param  min_y    y index of the first row
+       * @param  width    number of columns
+       * @param  height   number of rows
+       * @param  time     the last visit time of every cell
+       **/
+      void resize (int min_x, int min_y, int width, int height,
+        double time = 0.0);
+
+      /**
+       * Removes all cells
+       **/
+      void clear (void);
+
+      /**
+       * Checks if a cell is inside the cache rectangle
+       * @param  x   x index of the cell
+       * @param  y   y index of the cell
+       * @return true if the cell is inside the rectangle
+       **/
+      bool in_bounds (int x, int y) const;
+
+      /**
+       * Checks if a cell is part of the covered area
+       * @param  x   x index of the cell
+       * @param  y   y index of the cell
+       * @return true if the cell is in bounds and has a nonzero weight
+       **/
+      bool contains (int x, int y) const;
+
+      /**
+       * Sets the weight of a cell. Cells outside of the rectangle are
+       * ignored.
+       * @param  x        x index of the cell
+       * @param  y        y index of the cell
+       * @param  weight   the weight, or 0 to remove the cell from the area
+       **/
+      void set_weight (int x, int y, double weight);
+
+      /**
+       * Gets the weight of a cell
+       * @param  x   x index of the cell
+       * @param  y   y index of the cell
+       * @return the weight, or 0 if the cell is out of bounds
+       **/
+      double get_weight (int x, int y) const;
+
+      /**
+       * Sets the last visit time of a cell and marks its row for the next
+       * refresh. Cells outside of the rectangle are ignored.
+       * @param  x      x index of the cell
+       * @param  y      y index of the cell
+       * @param  time   the time of the visit
+       **/
+      void set_last_visit (int x, int y, double time);
+
+      /**
+       * Gets the last visit time of a cell
+       * @param  x   x index of the cell
+       * @param  y   y index of the cell
+       * @return the time of the last visit, or 0 if out of bounds
+       **/
+      double get_last_visit (int x, int y) const;
+
+      /**
+       * Gets the utility of a single cell. Reads the cell directly, so
+       * the result does not depend on refresh.
+       * @param  x      x index of the cell
+       * @param  y      y index of the cell
+       * @param  time   the current time
+       * @return (weight * (time - last visit))^3
+       **/
+      double get_utility (int x, int y, double time) const;
+
+      /**
+       * Recomputes the prefix sums of the rows touched since the last
+       * refresh. If time has moved more than the rebase span away from the
+       * time base, the base is moved to time and every row is recomputed,
+       * which keeps the expanded sums precise.
+       * @param  time   the current time
+       * @return the number of rows recomputed
+       **/
+      size_t refresh (double time);
+
+      /**
+       * Sums the utilities of the cells whose centers are within a radius
+       * of the segment between two cells
+       * @param  start_x   x index of the start of the path
+       * @param  start_y   y index of the start of the path
+       * @param  end_x     x index of the end of the path
+       * @param  end_y     y index of the end of the path
+       * @param  radius    the radius around the path, in cells
+       * @param  time      the current time
+       * @return the sum of the cell utilities, as of the last refresh
+       **/
+      double get_path_utility (int start_x, int start_y, int end_x, int end_y,
+        double radius, double time) const;
+
+      /**
+       * Lists the covered cells whose centers are within a radius of the
+       * segment between two cells
+       * @param  start_x   x index of the start of the path
+       * @param  start_y   y index of the start of the path
+       * @param  end_x     x index of the end of the path
+       * @param  end_y     y index of the end of the path
+       * @param  radius    the radius around the path, in cells
+       * @param  cells     the list to append the cells to
+       **/
+      void get_path_cells (int start_x, int start_y, int end_x, int end_y,
+        double radius, std::vector <CellIndex> & cells) const;
+
+      /**
+       * Gets the number of rows touched since the last refresh
+       * @return the number of rows waiting for refresh
+       **/
+      size_t get_dirty_rows (void) const;
+
+      /**
+       * Gets the number of cells with a nonzero weight
+       * @return the number of cells in the covered area
+       **/
+      size_t get_cell_count (void) const;
+
+      /**
+       * @return x index of the first column
+       **/
+      int get_min_x (void) const;
+
+      /**
+       * @return y index of the first row
+       **/
+      int get_min_y (void) const;
+
+      /**
+       * @return number of columns
+       **/
+      int get_width (void) const;
+
+      /**
+       * @return number of rows
+       **/
+      int get_height (void) const;
+
+      /**
+       * Sets the time span after which refresh moves the time base
+       * @param  span   the span, in the units of the visit times
+       **/
+      void set_rebase_span (double span);
+
+      /**
+       * Gets the counters of the work done by the cache
+       * @return the counters since the last resize or reset
+       **/
+      const UtilityCacheStats & get_stats (void) const;
+
+      /**
+       * Resets the work counters
+       **/
+      void reset_stats (void);
+
+    protected:
+      /**
+       * Prefix sums of weight^3 * (last visit - base)^k for k = 0..3
+       **/
+      struct Moments
+      {
+        double m0 = 0;
+        double m1 = 0;
+        double m2 = 0;
+        double m3 = 0;
+      };
+
+      /**
+       * Recomputes the prefix sums of one row
+       * @param  row   the row, relative to min_y
+       **/
+      void refresh_row (int row);
+
+      /**
+       * Finds the x range of the path capsule on a row
+       * @return true if the row intersects the capsule
+       **/
+      bool get_path_span (int start_x, int start_y, int end_x, int end_y,
+        double radius, int y, int & first, int & last) const;
+
+      /// x index of the first column
+      int min_x_;
+
+      /// y index of the first row
+      int min_y_;
+
+      /// number of columns
+      int width_;
+
+      /// number of rows
+      int height_;
+
+      /// time that the prefix sums are relative to
+      double base_;
+
+      /// time span after which refresh moves the base
+      double rebase_span_;
+
+      /// number of cells with a nonzero weight
+      size_t cells_;
+
+      /// cell weights, row by row
+      std::vector <double> weights_;
+
+      /// cell last visit times, row by row
+      std::vector <double> last_visits_;
+
+      /// width + 1 prefix sums per row
+      std::vector <Moments> prefix_;
+
+      /// true for rows touched since the last refresh
+      std::vector <char> dirty_;
+
+      /// rows touched since the last refresh
+      std::vector <int> dirty_rows_;
+
+      /// work counters
+      UtilityCacheStats stats_;
+    };
+  }
+}
+
+#endif // _GAMS_VARIABLES_UTILITY_CACHE_H_
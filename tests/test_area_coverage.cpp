@@ -0,0 +1,303 @@
+/**
+ * Copyright (c) 2017 Carnegie Mellon University. All Rights Reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following acknowledgments and disclaimers.
+ * 
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * 3. The names "Carnegie Mellon University," "SEI" and/or "Software
+ *    Engineering Institute" shall not be used to endorse or promote products
+ *    derived from this software without prior written permission. For written
+ *    permission, please contact permission@sei.cmu.edu.
+ * 
+ * 4. Products derived from this software may not be called "SEI" nor may "SEI"
+ *    appear in their names without prior written permission of
+ *    permission@sei.cmu.edu.
+ * 
+ * 5. Redistributions of any form whatsoever must retain the following
+ *    acknowledgment:
+ * 
+ *      This material is based upon work funded and supported by the Department
+ *      of Defense under Contract No. FA8721-05-C-0003 with Carnegie Mellon
+ *      University for the operation of the Software Engineering Institute, a
+ *      federally funded research and development center. Any opinions,
+ *      findings and conclusions or recommendations expressed in this material
+ *      are those of the author(s) and do not necessarily reflect the views of
+ *      the United States Department of Defense.
+ * 
+ *      NO WARRANTY. THIS CARNEGIE MELLON UNIVERSITY AND SOFTWARE ENGINEERING
+ *      INSTITUTE MATERIAL IS FURNISHED ON AN "AS-IS" BASIS. CARNEGIE MELLON
+ *      UNIVERSITY MAKES NO WARRANTIES OF ANY KIND, EITHER EXPRESSED OR
+ *      IMPLIED, AS TO ANY MATTER INCLUDING, BUT NOT LIMITED TO, WARRANTY OF
+ *      FITNESS FOR PURPOSE OR MERCHANTABILITY, EXCLUSIVITY, OR RESULTS
+ *      OBTAINED FROM USE OF THE MATERIAL. CARNEGIE MELLON UNIVERSITY DOES
+ *      NOT MAKE ANY WARRANTY OF ANY KIND WITH RESPECT TO FREEDOM FROM PATENT,
+ *      TRADEMARK, OR COPYRIGHT INFRINGEMENT.
+ * 
+ *      This material has been approved for public release and unlimited
+ *      distribution.
+ **/
+
+/**
+ * @file test_area_coverage.cpp
+ * @author James Edmondson <jedmondson@gmail.com>
+ *
+ * Tests the utility cache behind minimum time area coverage and the
+ * sampling of candidate destinations in
+ * gams::algorithms::area_coverage::MinTimeAreaCoverage
+ **/
+
+#include <string>
+#include <iostream>
+#include <assert.h>
+#include <math.h>
+#include <set>
+#include <vector>
+
+#include "gams/algorithms/area_coverage/MinTimeAreaCoverage.h"
+#include "gams/variables/UtilityCache.h"
+#include "gams/loggers/GlobalLogger.h"
+
+using gams::algorithms::area_coverage::MinTimeAreaCoverage;
+using gams::variables::CellIndex;
+using gams::variables::UtilityCache;
+using std::cout;
+using std::endl;
+using std::string;
+using std::vector;
+
+void
+testing_output (const string& str, const unsigned int& tabs = 0)
+{
+  for (unsigned int i = 0; i < tabs; ++i)
+    cout << "\t";
+  cout << "testing " << str << "..." << endl;
+}
+
+bool
+approx_equal (double lhs, double rhs)
+{
+  return fabs (lhs - rhs) <= 1e-6 * (1.0 + fabs (lhs) + fabs (rhs));
+}
+
+/**
+ * Cache dimensions and the visits applied to it. A cell visited at
+ * visits[i] is (i * 7 % WIDTH, i * 3 % HEIGHT).
+ **/
+const int MIN_X = -5;
+const int MIN_Y = 3;
+const int WIDTH = 24;
+const int HEIGHT = 17;
+
+double
+get_weight (int x, int y)
+{
+  // leave a hole in the area to exercise cells with zero weight
+  if (x > 4 && x < 8 && y > 6 && y < 10)
+    return 0.0;
+  return 1.0 + ((x * 31 + y * 17) & 3) * 0.5;
+}
+
+void
+build (UtilityCache & cache, const vector<double> & visits, double time)
+{
+  cache.resize (MIN_X, MIN_Y, WIDTH, HEIGHT, 0.0);
+  for (int y = MIN_Y; y < MIN_Y + HEIGHT; ++y)
+    for (int x = MIN_X; x < MIN_X + WIDTH; ++x)
+      cache.set_weight (x, y, get_weight (x, y));
+
+  for (size_t i = 0; i < visits.size (); ++i)
+    cache.set_last_visit (MIN_X + (int)(i * 7 % WIDTH),
+      MIN_Y + (int)(i * 3 % HEIGHT), visits[i]);
+
+  cache.refresh (time);
+}
+
+void
+check_paths (const UtilityCache & incremental, const UtilityCache & full,
+  double time)
+{
+  const int paths[][4] = {
+    { MIN_X, MIN_Y, MIN_X + WIDTH - 1, MIN_Y + HEIGHT - 1 },
+    { MIN_X + 3, MIN_Y + 8, MIN_X + 20, MIN_Y + 8 },
+    { MIN_X + 10, MIN_Y, MIN_X + 10, MIN_Y + 16 },
+    { MIN_X + 2, MIN_Y + 5, MIN_X + 2, MIN_Y + 5 },
+    { MIN_X + 22, MIN_Y + 1, MIN_X + 2, MIN_Y + 14 },
+  };
+  const double radii[] = { 0.5, 1.0, 2.5 };
+
+  for (size_t p = 0; p < sizeof (paths) / sizeof (paths[0]); ++p)
+  {
+    for (size_t r = 0; r < sizeof (radii) / sizeof (radii[0]); ++r)
+    {
+      const int * path = paths[p];
+      double inc = incremental.get_path_utility (
+        path[0], path[1], path[2], path[3], radii[r], time);
+      double ref = full.get_path_utility (
+        path[0], path[1], path[2], path[3], radii[r], time);
+
+      // brute force sum over the cells of the path
+      vector<CellIndex> cells;
+      full.get_path_cells (
+        path[0], path[1], path[2], path[3], radii[r], cells);
+      double sum = 0.0;
+      for (size_t i = 0; i < cells.size (); ++i)
+        sum += full.get_utility (cells[i].first, cells[i].second, time);
+
+      assert (!cells.empty ());
+      assert (approx_equal (inc, ref));
+      assert (approx_equal (ref, sum));
+    }
+  }
+}
+
+void
+test_incremental_utility (void)
+{
+  testing_output ("UtilityCache incremental refresh");
+
+  UtilityCache incremental;
+  UtilityCache full;
+  vector<double> visits;
+
+  build (incremental, visits, 1.0);
+  build (full, visits, 1.0);
+  assert (incremental.get_dirty_rows () == 0);
+  check_paths (incremental, full, 1.0);
+
+  testing_output ("refreshes only the touched rows", 1);
+  double time = 1.0;
+  for (size_t step = 0; step < 40; ++step)
+  {
+    time += 0.75;
+    visits.push_back (time);
+    size_t i = visits.size () - 1;
+    incremental.set_last_visit (MIN_X + (int)(i * 7 % WIDTH),
+      MIN_Y + (int)(i * 3 % HEIGHT), time);
+    assert (incremental.get_dirty_rows () == 1);
+
+    // a tick without visits changes nothing
+    assert (incremental.refresh (time) == 1);
+    assert (incremental.refresh (time + 0.5) == 0);
+
+    build (full, visits, time + 0.5);
+    check_paths (incremental, full, time + 0.5);
+  }
+
+  testing_output ("matches a full recompute after a rebase", 1);
+  incremental.set_rebase_span (10.0);
+  full.set_rebase_span (10.0);
+  time += 100.0;
+  assert (incremental.refresh (time) == (size_t)HEIGHT);
+  build (full, visits, time);
+  check_paths (incremental, full, time);
+
+  time += 1.0;
+  visits.push_back (time);
+  size_t i = visits.size () - 1;
+  incremental.set_last_visit (MIN_X + (int)(i * 7 % WIDTH),
+    MIN_Y + (int)(i * 3 % HEIGHT), time);
+  assert (incremental.refresh (time) == 1);
+  build (full, visits, time);
+  check_paths (incremental, full, time);
+}
+
+void
+check_candidates (const UtilityCache & cache, size_t max_candidates,
+  const string & name, bool compact = true)
+{
+  testing_output (name, 1);
+
+  const int stride = MinTimeAreaCoverage::get_candidate_stride (
+    cache.get_cell_count (), max_candidates);
+  const size_t plans = (size_t)(stride * stride);
+  std::set<CellIndex> scored;
+  vector<CellIndex> candidates;
+
+  for (size_t plan = 0; plan < plans; ++plan)
+  {
+    MinTimeAreaCoverage::get_candidates (
+      cache, max_candidates, plan, candidates);
+
+    assert (!candidates.empty ());
+    assert (max_candidates == 0 || candidates.size () <= max_candidates);
+
+    for (size_t i = 0; i < candidates.size (); ++i)
+    {
+      assert (cache.contains (candidates[i].first, candidates[i].second));
+      scored.insert (candidates[i]);
+    }
+  }
+
+  // a compact area is never thinned, so stride * stride plans score it all
+  if (compact)
+  {
+    assert (scored.size () == cache.get_cell_count ());
+  }
+}
+
+void
+test_candidate_sampling (void)
+{
+  testing_output ("MinTimeAreaCoverage candidate sampling");
+
+  assert (MinTimeAreaCoverage::get_candidate_stride (100, 0) == 1);
+  assert (MinTimeAreaCoverage::get_candidate_stride (100, 100) == 1);
+  assert (MinTimeAreaCoverage::get_candidate_stride (101, 100) == 2);
+  assert (MinTimeAreaCoverage::get_candidate_stride (10000, 100) == 10);
+  assert (MinTimeAreaCoverage::get_candidate_stride (10001, 100) == 11);
+
+  UtilityCache cache;
+  cache.resize (0, 0, 100, 100);
+  for (int y = 0; y < 100; ++y)
+    for (int x = 0; x < 100; ++x)
+      cache.set_weight (x, y, 1.0);
+
+  check_candidates (cache, 0, "every cell of a square area");
+  check_candidates (cache, 10000, "a square area below the limit");
+  check_candidates (cache, 400, "a square area above the limit");
+  check_candidates (cache, 37, "a square area with an odd limit");
+
+  cache.resize (0, 0, 100, 1);
+  for (int x = 0; x < 100; ++x)
+    cache.set_weight (x, 0, 1.0);
+
+  check_candidates (cache, 10, "a thin row", false);
+
+  cache.resize (0, 0, 3, 500);
+  for (int y = 0; y < 500; ++y)
+    for (int x = 0; x < 3; ++x)
+      cache.set_weight (x, y, 1.0);
+
+  check_candidates (cache, 50, "a thin column", false);
+
+  cache.resize (0, 0, 60, 60);
+  for (int y = 0; y < 60; ++y)
+    for (int x = 0; x < 60; ++x)
+      if (x < 4 || y < 4)
+        cache.set_weight (x, y, 1.0);
+
+  check_candidates (cache, 25, "an L-shaped area", false);
+
+  cache.resize (0, 0, 80, 80);
+  for (int y = 0; y < 80; y += 3)
+    for (int x = 0; x < 80; x += 5)
+      cache.set_weight (x, y, 1.0);
+
+  check_candidates (cache, 64, "a sparse area", false);
+}
+
+int
+main (int /*argc*/, char ** /*argv*/)
+{
+  gams::loggers::global_logger->set_level (-1);
+  test_incremental_utility ();
+  test_candidate_sampling ();
+  return 0;
+}
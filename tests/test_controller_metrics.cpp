@@ -0,0 +1,304 @@
+/**
+ * Copyright (c) 2017 Carnegie Mellon University. All Rights Reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following acknowledgments and disclaimers.
+ * 
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * 3. The names "Carnegie Mellon University," "SEI" and/or "Software
+ *    Engineering Institute" shall not be used to endorse or promote products
+ *    derived from this software without prior written permission. For written
+ *    permission, please contact permission@sei.cmu.edu.
+ * 
+ * 4. Products derived from this software may not be called "SEI" nor may "SEI"
+ *    appear in their names without prior written permission of
+ *    permission@sei.cmu.edu.
+ * 
+ * 5. Redistributions of any form whatsoever must retain the following
+ *    acknowledgment:
+ * 
+ *      This material is based upon work funded and supported by the Department
+ *      of Defense under Contract No. FA8721-05-C-0003 with Carnegie Mellon
+ *      University for the operation of the Software Engineering Institute, a
+ *      federally funded research and development center. Any opinions,
+ *      findings and conclusions or recommendations expressed in this material
+ *      are those of the author(s) and do not necessarily reflect the views of
+ *      the United States Department of Defense.
+ * 
+ *      NO WARRANTY. THIS CARNEGIE MELLON UNIVERSITY AND SOFTWARE ENGINEERING
+ *      INSTITUTE MATERIAL IS FURNISHED ON AN "AS-IS" BASIS. CARNEGIE MELLON
+ *      UNIVERSITY MAKES NO WARRANTIES OF ANY KIND, EITHER EXPRESSED OR
+ *      IMPLIED, AS TO ANY MATTER INCLUDING, BUT NOT LIMITED TO, WARRANTY OF
+ *      FITNESS FOR PURPOSE OR MERCHANTABILITY, EXCLUSIVITY, OR RESULTS
+ *      OBTAINED FROM USE OF THE MATERIAL. CARNEGIE MELLON UNIVERSITY DOES
+ *      NOT MAKE ANY WARRANTY OF ANY KIND WITH RESPECT TO FREEDOM FROM PATENT,
+ *      TRADEMARK, OR COPYRIGHT INFRINGEMENT.
+ * 
+ *      This material has been approved for public release and unlimited
+ *      distribution.
+ **/
+
+/**
+ * @file test_controller_metrics.cpp
+ * @author James Edmondson <jedmondson@gmail.com>
+ *
+ * Tests the phase counters in gams::controllers::ControllerMetrics and
+ * their updates from the loop of gams::controllers::BaseController
+ **/
+
+#include <string>
+#include <iostream>
+#include <assert.h>
+#include <chrono>
+#include <thread>
+
+#include "madara/knowledge/KnowledgeBase.h"
+#include "gams/controllers/BaseController.h"
+#include "gams/controllers/ControllerMetrics.h"
+#include "gams/utility/CallbackTimer.h"
+#include "gams/loggers/GlobalLogger.h"
+
+#include "helper/CounterAlgorithm.h"
+#include "helper/CounterPlatform.h"
+
+using gams::controllers::BaseController;
+using gams::controllers::ControllerMetrics;
+using std::cout;
+using std::endl;
+using std::string;
+
+typedef madara::knowledge::KnowledgeRecord::Integer Integer;
+
+void
+testing_output (const string& str, const unsigned int& tabs = 0)
+{
+  for (unsigned int i = 0; i < tabs; ++i)
+    cout << "\t";
+  cout << "testing " << str << "..." << endl;
+}
+
+/**
+ * Reads one phase field from a snapshot
+ **/
+int64_t
+get_field (const int64_t * values, ControllerMetrics::Phase phase,
+  ControllerMetrics::PhaseField field)
+{
+  return values[phase * ControllerMetrics::NUM_PHASE_FIELDS + field];
+}
+
+/**
+ * Reads one loop field from a snapshot
+ **/
+int64_t
+get_field (const int64_t * values, ControllerMetrics::LoopField field)
+{
+  return values[ControllerMetrics::NUM_PHASES *
+    ControllerMetrics::NUM_PHASE_FIELDS + field];
+}
+
+void
+test_counters (void)
+{
+  testing_output ("ControllerMetrics counters");
+
+  ControllerMetrics metrics;
+  int64_t values[ControllerMetrics::SNAPSHOT_SIZE];
+
+  testing_output ("starts at zero", 1);
+  metrics.snapshot (values);
+  for (size_t i = 0; i < ControllerMetrics::SNAPSHOT_SIZE; ++i)
+    assert (values[i] == 0);
+
+  testing_output ("records counts, totals and maximums", 1);
+  metrics.record (ControllerMetrics::PLAN, 100, 10);
+  metrics.record (ControllerMetrics::PLAN, 300, 20);
+  metrics.record (ControllerMetrics::PLAN, 200, 0);
+  metrics.record_external (ControllerMetrics::PLAN, 150);
+  metrics.record (ControllerMetrics::EXECUTE, 50, 0);
+  metrics.missed_deadline (70);
+  metrics.missed_deadline (30);
+  metrics.sent ();
+  metrics.sent ();
+  metrics.snapshot (values);
+
+  assert (get_field (values, ControllerMetrics::PLAN,
+    ControllerMetrics::COUNT) == 3);
+  assert (get_field (values, ControllerMetrics::PLAN,
+    ControllerMetrics::TOTAL_NANOS) == 600);
+  assert (get_field (values, ControllerMetrics::PLAN,
+    ControllerMetrics::MAX_NANOS) == 300);
+  assert (get_field (values, ControllerMetrics::PLAN,
+    ControllerMetrics::CALLBACK_NANOS) == 30);
+  assert (get_field (values, ControllerMetrics::PLAN,
+    ControllerMetrics::EXTERNAL_COUNT) == 1);
+  assert (get_field (values, ControllerMetrics::PLAN,
+    ControllerMetrics::EXTERNAL_NANOS) == 150);
+  assert (get_field (values, ControllerMetrics::EXECUTE,
+    ControllerMetrics::COUNT) == 1);
+  assert (get_field (values, ControllerMetrics::MONITOR,
+    ControllerMetrics::COUNT) == 0);
+  assert (get_field (values, ControllerMetrics::MISSED_DEADLINES) == 2);
+  assert (get_field (values, ControllerMetrics::MAX_OVERRUN_NANOS) == 70);
+  assert (get_field (values, ControllerMetrics::SENDS) == 2);
+
+  testing_output ("copies values", 1);
+  ControllerMetrics copy (metrics);
+  int64_t copied[ControllerMetrics::SNAPSHOT_SIZE];
+  copy.snapshot (copied);
+  for (size_t i = 0; i < ControllerMetrics::SNAPSHOT_SIZE; ++i)
+    assert (copied[i] == values[i]);
+
+  testing_output ("resets values", 1);
+  metrics.reset ();
+  metrics.snapshot (values);
+  for (size_t i = 0; i < ControllerMetrics::SNAPSHOT_SIZE; ++i)
+    assert (values[i] == 0);
+
+  // the copy is independent of the original
+  copy.snapshot (copied);
+  assert (get_field (copied, ControllerMetrics::SENDS) == 2);
+}
+
+void
+test_phase_timer (void)
+{
+  testing_output ("ControllerMetrics::PhaseTimer");
+
+  ControllerMetrics metrics;
+  int64_t values[ControllerMetrics::SNAPSHOT_SIZE];
+
+  {
+    ControllerMetrics::PhaseTimer timer (metrics, ControllerMetrics::ANALYZE);
+    gams::utility::CallbackTimer callback;
+    std::this_thread::sleep_for (std::chrono::milliseconds (2));
+  }
+
+  metrics.snapshot (values);
+
+  const int64_t total = get_field (values, ControllerMetrics::ANALYZE,
+    ControllerMetrics::TOTAL_NANOS);
+  const int64_t callback = get_field (values, ControllerMetrics::ANALYZE,
+    ControllerMetrics::CALLBACK_NANOS);
+
+  assert (get_field (values, ControllerMetrics::ANALYZE,
+    ControllerMetrics::COUNT) == 1);
+  assert (callback >= 2000000);
+  assert (total >= callback);
+  assert (get_field (values, ControllerMetrics::ANALYZE,
+    ControllerMetrics::MAX_NANOS) == total);
+}
+
+void
+test_mirror (void)
+{
+  testing_output ("ControllerMetrics::mirror");
+
+  madara::knowledge::KnowledgeBase knowledge;
+  ControllerMetrics metrics;
+
+  metrics.record (ControllerMetrics::EXECUTE, 40, 5);
+  metrics.sent ();
+
+  testing_output ("does nothing without a prefix", 1);
+  metrics.mirror (knowledge);
+  assert (!knowledge.exists (".metrics.execute.count"));
+
+  testing_output ("writes phase and loop values", 1);
+  metrics.set_mirror_prefix (".metrics");
+  assert (metrics.get_mirror_prefix () == ".metrics");
+  metrics.mirror (knowledge);
+
+  assert (knowledge.get (".metrics.execute.count").to_integer () == 1);
+  assert (knowledge.get (".metrics.execute.total_nanos").to_integer () == 40);
+  assert (knowledge.get (".metrics.execute.callback_nanos").to_integer () == 5);
+  assert (knowledge.get (".metrics.monitor.count").to_integer () == 0);
+  assert (knowledge.get (".metrics.sends").to_integer () == 1);
+  assert (knowledge.get (".metrics.missed_deadlines").to_integer () == 0);
+}
+
+void
+test_controller_loop (void)
+{
+  testing_output ("BaseController updates its metrics");
+
+  madara::knowledge::KnowledgeBase knowledge;
+  BaseController controller (knowledge);
+  gams::algorithms::CounterAlgorithm * algorithm =
+    new gams::algorithms::CounterAlgorithm (knowledge);
+
+  controller.init_vars (0, 1);
+  controller.init_platform (new gams::platforms::CounterPlatform (knowledge));
+  controller.init_algorithm (algorithm);
+
+  int64_t values[ControllerMetrics::SNAPSHOT_SIZE];
+  ControllerMetrics & metrics = controller.get_metrics ();
+
+  testing_output ("run_once times each phase once", 1);
+  controller.run_once ();
+  controller.run_once ();
+  metrics.snapshot (values);
+
+  assert (algorithm->loops == 2);
+  assert (get_field (values, ControllerMetrics::MONITOR,
+    ControllerMetrics::COUNT) == 2);
+  assert (get_field (values, ControllerMetrics::ANALYZE,
+    ControllerMetrics::COUNT) == 2);
+  assert (get_field (values, ControllerMetrics::PLAN,
+    ControllerMetrics::COUNT) == 2);
+  assert (get_field (values, ControllerMetrics::EXECUTE,
+    ControllerMetrics::COUNT) == 2);
+  assert (get_field (values, ControllerMetrics::ITERATION,
+    ControllerMetrics::COUNT) == 2);
+  assert (get_field (values, ControllerMetrics::SEND,
+    ControllerMetrics::COUNT) == 2);
+  assert (get_field (values, ControllerMetrics::SENDS) == 2);
+
+  // an iteration includes its phases
+  assert (get_field (values, ControllerMetrics::ITERATION,
+    ControllerMetrics::TOTAL_NANOS) >=
+    get_field (values, ControllerMetrics::EXECUTE,
+    ControllerMetrics::TOTAL_NANOS));
+
+  testing_output ("send_modifieds counts a send", 1);
+  controller.send_modifieds ();
+  metrics.snapshot (values);
+  assert (get_field (values, ControllerMetrics::SENDS) == 3);
+
+  testing_output ("sends mirror the metrics", 1);
+  metrics.reset ();
+  metrics.set_mirror_prefix (".controller.metrics");
+  controller.run_once ();
+  assert (knowledge.get (
+    ".controller.metrics.execute.count").to_integer () == 1);
+
+  testing_output ("run counts iterations", 1);
+  metrics.reset ();
+  controller.run (0.001, 0.05);
+  metrics.snapshot (values);
+  assert (get_field (values, ControllerMetrics::ITERATION,
+    ControllerMetrics::COUNT) > 0);
+  assert (get_field (values, ControllerMetrics::ITERATION,
+    ControllerMetrics::COUNT) == get_field (values,
+    ControllerMetrics::EXECUTE, ControllerMetrics::COUNT));
+  assert (get_field (values, ControllerMetrics::SENDS) > 0);
+  assert (get_field (values, ControllerMetrics::SYSTEM_ANALYZE,
+    ControllerMetrics::COUNT) > 0);
+}
+
+int
+main (int /*argc*/, char ** /*argv*/)
+{
+  gams::loggers::global_logger->set_level (-1);
+  test_counters ();
+  test_phase_timer ();
+  test_mirror ();
+  test_controller_loop ();
+  return 0;
+}
@@ -0,0 +1,494 @@
+/**
+ * Copyright (c) 2017 Carnegie Mellon University. All Rights Reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following acknowledgments and disclaimers.
+ * 
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * 3. The names "Carnegie Mellon University," "SEI" and/or "Software
+ *    Engineering Institute" shall not be used to endorse or promote products
+ *    derived from this software without prior written permission. For written
+ *    permission, please contact permission@sei.cmu.edu.
+ * 
+ * 4. Products derived from this software may not be called "SEI" nor may "SEI"
+ *    appear in their names without prior written permission of
+ *    permission@sei.cmu.edu.
+ * 
+ * 5. Redistributions of any form whatsoever must retain the following
+ *    acknowledgment:
+ * 
+ *      This material is based upon work funded and supported by the Department
+ *      of Defense under Contract No. FA8721-05-C-0003 with Carnegie Mellon
+ *      University for the operation of the Software Engineering Institute, a
+ *      federally funded research and development center. Any opinions,
+ *      findings and conclusions or recommendations expressed in this material
+ *      are those of the author(s) and do not necessarily reflect the views of
+ *      the United States Department of Defense.
+ * 
+ *      NO WARRANTY. THIS CARNEGIE MELLON UNIVERSITY AND SOFTWARE ENGINEERING
+ *      INSTITUTE MATERIAL IS FURNISHED ON AN "AS-IS" BASIS. CARNEGIE MELLON
+ *      UNIVERSITY MAKES NO WARRANTIES OF ANY KIND, EITHER EXPRESSED OR
+ *      IMPLIED, AS TO ANY MATTER INCLUDING, BUT NOT LIMITED TO, WARRANTY OF
+ *      FITNESS FOR PURPOSE OR MERCHANTABILITY, EXCLUSIVITY, OR RESULTS
+ *      OBTAINED FROM USE OF THE MATERIAL. CARNEGIE MELLON UNIVERSITY DOES
+ *      NOT MAKE ANY WARRANTY OF ANY KIND WITH RESPECT TO FREEDOM FROM PATENT,
+ *      TRADEMARK, OR COPYRIGHT INFRINGEMENT.
+ * 
+ *      This material has been approved for public release and unlimited
+ *      distribution.
+ **/
+
+/**
+ * @file test_grid.cpp
+ * @author James Edmondson <jedmondson@gmail.com>
+ *
+ * Tests the tiled occupancy grid in gams::variables::Grid and its
+ * sharing through gams::variables::GridSync
+ **/
+
+#include <string>
+#include <iostream>
+#include <assert.h>
+#include <vector>
+
+#include "gams/maps/Grid.h"
+#include "gams/maps/GridSync.h"
+#include "gams/loggers/GlobalLogger.h"
+
+using gams::variables::Grid;
+using gams::variables::GridStats;
+using gams::variables::GridSync;
+using std::cout;
+using std::endl;
+using std::string;
+using std::vector;
+
+void
+testing_output (const string& str, const unsigned int& tabs = 0)
+{
+  for (unsigned int i = 0; i < tabs; ++i)
+    cout << "\t";
+  cout << "testing " << str << "..." << endl;
+}
+
+void
+test_default_values ()
+{
+  testing_output ("default values");
+
+  testing_output ("sparse grid", 1);
+  Grid sparse (100, 70, 1, 16, 0.5, true);
+  assert (sparse.get_tiles_x () == 7);
+  assert (sparse.get_tiles_y () == 5);
+  assert (sparse.get_tiles_z () == 1);
+  assert (sparse.get_tile_count () == 35);
+  assert (sparse.get_allocated_tiles () == 0);
+  assert (sparse.get (0, 0) == 0.5);
+  assert (sparse.get (99, 69) == 0.5);
+
+  // reads do not allocate tiles
+  assert (sparse.get_allocated_tiles () == 0);
+  assert (sparse.get_tile (3, false) == 0);
+
+  testing_output ("cells outside of the grid", 1);
+  assert (sparse.get (100, 0) == 0.5);
+  assert (sparse.get (0, 70) == 0.5);
+  assert (sparse.get (0, 0, 1) == 0.5);
+  sparse.set (100, 70, 9.0);
+  assert (sparse.get_allocated_tiles () == 0);
+
+  testing_output ("dense grid", 1);
+  Grid dense (100, 70, 1, 16, -1.0, false);
+  assert (dense.get_allocated_tiles () == dense.get_tile_count ());
+  assert (dense.get (42, 17) == -1.0);
+  assert (dense.get_tile (34, false)[0] == -1.0);
+}
+
+void
+test_tile_boundaries ()
+{
+  testing_output ("get/set across tile boundaries");
+
+  Grid grid (100, 100, 1, 16, 0, true);
+
+  testing_output ("neighboring cells in different tiles", 1);
+  grid.set (15, 15, 1.0);
+  grid.set (16, 15, 2.0);
+  grid.set (15, 16, 3.0);
+  grid.set (16, 16, 4.0);
+  assert (grid.get_tile_index (15, 15) == 0);
+  assert (grid.get_tile_index (16, 15) == 1);
+  assert (grid.get_tile_index (15, 16) == grid.get_tiles_x ());
+  assert (grid.get_tile_index (16, 16) == grid.get_tiles_x () + 1);
+  assert (grid.get_allocated_tiles () == 4);
+  assert (grid.get (15, 15) == 1.0);
+  assert (grid.get (16, 15) == 2.0);
+  assert (grid.get (15, 16) == 3.0);
+  assert (grid.get (16, 16) == 4.0);
+  assert (grid.get (14, 15) == 0);
+  assert (grid.get (17, 16) == 0);
+
+  testing_output ("partial edge tiles", 1);
+  grid.set (99, 99, 5.0);
+  assert (grid.get_tile_index (99, 99) == grid.get_tile_count () - 1);
+  assert (grid.get (99, 99) == 5.0);
+
+  testing_output ("tile memory layout", 1);
+  const double * tile = grid.get_tile (grid.get_tile_index (16, 16), false);
+  assert (tile != 0);
+  assert (tile[0] == 4.0);
+  tile = grid.get_tile (0, false);
+  assert (tile[15 + 16 * 15] == 1.0);
+
+  testing_output ("3D grid", 1);
+  Grid cube (40, 40, 40, 8, 0, true);
+  assert (cube.get_tile_depth () == 8);
+  assert (cube.get_tile_cells () == 512);
+  cube.set (7, 7, 7, 1.0);
+  cube.set (7, 7, 8, 2.0);
+  assert (cube.get_tile_index (7, 7, 7) != cube.get_tile_index (7, 7, 8));
+  assert (cube.get (7, 7, 7) == 1.0);
+  assert (cube.get (7, 7, 8) == 2.0);
+  assert (cube.get_allocated_tiles () == 2);
+
+  testing_output ("fill and query across tiles", 1);
+  Grid area (100, 100, 1, 16, 0.5, true);
+  area.fill (10, 10, 0, 40, 30, 1, 1.0);
+  GridStats stats = area.query (0, 0, 0, 100, 100, 1);
+  assert (stats.count == 10000);
+  assert (stats.sum == (10000 - 600) * 0.5 + 600 * 1.0);
+  assert (stats.min == 0.5);
+  assert (stats.max == 1.0);
+  stats = area.query (10, 10, 0, 40, 30, 1);
+  assert (stats.count == 600);
+  assert (stats.min == 1.0);
+
+  // clipped to the grid
+  stats = area.query (90, 90, 0, 200, 200, 1);
+  assert (stats.count == 100);
+}
+
+void
+test_resize ()
+{
+  testing_output ("resize");
+
+  Grid grid (50, 50, 1, 16, 0, true);
+  grid.set (10, 10, 1.0);
+  grid.set (49, 49, 2.0);
+
+  testing_output ("drops cell values", 1);
+  grid.resize (200, 100, 1, 32, 3.0, true);
+  assert (grid.get_size_x () == 200);
+  assert (grid.get_size_y () == 100);
+  assert (grid.get_tile_size () == 32);
+  assert (grid.get_tiles_x () == 7);
+  assert (grid.get_tiles_y () == 4);
+  assert (grid.get_allocated_tiles () == 0);
+  assert (grid.get (10, 10) == 3.0);
+  assert (grid.get (49, 49) == 3.0);
+
+  testing_output ("cells beyond the old size", 1);
+  grid.set (199, 99, 4.0);
+  assert (grid.get (199, 99) == 4.0);
+
+  testing_output ("dense", 1);
+  grid.resize (20, 20, 1, 8, 1.0, false);
+  assert (!grid.is_sparse ());
+  assert (grid.get_allocated_tiles () == 9);
+  assert (grid.get (19, 19) == 1.0);
+
+  testing_output ("zero tile size", 1);
+  grid.resize (5, 5, 0, 0, 0, true);
+  assert (grid.get_tile_size () == 1);
+  assert (grid.get_size_z () == 1);
+  assert (grid.get_tile_count () == 25);
+}
+
+void
+test_clear ()
+{
+  testing_output ("clear");
+
+  testing_output ("sparse grid releases tiles", 1);
+  Grid sparse (64, 64, 1, 16, 0.25, true);
+  sparse.set (1, 1, 1.0);
+  sparse.set (40, 40, 2.0);
+  assert (sparse.get_allocated_tiles () == 2);
+  sparse.clear ();
+  assert (sparse.get_allocated_tiles () == 0);
+  assert (sparse.get (1, 1) == 0.25);
+  assert (sparse.get (40, 40) == 0.25);
+  assert (sparse.get_tile_count () == 16);
+
+  testing_output ("dense grid keeps tiles", 1);
+  Grid dense (64, 64, 1, 16, 0.25, false);
+  dense.set (1, 1, 1.0);
+  double * tile = dense.get_tile (0, false);
+  dense.clear ();
+  assert (dense.get_allocated_tiles () == 16);
+  assert (dense.get_tile (0, false) == tile);
+  assert (dense.get (1, 1) == 0.25);
+
+  testing_output ("copies are independent", 1);
+  Grid original (64, 64, 1, 16, 0, true);
+  original.set (63, 63, 5.0);
+  Grid copy (original);
+  assert (copy.get (63, 63) == 5.0);
+  copy.clear ();
+  assert (copy.get (63, 63) == 0);
+  assert (original.get (63, 63) == 5.0);
+}
+
+bool
+same_cells (const Grid & lhs, const Grid & rhs)
+{
+  for (size_t z = 0; z < lhs.get_size_z (); ++z)
+    for (size_t y = 0; y < lhs.get_size_y (); ++y)
+      for (size_t x = 0; x < lhs.get_size_x (); ++x)
+        if (lhs.get (x, y, z) != rhs.get (x, y, z))
+          return false;
+  return true;
+}
+
+void
+test_tile_encoding ()
+{
+  testing_output ("GridSync tile encoding");
+
+  const size_t cells = 256;
+  vector <double> defaults (cells, 0.5);
+  vector <double> previous (defaults);
+  vector <double> current (defaults);
+
+  // a repeated run, literals and an isolated change
+  for (size_t i = 10; i < 40; ++i)
+    current[i] = 1.0;
+  current[100] = 2.0;
+  current[101] = 3.0;
+  current[102] = 4.0;
+  current[255] = -1.0;
+
+  testing_output ("full round trip", 1);
+  vector <unsigned char> buffer;
+  assert (GridSync::encode_tile (cells, &current[0], &defaults[0], buffer)
+    == 34);
+  vector <double> tile (defaults);
+  vector <double> shadow (defaults);
+  assert (GridSync::decode_tile (cells, &buffer[0], buffer.size (),
+    &tile[0], &shadow[0]) == buffer.size ());
+  assert (tile == current);
+  assert (shadow == current);
+
+  testing_output ("delta round trip", 1);
+  previous = current;
+  current[11] = 7.0;
+  current[200] = 8.0;
+  buffer.clear ();
+  assert (GridSync::encode_tile (cells, &current[0], &previous[0], buffer)
+    == 2);
+  tile = previous;
+  assert (GridSync::decode_tile (cells, &buffer[0], buffer.size (),
+    &tile[0], 0) == buffer.size ());
+  assert (tile == current);
+
+  testing_output ("unchanged tile", 1);
+  buffer.clear ();
+  assert (GridSync::encode_tile (cells, &current[0], &current[0], buffer)
+    == 0);
+  assert (buffer.size () == 1);
+
+  testing_output ("truncated tiles", 1);
+  buffer.clear ();
+  GridSync::encode_tile (cells, &current[0], &defaults[0], buffer);
+  for (size_t size = 0; size < buffer.size (); ++size)
+  {
+    assert (GridSync::decode_tile (cells, &buffer[0], size, 0, 0) == 0);
+  }
+
+  testing_output ("runs past the end of the tile", 1);
+  assert (GridSync::decode_tile (cells / 2, &buffer[0], buffer.size (),
+    0, 0) == 0);
+  unsigned char overflow[] = {0xff, 0xff, 0xff, 0xff, 0xff, 0xff, 0xff,
+    0xff, 0xff, 0xff, 0x01, 0x00, 0x00};
+  assert (GridSync::decode_tile (cells, overflow, sizeof (overflow),
+    0, 0) == 0);
+}
+
+void
+test_grid_sync ()
+{
+  testing_output ("GridSync");
+
+  madara::knowledge::KnowledgeBase knowledge;
+  Grid grid0 (300, 200, 1, 64, 0, true);
+  Grid grid1 (300, 200, 1, 64, 0, true);
+  GridSync sync0 (grid0, knowledge, "0", "map");
+  GridSync sync1 (grid1, knowledge, "1", "map");
+
+  testing_output ("full tiles", 1);
+  grid0.fill (10, 10, 0, 100, 50, 1, 1.0);
+  grid0.set (250, 150, 0.5);
+  assert (sync0.send () > 0);
+  assert (sync0.get_stats ().full_tiles_sent == 3);
+  assert (sync1.receive () == 3);
+  assert (same_cells (grid0, grid1));
+
+  testing_output ("nothing to send", 1);
+  assert (sync0.send () == 0);
+  assert (sync1.receive () == 0);
+
+  testing_output ("deltas", 1);
+  grid0.set (11, 11, 2.0);
+  size_t delta = sync0.send ();
+  assert (delta > 0 && delta < 64);
+  assert (sync0.get_stats ().tiles_sent == 4);
+  assert (sync0.get_stats ().full_tiles_sent == 3);
+  assert (sync1.receive () == 1);
+  assert (grid1.get (11, 11) == 2.0);
+  assert (same_cells (grid0, grid1));
+
+  testing_output ("writes through tile pointers", 1);
+  double * tile = grid0.get_tile (grid0.get_tile_index (70, 70));
+  tile[5] = 3.0;
+  assert (sync0.send () > 0);
+  assert (sync1.receive () == 1);
+  tile[6] = 4.0;
+  assert (sync0.send () > 0);
+  assert (sync1.receive () == 1);
+  assert (same_cells (grid0, grid1));
+  assert (sync1.get_stats ().version_gaps == 0);
+
+  testing_output ("both directions", 1);
+  grid1.set (3, 3, 9.0);
+  assert (sync1.send () > 0);
+  assert (sync0.receive () == 1);
+  assert (grid0.get (3, 3) == 9.0);
+
+  testing_output ("released tiles", 1);
+  grid0.clear ();
+  assert (sync0.send () > 0);
+  sync1.receive ();
+  for (size_t y = 0; y < 200; y += 7)
+    for (size_t x = 0; x < 300; x += 7)
+      assert (grid1.get (x, y) == 0);
+
+  testing_output ("malformed deltas", 1);
+  Grid source (300, 200, 1, 64, 0, true);
+  GridSync sender (source, knowledge, "9", "other");
+  source.set (5, 5, 6.0);
+  sender.send ();
+
+  size_t size = 0;
+  unsigned char * data =
+    knowledge.get (sender.get_key ()).to_unmanaged_buffer (size);
+  assert (data && size > 2);
+  vector <unsigned char> valid (data, data + size);
+  delete [] data;
+
+  uint64_t rejected = sync1.get_stats ().rejected;
+  size_t allocated = grid1.get_allocated_tiles ();
+
+  // cut before the tile's last run ends, each as a different peer
+  for (size_t cut = 1; cut < valid.size () - 1; ++cut)
+  {
+    knowledge.set_file ("map.sync.cut" + std::to_string (cut),
+      &valid[0], cut);
+    assert (sync1.receive () == 0);
+    assert (grid1.get (5, 5) == 0);
+    assert (grid1.get_allocated_tiles () == allocated);
+  }
+  assert (sync1.get_stats ().rejected > rejected);
+
+  vector <unsigned char> bad_format (valid);
+  bad_format[0] = 0x7f;
+  knowledge.set_file ("map.sync.format", &bad_format[0], bad_format.size ());
+  assert (sync1.receive () == 0);
+
+  knowledge.set_file ("map.sync.whole", &valid[0], valid.size ());
+  assert (sync1.receive () == 1);
+  assert (grid1.get (5, 5) == 6.0);
+
+  testing_output ("mismatched layout", 1);
+  madara::knowledge::KnowledgeBase other;
+  Grid small (30, 20, 1, 8, 0, true);
+  Grid large (300, 200, 1, 64, 0, true);
+  GridSync mismatched (small, other, "0", "map");
+  GridSync expecting (large, other, "1", "map");
+  small.set (1, 1, 1.0);
+  assert (mismatched.send () > 0);
+  assert (expecting.receive () == 0);
+  assert (expecting.get_stats ().rejected == 1);
+  assert (large.get_allocated_tiles () == 0);
+}
+
+void
+test_grid_sync_restart ()
+{
+  testing_output ("GridSync restarted peer");
+
+  madara::knowledge::KnowledgeBase knowledge;
+  Grid receiver_grid (128, 128, 1, 32, 0, true);
+  GridSync receiver (receiver_grid, knowledge, "1", "map");
+
+  {
+    Grid grid (128, 128, 1, 32, 0, true);
+    GridSync sync (grid, knowledge, "0", "map");
+    for (int i = 0; i < 10; ++i)
+    {
+      grid.set (1, 1, i);
+      sync.send ();
+      receiver.receive ();
+    }
+    assert (receiver_grid.get (1, 1) == 9);
+  }
+
+  testing_output ("sequence goes backward", 1);
+  {
+    Grid grid (128, 128, 1, 32, 0, true);
+    GridSync sync (grid, knowledge, "0", "map");
+    grid.set (1, 1, 20.0);
+    sync.send ();
+    assert (sync.get_version (0) == 1);
+    assert (receiver.receive () == 1);
+    assert (receiver_grid.get (1, 1) == 20.0);
+  }
+
+  testing_output ("sequence passes the old one", 1);
+  {
+    Grid grid (128, 128, 1, 32, 0, true);
+    GridSync sync (grid, knowledge, "0", "map");
+    for (int i = 0; i < 5; ++i)
+    {
+      grid.set (100, 100, i);
+      sync.send ();
+    }
+
+    // only the epoch tells the receiver that version 1 is new
+    grid.set (1, 1, 30.0);
+    sync.send ();
+    assert (sync.get_version (0) == 1);
+    assert (receiver.receive () == 1);
+    assert (receiver_grid.get (1, 1) == 30.0);
+  }
+}
+
+int
+main (int /*argc*/, char ** /*argv*/)
+{
+  gams::loggers::global_logger->set_level (-1);
+  test_default_values ();
+  test_tile_boundaries ();
+  test_resize ();
+  test_clear ();
+  test_tile_encoding ();
+  test_grid_sync ();
+  test_grid_sync_restart ();
+  return 0;
+}
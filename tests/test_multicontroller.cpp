@@ -0,0 +1,261 @@
+/**
+ * Copyright (c) 2017 Carnegie Mellon University. All Rights Reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following acknowledgments and disclaimers.
+ * 
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * 3. The names "Carnegie Mellon University," "SEI" and/or "Software
+ *    Engineering Institute" shall not be used to endorse or promote products
+ *    derived from this software without prior written permission. For written
+ *    permission, please contact permission@sei.cmu.edu.
+ * 
+ * 4. Products derived from this software may not be called "SEI" nor may "SEI"
+ *    appear in their names without prior written permission of
+ *    permission@sei.cmu.edu.
+ * 
+ * 5. Redistributions of any form whatsoever must retain the following
+ *    acknowledgment:
+ * 
+ *      This material is based upon work funded and supported by the Department
+ *      of Defense under Contract No. FA8721-05-C-0003 with Carnegie Mellon
+ *      University for the operation of the Software Engineering Institute, a
+ *      federally funded research and development center. Any opinions,
+ *      findings and conclusions or recommendations expressed in this material
+ *      are those of the author(s) and do not necessarily reflect the views of
+ *      the United States Department of Defense.
+ * 
+ *      NO WARRANTY. THIS CARNEGIE MELLON UNIVERSITY AND SOFTWARE ENGINEERING
+ *      INSTITUTE MATERIAL IS FURNISHED ON AN "AS-IS" BASIS. CARNEGIE MELLON
+ *      UNIVERSITY MAKES NO WARRANTIES OF ANY KIND, EITHER EXPRESSED OR
+ *      IMPLIED, AS TO ANY MATTER INCLUDING, BUT NOT LIMITED TO, WARRANTY OF
+ *      FITNESS FOR PURPOSE OR MERCHANTABILITY, EXCLUSIVITY, OR RESULTS
+ *      OBTAINED FROM USE OF THE MATERIAL. CARNEGIE MELLON UNIVERSITY DOES
+ *      NOT MAKE ANY WARRANTY OF ANY KIND WITH RESPECT TO FREEDOM FROM PATENT,
+ *      TRADEMARK, OR COPYRIGHT INFRINGEMENT.
+ * 
+ *      This material has been approved for public release and unlimited
+ *      distribution.
+ **/
+
+/**
+ * @file test_multicontroller.cpp
+ * @author James Edmondson <jedmondson@gmail.com>
+ *
+ * Tests the agent slots of gams::controllers::Multicontroller, their
+ * self variables and their iteration through the MAPE loop
+ **/
+
+#include <string>
+#include <sstream>
+#include <iostream>
+#include <assert.h>
+#include <vector>
+
+#include "madara/knowledge/KnowledgeBase.h"
+#include "gams/controllers/Multicontroller.h"
+#include "gams/controllers/ControllerMetrics.h"
+#include "gams/loggers/GlobalLogger.h"
+
+#include "helper/CounterAlgorithm.h"
+#include "helper/CounterPlatform.h"
+
+using gams::algorithms::CounterAlgorithm;
+using gams::controllers::BaseController;
+using gams::controllers::ControllerMetrics;
+using gams::controllers::Multicontroller;
+using gams::platforms::CounterPlatform;
+using std::cout;
+using std::endl;
+using std::string;
+using std::vector;
+
+typedef madara::knowledge::KnowledgeRecord::Integer Integer;
+
+void
+testing_output (const string& str, const unsigned int& tabs = 0)
+{
+  for (unsigned int i = 0; i < tabs; ++i)
+    cout << "\t";
+  cout << "testing " << str << "..." << endl;
+}
+
+/**
+ * Reads the run count of a phase of a slot
+ **/
+int64_t
+get_count (Multicontroller & controller, size_t index,
+  ControllerMetrics::Phase phase)
+{
+  int64_t values[ControllerMetrics::SNAPSHOT_SIZE];
+  controller.get_controller (index)->get_metrics ().snapshot (values);
+  return values[phase * ControllerMetrics::NUM_PHASE_FIELDS +
+    ControllerMetrics::COUNT];
+}
+
+/**
+ * Gives each slot its own counter algorithm and platform
+ **/
+void
+init_slots (madara::knowledge::KnowledgeBase & knowledge,
+  Multicontroller & controller, vector<CounterAlgorithm *> & algorithms)
+{
+  algorithms.clear ();
+  for (size_t i = 0; i < controller.size (); ++i)
+  {
+    CounterAlgorithm * algorithm = new CounterAlgorithm (knowledge);
+    controller.init_platform (i, new CounterPlatform (knowledge));
+    controller.init_algorithm (i, algorithm);
+    algorithms.push_back (algorithm);
+  }
+}
+
+void
+test_slots (void)
+{
+  testing_output ("Multicontroller slots");
+
+  madara::knowledge::KnowledgeBase knowledge;
+  Multicontroller controller (knowledge, 3);
+
+  testing_output ("creates one controller per slot", 1);
+  assert (controller.size () == 3);
+  assert (controller.get_controller (0) != 0);
+  assert (controller.get_controller (2) != 0);
+  assert (controller.get_controller (0) != controller.get_controller (1));
+  assert (controller.get_controller (3) == 0);
+  assert (controller.get_algorithm (3) == 0);
+  assert (controller.get_platform (3) == 0);
+
+  testing_output ("binds algorithms and platforms per slot", 1);
+  vector<CounterAlgorithm *> algorithms;
+  controller.init_vars (5);
+  init_slots (knowledge, controller, algorithms);
+  for (size_t i = 0; i < controller.size (); ++i)
+  {
+    assert (controller.get_algorithm (i) == algorithms[i]);
+    assert (controller.get_platform (i) != 0);
+    assert (controller.get_platform (i) !=
+      controller.get_platform ((i + 1) % controller.size ()));
+  }
+
+  testing_output ("keeps a self id and prefix per slot", 1);
+  for (size_t i = 0; i < controller.size (); ++i)
+  {
+    std::stringstream scope, prefix;
+    scope << ".slot." << i;
+    prefix << "agent." << (5 + i);
+
+    gams::variables::Self * self = controller.get_algorithm (i)->get_self ();
+    assert (self != 0);
+    assert (self->id.to_integer () == (Integer)(5 + i));
+    assert (self->prefix.to_string () == prefix.str ());
+    assert (knowledge.get (scope.str () + ".id").to_integer () ==
+      (Integer)(5 + i));
+    assert (knowledge.get (scope.str () + ".prefix").to_string () ==
+      prefix.str ());
+  }
+
+  // no slot claims the global self variables of the knowledge base
+  assert (!knowledge.exists (".id"));
+  assert (!knowledge.exists (".prefix"));
+
+  testing_output ("keeps existing slots when resized", 1);
+  BaseController * first = controller.get_controller (0);
+  controller.resize (5);
+  assert (controller.size () == 5);
+  assert (controller.get_controller (0) == first);
+  assert (controller.get_algorithm (1) == algorithms[1]);
+  assert (controller.get_algorithm (3) == 0);
+  assert (controller.get_platform (4) == 0);
+
+  controller.resize (1);
+  assert (controller.size () == 1);
+  assert (controller.get_controller (0) == first);
+  assert (controller.get_controller (1) == 0);
+
+  controller.resize (0);
+  assert (controller.size () == 0);
+  assert (controller.run_once () == 0);
+}
+
+void
+test_iteration (void)
+{
+  testing_output ("Multicontroller iteration");
+
+  madara::knowledge::KnowledgeBase knowledge;
+  Multicontroller controller (knowledge, 3);
+  vector<CounterAlgorithm *> algorithms;
+
+  controller.init_vars (0);
+  init_slots (knowledge, controller, algorithms);
+
+  testing_output ("run_once runs every slot once", 1);
+  controller.run_once ();
+  controller.run_once ();
+  for (size_t i = 0; i < controller.size (); ++i)
+  {
+    assert (algorithms[i]->loops == 2);
+    assert (get_count (controller, i, ControllerMetrics::MONITOR) == 2);
+    assert (get_count (controller, i, ControllerMetrics::ANALYZE) == 2);
+    assert (get_count (controller, i, ControllerMetrics::PLAN) == 2);
+    assert (get_count (controller, i, ControllerMetrics::EXECUTE) == 2);
+  }
+
+  testing_output ("phases run on every slot", 1);
+  controller.monitor ();
+  controller.analyze ();
+  controller.system_analyze ();
+  for (size_t i = 0; i < controller.size (); ++i)
+  {
+    assert (algorithms[i]->loops == 3);
+    assert (get_count (controller, i, ControllerMetrics::MONITOR) == 3);
+    assert (get_count (controller, i, ControllerMetrics::PLAN) == 2);
+    assert (get_count (controller, i,
+      ControllerMetrics::SYSTEM_ANALYZE) == 1);
+  }
+
+  testing_output ("run keeps the slots in step", 1);
+  for (size_t i = 0; i < controller.size (); ++i)
+  {
+    algorithms[i]->reset_counters ();
+    controller.get_controller (i)->get_metrics ().reset ();
+  }
+
+  controller.run (0.001, 0.05);
+  assert (algorithms[0]->loops > 1);
+  for (size_t i = 0; i < controller.size (); ++i)
+  {
+    assert (algorithms[i]->loops == algorithms[0]->loops);
+    assert (get_count (controller, i, ControllerMetrics::EXECUTE) ==
+      algorithms[0]->loops);
+
+    // one system_analyze before the loop and one per iteration
+    assert (get_count (controller, i, ControllerMetrics::SYSTEM_ANALYZE) ==
+      algorithms[0]->loops + 1);
+  }
+
+  testing_output ("run_hz runs at least once", 1);
+  for (size_t i = 0; i < controller.size (); ++i)
+    algorithms[i]->reset_counters ();
+
+  controller.run_hz (1000.0, 0.0);
+  for (size_t i = 0; i < controller.size (); ++i)
+    assert (algorithms[i]->loops == 1);
+}
+
+int
+main (int /*argc*/, char ** /*argv*/)
+{
+  gams::loggers::global_logger->set_level (-1);
+  test_slots ();
+  test_iteration ();
+  return 0;
+}
@@ -52,6 +52,7 @@
  * Tests the functionality of gams::utility classes
  **/
 
+#include <algorithm>
 #include <string>
 #include <iostream>
 #include <assert.h>
@@ -63,11 +64,13 @@
 #include "gams/pose/Region.h"
 #include "gams/pose/PrioritizedRegion.h"
 #include "gams/pose/SearchArea.h"
+#include "gams/utility/WorkerPool.h"
 
 #include "gams/loggers/GlobalLogger.h"
 
 using gams::utility::GPSPosition;
 using gams::utility::Position;
+using gams::utility::WorkerPool;
 using gams::pose::PrioritizedRegion;
 using gams::pose::Region;
 using gams::pose::SearchArea;
@@ -346,12 +349,95 @@ test_SearchArea ()
 }
 */
 
+void
+test_WorkerPool ()
+{
+  testing_output ("gams::utility::WorkerPool");
+
+  // every item is visited exactly once for any number of threads
+  testing_output ("run", 1);
+  for (size_t threads = 1; threads <= 8; ++threads)
+  {
+    WorkerPool pool (threads);
+    assert (pool.size () == threads);
+
+    for (size_t count = 0; count < 40; ++count)
+    {
+      vector<int> visits (count, 0);
+      size_t chunks = pool.run (count,
+        [&visits] (size_t begin, size_t end, size_t)
+      {
+        for (size_t i = begin; i < end; ++i)
+          ++visits[i];
+      });
+
+      assert (chunks == std::min (count, threads));
+      for (size_t i = 0; i < count; ++i)
+        assert (visits[i] == 1);
+    }
+  }
+
+  // chunks are contiguous and cover the range in order
+  testing_output ("get_chunk_begin", 1);
+  for (size_t chunks = 1; chunks <= 8; ++chunks)
+  {
+    assert (WorkerPool::get_chunk_begin (100, chunks, 0) == 0);
+    assert (WorkerPool::get_chunk_begin (100, chunks, chunks) == 100);
+    for (size_t i = 0; i < chunks; ++i)
+    {
+      size_t size = WorkerPool::get_chunk_begin (100, chunks, i + 1) -
+        WorkerPool::get_chunk_begin (100, chunks, i);
+      assert (size == 100 / chunks || size == 100 / chunks + 1);
+    }
+  }
+
+  // the first maximum of each chunk, reduced in order, is the first
+  // maximum overall
+  testing_output ("ordered reduction", 1);
+  vector<int> values;
+  for (int i = 0; i < 1000; ++i)
+    values.push_back ((i * 7919) % 101);
+
+  for (size_t threads = 1; threads <= 8; ++threads)
+  {
+    WorkerPool pool (threads);
+    vector<size_t> best (pool.get_chunks (values.size ()), 0);
+    pool.run (values.size (),
+      [&values, &best] (size_t begin, size_t end, size_t chunk)
+    {
+      best[chunk] = begin;
+      for (size_t i = begin + 1; i < end; ++i)
+        if (values[i] > values[best[chunk]])
+          best[chunk] = i;
+    });
+
+    size_t result = best[0];
+    for (size_t i = 1; i < best.size (); ++i)
+      if (values[best[i]] > values[result])
+        result = best[i];
+
+    assert (result == (size_t)(std::max_element (
+      values.begin (), values.end ()) - values.begin ()));
+  }
+
+  // resizing replaces the threads
+  testing_output ("resize", 1);
+  WorkerPool pool (2);
+  pool.resize (4);
+  assert (pool.size () == 4);
+  pool.resize (1);
+  assert (pool.size () == 1);
+  pool.resize (0);
+  assert (pool.size () == WorkerPool::hardware_threads ());
+}
+
 int
 main (int /*argc*/, char ** /*argv*/)
 {
   gams::loggers::global_logger->set_level (-1);
   test_Position ();
   test_GPSPosition ();
+  test_WorkerPool ();
   //test_Region ();
   //test_SearchArea ();
   return 0;